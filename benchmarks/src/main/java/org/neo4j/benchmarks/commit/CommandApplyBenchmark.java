@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.commit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.DependencyResolver;
+import org.neo4j.kernel.impl.api.TransactionToApply;
+import org.neo4j.kernel.impl.storageengine.impl.recordstorage.RecordStorageEngine;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+/**
+ * Applies transactions to the record store of an impermanent database, through
+ * {@link RecordStorageEngine#apply(org.neo4j.storageengine.api.CommandsToApply, TransactionApplicationMode)},
+ * without appending them to the transaction log. The transactions get ids after the last committed one, which
+ * keeps the counts store happy, but are never marked as committed.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( value = 3, jvmArgsAppend = {"-Xms2g", "-Xmx2g"} )
+public class CommandApplyBenchmark
+{
+    @Param( {"1", "10", "100"} )
+    public int nodesPerTransaction;
+
+    private GraphDatabaseAPI database;
+    private RecordStorageEngine storageEngine;
+    private NodeStore nodeStore;
+    private long transactionId;
+
+    @Setup
+    public void setUp()
+    {
+        database = (GraphDatabaseAPI) new TestGraphDatabaseFactory().newImpermanentDatabase();
+        DependencyResolver resolver = database.getDependencyResolver();
+        storageEngine = resolver.resolveDependency( RecordStorageEngine.class );
+        nodeStore = storageEngine.testAccessNeoStores().getNodeStore();
+        transactionId = resolver.resolveDependency( TransactionIdStore.class ).getLastCommittedTransactionId();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public void apply() throws Exception
+    {
+        storageEngine.apply( new TransactionToApply(
+                Transactions.createNodes( nodeStore::nextId, nodesPerTransaction ), ++transactionId ),
+                TransactionApplicationMode.INTERNAL );
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.commit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.command.PhysicalLogCommandReaderV3_0_2;
+import org.neo4j.kernel.impl.transaction.log.InMemoryClosableChannel;
+import org.neo4j.kernel.impl.transaction.log.ReadableClosablePositionAwareChannel;
+import org.neo4j.kernel.impl.transaction.log.TransactionLogWriter;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
+import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
+
+/**
+ * Reads back transactions from an in-memory channel, the way they are read when they are replayed from the
+ * transaction log on recovery or shipped to other instances. {@link #readCommands(Blackhole)} measures just the
+ * deserialization of commands by {@link PhysicalLogCommandReaderV3_0_2}, while {@link #replayTransaction(Blackhole)}
+ * reads whole transactions, log entry headers included, like a transaction cursor does.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( 3 )
+public class CommandReaderBenchmark
+{
+    @Param( {"1", "10", "100"} )
+    public int nodesPerTransaction;
+
+    private final PhysicalLogCommandReaderV3_0_2 commandReader = new PhysicalLogCommandReaderV3_0_2();
+    private final LogEntryReader<ReadableClosablePositionAwareChannel> logEntryReader =
+            new VersionAwareLogEntryReader<>();
+    private final InMemoryClosableChannel commandChannel = new InMemoryClosableChannel( 1 << 20 );
+    private final InMemoryClosableChannel transactionChannel = new InMemoryClosableChannel( 1 << 20 );
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        long[] nodeId = new long[1];
+        TransactionRepresentation transaction = Transactions.createNodes( () -> nodeId[0]++, nodesPerTransaction );
+        transaction.accept( command ->
+        {
+            command.serialize( commandChannel );
+            return false;
+        } );
+        new TransactionLogWriter( new LogEntryWriter( transactionChannel ) ).append( transaction, 2 );
+    }
+
+    @Benchmark
+    public void readCommands( Blackhole blackhole ) throws IOException
+    {
+        commandChannel.positionReader( 0 );
+        for ( int i = 0; i < nodesPerTransaction; i++ )
+        {
+            blackhole.consume( commandReader.read( commandChannel ) );
+        }
+    }
+
+    @Benchmark
+    public void replayTransaction( Blackhole blackhole ) throws IOException
+    {
+        transactionChannel.positionReader( 0 );
+        // A start entry, one entry per command and a commit entry
+        for ( int i = 0; i < nodesPerTransaction + 2; i++ )
+        {
+            blackhole.consume( logEntryReader.readLogEntry( transactionChannel ) );
+        }
+    }
+}
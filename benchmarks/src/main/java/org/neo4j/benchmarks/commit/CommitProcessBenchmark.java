@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.commit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.DependencyResolver;
+import org.neo4j.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.kernel.impl.api.TransactionCommitProcess;
+import org.neo4j.kernel.impl.api.TransactionRepresentationCommitProcess;
+import org.neo4j.kernel.impl.api.TransactionToApply;
+import org.neo4j.kernel.impl.storageengine.impl.recordstorage.RecordStorageEngine;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
+import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+/**
+ * Commits transactions through {@link TransactionRepresentationCommitProcess}, which appends them to the
+ * transaction log and applies them to the store, on an impermanent database. Building the commands is included,
+ * but costs little compared to committing them.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( value = 3, jvmArgsAppend = {"-Xms2g", "-Xmx2g"} )
+public class CommitProcessBenchmark
+{
+    @Param( {"1", "10", "100"} )
+    public int nodesPerTransaction;
+
+    private GraphDatabaseAPI database;
+    private TransactionCommitProcess commitProcess;
+    private NodeStore nodeStore;
+
+    @Setup
+    public void setUp()
+    {
+        database = (GraphDatabaseAPI) new TestGraphDatabaseFactory().newImpermanentDatabase();
+        DependencyResolver resolver = database.getDependencyResolver();
+        RecordStorageEngine storageEngine = resolver.resolveDependency( RecordStorageEngine.class );
+        commitProcess = new TransactionRepresentationCommitProcess(
+                resolver.resolveDependency( TransactionAppender.class ), storageEngine );
+        nodeStore = storageEngine.testAccessNeoStores().getNodeStore();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public long commit() throws TransactionFailureException
+    {
+        return commitProcess.commit( new TransactionToApply(
+                Transactions.createNodes( nodeStore::nextId, nodesPerTransaction ) ),
+                CommitEvent.NULL, TransactionApplicationMode.INTERNAL );
+    }
+
+    @Benchmark
+    @Threads( 8 )
+    public long commitConcurrently() throws TransactionFailureException
+    {
+        return commit();
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.commit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
+import org.neo4j.kernel.impl.api.TransactionToApply;
+import org.neo4j.kernel.impl.core.DatabasePanicEventGenerator;
+import org.neo4j.kernel.impl.transaction.DeadSimpleLogVersionRepository;
+import org.neo4j.kernel.impl.transaction.DeadSimpleTransactionIdStore;
+import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.BatchingTransactionAppender;
+import org.neo4j.kernel.impl.transaction.log.LogFile;
+import org.neo4j.kernel.impl.transaction.log.LogHeaderCache;
+import org.neo4j.kernel.impl.transaction.log.PhysicalLogFile;
+import org.neo4j.kernel.impl.transaction.log.PhysicalLogFiles;
+import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
+import org.neo4j.kernel.impl.transaction.log.TransactionMetadataCache;
+import org.neo4j.kernel.impl.transaction.log.rotation.LogRotation;
+import org.neo4j.kernel.impl.transaction.log.rotation.LogRotationImpl;
+import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
+import org.neo4j.kernel.impl.util.IdOrderingQueue;
+import org.neo4j.kernel.internal.DatabaseHealth;
+import org.neo4j.kernel.internal.KernelEventHandlers;
+import org.neo4j.kernel.lifecycle.LifeSupport;
+import org.neo4j.logging.NullLog;
+
+/**
+ * Appends transactions with {@link BatchingTransactionAppender} to a transaction log on an ephemeral file system,
+ * where forcing does nothing, which leaves the cost of serializing, buffering and coordinating the appends.
+ * The log is rotated at {@link #ROTATION_THRESHOLD} and rotated out log files are deleted right away, so that
+ * the log files kept in memory by the file system don't grow without bounds.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( value = 3, jvmArgsAppend = {"-Xms2g", "-Xmx2g"} )
+public class TransactionAppenderBenchmark
+{
+    private static final long ROTATION_THRESHOLD = 16 * 1024 * 1024;
+
+    @Param( {"1", "10", "100"} )
+    public int nodesPerTransaction;
+
+    private TransactionRepresentation transaction;
+    private EphemeralFileSystemAbstraction fileSystem;
+    private LifeSupport life;
+    private BatchingTransactionAppender appender;
+
+    @Setup
+    public void createTransaction()
+    {
+        long[] nodeId = new long[1];
+        transaction = Transactions.createNodes( () -> nodeId[0]++, nodesPerTransaction );
+    }
+
+    @Setup( Level.Iteration )
+    public void setUp()
+    {
+        fileSystem = new EphemeralFileSystemAbstraction();
+        File directory = new File( "log" ).getAbsoluteFile();
+        fileSystem.mkdirs( directory );
+        TransactionIdStore transactionIdStore = new DeadSimpleTransactionIdStore();
+        PhysicalLogFiles logFiles = new PhysicalLogFiles( directory, PhysicalLogFile.DEFAULT_NAME, fileSystem );
+        life = new LifeSupport();
+        LogFile logFile = life.add( new PhysicalLogFile( fileSystem, logFiles, ROTATION_THRESHOLD,
+                transactionIdStore::getLastCommittedTransactionId, new DeadSimpleLogVersionRepository( 0 ),
+                PhysicalLogFile.NO_MONITOR, new LogHeaderCache( 10 ) ) );
+        DatabaseHealth databaseHealth = new DatabaseHealth(
+                new DatabasePanicEventGenerator( new KernelEventHandlers( NullLog.getInstance() ) ),
+                NullLog.getInstance() );
+        LogRotation logRotation = new LogRotationImpl( new LogRotation.Monitor()
+        {
+            @Override
+            public void startedRotating( long currentVersion )
+            {
+            }
+
+            @Override
+            public void finishedRotating( long currentVersion )
+            {
+                fileSystem.deleteFile( logFiles.getLogFileForVersion( currentVersion ) );
+            }
+        }, logFile, databaseHealth );
+        appender = life.add( new BatchingTransactionAppender( logFile, logRotation,
+                new TransactionMetadataCache( 1000 ), transactionIdStore, IdOrderingQueue.BYPASS, databaseHealth ) );
+        life.start();
+    }
+
+    @TearDown( Level.Iteration )
+    public void tearDown() throws IOException
+    {
+        life.shutdown();
+        fileSystem.close();
+    }
+
+    @Benchmark
+    public long append() throws IOException
+    {
+        TransactionToApply batch = new TransactionToApply( transaction );
+        long transactionId = appender.append( batch, LogAppendEvent.NULL );
+        batch.commitment().publishAsClosed();
+        return transactionId;
+    }
+
+    @Benchmark
+    @Threads( 8 )
+    public long appendConcurrently() throws IOException
+    {
+        return append();
+    }
+}
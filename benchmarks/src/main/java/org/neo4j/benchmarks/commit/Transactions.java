@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.commit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
+import org.neo4j.storageengine.api.StorageCommand;
+
+/**
+ * Builds the transactions used by the benchmarks in this package. A transaction creates a number of nodes, which
+ * gives one command per node without any need for the database to contain anything in advance.
+ */
+final class Transactions
+{
+    private Transactions()
+    {
+    }
+
+    static TransactionRepresentation createNodes( LongSupplier nodeIds, int nodes )
+    {
+        List<StorageCommand> commands = new ArrayList<>( nodes );
+        for ( int i = 0; i < nodes; i++ )
+        {
+            long nodeId = nodeIds.getAsLong();
+            NodeRecord before = new NodeRecord( nodeId );
+            NodeRecord after = new NodeRecord( nodeId );
+            after.setInUse( true );
+            after.setCreated();
+            commands.add( new Command.NodeCommand( before, after ) );
+        }
+        PhysicalTransactionRepresentation transaction = new PhysicalTransactionRepresentation( commands );
+        transaction.setHeader( new byte[0], -1, -1, 0, 0, 0, -1 );
+        return transaction;
+    }
+}
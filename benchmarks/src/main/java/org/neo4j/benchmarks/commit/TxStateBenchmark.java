@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.commit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.kernel.api.properties.Property;
+import org.neo4j.kernel.impl.api.state.TxState;
+
+/**
+ * Builds the {@link TxState} of a transaction that creates nodes, each with a label and a property, and connects
+ * them in a chain of relationships. This is what a transaction does before it gets to commit, and is what the
+ * commands are created from.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( 3 )
+public class TxStateBenchmark
+{
+    private static final int LABEL = 0;
+    private static final int PROPERTY_KEY = 0;
+    private static final int RELATIONSHIP_TYPE = 0;
+
+    @Param( {"1", "10", "100", "1000"} )
+    public int nodesPerTransaction;
+
+    @Benchmark
+    public TxState buildTxState()
+    {
+        TxState state = new TxState();
+        for ( int nodeId = 0; nodeId < nodesPerTransaction; nodeId++ )
+        {
+            state.nodeDoCreate( nodeId );
+            state.nodeDoAddLabel( LABEL, nodeId );
+            state.nodeDoReplaceProperty( nodeId, Property.noNodeProperty( nodeId, PROPERTY_KEY ),
+                    Property.intProperty( PROPERTY_KEY, nodeId ) );
+            if ( nodeId > 0 )
+            {
+                state.relationshipDoCreate( nodeId - 1, RELATIONSHIP_TYPE, nodeId - 1, nodeId );
+            }
+        }
+        return state;
+    }
+}
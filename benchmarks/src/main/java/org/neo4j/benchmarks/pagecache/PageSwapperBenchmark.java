@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.pagecache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.MemoryMappedPageSwapperFactory;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+
+/**
+ * Reads random pages of a store file that is much bigger than the page cache, so nearly every pin is a page fault,
+ * with the file swapped in by either the {@link SingleFilePageSwapperFactory "single"} or the
+ * {@link MemoryMappedPageSwapperFactory "mmap"} swapper. This is the read-mostly workload the memory mapped swapper
+ * is meant for.
+ *
+ * The file lives on the real file system, since only real files can be memory mapped. It is small enough to stay in
+ * the OS page cache, so what is measured is the cost of a fault, and not that of the disk.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( 3 )
+public class PageSwapperBenchmark
+{
+    private static final int PAGE_SIZE = 8192;
+    private static final int CACHE_PAGES = 1024;
+
+    @Param( {"single", "mmap"} )
+    public String swapper;
+
+    @Param( {"32768"} )
+    public int filePages;
+
+    private File directory;
+    private DefaultFileSystemAbstraction fileSystem;
+    private MuninnPageCache pageCache;
+    private PagedFile pagedFile;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        directory = Files.createTempDirectory( "page-swapper-benchmark" ).toFile();
+        fileSystem = new DefaultFileSystemAbstraction();
+        PageSwapperFactory swapperFactory = "mmap".equals( swapper )
+                                            ? new MemoryMappedPageSwapperFactory()
+                                            : new SingleFilePageSwapperFactory();
+        swapperFactory.setFileSystemAbstraction( fileSystem );
+        pageCache = new MuninnPageCache( swapperFactory, CACHE_PAGES, PAGE_SIZE, PageCacheTracer.NULL,
+                PageCursorTracerSupplier.NULL );
+        pagedFile = pageCache.map( new File( directory, "store" ), PAGE_SIZE, StandardOpenOption.CREATE );
+
+        // Write every page once, and flush them all, so the whole file is in the OS page cache.
+        try ( PageCursor cursor = pagedFile.io( 0, PagedFile.PF_SHARED_WRITE_LOCK ) )
+        {
+            for ( int pageId = 0; pageId < filePages; pageId++ )
+            {
+                cursor.next( pageId );
+                cursor.putLong( pageId );
+            }
+        }
+        pagedFile.flushAndForce();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        pagedFile.close();
+        pageCache.close();
+        fileSystem.close();
+        FileUtils.deleteRecursively( directory );
+    }
+
+    @Benchmark
+    public long readRandomPage() throws IOException
+    {
+        long pageId = ThreadLocalRandom.current().nextInt( filePages );
+        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK ) )
+        {
+            long value;
+            cursor.next();
+            do
+            {
+                value = cursor.getLong();
+            }
+            while ( cursor.shouldRetry() );
+            return value;
+        }
+    }
+
+    @Benchmark
+    @Threads( 8 )
+    public long readRandomPageConcurrently() throws IOException
+    {
+        return readRandomPage();
+    }
+}
@@ -39,16 +39,27 @@ object BuildInterpretedExecutionPlan extends Phase[CompilerContext, CompilationS
   override def postConditions = Set(CompilationContains[ExecutionPlan])
 
   override def process(from: CompilationState, context: CompilerContext): CompilationState = {
+    val executionPlanBuilder = new PipeExecutionPlanBuilder(context.clock, context.monitors)
+    val execPlan = buildExecutionPlan(from, context, executionPlanBuilder, InterpretedRuntimeName)
+
+    from.copy(maybeExecutionPlan = Some(execPlan))
+  }
+
+  /**
+    * Builds the pipes for the logical plan using the given builder, and wraps them in an execution plan. This is
+    * shared by the runtimes that execute pipes, which only differ in how the pipes are built.
+    */
+  def buildExecutionPlan(from: CompilationState, context: CompilerContext, executionPlanBuilder: PipeExecutionPlanBuilder,
+                         runtimeName: RuntimeName): ExecutionPlan = {
     val logicalPlan = from.logicalPlan
     val idMap = LogicalPlanIdentificationBuilder(logicalPlan)
-    val executionPlanBuilder = new PipeExecutionPlanBuilder(context.clock, context.monitors)
     val pipeBuildContext = PipeExecutionBuilderContext(context.metrics.cardinality, from.semanticTable, from.plannerName)
     val pipeInfo = executionPlanBuilder.build(from.periodicCommit, logicalPlan, idMap)(pipeBuildContext, context.planContext)
     val PipeInfo(pipe, updating, periodicCommitInfo, fp, planner) = pipeInfo
     val columns = from.statement.returnColumns
     val resultBuilderFactory = DefaultExecutionResultBuilderFactory(pipeInfo, columns, context.typeConverter, logicalPlan, idMap)
     val func = getExecutionPlanFunction(periodicCommitInfo, from.queryText, updating, resultBuilderFactory, context.notificationLogger)
-    val execPlan = new ExecutionPlan {
+    new ExecutionPlan {
       private val fingerprint = context.createFingerprintReference(fp)
 
       override def run(queryContext: QueryContext, planType: ExecutionMode, params: Map[String, Any]) =
@@ -60,14 +71,12 @@ object BuildInterpretedExecutionPlan extends Phase[CompilerContext, CompilationS
 
       override def isStale(lastTxId: () => Long, statistics: GraphStatistics) = fingerprint.isStale(lastTxId, statistics)
 
-      override def runtimeUsed = InterpretedRuntimeName
+      override def runtimeUsed = runtimeName
 
       override def notifications(planContext: PlanContext) = checkForNotifications(pipe, planContext, context.config)
 
       override def plannedIndexUsage = logicalPlan.indexUsage
     }
-
-    from.copy(maybeExecutionPlan = Some(execPlan))
   }
 
   private def checkForNotifications(pipe: Pipe, planContext: PlanContext, config: CypherCompilerConfiguration): Seq[InternalNotification] = {
@@ -40,6 +40,9 @@ class HardcodedGraphStatisticsValues extends GraphStatistics {
   def indexPropertyExistsSelectivity(label: LabelId, property: PropertyKeyId): Option[Selectivity] =
     Some(INDEX_PROPERTY_EXISTS_SELECTIVITY)
 
+  def indexSelectivity(label: LabelId, properties: Seq[PropertyKeyId]): Option[Selectivity] =
+    Some(INDEX_SELECTIVITY ^ properties.size)
+
   def nodesWithLabelCardinality(labelId: Option[LabelId]): Cardinality =
     labelId.map(_ => NODES_WITH_LABEL_CARDINALITY).getOrElse(NODES_CARDINALITY)
 
@@ -20,8 +20,10 @@
 package org.neo4j.cypher.internal.compiler.v3_2
 
 import org.neo4j.cypher.internal.compiler.v3_2.phases._
+import org.neo4j.cypher.internal.compiler.v3_2.slotted.{BuildParallelExecutionPlan, BuildSlottedExecutionPlan}
 import org.neo4j.cypher.internal.frontend.v3_2.InvalidArgumentException
-import org.neo4j.cypher.internal.frontend.v3_2.phases.Transformer
+import org.neo4j.cypher.internal.frontend.v3_2.notification.RuntimeUnsupportedNotification
+import org.neo4j.cypher.internal.frontend.v3_2.phases.{Do, If, Transformer}
 
 trait RuntimeBuilder[T <: Transformer[_, _, _]] {
   def create(runtimeName: Option[RuntimeName], useErrorsOverWarnings: Boolean): T
@@ -33,6 +35,22 @@ object CommunityRuntimeBuilder extends RuntimeBuilder[Transformer[CompilerContex
     case None | Some(InterpretedRuntimeName) =>
       BuildInterpretedExecutionPlan
 
+    case Some(name@(SlottedRuntimeName | ParallelRuntimeName)) if useErrorsOverWarnings =>
+      slottedPlanBuilder(name) andThen
+      If[CompilerContext, CompilationState, CompilationState](_.maybeExecutionPlan.isEmpty)(
+        Do(_ => throw new InvalidArgumentException("The given query is not currently supported in the selected runtime"))
+      )
+
+    case Some(name@(SlottedRuntimeName | ParallelRuntimeName)) =>
+      slottedPlanBuilder(name) andThen
+      If[CompilerContext, CompilationState, CompilationState](_.maybeExecutionPlan.isEmpty)(
+        Do((_: CompilerContext).notificationLogger.log(RuntimeUnsupportedNotification)) andThen
+        BuildInterpretedExecutionPlan
+      )
+
     case Some(x) => throw new InvalidArgumentException(s"This version of Neo4j does not support requested runtime: $x")
   }
+
+  private def slottedPlanBuilder(runtimeName: RuntimeName): Transformer[CompilerContext, CompilationState, CompilationState] =
+    if (runtimeName == ParallelRuntimeName) BuildParallelExecutionPlan else BuildSlottedExecutionPlan
 }
@@ -86,6 +86,7 @@ case object UniqueIndex extends SchemaIndexKind
 
 trait QueryExpression[+T] {
   def expression: T
+  def expressions: Seq[T] = Seq(expression)
   def map[R](f: T => R): QueryExpression[R]
 }
 
@@ -105,6 +106,16 @@ case class RangeQueryExpression[T](expression: T) extends QueryExpression[T] {
   override def map[R](f: (T) => R) = RangeQueryExpression(f(expression))
 }
 
+/*
+ * One query expression per property of a composite index, in index property order. Only exact
+ * (single or many) inner expressions are supported, since composite indexes only answer equality lookups.
+ */
+case class CompositeQueryExpression[T](inner: Seq[QueryExpression[T]]) extends QueryExpression[T] {
+  def expression: T = throw new UnsupportedOperationException("CompositeQueryExpression does not have a single expression")
+  override def expressions: Seq[T] = inner.flatMap(_.expressions)
+  override def map[R](f: (T) => R) = CompositeQueryExpression(inner.map(_.map(f)))
+}
+
 case class SchemaIndex(variable: String, label: String, property: String, kind: SchemaIndexKind, query: Option[QueryExpression[Expression]])
   extends StartItem(variable, query.map(q => Arguments.LegacyExpression(q.expression)).toIndexedSeq :+ Arguments.Index(label, property))
   with ReadOnlyStartItem with Hint with NodeStartItemVariables
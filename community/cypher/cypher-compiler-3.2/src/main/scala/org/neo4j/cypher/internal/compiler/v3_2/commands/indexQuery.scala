@@ -24,7 +24,7 @@ import org.neo4j.cypher.internal.compiler.v3_2.commands.expressions.{Expression,
 import org.neo4j.cypher.internal.compiler.v3_2.helpers.IsList
 import org.neo4j.cypher.internal.compiler.v3_2.mutation.{GraphElementPropertyFunctions, makeValueNeoSafe}
 import org.neo4j.cypher.internal.compiler.v3_2.pipes.QueryState
-import org.neo4j.cypher.internal.frontend.v3_2.CypherTypeException
+import org.neo4j.cypher.internal.frontend.v3_2.{CypherTypeException, InternalException}
 import org.neo4j.graphdb.Node
 
 import scala.collection.GenTraversableOnce
@@ -59,6 +59,36 @@ object indexQuery extends GraphElementPropertyFunctions {
           innerRange.mapBounds(expression => makeValueNeoSafe(expression(m)(state)))
       }
       index(range).toIterator
+
+    case CompositeQueryExpression(innerExpressions) =>
+      val valueCombinations = innerExpressions.foldLeft(Seq(Seq.empty[Any])) {
+        case (combinations, queryExpression) =>
+          val values = compositeValues(queryExpression, m, state, labelName, propertyNames)
+          for (combination <- combinations; value <- values) yield combination :+ value
+      }
+      valueCombinations.iterator.flatMap(values => index(values).toIterator)
+  }
+
+  private def compositeValues(queryExpression: QueryExpression[Expression],
+                              m: ExecutionContext,
+                              state: QueryState,
+                              labelName: String,
+                              propertyNames: Seq[String]): Seq[Any] = queryExpression match {
+    case SingleQueryExpression(inner) =>
+      inner(m)(state) match {
+        case null => Seq.empty
+        case value => Seq(makeValueNeoSafe(value))
+      }
+
+    case ManyQueryExpression(inner) =>
+      inner(m)(state) match {
+        case IsList(coll) => coll.toSet.toIndexedSeq.filter(_ != null).map(makeValueNeoSafe(_))
+        case null => Seq.empty
+        case _ => throw new CypherTypeException(s"Expected the value for looking up :$labelName(${propertyNames.mkString(",")}) to be a collection but it was not.")
+      }
+
+    case _ =>
+      throw new InternalException(s"Composite index seeks only support exact lookups, got $queryExpression")
   }
 
   private def lookupNodes(value: Any, index: Any => GenTraversableOnce[Node]) = value match {
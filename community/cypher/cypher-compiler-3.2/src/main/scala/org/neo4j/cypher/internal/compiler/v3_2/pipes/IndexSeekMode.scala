@@ -19,12 +19,13 @@
  */
 package org.neo4j.cypher.internal.compiler.v3_2.pipes
 
-import org.neo4j.cypher.internal.compiler.v3_2.commands.{QueryExpression, RangeQueryExpression}
+import org.neo4j.cypher.internal.compiler.v3_2.commands.{CompositeQueryExpression, QueryExpression, RangeQueryExpression}
 import org.neo4j.graphdb.Node
 import org.neo4j.cypher.internal.compiler.v3_2.IndexDescriptor
 
 case class IndexSeekModeFactory(unique: Boolean, readOnly: Boolean) {
   def fromQueryExpression[T](qexpr: QueryExpression[T]) = qexpr match {
+    case _: CompositeQueryExpression[_] => CompositeIndexSeek
     case _: RangeQueryExpression[_] if unique => UniqueIndexSeekByRange
     case _: RangeQueryExpression[_] => IndexSeekByRange
     case _ if unique && !readOnly => LockingUniqueIndexSeek
@@ -61,6 +62,14 @@ case object LockingUniqueIndexSeek extends IndexSeekMode {
   override def name: String = "NodeUniqueIndexSeek(Locking)"
 }
 
+case object CompositeIndexSeek extends IndexSeekMode {
+
+  override def indexFactory(descriptor: IndexDescriptor): (QueryState) => (Any) => Iterator[Node] =
+    (state: QueryState) => (x: Any) => state.query.compositeIndexSeek(descriptor, x.asInstanceOf[Seq[Any]])
+
+  override def name: String = "NodeIndexSeek"
+}
+
 sealed trait SeekByRange {
   self: IndexSeekMode =>
   override def indexFactory(descriptor: IndexDescriptor): (QueryState) => (Any) => Iterator[Node] =
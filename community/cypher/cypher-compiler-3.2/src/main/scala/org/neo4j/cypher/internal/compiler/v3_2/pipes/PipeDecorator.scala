@@ -30,6 +30,12 @@ trait PipeDecorator {
 
   def decorate(pipe: Pipe, iter: Iterator[ExecutionContext]): Iterator[ExecutionContext]
 
+  /*
+   * Used by pipes that hand their rows on in batches instead of through an iterator, to report how many rows
+   * they produced.
+   */
+  def rowsProduced(pipe: Pipe, rows: Int): Unit
+
   def decorate(plan: InternalPlanDescription, isProfileReady: => Boolean): InternalPlanDescription
 
   /*
@@ -42,6 +48,8 @@ trait PipeDecorator {
 object NullPipeDecorator extends PipeDecorator {
   def decorate(pipe: Pipe, iter: Iterator[ExecutionContext]): Iterator[ExecutionContext] = iter
 
+  def rowsProduced(pipe: Pipe, rows: Int): Unit = {}
+
   def decorate(plan: InternalPlanDescription, isProfileReady: => Boolean): InternalPlanDescription = plan
 
   def decorate(pipe: Pipe, state: QueryState): QueryState = state
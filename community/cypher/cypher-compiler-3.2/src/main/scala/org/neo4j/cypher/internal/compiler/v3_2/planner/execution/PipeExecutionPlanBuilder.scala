@@ -212,6 +212,9 @@ case class ActualPipeBuilder(monitors: Monitors, recurse: LogicalPlan => Pipe, r
         val indexSeekMode = IndexSeekModeFactory(unique = true, readOnly = readOnly).fromQueryExpression(valueExpr)
         NodeIndexSeekPipe(ident, label, Seq(propertyKey), valueExpr.map(buildExpression), indexSeekMode)(id = id)
 
+      case NodeCompositeIndexSeek(IdName(ident), label, propertyKeys, valueExpr, _) =>
+        NodeIndexSeekPipe(ident, label, propertyKeys, valueExpr.map(buildExpression), CompositeIndexSeek)(id = id)
+
       case NodeIndexScan(IdName(ident), label, propertyKey, _) =>
         NodeIndexScanPipe(ident, label, propertyKey)(id = id)
 
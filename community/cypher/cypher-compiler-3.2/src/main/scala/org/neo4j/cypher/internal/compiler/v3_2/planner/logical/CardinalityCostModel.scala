@@ -63,6 +63,7 @@ object CardinalityCostModel extends CostModel {
 
     case _: NodeUniqueIndexSeek |
          _: NodeIndexSeek |
+         _: NodeCompositeIndexSeek |
          _: NodeIndexContainsScan |
          _: NodeIndexEndsWithScan
     => 1.9
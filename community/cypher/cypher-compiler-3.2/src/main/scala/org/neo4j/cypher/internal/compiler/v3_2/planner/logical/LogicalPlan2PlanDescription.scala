@@ -66,6 +66,10 @@ case class LogicalPlan2PlanDescription(idMap: Map[LogicalPlan, Id], readOnly: Bo
         val (indexMode, indexDesc) = getDescriptions(label, propertyKey, valueExpr, unique = true, readOnly)
         PlanDescriptionImpl(id, indexMode.name, NoChildren, Seq(indexDesc), variables)
 
+      case NodeCompositeIndexSeek(_, label, propertyKeys, _, _) =>
+        val indexDesc = Index(label.name, propertyKeys.map(_.name).mkString(", "))
+        PlanDescriptionImpl(id, CompositeIndexSeek.name, NoChildren, Seq(indexDesc), variables)
+
       case ProduceResult(_, _) =>
         PlanDescriptionImpl(id, "ProduceResults", NoChildren, Seq(), variables)
 
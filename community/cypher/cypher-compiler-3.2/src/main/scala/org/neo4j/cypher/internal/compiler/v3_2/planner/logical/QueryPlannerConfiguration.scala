@@ -51,6 +51,9 @@ object QueryPlannerConfiguration {
     // MATCH (n) RETURN n
     allNodesLeafPlanner,
 
+    // MATCH (n:Person) WHERE n.first = ... AND n.last = ... RETURN n
+    compositeIndexSeekLeafPlanner,
+
     // Legacy indices
     legacyHintLeafPlanner,
 
@@ -121,6 +121,8 @@ abstract class LogicalPlan
         (acc) => acc :+ SchemaIndexSeekUsage(idName.name, label.name, propertyKey.name)
       case NodeUniqueIndexSeek(idName, label, propertyKey, _, _) =>
         (acc) => acc :+ SchemaIndexSeekUsage(idName.name, label.name, propertyKey.name)
+      case NodeCompositeIndexSeek(idName, label, propertyKeys, _, _) =>
+        (acc) => acc ++ propertyKeys.map(propertyKey => SchemaIndexSeekUsage(idName.name, label.name, propertyKey.name))
       case NodeIndexScan(idName, label, propertyKey, _) =>
         (acc) => acc :+ SchemaIndexScanUsage(idName.name, label.name, propertyKey.name)
       case LegacyNodeIndexSeek(idName, NodeByIdentifiedIndex(_, index, _, _), _) =>
@@ -20,13 +20,15 @@
 package org.neo4j.cypher.internal.compiler.v3_2.planner.logical.steps
 
 import org.neo4j.cypher.internal.compiler.v3_2.ast.ResolvedCall
-import org.neo4j.cypher.internal.compiler.v3_2.commands.QueryExpression
+import org.neo4j.cypher.internal.compiler.v3_2.commands.{CompositeQueryExpression, ManyQueryExpression, QueryExpression}
 import org.neo4j.cypher.internal.compiler.v3_2.helpers.ListSupport
 import org.neo4j.cypher.internal.compiler.v3_2.pipes.{LazyType, _}
 import org.neo4j.cypher.internal.compiler.v3_2.planner.logical.Metrics.CardinalityModel
+import org.neo4j.cypher.internal.compiler.v3_2.planner.logical.cardinality.IndependenceCombiner
 import org.neo4j.cypher.internal.compiler.v3_2.planner.logical.plans.{DeleteExpression => DeleteExpressionPlan, Limit => LimitPlan, LoadCSV => LoadCSVPlan, Skip => SkipPlan, _}
 import org.neo4j.cypher.internal.compiler.v3_2.planner.logical.{LogicalPlanningContext, SortDescription}
 import org.neo4j.cypher.internal.compiler.v3_2.planner.{_}
+import org.neo4j.cypher.internal.compiler.v3_2.spi.GraphStatistics
 import org.neo4j.cypher.internal.frontend.v3_2.ast._
 import org.neo4j.cypher.internal.frontend.v3_2.symbols._
 import org.neo4j.cypher.internal.frontend.v3_2.{InternalException, SemanticDirection, ast, _}
@@ -185,6 +187,60 @@ case class LogicalPlanProducer(cardinalityModel: CardinalityModel) extends ListS
     NodeIndexSeek(idName, label, propertyKey, valueExpr, argumentIds)(solved)
   }
 
+  def planNodeCompositeIndexSeek(idName: IdName,
+                                 label: ast.LabelToken,
+                                 propertyKeys: Seq[ast.PropertyKeyToken],
+                                 valueExpr: QueryExpression[Expression],
+                                 solvedPredicates: Seq[Expression] = Seq.empty,
+                                 solvedHint: Option[UsingIndexHint] = None,
+                                 argumentIds: Set[IdName])(implicit context: LogicalPlanningContext): LogicalPlan = {
+    val solved = RegularPlannerQuery(queryGraph = QueryGraph.empty
+      .addPatternNodes(idName)
+      .addPredicates(solvedPredicates: _*)
+      .addHints(solvedHint)
+      .addArgumentIds(argumentIds.toIndexedSeq)
+    )
+    val labelled = RegularPlannerQuery(queryGraph = QueryGraph.empty
+      .addPatternNodes(idName)
+      .addPredicates(solvedPredicates.filter(_.isInstanceOf[HasLabels]): _*)
+      .addArgumentIds(argumentIds.toIndexedSeq)
+    )
+    NodeCompositeIndexSeek(idName, label, propertyKeys, valueExpr, argumentIds)(
+      estimateCompositeIndexSeek(solved, labelled, label, propertyKeys, valueExpr))
+  }
+
+  /*
+   * The properties of a composite index are seldom independent of each other, so a seek is estimated from the
+   * selectivity of the index as a whole, applied to the labelled nodes, rather than from the single property
+   * predicates it solves. Without statistics for the index it falls back to the latter.
+   */
+  private def estimateCompositeIndexSeek(solved: PlannerQuery,
+                                         labelled: PlannerQuery,
+                                         label: ast.LabelToken,
+                                         propertyKeys: Seq[ast.PropertyKeyToken],
+                                         valueExpr: QueryExpression[Expression])
+                                        (implicit context: LogicalPlanningContext): PlannerQuery with CardinalityEstimation =
+    context.planContext.statistics.indexSelectivity(label.nameId, propertyKeys.map(_.nameId)) match {
+      case Some(selectivity) =>
+        val lookups = valueExpr match {
+          case CompositeQueryExpression(inner) => inner.map(numberOfLookups).product
+          case _ => 1
+        }
+        val seekSelectivity = IndependenceCombiner.orTogetherSelectivities(Seq.fill(lookups)(selectivity))
+          .getOrElse(selectivity)
+        val labelledNodes = cardinalityModel(labelled, context.input, context.semanticTable)
+        CardinalityEstimation.lift(solved, labelledNodes * seekSelectivity)
+
+      case None =>
+        estimatePlannerQuery(solved)
+    }
+
+  private def numberOfLookups(queryExpression: QueryExpression[Expression]): Int = queryExpression match {
+    case ManyQueryExpression(ListLiteral(expressions)) => expressions.size
+    case ManyQueryExpression(_) => GraphStatistics.DEFAULT_NUMBER_OF_INDEX_LOOKUPS.amount.toInt
+    case _ => 1
+  }
+
   def planNodeIndexScan(idName: IdName,
                         label: ast.LabelToken,
                         propertyKey: ast.PropertyKeyToken,
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_2.planner.logical.steps
+
+import org.neo4j.cypher.internal.compiler.v3_2.commands.{CompositeQueryExpression, QueryExpression, SingleQueryExpression}
+import org.neo4j.cypher.internal.compiler.v3_2.planner.logical.plans._
+import org.neo4j.cypher.internal.compiler.v3_2.planner.logical.{LeafPlanner, LogicalPlanningContext}
+import org.neo4j.cypher.internal.frontend.v3_2.ast._
+import org.neo4j.cypher.internal.ir.v3_2.{IdName, QueryGraph}
+
+/*
+ * Plans a seek on a composite index when every property of the index is bound by an equality (or IN)
+ * predicate on the same node. Composite indexes only answer exact lookups, so range and prefix predicates
+ * are left to the single property planners.
+ *
+ * TODO: Seeks with exact values for the leading properties and a range or prefix on the last one are not planned
+ * yet. They need range support in the composite index readers and sorted composite updates in the transaction state.
+ *
+ * The cardinality of the seek is estimated from the selectivity of the composite index as a whole
+ * (see LogicalPlanProducer.planNodeCompositeIndexSeek).
+ */
+object compositeIndexSeekLeafPlanner extends LeafPlanner {
+
+  private case class EqualityPredicate(idName: IdName, propertyKey: PropertyKeyName,
+                                       queryExpression: QueryExpression[Expression], predicate: Expression)
+
+  override def apply(qg: QueryGraph)(implicit context: LogicalPlanningContext): Seq[LogicalPlan] = {
+    implicit val semanticTable = context.semanticTable
+    val arguments: Set[Variable] = qg.argumentIds.map(n => Variable(n.name)(null))
+
+    val equalityPredicates = qg.selections.flatPredicates.collect {
+      // n.prop IN [ ... ]
+      case predicate@AsPropertySeekable(seekable: PropertySeekable)
+        if seekable.args.dependencies.forall(arguments) && !arguments(seekable.ident) =>
+        EqualityPredicate(IdName(seekable.name), seekable.propertyKey, seekable.args.asQueryExpression, predicate)
+
+      // ... = n.prop
+      case predicate@Equals(a, Property(seekable@Variable(name), propKeyName))
+        if a.dependencies.forall(arguments) && !arguments(seekable) =>
+        EqualityPredicate(IdName(name), propKeyName, SingleQueryExpression(a), predicate)
+    }
+
+    // a composite index needs at least two bound properties on the same node
+    val candidates = equalityPredicates.groupBy(_.idName).filter(_._2.map(_.propertyKey.name).distinct.size > 1).keySet
+
+    for ((idName, labelPredicates) <- qg.selections.labelPredicates.toIndexedSeq if candidates(idName);
+         labelPredicate <- labelPredicates.toIndexedSeq;
+         labelName <- labelPredicate.labels if context.planContext.hasIndexRule(labelName.name);
+         labelId <- labelName.id.toSeq;
+         indexDescriptor <- context.planContext.getCompositeIndexRules(labelName.name);
+         matches = indexDescriptor.properties.toIndexedSeq.map { propertyKeyId =>
+           equalityPredicates.find(p => p.idName == idName && p.propertyKey.id.contains(propertyKeyId))
+         }
+         if matches.forall(_.isDefined))
+      yield {
+        val found = matches.flatten
+        val propertyKeys = found.map(p => PropertyKeyToken(p.propertyKey, p.propertyKey.id.head))
+        val valueExpr = CompositeQueryExpression(found.map(_.queryExpression))
+        context.logicalPlanProducer.planNodeCompositeIndexSeek(idName, LabelToken(labelName, labelId), propertyKeys,
+          valueExpr, found.map(_.predicate) :+ labelPredicate, None, qg.argumentIds)
+      }
+  }
+}
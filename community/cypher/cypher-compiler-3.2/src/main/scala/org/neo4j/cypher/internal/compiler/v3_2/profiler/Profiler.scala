@@ -19,6 +19,7 @@
  */
 package org.neo4j.cypher.internal.compiler.v3_2.profiler
 
+import org.neo4j.collection.primitive.PrimitiveLongIterator
 import org.neo4j.cypher.internal.compiler.v3_2._
 import org.neo4j.cypher.internal.compiler.v3_2.pipes.{Pipe, PipeDecorator, QueryState}
 import org.neo4j.cypher.internal.compiler.v3_2.planDescription.InternalPlanDescription.Arguments
@@ -26,6 +27,8 @@ import org.neo4j.cypher.internal.compiler.v3_2.planDescription.{Id, InternalPlan
 import org.neo4j.cypher.internal.compiler.v3_2.spi.{DelegatingOperations, DelegatingQueryContext, Operations, QueryContext}
 import org.neo4j.cypher.internal.frontend.v3_2.ProfilerStatisticsNotReadyException
 import org.neo4j.graphdb.{Node, PropertyContainer, Relationship}
+import org.neo4j.kernel.impl.api.RelationshipVisitor
+import org.neo4j.kernel.impl.api.store.RelationshipIterator
 
 import scala.collection.mutable
 
@@ -33,7 +36,7 @@ class Profiler extends PipeDecorator {
   outerProfiler =>
 
   val dbHitsStats: mutable.Map[Id, ProfilingQueryContext] = mutable.Map.empty
-  val rowStats: mutable.Map[Id, ProfilingIterator] = mutable.Map.empty
+  val rowStats: mutable.Map[Id, Counter] = mutable.Map.empty
   private var parentPipe: Option[Pipe] = None
 
 
@@ -46,6 +49,9 @@ class Profiler extends PipeDecorator {
     resultIter
   }
 
+  def rowsProduced(pipe: Pipe, rows: Int): Unit =
+    rowStats.getOrElseUpdate(pipe.id, new Counter {}).increment(rows)
+
   def decorate(pipe: Pipe, state: QueryState): QueryState = {
     val decoratedContext = dbHitsStats.getOrElseUpdate(pipe.id, state.query match {
       case p: ProfilingQueryContext => new ProfilingQueryContext(p.inner, pipe)
@@ -81,6 +87,8 @@ class Profiler extends PipeDecorator {
 
     def decorate(pipe: Pipe, iter: Iterator[ExecutionContext]): Iterator[ExecutionContext] = iter
 
+    def rowsProduced(pipe: Pipe, rows: Int): Unit = {}
+
     def decorate(plan: InternalPlanDescription, isProfileReady: => Boolean): InternalPlanDescription =
       outerProfiler.decorate(plan, isProfileReady)
   }
@@ -96,6 +104,10 @@ trait Counter {
   def increment() {
     _count += 1L
   }
+
+  def increment(amount: Long) {
+    _count += amount
+  }
 }
 
 final class ProfilingQueryContext(inner: QueryContext, val p: Pipe)
@@ -116,9 +128,38 @@ final class ProfilingQueryContext(inner: QueryContext, val p: Pipe)
     }
   }
 
+  override protected def manyDbHits(inner: PrimitiveLongIterator): PrimitiveLongIterator = {
+    increment()
+    new PrimitiveLongIterator {
+      override def hasNext: Boolean = inner.hasNext
+
+      override def next(): Long = {
+        increment()
+        inner.next()
+      }
+    }
+  }
+
+  override protected def manyDbHits(inner: RelationshipIterator): RelationshipIterator = {
+    increment()
+    new RelationshipIterator {
+      override def relationshipVisit[EXCEPTION <: Exception](relationshipId: Long,
+                                                             visitor: RelationshipVisitor[EXCEPTION]): Boolean =
+        inner.relationshipVisit(relationshipId, visitor)
+
+      override def hasNext: Boolean = inner.hasNext
+
+      override def next(): Long = {
+        increment()
+        inner.next()
+      }
+    }
+  }
+
   class ProfilerOperations[T <: PropertyContainer](inner: Operations[T]) extends DelegatingOperations[T](inner) {
     override protected def singleDbHit[A](value: A): A = self.singleDbHit(value)
     override protected def manyDbHits[A](value: Iterator[A]): Iterator[A] = self.manyDbHits(value)
+    override protected def manyDbHits(value: PrimitiveLongIterator): PrimitiveLongIterator = self.manyDbHits(value)
   }
 
   override def nodeOps: Operations[Node] = new ProfilerOperations(inner.nodeOps)
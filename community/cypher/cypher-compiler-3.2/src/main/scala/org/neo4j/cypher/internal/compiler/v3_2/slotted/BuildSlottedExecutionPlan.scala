@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_2.slotted
+
+import org.neo4j.cypher.internal.compiler.v3_2.phases.{CompilationState, CompilerContext}
+import org.neo4j.cypher.internal.compiler.v3_2.planner.CantCompileQueryException
+import org.neo4j.cypher.internal.compiler.v3_2.planner.execution.PipeExecutionPlanBuilder
+import org.neo4j.cypher.internal.compiler.v3_2.{BuildInterpretedExecutionPlan, ParallelRuntimeName, RuntimeName, SlottedRuntimeName}
+import org.neo4j.cypher.internal.frontend.v3_2.phases.CompilationPhaseTracer.CompilationPhase.PIPE_BUILDING
+import org.neo4j.cypher.internal.frontend.v3_2.phases.{Condition, Phase}
+
+/**
+  * Builds an execution plan for the slotted runtime, where rows are arrays of slots rather than maps. Queries the
+  * slotted runtime can not handle are left without an execution plan, for the caller to fall back on.
+  *
+  * With `parallel` set, aggregations over a scan are run on a pool of worker threads, see
+  * [[org.neo4j.cypher.internal.compiler.v3_2.slotted.pipes.ParallelAggregationMorselPipe]].
+  */
+class BuildSlottedExecutionPlan(runtimeName: RuntimeName, parallel: Boolean)
+  extends Phase[CompilerContext, CompilationState, CompilationState] {
+
+  override def phase = PIPE_BUILDING
+
+  override def description = s"create ${runtimeName.name.toLowerCase} execution plan"
+
+  override def postConditions: Set[Condition] = Set.empty
+
+  override def process(from: CompilationState, context: CompilerContext): CompilationState = {
+    try {
+      val pipeline = SlotAllocation.allocateSlots(from.logicalPlan)
+      val executionPlanBuilder =
+        new PipeExecutionPlanBuilder(context.clock, context.monitors, new SlottedPipeBuilderFactory(pipeline, parallel))
+      val execPlan = BuildInterpretedExecutionPlan.buildExecutionPlan(from, context, executionPlanBuilder, runtimeName)
+
+      from.copy(maybeExecutionPlan = Some(execPlan))
+    } catch {
+      case _: CantCompileQueryException =>
+        from.copy(maybeExecutionPlan = None)
+    }
+  }
+}
+
+object BuildSlottedExecutionPlan extends BuildSlottedExecutionPlan(SlottedRuntimeName, parallel = false)
+
+object BuildParallelExecutionPlan extends BuildSlottedExecutionPlan(ParallelRuntimeName, parallel = true)
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_2.slotted
+
+/**
+  * A batch of up to `capacity` rows of a slotted pipeline, stored column by column: all values of a slot are next to
+  * each other in one primitive array. Batched pipes pass whole morsels between each other, and work on them in
+  * plain loops instead of pulling rows one at a time through a chain of iterators.
+  */
+class Morsel(val pipeline: PipelineInformation, val capacity: Int) {
+
+  private val longs = new Array[Long](pipeline.numberOfLongs * capacity)
+  private val refs = new Array[Any](pipeline.numberOfReferences * capacity)
+
+  /**
+    * The number of rows in this morsel. Only the first `size` rows hold valid values.
+    */
+  var size: Int = 0
+
+  def isFull: Boolean = size == capacity
+
+  def getLongAt(row: Int, offset: Int): Long = longs(offset * capacity + row)
+
+  def setLongAt(row: Int, offset: Int, value: Long): Unit = longs(offset * capacity + row) = value
+
+  def getRefAt(row: Int, offset: Int): Any = refs(offset * capacity + row)
+
+  def setRefAt(row: Int, offset: Int, value: Any): Unit = refs(offset * capacity + row) = value
+
+  /**
+    * Copies all slots of a row of this morsel into a row of the given morsel, which must have the same pipeline.
+    */
+  def copyRowTo(row: Int, to: Morsel, toRow: Int): Unit = {
+    var offset = 0
+    while (offset < pipeline.numberOfLongs) {
+      to.longs(offset * to.capacity + toRow) = longs(offset * capacity + row)
+      offset += 1
+    }
+    offset = 0
+    while (offset < pipeline.numberOfReferences) {
+      to.refs(offset * to.capacity + toRow) = refs(offset * capacity + row)
+      offset += 1
+    }
+  }
+
+  /**
+    * Copies a row of a single-row pipe into a row of this morsel.
+    */
+  def copyRowFrom(input: PrimitiveExecutionContext, row: Int): Unit = {
+    var offset = 0
+    while (offset < pipeline.numberOfLongs) {
+      longs(offset * capacity + row) = input.getLongAt(offset)
+      offset += 1
+    }
+    offset = 0
+    while (offset < pipeline.numberOfReferences) {
+      refs(offset * capacity + row) = input.getRefAt(offset)
+      offset += 1
+    }
+  }
+
+  /**
+    * Copies a row of this morsel out into a row of its own, for the pipes that work on one row at a time.
+    */
+  def rowAt(row: Int): PrimitiveExecutionContext = {
+    val context = PrimitiveExecutionContext(pipeline)
+    var offset = 0
+    while (offset < pipeline.numberOfLongs) {
+      context.setLongAt(offset, longs(offset * capacity + row))
+      offset += 1
+    }
+    offset = 0
+    while (offset < pipeline.numberOfReferences) {
+      context.setRefAt(offset, refs(offset * capacity + row))
+      offset += 1
+    }
+    context
+  }
+
+  /**
+    * A row view of this morsel, used to evaluate expressions against its rows without copying them out.
+    */
+  lazy val cursor: MorselExecutionContext = new MorselExecutionContext(this)
+}
+
+object Morsel {
+  val DEFAULT_SIZE = 1024
+
+  def apply(pipeline: PipelineInformation): Morsel = new Morsel(pipeline, DEFAULT_SIZE)
+}
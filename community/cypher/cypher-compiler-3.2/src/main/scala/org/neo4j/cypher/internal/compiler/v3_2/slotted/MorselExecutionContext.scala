@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_2.slotted
+
+/**
+  * A movable view of a single row of a [[Morsel]]. Reads and writes go straight to the columns of the morsel, so
+  * the slotted expressions can be evaluated against morsel rows without copying them.
+  */
+class MorselExecutionContext(val morsel: Morsel) extends PrimitiveExecutionContext(morsel.pipeline) {
+
+  var currentRow: Int = 0
+
+  def moveTo(row: Int): MorselExecutionContext = {
+    currentRow = row
+    this
+  }
+
+  override def setLongAt(offset: Int, value: Long): Unit = morsel.setLongAt(currentRow, offset, value)
+
+  override def getLongAt(offset: Int): Long = morsel.getLongAt(currentRow, offset)
+
+  override def setRefAt(offset: Int, value: Any): Unit = morsel.setRefAt(currentRow, offset, value)
+
+  override def getRefAt(offset: Int): Any = morsel.getRefAt(currentRow, offset)
+
+  override def copyFrom(input: PrimitiveExecutionContext): Unit = morsel.copyRowFrom(input, currentRow)
+
+  override def toString: String = s"MorselExecutionContext(row=$currentRow)"
+}
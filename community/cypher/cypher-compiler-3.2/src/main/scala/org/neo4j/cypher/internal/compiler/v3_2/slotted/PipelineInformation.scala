@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_2.slotted
+
+import org.neo4j.cypher.internal.compiler.v3_2.planner.CantCompileQueryException
+import org.neo4j.cypher.internal.frontend.v3_2.InternalException
+import org.neo4j.cypher.internal.frontend.v3_2.symbols.CypherType
+
+/**
+  * The row layout of a slotted pipeline: the slot assigned to each variable, and the number of long and reference
+  * slots every row needs.
+  */
+case class PipelineInformation(slots: Map[String, Slot], numberOfLongs: Int, numberOfReferences: Int) {
+
+  def newLong(name: String, typ: CypherType): PipelineInformation = {
+    checkNotAlreadyAllocated(name)
+    copy(slots = slots + (name -> LongSlot(numberOfLongs, typ)), numberOfLongs = numberOfLongs + 1)
+  }
+
+  def newReference(name: String, typ: CypherType): PipelineInformation = {
+    checkNotAlreadyAllocated(name)
+    copy(slots = slots + (name -> RefSlot(numberOfReferences, typ)), numberOfReferences = numberOfReferences + 1)
+  }
+
+  def get(name: String): Option[Slot] = slots.get(name)
+
+  def apply(name: String): Slot =
+    slots.getOrElse(name, throw new InternalException(s"No slot has been allocated for `$name`"))
+
+  private def checkNotAlreadyAllocated(name: String): Unit =
+    if (slots.contains(name))
+      throw new CantCompileQueryException(s"A slot has already been allocated for `$name`")
+}
+
+object PipelineInformation {
+  val empty = PipelineInformation(Map.empty, numberOfLongs = 0, numberOfReferences = 0)
+}
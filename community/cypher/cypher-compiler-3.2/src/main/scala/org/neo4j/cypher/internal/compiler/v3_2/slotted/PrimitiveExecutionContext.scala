@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_2.slotted
+
+import org.neo4j.cypher.internal.compiler.v3_2.ExecutionContext
+import org.neo4j.cypher.internal.frontend.v3_2.InternalException
+
+import scala.collection.mutable.{Map => MutableMap}
+
+/**
+  * A row of a slotted pipeline. Values are read and written by the offsets in the [[PipelineInformation]] of the
+  * pipeline, so there is no map to hash into or to copy. Looking values up by name is not supported, and fails.
+  */
+class PrimitiveExecutionContext(val pipeline: PipelineInformation) extends ExecutionContext(null) {
+
+  private val longs = new Array[Long](pipeline.numberOfLongs)
+  private val refs = new Array[Any](pipeline.numberOfReferences)
+
+  def copyFrom(input: PrimitiveExecutionContext): Unit = {
+    System.arraycopy(input.longs, 0, longs, 0, input.longs.length)
+    System.arraycopy(input.refs, 0, refs, 0, input.refs.length)
+  }
+
+  def setLongAt(offset: Int, value: Long): Unit = longs(offset) = value
+
+  def getLongAt(offset: Int): Long = longs(offset)
+
+  def setRefAt(offset: Int, value: Any): Unit = refs(offset) = value
+
+  def getRefAt(offset: Int): Any = refs(offset)
+
+  override def get(key: String): Option[Any] = fail()
+
+  override def iterator: Iterator[(String, Any)] = fail()
+
+  override def size: Int = fail()
+
+  override def foreach[U](f: ((String, Any)) => U): Unit = fail()
+
+  override def +=(kv: (String, Any)): this.type = fail()
+
+  override def -=(key: String): this.type = fail()
+
+  override def clone(): ExecutionContext = fail()
+
+  override protected def createWithNewMap(newMap: MutableMap[String, Any]): ExecutionContext = fail()
+
+  override def toString: String =
+    s"PrimitiveExecutionContext(longs=${longs.mkString("[", ", ", "]")}, refs=${refs.mkString("[", ", ", "]")})"
+
+  private def fail(): Nothing =
+    throw new InternalException("Values in a slotted row can not be accessed by name, use the pipeline slots instead")
+}
+
+object PrimitiveExecutionContext {
+  def apply(pipeline: PipelineInformation) = new PrimitiveExecutionContext(pipeline)
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_2.slotted
+
+import org.neo4j.cypher.internal.compiler.v3_2.planner.CantCompileQueryException
+import org.neo4j.cypher.internal.compiler.v3_2.planner.logical.plans._
+import org.neo4j.cypher.internal.frontend.v3_2.ast.{Expression, Variable}
+import org.neo4j.cypher.internal.frontend.v3_2.symbols._
+import org.neo4j.cypher.internal.ir.v3_2.IdName
+
+/**
+  * Assigns a slot to every variable introduced by a logical plan. All plans of a query share the same row layout.
+  * Nodes and relationships are kept by id in long slots, and the values of projections in reference slots.
+  *
+  * Only linear plans made up of the plans below are supported; for anything else this throws
+  * [[CantCompileQueryException]], and the query is left to the interpreted runtime.
+  */
+object SlotAllocation {
+
+  def allocateSlots(plan: LogicalPlan): PipelineInformation = plan match {
+    case SingleRow() =>
+      PipelineInformation.empty
+
+    case AllNodesScan(IdName(name), argumentIds) if argumentIds.isEmpty =>
+      PipelineInformation.empty.newLong(name, CTNode)
+
+    case NodeByLabelScan(IdName(name), _, argumentIds) if argumentIds.isEmpty =>
+      PipelineInformation.empty.newLong(name, CTNode)
+
+    case Expand(source, IdName(from), _, _, IdName(to), IdName(relName), mode) =>
+      val pipeline = allocateSlots(source)
+      checkIsNode(pipeline, from)
+      val withRelationship = pipeline.newLong(relName, CTRelationship)
+      mode match {
+        case ExpandAll =>
+          withRelationship.newLong(to, CTNode)
+        case ExpandInto =>
+          checkIsNode(pipeline, to)
+          withRelationship
+      }
+
+    case Selection(_, source) =>
+      allocateSlots(source)
+
+    case Projection(source, expressions) =>
+      allocateProjections(allocateSlots(source), expressions)
+
+    case Aggregation(source, groupingExpressions, aggregationExpressions) =>
+      allocateProjections(allocateProjections(allocateSlots(source), groupingExpressions), aggregationExpressions)
+
+    case Limit(source, _, DoNotIncludeTies) =>
+      allocateSlots(source)
+
+    case Skip(source, _) =>
+      allocateSlots(source)
+
+    case ProduceResult(_, source) =>
+      allocateSlots(source)
+
+    case _ =>
+      throw new CantCompileQueryException(s"The slotted runtime does not support ${plan.getClass.getSimpleName}")
+  }
+
+  private def allocateProjections(in: PipelineInformation, expressions: Map[String, Expression]): PipelineInformation =
+    expressions.foldLeft(in) {
+      case (pipeline, (name, Variable(variableName))) if name == variableName =>
+        pipeline
+
+      case (pipeline, (name, _)) =>
+        pipeline.get(name) match {
+          case None => pipeline.newReference(name, CTAny)
+          case Some(_: RefSlot) => pipeline
+          case Some(_: LongSlot) =>
+            throw new CantCompileQueryException(s"Can not project a new value into the entity slot of `$name`")
+        }
+    }
+
+  private def checkIsNode(pipeline: PipelineInformation, name: String): Unit = pipeline.get(name) match {
+    case Some(LongSlot(_, CTNode)) =>
+    case _ => throw new CantCompileQueryException(s"Expected `$name` to be a node in a long slot")
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_2.slotted
+
+import org.neo4j.cypher.internal.compiler.v3_2.ast.NestedPlanExpression
+import org.neo4j.cypher.internal.compiler.v3_2.ast.convert.commands.ExpressionConverters._
+import org.neo4j.cypher.internal.compiler.v3_2.commands.expressions.{AggregationExpression, Property, Variable, Expression => CommandExpression}
+import org.neo4j.cypher.internal.compiler.v3_2.commands.predicates.Predicate
+import org.neo4j.cypher.internal.compiler.v3_2.executionplan.builders.prepare.KeyTokenResolver
+import org.neo4j.cypher.internal.compiler.v3_2.pipes._
+import org.neo4j.cypher.internal.compiler.v3_2.planDescription.Id
+import org.neo4j.cypher.internal.compiler.v3_2.planner.CantCompileQueryException
+import org.neo4j.cypher.internal.compiler.v3_2.planner.execution.{PipeBuilder, PipeBuilderFactory, PipeExecutionBuilderContext}
+import org.neo4j.cypher.internal.compiler.v3_2.planner.logical.plans.{Limit => LimitPlan, Skip => SkipPlan, _}
+import org.neo4j.cypher.internal.compiler.v3_2.slotted.expressions._
+import org.neo4j.cypher.internal.compiler.v3_2.slotted.pipes._
+import org.neo4j.cypher.internal.compiler.v3_2.spi.PlanContext
+import org.neo4j.cypher.internal.frontend.v3_2.Foldable._
+import org.neo4j.cypher.internal.frontend.v3_2.ast.rewriters.DesugaredMapProjection
+import org.neo4j.cypher.internal.frontend.v3_2.phases.Monitors
+import org.neo4j.cypher.internal.frontend.v3_2.symbols._
+import org.neo4j.cypher.internal.frontend.v3_2.{SemanticTable, ast}
+import org.neo4j.cypher.internal.ir.v3_2.IdName
+
+class SlottedPipeBuilderFactory(pipeline: PipelineInformation, parallel: Boolean = false) extends PipeBuilderFactory {
+  override def apply(monitors: Monitors, recurse: LogicalPlan => Pipe, readOnly: Boolean, idMap: Map[LogicalPlan, Id])
+                    (implicit context: PipeExecutionBuilderContext, planContext: PlanContext): PipeBuilder =
+    SlottedPipeBuilder(monitors, pipeline, idMap, parallel && readOnly)
+}
+
+/**
+  * Builds the pipes of the slotted runtime. Variables in expressions are replaced by reads of their slots, and
+  * properties of nodes and relationships in long slots are read straight by id.
+  *
+  * Expressions that introduce new variables, or that need to look variables up by name, are not supported and
+  * throw [[CantCompileQueryException]].
+  *
+  * With `parallel` set, aggregations over a scan and a chain of batched pipes are run on worker threads, as long as
+  * the partial results of the workers can be merged.
+  */
+case class SlottedPipeBuilder(monitors: Monitors, pipeline: PipelineInformation, idMap: Map[LogicalPlan, Id],
+                              parallel: Boolean)
+                             (implicit context: PipeExecutionBuilderContext, planContext: PlanContext) extends PipeBuilder {
+
+  private val resolver = new KeyTokenResolver
+  implicit private val monitor = monitors.newMonitor[PipeMonitor]()
+  implicit val table: SemanticTable = context.semanticTable
+
+  def build(plan: LogicalPlan): Pipe = {
+    val id = idMap.getOrElse(plan, new Id)
+    plan match {
+      case SingleRow() =>
+        SingleRowSlottedPipe(pipeline)(id)
+
+      case AllNodesScan(IdName(ident), _) =>
+        AllNodesScanMorselPipe(pipeline(ident).offset, pipeline)(id = id)
+
+      case NodeByLabelScan(IdName(ident), label, _) =>
+        NodesByLabelScanMorselPipe(pipeline(ident).offset, LazyLabel(label), pipeline)(id = id)
+
+      case x =>
+        throw new CantCompileQueryException(s"The slotted runtime does not support ${x.getClass.getSimpleName}")
+    }
+  }
+
+  def build(plan: LogicalPlan, source: Pipe): Pipe = {
+    val id = idMap.getOrElse(plan, new Id)
+    plan match {
+      case Projection(_, expressions) =>
+        val projections = expressions.collect {
+          case (name, expression) if !isIdentity(name, expression) =>
+            pipeline(name).offset -> buildExpression(expression)
+        }
+        source match {
+          case batched: MorselPipe => ProjectionMorselPipe(batched, projections)(id = id)
+          case _ => ProjectionSlottedPipe(source, projections)(id = id)
+        }
+
+      case Selection(predicates, _) =>
+        val predicate = predicates.map(buildPredicate).reduce(_ andWith _)
+        source match {
+          case batched: MorselPipe => FilterMorselPipe(batched, predicate)(id = id)
+          case _ => FilterPipe(source, predicate)(id = id)
+        }
+
+      case Expand(_, IdName(fromName), dir, types: Seq[RelTypeName], IdName(toName), IdName(relName), ExpandAll) =>
+        val (fromOffset, relOffset, toOffset) = (pipeline(fromName).offset, pipeline(relName).offset, pipeline(toName).offset)
+        source match {
+          case batched: MorselPipe =>
+            ExpandAllMorselPipe(batched, fromOffset, relOffset, toOffset, dir, LazyTypes(types), pipeline)(id = id)
+          case _ =>
+            ExpandAllSlottedPipe(source, fromOffset, relOffset, toOffset, dir, LazyTypes(types), pipeline)(id = id)
+        }
+
+      case Expand(_, IdName(fromName), dir, types: Seq[RelTypeName], IdName(toName), IdName(relName), ExpandInto) =>
+        ExpandIntoSlottedPipe(source, pipeline(fromName).offset, pipeline(relName).offset, pipeline(toName).offset, dir,
+          LazyTypes(types), pipeline)(id = id)
+
+      case SkipPlan(_, count) =>
+        SkipPipe(source, buildExpression(count))(id = id)
+
+      case LimitPlan(_, count, DoNotIncludeTies) =>
+        LimitPipe(source, buildExpression(count))(id = id)
+
+      case Aggregation(_, groupingExpressions, aggregationExpressions) =>
+        val (longGroupings, refGroupings) = groupingExpressions.partition {
+          case (name, expression) => isIdentity(name, expression) && pipeline(name).isInstanceOf[LongSlot]
+        }
+        val longOffsets = longGroupings.keys.map(pipeline(_).offset).toIndexedSeq
+        val refs = refGroupings.map { case (name, expression) => pipeline(name).offset -> buildExpression(expression) }
+        val aggregations = aggregationExpressions.map {
+          case (name, expression) => pipeline(name).offset -> buildExpression(expression).asInstanceOf[AggregationExpression]
+        }
+        val parallelSource = source match {
+          case batched: MorselPipe if parallel && aggregations.values.forall(ParallelAggregationMorselPipe.canMerge) =>
+            splitAtScan(batched)
+          case _ => None
+        }
+        parallelSource match {
+          case Some((scan, segment)) =>
+            ParallelAggregationMorselPipe(scan, segment, longOffsets, refs, aggregations, pipeline)(id = id)
+          case None =>
+            EagerAggregationMorselPipe(source, longOffsets, refs, aggregations, pipeline)(id = id)
+        }
+
+      case ProduceResult(columns, _) =>
+        ProduceResultSlottedPipe(source, columns.map(name => name -> slotExpression(name)))(id = id)
+
+      case x =>
+        throw new CantCompileQueryException(s"The slotted runtime does not support ${x.getClass.getSimpleName}")
+    }
+  }
+
+  def build(plan: LogicalPlan, lhs: Pipe, rhs: Pipe): Pipe =
+    throw new CantCompileQueryException(s"The slotted runtime does not support ${plan.getClass.getSimpleName}")
+
+  // Splits a chain of batched pipes over a scan into the scan, and a copy of the rest of the chain that is run once
+  // for every morsel of the scan
+  private def splitAtScan(pipe: MorselPipe): Option[(MorselPipe, MorselPipe)] = pipe match {
+    case scan@(_: AllNodesScanMorselPipe | _: NodesByLabelScanMorselPipe) =>
+      Some((scan, MorselArgumentPipe(pipeline)()))
+    case p: ExpandAllMorselPipe =>
+      splitAtScan(p.source).map { case (scan, segment) => (scan, p.copy(source = segment)(p.id)) }
+    case p: FilterMorselPipe =>
+      splitAtScan(p.source).map { case (scan, segment) => (scan, p.copy(source = segment)(p.id)) }
+    case p: ProjectionMorselPipe =>
+      splitAtScan(p.source).map { case (scan, segment) => (scan, p.copy(source = segment)(p.id)) }
+    case _ =>
+      None
+  }
+
+  private def isIdentity(name: String, expression: ast.Expression) = expression match {
+    case ast.Variable(variableName) => name == variableName
+    case _ => false
+  }
+
+  private def buildExpression(expr: ast.Expression): CommandExpression = {
+    checkSupported(expr)
+    toCommandExpression(expr).rewrite(rewriteForSlots)
+  }
+
+  private def buildPredicate(expr: ast.Expression): Predicate = {
+    checkSupported(expr)
+    toCommandPredicate(expr).rewriteAsPredicate(rewriteForSlots)
+  }
+
+  private def checkSupported(expr: ast.Expression): Unit = {
+    val unsupported = expr.treeExists {
+      case _: ast.ScopeExpression | _: ast.PatternExpression | _: ast.PatternComprehension | _: ast.PathExpression |
+           _: ast.ShortestPathExpression | _: ast.MapProjection | _: DesugaredMapProjection |
+           _: NestedPlanExpression => true
+    }
+    if (unsupported)
+      throw new CantCompileQueryException(s"The slotted runtime does not support the expression $expr")
+  }
+
+  private def rewriteForSlots(expression: CommandExpression): CommandExpression = expression match {
+    case Variable(name) => slotExpression(name)
+    case Property(NodeFromSlot(offset), token) => NodeProperty(offset, token)
+    case Property(RelationshipFromSlot(offset), token) => RelationshipProperty(offset, token)
+    case _ => resolver.resolveExpressions(expression, planContext)
+  }
+
+  private def slotExpression(name: String): CommandExpression = pipeline.get(name) match {
+    case Some(LongSlot(offset, CTNode)) => NodeFromSlot(offset)
+    case Some(LongSlot(offset, CTRelationship)) => RelationshipFromSlot(offset)
+    case Some(RefSlot(offset, _)) => ReferenceFromSlot(offset)
+    case _ => throw new CantCompileQueryException(s"No slot has been allocated for `$name`")
+  }
+}
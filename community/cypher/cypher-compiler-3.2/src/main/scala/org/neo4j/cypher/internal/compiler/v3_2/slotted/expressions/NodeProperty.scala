@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_2.slotted.expressions
+
+import org.neo4j.cypher.internal.compiler.v3_2.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v3_2.commands.expressions.Expression
+import org.neo4j.cypher.internal.compiler.v3_2.commands.values.KeyToken
+import org.neo4j.cypher.internal.compiler.v3_2.pipes.QueryState
+import org.neo4j.cypher.internal.compiler.v3_2.slotted.PrimitiveExecutionContext
+
+/*
+Reads a property of the node in a long slot straight by id, without going through a node object first.
+ */
+case class NodeProperty(offset: Int, propertyKey: KeyToken) extends Expression {
+
+  override def apply(ctx: ExecutionContext)(implicit state: QueryState): Any =
+    propertyKey.getOptId(state.query) match {
+      case None => null
+      case Some(propId) =>
+        state.query.nodeOps.getProperty(ctx.asInstanceOf[PrimitiveExecutionContext].getLongAt(offset), propId)
+    }
+
+  override def rewrite(f: (Expression) => Expression): Expression = f(NodeProperty(offset, propertyKey.rewrite(f)))
+
+  override def children = Seq(propertyKey)
+
+  override def arguments: Seq[Expression] = Seq.empty
+
+  override def symbolTableDependencies: Set[String] = Set.empty
+}
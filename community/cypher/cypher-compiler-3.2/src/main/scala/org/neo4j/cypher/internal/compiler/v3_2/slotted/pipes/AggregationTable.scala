@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_2.slotted.pipes
+
+import org.neo4j.cypher.internal.compiler.v3_2.commands.expressions.{AggregationExpression, Expression}
+import org.neo4j.cypher.internal.compiler.v3_2.commands.predicates.Equivalent
+import org.neo4j.cypher.internal.compiler.v3_2.pipes.QueryState
+import org.neo4j.cypher.internal.compiler.v3_2.pipes.aggregation.AggregationFunction
+import org.neo4j.cypher.internal.compiler.v3_2.slotted.{Morsel, PipelineInformation, PrimitiveExecutionContext}
+
+import scala.collection.mutable
+
+/**
+  * The groups of a slotted aggregation and their aggregation functions. Nodes and relationships that are grouped on
+  * as they are keep their long slots, and are grouped by id. Other grouping keys and the aggregates are written to
+  * reference slots.
+  *
+  * A table aggregates with the given query state, so each thread that aggregates needs a table of its own.
+  */
+class AggregationTable(longGroupings: Seq[Int],
+                       refGroupings: Seq[(Int, Expression)],
+                       aggregations: Seq[(Int, AggregationExpression)])
+                      (implicit state: QueryState) {
+
+  private val (refGroupingOffsets, refGroupingExpressions) = refGroupings.unzip
+  private val (aggregationOffsets, aggregationExpressions) = aggregations.unzip
+
+  private val groups = mutable.LinkedHashMap[Seq[Any], Seq[AggregationFunction]]()
+
+  def add(row: PrimitiveExecutionContext): Unit = {
+    val key = longGroupings.map(row.getLongAt) ++ refGroupingExpressions.map(e => Equivalent(e(row)))
+    val functions = groups.getOrElseUpdate(key, aggregationExpressions.map(_.createAggregationFunction))
+    functions.foreach(func => func(row))
+  }
+
+  def addAll(morsel: Morsel): Unit = {
+    val cursor = morsel.cursor
+    var row = 0
+    while (row < morsel.size) {
+      add(cursor.moveTo(row))
+      row += 1
+    }
+  }
+
+  /**
+    * An aggregation without grouping keys gives one row, even when there were no input rows.
+    */
+  def addEmptyGroupIfUngrouped(): Unit =
+    if (groups.isEmpty && longGroupings.isEmpty && refGroupings.isEmpty)
+      groups(Seq.empty) = aggregationExpressions.map(_.createAggregationFunction)
+
+  def morsels(pipeline: PipelineInformation): Iterator[Morsel] =
+    groups.iterator.grouped(Morsel.DEFAULT_SIZE).map {
+      batch =>
+        val morsel = Morsel(pipeline)
+        batch.foreach {
+          case (key, functions) =>
+            val row = morsel.size
+            var i = 0
+            longGroupings.foreach {
+              offset =>
+                morsel.setLongAt(row, offset, key(i).asInstanceOf[Long])
+                i += 1
+            }
+            refGroupingOffsets.foreach {
+              offset =>
+                morsel.setRefAt(row, offset, key(i).asInstanceOf[Equivalent].originalValue)
+                i += 1
+            }
+            aggregationOffsets.zip(functions).foreach {
+              case (offset, func) => morsel.setRefAt(row, offset, func.result)
+            }
+            morsel.size += 1
+        }
+        morsel
+    }
+}
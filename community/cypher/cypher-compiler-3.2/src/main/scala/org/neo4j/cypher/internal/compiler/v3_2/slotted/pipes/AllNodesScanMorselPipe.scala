@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_2.slotted.pipes
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections.PrimitiveLongBaseIterator
+import org.neo4j.cypher.internal.compiler.v3_2.pipes.{PipeMonitor, QueryState}
+import org.neo4j.cypher.internal.compiler.v3_2.planDescription.Id
+import org.neo4j.cypher.internal.compiler.v3_2.slotted.{Morsel, PipelineInformation}
+import org.neo4j.cypher.internal.compiler.v3_2.spi.QueryContext
+
+case class AllNodesScanMorselPipe(offset: Int, pipelineInformation: PipelineInformation)
+                                 (val id: Id = new Id)
+                                 (implicit pipeMonitor: PipeMonitor) extends MorselPipe {
+
+  protected def internalCreateMorsels(state: QueryState): Iterator[Morsel] =
+    morselsOf(state.query.nodeOps.allPrimitive, offset, pipelineInformation)
+
+  /**
+    * Scans the nodes with ids from `from` until `until`, so that the scan can be split into ranges that are read by
+    * different threads.
+    */
+  def createMorselsInRange(state: QueryState, from: Long, until: Long): Iterator[Morsel] =
+    morselsOf(new NodesInRange(state.query, from, until), offset, pipelineInformation)
+
+  override def monitor = pipeMonitor
+}
+
+private class NodesInRange(query: QueryContext, from: Long, until: Long) extends PrimitiveLongBaseIterator {
+  private var current = from
+
+  override protected def fetchNext(): Boolean = {
+    while (current < until) {
+      val id = current
+      current += 1
+      if (query.nodeExists(id))
+        return next(id)
+    }
+    false
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_2.slotted.pipes
+
+import org.neo4j.cypher.internal.compiler.v3_2.commands.expressions.{AggregationExpression, Expression}
+import org.neo4j.cypher.internal.compiler.v3_2.pipes.{Pipe, PipeMonitor, QueryState}
+import org.neo4j.cypher.internal.compiler.v3_2.planDescription.Id
+import org.neo4j.cypher.internal.compiler.v3_2.slotted.{Morsel, PipelineInformation, PrimitiveExecutionContext}
+
+/*
+Aggregates all input rows, and hands on the groups in morsels. Nodes and relationships that are grouped on as they are
+keep their long slots, and are grouped by id. Other grouping keys and the aggregates are written to reference slots.
+
+Works on the morsels of a batched source, and on the rows of any other slotted source.
+ */
+case class EagerAggregationMorselPipe(source: Pipe,
+                                      longGroupings: Seq[Int],
+                                      refGroupings: Map[Int, Expression],
+                                      aggregations: Map[Int, AggregationExpression],
+                                      pipelineInformation: PipelineInformation)
+                                     (val id: Id = new Id)
+                                     (implicit pipeMonitor: PipeMonitor) extends MorselPipe {
+
+  refGroupings.values.foreach(_.registerOwningPipe(this))
+  aggregations.values.foreach(_.registerOwningPipe(this))
+
+  protected def internalCreateMorsels(state: QueryState): Iterator[Morsel] = {
+    val table = new AggregationTable(longGroupings, refGroupings.toIndexedSeq, aggregations.toIndexedSeq)(state)
+
+    source match {
+      case batched: MorselPipe =>
+        batched.createMorsels(state).foreach(table.addAll)
+
+      case _ =>
+        source.createResults(state).foreach(row => table.add(row.asInstanceOf[PrimitiveExecutionContext]))
+    }
+
+    table.addEmptyGroupIfUngrouped()
+    table.morsels(pipelineInformation)
+  }
+
+  override def monitor = pipeMonitor
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_2.slotted.pipes
+
+import org.neo4j.cypher.internal.compiler.v3_2.pipes.{LazyTypes, PipeMonitor, QueryState}
+import org.neo4j.cypher.internal.compiler.v3_2.planDescription.Id
+import org.neo4j.cypher.internal.compiler.v3_2.slotted.{Morsel, PipelineInformation}
+import org.neo4j.cypher.internal.frontend.v3_2.SemanticDirection
+import org.neo4j.kernel.impl.api.RelationshipVisitor
+import org.neo4j.kernel.impl.api.store.RelationshipIterator
+
+/*
+Batched version of ExpandAllSlottedPipe. The relationships of the input rows are written into full output morsels,
+so one input morsel can give any number of output morsels.
+ */
+case class ExpandAllMorselPipe(source: MorselPipe,
+                               fromOffset: Int,
+                               relOffset: Int,
+                               toOffset: Int,
+                               dir: SemanticDirection,
+                               types: LazyTypes,
+                               pipelineInformation: PipelineInformation)
+                              (val id: Id = new Id)
+                              (implicit pipeMonitor: PipeMonitor) extends MorselPipe {
+
+  protected def internalCreateMorsels(state: QueryState): Iterator[Morsel] = {
+    val input = source.createMorsels(state)
+
+    new Iterator[Morsel] {
+      private var inputMorsel: Morsel = _
+      private var inputRow = 0
+      private var relationships: RelationshipIterator = _
+      private var fromNode: Long = 0
+      private var otherSide: Long = 0
+      private val relVisitor = new RelationshipVisitor[RuntimeException] {
+        override def visit(relationshipId: Long, typeId: Int, startNodeId: Long, endNodeId: Long): Unit =
+          otherSide = if (fromNode == startNodeId) endNodeId else startNodeId
+      }
+      private var nextMorsel: Morsel = _
+      private var fetched = false
+
+      override def hasNext: Boolean = {
+        if (!fetched) {
+          nextMorsel = fill()
+          fetched = true
+        }
+        nextMorsel != null
+      }
+
+      override def next(): Morsel = {
+        if (!hasNext)
+          throw new NoSuchElementException("next on empty iterator")
+        fetched = false
+        nextMorsel
+      }
+
+      private def fill(): Morsel = {
+        val output = Morsel(pipelineInformation)
+        while (!output.isFull && advance()) {
+          val relId = relationships.next()
+          relationships.relationshipVisit(relId, relVisitor)
+          val row = output.size
+          inputMorsel.copyRowTo(inputRow, output, row)
+          output.setLongAt(row, relOffset, relId)
+          output.setLongAt(row, toOffset, otherSide)
+          output.size += 1
+        }
+        if (output.size == 0) null else output
+      }
+
+      // Moves on until there is a relationship left to expand, and returns false once all input rows are used up
+      private def advance(): Boolean = {
+        while (relationships == null || !relationships.hasNext) {
+          inputRow += 1
+          while (inputMorsel == null || inputRow >= inputMorsel.size) {
+            if (!input.hasNext)
+              return false
+            inputMorsel = input.next()
+            inputRow = 0
+          }
+          fromNode = inputMorsel.getLongAt(inputRow, fromOffset)
+          relationships = state.query.getRelationshipsForIdsPrimitive(fromNode, dir, types.types(state.query))
+        }
+        true
+      }
+    }
+  }
+
+  override def monitor = pipeMonitor
+}
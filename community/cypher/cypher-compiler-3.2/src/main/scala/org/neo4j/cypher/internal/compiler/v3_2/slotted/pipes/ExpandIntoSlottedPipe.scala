@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_2.slotted.pipes
+
+import org.neo4j.cypher.internal.compiler.v3_2.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v3_2.helpers.JavaConversionSupport
+import org.neo4j.cypher.internal.compiler.v3_2.pipes.{LazyTypes, Pipe, PipeMonitor, PipeWithSource, QueryState}
+import org.neo4j.cypher.internal.compiler.v3_2.planDescription.Id
+import org.neo4j.cypher.internal.compiler.v3_2.slotted.{PipelineInformation, PrimitiveExecutionContext}
+import org.neo4j.cypher.internal.frontend.v3_2.SemanticDirection
+import org.neo4j.kernel.impl.api.RelationshipVisitor
+
+/*
+Finds the relationships between two nodes that are both already bound, by expanding from the first node and keeping
+the relationships that end up at the second.
+ */
+case class ExpandIntoSlottedPipe(source: Pipe,
+                                 fromOffset: Int,
+                                 relOffset: Int,
+                                 toOffset: Int,
+                                 dir: SemanticDirection,
+                                 types: LazyTypes,
+                                 pipelineInformation: PipelineInformation)
+                                (val id: Id = new Id)
+                                (implicit pipeMonitor: PipeMonitor) extends PipeWithSource(source, pipeMonitor) {
+
+  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
+    input.flatMap {
+      inputRow =>
+        val row = inputRow.asInstanceOf[PrimitiveExecutionContext]
+        val fromNode = row.getLongAt(fromOffset)
+        val toNode = row.getLongAt(toOffset)
+        val relationships = state.query.getRelationshipsForIdsPrimitive(fromNode, dir, types.types(state.query))
+        var otherSide: Long = 0
+        val relVisitor = new RelationshipVisitor[RuntimeException] {
+          override def visit(relationshipId: Long, typeId: Int, startNodeId: Long, endNodeId: Long): Unit =
+            otherSide = if (fromNode == startNodeId) endNodeId else startNodeId
+        }
+
+        JavaConversionSupport.asScala(relationships).filter {
+          relId =>
+            relationships.relationshipVisit(relId, relVisitor)
+            otherSide == toNode
+        }.map {
+          relId =>
+            val outputRow = PrimitiveExecutionContext(pipelineInformation)
+            outputRow.copyFrom(row)
+            outputRow.setLongAt(relOffset, relId)
+            outputRow
+        }
+    }
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_2.slotted.pipes
+
+import org.neo4j.cypher.internal.compiler.v3_2.pipes.{PipeMonitor, QueryState}
+import org.neo4j.cypher.internal.compiler.v3_2.planDescription.Id
+import org.neo4j.cypher.internal.compiler.v3_2.slotted.{Morsel, MorselExecutionContext, PipelineInformation}
+import org.neo4j.cypher.internal.frontend.v3_2.InternalException
+
+/*
+The leaf of a segment of batched pipes that is run once per input morsel. It hands on the morsel that the initial
+context of the query state is a cursor over.
+ */
+case class MorselArgumentPipe(pipelineInformation: PipelineInformation)
+                             (val id: Id = new Id)
+                             (implicit pipeMonitor: PipeMonitor) extends MorselPipe {
+
+  protected def internalCreateMorsels(state: QueryState): Iterator[Morsel] = state.initialContext match {
+    case Some(cursor: MorselExecutionContext) => Iterator(cursor.morsel)
+    case _ => throw new InternalException("Expected the initial context to be a cursor over the input morsel")
+  }
+
+  override def monitor = pipeMonitor
+}
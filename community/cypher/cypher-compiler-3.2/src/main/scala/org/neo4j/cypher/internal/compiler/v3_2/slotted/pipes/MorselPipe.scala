@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_2.slotted.pipes
+
+import org.neo4j.collection.primitive.PrimitiveLongIterator
+import org.neo4j.cypher.internal.compiler.v3_2.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v3_2.pipes.{Pipe, QueryState}
+import org.neo4j.cypher.internal.compiler.v3_2.slotted.{Morsel, PipelineInformation}
+
+/**
+  * A slotted pipe that produces its rows in [[Morsel]]s. Batched pipes on top of it take the morsels as they are;
+  * pipes that work on one row at a time get the rows of each morsel copied out one by one.
+  */
+trait MorselPipe extends Pipe {
+
+  def createMorsels(state: QueryState): Iterator[Morsel] = {
+    val decoratedState = state.decorator.decorate(this, state)
+    monitor.startSetup(state.queryId, this)
+    val morsels = internalCreateMorsels(decoratedState)
+    monitor.stopSetup(state.queryId, this)
+    morsels.map {
+      morsel =>
+        state.decorator.rowsProduced(this, morsel.size)
+        morsel
+    }
+  }
+
+  protected def internalCreateMorsels(state: QueryState): Iterator[Morsel]
+
+  protected def internalCreateResults(state: QueryState): Iterator[ExecutionContext] =
+    internalCreateMorsels(state).flatMap {
+      morsel => (0 until morsel.size).iterator.map(morsel.rowAt)
+    }
+
+  /**
+    * Fills morsels with the given ids, one per row, in the long slot at the given offset.
+    */
+  protected def morselsOf(ids: PrimitiveLongIterator, offset: Int, pipeline: PipelineInformation): Iterator[Morsel] =
+    new Iterator[Morsel] {
+      override def hasNext: Boolean = ids.hasNext
+
+      override def next(): Morsel = {
+        val morsel = Morsel(pipeline)
+        var row = 0
+        while (row < morsel.capacity && ids.hasNext) {
+          morsel.setLongAt(row, offset, ids.next())
+          row += 1
+        }
+        morsel.size = row
+        morsel
+      }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_2.slotted.pipes
+
+import java.util.concurrent.{ArrayBlockingQueue, BlockingQueue, Callable, ExecutionException, Future, FutureTask, TimeUnit}
+import java.util.concurrent.atomic.{AtomicBoolean, AtomicLong}
+
+import org.neo4j.cypher.internal.compiler.v3_2.commands.expressions.{AggregationExpression, Count, CountStar, Expression, Max, Min, Sum}
+import org.neo4j.cypher.internal.compiler.v3_2.pipes.{NullPipeDecorator, PipeMonitor, QueryState}
+import org.neo4j.cypher.internal.compiler.v3_2.planDescription.Id
+import org.neo4j.cypher.internal.compiler.v3_2.slotted.expressions.ReferenceFromSlot
+import org.neo4j.cypher.internal.compiler.v3_2.slotted.{Morsel, PipelineInformation}
+import org.neo4j.cypher.internal.frontend.v3_2.InternalException
+
+/*
+Runs an aggregation over a scan on worker threads of the database. A scan over all nodes is split into ranges of node
+ids, which the workers claim and read themselves. Other scans are read into morsels of node ids by the calling thread,
+which hands them out to the workers. Each worker runs the segment of the plan between the scan and the aggregation on
+its morsels, and aggregates the rows into a table of its own. The partial results of the workers are then merged on the
+calling thread.
+
+A transaction can only be used from the thread it is bound to, so each worker reads in a transaction of its own. These
+belong to the query, and time out along with its transaction. Workers check between morsels whether the transaction of
+the query has been terminated. The worker transactions do not see the changes of the transaction of the query, and the
+profiler only counts rows and db hits on the calling thread. When the transaction has changes, or the query is profiled, the segment is run on the calling thread instead.
+ */
+case class ParallelAggregationMorselPipe(source: MorselPipe,
+                                         segment: MorselPipe,
+                                         longGroupings: Seq[Int],
+                                         refGroupings: Map[Int, Expression],
+                                         aggregations: Map[Int, AggregationExpression],
+                                         pipelineInformation: PipelineInformation)
+                                        (val id: Id = new Id)
+                                        (implicit pipeMonitor: PipeMonitor) extends MorselPipe {
+
+  import ParallelAggregationMorselPipe._
+
+  refGroupings.values.foreach(_.registerOwningPipe(this))
+  aggregations.values.foreach(_.registerOwningPipe(this))
+
+  private val partialRefGroupings = refGroupings.toIndexedSeq
+  private val partialAggregations = aggregations.toIndexedSeq
+
+  // The partial results are grouped on the keys the workers wrote, and their aggregates combined
+  private val mergeRefGroupings = partialRefGroupings.map {
+    case (offset, _) => offset -> ReferenceFromSlot(offset)
+  }
+  private val mergeAggregations = partialAggregations.map {
+    case (offset, aggregation) => offset -> merging(aggregation, offset)
+  }
+
+  protected def internalCreateMorsels(state: QueryState): Iterator[Morsel] = {
+    val table =
+      if ((state.decorator ne NullPipeDecorator) || state.query.transactionHasChanges) aggregateSerially(state)
+      else aggregateInParallel(state)
+
+    table.addEmptyGroupIfUngrouped()
+    table.morsels(pipelineInformation)
+  }
+
+  private def aggregateSerially(state: QueryState): AggregationTable = {
+    val table = new AggregationTable(longGroupings, partialRefGroupings, partialAggregations)(state)
+    source.createMorsels(state).foreach(morsel => runSegment(morsel, state, table))
+    table
+  }
+
+  private def aggregateInParallel(state: QueryState): AggregationTable = {
+    val table = new AggregationTable(longGroupings, mergeRefGroupings, mergeAggregations)(state)
+    aggregatePartials(state).foreach(table.addAll)
+    table
+  }
+
+  private def runSegment(morsel: Morsel, state: QueryState, table: AggregationTable): Unit =
+    segment.createMorsels(state.withInitialContext(morsel.cursor)).foreach(table.addAll)
+
+  private def aggregatePartials(state: QueryState): Seq[Morsel] = source match {
+    case scan: AllNodesScanMorselPipe => aggregateRangesPartially(scan, state)
+    case _ => aggregateQueuePartially(state)
+  }
+
+  // The workers claim ranges of node ids until they have covered all ids that may be in use
+  private def aggregateRangesPartially(scan: AllNodesScanMorselPipe, state: QueryState): Seq[Morsel] = {
+    val highestId = state.query.nodeHighestPossibleIdInUse
+    val nextId = new AtomicLong()
+    runWorkers(state) {
+      (workerState, table, aborted) =>
+        var from = nextId.getAndAdd(RANGE_SIZE)
+        while (from <= highestId && !aborted.get()) {
+          workerState.query.transactionalContext.check()
+          val until = Math.min(from + RANGE_SIZE, highestId + 1)
+          scan.createMorselsInRange(workerState, from, until).foreach(morsel => runSegment(morsel, workerState, table))
+          from = nextId.getAndAdd(RANGE_SIZE)
+        }
+    } {
+      _ => // the workers need nothing from the calling thread
+    }
+  }
+
+  // The calling thread reads the scan into a queue, and the workers take morsels off it until they take the end marker
+  private def aggregateQueuePartially(state: QueryState): Seq[Morsel] = {
+    val queue = new ArrayBlockingQueue[Morsel](QUEUE_SIZE)
+    runWorkers(state) {
+      (workerState, table, aborted) =>
+        var done = false
+        while (!done && !aborted.get()) {
+          workerState.query.transactionalContext.check()
+          val morsel = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+          if (morsel eq END)
+            done = true
+          else if (morsel != null)
+            runSegment(morsel, workerState, table)
+        }
+    } {
+      tasks =>
+        source.createMorsels(state).foreach(morsel => handOver(morsel, queue, tasks))
+        tasks.foreach(_ => handOver(END, queue, tasks))
+    }
+  }
+
+  // Runs the work on each of the workers while the calling thread feeds them, and collects their partial results
+  private def runWorkers(state: QueryState)
+                        (work: (QueryState, AggregationTable, AtomicBoolean) => Unit)
+                        (feed: Seq[Future[Seq[Morsel]]] => Unit): Seq[Morsel] = {
+    val aborted = new AtomicBoolean()
+    val tasks = (0 until PARALLELISM).map {
+      _ => new FutureTask(new Callable[Seq[Morsel]] {
+        override def call(): Seq[Morsel] = aggregatePartially(state, aborted, work)
+      })
+    }
+
+    var success = false
+    try {
+      tasks.foreach(state.query.workerExecutor.execute)
+      feed(tasks)
+      val partials = tasks.flatMap(await)
+      success = true
+      partials
+    } finally {
+      if (!success) {
+        aborted.set(true)
+        tasks.foreach(_.cancel(false))
+      }
+    }
+  }
+
+  // Runs on a worker thread, in a transaction of its own
+  private def aggregatePartially(state: QueryState, aborted: AtomicBoolean,
+                                 work: (QueryState, AggregationTable, AtomicBoolean) => Unit): Seq[Morsel] =
+    state.query.withNewReadTransaction {
+      query =>
+        val workerState = new QueryState(query, state.resources, state.params, timeReader = state.timeReader,
+                                         queryId = state.queryId, typeConverter = state.typeConverter)
+        val table = new AggregationTable(longGroupings, partialRefGroupings, partialAggregations)(workerState)
+        work(workerState, table, aborted)
+        table.morsels(pipelineInformation).toIndexedSeq
+    }
+
+  // Waits for room in the queue, and fails as soon as any of the workers has failed
+  private def handOver(morsel: Morsel, queue: BlockingQueue[Morsel], tasks: Seq[Future[Seq[Morsel]]]): Unit =
+    while (!queue.offer(morsel, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+      tasks.filter(_.isDone).foreach(await)
+
+  private def await(task: Future[Seq[Morsel]]): Seq[Morsel] =
+    try {
+      task.get()
+    } catch {
+      case e: ExecutionException => throw e.getCause
+    }
+
+  override def monitor = pipeMonitor
+}
+
+object ParallelAggregationMorselPipe {
+  val PARALLELISM: Int = Runtime.getRuntime.availableProcessors()
+
+  private val QUEUE_SIZE = 2 * PARALLELISM
+  private val POLL_TIMEOUT_MILLIS = 10L
+
+  // Node ids per range that a worker claims, so that a range of densely used ids fills about one morsel
+  private val RANGE_SIZE = Morsel.DEFAULT_SIZE.toLong
+
+  // Tells a worker that there are no more morsels to take
+  private val END = new Morsel(PipelineInformation.empty, 0)
+
+  /**
+    * Whether the partial results of the aggregation of each worker can be combined into the full result.
+    */
+  def canMerge(aggregation: AggregationExpression): Boolean = aggregation match {
+    case _: CountStar | _: Count | _: Sum | _: Min | _: Max => true
+    case _ => false
+  }
+
+  private def merging(aggregation: AggregationExpression, offset: Int): AggregationExpression = aggregation match {
+    case _: CountStar | _: Count | _: Sum => Sum(ReferenceFromSlot(offset))
+    case _: Min => Min(ReferenceFromSlot(offset))
+    case _: Max => Max(ReferenceFromSlot(offset))
+    case _ => throw new InternalException(s"Partial results of $aggregation can not be merged")
+  }
+}
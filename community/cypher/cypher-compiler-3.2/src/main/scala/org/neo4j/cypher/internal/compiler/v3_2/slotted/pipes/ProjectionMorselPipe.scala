@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_2.slotted.pipes
+
+import org.neo4j.cypher.internal.compiler.v3_2.commands.expressions.Expression
+import org.neo4j.cypher.internal.compiler.v3_2.pipes.{PipeMonitor, QueryState}
+import org.neo4j.cypher.internal.compiler.v3_2.planDescription.Id
+import org.neo4j.cypher.internal.compiler.v3_2.slotted.Morsel
+
+/*
+Batched version of ProjectionSlottedPipe. Each expression is evaluated for all rows of the morsel before moving on to
+the next one, filling one reference column at a time.
+ */
+case class ProjectionMorselPipe(source: MorselPipe, expressions: Map[Int, Expression])
+                               (val id: Id = new Id)
+                               (implicit pipeMonitor: PipeMonitor) extends MorselPipe {
+
+  expressions.values.foreach(_.registerOwningPipe(this))
+
+  private val (offsets, projections) = expressions.toArray.unzip
+
+  protected def internalCreateMorsels(state: QueryState): Iterator[Morsel] =
+    source.createMorsels(state).map {
+      morsel =>
+        val cursor = morsel.cursor
+        var i = 0
+        while (i < offsets.length) {
+          val offset = offsets(i)
+          val projection = projections(i)
+          var row = 0
+          while (row < morsel.size) {
+            morsel.setRefAt(row, offset, projection(cursor.moveTo(row))(state))
+            row += 1
+          }
+          i += 1
+        }
+        morsel
+    }
+
+  override def monitor = pipeMonitor
+}
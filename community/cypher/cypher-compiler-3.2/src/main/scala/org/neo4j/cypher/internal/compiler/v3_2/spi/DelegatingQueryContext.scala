@@ -20,12 +20,15 @@
 package org.neo4j.cypher.internal.compiler.v3_2.spi
 
 import java.net.URL
+import java.util.concurrent.Executor
 
+import org.neo4j.collection.primitive.PrimitiveLongIterator
 import org.neo4j.cypher.internal.compiler.v3_2.commands.expressions.{Expander, KernelPredicate, UserDefinedAggregator}
 import org.neo4j.cypher.internal.compiler.v3_2.pipes.matching.PatternNode
 import org.neo4j.cypher.internal.frontend.v3_2.SemanticDirection
 import org.neo4j.graphdb.{Node, Path, PropertyContainer, Relationship}
 import org.neo4j.cypher.internal.compiler.v3_2.IndexDescriptor
+import org.neo4j.kernel.impl.api.store.RelationshipIterator
 
 import scala.collection.Iterator
 
@@ -33,6 +36,8 @@ class DelegatingQueryContext(val inner: QueryContext) extends QueryContext {
 
   protected def singleDbHit[A](value: A): A = value
   protected def manyDbHits[A](value: Iterator[A]): Iterator[A] = value
+  protected def manyDbHits(value: PrimitiveLongIterator): PrimitiveLongIterator = value
+  protected def manyDbHits(value: RelationshipIterator): RelationshipIterator = value
   protected def manyDbHits(count: Int): Int = count
 
   type EntityAccessor = inner.EntityAccessor
@@ -67,6 +72,9 @@ class DelegatingQueryContext(val inner: QueryContext) extends QueryContext {
   override def getRelationshipsForIds(node: Node, dir: SemanticDirection, types: Option[Seq[Int]]): Iterator[Relationship] =
   manyDbHits(inner.getRelationshipsForIds(node, dir, types))
 
+  override def getRelationshipsForIdsPrimitive(node: Long, dir: SemanticDirection, types: Option[Seq[Int]]): RelationshipIterator =
+    manyDbHits(inner.getRelationshipsForIdsPrimitive(node, dir, types))
+
   override def nodeOps = inner.nodeOps
 
   override def relationshipOps = inner.relationshipOps
@@ -94,6 +102,9 @@ class DelegatingQueryContext(val inner: QueryContext) extends QueryContext {
 
   override def indexSeek(index: IndexDescriptor, value: Any): Iterator[Node] = manyDbHits(inner.indexSeek(index, value))
 
+  override def compositeIndexSeek(index: IndexDescriptor, values: Seq[Any]): Iterator[Node] =
+    manyDbHits(inner.compositeIndexSeek(index, values))
+
   override def indexSeekByRange(index: IndexDescriptor, value: Any): Iterator[Node] =
     manyDbHits(inner.indexSeekByRange(index, value))
 
@@ -107,6 +118,12 @@ class DelegatingQueryContext(val inner: QueryContext) extends QueryContext {
 
   override def getNodesByLabel(id: Int): Iterator[Node] = manyDbHits(inner.getNodesByLabel(id))
 
+  override def getNodesByLabelPrimitive(id: Int): PrimitiveLongIterator = manyDbHits(inner.getNodesByLabelPrimitive(id))
+
+  override def nodeHighestPossibleIdInUse: Long = singleDbHit(inner.nodeHighestPossibleIdInUse)
+
+  override def nodeExists(id: Long): Boolean = singleDbHit(inner.nodeExists(id))
+
   override def getOrCreateFromSchemaState[K, V](key: K, creator: => V): V =
     singleDbHit(inner.getOrCreateFromSchemaState(key, creator))
 
@@ -130,6 +147,12 @@ class DelegatingQueryContext(val inner: QueryContext) extends QueryContext {
 
   override def withAnyOpenQueryContext[T](work: (QueryContext) => T): T = inner.withAnyOpenQueryContext(work)
 
+  override def withNewReadTransaction[T](work: (QueryContext) => T): T = inner.withNewReadTransaction(work)
+
+  override def workerExecutor: Executor = inner.workerExecutor
+
+  override def transactionHasChanges: Boolean = inner.transactionHasChanges
+
   override def lockingUniqueIndexSeek(index: IndexDescriptor, value: Any): Option[Node] =
     singleDbHit(inner.lockingUniqueIndexSeek(index, value))
 
@@ -215,6 +238,7 @@ class DelegatingOperations[T <: PropertyContainer](protected val inner: Operatio
 
   protected def singleDbHit[A](value: A): A = value
   protected def manyDbHits[A](value: Iterator[A]): Iterator[A] = value
+  protected def manyDbHits(value: PrimitiveLongIterator): PrimitiveLongIterator = value
 
   override def delete(obj: T): Unit = singleDbHit(inner.delete(obj))
 
@@ -237,6 +261,8 @@ class DelegatingOperations[T <: PropertyContainer](protected val inner: Operatio
 
   override def all: Iterator[T] = manyDbHits(inner.all)
 
+  override def allPrimitive: PrimitiveLongIterator = manyDbHits(inner.allPrimitive)
+
   override def isDeletedInThisTx(obj: T): Boolean = inner.isDeletedInThisTx(obj)
 
   override def acquireExclusiveLock(obj: Long): Unit = inner.acquireExclusiveLock(obj)
@@ -259,4 +285,6 @@ class DelegatingQueryTransactionalContext(val inner: QueryTransactionalContext)
   override def isTopLevelTx: Boolean = inner.isTopLevelTx
 
   override def close(success: Boolean) { inner.close(success) }
+
+  override def check(): Unit = inner.check()
 }
@@ -53,6 +53,14 @@ trait GraphStatistics {
       indexPropertyExistsSelectivity(:X, prop) = s => |MATCH (a:X)| * s = |MATCH (a:X) WHERE has(x.prop)|
    */
   def indexPropertyExistsSelectivity(label: LabelId, property: PropertyKeyId): Option[Selectivity]
+
+  /*
+      Probability of any node with the given label, to have the given properties with a particular combination
+      of values, as sampled by the composite index on the properties, in the given order
+
+      indexSelectivity(:X, [p1, p2]) = s => |MATCH (a:X)| * s = |MATCH (a:X) WHERE x.p1 = '*' AND x.p2 = '*'|
+   */
+  def indexSelectivity(label: LabelId, properties: Seq[PropertyKeyId]): Option[Selectivity]
 }
 
 class DelegatingGraphStatistics(delegate: GraphStatistics) extends GraphStatistics {
@@ -65,6 +73,9 @@ class DelegatingGraphStatistics(delegate: GraphStatistics) extends GraphStatisti
   override def indexSelectivity(label: LabelId, property: PropertyKeyId): Option[Selectivity] =
     delegate.indexSelectivity(label, property)
 
+  override def indexSelectivity(label: LabelId, properties: Seq[PropertyKeyId]): Option[Selectivity] =
+    delegate.indexSelectivity(label, properties)
+
   override def indexPropertyExistsSelectivity(label: LabelId, property: PropertyKeyId): Option[Selectivity] =
     delegate.indexPropertyExistsSelectivity(label, property)
 }
@@ -32,6 +32,7 @@ case class NodesWithLabelCardinality(labelId: Option[LabelId]) extends Statistic
 case class CardinalityByLabelsAndRelationshipType(lhs: Option[LabelId], relType: Option[RelTypeId], rhs: Option[LabelId]) extends StatisticsKey
 case class IndexSelectivity(labelId: LabelId, propertyKeyId: PropertyKeyId) extends StatisticsKey
 case class IndexPropertyExistsSelectivity(labelId: LabelId, propertyKeyId: PropertyKeyId) extends StatisticsKey
+case class CompositeIndexSelectivity(labelId: LabelId, propertyKeyIds: Seq[PropertyKeyId]) extends StatisticsKey
 
 class MutableGraphStatisticsSnapshot(val map: mutable.Map[StatisticsKey, Double] = mutable.Map.empty) {
   def freeze: GraphStatisticsSnapshot = GraphStatisticsSnapshot(map.toMap)
@@ -50,6 +51,8 @@ case class GraphStatisticsSnapshot(statsValues: Map[StatisticsKey, Double] = Map
         instrumented.indexSelectivity(labelId, propertyKeyId)
       case IndexPropertyExistsSelectivity(labelId, propertyKeyId) =>
         instrumented.indexPropertyExistsSelectivity(labelId, propertyKeyId)
+      case CompositeIndexSelectivity(labelId, propertyKeyIds) =>
+        instrumented.indexSelectivity(labelId, propertyKeyIds)
     }
     snapshot.freeze
   }
@@ -89,4 +92,10 @@ case class InstrumentedGraphStatistics(inner: GraphStatistics, snapshot: Mutable
     snapshot.map.getOrElseUpdate(IndexPropertyExistsSelectivity(label, property), selectivity.fold(0.0)(_.factor))
     selectivity
   }
+
+  def indexSelectivity(label: LabelId, properties: Seq[PropertyKeyId]): Option[Selectivity] = {
+    val selectivity = inner.indexSelectivity(label, properties)
+    snapshot.map.getOrElseUpdate(CompositeIndexSelectivity(label, properties), selectivity.fold(0.0)(_.factor))
+    selectivity
+  }
 }
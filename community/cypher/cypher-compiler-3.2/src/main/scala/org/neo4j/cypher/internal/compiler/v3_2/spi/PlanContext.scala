@@ -38,6 +38,11 @@ trait PlanContext extends TokenContext with ProcedureSignatureResolver {
 
   def getUniqueIndexRule(labelName: String, propertyKey: String): Option[IndexDescriptor]
 
+  /**
+   * All online, non-unique indexes on the given label that span more than one property.
+   */
+  def getCompositeIndexRules(labelName: String): Seq[IndexDescriptor]
+
   def hasPropertyExistenceConstraint(labelName: String, propertyKey: String): Boolean
 
   def checkNodeIndex(idxName: String)
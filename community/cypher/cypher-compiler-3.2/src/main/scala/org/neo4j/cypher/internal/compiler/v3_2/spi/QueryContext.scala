@@ -20,13 +20,16 @@
 package org.neo4j.cypher.internal.compiler.v3_2.spi
 
 import java.net.URL
+import java.util.concurrent.Executor
 
+import org.neo4j.collection.primitive.PrimitiveLongIterator
 import org.neo4j.cypher.internal.compiler.v3_2.InternalQueryStatistics
 import org.neo4j.cypher.internal.compiler.v3_2.commands.expressions.{Expander, KernelPredicate, UserDefinedAggregator}
 import org.neo4j.cypher.internal.compiler.v3_2.pipes.matching.PatternNode
 import org.neo4j.cypher.internal.frontend.v3_2.SemanticDirection
 import org.neo4j.graphdb.{Node, Path, PropertyContainer, Relationship}
 import org.neo4j.cypher.internal.compiler.v3_2.IndexDescriptor
+import org.neo4j.kernel.impl.api.store.RelationshipIterator
 
 import scala.collection.Iterator
 
@@ -66,6 +69,8 @@ trait QueryContext extends TokenContext {
 
   def getRelationshipsForIds(node: Node, dir: SemanticDirection, types: Option[Seq[Int]]): Iterator[Relationship]
 
+  def getRelationshipsForIdsPrimitive(node: Long, dir: SemanticDirection, types: Option[Seq[Int]]): RelationshipIterator
+
   def getOrCreateLabelId(labelName: String): Int
 
   def getLabelsForNode(node: Long): Iterator[Int]
@@ -88,6 +93,8 @@ trait QueryContext extends TokenContext {
 
   def indexSeek(index: IndexDescriptor, value: Any): Iterator[Node]
 
+  def compositeIndexSeek(index: IndexDescriptor, values: Seq[Any]): Iterator[Node]
+
   def indexSeekByRange(index: IndexDescriptor, value: Any): Iterator[Node]
 
   def indexScanByContains(index: IndexDescriptor, value: String): Iterator[Node]
@@ -100,6 +107,16 @@ trait QueryContext extends TokenContext {
 
   def getNodesByLabel(id: Int): Iterator[Node]
 
+  def getNodesByLabelPrimitive(id: Int): PrimitiveLongIterator
+
+  /**
+   * The highest id any node may have. Together with [[nodeExists]] this allows a scan over all nodes to be split
+   * into ranges of node ids.
+   */
+  def nodeHighestPossibleIdInUse: Long
+
+  def nodeExists(id: Long): Boolean
+
   def getOrCreateFromSchemaState[K, V](key: K, creator: => V): V
 
   /* return true if the constraint was created, false if preexisting, throws if failed */
@@ -126,6 +143,22 @@ trait QueryContext extends TokenContext {
    */
   def withAnyOpenQueryContext[T](work: (QueryContext) => T): T
 
+  /**
+   * Runs the work in a new transaction of its own, bound to the calling thread, that reads with the same security
+   * context as the transaction of this query. Used by the worker threads of the parallel runtime, since a transaction
+   * can only be used from the thread that it is bound to. The new transaction does not see the changes of this one.
+   * It belongs to this query rather than being listed as a query of its own, times out along with the transaction of
+   * this query, and is terminated by [[QueryTransactionalContext.check]] once the transaction of this query has been.
+   */
+  def withNewReadTransaction[T](work: (QueryContext) => T): T
+
+  /**
+   * Runs the worker threads of the parallel runtime. The threads are owned by the database, and stop along with it.
+   */
+  def workerExecutor: Executor
+
+  def transactionHasChanges: Boolean
+
   def relationshipStartNode(rel: Relationship): Node
 
   def relationshipEndNode(rel: Relationship): Node
@@ -205,6 +238,8 @@ trait Operations[T <: PropertyContainer] {
 
   def all: Iterator[T]
 
+  def allPrimitive: PrimitiveLongIterator
+
   def acquireExclusiveLock(obj: Long): Unit
 
   def releaseExclusiveLock(obj: Long): Unit
@@ -224,5 +259,10 @@ trait QueryTransactionalContext {
   def close(success: Boolean)
 
   def commitAndRestartTx()
+
+  /**
+   * Fails if the transaction has been terminated or has timed out.
+   */
+  def check(): Unit
 }
 
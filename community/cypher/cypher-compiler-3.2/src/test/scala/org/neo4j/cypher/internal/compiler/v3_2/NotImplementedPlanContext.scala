@@ -29,6 +29,8 @@ class NotImplementedPlanContext extends PlanContext {
 
   override def getUniqueIndexRule(labelName: String, propertyKey: String): Option[IndexDescriptor] = ???
 
+  override def getCompositeIndexRules(labelName: String): Seq[IndexDescriptor] = ???
+
   override def hasPropertyExistenceConstraint(labelName: String, propertyKey: String): Boolean = ???
 
   override def checkNodeIndex(idxName: String): Unit = ???
@@ -24,7 +24,7 @@ import org.mockito.Matchers.any
 import org.mockito.Mockito._
 import org.neo4j.cypher.internal.compiler.v3_2._
 import org.neo4j.cypher.internal.compiler.v3_2.commands.expressions.{ListLiteral, Literal, Variable}
-import org.neo4j.cypher.internal.compiler.v3_2.commands.{ManyQueryExpression, SingleQueryExpression}
+import org.neo4j.cypher.internal.compiler.v3_2.commands.{CompositeQueryExpression, ManyQueryExpression, SingleQueryExpression}
 import org.neo4j.cypher.internal.compiler.v3_2.spi.QueryContext
 import org.neo4j.cypher.internal.frontend.v3_2.ast._
 import org.neo4j.cypher.internal.frontend.v3_2.test_helpers.{CypherFunSuite, WindowsStringSafe}
@@ -221,6 +221,56 @@ class NodeIndexSeekPipeTest extends CypherFunSuite with AstConstructionTestSuppo
     result.map(_("n")).toList should equal(List(node))
   }
 
+  test("should seek composite index with one value per property") {
+    // given
+    val propertyKeys = propertyKey :+ PropertyKeyToken(PropertyKeyName("OtherName") _, PropertyKeyId(12))
+    val queryState = QueryStateHelper.emptyWith(
+      query = compositeIndexFor(
+        Seq("hello", "world") -> Iterator(node)
+      )
+    )
+
+    // when
+    val pipe = NodeIndexSeekPipe("n", label, propertyKeys, CompositeQueryExpression(Seq(
+      SingleQueryExpression(Literal("hello")),
+      SingleQueryExpression(Literal("world")))), CompositeIndexSeek)()
+    val result = pipe.createResults(queryState)
+
+    // then
+    result.map(_("n")).toList should equal(List(node))
+  }
+
+  test("should seek composite index once per combination of values and skip nulls") {
+    // given
+    val propertyKeys = propertyKey :+ PropertyKeyToken(PropertyKeyName("OtherName") _, PropertyKeyId(12))
+    val queryState = QueryStateHelper.emptyWith(
+      query = compositeIndexFor(
+        Seq("hello", 1) -> Iterator(node),
+        Seq("hello", 2) -> Iterator(node2)
+      )
+    )
+
+    // when
+    val pipe = NodeIndexSeekPipe("n", label, propertyKeys, CompositeQueryExpression(Seq(
+      SingleQueryExpression(Literal("hello")),
+      ManyQueryExpression(ListLiteral(Literal(1), Literal(null), Literal(2))))), CompositeIndexSeek)()
+    val result = pipe.createResults(queryState)
+
+    // then
+    result.map(_("n")).toList should equal(List(node, node2))
+  }
+
+  private def compositeIndexFor(values: (Seq[Any], Iterator[Node])*): QueryContext = {
+    val query = mock[QueryContext]
+    when(query.compositeIndexSeek(any(), any())).thenReturn(Iterator.empty)
+
+    values.foreach {
+      case (searchTerms, result) => when(query.compositeIndexSeek(any(), Matchers.eq(searchTerms))).thenReturn(result)
+    }
+
+    query
+  }
+
   private def indexFor(values: (Any, Iterator[Node])*): QueryContext = {
     val query = mock[QueryContext]
     when(query.indexSeek(any(), any())).thenReturn(Iterator.empty)
@@ -53,4 +53,9 @@ class DbStructureGraphStatistics(lookup: DbStructureLookup) extends GraphStatist
     val result = lookup.indexPropertyExistsSelectivity( label.id, property.id )
     if (result.isNaN) None else Some(Selectivity.of(result).get)
   }
+
+  /*
+      The db structure does not record composite indexes
+   */
+  override def indexSelectivity( label: LabelId, properties: Seq[PropertyKeyId] ): Option[Selectivity] = None
 }
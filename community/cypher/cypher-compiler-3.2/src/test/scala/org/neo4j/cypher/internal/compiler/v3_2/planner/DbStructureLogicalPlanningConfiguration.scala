@@ -59,6 +59,7 @@ object DbStructureLogicalPlanningConfiguration {
       override val indexes: Set[(String, String)] = indexSet(lookup.knownIndices())
       override val knownLabels: Set[String] = resolvedLabels.keys.toSet
       override val uniqueIndexes: Set[(String, String)] = indexSet(lookup.knownUniqueIndices())
+      override val compositeIndexes: Set[(String, Seq[String])] = Set.empty
     }
   }
 
@@ -34,6 +34,7 @@ trait LogicalPlanningConfiguration {
   def graphStatistics: GraphStatistics
   def indexes: Set[(String, String)]
   def uniqueIndexes: Set[(String, String)]
+  def compositeIndexes: Set[(String, Seq[String])]
   def labelCardinality: Map[String, Cardinality]
   def knownLabels: Set[String]
   def qg: QueryGraph
@@ -49,6 +50,7 @@ class DelegatingLogicalPlanningConfiguration(val parent: LogicalPlanningConfigur
   override def graphStatistics = parent.graphStatistics
   override def indexes = parent.indexes
   override def uniqueIndexes = parent.uniqueIndexes
+  override def compositeIndexes = parent.compositeIndexes
   override def labelCardinality = parent.labelCardinality
   override def knownLabels = parent.knownLabels
   override def qg = parent.qg
@@ -73,6 +75,10 @@ trait LogicalPlanningConfigurationAdHocSemanticTable {
       addLabelIfUnknown(label)
       addPropertyKeyIfUnknown(property)
     }
+    compositeIndexes.foreach { case (label, properties) =>
+      addLabelIfUnknown(label)
+      properties.foreach(addPropertyKeyIfUnknown)
+    }
     labelCardinality.keys.foreach(addLabelIfUnknown)
     knownLabels.foreach(addLabelIfUnknown)
     table
@@ -114,8 +114,18 @@ trait LogicalPlanningTestSupport2 extends CypherTestSupport with AstConstruction
         else
           None
 
+      override def getCompositeIndexRules(labelName: String): Seq[IndexDescriptor] =
+        config.compositeIndexes.toIndexedSeq.collect {
+          case (`labelName`, properties) =>
+            IndexDescriptor(
+              semanticTable.resolvedLabelIds(labelName),
+              properties.map(semanticTable.resolvedPropertyKeyNames)
+            )
+        }
+
       override def hasIndexRule(labelName: String): Boolean =
-        config.indexes.exists(_._1 == labelName) || config.uniqueIndexes.exists(_._1 == labelName)
+        config.indexes.exists(_._1 == labelName) || config.uniqueIndexes.exists(_._1 == labelName) ||
+          config.compositeIndexes.exists(_._1 == labelName)
 
       override def getOptPropertyKeyId(propertyKeyName: String) =
         semanticTable.resolvedPropertyKeyNames.get(propertyKeyName).map(_.id)
@@ -41,6 +41,7 @@ class StubbedLogicalPlanningConfiguration(parent: LogicalPlanningConfiguration)
 
   var indexes: Set[(String, String)] = Set.empty
   var uniqueIndexes: Set[(String, String)] = Set.empty
+  var compositeIndexes: Set[(String, Seq[String])] = Set.empty
 
   def indexOn(label: String, property: String) {
     indexes = indexes + (label -> property)
@@ -50,6 +51,10 @@ class StubbedLogicalPlanningConfiguration(parent: LogicalPlanningConfiguration)
     uniqueIndexes = uniqueIndexes + (label -> property)
   }
 
+  def compositeIndexOn(label: String, properties: String*) {
+    compositeIndexes = compositeIndexes + (label -> properties)
+  }
+
   def costModel() = cost.orElse(parent.costModel())
 
   def cardinalityModel(queryGraphCardinalityModel: QueryGraphCardinalityModel): CardinalityModel = {
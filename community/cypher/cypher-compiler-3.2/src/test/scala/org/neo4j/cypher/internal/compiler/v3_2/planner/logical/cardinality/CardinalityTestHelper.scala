@@ -170,6 +170,8 @@ trait CardinalityTestHelper extends QueryGraphProducer with CardinalityCustomMat
           }
         }
 
+        def indexSelectivity(label: LabelId, properties: Seq[PropertyKeyId]): Option[Selectivity] = None
+
         def getCardinality(fromLabel:String, typ:String, toLabel:String): Double =
           knownRelationshipCardinality.getOrElse((fromLabel, typ, toLabel), 0.0)
 
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_2.planner.logical.plans
+
+import org.neo4j.cypher.internal.compiler.v3_2.HardcodedGraphStatistics
+import org.neo4j.cypher.internal.compiler.v3_2.commands.{CompositeQueryExpression, SingleQueryExpression}
+import org.neo4j.cypher.internal.compiler.v3_2.planner.BeLikeMatcher._
+import org.neo4j.cypher.internal.compiler.v3_2.planner._
+import org.neo4j.cypher.internal.compiler.v3_2.planner.logical.steps.compositeIndexSeekLeafPlanner
+import org.neo4j.cypher.internal.frontend.v3_2.ast._
+import org.neo4j.cypher.internal.frontend.v3_2.test_helpers.CypherFunSuite
+import org.neo4j.cypher.internal.ir.v3_2.{Cardinality, IdName, Predicate, QueryGraph, Selections}
+
+import scala.language.reflectiveCalls
+
+class CompositeIndexSeekLeafPlannerTest extends CypherFunSuite with LogicalPlanningTestSupport2 {
+
+  val idName = IdName("n")
+  val hasLabels: Expression = HasLabels(varFor("n"), Seq(LabelName("Awesome") _)) _
+  val propA: Expression = Property(varFor("n"), PropertyKeyName("a") _)_
+  val propB: Expression = Property(varFor("n"), PropertyKeyName("b") _)_
+  val lit42: Expression = SignedDecimalIntegerLiteral("42") _
+  val lit6: Expression = SignedDecimalIntegerLiteral("6") _
+
+  val aIn42 = In(propA, ListLiteral(Seq(lit42))_)_
+  val bIn6 = In(propB, ListLiteral(Seq(lit6))_)_
+
+  test("does not plan composite index seek when no composite index exist") {
+    new given {
+      qg = queryGraph(aIn42, bIn6, hasLabels)
+
+      indexOn("Awesome", "a")
+      indexOn("Awesome", "b")
+    }.withLogicalPlanningContext { (cfg, ctx) =>
+      // when
+      val resultPlans = compositeIndexSeekLeafPlanner(cfg.qg)(ctx)
+
+      // then
+      resultPlans shouldBe empty
+    }
+  }
+
+  test("plans composite index seek when every indexed property is bound") {
+    new given {
+      qg = queryGraph(aIn42, bIn6, hasLabels)
+
+      compositeIndexOn("Awesome", "a", "b")
+    }.withLogicalPlanningContext { (cfg, ctx) =>
+      // when
+      val resultPlans = compositeIndexSeekLeafPlanner(cfg.qg)(ctx)
+
+      // then
+      resultPlans should beLike {
+        case Seq(NodeCompositeIndexSeek(`idName`, _, Seq(PropertyKeyToken("a", _), PropertyKeyToken("b", _)),
+          CompositeQueryExpression(Seq(SingleQueryExpression(`lit42`), SingleQueryExpression(`lit6`))), _)) => ()
+      }
+    }
+  }
+
+  test("orders the values of a composite index seek by the order of the indexed properties") {
+    new given {
+      qg = queryGraph(aIn42, bIn6, hasLabels)
+
+      compositeIndexOn("Awesome", "b", "a")
+    }.withLogicalPlanningContext { (cfg, ctx) =>
+      // when
+      val resultPlans = compositeIndexSeekLeafPlanner(cfg.qg)(ctx)
+
+      // then
+      resultPlans should beLike {
+        case Seq(NodeCompositeIndexSeek(`idName`, _, Seq(PropertyKeyToken("b", _), PropertyKeyToken("a", _)),
+          CompositeQueryExpression(Seq(SingleQueryExpression(`lit6`), SingleQueryExpression(`lit42`))), _)) => ()
+      }
+    }
+  }
+
+  test("only plans composite index seeks on indexes with all of their properties bound") {
+    val propC: Expression = Property(varFor("n"), PropertyKeyName("c") _)_
+    val cIn6 = In(propC, ListLiteral(Seq(lit6))_)_
+
+    new given {
+      qg = queryGraph(aIn42, cIn6, hasLabels)
+
+      compositeIndexOn("Awesome", "a", "b")
+      compositeIndexOn("Awesome", "c", "a")
+    }.withLogicalPlanningContext { (cfg, ctx) =>
+      // when
+      val resultPlans = compositeIndexSeekLeafPlanner(cfg.qg)(ctx)
+
+      // then only the index on (c, a) is fully bound
+      resultPlans should beLike {
+        case Seq(NodeCompositeIndexSeek(`idName`, _, Seq(PropertyKeyToken("c", _), PropertyKeyToken("a", _)), _, _)) => ()
+      }
+    }
+  }
+
+  test("does not plan composite index seek when the values do not have their dependencies in scope") {
+    new given { // MATCH (n:Awesome), (x) WHERE n.a IN [x] AND n.b IN [6]
+      val x = varFor("x")
+      qg = queryGraph(In(propA, ListLiteral(Seq(x))_)_, bIn6, hasLabels)
+
+      compositeIndexOn("Awesome", "a", "b")
+    }.withLogicalPlanningContext { (cfg, ctx) =>
+      // when
+      val resultPlans = compositeIndexSeekLeafPlanner(cfg.qg)(ctx)
+
+      // then
+      resultPlans shouldBe empty
+    }
+  }
+
+  test("plans composite index seek when the values are arguments") {
+    new given { // WITH 42 AS x MATCH (n:Awesome) WHERE n.a IN [x] AND n.b IN [6]
+      val x = varFor("x")
+      qg = queryGraph(In(propA, ListLiteral(Seq(x))_)_, bIn6, hasLabels).addArgumentIds(Seq(IdName("x")))
+
+      compositeIndexOn("Awesome", "a", "b")
+    }.withLogicalPlanningContext { (cfg, ctx) =>
+      // when
+      val x = cfg.x
+      val resultPlans = compositeIndexSeekLeafPlanner(cfg.qg)(ctx)
+
+      // then
+      resultPlans should beLike {
+        case Seq(NodeCompositeIndexSeek(`idName`, _, _,
+          CompositeQueryExpression(Seq(SingleQueryExpression(`x`), SingleQueryExpression(`lit6`))), _)) => ()
+      }
+    }
+  }
+
+  test("estimates composite index seek from the selectivity of the composite index") {
+    new given {
+      qg = queryGraph(aIn42, bIn6, hasLabels)
+      labelCardinality = Map("Awesome" -> Cardinality(1000))
+
+      compositeIndexOn("Awesome", "a", "b")
+    }.withLogicalPlanningContext { (cfg, ctx) =>
+      // when
+      val resultPlans = compositeIndexSeekLeafPlanner(cfg.qg)(ctx)
+
+      // then the seek is estimated as a single lookup in the index on (a, b) among the labelled nodes
+      val expected = Cardinality(1000) * (HardcodedGraphStatistics.INDEX_SELECTIVITY ^ 2)
+      resultPlans.map(_.solved.estimatedCardinality) should equal(Seq(expected))
+    }
+  }
+
+  private def queryGraph(predicates: Expression*) =
+    QueryGraph(
+      selections = Selections(predicates.map(Predicate(Set(idName), _)).toSet),
+      patternNodes = Set(idName)
+    )
+}
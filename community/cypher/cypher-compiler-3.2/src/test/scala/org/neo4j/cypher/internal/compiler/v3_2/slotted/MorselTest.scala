@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_2.slotted
+
+import org.neo4j.cypher.internal.frontend.v3_2.symbols._
+import org.neo4j.cypher.internal.frontend.v3_2.test_helpers.CypherFunSuite
+
+class MorselTest extends CypherFunSuite {
+
+  private val pipeline = PipelineInformation.empty.newLong("n", CTNode).newLong("r", CTRelationship).newReference("x", CTAny)
+
+  test("rows are kept apart in every column") {
+    val morsel = new Morsel(pipeline, 4)
+    morsel.setLongAt(0, 0, 10)
+    morsel.setLongAt(1, 0, 11)
+    morsel.setLongAt(0, 1, 20)
+    morsel.setRefAt(1, 0, "b")
+    morsel.size = 2
+
+    val first = morsel.rowAt(0)
+    first.getLongAt(0) should equal(10L)
+    first.getLongAt(1) should equal(20L)
+    first.getRefAt(0) should equal(null)
+
+    val second = morsel.rowAt(1)
+    second.getLongAt(0) should equal(11L)
+    second.getLongAt(1) should equal(0L)
+    second.getRefAt(0) should equal("b")
+  }
+
+  test("copies rows between morsels") {
+    val from = new Morsel(pipeline, 2)
+    from.setLongAt(1, 0, 1)
+    from.setLongAt(1, 1, 2)
+    from.setRefAt(1, 0, "a")
+    val to = new Morsel(pipeline, 4)
+
+    from.copyRowTo(1, to, 3)
+
+    to.getLongAt(3, 0) should equal(1L)
+    to.getLongAt(3, 1) should equal(2L)
+    to.getRefAt(3, 0) should equal("a")
+  }
+
+  test("cursor reads and writes the row it is moved to") {
+    val morsel = new Morsel(pipeline, 2)
+    val cursor = morsel.cursor
+
+    cursor.moveTo(1).setLongAt(0, 5)
+    cursor.setRefAt(0, "y")
+
+    morsel.getLongAt(1, 0) should equal(5L)
+    morsel.getRefAt(1, 0) should equal("y")
+    cursor.moveTo(0).getLongAt(0) should equal(0L)
+  }
+
+  test("is full at capacity") {
+    val morsel = new Morsel(pipeline, 2)
+    morsel.size = 2
+
+    morsel.isFull shouldBe true
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_2.slotted
+
+import org.neo4j.cypher.internal.compiler.v3_2.planner.{CantCompileQueryException, LogicalPlanningTestSupport}
+import org.neo4j.cypher.internal.compiler.v3_2.planner.logical.plans._
+import org.neo4j.cypher.internal.frontend.v3_2.SemanticDirection
+import org.neo4j.cypher.internal.frontend.v3_2.ast.CountStar
+import org.neo4j.cypher.internal.frontend.v3_2.symbols._
+import org.neo4j.cypher.internal.frontend.v3_2.test_helpers.CypherFunSuite
+import org.neo4j.cypher.internal.ir.v3_2.IdName
+
+class SlotAllocationTest extends CypherFunSuite with LogicalPlanningTestSupport {
+
+  test("only single allnodes scan") {
+    val plan = AllNodesScan(IdName("x"), Set.empty)(solved)
+
+    val pipeline = SlotAllocation.allocateSlots(plan)
+
+    pipeline should equal(PipelineInformation(Map("x" -> LongSlot(0, CTNode)), numberOfLongs = 1, numberOfReferences = 0))
+  }
+
+  test("expand allocates long slots for the relationship and the other node") {
+    val scan = AllNodesScan(IdName("x"), Set.empty)(solved)
+    val expand = Expand(scan, IdName("x"), SemanticDirection.INCOMING, Seq.empty, IdName("z"), IdName("r"), ExpandAll)(solved)
+
+    val pipeline = SlotAllocation.allocateSlots(expand)
+
+    pipeline should equal(PipelineInformation(Map(
+      "x" -> LongSlot(0, CTNode),
+      "r" -> LongSlot(1, CTRelationship),
+      "z" -> LongSlot(2, CTNode)), numberOfLongs = 3, numberOfReferences = 0))
+  }
+
+  test("expand into only allocates a slot for the relationship") {
+    val scan = AllNodesScan(IdName("x"), Set.empty)(solved)
+    val expand = Expand(scan, IdName("x"), SemanticDirection.INCOMING, Seq.empty, IdName("x"), IdName("r"), ExpandInto)(solved)
+
+    val pipeline = SlotAllocation.allocateSlots(expand)
+
+    pipeline should equal(PipelineInformation(Map(
+      "x" -> LongSlot(0, CTNode),
+      "r" -> LongSlot(1, CTRelationship)), numberOfLongs = 2, numberOfReferences = 0))
+  }
+
+  test("projection allocates reference slots, but not for variables projected onto themselves") {
+    val scan = AllNodesScan(IdName("x"), Set.empty)(solved)
+    val projection = Projection(scan, Map("x" -> varFor("x"), "y" -> prop("x", "prop")))(solved)
+
+    val pipeline = SlotAllocation.allocateSlots(projection)
+
+    pipeline should equal(PipelineInformation(Map(
+      "x" -> LongSlot(0, CTNode),
+      "y" -> RefSlot(0, CTAny)), numberOfLongs = 1, numberOfReferences = 1))
+  }
+
+  test("aggregation keeps entities grouped on as they are, and allocates reference slots for the rest") {
+    val scan = AllNodesScan(IdName("x"), Set.empty)(solved)
+    val aggregation = Aggregation(scan,
+      Map("x" -> varFor("x"), "y" -> prop("x", "prop")),
+      Map("c" -> CountStar()(pos)))(solved)
+
+    val pipeline = SlotAllocation.allocateSlots(aggregation)
+
+    pipeline.slots("x") should equal(LongSlot(0, CTNode))
+    pipeline.slots("y") shouldBe a [RefSlot]
+    pipeline.slots("c") shouldBe a [RefSlot]
+    pipeline.numberOfLongs should equal(1)
+    pipeline.numberOfReferences should equal(2)
+  }
+
+    test("unsupported plans can not be compiled") {
+    val lhs = AllNodesScan(IdName("x"), Set.empty)(solved)
+    val rhs = AllNodesScan(IdName("y"), Set.empty)(solved)
+    val plan = CartesianProduct(lhs, rhs)(solved)
+
+    a [CantCompileQueryException] should be thrownBy SlotAllocation.allocateSlots(plan)
+  }
+}
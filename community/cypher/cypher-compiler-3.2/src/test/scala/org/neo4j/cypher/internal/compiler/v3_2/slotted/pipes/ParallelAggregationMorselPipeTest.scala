@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_2.slotted.pipes
+
+import java.util.concurrent.Executor
+
+import org.mockito.Matchers._
+import org.mockito.Mockito._
+import org.mockito.invocation.InvocationOnMock
+import org.mockito.stubbing.Answer
+import org.neo4j.collection.primitive.PrimitiveLongCollections
+import org.neo4j.cypher.internal.compiler.v3_2.commands.expressions.{CountStar, IdFunction, Max, Min}
+import org.neo4j.cypher.internal.compiler.v3_2.pipes.{LazyLabel, PipeMonitor, QueryStateHelper}
+import org.neo4j.cypher.internal.compiler.v3_2.slotted.PipelineInformation
+import org.neo4j.cypher.internal.compiler.v3_2.slotted.expressions.NodeFromSlot
+import org.neo4j.cypher.internal.compiler.v3_2.spi.{Operations, QueryContext, QueryTransactionalContext}
+import org.neo4j.cypher.internal.frontend.v3_2.symbols._
+import org.neo4j.cypher.internal.frontend.v3_2.test_helpers.CypherFunSuite
+import org.neo4j.graphdb.{Node, TransactionTerminatedException}
+import org.neo4j.kernel.api.exceptions.Status
+
+class ParallelAggregationMorselPipeTest extends CypherFunSuite {
+
+  implicit val monitor = mock[PipeMonitor]
+
+  private val pipeline = PipelineInformation.empty.newLong("n", CTNode).newReference("c", CTInteger)
+    .newReference("min", CTInteger).newReference("max", CTInteger)
+  private val nodeCount = 2500
+  // The ids above the nodes that exist are those of deleted nodes
+  private val highestPossibleIdInUse = 2L * nodeCount
+  private val nodes = (0 until nodeCount).map(newMockedNode)
+  private val workers = new Executor {
+    override def execute(command: Runnable): Unit = new Thread(command).start()
+  }
+
+  test("merges the counts, minimums and maximums of all workers") {
+    val query = scanOfAllNodes()
+    when(query.withNewReadTransaction(any[QueryContext => Any]())).thenAnswer(new Answer[Any] {
+      override def answer(invocation: InvocationOnMock): Any =
+        invocation.getArguments()(0).asInstanceOf[QueryContext => Any](query)
+    })
+
+    val result = aggregation().createMorsels(QueryStateHelper.emptyWith(query = query)).toList
+
+    val (morsel :: Nil) = result
+    morsel.size should equal(1)
+    morsel.getRefAt(0, 0) should equal(nodeCount.toLong)
+    morsel.getRefAt(0, 1) should equal(0L)
+    morsel.getRefAt(0, 2) should equal(nodeCount - 1L)
+    verify(query.nodeOps, never()).allPrimitive
+    verify(query, times(1)).nodeExists(0L)
+    verify(query, times(1)).nodeExists(highestPossibleIdInUse)
+    verify(query, never()).nodeExists(highestPossibleIdInUse + 1)
+  }
+
+  test("hands out the morsels of a label scan to the workers") {
+    val query = scanOfAllNodes()
+    when(query.getOptLabelId("L")).thenReturn(Some(0))
+    when(query.getNodesByLabelPrimitive(0)).thenReturn(PrimitiveLongCollections.iterator((0L until nodeCount).toArray: _*))
+    when(query.withNewReadTransaction(any[QueryContext => Any]())).thenAnswer(new Answer[Any] {
+      override def answer(invocation: InvocationOnMock): Any =
+        invocation.getArguments()(0).asInstanceOf[QueryContext => Any](query)
+    })
+
+    val result = aggregation(NodesByLabelScanMorselPipe(0, LazyLabel("L"), pipeline)())
+      .createMorsels(QueryStateHelper.emptyWith(query = query)).toList
+
+    val (morsel :: Nil) = result
+    morsel.getRefAt(0, 0) should equal(nodeCount.toLong)
+    morsel.getRefAt(0, 2) should equal(nodeCount - 1L)
+    verify(query, never()).nodeExists(anyLong())
+  }
+
+  test("aggregates on the calling thread when the transaction has changes") {
+    val query = scanOfAllNodes()
+    when(query.transactionHasChanges).thenReturn(true)
+
+    val result = aggregation().createMorsels(QueryStateHelper.emptyWith(query = query)).toList
+
+    val (morsel :: Nil) = result
+    morsel.getRefAt(0, 0) should equal(nodeCount.toLong)
+    verify(query, never()).withNewReadTransaction(any[QueryContext => Any]())
+  }
+
+  test("fails when a worker fails") {
+    val query = scanOfAllNodes()
+    when(query.withNewReadTransaction(any[QueryContext => Any]())).thenThrow(new IllegalStateException("worker failed"))
+
+    val exception = intercept[IllegalStateException](
+      aggregation().createMorsels(QueryStateHelper.emptyWith(query = query)).toList)
+
+    exception.getMessage should equal("worker failed")
+  }
+
+  test("fails when the transaction of the query is terminated") {
+    val query = scanOfAllNodes()
+    when(query.withNewReadTransaction(any[QueryContext => Any]())).thenAnswer(new Answer[Any] {
+      override def answer(invocation: InvocationOnMock): Any =
+        invocation.getArguments()(0).asInstanceOf[QueryContext => Any](query)
+    })
+    doThrow(new TransactionTerminatedException(Status.Transaction.Terminated)).when(query.transactionalContext).check()
+
+    val exception = intercept[TransactionTerminatedException](
+      aggregation().createMorsels(QueryStateHelper.emptyWith(query = query)).toList)
+
+    exception.status() should equal(Status.Transaction.Terminated)
+  }
+
+  private def aggregation(scan: MorselPipe = AllNodesScanMorselPipe(0, pipeline)()) = {
+    val id = IdFunction(NodeFromSlot(0))
+    ParallelAggregationMorselPipe(scan, MorselArgumentPipe(pipeline)(),
+      longGroupings = Seq.empty, refGroupings = Map.empty,
+      aggregations = Map(0 -> CountStar(), 1 -> Min(id), 2 -> Max(id)), pipelineInformation = pipeline)()
+  }
+
+  private def scanOfAllNodes(): QueryContext = {
+    val query = mock[QueryContext]
+    val nodeOps = mock[Operations[Node]]
+    val transactionalContext = mock[QueryTransactionalContext]
+    when(query.workerExecutor).thenReturn(workers)
+    when(query.transactionalContext).thenReturn(transactionalContext)
+    when(query.nodeOps).thenReturn(nodeOps)
+    when(nodeOps.allPrimitive).thenReturn(PrimitiveLongCollections.iterator((0L until nodeCount).toArray: _*))
+    when(query.nodeHighestPossibleIdInUse).thenReturn(highestPossibleIdInUse)
+    when(query.nodeExists(anyLong())).thenAnswer(new Answer[Boolean] {
+      override def answer(invocation: InvocationOnMock): Boolean = invocation.getArguments()(0).asInstanceOf[Long] < nodeCount
+    })
+    when(nodeOps.getById(anyLong())).thenAnswer(new Answer[Node] {
+      override def answer(invocation: InvocationOnMock): Node = nodes(invocation.getArguments()(0).asInstanceOf[Long].toInt)
+    })
+    query
+  }
+
+  private def newMockedNode(id: Int) = {
+    val node = mock[Node]
+    when(node.getId).thenReturn(id)
+    node
+  }
+}
@@ -158,6 +158,9 @@ class GraphStatisticsSnapshotTest extends CypherFunSuite {
     def indexPropertyExistsSelectivity(label: LabelId, property: PropertyKeyId): Option[Selectivity] =
       Selectivity.of(idxPropertyExistsSelectivity / _factor)
 
+    def indexSelectivity(label: LabelId, properties: Seq[PropertyKeyId]): Option[Selectivity] =
+      Selectivity.of(idxSelectivity / _factor)
+
     def factor(factor: Double): Unit = {
       _factor = factor
     }
@@ -20,12 +20,15 @@
 package org.neo4j.cypher.internal.compiler.v3_2.spi
 
 import java.net.URL
+import java.util.concurrent.Executor
 
+import org.neo4j.collection.primitive.PrimitiveLongIterator
 import org.neo4j.cypher.internal.compiler.v3_2.commands.expressions.{Expander, KernelPredicate, UserDefinedAggregator}
 import org.neo4j.cypher.internal.compiler.v3_2.pipes.matching.PatternNode
 import org.neo4j.cypher.internal.frontend.v3_2.SemanticDirection
 import org.neo4j.graphdb.{Node, Path, PropertyContainer, Relationship}
 import org.neo4j.cypher.internal.compiler.v3_2.IndexDescriptor
+import org.neo4j.kernel.impl.api.store.RelationshipIterator
 
 trait QueryContextAdaptation {
   self: QueryContext =>
@@ -57,6 +60,12 @@ trait QueryContextAdaptation {
     */
   override def withAnyOpenQueryContext[T](work: (QueryContext) => T): T = ???
 
+  override def withNewReadTransaction[T](work: (QueryContext) => T): T = ???
+
+  override def workerExecutor: Executor = ???
+
+  override def transactionHasChanges: Boolean = ???
+
   // Legacy dependency between kernel and compiler
   override def variableLengthPathExpand(node: PatternNode, realNode: Node, minHops: Option[Int], maxHops: Option[Int], direction: SemanticDirection, relTypes: Seq[String]): scala.Iterator[Path] = ???
 
@@ -72,8 +81,12 @@ trait QueryContextAdaptation {
 
   override def indexSeek(index: IndexDescriptor, value: Any): scala.Iterator[Node] = ???
 
+  override def compositeIndexSeek(index: IndexDescriptor, values: Seq[Any]): scala.Iterator[Node] = ???
+
   override def getRelationshipsForIds(node: Node, dir: SemanticDirection, types: Option[Seq[Int]]): scala.Iterator[Relationship] = ???
 
+  override def getRelationshipsForIdsPrimitive(node: Long, dir: SemanticDirection, types: Option[Seq[Int]]): RelationshipIterator = ???
+
   override def relationshipStartNode(rel: Relationship): Node = ???
 
   override def getLabelsForNode(node: Long): scala.Iterator[Int] = ???
@@ -119,6 +132,12 @@ trait QueryContextAdaptation {
 
   override def getNodesByLabel(id: Int): scala.Iterator[Node] = ???
 
+  override def getNodesByLabelPrimitive(id: Int): PrimitiveLongIterator = ???
+
+  override def nodeHighestPossibleIdInUse: Long = ???
+
+  override def nodeExists(id: Long): Boolean = ???
+
   override def lockingUniqueIndexSeek(index: IndexDescriptor, value: Any): Option[Node] = ???
 
   override def callReadOnlyProcedure(name: QualifiedName, args: Seq[Any], allowed: Array[String]): scala.Iterator[Array[AnyRef]] = ???
@@ -20,7 +20,9 @@
 package org.neo4j.cypher.internal.compatibility.v3_2
 
 import java.net.URL
+import java.util.concurrent.Executor
 
+import org.neo4j.collection.primitive.PrimitiveLongIterator
 import org.neo4j.cypher.internal.compiler.v3_2.spi.QualifiedName
 import org.neo4j.cypher.internal.compiler.v3_2.IndexDescriptor
 import org.neo4j.cypher.internal.compiler.v3_2.commands.expressions.{Expander, KernelPredicate, UserDefinedAggregator}
@@ -29,6 +31,7 @@ import org.neo4j.cypher.internal.compiler.v3_2.spi._
 import org.neo4j.cypher.internal.frontend.v3_2.SemanticDirection
 import org.neo4j.cypher.internal.spi.v3_2.ExceptionTranslationSupport
 import org.neo4j.graphdb.{Node, Path, PropertyContainer, Relationship}
+import org.neo4j.kernel.impl.api.store.RelationshipIterator
 
 import scala.collection.Iterator
 
@@ -100,9 +103,21 @@ class ExceptionTranslatingQueryContext(val inner: QueryContext) extends QueryCon
   override def indexSeek(index: IndexDescriptor, value: Any): Iterator[Node] =
     translateException(inner.indexSeek(index, value))
 
+  override def compositeIndexSeek(index: IndexDescriptor, values: Seq[Any]): Iterator[Node] =
+    translateException(inner.compositeIndexSeek(index, values))
+
   override def getNodesByLabel(id: Int): Iterator[Node] =
     translateException(inner.getNodesByLabel(id))
 
+  override def getNodesByLabelPrimitive(id: Int): PrimitiveLongIterator =
+    translateException(inner.getNodesByLabelPrimitive(id))
+
+  override def nodeHighestPossibleIdInUse: Long =
+    translateException(inner.nodeHighestPossibleIdInUse)
+
+  override def nodeExists(id: Long): Boolean =
+    translateException(inner.nodeExists(id))
+
   override def nodeGetDegree(node: Long, dir: SemanticDirection): Int =
     translateException(inner.nodeGetDegree(node, dir))
 
@@ -162,6 +177,16 @@ class ExceptionTranslatingQueryContext(val inner: QueryContext) extends QueryCon
         work(new ExceptionTranslatingQueryContext(qc))
       ))
 
+  override def withNewReadTransaction[T](work: (QueryContext) => T): T =
+    translateException(
+      inner.withNewReadTransaction(qc => work(new ExceptionTranslatingQueryContext(qc)))
+    )
+
+  override def workerExecutor: Executor = inner.workerExecutor
+
+  override def transactionHasChanges: Boolean =
+    translateException(inner.transactionHasChanges)
+
   override def isLabelSetOnNode(label: Int, node: Long): Boolean =
     translateException(inner.isLabelSetOnNode(label, node))
 
@@ -192,6 +217,9 @@ class ExceptionTranslatingQueryContext(val inner: QueryContext) extends QueryCon
   override def getRelationshipsForIds(node: Node, dir: SemanticDirection, types: Option[Seq[Int]]) =
     translateException(inner.getRelationshipsForIds(node, dir, types))
 
+  override def getRelationshipsForIdsPrimitive(node: Long, dir: SemanticDirection, types: Option[Seq[Int]]): RelationshipIterator =
+    translateException(inner.getRelationshipsForIdsPrimitive(node, dir, types))
+
   override def indexSeekByRange(index: IndexDescriptor, value: Any) =
     translateException(inner.indexSeekByRange(index, value))
 
@@ -268,12 +296,17 @@ class ExceptionTranslatingQueryContext(val inner: QueryContext) extends QueryCon
     override def all: Iterator[T] =
       translateException(inner.all)
 
+    override def allPrimitive: PrimitiveLongIterator =
+      translateException(inner.allPrimitive)
+
     override def isDeletedInThisTx(obj: T): Boolean =
       translateException(inner.isDeletedInThisTx(obj))
   }
 
   class ExceptionTranslatingTransactionalContext(inner: QueryTransactionalContext) extends DelegatingQueryTransactionalContext(inner) {
     override def close(success: Boolean) { translateException(super.close(success)) }
+
+    override def check(): Unit = translateException(super.check())
   }
 }
 
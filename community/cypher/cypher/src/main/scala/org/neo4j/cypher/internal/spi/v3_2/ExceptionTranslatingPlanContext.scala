@@ -31,6 +31,9 @@ class ExceptionTranslatingPlanContext(inner: PlanContext) extends PlanContext wi
   override def getUniqueIndexRule(labelName: String, propertyKey: String): Option[IndexDescriptor] =
     translateException(inner.getUniqueIndexRule(labelName, propertyKey))
 
+  override def getCompositeIndexRules(labelName: String): Seq[IndexDescriptor] =
+    translateException(inner.getCompositeIndexRules(labelName))
+
   override def statistics: GraphStatistics =
     translateException(inner.statistics)
 
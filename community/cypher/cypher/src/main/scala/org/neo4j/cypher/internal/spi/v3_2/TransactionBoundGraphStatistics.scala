@@ -34,11 +34,14 @@ object TransactionBoundGraphStatistics {
     import NameId._
 
     def indexSelectivity(label: LabelId, property: PropertyKeyId): Option[Selectivity] =
+      indexSelectivity(label, Seq(property))
+
+    def indexSelectivity(label: LabelId, properties: Seq[PropertyKeyId]): Option[Selectivity] =
       try {
-        val indexDescriptor = NewIndexDescriptorFactory.forLabel( label, property )
+        val indexDescriptor = NewIndexDescriptorFactory.forLabel( label, properties.map(_.id): _* )
         val labeledNodes = operations.countsForNodeWithoutTxState( label ).toDouble
 
-        // Probability of any node with the given label, to have a property with a given value
+        // Probability of any node with the given label, to have the properties with a given combination of values
         val indexEntrySelectivity = operations.indexUniqueValuesSelectivity(indexDescriptor)
         val frequencyOfNodesWithSameValue = 1.0 / indexEntrySelectivity
         val indexSelectivity = frequencyOfNodesWithSameValue / labeledNodes
@@ -28,6 +28,7 @@ import org.neo4j.cypher.internal.compiler.v3_2.spi._
 import org.neo4j.cypher.internal.frontend.v3_2.phases.InternalNotificationLogger
 import org.neo4j.cypher.internal.frontend.v3_2.symbols.CypherType
 import org.neo4j.cypher.internal.frontend.v3_2.{CypherExecutionException, symbols}
+import org.neo4j.kernel.api.StatementConstants
 import org.neo4j.kernel.api.exceptions.schema.SchemaKernelException
 import org.neo4j.kernel.api.index.InternalIndexState
 import org.neo4j.kernel.api.proc.Neo4jTypes.AnyType
@@ -69,6 +70,18 @@ class TransactionBoundPlanContext(tc: TransactionalContextWrapper, logger: Inter
     Some(IndexDescriptor(index.schema().getLabelId, index.schema().getPropertyIds()(0)))
   }
 
+  def getCompositeIndexRules(labelName: String): Seq[IndexDescriptor] = {
+    val labelId = tc.statement.readOperations().labelGetForName(labelName)
+    if (labelId == StatementConstants.NO_SUCH_LABEL) Seq.empty
+    else {
+      val indexDescriptors = tc.statement.readOperations().indexesGetForLabel(labelId).asScala
+      indexDescriptors.filter { descriptor =>
+        descriptor.schema().getPropertyIds.length > 1 &&
+          tc.statement.readOperations().indexGetState(descriptor) == InternalIndexState.ONLINE
+      }.map(descriptor => IndexDescriptor(descriptor.schema().getLabelId, descriptor.schema().getPropertyIds)).toIndexedSeq
+    }
+  }
+
   private def evalOrNone[T](f: => Option[T]): Option[T] =
     try {
       f
@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.spi.v3_2
 
 import java.net.URL
+import java.util.concurrent.Executor
 import java.util.function.Predicate
 
 import org.neo4j.collection.RawIterator
@@ -57,8 +58,10 @@ import org.neo4j.kernel.api.schema_new.IndexQuery
 import org.neo4j.kernel.api.schema.{NodeMultiPropertyDescriptor, NodePropertyDescriptor}
 import org.neo4j.kernel.api.schema_new.SchemaDescriptorFactory
 import org.neo4j.kernel.api.schema_new.constaints.ConstraintDescriptorFactory
+import org.neo4j.kernel.impl.api.store.RelationshipIterator
 import org.neo4j.kernel.impl.core.NodeManager
 import org.neo4j.kernel.impl.locking.ResourceTypes
+import org.neo4j.kernel.impl.util.JobScheduler
 
 import scala.collection.Iterator
 import scala.collection.JavaConverters._
@@ -93,6 +96,24 @@ final class TransactionBoundQueryContext(val transactionalContext: Transactional
     }
   }
 
+  override def withNewReadTransaction[T](work: (QueryContext) => T): T = {
+    val context = TransactionalContextWrapper(transactionalContext.tc.beginWorkerContext())
+    var success = false
+    try {
+      val result = work(new TransactionBoundQueryContext(context))
+      success = true
+      result
+    } finally {
+      context.close(success)
+    }
+  }
+
+  override def workerExecutor: Executor =
+    transactionalContext.graph.getDependencyResolver.resolveDependency(classOf[JobScheduler])
+      .executor(JobScheduler.Groups.cypherWorker)
+
+  override def transactionHasChanges: Boolean = transactionalContext.stateView.hasTxStateWithChanges
+
   override def createNode(): Node =
     transactionalContext.graph.createNode()
 
@@ -139,12 +160,26 @@ final class TransactionBoundQueryContext(val transactionalContext: Transactional
     new BeansAPIRelationshipIterator(relationships, entityAccessor)
   }
 
+  override def getRelationshipsForIdsPrimitive(node: Long, dir: SemanticDirection,
+                                               types: Option[Seq[Int]]): RelationshipIterator = types match {
+    case None =>
+      transactionalContext.statement.readOperations().nodeGetRelationships(node, toGraphDb(dir))
+    case Some(typeIds) =>
+      transactionalContext.statement.readOperations().nodeGetRelationships(node, toGraphDb(dir), typeIds.toArray)
+  }
+
   override def indexSeek(index: IndexDescriptor, value: Any) = {
     indexSearchMonitor.indexSeek(index, value)
     val predicates = IndexQuery.exact(index.property, value)
     JavaConversionSupport.mapToScalaENFXSafe(transactionalContext.statement.readOperations().indexQuery(index, predicates))(nodeOps.getById)
   }
 
+  override def compositeIndexSeek(index: IndexDescriptor, values: Seq[Any]) = {
+    assert(index.properties.length == values.length)
+    val predicates = index.properties.zip(values).map { case (property, value) => IndexQuery.exact(property.id, value) }
+    JavaConversionSupport.mapToScalaENFXSafe(transactionalContext.statement.readOperations().indexQuery(index, predicates: _*))(nodeOps.getById)
+  }
+
   override def indexSeekByRange(index: IndexDescriptor, value: Any) = value match {
 
     case PrefixRange(prefix: String) =>
@@ -287,6 +322,15 @@ final class TransactionBoundQueryContext(val transactionalContext: Transactional
   override def getNodesByLabel(id: Int): Iterator[Node] =
     JavaConversionSupport.mapToScalaENFXSafe(transactionalContext.statement.readOperations().nodesGetForLabel(id))(nodeOps.getById)
 
+  override def getNodesByLabelPrimitive(id: Int): PrimitiveLongIterator =
+    transactionalContext.statement.readOperations().nodesGetForLabel(id)
+
+  override def nodeHighestPossibleIdInUse: Long =
+    transactionalContext.statement.readOperations().nodesGetHighestPossibleIdInUse()
+
+  override def nodeExists(id: Long): Boolean =
+    transactionalContext.statement.readOperations().nodeExists(id)
+
   override def nodeGetDegree(node: Long, dir: SemanticDirection): Int =
     transactionalContext.statement.readOperations().nodeGetDegree(node, toGraphDb(dir))
 
@@ -351,6 +395,9 @@ final class TransactionBoundQueryContext(val transactionalContext: Transactional
     override def all: Iterator[Node] =
       JavaConversionSupport.mapToScalaENFXSafe(transactionalContext.statement.readOperations().nodesGetAll())(getById)
 
+    override def allPrimitive: PrimitiveLongIterator =
+      transactionalContext.statement.readOperations().nodesGetAll()
+
     override def indexGet(name: String, key: String, value: Any): Iterator[Node] =
       JavaConversionSupport.mapToScalaENFXSafe(transactionalContext.statement.readOperations().nodeLegacyIndexGet(name, key, value))(getById)
 
@@ -427,6 +474,9 @@ final class TransactionBoundQueryContext(val transactionalContext: Transactional
       JavaConversionSupport.mapToScalaENFXSafe(transactionalContext.statement.readOperations().relationshipsGetAll())(getById)
     }
 
+    override def allPrimitive: PrimitiveLongIterator =
+      transactionalContext.statement.readOperations().relationshipsGetAll()
+
     override def indexGet(name: String, key: String, value: Any): Iterator[Relationship] =
       JavaConversionSupport.mapToScalaENFXSafe(transactionalContext.statement.readOperations().relationshipLegacyIndexGet(name, key, value, -1, -1))(getById)
 
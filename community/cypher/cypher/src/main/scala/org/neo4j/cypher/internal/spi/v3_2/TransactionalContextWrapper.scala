@@ -61,6 +61,8 @@ case class TransactionalContextWrapper(tc: TransactionalContext) extends QueryTr
 
   override def close(success: Boolean) { tc.close(success) }
 
+  override def check(): Unit = tc.check()
+
   def restrictCurrentTransaction(context: SecurityContext): Revertable = tc.restrictCurrentTransaction(context)
 
   def securityContext: SecurityContext = tc.securityContext
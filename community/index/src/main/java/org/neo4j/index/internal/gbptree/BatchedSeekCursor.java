@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.IOException;
+
+import org.neo4j.cursor.RawCursor;
+
+/**
+ * {@link RawCursor} over {@link Hit hits} in a key range of a {@link GBPTree}, which additionally can read hits
+ * in batches using {@link #nextBatch(Object[], Object[])}. A batch is read from a single leaf at a time,
+ * meaning that consistency checks and generation checks are made once per batch instead of once per hit.
+ * <p>
+ * Calls to {@link #next()} and {@link #nextBatch(Object[], Object[])} can be interleaved and both continue
+ * where the previous call left off.
+ *
+ * @param <KEY> type of keys
+ * @param <VALUE> type of values
+ */
+public interface BatchedSeekCursor<KEY,VALUE> extends RawCursor<Hit<KEY,VALUE>,IOException>
+{
+    /**
+     * Reads the next hits into the provided key and value instances, in the order of this seek.
+     * Hits are read from at most one leaf per call, so fewer hits than there's room for may be returned
+     * even if more hits exists in the range. A return value of {@code 0} marks the end of the range.
+     * <p>
+     * Key and value instances must be provided by caller, typically created once using {@link Layout#newKey()}
+     * and {@link Layout#newValue()} and reused for every call. Instances may be reordered within the arrays.
+     * {@link #get()} is not updated by this method.
+     *
+     * @param keys non-empty array of key instances to read keys into.
+     * @param values array of value instances to read values into, at least as long as {@code keys}.
+     * @return number of hits read, where hit {@code i} is found in {@code keys[i]} and {@code values[i]},
+     * or {@code 0} if there are no more hits.
+     * @throws IOException on error reading from the tree.
+     */
+    int nextBatch( KEY[] keys, VALUE[] values ) throws IOException;
+}
@@ -407,6 +407,63 @@ public class GBPTree<KEY,VALUE> implements Closeable
     }
 
     private void loadState( PagedFile pagedFile, Header.Reader headerReader ) throws IOException
+    {
+        TreeState state = readHeader( pagedFile, headerReader );
+        generation = Generation.generation( state.stableGeneration(), state.unstableGeneration() );
+        setRoot( state.rootId(), state.rootGen() );
+
+        long lastId = state.lastId();
+        long freeListWritePageId = state.freeListWritePageId();
+        long freeListReadPageId = state.freeListReadPageId();
+        int freeListWritePos = state.freeListWritePos();
+        int freeListReadPos = state.freeListReadPos();
+        freeList.initialize( lastId, freeListWritePageId, freeListReadPageId, freeListWritePos, freeListReadPos );
+    }
+
+    /**
+     * Reads the header of an existing index file, previously written using {@link #checkpoint(IOLimiter, Consumer)}
+     * or {@link #close(Consumer)}, without opening the tree itself. This is useful for reading state stored in the
+     * header, e.g. whether or not the index is online, before deciding how to open it.
+     *
+     * @param pageCache {@link PageCache} to use to map index file
+     * @param indexFile {@link File} containing the actual index
+     * @param headerReader reads header data of the newest valid state
+     * @throws IOException on page cache error, or {@link java.nio.file.NoSuchFileException} if there's no such file
+     */
+    public static void readHeader( PageCache pageCache, File indexFile, Header.Reader headerReader )
+            throws IOException
+    {
+        try ( PagedFile pagedFile = mapWithPageSizeFromMeta( pageCache, indexFile ) )
+        {
+            readHeader( pagedFile, headerReader );
+        }
+    }
+
+    private static PagedFile mapWithPageSizeFromMeta( PageCache pageCache, File indexFile ) throws IOException
+    {
+        int pageSize;
+        try ( PagedFile pagedFile = pageCache.map( indexFile, pageCache.pageSize() );
+              PageCursor metaCursor = openMetaPageCursor( pagedFile, PagedFile.PF_SHARED_READ_LOCK ) )
+        {
+            do
+            {
+                metaCursor.getInt(); // format version
+                pageSize = metaCursor.getInt();
+            }
+            while ( metaCursor.shouldRetry() );
+            checkOutOfBounds( metaCursor );
+        }
+        if ( pageSize > pageCache.pageSize() )
+        {
+            throw new MetadataMismatchException( "Tree in " + indexFile.getAbsolutePath() +
+                    " was created with page size:" + pageSize +
+                    ", but page cache used to open it this time has a smaller page size:" +
+                    pageCache.pageSize() + " so cannot be opened" );
+        }
+        return pageCache.map( indexFile, pageSize );
+    }
+
+    private static TreeState readHeader( PagedFile pagedFile, Header.Reader headerReader ) throws IOException
     {
         Pair<TreeState,TreeState> states = readStatePages( pagedFile );
         TreeState state = TreeStatePair.selectNewestValidState( states );
@@ -421,15 +478,7 @@ public class GBPTree<KEY,VALUE> implements Closeable
             }
             while ( cursor.shouldRetry() );
         }
-        generation = Generation.generation( state.stableGeneration(), state.unstableGeneration() );
-        setRoot( state.rootId(), state.rootGen() );
-
-        long lastId = state.lastId();
-        long freeListWritePageId = state.freeListWritePageId();
-        long freeListReadPageId = state.freeListReadPageId();
-        int freeListWritePos = state.freeListWritePos();
-        int freeListReadPos = state.freeListReadPos();
-        freeList.initialize( lastId, freeListWritePageId, freeListReadPageId, freeListWritePos, freeListReadPos );
+        return state;
     }
 
     private void writeState( PagedFile pagedFile, Header.Writer headerWriter ) throws IOException
@@ -625,6 +674,23 @@ public class GBPTree<KEY,VALUE> implements Closeable
      * @throws IOException on error reading from index.
      */
     public RawCursor<Hit<KEY,VALUE>,IOException> seek( KEY fromInclusive, KEY toExclusive ) throws IOException
+    {
+        return batchedSeek( fromInclusive, toExclusive );
+    }
+
+    /**
+     * Seeks hits in this tree, given a key range, like {@link #seek(Object, Object)}. In addition to iterating
+     * over one hit at a time the returned cursor can {@link BatchedSeekCursor#nextBatch(Object[], Object[]) read}
+     * all hits of a leaf at a time into caller provided key and value instances. This is considerably cheaper
+     * for large ranges, since the per-hit overhead of verifying consistent reads is amortized over the batch.
+     * Batched seeks can go either forwards or backwards, the same way as {@link #seek(Object, Object)}.
+     *
+     * @param fromInclusive lower bound of the range to seek (inclusive).
+     * @param toExclusive higher bound of the range to seek (exclusive).
+     * @return a {@link BatchedSeekCursor} used to iterate over the hits within the specified key range.
+     * @throws IOException on error reading from index.
+     */
+    public BatchedSeekCursor<KEY,VALUE> batchedSeek( KEY fromInclusive, KEY toExclusive ) throws IOException
     {
         long generation = this.generation;
         long stableGeneration = stableGeneration( generation );
@@ -792,6 +858,45 @@ public class GBPTree<KEY,VALUE> implements Closeable
         }
     }
 
+    /**
+     * Returns a {@link BulkLoader} able to populate this tree from key/value pairs given in sorted order.
+     * This is much faster than inserting the same entries through a {@link #writer()}, because the tree is built
+     * bottom-up, with completely filled nodes written in sequence. The tree must be empty, e.g. newly created.
+     * A bulk loader excludes {@link #writer() writers} and {@link #checkpoint(IOLimiter) check points} in the same
+     * way that a writer does, and the loaded entries become visible when the returned bulk loader is closed.
+     *
+     * @return a {@link BulkLoader} for this tree. The returned bulk loader must be {@link BulkLoader#close() closed}
+     * before a writer or another bulk loader can be acquired.
+     * @throws IOException on error accessing the index.
+     * @throws IllegalStateException if the writer is already acquired, or if the tree is not empty.
+     */
+    public BulkLoader<KEY,VALUE> bulkLoader() throws IOException
+    {
+        if ( !writerTaken.compareAndSet( false, true ) )
+        {
+            throw new IllegalStateException( "Writer in " + this + " is already acquired by someone else. " +
+                    "Only a single writer is allowed. The writer will become available as soon as " +
+                    "acquired writer is closed" );
+        }
+
+        writerCheckpointMutex.lock();
+        boolean success = false;
+        try
+        {
+            SingleBulkLoader bulkLoader = new SingleBulkLoader();
+            success = true;
+            changesSinceLastCheckpoint = true;
+            return bulkLoader;
+        }
+        finally
+        {
+            if ( !success )
+            {
+                releaseWriter();
+            }
+        }
+    }
+
     private void releaseWriter()
     {
         writerCheckpointMutex.unlock();
@@ -972,4 +1077,197 @@ public class GBPTree<KEY,VALUE> implements Closeable
             releaseWriter();
         }
     }
+
+    /**
+     * Builds the tree bottom-up from sorted entries. Leaves are filled up one after the other. Whenever a new leaf
+     * is started, its first key and id are added to the rightmost node on the level above, which in turn gets
+     * a new right sibling when full, and so on upwards. The top level always has a single node, which becomes
+     * the new root when the bulk loader is closed. All nodes are written in the unstable generation, so a crash
+     * before the next check point leaves the tree as it was before the bulk load.
+     */
+    private class SingleBulkLoader implements BulkLoader<KEY,VALUE>
+    {
+        // Enough levels for any tree, since internal nodes have at least three children
+        // and page ids are at most 48 bits.
+        private static final int MAX_LEVELS = 64;
+
+        // Bulk loader can't live past a checkpoint because of the mutex with checkpoint,
+        // therefore safe to locally cache these generation fields from the volatile generation in the tree
+        private final long stableGeneration;
+        private final long unstableGeneration;
+        private final KEY previousKey;
+        // Per level, with level 0 being the leaves: the leftmost node, the rightmost node and the key count
+        // of the rightmost node.
+        private final long[] leftmostNodeIds = new long[MAX_LEVELS];
+        private final long[] rightmostNodeIds = new long[MAX_LEVELS];
+        private final int[] rightmostKeyCounts = new int[MAX_LEVELS];
+        private int levelCount;
+        private PageCursor leafCursor;
+        private PageCursor internalCursor;
+
+        SingleBulkLoader() throws IOException
+        {
+            this.stableGeneration = stableGeneration( generation );
+            this.unstableGeneration = unstableGeneration( generation );
+            this.previousKey = layout.newKey();
+            assertEmpty();
+            this.leafCursor = pagedFile.io( 0L /*ignored*/, PagedFile.PF_SHARED_WRITE_LOCK );
+            this.internalCursor = pagedFile.io( 0L /*ignored*/, PagedFile.PF_SHARED_WRITE_LOCK );
+        }
+
+        private void assertEmpty() throws IOException
+        {
+            try ( PageCursor cursor = openRootCursor( PagedFile.PF_SHARED_READ_LOCK ) )
+            {
+                boolean empty;
+                do
+                {
+                    empty = TreeNode.isLeaf( cursor ) && bTreeNode.keyCount( cursor ) == 0;
+                }
+                while ( cursor.shouldRetry() );
+                checkOutOfBounds( cursor );
+                if ( !empty )
+                {
+                    throw new IllegalStateException( "Can only bulk load into an empty tree, but " + GBPTree.this +
+                            " is not empty" );
+                }
+            }
+        }
+
+        @Override
+        public void add( KEY key, VALUE value ) throws IOException
+        {
+            if ( levelCount > 0 && layout.compare( previousKey, key ) >= 0 )
+            {
+                throw new IllegalArgumentException( "Keys must be bulk loaded in strictly ascending order, but " +
+                        key + " was added after " + previousKey );
+            }
+
+            if ( levelCount == 0 || rightmostKeyCounts[0] == bTreeNode.leafMaxKeyCount() )
+            {
+                startNewLeaf( key );
+            }
+            int keyCount = rightmostKeyCounts[0];
+            bTreeNode.setKeyAt( leafCursor, key, keyCount );
+            bTreeNode.setValueAt( leafCursor, value, keyCount );
+            rightmostKeyCounts[0] = keyCount + 1;
+            layout.copyKey( key, previousKey );
+        }
+
+        private void startNewLeaf( KEY firstKey ) throws IOException
+        {
+            long newLeafId = freeList.acquireNewId( stableGeneration, unstableGeneration );
+            boolean first = levelCount == 0;
+            if ( !first )
+            {
+                bTreeNode.setKeyCount( leafCursor, rightmostKeyCounts[0] );
+                bTreeNode.setRightSibling( leafCursor, newLeafId, stableGeneration, unstableGeneration );
+                checkOutOfBounds( leafCursor );
+            }
+
+            long previousLeafId = rightmostNodeIds[0];
+            PageCursorUtil.goTo( leafCursor, "new leaf", newLeafId );
+            bTreeNode.initializeLeaf( leafCursor, stableGeneration, unstableGeneration );
+            rightmostNodeIds[0] = newLeafId;
+            rightmostKeyCounts[0] = 0;
+            if ( first )
+            {
+                leftmostNodeIds[0] = newLeafId;
+                levelCount = 1;
+            }
+            else
+            {
+                bTreeNode.setLeftSibling( leafCursor, previousLeafId, stableGeneration, unstableGeneration );
+                addToParent( 1, newLeafId, firstKey );
+            }
+        }
+
+        /**
+         * Adds the given child, to the right of all other children, on the given level. All keys in the child
+         * are greater than or equal to the given key.
+         */
+        private void addToParent( int level, long childId, KEY key ) throws IOException
+        {
+            if ( level == levelCount )
+            {
+                // The level below just got its second node, so we need a new level on top
+                if ( level == MAX_LEVELS )
+                {
+                    throw new IllegalStateException( "Bulk loaded tree in " + GBPTree.this + " is too high" );
+                }
+                long nodeId = freeList.acquireNewId( stableGeneration, unstableGeneration );
+                PageCursorUtil.goTo( internalCursor, "new internal node", nodeId );
+                bTreeNode.initializeInternal( internalCursor, stableGeneration, unstableGeneration );
+                bTreeNode.setChildAt( internalCursor, leftmostNodeIds[level - 1], 0,
+                        stableGeneration, unstableGeneration );
+                bTreeNode.setKeyAt( internalCursor, key, 0 );
+                bTreeNode.setChildAt( internalCursor, childId, 1, stableGeneration, unstableGeneration );
+                bTreeNode.setKeyCount( internalCursor, 1 );
+                checkOutOfBounds( internalCursor );
+                leftmostNodeIds[level] = nodeId;
+                rightmostNodeIds[level] = nodeId;
+                rightmostKeyCounts[level] = 1;
+                levelCount++;
+                return;
+            }
+
+            long nodeId = rightmostNodeIds[level];
+            int keyCount = rightmostKeyCounts[level];
+            PageCursorUtil.goTo( internalCursor, "rightmost internal node", nodeId );
+            if ( keyCount < bTreeNode.internalMaxKeyCount() )
+            {
+                bTreeNode.setKeyAt( internalCursor, key, keyCount );
+                bTreeNode.setChildAt( internalCursor, childId, keyCount + 1, stableGeneration, unstableGeneration );
+                bTreeNode.setKeyCount( internalCursor, keyCount + 1 );
+                checkOutOfBounds( internalCursor );
+                rightmostKeyCounts[level] = keyCount + 1;
+                return;
+            }
+
+            // The rightmost node is full, so the child goes into a new right sibling, and the key moves up
+            long newNodeId = freeList.acquireNewId( stableGeneration, unstableGeneration );
+            bTreeNode.setRightSibling( internalCursor, newNodeId, stableGeneration, unstableGeneration );
+            checkOutOfBounds( internalCursor );
+            PageCursorUtil.goTo( internalCursor, "new internal node", newNodeId );
+            bTreeNode.initializeInternal( internalCursor, stableGeneration, unstableGeneration );
+            bTreeNode.setLeftSibling( internalCursor, nodeId, stableGeneration, unstableGeneration );
+            bTreeNode.setChildAt( internalCursor, childId, 0, stableGeneration, unstableGeneration );
+            checkOutOfBounds( internalCursor );
+            rightmostNodeIds[level] = newNodeId;
+            rightmostKeyCounts[level] = 0;
+            addToParent( level + 1, newNodeId, key );
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            if ( leafCursor == null )
+            {
+                return;
+            }
+
+            try
+            {
+                if ( levelCount > 0 )
+                {
+                    bTreeNode.setKeyCount( leafCursor, rightmostKeyCounts[0] );
+                    checkOutOfBounds( leafCursor );
+
+                    // The top level has a single node, which becomes the new root.
+                    // The old root was an empty leaf, which we give back.
+                    long oldRootId = root.id();
+                    setRoot( rightmostNodeIds[levelCount - 1], unstableGeneration );
+                    freeList.releaseId( stableGeneration, unstableGeneration, oldRootId );
+                }
+            }
+            finally
+            {
+                leafCursor.close();
+                internalCursor.close();
+                leafCursor = null;
+                internalCursor = null;
+                releaseWriter();
+            }
+        }
+    }
 }
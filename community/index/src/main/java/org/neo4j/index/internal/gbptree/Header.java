@@ -48,7 +48,11 @@ public class Header
 
     static final Writer CARRY_OVER_PREVIOUS_HEADER = (from,length,to) ->
     {
-        from.copyTo( from.getOffset(), to, to.getOffset(), length );
+        // copyTo doesn't move the offset of the target cursor, but the length of the written header is
+        // calculated from the offset of the target cursor after the write
+        int toOffset = to.getOffset();
+        from.copyTo( from.getOffset(), to, toOffset, length );
+        to.setOffset( toOffset + length );
     };
 
     static Writer replace( Consumer<PageCursor> writer )
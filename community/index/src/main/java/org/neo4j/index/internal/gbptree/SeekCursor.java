@@ -27,6 +27,7 @@ import org.neo4j.cursor.RawCursor;
 import org.neo4j.io.pagecache.PageCursor;
 
 import static java.lang.Integer.max;
+import static java.lang.Integer.min;
 
 import static org.neo4j.index.internal.gbptree.PageCursorUtil.checkOutOfBounds;
 
@@ -138,8 +139,16 @@ import static org.neo4j.index.internal.gbptree.PageCursorUtil.checkOutOfBounds;
  * in this case. By using a linked cursor to 'scout' we create a consistent read over the node gap. If there us
  * suddenly another key when he goes there he knows that he could have missed some keys and he needs to go back until
  * he find the place where he left off, K4.
+ * <p>
+ * <strong>Batched reads</strong>
+ * <p>
+ * {@link #next()} and {@link #nextBatch(Object[], Object[])} share the same implementation, where {@link #next()}
+ * is a batch of size one reading into {@link #mutableKey} and {@link #mutableValue}. A batch reads all keys
+ * from the current position to the end of the leaf (or as many as fits) inside the same
+ * {@link PageCursor#shouldRetry() shouldRetry} loop and verifies the read keys against the key range and
+ * previously returned key after that, much like a single read does.
  */
-class SeekCursor<KEY,VALUE> implements RawCursor<Hit<KEY,VALUE>,IOException>, Hit<KEY,VALUE>
+class SeekCursor<KEY,VALUE> implements BatchedSeekCursor<KEY,VALUE>, Hit<KEY,VALUE>
 {
     /**
      * Cursor for reading from tree nodes and also will be moved around when following pointers.
@@ -156,6 +165,28 @@ class SeekCursor<KEY,VALUE> implements RawCursor<Hit<KEY,VALUE>,IOException>, Hi
      */
     private final VALUE mutableValue;
 
+    /**
+     * {@link #mutableKey} as single-element array, the key buffer used by {@link #next()}.
+     */
+    private final KEY[] singleKey;
+
+    /**
+     * Key instance that {@link #nextBatch(Object[], Object[])} keeps the most recently read key in, and uses for
+     * binary searches, so that batches leave {@link #mutableKey}, and thereby {@link #get()}, untouched.
+     */
+    private final KEY batchKey;
+
+    /**
+     * The most recently read key, {@link #mutableKey} when reading single hits and {@link #batchKey}
+     * when reading batches. Also used as the key instance to read into when searching in a node.
+     */
+    private KEY readKey;
+
+    /**
+     * {@link #mutableValue} as single-element array, the value buffer used by {@link #next()}.
+     */
+    private final VALUE[] singleValue;
+
     /**
      * Provided when constructing the {@link SeekCursor}, marks the start (inclusive) of the key range to seek.
      * Comparison with {@link #toExclusive} decide if seeking forwards or backwards.
@@ -369,6 +400,10 @@ class SeekCursor<KEY,VALUE> implements RawCursor<Hit<KEY,VALUE>,IOException>, Hi
         this.lastFollowedPointerGen = lastFollowedPointerGen;
         this.mutableKey = layout.newKey();
         this.mutableValue = layout.newValue();
+        this.singleKey = singleton( mutableKey );
+        this.batchKey = layout.newKey();
+        this.readKey = mutableKey;
+        this.singleValue = singleton( mutableValue );
         this.prevKey = layout.newKey();
         this.maxKeyCount = max( bTreeNode.internalMaxKeyCount(), bTreeNode.leafMaxKeyCount() );
         this.seekForward = layout.compare( fromInclusive, toExclusive ) <= 0;
@@ -379,6 +414,12 @@ class SeekCursor<KEY,VALUE> implements RawCursor<Hit<KEY,VALUE>,IOException>, Hi
         traverseDownToFirstLeaf();
     }
 
+    @SafeVarargs
+    private static <T> T[] singleton( T... instance )
+    {
+        return instance;
+    }
+
     /**
      * Traverses from the root down to the leaf containing the next key that we're looking for, or the first
      * one provided in the constructor if this no result have yet been returned.
@@ -463,12 +504,44 @@ class SeekCursor<KEY,VALUE> implements RawCursor<Hit<KEY,VALUE>,IOException>, Hi
     @Override
     public boolean next() throws IOException
     {
+        return read( singleKey, singleValue, 1 ) == 1;
+    }
+
+    @Override
+    public int nextBatch( KEY[] keys, VALUE[] values ) throws IOException
+    {
+        int maxBatchSize = min( keys.length, values.length );
+        if ( maxBatchSize == 0 )
+        {
+            throw new IllegalArgumentException( "Expected non-empty buffers, but got " + keys.length +
+                    " keys and " + values.length + " values" );
+        }
+        return read( keys, values, maxBatchSize );
+    }
+
+    /**
+     * Reads the next hits into {@code keys} and {@code values}, reading at most {@code maxBatchSize} hits,
+     * all from the same leaf.
+     *
+     * @param keys key instances to read keys into.
+     * @param values value instances to read values into.
+     * @param maxBatchSize max number of hits to read, at least {@code 1}.
+     * @return number of hits read, or {@code 0} if end of the range has been reached.
+     * @throws IOException on {@link PageCursor} error.
+     */
+    private int read( KEY[] keys, VALUE[] values, int maxBatchSize ) throws IOException
+    {
+        boolean batch = keys != singleKey;
+        readKey = batch ? batchKey : mutableKey;
         while ( true )
         {
             pos += stride;
+            int batchSize;
             // Read
             do
             {
+                batchSize = 0;
+
                 // Where we are
                 if ( !readHeader() )
                 {
@@ -507,16 +580,23 @@ class SeekCursor<KEY,VALUE> implements RawCursor<Hit<KEY,VALUE>,IOException>, Hi
                     pointerId = readNextSibling();
                     pointerGen = readPointerGenOnSuccess( pointerId );
                 }
-                if ( 0 <= pos && pos < keyCount )
+                // Read the next values in this leaf
+                for ( int p = pos; batchSize < maxBatchSize && 0 <= p && p < keyCount; p += stride )
                 {
-                    // Read the next value in this leaf
-                    bTreeNode.keyAt( cursor, mutableKey, pos );
-                    bTreeNode.valueAt( cursor, mutableValue, pos );
+                    bTreeNode.keyAt( cursor, keys[batchSize], p );
+                    bTreeNode.valueAt( cursor, values[batchSize], p );
+                    batchSize++;
                 }
             }
             while ( concurrentWriteHappened = cursor.shouldRetry() );
             checkOutOfBounds( cursor );
 
+            if ( batchSize > 0 && batch )
+            {
+                // Checks below which looks at the most recently read key expects to find it in readKey
+                layout.copyKey( keys[batchSize - 1], batchKey );
+            }
+
             // Act
             if ( !endedUpOnExpectedNode() )
             {
@@ -560,53 +640,99 @@ class SeekCursor<KEY,VALUE> implements RawCursor<Hit<KEY,VALUE>,IOException>, Hi
                     continue; // in the read loop above so that we can continue reading from next sibling
                 }
             }
-            else if ( 0 <= pos && pos < keyCount && insideEndRange() )
+            else if ( 0 <= pos && pos < keyCount )
             {
-                if ( isResultKey() )
+                int hits = 0;
+                int startPos = pos;
+                for ( int i = 0; i < batchSize; i++ )
                 {
-                    layout.copyKey( mutableKey, prevKey );
-                    return true; // which marks this read a hit that user can see
+                    KEY key = keys[i];
+                    if ( !insideEndRange( key ) )
+                    {
+                        // We've come too far and so this means the end of the result set.
+                        // Position so that the next read sees this key again and ends there too.
+                        pos = startPos + (i - 1) * stride;
+                        return hits;
+                    }
+
+                    if ( isResultKey( key ) )
+                    {
+                        if ( hits != i )
+                        {
+                            swap( keys, hits, i );
+                            swap( values, hits, i );
+                        }
+                        hits++;
+                        layout.copyKey( key, prevKey );
+                    }
+                    else if ( concurrentWriteHappened )
+                    {
+                        // Read key was bad, the remaining keys in this batch can't be trusted either.
+                        // Return the hits found so far and search for the previously returned key on next read
+                        batchSize = i;
+                        break;
+                    }
+                }
+                pos = startPos + (batchSize - 1) * stride;
+                if ( hits > 0 )
+                {
+                    return hits; // which marks this read as hits that user can see
                 }
                 continue;
             }
 
             // We've come too far and so this means the end of the result set
-            return false;
+            return 0;
         }
     }
 
+    private static <T> void swap( T[] array, int i, int j )
+    {
+        T tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
     /**
-     * @return whether or not the read key ({@link #mutableKey}) is "before" the end of the key range
+     * @return whether or not the read {@code key} is "before" the end of the key range
      * ({@link #toExclusive}) of this seek.
      */
-    private boolean insideEndRange()
+    private boolean insideEndRange( KEY key )
     {
-        return seekForward ? layout.compare( mutableKey, toExclusive ) < 0
-                           : layout.compare( mutableKey, toExclusive ) > 0;
+        return seekForward ? layout.compare( key, toExclusive ) < 0
+                           : layout.compare( key, toExclusive ) > 0;
     }
 
     /**
-     * @return whether or not the read key ({@link #mutableKey}) is "after" the start of the key range
+     * @return whether or not the read {@code key} is "after" the start of the key range
      * ({@link #fromInclusive}) of this seek.
      */
-    private boolean insideStartRange()
+    private boolean insideStartRange( KEY key )
     {
-        return seekForward ? layout.compare( mutableKey, fromInclusive ) >= 0
-                           : layout.compare( mutableKey, fromInclusive ) <= 0;
+        return seekForward ? layout.compare( key, fromInclusive ) >= 0
+                           : layout.compare( key, fromInclusive ) <= 0;
     }
 
     /**
-     * @return whether or not the read key ({@link #mutableKey}) is "after" the last returned key of this seek
-     * ({@link #prevKey}), or if no result has been returned the start of the key range ({@link #fromInclusive}).
+     * Calls {@link #insidePrevKey(Object)} with the most recently read key, {@link #readKey}.
      */
     private boolean insidePrevKey()
+    {
+        return insidePrevKey( readKey );
+    }
+
+    /**
+     * @return whether or not the read {@code key} is "after" the last returned key of this seek
+     * ({@link #prevKey}), or if no result has been returned the start of the key range ({@link #fromInclusive}).
+     */
+    private boolean insidePrevKey( KEY key )
     {
         if ( first )
         {
-            return insideStartRange();
+            return insideStartRange( key );
         }
-        return seekForward ? layout.compare( mutableKey, prevKey ) > 0
-                           : layout.compare( mutableKey, prevKey ) < 0;
+        return seekForward ? layout.compare( key, prevKey ) > 0
+                           : layout.compare( key, prevKey ) < 0;
     }
 
     /**
@@ -705,7 +831,7 @@ class SeekCursor<KEY,VALUE> implements RawCursor<Hit<KEY,VALUE>,IOException>, Hi
      */
     private int searchKey( KEY key )
     {
-        return KeySearch.search( cursor, bTreeNode, key, mutableKey, keyCount );
+        return KeySearch.search( cursor, bTreeNode, key, readKey, keyCount );
     }
 
     private int positionOf( int searchResult )
@@ -883,19 +1009,19 @@ class SeekCursor<KEY,VALUE> implements RawCursor<Hit<KEY,VALUE>,IOException>, Hi
     }
 
     /**
-     * @return whether or not the read {@link #mutableKey} is one that should be included in the result.
+     * @return whether or not the read {@code key} is one that should be included in the result.
      * If this method returns {@code true} then {@link #next()} will return {@code true}.
      * Returns {@code false} if this happened to be a bad read in the middle of a split or merge or so.
      */
-    private boolean isResultKey()
+    private boolean isResultKey( KEY key )
     {
-        if ( !insideStartRange() )
+        if ( !insideStartRange( key ) )
         {
             // Key is outside start range, possibly because page reuse
             concurrentWriteHappened = true;
             return false;
         }
-        else if ( !first && !insidePrevKey() )
+        else if ( !first && !insidePrevKey( key ) )
         {
             // We've come across a bad read in the middle of a split
             // This is outlined in InternalTreeLogic, skip this value (it's fine)
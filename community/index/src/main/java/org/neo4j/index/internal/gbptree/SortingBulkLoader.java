@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+
+/**
+ * {@link BulkLoader} which accepts key/value pairs in any order, and {@link GBPTree#bulkLoader() bulk loads} them
+ * into an empty {@link GBPTree} in key order when {@link #close() closed}. This way a tree can be built bottom-up
+ * also from a source which isn't ordered by key, e.g. a scan of the store.
+ * <p>
+ * Added entries are gathered in a buffer. Every time the buffer is full, its entries are sorted and written out
+ * as a sorted run to a temporary file, which is deleted when this bulk loader is closed. On close the runs are
+ * merged, reading each run sequentially, and the entries are added to the tree in key order. Entries with the same
+ * key are merged using the given {@link ValueMerger}. Memory use is bounded by the size of the buffer, plus a key
+ * and a value for every run.
+ * <p>
+ * The tree must be empty when this bulk loader is closed, and this bulk loader must only be used by one thread.
+ *
+ * @param <KEY> type of keys
+ * @param <VALUE> type of values
+ */
+public class SortingBulkLoader<KEY,VALUE> implements BulkLoader<KEY,VALUE>
+{
+    /**
+     * The {@link Layout} can copy keys but not values, so values are copied by writing them to this page of the
+     * run file and reading them back. Runs are written to the pages after it.
+     */
+    private static final long SCRATCH_PAGE_ID = 0;
+
+    private final GBPTree<KEY,VALUE> tree;
+    private final Layout<KEY,VALUE> layout;
+    private final ValueMerger<VALUE> merger;
+    private final PagedFile runFile;
+    private final PageCursor cursor;
+    private final int entrySize;
+    private final int entriesPerPage;
+
+    private final KEY[] keys;
+    private final VALUE[] values;
+    private final Integer[] order;
+    private int bufferedEntries;
+
+    /**
+     * Number of entries written to the run file, and where in it each run starts.
+     */
+    private long writtenEntries;
+    private final List<Long> runStarts = new ArrayList<>();
+    private boolean closed;
+
+    /**
+     * @param tree empty {@link GBPTree} to load the entries into.
+     * @param layout {@link Layout} of the tree.
+     * @param merger {@link ValueMerger} deciding the value of entries with the same key.
+     * @param pageCache {@link PageCache} to map the temporary run file with.
+     * @param runFile temporary file to write the sorted runs to. Any existing file is truncated.
+     * @param bufferSize number of entries to sort in memory at a time.
+     * @throws IOException on error mapping the run file.
+     */
+    @SuppressWarnings( "unchecked" )
+    public SortingBulkLoader( GBPTree<KEY,VALUE> tree, Layout<KEY,VALUE> layout, ValueMerger<VALUE> merger,
+            PageCache pageCache, File runFile, int bufferSize ) throws IOException
+    {
+        this.tree = tree;
+        this.layout = layout;
+        this.merger = merger;
+        this.entrySize = layout.keySize() + layout.valueSize();
+        this.entriesPerPage = pageCache.pageSize() / entrySize;
+        this.keys = (KEY[]) new Object[bufferSize];
+        this.values = (VALUE[]) new Object[bufferSize];
+        this.order = new Integer[bufferSize];
+        this.runFile = pageCache.map( runFile, pageCache.pageSize(), CREATE, TRUNCATE_EXISTING, DELETE_ON_CLOSE );
+        this.cursor = this.runFile.io( SCRATCH_PAGE_ID, PagedFile.PF_SHARED_WRITE_LOCK );
+    }
+
+    @Override
+    public void add( KEY key, VALUE value ) throws IOException
+    {
+        if ( bufferedEntries == keys.length )
+        {
+            writeRun();
+        }
+        if ( keys[bufferedEntries] == null )
+        {
+            keys[bufferedEntries] = layout.newKey();
+            values[bufferedEntries] = layout.newValue();
+        }
+        layout.copyKey( key, keys[bufferedEntries] );
+        copyValue( value, values[bufferedEntries] );
+        bufferedEntries++;
+    }
+
+    private void writeRun() throws IOException
+    {
+        for ( int i = 0; i < bufferedEntries; i++ )
+        {
+            order[i] = i;
+        }
+        Arrays.sort( order, 0, bufferedEntries, ( a, b ) -> layout.compare( keys[a], keys[b] ) );
+
+        runStarts.add( writtenEntries );
+        for ( int i = 0; i < bufferedEntries; i++ )
+        {
+            int entry = order[i];
+            positionAt( writtenEntries++ );
+            layout.writeKey( cursor, keys[entry] );
+            layout.writeValue( cursor, values[entry] );
+        }
+        bufferedEntries = 0;
+    }
+
+    private void positionAt( long entry ) throws IOException
+    {
+        cursor.next( SCRATCH_PAGE_ID + 1 + entry / entriesPerPage );
+        cursor.setOffset( (int) (entry % entriesPerPage) * entrySize );
+    }
+
+    private void copyValue( VALUE value, VALUE into ) throws IOException
+    {
+        cursor.next( SCRATCH_PAGE_ID );
+        cursor.setOffset( 0 );
+        layout.writeValue( cursor, value );
+        cursor.setOffset( 0 );
+        layout.readValue( cursor, into );
+    }
+
+    /**
+     * Merges the sorted runs and loads all added entries into the tree, in key order.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if ( closed )
+        {
+            return;
+        }
+        closed = true;
+
+        try
+        {
+            if ( bufferedEntries > 0 )
+            {
+                writeRun();
+            }
+            load();
+        }
+        finally
+        {
+            closeRunFile();
+        }
+    }
+
+    /**
+     * Discards all added entries, without loading anything into the tree. Closing after this does nothing.
+     */
+    public void discard()
+    {
+        if ( !closed )
+        {
+            closed = true;
+            closeRunFile();
+        }
+    }
+
+    private void closeRunFile()
+    {
+        cursor.close();
+        try
+        {
+            runFile.close();
+        }
+        catch ( IOException e )
+        {
+            // The file is deleted when it is closed, so it's nothing we need to keep anyway
+        }
+    }
+
+    private void load() throws IOException
+    {
+        PriorityQueue<Run> runs = new PriorityQueue<>( Math.max( 1, runStarts.size() ),
+                ( a, b ) -> layout.compare( a.key, b.key ) );
+        for ( int i = 0; i < runStarts.size(); i++ )
+        {
+            long end = i + 1 < runStarts.size() ? runStarts.get( i + 1 ) : writtenEntries;
+            Run run = new Run( runStarts.get( i ), end );
+            if ( run.next() )
+            {
+                runs.add( run );
+            }
+        }
+
+        KEY key = layout.newKey();
+        VALUE value = layout.newValue();
+        boolean hasEntry = false;
+        try ( BulkLoader<KEY,VALUE> loader = tree.bulkLoader() )
+        {
+            while ( !runs.isEmpty() )
+            {
+                Run run = runs.poll();
+                if ( hasEntry && layout.compare( run.key, key ) == 0 )
+                {
+                    VALUE merged = merger.merge( value, run.value );
+                    if ( merged != null && merged != value )
+                    {
+                        copyValue( merged, value );
+                    }
+                }
+                else
+                {
+                    if ( hasEntry )
+                    {
+                        loader.add( key, value );
+                    }
+                    layout.copyKey( run.key, key );
+                    copyValue( run.value, value );
+                    hasEntry = true;
+                }
+
+                if ( run.next() )
+                {
+                    runs.add( run );
+                }
+            }
+            if ( hasEntry )
+            {
+                loader.add( key, value );
+            }
+        }
+    }
+
+    /**
+     * A sorted run in the run file, and its current entry.
+     */
+    private class Run
+    {
+        private long position;
+        private final long end;
+        private final KEY key = layout.newKey();
+        private final VALUE value = layout.newValue();
+
+        Run( long start, long end )
+        {
+            this.position = start;
+            this.end = end;
+        }
+
+        boolean next() throws IOException
+        {
+            if ( position == end )
+            {
+                return false;
+            }
+            positionAt( position++ );
+            layout.readKey( cursor, key );
+            layout.readValue( cursor, value );
+            return true;
+        }
+    }
+}
@@ -490,6 +490,63 @@ public class GBPTreeTest
         assertArrayEquals( expectedHeader, readHeader );
     }
 
+    @Test
+    public void shouldCarryOverHeaderDataInCheckPointAfterChanges() throws Exception
+    {
+        // GIVEN
+        byte[] expectedHeader = new byte[12];
+        ThreadLocalRandom.current().nextBytes( expectedHeader );
+        index = createIndex( 256 );
+        index.checkpoint( IOLimiter.unlimited(), cursor -> cursor.putBytes( expectedHeader ) );
+        try ( Writer<MutableLong,MutableLong> writer = index.writer() )
+        {
+            writer.put( new MutableLong( 1 ), new MutableLong( 1 ) );
+        }
+        index.checkpoint( IOLimiter.unlimited() );
+        try ( Writer<MutableLong,MutableLong> writer = index.writer() )
+        {
+            writer.put( new MutableLong( 2 ), new MutableLong( 2 ) );
+        }
+        index.close();
+
+        // WHEN
+        byte[] readHeader = new byte[expectedHeader.length];
+        AtomicInteger length = new AtomicInteger();
+        index = createIndex( 256, NO_MONITOR, (cursor,len) ->
+        {
+            length.set( len );
+            cursor.getBytes( readHeader );
+        } );
+
+        // THEN
+        assertEquals( expectedHeader.length, length.get() );
+        assertArrayEquals( expectedHeader, readHeader );
+    }
+
+    @Test
+    public void shouldReadHeaderWithoutOpeningTree() throws Exception
+    {
+        // GIVEN
+        byte[] expectedHeader = new byte[12];
+        ThreadLocalRandom.current().nextBytes( expectedHeader );
+        index = createIndex( 256 );
+        index.close( cursor -> cursor.putBytes( expectedHeader ) );
+        index = null;
+
+        // WHEN
+        byte[] readHeader = new byte[expectedHeader.length];
+        AtomicInteger length = new AtomicInteger();
+        GBPTree.readHeader( pageCache, indexFile, (cursor,len) ->
+        {
+            length.set( len );
+            cursor.getBytes( readHeader );
+        } );
+
+        // THEN
+        assertEquals( expectedHeader.length, length.get() );
+        assertArrayEquals( expectedHeader, readHeader );
+    }
+
     @Test
     public void shouldReplaceHeaderDataInNextCheckPoint() throws Exception
     {
@@ -594,6 +651,162 @@ public class GBPTreeTest
         }
     }
 
+    /* Bulk loading tests */
+
+    @Test
+    public void shouldSeeBulkLoadedEntries() throws Exception
+    {
+        // GIVEN
+        index = createIndex( 256 );
+        int count = 10_000;
+
+        // WHEN
+        try ( BulkLoader<MutableLong,MutableLong> loader = index.bulkLoader() )
+        {
+            for ( int i = 0; i < count; i++ )
+            {
+                loader.add( new MutableLong( i * 2 ), new MutableLong( i ) );
+            }
+        }
+
+        // THEN
+        assertSeesAllBulkLoaded( count );
+    }
+
+    @Test
+    public void shouldSeeBulkLoadedEntriesAfterReopen() throws Exception
+    {
+        // GIVEN
+        index = createIndex( 256 );
+        int count = 5_000;
+        try ( BulkLoader<MutableLong,MutableLong> loader = index.bulkLoader() )
+        {
+            for ( int i = 0; i < count; i++ )
+            {
+                loader.add( new MutableLong( i * 2 ), new MutableLong( i ) );
+            }
+        }
+
+        // WHEN
+        index.close();
+        index = new GBPTree<>( pageCache, indexFile, layout, 0, NO_MONITOR, NO_HEADER );
+
+        // THEN
+        assertSeesAllBulkLoaded( count );
+    }
+
+    @Test
+    public void shouldBeAbleToWriteAfterBulkLoad() throws Exception
+    {
+        // GIVEN
+        index = createIndex( 256 );
+        int count = 2_000;
+        try ( BulkLoader<MutableLong,MutableLong> loader = index.bulkLoader() )
+        {
+            for ( int i = 0; i < count; i++ )
+            {
+                loader.add( new MutableLong( i * 2 ), new MutableLong( i ) );
+            }
+        }
+
+        // WHEN
+        try ( Writer<MutableLong,MutableLong> writer = index.writer() )
+        {
+            for ( int i = 0; i < count; i++ )
+            {
+                writer.put( new MutableLong( i * 2 + 1 ), new MutableLong( i ) );
+            }
+        }
+
+        // THEN
+        try ( RawCursor<Hit<MutableLong,MutableLong>,IOException> cursor =
+                index.seek( new MutableLong( 0 ), new MutableLong( Long.MAX_VALUE ) ) )
+        {
+            for ( int i = 0; i < count * 2; i++ )
+            {
+                assertTrue( cursor.next() );
+                assertEquals( i, cursor.get().key().longValue() );
+                assertEquals( i / 2, cursor.get().value().longValue() );
+            }
+            assertFalse( cursor.next() );
+        }
+    }
+
+    @Test
+    public void shouldNotAllowBulkLoadIntoNonEmptyTree() throws Exception
+    {
+        // GIVEN
+        index = createIndex( 256 );
+        try ( Writer<MutableLong,MutableLong> writer = index.writer() )
+        {
+            writer.put( new MutableLong( 0 ), new MutableLong( 0 ) );
+        }
+
+        // WHEN
+        try ( BulkLoader<MutableLong,MutableLong> loader = index.bulkLoader() )
+        {
+            fail( "Should have failed" );
+        }
+        catch ( IllegalStateException e )
+        {
+            // THEN good
+        }
+
+        // and the writer should have been released
+        index.writer().close();
+    }
+
+    @Test
+    public void shouldNotAllowBulkLoadingKeysOutOfOrder() throws Exception
+    {
+        // GIVEN
+        index = createIndex( 256 );
+        try ( BulkLoader<MutableLong,MutableLong> loader = index.bulkLoader() )
+        {
+            loader.add( new MutableLong( 10 ), new MutableLong( 0 ) );
+
+            // WHEN
+            loader.add( new MutableLong( 10 ), new MutableLong( 0 ) );
+            fail( "Should have failed" );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            // THEN good
+        }
+    }
+
+    @Test
+    public void shouldNotAllowWriterWhileBulkLoading() throws Exception
+    {
+        // GIVEN
+        index = createIndex( 256 );
+        try ( BulkLoader<MutableLong,MutableLong> loader = index.bulkLoader() )
+        {
+            // WHEN
+            index.writer();
+            fail( "Should have failed" );
+        }
+        catch ( IllegalStateException e )
+        {
+            // THEN good
+        }
+    }
+
+    private void assertSeesAllBulkLoaded( int count ) throws IOException
+    {
+        try ( RawCursor<Hit<MutableLong,MutableLong>,IOException> cursor =
+                index.seek( new MutableLong( 0 ), new MutableLong( Long.MAX_VALUE ) ) )
+        {
+            for ( int i = 0; i < count; i++ )
+            {
+                assertTrue( cursor.next() );
+                assertEquals( i * 2, cursor.get().key().longValue() );
+                assertEquals( i, cursor.get().value().longValue() );
+            }
+            assertFalse( cursor.next() );
+        }
+    }
+
     /* Randomized tests */
 
     @Test
@@ -513,6 +513,240 @@ public class SeekCursorTest
         assertEquals( -1, expectedNext );
     }
 
+    /* BATCHED SEEK */
+
+    @Test
+    public void mustFindAllEntriesInRangeInBatchesOverMultipleLeaves() throws Exception
+    {
+        // GIVEN
+        int count = maxKeyCount * 5;
+        for ( int i = 0; i < count; i++ )
+        {
+            insert( i );
+        }
+        cursor.next( rootId );
+        MutableLong[] keys = newKeys( maxKeyCount );
+        MutableLong[] values = newValues( maxKeyCount );
+
+        // WHEN
+        long expectedNext = 0;
+        try ( SeekCursor<MutableLong,MutableLong> cursor = seekCursor( 0, count ) )
+        {
+            int hits;
+            while ( (hits = cursor.nextBatch( keys, values )) > 0 )
+            {
+                // THEN
+                for ( int i = 0; i < hits; i++ )
+                {
+                    assertEquals( expectedNext, keys[i].longValue() );
+                    assertEquals( valueForKey( expectedNext ), values[i].longValue() );
+                    expectedNext++;
+                }
+            }
+            assertEquals( 0, cursor.nextBatch( keys, values ) );
+        }
+        assertEquals( count, expectedNext );
+    }
+
+    @Test
+    public void mustFindAllEntriesInRangeInBatchesOverMultipleLeavesBackwards() throws Exception
+    {
+        // GIVEN
+        int count = maxKeyCount * 5;
+        for ( int i = 0; i < count; i++ )
+        {
+            insert( i );
+        }
+        cursor.next( rootId );
+        MutableLong[] keys = newKeys( maxKeyCount );
+        MutableLong[] values = newValues( maxKeyCount );
+
+        // WHEN
+        long expectedNext = count - 2;
+        try ( SeekCursor<MutableLong,MutableLong> cursor = seekCursor( count - 2, 1 ) )
+        {
+            int hits;
+            while ( (hits = cursor.nextBatch( keys, values )) > 0 )
+            {
+                // THEN
+                for ( int i = 0; i < hits; i++ )
+                {
+                    assertEquals( expectedNext, keys[i].longValue() );
+                    assertEquals( valueForKey( expectedNext ), values[i].longValue() );
+                    expectedNext--;
+                }
+            }
+        }
+        assertEquals( 1, expectedNext );
+    }
+
+    @Test
+    public void mustNotReadMoreThanFitsInBatch() throws Exception
+    {
+        // GIVEN
+        for ( int i = 0; i < maxKeyCount; i++ )
+        {
+            append( i );
+        }
+        int batchSize = 3;
+        MutableLong[] keys = newKeys( batchSize );
+        MutableLong[] values = newValues( batchSize );
+
+        // WHEN
+        long expectedNext = 0;
+        try ( SeekCursor<MutableLong,MutableLong> cursor = seekCursor( 0, maxKeyCount ) )
+        {
+            int hits;
+            while ( (hits = cursor.nextBatch( keys, values )) > 0 )
+            {
+                // THEN
+                assertTrue( hits <= batchSize );
+                for ( int i = 0; i < hits; i++ )
+                {
+                    assertEquals( expectedNext++, keys[i].longValue() );
+                }
+            }
+        }
+        assertEquals( maxKeyCount, expectedNext );
+    }
+
+    @Test
+    public void mustContinueWhereNextLeftOffWhenInterleavingNextAndNextBatch() throws Exception
+    {
+        // GIVEN
+        int count = maxKeyCount * 3;
+        for ( int i = 0; i < count; i++ )
+        {
+            insert( i );
+        }
+        cursor.next( rootId );
+        MutableLong[] keys = newKeys( 5 );
+        MutableLong[] values = newValues( 5 );
+
+        // WHEN
+        long expectedNext = 0;
+        try ( SeekCursor<MutableLong,MutableLong> cursor = seekCursor( 0, count ) )
+        {
+            boolean batch = false;
+            while ( true )
+            {
+                // THEN
+                if ( batch )
+                {
+                    int hits = cursor.nextBatch( keys, values );
+                    if ( hits == 0 )
+                    {
+                        break;
+                    }
+                    for ( int i = 0; i < hits; i++ )
+                    {
+                        assertEquals( expectedNext++, keys[i].longValue() );
+                    }
+                }
+                else
+                {
+                    if ( !cursor.next() )
+                    {
+                        break;
+                    }
+                    assertKeyAndValue( cursor, expectedNext++ );
+                }
+                batch = !batch;
+            }
+        }
+        assertEquals( count, expectedNext );
+    }
+
+    @Test
+    public void mustContinueInBatchesWhenRangeIsSplitDuringBatchedSeek() throws Exception
+    {
+        // GIVEN
+        for ( int i = 0; i < maxKeyCount; i++ )
+        {
+            append( i * 2 );
+        }
+        MutableLong[] keys = newKeys( 4 );
+        MutableLong[] values = newValues( 4 );
+        List<Long> expected = new ArrayList<>();
+        for ( int i = 0; i < maxKeyCount; i++ )
+        {
+            expected.add( (long) i * 2 );
+        }
+
+        // WHEN
+        PageAwareByteArrayCursor seekCursor = cursor.duplicate();
+        seekCursor.next();
+        List<Long> found = new ArrayList<>();
+        try ( SeekCursor<MutableLong,MutableLong> cursor = seekCursor( 0, Long.MAX_VALUE, seekCursor ) )
+        {
+            int hits = cursor.nextBatch( keys, values );
+            for ( int i = 0; i < hits; i++ )
+            {
+                found.add( keys[i].longValue() );
+            }
+
+            // Seeker pauses and writer insert new keys, one of which cause a split
+            insert( 1 );
+            insert( maxKeyCount * 2 );
+            expected.add( (long) maxKeyCount * 2 );
+            seekCursor.forceRetry();
+
+            while ( (hits = cursor.nextBatch( keys, values )) > 0 )
+            {
+                for ( int i = 0; i < hits; i++ )
+                {
+                    found.add( keys[i].longValue() );
+                }
+            }
+        }
+
+        // THEN key 1 was inserted behind the seeker and so isn't seen, but nothing else is missed
+        assertEquals( expected, found );
+    }
+
+    @Test
+    public void nextBatchMustNotChangeTheHitOfTheLastNext() throws Exception
+    {
+        // GIVEN
+        for ( int i = 0; i < 10; i++ )
+        {
+            append( i );
+        }
+        MutableLong[] keys = newKeys( 4 );
+        MutableLong[] values = newValues( 4 );
+
+        try ( SeekCursor<MutableLong,MutableLong> cursor = seekCursor( 0, 10 ) )
+        {
+            // WHEN
+            assertTrue( cursor.next() );
+            assertEquals( 4, cursor.nextBatch( keys, values ) );
+
+            // THEN
+            assertEquals( 0, cursor.get().key().longValue() );
+            assertEquals( 4, keys[3].longValue() );
+            assertTrue( cursor.next() );
+            assertEquals( 5, cursor.get().key().longValue() );
+        }
+    }
+
+    @Test
+    public void mustThrowOnEmptyBatch() throws Exception
+    {
+        // GIVEN
+        append( 0 );
+
+        try ( SeekCursor<MutableLong,MutableLong> cursor = seekCursor( 0, 1 ) )
+        {
+            // WHEN
+            cursor.nextBatch( newKeys( 0 ), newValues( 0 ) );
+            fail( "Should have failed" );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            // THEN good
+        }
+    }
+
     /* INSERT */
 
     @Test
@@ -2207,6 +2441,26 @@ public class SeekCursorTest
         assertEquals( expectedValue, foundValue.longValue() );
     }
 
+    private MutableLong[] newKeys( int count )
+    {
+        MutableLong[] keys = new MutableLong[count];
+        for ( int i = 0; i < count; i++ )
+        {
+            keys[i] = layout.newKey();
+        }
+        return keys;
+    }
+
+    private MutableLong[] newValues( int count )
+    {
+        MutableLong[] values = new MutableLong[count];
+        for ( int i = 0; i < count; i++ )
+        {
+            values[i] = layout.newValue();
+        }
+        return values;
+    }
+
     private static long valueForKey( long key )
     {
         return key * 10;
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.test.rule.PageCacheRule;
+import org.neo4j.test.rule.RandomRule;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.test.rule.fs.DefaultFileSystemRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.rules.RuleChain.outerRule;
+
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER;
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_MONITOR;
+import static org.neo4j.test.rule.PageCacheRule.config;
+
+public class SortingBulkLoaderTest
+{
+    private final DefaultFileSystemRule fs = new DefaultFileSystemRule();
+    private final TestDirectory directory = TestDirectory.testDirectory( getClass(), fs.get() );
+    private final PageCacheRule pageCacheRule = new PageCacheRule( config().withAccessChecks( true ) );
+    private final RandomRule random = new RandomRule();
+
+    @Rule
+    public final RuleChain rules = outerRule( fs ).around( directory ).around( pageCacheRule ).around( random );
+
+    private final Layout<MutableLong,MutableLong> layout = new SimpleLongLayout();
+    private PageCache pageCache;
+    private File runFile;
+    private GBPTree<MutableLong,MutableLong> index;
+
+    @Before
+    public void createIndex() throws IOException
+    {
+        pageCache = pageCacheRule.getPageCache( fs.get(), config().withPageSize( 256 ) );
+        runFile = directory.file( "index.sort" );
+        index = new GBPTree<>( pageCache, directory.file( "index" ), layout, 0, NO_MONITOR, NO_HEADER );
+    }
+
+    @After
+    public void closeIndex() throws IOException
+    {
+        assertTrue( index.consistencyCheck() );
+        index.close();
+    }
+
+    @Test
+    public void shouldLoadEntriesAddedInAnyOrder() throws Exception
+    {
+        // GIVEN
+        int count = 10_000;
+        List<Long> keys = new ArrayList<>();
+        for ( long i = 0; i < count; i++ )
+        {
+            keys.add( i * 2 );
+        }
+        Collections.shuffle( keys, random.random() );
+
+        // WHEN adding more entries than fit in the buffer
+        try ( SortingBulkLoader<MutableLong,MutableLong> loader = new SortingBulkLoader<>( index, layout,
+                ValueMergers.overwrite(), pageCache, runFile, 1_000 ) )
+        {
+            for ( long key : keys )
+            {
+                loader.add( new MutableLong( key ), new MutableLong( key / 2 ) );
+            }
+        }
+
+        // THEN
+        try ( RawCursor<Hit<MutableLong,MutableLong>,IOException> cursor =
+                index.seek( new MutableLong( 0 ), new MutableLong( Long.MAX_VALUE ) ) )
+        {
+            for ( int i = 0; i < count; i++ )
+            {
+                assertTrue( cursor.next() );
+                assertEquals( i * 2, cursor.get().key().longValue() );
+                assertEquals( i, cursor.get().value().longValue() );
+            }
+            assertFalse( cursor.next() );
+        }
+        assertFalse( fs.get().fileExists( runFile ) );
+    }
+
+    @Test
+    public void shouldMergeValuesOfEqualKeys() throws Exception
+    {
+        // GIVEN
+        int keyCount = 100;
+        int valuesPerKey = 30;
+        ValueMerger<MutableLong> sum = ( existing, value ) ->
+        {
+            existing.add( value.longValue() );
+            return existing;
+        };
+
+        // WHEN adding every key once in every run, and then some
+        try ( SortingBulkLoader<MutableLong,MutableLong> loader =
+                new SortingBulkLoader<>( index, layout, sum, pageCache, runFile, 70 ) )
+        {
+            for ( int v = 0; v < valuesPerKey; v++ )
+            {
+                for ( int k = keyCount - 1; k >= 0; k-- )
+                {
+                    loader.add( new MutableLong( k ), new MutableLong( 1 ) );
+                }
+            }
+        }
+
+        // THEN
+        try ( RawCursor<Hit<MutableLong,MutableLong>,IOException> cursor =
+                index.seek( new MutableLong( 0 ), new MutableLong( Long.MAX_VALUE ) ) )
+        {
+            for ( int k = 0; k < keyCount; k++ )
+            {
+                assertTrue( cursor.next() );
+                assertEquals( k, cursor.get().key().longValue() );
+                assertEquals( valuesPerKey, cursor.get().value().longValue() );
+            }
+            assertFalse( cursor.next() );
+        }
+    }
+
+    @Test
+    public void shouldNotLoadAnythingWhenDiscarded() throws Exception
+    {
+        // GIVEN
+        SortingBulkLoader<MutableLong,MutableLong> loader = new SortingBulkLoader<>( index, layout,
+                ValueMergers.overwrite(), pageCache, runFile, 10 );
+        for ( long i = 0; i < 100; i++ )
+        {
+            loader.add( new MutableLong( i ), new MutableLong( i ) );
+        }
+
+        // WHEN
+        loader.discard();
+        loader.close();
+
+        // THEN
+        try ( RawCursor<Hit<MutableLong,MutableLong>,IOException> cursor =
+                index.seek( new MutableLong( 0 ), new MutableLong( Long.MAX_VALUE ) ) )
+        {
+            assertFalse( cursor.next() );
+        }
+        assertFalse( fs.get().fileExists( runFile ) );
+    }
+}
@@ -24,6 +24,7 @@ import java.io.IOException;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.OpenOption;
 import java.nio.file.StandardOpenOption;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -78,6 +79,18 @@ public interface PageCache extends AutoCloseable
      */
     Optional<PagedFile> getExistingMapping( File file ) throws IOException;
 
+    /**
+     * List a snapshot of the current file mappings.
+     * <p>
+     * The mappings can change as soon as this method returns. Like with {@link #getExistingMapping(File)}, the
+     * reference count of each of the returned mappings is incremented, so each of the returned {@link PagedFile}s
+     * must be closed once the caller is done with it.
+     *
+     * @return the paged files that were mapped at the time of the call.
+     * @throws IOException if page cache has been closed or page eviction problems occur.
+     */
+    List<PagedFile> listExistingMappings() throws IOException;
+
     /** Flush all dirty pages */
     void flushAndForce() throws IOException;
 
@@ -88,6 +101,28 @@ public interface PageCache extends AutoCloseable
      */
     void flushAndForce( IOLimiter limiter ) throws IOException;
 
+    /**
+     * Write out up to the given number of dirty pages, without forcing any files. Each call continues where the
+     * previous call left off, so repeated calls will eventually visit every page in the cache. This allows dirty
+     * pages to be written out a little at a time, leaving less work for the next {@link #flushAndForce()}.
+     * @param maxPagesToFlush The max number of pages to write out in this call.
+     * @return the number of pages that were written out.
+     */
+    int flushDirtyPages( int maxPagesToFlush ) throws IOException;
+
+    /**
+     * @return the number of pages in the cache that have changes that have not yet been written to their files.
+     * The count is only a snapshot, since pages are concurrently written to and flushed.
+     */
+    int dirtyPageCount();
+
+    /**
+     * Install the barrier that dirty pages have to pass before they are written to their files, or
+     * {@link WriteAheadBarrier#NONE} to remove it again.
+     * @param barrier The barrier to await before writing out pages.
+     */
+    void setWriteAheadBarrier( WriteAheadBarrier barrier );
+
     /**
      * Close the page cache to prevent any future mapping of files.
      * This also releases any internal resources, including the {@link PageSwapperFactory} through its
@@ -63,17 +63,30 @@ public interface PagedFile extends AutoCloseable
     int PF_NO_GROW = 1 << 2;
     /**
      * Read-ahead hint for sequential forward scanning.
+     * <p>
+     * When a cursor opened with this flag is observed to move through the file one page at a time, the page cache
+     * may asynchronously fault in a window of the pages that follow, so that the scan does not have to wait for
+     * each page fault in turn. Pages that are prefetched this way, but never pinned, are the first to be evicted.
+     * The hint only applies to {@link #PF_SHARED_READ_LOCK} cursors, and is ignored by write cursors.
      */
-    int PF_READ_AHEAD = 1 << 3; // TBD
+    int PF_READ_AHEAD = 1 << 3;
     /**
-     * Do not load in the page if it is not loaded already. Only useful with
-     * exclusive locking when you want to overwrite the whole page anyway.
+     * Do not load in the page if it is not loaded already.
+     * <p>
+     * The {@link PageCursor#next()} and {@link PageCursor#next(long)} methods will still return {@code true} for
+     * pages that are within the range of the file, but {@link PageCursor#getCurrentPageId()} will return
+     * {@link PageCursor#UNBOUND_PAGE_ID} for pages that are not in memory. For read cursors, the current page id must
+     * be checked again after every {@link PageCursor#shouldRetry()} call, since the page might have been evicted
+     * concurrently with the page access.
+     * <p>
+     * This implies {@link #PF_NO_GROW}, since a page fault is necessary to extend a file.
      */
-    int PF_NO_FAULT = 1 << 4; // TBD
+    int PF_NO_FAULT = 1 << 4;
     /**
-     * Do not update page access statistics.
+     * Do not update page access statistics. Pinning a page with this flag does not make it any less likely to be
+     * evicted, which is useful for accesses that are not part of the workload, such as profiling the page cache.
      */
-    int PF_TRANSIENT = 1 << 5; // TBD
+    int PF_TRANSIENT = 1 << 5;
 
     /**
      * Initiate an IO interaction with the contents of the paged file.
@@ -140,6 +153,11 @@ public interface PagedFile extends AutoCloseable
      */
     long fileSize() throws IOException;
 
+    /**
+     * Get the file that this paged file is mapping.
+     */
+    File file();
+
     /**
      * Flush all dirty pages into the file channel, and force the file channel to disk.
      */
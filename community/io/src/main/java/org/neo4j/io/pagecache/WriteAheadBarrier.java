@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache;
+
+import java.io.IOException;
+
+/**
+ * A WriteAheadBarrier lets the owner of a write ahead log, like the transaction log, keep the {@link PageCache} from
+ * writing pages to their files before the log records of the changes in those pages are durable.
+ * <p/>
+ * Every time a page is written to, the page remembers the {@link #currentGeneration() current generation} of the
+ * barrier. Before a dirty page is written to its file, be it by eviction or by flushing, the page cache calls
+ * {@link #awaitDurable(long)} with the generation of the page.
+ * <p/>
+ * Pages are locked while the page cache awaits the barrier, so implementations must not wait for anything that may in
+ * turn wait for page locks, or page faults.
+ */
+public interface WriteAheadBarrier
+{
+    /**
+     * The barrier of a page cache that has no write ahead log to wait for.
+     */
+    WriteAheadBarrier NONE = new WriteAheadBarrier()
+    {
+        @Override
+        public long currentGeneration()
+        {
+            return 0;
+        }
+
+        @Override
+        public void awaitDurable( long generation )
+        {
+        }
+    };
+
+    /**
+     * @return the generation of the changes made to pages from now on. Generations never decrease.
+     */
+    long currentGeneration();
+
+    /**
+     * Return once the log records of all changes made up to and including the given generation are durable.
+     *
+     * @param generation the generation of the last change to a page about to be written to its file.
+     * @throws IOException if the log records could not be made durable, in which case the page is not written.
+     */
+    void awaitDurable( long generation ) throws IOException;
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import org.apache.commons.lang3.SystemUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.fs.StoreFileChannel;
+import org.neo4j.io.fs.StoreFileChannelUnwrapper;
+import org.neo4j.io.pagecache.Page;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
+import static org.neo4j.unsafe.impl.internal.dragons.FeatureToggles.getInteger;
+
+/**
+ * A PageSwapper that reads file pages through read-only memory mapped views of the file, while all writes, forces
+ * and truncations go through the {@link SingleFilePageSwapper} it extends.
+ *
+ * When the data is already in the OS page cache, a page fault is then just a copy out of the mapped view, with no
+ * system call in between. This is meant for read-mostly workloads.
+ *
+ * The file is mapped in segments of 1 GiB, and a segment is remapped when a read goes past the end of its current
+ * mapping, and the file has grown since. File pages that straddle two segments, or that have not yet been written to
+ * the file, are read the same way the {@link SingleFilePageSwapper} reads them. So are all pages of files that live
+ * on file systems that cannot be memory mapped, and all pages on Windows, where a mapped file cannot be truncated or
+ * deleted until the mapping has been garbage collected.
+ */
+public class MemoryMappedPageSwapper extends SingleFilePageSwapper
+{
+    // A mapping can be at most 2 GiB, so this cannot go any higher than 30.
+    private static final int segmentSizePower =
+            Math.min( 30, getInteger( MemoryMappedPageSwapper.class, "segmentSizePower", 30 ) );
+    private static final long segmentSize = 1L << segmentSizePower;
+    private static final long segmentOffsetMask = segmentSize - 1;
+    private static final MappedByteBuffer[] noSegments = new MappedByteBuffer[0];
+
+    private final FileSystemAbstraction fs;
+    private final int filePageSize;
+    // False if the file cannot be memory mapped, in which case we read the same way the SingleFilePageSwapper does.
+    private final boolean mappable;
+
+    // Guarded by synchronized(this). The channel is reopened if it is closed by an interrupt, unless we are closed.
+    private FileChannel mappingChannel;
+    private boolean closed;
+
+    // Replaced under synchronized(this) when a segment is mapped. Old mappings are not unmapped explicitly, but left
+    // for the garbage collector, so any concurrent reader can finish its copy.
+    private volatile MappedByteBuffer[] segments = noSegments;
+    // Reads through the mappings hold the read lock. Truncate and close hold the write lock, so no reader can be
+    // copying out of a mapping that extends past the end of the file, which would crash the JVM. The write lock is
+    // always taken before the monitor, never after.
+    private final ReadWriteLock mappingLock = new ReentrantReadWriteLock();
+
+    public MemoryMappedPageSwapper(
+            File file,
+            FileSystemAbstraction fs,
+            int filePageSize,
+            PageEvictionCallback onEviction ) throws IOException
+    {
+        super( file, fs, filePageSize, onEviction );
+        this.fs = fs;
+        this.filePageSize = filePageSize;
+        this.mappingChannel = SystemUtils.IS_OS_WINDOWS ? null : openMappingChannel();
+        this.mappable = mappingChannel != null;
+    }
+
+    private FileChannel openMappingChannel() throws IOException
+    {
+        StoreChannel channel = fs.open( file(), "r" );
+        if ( channel.getClass() != StoreFileChannel.class )
+        {
+            channel.close();
+            return null;
+        }
+        return StoreFileChannelUnwrapper.unwrap( channel );
+    }
+
+    @Override
+    public long read( long filePageId, Page page ) throws IOException
+    {
+        long fileOffset = filePageId * filePageSize;
+        long fileSize = getCurrentFileSize();
+        int segmentOffset = (int) (fileOffset & segmentOffsetMask);
+        if ( !mappable || fileOffset < 0 || fileOffset >= fileSize || segmentOffset + filePageSize > segmentSize )
+        {
+            return super.read( filePageId, page );
+        }
+
+        int bytesToRead = (int) Math.min( filePageSize, fileSize - fileOffset );
+        mappingLock.readLock().lock();
+        try
+        {
+            MappedByteBuffer segment = segment( (int) (fileOffset >>> segmentSizePower), segmentOffset + bytesToRead );
+            if ( segment != null )
+            {
+                // The duplicate keeps the mapping reachable for as long as we copy from it.
+                ByteBuffer source = segment.duplicate();
+                source.limit( segmentOffset + bytesToRead );
+                source.position( segmentOffset );
+                long address = page.address();
+                proxy( address, filePageSize ).put( source );
+                UnsafeUtil.setMemory( address + bytesToRead, filePageSize - bytesToRead, MuninnPageCache.ZERO_BYTE );
+                return bytesToRead;
+            }
+        }
+        finally
+        {
+            mappingLock.readLock().unlock();
+        }
+        // The page has not made it to the file yet, or the file was truncated since we looked at its size.
+        return super.read( filePageId, page );
+    }
+
+    @Override
+    public long read( long startFilePageId, Page[] pages, int arrayOffset, int length ) throws IOException
+    {
+        if ( !mappable || startFilePageId < 0 )
+        {
+            return super.read( startFilePageId, pages, arrayOffset, length );
+        }
+        // Reading through a mapping is just a copy, so there is nothing to gain from vectoring the reads.
+        long bytes = 0;
+        for ( int i = 0; i < length; i++ )
+        {
+            bytes += read( startFilePageId + i, pages[arrayOffset + i] );
+        }
+        return bytes;
+    }
+
+    /**
+     * Get the mapping of the given segment, making sure that it covers at least {@code requiredLimit} bytes into the
+     * segment, or return {@code null} if the file is not yet that big.
+     */
+    private MappedByteBuffer segment( int segmentId, int requiredLimit ) throws IOException
+    {
+        MappedByteBuffer[] segs = segments;
+        if ( segmentId < segs.length )
+        {
+            MappedByteBuffer segment = segs[segmentId];
+            if ( segment != null && segment.capacity() >= requiredLimit )
+            {
+                return segment;
+            }
+        }
+        return mapSegment( segmentId, requiredLimit );
+    }
+
+    private synchronized MappedByteBuffer mapSegment( int segmentId, int requiredLimit ) throws IOException
+    {
+        MappedByteBuffer[] segs = segments;
+        if ( segmentId < segs.length )
+        {
+            MappedByteBuffer segment = segs[segmentId];
+            if ( segment != null && segment.capacity() >= requiredLimit )
+            {
+                return segment;
+            }
+        }
+        if ( closed )
+        {
+            throw new ClosedChannelException();
+        }
+
+        // An interrupt would close the channel in the middle of the mapping, so we hold off on those until we're done.
+        boolean interrupted = Thread.interrupted();
+        try
+        {
+            if ( !mappingChannel.isOpen() )
+            {
+                mappingChannel = openMappingChannel();
+            }
+            // We only ever map what is actually in the file, since a mapping cannot grow the file in read-only mode,
+            // and the swapper can know of pages that are still on their way to the file.
+            long segmentStart = ((long) segmentId) << segmentSizePower;
+            long mappingSize = Math.min( segmentSize, mappingChannel.size() - segmentStart );
+            if ( mappingSize < requiredLimit )
+            {
+                return null;
+            }
+            MappedByteBuffer segment = mappingChannel.map( FileChannel.MapMode.READ_ONLY, segmentStart, mappingSize );
+            if ( segmentId >= segs.length )
+            {
+                MappedByteBuffer[] newSegs = new MappedByteBuffer[segmentId + 1];
+                System.arraycopy( segs, 0, newSegs, 0, segs.length );
+                segs = newSegs;
+            }
+            else
+            {
+                segs = segs.clone();
+            }
+            segs[segmentId] = segment;
+            segments = segs;
+            return segment;
+        }
+        finally
+        {
+            if ( interrupted )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private synchronized void unmapSegments()
+    {
+        segments = noSegments;
+    }
+
+    @Override
+    public void truncate() throws IOException
+    {
+        // Accessing a mapping beyond the end of the file is a fatal error, so we must drop all our mappings, and wait
+        // for the readers that are still copying out of them, before the file can shrink.
+        mappingLock.writeLock().lock();
+        try
+        {
+            unmapSegments();
+            super.truncate();
+        }
+        finally
+        {
+            mappingLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        mappingLock.writeLock().lock();
+        try
+        {
+            closeMappings();
+        }
+        finally
+        {
+            mappingLock.writeLock().unlock();
+        }
+    }
+
+    private synchronized void closeMappings() throws IOException
+    {
+        closed = true;
+        unmapSegments();
+        try
+        {
+            super.close();
+        }
+        finally
+        {
+            if ( mappingChannel != null )
+            {
+                mappingChannel.close();
+            }
+        }
+    }
+}
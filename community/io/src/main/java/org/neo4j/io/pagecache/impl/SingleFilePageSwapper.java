@@ -98,7 +98,7 @@ public class SingleFilePageSwapper implements PageSwapper
         }
     }
 
-    private static ByteBuffer proxy( long buffer, int bufferLength ) throws IOException
+    static ByteBuffer proxy( long buffer, int bufferLength ) throws IOException
     {
         ByteBuffer buf = proxyCache.get();
         if ( buf != null )
@@ -178,7 +178,7 @@ public class SingleFilePageSwapper implements PageSwapper
                 this, fileSizeOffset, currentFileSize, newFileSize ) );
     }
 
-    private long getCurrentFileSize()
+    protected final long getCurrentFileSize()
     {
         return UnsafeUtil.getLongVolatile( this, fileSizeOffset );
     }
@@ -350,9 +350,9 @@ public class SingleFilePageSwapper implements PageSwapper
                 startFilePageId, channel, fileOffset, srcs );
         if ( bytesRead == -1 )
         {
-            for ( Page page : pages )
+            for ( int i = 0; i < length; i++ )
             {
-                UnsafeUtil.setMemory( page.address(), filePageSize, MuninnPageCache.ZERO_BYTE );
+                UnsafeUtil.setMemory( pages[arrayOffset + i].address(), filePageSize, MuninnPageCache.ZERO_BYTE );
             }
             return 0;
         }
@@ -68,6 +68,18 @@ public class SingleFilePageSwapperFactory implements PageSwapperFactory
                 throw new NoSuchFileException( file.getPath(), null, "Cannot map non-existing file" );
             }
         }
+        return createSwapper( file, fs, filePageSize, onEviction );
+    }
+
+    /**
+     * Create the PageSwapper instance for the given file, which is known to exist at this point.
+     */
+    protected PageSwapper createSwapper(
+            File file,
+            FileSystemAbstraction fs,
+            int filePageSize,
+            PageEvictionCallback onEviction ) throws IOException
+    {
         return new SingleFilePageSwapper( file, fs, filePageSize, onEviction );
     }
 
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import static org.neo4j.unsafe.impl.internal.dragons.FeatureToggles.getInteger;
+
+/**
+ * The eviction policy decides which pages the clock sweep of the {@link MuninnPageCache} will evict, when it needs
+ * to free up memory for page faults. Both the background eviction thread and cooperatively evicting page faulters
+ * consult the policy for every loaded page they pass.
+ * <p>
+ * Every page is put in probation when it is faulted in, and leaves probation the first time it is accessed again.
+ * The policies differ in how they treat pages that are no longer in probation.
+ */
+public enum EvictionPolicy
+{
+    /**
+     * The classic clock algorithm. The usage stamp of every page is decremented as the clock arm passes it, and the
+     * page is evicted once its usage stamp reaches zero. A single large sequential scan will decay the usage stamps
+     * of the entire cache, and can thus push out the entire working set.
+     */
+    CLOCK
+            {
+                @Override
+                boolean shouldEvict( MuninnPage page, int pagesSweptWithoutEviction, int cachePageCount )
+                {
+                    return page.decrementUsage();
+                }
+            },
+
+    /**
+     * A clock algorithm that is resistant to sequential scans, similar in spirit to CLOCK-Pro and 2Q.
+     * Pages in probation are aged and evicted just like in the {@link #CLOCK} policy, but the usage stamps of pages
+     * that have left probation are only decremented once the clock arm has swept over a number of pages without
+     * finding anything to evict. As long as a scan keeps faulting in pages that are never accessed again, the scan
+     * ends up evicting its own pages, and the pages that have been accessed more than once stay in memory.
+     */
+    SCAN_RESISTANT
+            {
+                @Override
+                boolean shouldEvict( MuninnPage page, int pagesSweptWithoutEviction, int cachePageCount )
+                {
+                    if ( page.isInProbation() ||
+                         pagesSweptWithoutEviction >= Math.min( hotPageProtectionDistance, cachePageCount ) )
+                    {
+                        return page.decrementUsage();
+                    }
+                    return false;
+                }
+            };
+
+    // The number of pages the clock arm must pass without finding a page to evict, before the scan resistant policy
+    // starts decrementing the usage stamps of pages that are out of probation.
+    private static final int hotPageProtectionDistance = getInteger(
+            EvictionPolicy.class, "hotPageProtectionDistance", 64 );
+
+    /**
+     * Called by the clock sweep for every loaded page it passes.
+     *
+     * @param page The page the clock arm is pointing at.
+     * @param pagesSweptWithoutEviction The number of pages the clock arm has passed, since it last found a page to
+     * evict.
+     * @param cachePageCount The total number of pages in the page cache.
+     * @return {@code true} if the given page should be evicted, otherwise {@code false}.
+     */
+    abstract boolean shouldEvict( MuninnPage page, int pagesSweptWithoutEviction, int cachePageCount );
+}
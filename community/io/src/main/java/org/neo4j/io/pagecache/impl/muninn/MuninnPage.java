@@ -20,10 +20,12 @@
 package org.neo4j.io.pagecache.impl.muninn;
 
 import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.neo4j.io.pagecache.Page;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.WriteAheadBarrier;
 import org.neo4j.io.pagecache.tracing.EvictionEvent;
 import org.neo4j.io.pagecache.tracing.FlushEvent;
 import org.neo4j.io.pagecache.tracing.FlushEventOpportunity;
@@ -36,11 +38,31 @@ import static java.lang.String.format;
 final class MuninnPage extends SequenceLock implements Page
 {
     private static final long usageStampOffset = UnsafeUtil.getFieldOffset( MuninnPage.class, "usageStamp" );
+    private static final long dirtyOffset = UnsafeUtil.getFieldOffset( MuninnPage.class, "dirty" );
+    private static final long writeAheadGenerationOffset =
+            UnsafeUtil.getFieldOffset( MuninnPage.class, "writeAheadGeneration" );
+    private static final byte PROBATION_FLAG = (byte) 0x80;
+    private static final byte PREFETCHED_FLAG = (byte) 0x40;
 
-    // The sign bit is used as a dirty flag for the page.
-    // The other 7 bits are used as an exponent for computing the cache page size (as a power of two).
+    // The exponent for computing the cache page size (as a power of two).
     private byte cachePageHeader;
 
+    // 1 if the page has changes that have not been written to the file, otherwise 0. Concurrent writers and flushers
+    // race to change it, so it is only ever changed with compare-and-swap, such that only the thread that actually
+    // flips the flag updates the dirty page counter.
+    // accessed through unsafe
+    @SuppressWarnings( "unused" )
+    private volatile int dirty;
+
+    // The highest WriteAheadBarrier generation seen by anyone taking a write lock on this page. Concurrent writers
+    // race to raise it, so it is only ever raised with compare-and-swap.
+    // accessed through unsafe
+    @SuppressWarnings( "unused" )
+    private volatile long writeAheadGeneration;
+
+    // The count of dirty pages in the page cache, shared by all of its pages.
+    private final LongAdder dirtyPages;
+
     // We keep this reference to prevent the MemoryManager from becoming
     // finalizable until all our pages are finalizable or collected.
     private final MemoryManager memoryManager;
@@ -48,6 +70,10 @@ final class MuninnPage extends SequenceLock implements Page
     private long pointer;
 
     // Optimistically incremented; occasionally truncated to a max of 4.
+    // The sign bit is used as a probation flag, which is raised when the page is faulted in, and cleared the first
+    // time the page is accessed again. Pages that are only ever touched once, as in a sequential scan, never leave
+    // probation. See EvictionPolicy.
+    // The next bit is raised on pages that were prefetched by read-ahead, and cleared on their first access.
     // accessed through unsafe
     @SuppressWarnings( "unused" )
     private volatile byte usageStamp;
@@ -60,10 +86,11 @@ final class MuninnPage extends SequenceLock implements Page
     private PageSwapper swapper;
     private long filePageId = PageCursor.UNBOUND_PAGE_ID;
 
-    public MuninnPage( int cachePageSize, MemoryManager memoryManager )
+    public MuninnPage( int cachePageSize, MemoryManager memoryManager, LongAdder dirtyPages )
     {
         this.cachePageHeader = (byte) (31 - Integer.numberOfLeadingZeros( cachePageSize ));
         this.memoryManager = memoryManager;
+        this.dirtyPages = dirtyPages;
         getCachePageId(); // initialize our identity hashCode
     }
 
@@ -75,7 +102,7 @@ final class MuninnPage extends SequenceLock implements Page
     @Override
     public int size()
     {
-        return 1 << (cachePageHeader & 0x7F);
+        return 1 << cachePageHeader;
     }
 
     @Override
@@ -89,43 +116,102 @@ final class MuninnPage extends SequenceLock implements Page
      */
     boolean isDirty()
     {
-        return (cachePageHeader & ~0x7F) != 0;
+        return dirty != 0;
     }
 
     public void markAsDirty()
     {
-        cachePageHeader |= ~0x7F;
+        // Check before we swap, so writes to pages that are already dirty don't contend on the cache line.
+        if ( dirty == 0 && UnsafeUtil.compareAndSwapInt( this, dirtyOffset, 0, 1 ) )
+        {
+            dirtyPages.increment();
+        }
     }
 
     public void markAsClean()
     {
-        cachePageHeader &= 0x7F;
+        if ( dirty != 0 && UnsafeUtil.compareAndSwapInt( this, dirtyOffset, 1, 0 ) )
+        {
+            dirtyPages.decrement();
+        }
     }
 
-    /** Increment the usage stamp to at most 4. */
+    /**
+     * Remember that this page is about to be changed under the given {@link WriteAheadBarrier} generation.
+     * <p>
+     * NOTE: Should be called under the page write lock, before making any changes to the page.
+     */
+    void raiseWriteAheadGeneration( long generation )
+    {
+        long current;
+        do
+        {
+            current = writeAheadGeneration;
+        }
+        while ( current < generation &&
+                !UnsafeUtil.compareAndSwapLong( this, writeAheadGenerationOffset, current, generation ) );
+    }
+
+    long getWriteAheadGeneration()
+    {
+        return writeAheadGeneration;
+    }
+
+    /**
+     * Increment the usage stamp to at most 4. This also takes the page out of probation, if it was in probation.
+     * The exception is pages that were prefetched by read-ahead, and are now being accessed for the first time. They
+     * stay in probation, as if they had just been faulted in.
+     */
     public void incrementUsage()
     {
         // This is intentionally left benignly racy for performance.
         byte usage = getUsageCounter();
-        if ( usage < 4 ) // avoid cache sloshing by not doing a write if counter is already maxed out
+        if ( (usage & PREFETCHED_FLAG) != 0 )
+        {
+            initialiseUsage();
+            return;
+        }
+        // Avoid cache sloshing by not doing a write if counter is already maxed out.
+        // Pages in probation have the sign bit raised, so they always pass this check.
+        if ( usage < 4 )
         {
             usage <<= 1;
             usage++; // Raise at least one bit in case it was all zeros.
-            usage &= 0x0F;
+            usage &= 0x0F; // This also clears the probation and prefetched flags.
             UnsafeUtil.putByteVolatile( this, usageStampOffset, usage );
         }
     }
 
-    /** Decrement the usage stamp. Returns true if it reaches 0. */
+    /**
+     * Decrement the usage stamp. Returns true if it reaches 0. The probation and prefetched flags are left untouched.
+     */
     public boolean decrementUsage()
     {
         // This is intentionally left benignly racy for performance.
-        byte usage = getUsageCounter();
-        usage >>>= 1;
-        UnsafeUtil.putByteVolatile( this, usageStampOffset, usage );
+        byte stamp = getUsageCounter();
+        int usage = (stamp & 0x0F) >>> 1;
+        byte flags = (byte) (stamp & (PROBATION_FLAG | PREFETCHED_FLAG));
+        UnsafeUtil.putByteVolatile( this, usageStampOffset, (byte) (flags | usage) );
         return usage == 0;
     }
 
+    /**
+     * @return {@code true} if this page has not been accessed since it was faulted in.
+     */
+    public boolean isInProbation()
+    {
+        return (getUsageCounter() & PROBATION_FLAG) != 0;
+    }
+
+    /**
+     * Reset the usage stamp of a page that is being faulted in, and put it in probation.
+     * NOTE: This method MUST be called while holding the exclusive page lock.
+     */
+    private void initialiseUsage()
+    {
+        UnsafeUtil.putByteVolatile( this, usageStampOffset, (byte) (PROBATION_FLAG | 1) );
+    }
+
     private byte getUsageCounter()
     {
         return UnsafeUtil.getByteVolatile( this, usageStampOffset );
@@ -134,20 +220,22 @@ final class MuninnPage extends SequenceLock implements Page
     /**
      * NOTE: This method must be called while holding an exclusive lock on the page.
      */
-    public void flush( FlushEventOpportunity flushOpportunity ) throws IOException
+    public void flush( WriteAheadBarrier barrier, FlushEventOpportunity flushOpportunity ) throws IOException
     {
         if ( swapper != null && isDirty() )
         {
             // The page is bound and has stuff to flush
-            doFlush( swapper, filePageId, flushOpportunity );
+            doFlush( barrier, swapper, filePageId, flushOpportunity );
         }
     }
 
     private void doFlush(
+            WriteAheadBarrier barrier,
             PageSwapper swapper,
             long filePageId,
             FlushEventOpportunity flushOpportunity ) throws IOException
     {
+        barrier.awaitDurable( writeAheadGeneration );
         FlushEvent event = flushOpportunity.beginFlush( filePageId, getCachePageId(), swapper );
         try
         {
@@ -189,24 +277,69 @@ final class MuninnPage extends SequenceLock implements Page
         // the file page, so any subsequent thread that finds the page in their
         // translation table will re-do the page fault.
         this.filePageId = filePageId; // Page now considered isLoaded()
+        initialiseUsage();
         long bytesRead = swapper.read( filePageId, this );
         faultEvent.addBytesRead( bytesRead );
         faultEvent.setCachePageId( getCachePageId() );
         this.swapper = swapper; // Page now considered isBoundTo( swapper, filePageId )
     }
 
+    /**
+     * Fault the given contiguous range of file pages into the given cache pages, using a single vectored read.
+     * This is used by read-ahead, and the pages are left in probation with a usage count of zero, such that they
+     * will be the first to be evicted if they are not accessed before the clock arm comes around.
+     * <p>
+     * NOTE: This method MUST be called while holding the exclusive page lock on all of the given pages.
+     */
+    static void faultReadAhead(
+            PageSwapper swapper,
+            int filePageSize,
+            long startFilePageId,
+            MuninnPage[] pages,
+            PageFaultEvent[] faultEvents,
+            int length ) throws IOException
+    {
+        for ( int i = 0; i < length; i++ )
+        {
+            MuninnPage page = pages[i];
+            if ( page.swapper != null || page.filePageId != PageCursor.UNBOUND_PAGE_ID )
+            {
+                String msg = format(
+                        "Cannot read ahead page {filePageId = %s, swapper = %s} into " +
+                        "cache page %s. Already bound to {filePageId = " +
+                        "%s, swapper = %s}.",
+                        startFilePageId + i, swapper, page.getCachePageId(), page.filePageId, page.swapper );
+                throw new IllegalStateException( msg );
+            }
+            // See the comment in fault() on why the filePageId is assigned before, and the swapper after, the read.
+            page.filePageId = startFilePageId + i;
+            UnsafeUtil.putByteVolatile( page, usageStampOffset, (byte) (PROBATION_FLAG | PREFETCHED_FLAG) );
+        }
+        long bytesRead = swapper.read( startFilePageId, pages, 0, length );
+        for ( int i = 0; i < length; i++ )
+        {
+            MuninnPage page = pages[i];
+            long pageBytesRead = Math.min( bytesRead, filePageSize );
+            bytesRead -= pageBytesRead;
+            faultEvents[i].addBytesRead( pageBytesRead );
+            faultEvents[i].setCachePageId( page.getCachePageId() );
+            page.swapper = swapper;
+        }
+    }
+
     /**
      * NOTE: This method MUST be called while holding the page write lock.
      */
-    public void evict( EvictionEvent evictionEvent ) throws IOException
+    public void evict( WriteAheadBarrier barrier, EvictionEvent evictionEvent ) throws IOException
     {
         long filePageId = this.filePageId;
         evictionEvent.setCachePageId( getCachePageId() );
         evictionEvent.setFilePageId( filePageId );
+        evictionEvent.setHot( !isInProbation() );
         PageSwapper swapper = this.swapper;
         evictionEvent.setSwapper( swapper );
 
-        flush( evictionEvent.flushEventOpportunity() );
+        flush( barrier, evictionEvent.flushEventOpportunity() );
         this.filePageId = PageCursor.UNBOUND_PAGE_ID;
 
         this.swapper = null;
@@ -24,6 +24,7 @@ import java.io.IOException;
 import java.nio.file.CopyOption;
 import java.nio.file.OpenOption;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -31,7 +32,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Stream;
 
 import org.neo4j.io.pagecache.FileHandle;
@@ -40,6 +41,7 @@ import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCacheOpenOptions;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.WriteAheadBarrier;
 import org.neo4j.io.pagecache.impl.FileIsMappedException;
 import org.neo4j.io.pagecache.tracing.EvictionEvent;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
@@ -108,9 +110,9 @@ public class MuninnPageCache implements PageCache
     public static final byte ZERO_BYTE =
             (byte) (flag( MuninnPageCache.class, "brandedZeroByte", false ) ? 0x0f : 0);
 
-    // Keep this many pages free and ready for use in faulting.
+    // Keep this many pages free and ready for use in faulting, in every partition.
     // This will be truncated to be no more than half of the number of pages
-    // in the cache.
+    // in the partition.
     private static final int pagesToKeepFree = getInteger(
             MuninnPageCache.class, "pagesToKeepFree", 30 );
 
@@ -124,9 +126,8 @@ public class MuninnPageCache implements PageCache
     private static final IOException oomException = new IOException(
             "OutOfMemoryError encountered in the page cache background eviction thread" );
 
-    // The field offset to unsafely access the freelist field.
-    private static final long freelistOffset =
-            UnsafeUtil.getFieldOffset( MuninnPageCache.class, "freelist" );
+    // Every partition must have at least this many pages.
+    private static final int minimumPageCount = 2;
 
     // This is used as a poison-pill signal in the freelist, to inform any
     // page faulting thread that it is now no longer possible to queue up and
@@ -145,20 +146,25 @@ public class MuninnPageCache implements PageCache
     // thread factories, etc.
     private static final Executor backgroundThreadExecutor = BackgroundThreadExecutor.INSTANCE;
 
+    // Read-ahead tasks run on threads of their own, which are bounded in number, and drop requests they can't keep up
+    // with. There is one of these for all page cache instances, for the same reason as above.
+    private static final Executor readAheadThreadExecutor = ReadAheadThreadExecutor.INSTANCE;
+
     private static final List<OpenOption> ignoredOpenOptions = Arrays.asList( (OpenOption) StandardOpenOption.APPEND,
             StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.SPARSE );
 
     private final int pageCacheId;
     private final PageSwapperFactory swapperFactory;
     private final int cachePageSize;
-    private final int keepFree;
     private final PageCacheTracer tracer;
+    private final EvictionPolicy evictionPolicy;
     private final MuninnPage[] pages;
+    private final PagePartition[] partitions;
     // All PageCursors are initialised with their pointers pointing to the victim page. This way, we can do branch-free
     // bounds checking of page accesses without fear of segfaulting newly allocated cursors.
     final long victimPage;
 
-    // The freelist is a thread-safe linked-list of 2 types of objects. A link
+    // Each partition has a freelist, which is a thread-safe linked-list of 2 types of objects. A link
     // can either be a MuninnPage or a FreePage.
     // Initially, most of the links are MuninnPages that are ready for the
     // taking. Then towards the end, we have the last bunch of pages linked
@@ -170,23 +176,25 @@ public class MuninnPageCache implements PageCache
     // exhibit the ABA-problem. In other words, eviction will never add
     // MuninnPages to the freelist; it will only add free pages through a new
     // FreePage object.
-    @SuppressWarnings( "unused" ) // This field is accessed via Unsafe.
-    private volatile Object freelist;
+    // The freelists are kept in the PagePartition objects, so page faults that go to different partitions don't
+    // contend on the same freelist head.
 
     // Linked list of mappings - guarded by synchronized(this)
     private volatile FileMapping mappedFiles;
 
-    // The thread that runs the eviction algorithm. We unpark this when we've run out of
-    // free pages to grab.
-    private volatile Thread evictionThread;
-    // True if the eviction thread is currently parked, without someone having
-    // signalled it to wake up. This is used as a weak guard for unparking the
-    // eviction thread, because calling unpark too much (from many page
-    // faulting threads) can cause contention on the locks protecting that
-    // threads scheduling meta-data in the OS kernel.
-    private volatile boolean evictorParked;
     private volatile IOException evictorException;
 
+    // Only one call to flushDirtyPages can run at a time, and it continues with the file where the previous call left
+    // off - guarded by synchronized(incrementalFlushLock)
+    private final Object incrementalFlushLock = new Object();
+    private MuninnPagedFile incrementalFlushFile;
+
+    // The number of dirty pages in the cache. The pages keep it up to date as they are marked as dirty and clean.
+    private final LongAdder dirtyPages = new LongAdder();
+
+    // Every dirty page has to pass this barrier before it is written to its file
+    private volatile WriteAheadBarrier writeAheadBarrier = WriteAheadBarrier.NONE;
+
     // Flag for when page cache is closed - writes guarded by synchronized(this), reads can be unsynchronized
     private volatile boolean closed;
 
@@ -199,52 +207,88 @@ public class MuninnPageCache implements PageCache
 
     public MuninnPageCache( PageSwapperFactory swapperFactory, int maxPages, int cachePageSize, PageCacheTracer tracer,
             PageCursorTracerSupplier cursorTracerSupplier )
+    {
+        this( swapperFactory, maxPages, cachePageSize, tracer, cursorTracerSupplier, EvictionPolicy.CLOCK );
+    }
+
+    public MuninnPageCache( PageSwapperFactory swapperFactory, int maxPages, int cachePageSize, PageCacheTracer tracer,
+            PageCursorTracerSupplier cursorTracerSupplier, EvictionPolicy evictionPolicy )
+    {
+        this( swapperFactory, maxPages, cachePageSize, tracer, cursorTracerSupplier, evictionPolicy, 1 );
+    }
+
+    /**
+     * @param partitionCount the number of partitions to split the pages into. Every partition has its own freelist
+     * and eviction thread. The count is capped such that every partition gets at least two pages.
+     */
+    public MuninnPageCache( PageSwapperFactory swapperFactory, int maxPages, int cachePageSize, PageCacheTracer tracer,
+            PageCursorTracerSupplier cursorTracerSupplier, EvictionPolicy evictionPolicy, int partitionCount )
     {
         verifyHacks();
         verifyCachePageSizeIsPowerOfTwo( cachePageSize );
         verifyMinimumPageCount( maxPages, cachePageSize );
+        verifyPartitionCount( partitionCount );
 
         this.pageCacheId = pageCacheIdCounter.incrementAndGet();
         this.swapperFactory = swapperFactory;
         this.cachePageSize = cachePageSize;
-        this.keepFree = Math.min( pagesToKeepFree, maxPages / 2 );
         this.tracer = tracer;
         this.cursorTracerSupplier = cursorTracerSupplier;
+        this.evictionPolicy = evictionPolicy;
         this.pages = new MuninnPage[maxPages];
+        this.partitions = createPartitions( maxPages, Math.min( partitionCount, maxPages / minimumPageCount ) );
         this.printExceptionsOnClose = true;
 
         long alignment = swapperFactory.getRequiredBufferAlignment();
         long expectedMaxMemory = ((long) maxPages) * cachePageSize; // cast to long prevents overflow
         MemoryManager memoryManager = new MemoryManager( expectedMaxMemory, alignment );
         this.victimPage = VictimPageReference.getVictimPage( cachePageSize );
-        Object pageList = null;
-        int pageIndex = maxPages;
-        while ( pageIndex --> 0 )
+        for ( PagePartition partition : partitions )
         {
-            MuninnPage page = new MuninnPage( cachePageSize, memoryManager );
-            page.tryExclusiveLock(); // All pages in the free-list are exclusively locked, and unlocked by page fault.
-            pages[pageIndex] = page;
-
-            if ( pageList == null )
-            {
-                FreePage freePage = new FreePage( page );
-                freePage.setNext( null );
-                pageList = freePage;
-            }
-            else if ( pageList instanceof FreePage
-                    && ((FreePage) pageList).count < keepFree )
-            {
-                FreePage freePage = new FreePage( page );
-                freePage.setNext( (FreePage) pageList );
-                pageList = freePage;
-            }
-            else
+            Object pageList = null;
+            int pageIndex = partition.endIndex;
+            while ( pageIndex --> partition.startIndex )
             {
-                page.nextFree = pageList;
-                pageList = page;
+                MuninnPage page = new MuninnPage( cachePageSize, memoryManager, dirtyPages );
+                // All pages in the free-list are exclusively locked, and unlocked by page fault.
+                page.tryExclusiveLock();
+                pages[pageIndex] = page;
+
+                if ( pageList == null )
+                {
+                    FreePage freePage = new FreePage( page );
+                    freePage.setNext( null );
+                    pageList = freePage;
+                }
+                else if ( pageList instanceof FreePage
+                        && ((FreePage) pageList).count < partition.keepFree )
+                {
+                    FreePage freePage = new FreePage( page );
+                    freePage.setNext( (FreePage) pageList );
+                    pageList = freePage;
+                }
+                else
+                {
+                    page.nextFree = pageList;
+                    pageList = page;
+                }
             }
+            partition.getAndSetFreelistHead( pageList );
         }
-        UnsafeUtil.putObjectVolatile( this, freelistOffset, pageList );
+    }
+
+    private static PagePartition[] createPartitions( int maxPages, int partitionCount )
+    {
+        PagePartition[] partitions = new PagePartition[partitionCount];
+        int startIndex = 0;
+        for ( int i = 0; i < partitionCount; i++ )
+        {
+            int endIndex = (int) (((long) maxPages * (i + 1)) / partitionCount);
+            int keepFree = Math.min( pagesToKeepFree, (endIndex - startIndex) / 2 );
+            partitions[i] = new PagePartition( i, startIndex, endIndex, keepFree );
+            startIndex = endIndex;
+        }
+        return partitions;
     }
 
     private static void verifyHacks()
@@ -263,9 +307,17 @@ public class MuninnPageCache implements PageCache
         }
     }
 
+    private static void verifyPartitionCount( int partitionCount )
+    {
+        if ( partitionCount < 1 )
+        {
+            throw new IllegalArgumentException(
+                    "Page cache must have at least one partition, but was given " + partitionCount + " partitions." );
+        }
+    }
+
     private static void verifyMinimumPageCount( int maxPages, int cachePageSize )
     {
-        int minimumPageCount = 2;
         if ( maxPages < minimumPageCount )
         {
             throw new IllegalArgumentException( String.format(
@@ -368,6 +420,24 @@ public class MuninnPageCache implements PageCache
         return pagedFile;
     }
 
+    @Override
+    public synchronized List<PagedFile> listExistingMappings() throws IOException
+    {
+        assertHealthy();
+        ensureThreadsInitialised();
+
+        List<PagedFile> list = new ArrayList<>();
+        FileMapping current = mappedFiles;
+        while ( current != null )
+        {
+            MuninnPagedFile pagedFile = current.pagedFile;
+            pagedFile.incrementRefCount();
+            list.add( pagedFile );
+            current = current.next;
+        }
+        return list;
+    }
+
     @Override
     public synchronized Optional<PagedFile> getExistingMapping( File file ) throws IOException
     {
@@ -477,7 +547,10 @@ public class MuninnPageCache implements PageCache
 
         try
         {
-            backgroundThreadExecutor.execute( new EvictionTask( this ) );
+            for ( PagePartition partition : partitions )
+            {
+                backgroundThreadExecutor.execute( new EvictionTask( this, partition ) );
+            }
         }
         catch ( Exception e )
         {
@@ -515,8 +588,13 @@ public class MuninnPageCache implements PageCache
                     {
                         prev.next = current.next;
                     }
+                    // Wait for any incremental flush of the file to finish, before we close its swapper.
+                    synchronized ( file.incrementalFlushLock )
+                    {
+                        flushAndCloseWithoutFail( file );
+                    }
+                    // The last flush of the file is counted for it, before its counts are folded away.
                     tracer.unmappedFile( current.file );
-                    flushAndCloseWithoutFail( file );
                     break;
                 }
                 prev = current;
@@ -578,6 +656,62 @@ public class MuninnPageCache implements PageCache
         clearEvictorException();
     }
 
+    @Override
+    public int flushDirtyPages( int maxPagesToFlush ) throws IOException
+    {
+        assertNotClosed();
+        // The files are flushed one at a time, in file page order, so runs of adjacent dirty pages are written with
+        // vectored writes. We don't hold the monitor lock while we write, so mapping and unmapping are not blocked.
+        // Instead, unmapping a file waits for the incremental flush lock of the file, before closing its swapper.
+        List<MuninnPagedFile> files = new ArrayList<>();
+        for ( FileMapping fileMapping = mappedFiles; fileMapping != null; fileMapping = fileMapping.next )
+        {
+            files.add( fileMapping.pagedFile );
+        }
+        int pagesFlushed = 0;
+        synchronized ( incrementalFlushLock )
+        {
+            try ( MajorFlushEvent cacheFlush = tracer.beginCacheFlush() )
+            {
+                FlushEventOpportunity flushOpportunity = cacheFlush.flushEventOpportunity();
+                int firstFile = Math.max( 0, files.indexOf( incrementalFlushFile ) );
+                for ( int i = 0; i < files.size() && pagesFlushed < maxPagesToFlush; i++ )
+                {
+                    MuninnPagedFile pagedFile = files.get( (firstFile + i) % files.size() );
+                    incrementalFlushFile = pagedFile;
+                    // A file writes out fewer pages than it is asked to, when it reaches its end. Then we move on.
+                    pagesFlushed += pagedFile.flushDirtyPagesIncrementally(
+                            flushOpportunity, maxPagesToFlush - pagesFlushed );
+                }
+            }
+        }
+        return pagesFlushed;
+    }
+
+    @Override
+    public void setWriteAheadBarrier( WriteAheadBarrier barrier )
+    {
+        writeAheadBarrier = barrier;
+    }
+
+    long writeAheadGeneration()
+    {
+        return writeAheadBarrier.currentGeneration();
+    }
+
+    void awaitWriteAheadBarrier( long generation ) throws IOException
+    {
+        writeAheadBarrier.awaitDurable( generation );
+    }
+
+    @Override
+    public int dirtyPageCount()
+    {
+        // A page can be cleaned by one thread, before the thread that dirtied it has counted it, so the sum can
+        // briefly be negative.
+        return (int) Math.max( 0, dirtyPages.sum() );
+    }
+
     private void flushAllPages( IOLimiter limiter ) throws IOException
     {
         try ( MajorFlushEvent cacheFlush = tracer.beginCacheFlush() )
@@ -598,6 +732,18 @@ public class MuninnPageCache implements PageCache
         swapperFactory.syncDevice();
     }
 
+    /**
+     * Run the given read-ahead task on one of the read-ahead threads. Tasks submitted after the page cache has been
+     * closed, or while all the read-ahead threads are busy and their queue is full, are silently dropped.
+     */
+    void executeReadAheadTask( ReadAheadTask task )
+    {
+        if ( !closed )
+        {
+            readAheadThreadExecutor.execute( task );
+        }
+    }
+
     @Override
     public synchronized void close()
     {
@@ -630,8 +776,11 @@ public class MuninnPageCache implements PageCache
             pages[i] = null;
         }
 
-        interrupt( evictionThread );
-        evictionThread = null;
+        for ( PagePartition partition : partitions )
+        {
+            interrupt( partition.evictionThread );
+            partition.evictionThread = null;
+        }
 
         // Close the page swapper factory last. If this fails then we will still consider ourselves closed.
         swapperFactory.close();
@@ -687,9 +836,15 @@ public class MuninnPageCache implements PageCache
         return pageCacheId;
     }
 
-    MuninnPage grabFreeAndExclusivelyLockedPage( PageFaultEvent faultEvent ) throws IOException
+    /**
+     * Grab a free page from the partition that the given partition key hashes to.
+     * @param partitionKey A key, typically derived from the file page id, that decides which partition to fault into.
+     * @param faultEvent The trace event for the current page fault.
+     */
+    MuninnPage grabFreeAndExclusivelyLockedPage( long partitionKey, PageFaultEvent faultEvent ) throws IOException
     {
-        // Review the comment on the freelist field before making changes to
+        PagePartition partition = partitionOf( partitionKey );
+        // Review the comment on the freelists, by the pages field, before making changes to
         // this part of the code.
         // Whatever the case, we're going to the head-pointer of the freelist,
         // and in doing so, we can discover a number of things.
@@ -713,61 +868,116 @@ public class MuninnPageCache implements PageCache
         for (;;)
         {
             assertHealthy();
-            current = getFreelistHead();
+            current = partition.getFreelistHead();
             if ( current == null )
             {
-                unparkEvictor();
-                MuninnPage page = cooperativelyEvict( faultEvent );
+                partition.unparkEvictor();
+                MuninnPage page = cooperativelyEvict( partition, faultEvent );
                 if ( page != null ) {
                     return page;
                 }
             }
-            else if ( current instanceof MuninnPage )
+            else
             {
-                MuninnPage page = (MuninnPage) current;
-                if ( compareAndSetFreelistHead( page, page.nextFree ) )
+                MuninnPage page = tryGrabFreelistHead( partition, current );
+                if ( page != null )
                 {
                     return page;
                 }
             }
-            else if ( current instanceof FreePage )
+        }
+    }
+
+    /**
+     * Try to take the given head off the freelist of the given partition.
+     * @return the grabbed page, or {@code null} if we lost the race for it.
+     */
+    private MuninnPage tryGrabFreelistHead( PagePartition partition, Object current )
+    {
+        if ( current instanceof MuninnPage )
+        {
+            MuninnPage page = (MuninnPage) current;
+            if ( partition.compareAndSetFreelistHead( page, page.nextFree ) )
+            {
+                return page;
+            }
+        }
+        else if ( current instanceof FreePage )
+        {
+            FreePage freePage = (FreePage) current;
+            if ( freePage == shutdownSignal )
             {
-                FreePage freePage = (FreePage) current;
-                if ( freePage == shutdownSignal )
-                {
-                    throw new IllegalStateException( "The PageCache has been shut down." );
-                }
+                throw new IllegalStateException( "The PageCache has been shut down." );
+            }
 
-                if ( compareAndSetFreelistHead( freePage, freePage.next ) )
-                {
-                    return freePage.page;
-                }
+            if ( partition.compareAndSetFreelistHead( freePage, freePage.next ) )
+            {
+                return freePage.page;
             }
         }
+        return null;
     }
 
-    private MuninnPage cooperativelyEvict( PageFaultEvent faultEvent ) throws IOException
+    PagePartition partitionOf( long partitionKey )
+    {
+        // Scramble the key, so that runs of adjacent file pages are spread over all the partitions.
+        long hash = partitionKey * 0x9E3779B97F4A7C15L;
+        return partitions[(int) ((hash >>> 32) % partitions.length)];
+    }
+
+    /**
+     * Evict a page for a page fault into the given partition. We start by sweeping the pages of that partition, but
+     * a small partition can have all of its pages locked by concurrent accesses. If we cannot evict anything after
+     * sweeping a partition a number of times, then we move on to the next partition, where we take a page from its
+     * freelist if it has one, or otherwise sweep its pages. We only give up when we have been through all of the
+     * partitions. The page we return can belong to any partition, since a page goes back to the freelist of the
+     * partition it belongs to, when it is evicted again.
+     */
+    private MuninnPage cooperativelyEvict( PagePartition partition, PageFaultEvent faultEvent ) throws IOException
     {
+        int partitionIndex = partition.index;
+        int partitionsSwept = 0;
+        PagePartition sweepPartition = partition;
         int iterations = 0;
-        int clockArm = ThreadLocalRandom.current().nextInt( pages.length );
+        int clockArm = sweepPartition.startIndex + ThreadLocalRandom.current().nextInt( sweepPartition.size() );
+        int pagesSweptWithoutEviction = 0;
         MuninnPage page;
         boolean evicted = false;
         do
         {
             assertHealthy();
-            if ( getFreelistHead() != null )
+            if ( partition.getFreelistHead() != null )
             {
                 return null;
             }
 
-            if ( clockArm == pages.length )
+            if ( sweepPartition != partition )
+            {
+                Object freelistHead = sweepPartition.getFreelistHead();
+                if ( freelistHead != null )
+                {
+                    MuninnPage freePage = tryGrabFreelistHead( sweepPartition, freelistHead );
+                    if ( freePage != null )
+                    {
+                        return freePage;
+                    }
+                }
+            }
+
+            if ( clockArm == sweepPartition.endIndex )
             {
                 if ( iterations == cooperativeEvictionLiveLockThreshold )
                 {
-                    throw cooperativeEvictionLiveLock();
+                    partitionsSwept++;
+                    if ( partitionsSwept == partitions.length )
+                    {
+                        throw cooperativeEvictionLiveLock();
+                    }
+                    sweepPartition = partitions[(partitionIndex + partitionsSwept) % partitions.length];
+                    iterations = 0;
                 }
                 iterations++;
-                clockArm = 0;
+                clockArm = sweepPartition.startIndex;
             }
 
             page = pages[clockArm];
@@ -777,7 +987,8 @@ public class MuninnPageCache implements PageCache
                         "The PageCache has been shut down" );
             }
 
-            if ( page.isLoaded() && page.decrementUsage() )
+            if ( page.isLoaded() &&
+                 evictionPolicy.shouldEvict( page, pagesSweptWithoutEviction, sweepPartition.size() ) )
             {
                 if ( page.tryExclusiveLock() )
                 {
@@ -796,6 +1007,7 @@ public class MuninnPageCache implements PageCache
                 }
             }
             clockArm++;
+            pagesSweptWithoutEviction++;
         }
         while ( !evicted );
         return page;
@@ -816,80 +1028,48 @@ public class MuninnPageCache implements PageCache
                 "your database." );
     }
 
-    private void unparkEvictor()
-    {
-        if ( evictorParked )
-        {
-            evictorParked = false;
-            LockSupport.unpark( evictionThread );
-        }
-    }
-
-    private void parkEvictor( long parkNanos )
-    {
-        // Only called from the background eviction thread!
-        evictorParked = true;
-        LockSupport.parkNanos( this, parkNanos );
-        evictorParked = false;
-    }
-
-    private Object getFreelistHead()
-    {
-        return UnsafeUtil.getObjectVolatile( this, freelistOffset );
-    }
-
-    private boolean compareAndSetFreelistHead( Object expected, Object update )
-    {
-        return UnsafeUtil.compareAndSwapObject(
-                this, freelistOffset, expected, update );
-    }
-
-    private Object getAndSetFreelistHead( Object newFreelistHead )
-    {
-        return UnsafeUtil.getAndSetObject(
-                this, freelistOffset, newFreelistHead );
-    }
-
     /**
      * Scan through all the pages, one by one, and decrement their usage stamps.
      * If a usage reaches zero, we try-write-locking it, and if we get that lock,
      * we evict the page. If we don't, we move on to the next page.
      * Once we have enough free pages, we park our thread. Page-faulting will
      * unpark our thread as needed.
+     * Only the pages in the given partition are swept.
      */
-    void continuouslySweepPages()
+    void continuouslySweepPages( PagePartition partition )
     {
-        evictionThread = Thread.currentThread();
-        int clockArm = 0;
+        partition.evictionThread = Thread.currentThread();
+        int clockArm = partition.startIndex;
 
         while ( !closed )
         {
-            int pageCountToEvict = parkUntilEvictionRequired( keepFree );
+            int pageCountToEvict = parkUntilEvictionRequired( partition );
             try ( EvictionRunEvent evictionRunEvent = tracer.beginPageEvictions( pageCountToEvict ) )
             {
-                clockArm = evictPages( pageCountToEvict, clockArm, evictionRunEvent );
+                clockArm = evictPages( partition, pageCountToEvict, clockArm, evictionRunEvent );
             }
         }
 
         // The last thing we do, is signalling the shutdown of the cache via
         // the freelist. This signal is looked out for in grabFreePage.
-        getAndSetFreelistHead( shutdownSignal );
+        partition.getAndSetFreelistHead( shutdownSignal );
     }
 
-    private int parkUntilEvictionRequired( int keepFree )
+    private int parkUntilEvictionRequired( PagePartition partition )
     {
+        int keepFree = partition.keepFree;
         // Park until we're either interrupted, or the number of free pages drops
         // bellow keepFree.
         long parkNanos = TimeUnit.MILLISECONDS.toNanos( 10 );
         for (;;)
         {
-            parkEvictor( parkNanos );
+            partition.parkEvictor( parkNanos );
             if ( Thread.interrupted() || closed )
             {
                 return 0;
             }
 
-            Object freelistHead = getFreelistHead();
+            Object freelistHead = partition.getFreelistHead();
 
             if ( freelistHead == null )
             {
@@ -906,13 +1086,14 @@ public class MuninnPageCache implements PageCache
         }
     }
 
-    int evictPages( int pageCountToEvict, int clockArm, EvictionRunEvent evictionRunEvent )
+    int evictPages( PagePartition partition, int pageCountToEvict, int clockArm, EvictionRunEvent evictionRunEvent )
     {
+        int pagesSweptWithoutEviction = 0;
         while ( pageCountToEvict > 0 && !closed )
         {
-            if ( clockArm == pages.length )
+            if ( clockArm == partition.endIndex )
             {
-                clockArm = 0;
+                clockArm = partition.startIndex;
             }
             MuninnPage page = pages[clockArm];
 
@@ -922,7 +1103,7 @@ public class MuninnPageCache implements PageCache
                 return 0;
             }
 
-            if ( page.isLoaded() && page.decrementUsage() )
+            if ( page.isLoaded() && evictionPolicy.shouldEvict( page, pagesSweptWithoutEviction, partition.size() ) )
             {
                 if ( page.tryExclusiveLock() )
                 {
@@ -937,6 +1118,7 @@ public class MuninnPageCache implements PageCache
                     // This reduces the CPU load and power usage in such a
                     // scenario.
                     pageCountToEvict--;
+                    pagesSweptWithoutEviction = 0;
                     boolean pageEvicted = false;
 
                     try ( EvictionEvent evictionEvent = evictionRunEvent.beginEviction() )
@@ -948,10 +1130,10 @@ public class MuninnPageCache implements PageCache
                             FreePage freePage = new FreePage( page );
                             do
                             {
-                                current = getFreelistHead();
+                                current = partition.getFreelistHead();
                                 freePage.setNext( (FreePage) current );
                             }
-                            while ( !compareAndSetFreelistHead(
+                            while ( !partition.compareAndSetFreelistHead(
                                     current, freePage ) );
                         }
                     }
@@ -969,6 +1151,7 @@ public class MuninnPageCache implements PageCache
             }
 
             clockArm++;
+            pagesSweptWithoutEviction++;
         }
 
         return clockArm;
@@ -983,7 +1166,7 @@ public class MuninnPageCache implements PageCache
         //noinspection TryWithIdenticalCatches - this warning is a false positive; bug in Intellij inspection
         try
         {
-            page.evict( evictionEvent );
+            page.evict( writeAheadBarrier, evictionEvent );
             clearEvictorException();
             return true;
         }
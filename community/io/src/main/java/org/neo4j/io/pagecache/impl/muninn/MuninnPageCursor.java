@@ -32,6 +32,10 @@ import org.neo4j.io.pagecache.tracing.PinEvent;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
 
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 import static org.neo4j.unsafe.impl.internal.dragons.FeatureToggles.flag;
 
@@ -45,6 +49,10 @@ abstract class MuninnPageCursor extends PageCursor
 
     private static final boolean boundsCheck = flag( MuninnPageCursor.class, "boundsCheck", true );
 
+    // The number of consecutive forward page moves a PF_READ_AHEAD cursor must make, before it is considered to be
+    // scanning sequentially through the file.
+    private static final int readAheadSequentialMoves = 2;
+
     // Size of the respective primitive types in bytes.
     private static final int SIZE_OF_BYTE = Byte.BYTES;
     private static final int SIZE_OF_SHORT = Short.BYTES;
@@ -67,6 +75,11 @@ abstract class MuninnPageCursor extends PageCursor
     private int filePageSize;
     private int offset;
     private boolean outOfBounds;
+    // Read-ahead state: the last file page id this cursor moved to, the number of consecutive forward page moves it
+    // has made, and the file page id just past the last page this cursor has asked to have read ahead.
+    private long readAheadPreviousPageId;
+    private int readAheadSequentialMoveCount;
+    private long readAheadLimitPageId;
     // This is a String with the exception message if usePreciseCursorErrorStackTraces is false, otherwise it is a
     // CursorExceptionWithPreciseStackTrace with the message and stack trace pointing more or less directly at the
     // offending code.
@@ -90,6 +103,9 @@ abstract class MuninnPageCursor extends PageCursor
         this.pageId = pageId;
         this.pf_flags = pf_flags;
         this.filePageSize = pagedFile.filePageSize;
+        this.readAheadPreviousPageId = UNBOUND_PAGE_ID;
+        this.readAheadSequentialMoveCount = 0;
+        this.readAheadLimitPageId = 0;
     }
 
     @Override
@@ -201,13 +217,51 @@ abstract class MuninnPageCursor extends PageCursor
         return currentPageId == UNBOUND_PAGE_ID? null : pagedFile.file();
     }
 
+    /**
+     * If this is a read cursor opened with {@link org.neo4j.io.pagecache.PagedFile#PF_READ_AHEAD}, and it looks like
+     * it is scanning sequentially through the file, then ask for the pages ahead of it to be faulted in asynchronously.
+     * A new read-ahead is only requested once the cursor has consumed half of what it has already asked for.
+     * @param filePageId The file page id that this cursor is about to pin.
+     * @param lastPageId The id of the last page in the file.
+     */
+    protected final void maybeReadAhead( long filePageId, long lastPageId )
+    {
+        if ( (pf_flags & PF_READ_AHEAD) == 0 || (pf_flags & PF_SHARED_READ_LOCK) == 0 )
+        {
+            return;
+        }
+        boolean sequential = filePageId == readAheadPreviousPageId + 1;
+        readAheadPreviousPageId = filePageId;
+        if ( !sequential )
+        {
+            readAheadSequentialMoveCount = 0;
+            readAheadLimitPageId = 0;
+            return;
+        }
+        int window = pagedFile.readAheadWindow;
+        if ( ++readAheadSequentialMoveCount < readAheadSequentialMoves || window < 2 ||
+             readAheadLimitPageId - filePageId > window / 2 )
+        {
+            return;
+        }
+        long startPageId = Math.max( filePageId + 1, readAheadLimitPageId );
+        long endPageId = Math.min( filePageId + 1 + window, lastPageId + 1 );
+        if ( startPageId < endPageId )
+        {
+            pagedFile.readAheadAsync( startPageId, (int) (endPageId - startPageId) );
+            readAheadLimitPageId = endPageId;
+        }
+    }
+
     /**
      * Pin the desired file page to this cursor, page faulting it into memory if it isn't there already.
      * @param filePageId The file page id we want to pin this cursor to.
      * @param writeLock 'true' if we will be taking a write lock on the page as part of the pin.
+     * @return {@code true} if the cursor got pinned to the page, or {@code false} if this cursor was opened with
+     * {@link org.neo4j.io.pagecache.PagedFile#PF_NO_FAULT} and the page was not in memory.
      * @throws IOException if anything goes wrong with the pin, most likely during a page fault.
      */
-    protected void pin( long filePageId, boolean writeLock ) throws IOException
+    protected boolean pin( long filePageId, boolean writeLock ) throws IOException
     {
         pinEvent = tracer.beginPin( writeLock, filePageId, swapper );
         int chunkId = MuninnPagedFile.computeChunkId( filePageId );
@@ -242,8 +296,12 @@ abstract class MuninnPageCursor extends PageCursor
                 if ( locked & page.isBoundTo( swapper, filePageId ) )
                 {
                     pinCursorToPage( page, filePageId, swapper );
+                    if ( (pf_flags & PF_TRANSIENT) == 0 )
+                    {
+                        page.incrementUsage();
+                    }
                     pinEvent.hit();
-                    return;
+                    return true;
                 }
                 if ( locked )
                 {
@@ -251,6 +309,13 @@ abstract class MuninnPageCursor extends PageCursor
                 }
                 item = null;
             }
+            else if ( (pf_flags & PF_NO_FAULT) != 0 )
+            {
+                // The page is not in memory, or someone else is faulting it in, and we have been asked to not do
+                // any page faulting. Leave the cursor unbound.
+                pinEvent.done();
+                return false;
+            }
             else
             {
                 item = uncommonPin( item, filePageId, chunkOffset, chunk );
@@ -258,6 +323,7 @@ abstract class MuninnPageCursor extends PageCursor
         }
         while ( item == null );
         pinCursorToPage( (MuninnPage) item, filePageId, swapper );
+        return true;
     }
 
     private Object[][] expandTranslationTableCapacity( int chunkId )
@@ -316,7 +382,7 @@ abstract class MuninnPageCursor extends PageCursor
         try
         {
             // The grabFreePage method might throw.
-            page = pagedFile.grabFreeAndExclusivelyLockedPage( faultEvent );
+            page = pagedFile.grabFreeAndExclusivelyLockedPage( filePageId, faultEvent );
 
             // We got a free page, and we know that we have race-free access to it. Well, it's not entirely race
             // free, because other paged files might have it in their translation tables (or rather, their reads of
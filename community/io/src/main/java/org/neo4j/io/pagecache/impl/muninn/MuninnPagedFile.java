@@ -25,6 +25,7 @@ import java.io.IOException;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 
+import org.neo4j.concurrent.BinaryLatch;
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageEvictionCallback;
@@ -38,9 +39,13 @@ import org.neo4j.io.pagecache.tracing.FlushEventOpportunity;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
+import org.neo4j.io.pagecache.tracing.PinEvent;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
 import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
 
+import static org.neo4j.unsafe.impl.internal.dragons.FeatureToggles.getInteger;
+
 final class MuninnPagedFile implements PagedFile, Flushable
 {
     private static final int translationTableChunkSizePower = Integer.getInteger(
@@ -57,9 +62,17 @@ final class MuninnPagedFile implements PagedFile, Flushable
     private static final long headerStateRefCountMask = 0x7FFF_0000_0000_0000L;
     private static final long headerStateLastPageIdMask = 0x8000_FFFF_FFFF_FFFFL;
 
+    // The maximum number of pages that a cursor opened with PF_READ_AHEAD will have faulted in ahead of itself.
+    // This is further limited to an eighth of the page cache, so read-ahead cannot push out the entire working set.
+    private static final int readAheadMaxPages = getInteger( MuninnPagedFile.class, "readAheadMaxPages", 32 );
+
     final MuninnPageCache pageCache;
     final int filePageSize;
     final PageCacheTracer tracer;
+    final int readAheadWindow;
+    // Added to the file page ids when choosing the page cache partition to fault a page into, so the first pages of
+    // all the files don't end up in the same partition.
+    private final int partitionSalt;
 
     // This is the table where we translate file-page-ids to cache-page-ids. Only one thread can perform a resize at
     // a time, and we ensure this mutual exclusion using the monitor lock on this MuninnPagedFile object.
@@ -67,10 +80,17 @@ final class MuninnPagedFile implements PagedFile, Flushable
 
     final PageSwapper swapper;
     private final CursorPool cursorPool;
+    private final PageCursorTracerSupplier cursorTracerSupplier;
 
     // Guarded by the monitor lock on MuninnPageCache (map and unmap)
     private boolean deleteOnClose;
 
+    // Held while dirty pages are written out by flushDirtyPagesIncrementally, and by the page cache while it unmaps
+    // and closes the file.
+    final Object incrementalFlushLock = new Object();
+    // The file page id where the next incremental flush continues - guarded by synchronized(incrementalFlushLock)
+    private long incrementalFlushFilePageId;
+
     // Used to trace the causes of any exceptions from getLastPageId.
     private volatile Exception closeStackTrace;
 
@@ -104,7 +124,10 @@ final class MuninnPagedFile implements PagedFile, Flushable
         this.pageCache = pageCache;
         this.filePageSize = filePageSize;
         this.cursorPool = new CursorPool( this, cursorTracerSupplier, tracer );
+        this.cursorTracerSupplier = cursorTracerSupplier;
         this.tracer = tracer;
+        this.readAheadWindow = Math.min( readAheadMaxPages, pageCache.maxCachedPages() / 8 );
+        this.partitionSalt = file.hashCode();
 
         // The translation table is an array of arrays of references to either null, MuninnPage objects, or Latch
         // objects. The table only grows the outer array, and all the inner "chunks" all stay the same size. This
@@ -188,7 +211,8 @@ final class MuninnPagedFile implements PagedFile, Flushable
         return (lastPageId + 1) * pageSize();
     }
 
-    File file()
+    @Override
+    public File file()
     {
         return swapper.file();
     }
@@ -258,7 +282,91 @@ final class MuninnPagedFile implements PagedFile, Flushable
     void flushAndForceInternal( FlushEventOpportunity flushOpportunity, boolean forClosing, IOLimiter limiter )
             throws IOException
     {
+        flushDirtyPages( flushOpportunity, forClosing, limiter );
         // TODO it'd be awesome if, on Linux, we'd call sync_file_range(2) instead of fsync
+        swapper.force();
+    }
+
+    /**
+     * Write out up to the given number of dirty pages of this file, in file page order, without forcing the file.
+     * Each call continues where the previous call left off, and starts over from the beginning of the file once the
+     * end has been reached. Runs of adjacent dirty pages are written with vectored writes. Pages that are locked by
+     * someone else are skipped; they will be written by a later call, by eviction, or by the next flush.
+     * <p>
+     * Unmapping the file waits for this method to return, before closing the swapper.
+     *
+     * @return the number of pages written out. This is less than the given number if the end of the file was reached.
+     */
+    int flushDirtyPagesIncrementally( FlushEventOpportunity flushOpportunity, int maxPagesToFlush )
+            throws IOException
+    {
+        synchronized ( incrementalFlushLock )
+        {
+            long state = getHeaderState();
+            if ( refCountOf( state ) == 0 || state < 0 )
+            {
+                // The file has been unmapped, or is empty.
+                return 0;
+            }
+            long lastPageId = state & headerStateLastPageIdMask;
+            Object[][] tt = this.translationTable;
+            MuninnPage[] pages = new MuninnPage[Math.min( maxPagesToFlush, translationTableChunkSize )];
+            int pagesGrabbed = 0;
+            int pagesFlushed = 0;
+            long filePageId = incrementalFlushFilePageId;
+            try
+            {
+                for ( ; filePageId <= lastPageId && pagesFlushed + pagesGrabbed < maxPagesToFlush; filePageId++ )
+                {
+                    int chunkId = computeChunkId( filePageId );
+                    if ( chunkId >= tt.length )
+                    {
+                        break;
+                    }
+                    Object element = UnsafeUtil.getObjectVolatile( tt[chunkId], computeChunkOffset( filePageId ) );
+                    boolean grabbed = false;
+                    if ( element instanceof MuninnPage )
+                    {
+                        MuninnPage page = (MuninnPage) element;
+                        if ( page.isDirty() && page.tryFlushLock() )
+                        {
+                            if ( page.isBoundTo( swapper, filePageId ) && page.isDirty() )
+                            {
+                                pages[pagesGrabbed] = page;
+                                pagesGrabbed++;
+                                grabbed = true;
+                            }
+                            else
+                            {
+                                page.unlockFlush();
+                            }
+                        }
+                    }
+                    if ( pagesGrabbed > 0 && (!grabbed || pagesGrabbed == pages.length) )
+                    {
+                        // The run of adjacent dirty pages has ended, or filled up our IO vector.
+                        vectoredFlush( pages, pagesGrabbed, flushOpportunity, false );
+                        pagesFlushed += pagesGrabbed;
+                        pagesGrabbed = 0;
+                    }
+                }
+                if ( pagesGrabbed > 0 )
+                {
+                    vectoredFlush( pages, pagesGrabbed, flushOpportunity, false );
+                    pagesFlushed += pagesGrabbed;
+                }
+            }
+            finally
+            {
+                incrementalFlushFilePageId = filePageId > lastPageId ? 0 : filePageId;
+            }
+            return pagesFlushed;
+        }
+    }
+
+    private void flushDirtyPages( FlushEventOpportunity flushOpportunity, boolean forClosing, IOLimiter limiter )
+            throws IOException
+    {
         MuninnPage[] pages = new MuninnPage[translationTableChunkSize];
         long filePageId = -1; // Start at -1 because we increment at the *start* of the chunk-loop iteration.
         long limiterStamp = IOLimiter.INITIAL_STAMP;
@@ -325,8 +433,6 @@ final class MuninnPagedFile implements PagedFile, Flushable
                 limiterStamp = limiter.maybeLimitIO( limiterStamp, pagesGrabbed, this );
             }
         }
-
-        swapper.force();
     }
 
     private void vectoredFlush(
@@ -342,11 +448,14 @@ final class MuninnPagedFile implements PagedFile, Flushable
 
             // Mark the flushed pages as clean before our flush, so concurrent page writes can mark it as dirty and
             // we'll be able to write those changes out on the next flush.
+            long writeAheadGeneration = 0;
             for ( int j = 0; j < pagesGrabbed; j++ )
             {
                 // If the flush fails, we'll undo this
                 pages[j].markAsClean();
+                writeAheadGeneration = Math.max( writeAheadGeneration, pages[j].getWriteAheadGeneration() );
             }
+            pageCache.awaitWriteAheadBarrier( writeAheadGeneration );
 
             flush = flushOpportunity.beginFlush( startFilePageId, firstPage.getCachePageId(), swapper );
             long bytesWritten = swapper.write( startFilePageId, pages, 0, pagesGrabbed );
@@ -516,11 +625,164 @@ final class MuninnPagedFile implements PagedFile, Flushable
     /**
      * Grab a free page for the purpose of page faulting. Possibly blocking if
      * none are immediately available.
+     * @param filePageId The file page id that the page will be bound to, which decides the page cache partition.
      * @param faultEvent The trace event for the current page fault.
      */
-    MuninnPage grabFreeAndExclusivelyLockedPage( PageFaultEvent faultEvent ) throws IOException
+    MuninnPage grabFreeAndExclusivelyLockedPage( long filePageId, PageFaultEvent faultEvent ) throws IOException
+    {
+        return pageCache.grabFreeAndExclusivelyLockedPage( filePageId + partitionSalt, faultEvent );
+    }
+
+    /**
+     * Ask the background threads of the page cache to fault in the given range of file pages, as a read-ahead.
+     * This is only a hint, and the request is silently dropped if the read-ahead threads are all busy and already
+     * have a full queue of requests.
+     * @param startFilePageId The first file page id in the range to read ahead.
+     * @param pageCount The number of file pages to read ahead.
+     */
+    void readAheadAsync( long startFilePageId, int pageCount )
+    {
+        pageCache.executeReadAheadTask( new ReadAheadTask( pageCache, this, startFilePageId, pageCount ) );
+    }
+
+    /**
+     * Fault in the file pages in the given range that are not already in memory. Pages beyond the end of the file
+     * are not faulted in, and neither are pages that are already in memory or are being faulted in by other threads.
+     * The range is split into runs of consecutive missing pages, and each run is read with a single vectored read.
+     * @param startFilePageId The first file page id in the range to read ahead.
+     * @param pageCount The number of file pages to read ahead.
+     */
+    void readAhead( long startFilePageId, int pageCount ) throws IOException
     {
-        return pageCache.grabFreeAndExclusivelyLockedPage( faultEvent );
+        PageCursorTracer cursorTracer = cursorTracerSupplier.get();
+        cursorTracer.init( tracer );
+        try
+        {
+            readAhead( startFilePageId, pageCount, cursorTracer );
+        }
+        finally
+        {
+            cursorTracer.reportEvents();
+        }
+    }
+
+    private void readAhead( long startFilePageId, int pageCount, PageCursorTracer cursorTracer ) throws IOException
+    {
+        long endFilePageId = Math.min( startFilePageId + pageCount, getLastPageId() + 1 );
+        if ( endFilePageId <= startFilePageId )
+        {
+            return;
+        }
+        int maxRunLength = (int) (endFilePageId - startFilePageId);
+        MuninnPage[] pages = new MuninnPage[maxRunLength];
+        BinaryLatch[] latches = new BinaryLatch[maxRunLength];
+        PinEvent[] pinEvents = new PinEvent[maxRunLength];
+        PageFaultEvent[] faultEvents = new PageFaultEvent[maxRunLength];
+        Object[][] tt = translationTable;
+        int maxChunkId = computeChunkId( endFilePageId - 1 );
+        if ( tt.length <= maxChunkId )
+        {
+            tt = expandCapacity( maxChunkId );
+        }
+
+        long runStartFilePageId = startFilePageId;
+        int runLength = 0;
+        for ( long filePageId = startFilePageId; filePageId < endFilePageId; filePageId++ )
+        {
+            Object[] chunk = tt[computeChunkId( filePageId )];
+            long chunkOffset = computeChunkOffset( filePageId );
+            BinaryLatch latch = new BinaryLatch();
+            if ( UnsafeUtil.compareAndSwapObject( chunk, chunkOffset, null, latch ) )
+            {
+                // Like in a normal page fault, we now own the right to fault in this page, and we have a duty to
+                // eventually release and remove the latch, no matter what happens.
+                PinEvent pinEvent = cursorTracer.beginPin( false, filePageId, swapper );
+                PageFaultEvent faultEvent = pinEvent.beginPageFault();
+                MuninnPage page;
+                try
+                {
+                    page = grabFreeAndExclusivelyLockedPage( filePageId, faultEvent );
+                }
+                catch ( IOException e )
+                {
+                    // We could not get a free page, probably because the cache is under heavy pressure. Read-ahead
+                    // is only a hint, so we stop here, and only complete the pages we have already grabbed.
+                    UnsafeUtil.putObjectVolatile( chunk, chunkOffset, null );
+                    latch.release();
+                    faultEvent.done( e );
+                    pinEvent.done();
+                    break;
+                }
+                if ( runLength == 0 )
+                {
+                    runStartFilePageId = filePageId;
+                }
+                pages[runLength] = page;
+                latches[runLength] = latch;
+                pinEvents[runLength] = pinEvent;
+                faultEvents[runLength] = faultEvent;
+                runLength++;
+            }
+            else if ( runLength > 0 )
+            {
+                // The page is already in memory, or someone else is faulting it in, which breaks up our run.
+                readAheadRun( tt, runStartFilePageId, pages, latches, pinEvents, faultEvents, runLength );
+                runLength = 0;
+            }
+        }
+        if ( runLength > 0 )
+        {
+            readAheadRun( tt, runStartFilePageId, pages, latches, pinEvents, faultEvents, runLength );
+        }
+    }
+
+    private void readAheadRun( Object[][] tt, long startFilePageId, MuninnPage[] pages, BinaryLatch[] latches,
+            PinEvent[] pinEvents, PageFaultEvent[] faultEvents, int length ) throws IOException
+    {
+        try
+        {
+            // Check if we're racing with unmapping, like we do in a normal page fault.
+            getLastPageId();
+            for ( int i = 0; i < length; i++ )
+            {
+                pages[i].initBuffer();
+            }
+            MuninnPage.faultReadAhead( swapper, filePageSize, startFilePageId, pages, faultEvents, length );
+        }
+        catch ( Throwable throwable )
+        {
+            // Clear out the slots, and leave the pages for the eviction thread to pick up.
+            completeReadAheadRun( tt, startFilePageId, pages, latches, pinEvents, faultEvents, length, throwable );
+            throw throwable;
+        }
+        completeReadAheadRun( tt, startFilePageId, pages, latches, pinEvents, faultEvents, length, null );
+    }
+
+    private void completeReadAheadRun( Object[][] tt, long startFilePageId, MuninnPage[] pages, BinaryLatch[] latches,
+            PinEvent[] pinEvents, PageFaultEvent[] faultEvents, int length, Throwable failure )
+    {
+        for ( int i = 0; i < length; i++ )
+        {
+            long filePageId = startFilePageId + i;
+            Object[] chunk = tt[computeChunkId( filePageId )];
+            long chunkOffset = computeChunkOffset( filePageId );
+            // The page is published to the translation table before we unlock it, as we could otherwise race with
+            // eviction, and the onEvict callback expects to find a MuninnPage object in the table.
+            UnsafeUtil.putObjectVolatile( chunk, chunkOffset, failure == null ? pages[i] : null );
+            pages[i].unlockExclusive();
+            latches[i].release();
+            if ( failure == null )
+            {
+                faultEvents[i].done();
+            }
+            else
+            {
+                faultEvents[i].done( failure );
+            }
+            pinEvents[i].done();
+            pages[i] = null;
+            latches[i] = null;
+        }
     }
 
     /**
@@ -58,8 +58,11 @@ final class MuninnReadPageCursor extends MuninnPageCursor
         {
             return false;
         }
-        pin( nextPageId, false );
-        currentPageId = nextPageId;
+        maybeReadAhead( nextPageId, lastPageId );
+        if ( pin( nextPageId, false ) )
+        {
+            currentPageId = nextPageId;
+        }
         nextPageId++;
         return true;
     }
@@ -80,7 +83,6 @@ final class MuninnReadPageCursor extends MuninnPageCursor
     protected void pinCursorToPage( MuninnPage page, long filePageId, PageSwapper swapper )
     {
         reset( page );
-        page.incrementUsage();
     }
 
     @Override
@@ -114,6 +116,11 @@ final class MuninnReadPageCursor extends MuninnPageCursor
         setOffset( 0 );
         checkAndClearBoundsFlag();
         clearCursorException();
+        if ( page == null )
+        {
+            // This is a PF_NO_FAULT cursor that is not bound to any page, so there is nothing to retry.
+            return;
+        }
         lockStamp = page.tryOptimisticReadLock();
         // The page might have been evicted while we held the optimistic
         // read lock, so we need to check with page.pin that this is still
@@ -132,8 +139,12 @@ final class MuninnReadPageCursor extends MuninnPageCursor
             // is closed; we don't want unpinCurrentPage() to try unlocking
             // this page.
             page = null;
-            // Then try pin again.
-            pin( currentPageId, false );
+            // Then try pin again. If this is a PF_NO_FAULT cursor, then the page might no longer be in memory, and
+            // the cursor becomes unbound.
+            if ( !pin( currentPageId, false ) )
+            {
+                currentPageId = UNBOUND_PAGE_ID;
+            }
         }
     }
 
@@ -61,7 +61,7 @@ final class MuninnWritePageCursor extends MuninnPageCursor
         }
         if ( nextPageId > lastPageId )
         {
-            if ( (pf_flags & PagedFile.PF_NO_GROW) != 0 )
+            if ( (pf_flags & (PagedFile.PF_NO_GROW | PagedFile.PF_NO_FAULT)) != 0 )
             {
                 return false;
             }
@@ -70,8 +70,10 @@ final class MuninnWritePageCursor extends MuninnPageCursor
                 pagedFile.increaseLastPageIdTo( nextPageId );
             }
         }
-        pin( nextPageId, true );
-        currentPageId = nextPageId;
+        if ( pin( nextPageId, true ) )
+        {
+            currentPageId = nextPageId;
+        }
         nextPageId++;
         return true;
     }
@@ -100,7 +102,9 @@ final class MuninnWritePageCursor extends MuninnPageCursor
         // after the reset() call, which means that if we throw, the cursor will
         // be closed and the page lock will be released.
         assertPagedFileStillMappedAndGetIdOfLastPage();
-        page.incrementUsage();
+        // The changes we are about to make must not be written to the file before the log records of them are
+        // durable, so the page remembers the write ahead generation from before the changes.
+        page.raiseWriteAheadGeneration( pagedFile.pageCache.writeAheadGeneration() );
     }
 
     @Override
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.util.concurrent.locks.LockSupport;
+
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
+/**
+ * A partition of the pages in a {@link MuninnPageCache}.
+ *
+ * Every partition owns a contiguous range of the pages array, and has its own freelist and its own eviction thread,
+ * which only sweeps the pages in that range. Page faults are spread over the partitions by hashing the file page id,
+ * so page faulting threads don't all contend on the same freelist head, and eviction can keep up with more page
+ * faults, because it runs in parallel.
+ *
+ * The freelist of a partition works exactly like the freelist described in {@link MuninnPageCache}, except it only
+ * ever contains pages from this partition.
+ */
+final class PagePartition
+{
+    // The field offset to unsafely access the freelist field.
+    private static final long freelistOffset = UnsafeUtil.getFieldOffset( PagePartition.class, "freelist" );
+
+    // The index of this partition in the partitions array of the page cache.
+    final int index;
+    // The range of indexes into the pages array of the page cache, that this partition owns.
+    final int startIndex; // inclusive
+    final int endIndex; // exclusive
+    // Keep this many pages free in this partition, and ready for use in faulting.
+    final int keepFree;
+
+    @SuppressWarnings( "unused" ) // This field is accessed via Unsafe.
+    private volatile Object freelist;
+
+    // The thread that runs the eviction algorithm for this partition. We unpark this when we've run out of free
+    // pages to grab in this partition.
+    volatile Thread evictionThread;
+    // True if the eviction thread is currently parked, without someone having signalled it to wake up. This is used
+    // as a weak guard for unparking the eviction thread, because calling unpark too much (from many page faulting
+    // threads) can cause contention on the locks protecting that threads scheduling meta-data in the OS kernel.
+    private volatile boolean evictorParked;
+
+    PagePartition( int index, int startIndex, int endIndex, int keepFree )
+    {
+        this.index = index;
+        this.startIndex = startIndex;
+        this.endIndex = endIndex;
+        this.keepFree = keepFree;
+    }
+
+    int size()
+    {
+        return endIndex - startIndex;
+    }
+
+    Object getFreelistHead()
+    {
+        return UnsafeUtil.getObjectVolatile( this, freelistOffset );
+    }
+
+    boolean compareAndSetFreelistHead( Object expected, Object update )
+    {
+        return UnsafeUtil.compareAndSwapObject( this, freelistOffset, expected, update );
+    }
+
+    Object getAndSetFreelistHead( Object newFreelistHead )
+    {
+        return UnsafeUtil.getAndSetObject( this, freelistOffset, newFreelistHead );
+    }
+
+    void unparkEvictor()
+    {
+        if ( evictorParked )
+        {
+            evictorParked = false;
+            LockSupport.unpark( evictionThread );
+        }
+    }
+
+    void parkEvictor( long parkNanos )
+    {
+        // Only called from the background eviction thread of this partition!
+        evictorParked = true;
+        LockSupport.parkNanos( this, parkNanos );
+        evictorParked = false;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "PagePartition[" + startIndex + ", " + endIndex + ")";
+    }
+}
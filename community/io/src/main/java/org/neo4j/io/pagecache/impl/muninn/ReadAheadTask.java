@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+/**
+ * This Runnable faults in a range of pages of a paged file, ahead of a cursor that is scanning sequentially through
+ * the file.
+ *
+ * Read-ahead is only a hint, so any failure is silently ignored. If something is seriously wrong, then the cursor
+ * will hit the same problem when it gets to the pages in question, and report it from there.
+ *
+ * @see MuninnPagedFile#readAhead(long, int)
+ */
+final class ReadAheadTask extends BackgroundTask
+{
+    private final MuninnPagedFile pagedFile;
+    private final long startFilePageId;
+    private final int pageCount;
+
+    public ReadAheadTask( MuninnPageCache pageCache, MuninnPagedFile pagedFile, long startFilePageId, int pageCount )
+    {
+        super( pageCache );
+        this.pagedFile = pagedFile;
+        this.startFilePageId = startFilePageId;
+        this.pageCount = pageCount;
+    }
+
+    @Override
+    protected void run( MuninnPageCache pageCache )
+    {
+        try
+        {
+            pagedFile.readAhead( startFilePageId, pageCount );
+        }
+        catch ( Exception ignore )
+        {
+            // Read-ahead is only a hint.
+        }
+    }
+}
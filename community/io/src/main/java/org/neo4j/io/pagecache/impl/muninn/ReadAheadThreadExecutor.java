@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.neo4j.unsafe.impl.internal.dragons.FeatureToggles.getInteger;
+
+/**
+ * An executor for the read-ahead tasks of the page caches.
+ *
+ * Read-ahead is only a hint, so unlike the {@link BackgroundThreadExecutor}, this executor has a fixed number of
+ * daemon threads, and a bounded queue of tasks. Tasks that don't fit in the queue are dropped. This way, many cursors
+ * scanning at the same time can't make us start a thread for every outstanding read-ahead.
+ *
+ * There is only one of these (it's a singleton), for the same reason that there is only one
+ * {@link BackgroundThreadExecutor}. The threads time out when they have been idle for a while.
+ */
+final class ReadAheadThreadExecutor implements Executor
+{
+    private static final int threadCount = getInteger(
+            ReadAheadThreadExecutor.class, "threadCount", Runtime.getRuntime().availableProcessors() );
+    private static final int queueSize = getInteger( ReadAheadThreadExecutor.class, "queueSize", 4 * threadCount );
+    private static final long keepAliveSeconds = 10;
+
+    static final ReadAheadThreadExecutor INSTANCE = new ReadAheadThreadExecutor( threadCount, queueSize );
+
+    private final ThreadPoolExecutor executor;
+
+    ReadAheadThreadExecutor( int threadCount, int queueSize )
+    {
+        executor = new ThreadPoolExecutor( threadCount, threadCount, keepAliveSeconds, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>( queueSize ), new DaemonThreadFactory(),
+                new ThreadPoolExecutor.DiscardPolicy() );
+        executor.allowCoreThreadTimeOut( true );
+    }
+
+    /**
+     * Run the given task on one of the read-ahead threads, or drop it if all of them are busy and the queue is full.
+     */
+    @Override
+    public void execute( Runnable command )
+    {
+        executor.execute( command );
+    }
+
+    void shutdown()
+    {
+        executor.shutdown();
+    }
+}
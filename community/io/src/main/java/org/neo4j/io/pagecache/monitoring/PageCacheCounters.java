@@ -19,6 +19,9 @@
  */
 package org.neo4j.io.pagecache.monitoring;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 /**
  * The PageCacheCounters exposes internal counters from the page cache.
  * The data for these counters is sourced through the PageCacheTracer API.
@@ -35,6 +38,13 @@ public interface PageCacheCounters
      */
     long evictions();
 
+    /**
+     * @return The number of evicted pages that were hot, meaning that they had been accessed again after they were
+     * faulted in. If this number grows during a sequential scan, then the scan is pushing the working set out of the
+     * page cache.
+     */
+    long hotEvictions();
+
     /**
      * @return The number of page pins observed thus far.
      */
@@ -79,4 +89,22 @@ public interface PageCacheCounters
      * @return The number of page evictions that have thrown exceptions thus far.
      */
     long evictionExceptions();
+
+    /**
+     * @return The counters of each of the names of the files that have been mapped thus far, in no particular order.
+     * Files of the same name are counted together, whether they are mapped or not, so the counters never go backwards.
+     */
+    List<PagedFileCounters> pagedFileCounters();
+
+    /**
+     * Add a listener that is given the counters of every file name that is mapped for the first time from now on, and
+     * the counters of all the file names that have already been mapped. A listener can be given the same counters
+     * more than once.
+     */
+    void addPagedFileCountersListener( Consumer<PagedFileCounters> listener );
+
+    /**
+     * Remove a listener that was added with {@link #addPagedFileCountersListener(Consumer)}.
+     */
+    void removePagedFileCountersListener( Consumer<PagedFileCounters> listener );
 }
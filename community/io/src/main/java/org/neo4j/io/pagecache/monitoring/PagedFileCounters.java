@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.monitoring;
+
+import java.io.File;
+
+/**
+ * The PagedFileCounters exposes the page cache counters that are attributable to the mapped files of a given name.
+ * The data for these counters is sourced through the {@link org.neo4j.io.pagecache.tracing.PagedFileTracer} API.
+ *
+ * @see PageCacheCounters#pagedFileCounters()
+ */
+public interface PagedFileCounters
+{
+    /**
+     * @return The file of this name that was mapped most recently.
+     */
+    File file();
+
+    /**
+     * @return The number of page pins on the files of this name observed thus far.
+     */
+    long pins();
+
+    /**
+     * @return The number of page pins on the files of this name that did not need to fault thus far.
+     */
+    long hits();
+
+    /**
+     * @return The number of page faults on the files of this name observed thus far.
+     */
+    long faults();
+
+    /**
+     * @return The number of pages evicted from the files of this name thus far.
+     */
+    long evictions();
+
+    /**
+     * @return The sum total of bytes read in from the files of this name through page faults thus far.
+     */
+    long bytesRead();
+
+    /**
+     * @return The number of page flushes to the files of this name observed thus far.
+     */
+    long flushes();
+
+    /**
+     * @return The sum total of bytes written to the files of this name through flushes thus far.
+     */
+    long bytesWritten();
+}
@@ -21,9 +21,17 @@ package org.neo4j.io.pagecache.tracing;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
 
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.monitoring.PagedFileCounters;
 
 /**
  * The default PageCacheTracer implementation, that just increments counters.
@@ -32,6 +40,7 @@ public class DefaultPageCacheTracer implements PageCacheTracer
 {
     protected final LongAdder faults = new LongAdder();
     protected final LongAdder evictions = new LongAdder();
+    protected final LongAdder hotEvictions = new LongAdder();
     protected final LongAdder pins = new LongAdder();
     protected final LongAdder unpins = new LongAdder();
     protected final LongAdder hits = new LongAdder();
@@ -41,6 +50,12 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     protected final LongAdder filesMapped = new LongAdder();
     protected final LongAdder filesUnmapped = new LongAdder();
     protected final LongAdder evictionExceptions = new LongAdder();
+    // The tracers of the files that are currently mapped. When the last mapping of a file goes away, its tracer is
+    // dropped, and its counts are folded into the counters of all the files of the same name. Those are what we
+    // publish, so they never go backwards, and temporary files that come and go don't pile up.
+    private final ConcurrentMap<File,FileTracer> fileTracers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String,FileNameCounters> fileNameCounters = new ConcurrentHashMap<>();
+    private final List<Consumer<PagedFileCounters>> fileListeners = new CopyOnWriteArrayList<>();
 
     private final FlushEvent flushEvent = new FlushEvent()
     {
@@ -68,7 +83,8 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         }
     };
 
-    private final FlushEventOpportunity flushEventOpportunity = ( filePageId, cachePageId, swapper ) -> flushEvent;
+    private final FlushEventOpportunity flushEventOpportunity =
+            ( filePageId, cachePageId, swapper ) -> flushEventFor( swapper );
 
     private final EvictionEvent evictionEvent = new EvictionEvent()
     {
@@ -80,6 +96,11 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         @Override
         public void setSwapper( PageSwapper swapper )
         {
+            FileTracer fileTracer = fileTracerOf( swapper );
+            if ( fileTracer != null )
+            {
+                fileTracer.evictions.increment();
+            }
         }
 
         @Override
@@ -99,6 +120,15 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         {
         }
 
+        @Override
+        public void setHot( boolean hot )
+        {
+            if ( hot )
+            {
+                hotEvictions.increment();
+            }
+        }
+
         @Override
         public void close()
         {
@@ -134,16 +164,318 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         }
     };
 
+    private final class FileTracer implements PagedFileTracer
+    {
+        private final File file;
+        private final LongAdder pins = new LongAdder();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder faults = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+        private final LongAdder bytesRead = new LongAdder();
+        private final LongAdder flushes = new LongAdder();
+        private final LongAdder bytesWritten = new LongAdder();
+
+        private final FlushEvent flushEvent = new FlushEvent()
+        {
+            @Override
+            public void addBytesWritten( long bytes )
+            {
+                DefaultPageCacheTracer.this.bytesWritten.add( bytes );
+                bytesWritten.add( bytes );
+            }
+
+            @Override
+            public void done()
+            {
+                DefaultPageCacheTracer.this.flushes.increment();
+                flushes.increment();
+            }
+
+            @Override
+            public void done( IOException exception )
+            {
+                done();
+            }
+
+            @Override
+            public void addPagesFlushed( int pageCount )
+            {
+            }
+        };
+
+        private final FlushEventOpportunity flushEventOpportunity = ( filePageId, cachePageId, swapper ) -> flushEvent;
+
+        private final MajorFlushEvent majorFlushEvent = new MajorFlushEvent()
+        {
+            @Override
+            public FlushEventOpportunity flushEventOpportunity()
+            {
+                return flushEventOpportunity;
+            }
+
+            @Override
+            public void close()
+            {
+            }
+        };
+
+        FileTracer( File file )
+        {
+            this.file = file;
+        }
+
+        @Override
+        public File file()
+        {
+            return file;
+        }
+
+        @Override
+        public long pins()
+        {
+            return pins.sum();
+        }
+
+        @Override
+        public long hits()
+        {
+            return hits.sum();
+        }
+
+        @Override
+        public long faults()
+        {
+            return faults.sum();
+        }
+
+        @Override
+        public long evictions()
+        {
+            return evictions.sum();
+        }
+
+        @Override
+        public long bytesRead()
+        {
+            return bytesRead.sum();
+        }
+
+        @Override
+        public long flushes()
+        {
+            return flushes.sum();
+        }
+
+        @Override
+        public long bytesWritten()
+        {
+            return bytesWritten.sum();
+        }
+
+        @Override
+        public void pins( long pins )
+        {
+            this.pins.add( pins );
+        }
+
+        @Override
+        public void hits( long hits )
+        {
+            this.hits.add( hits );
+        }
+
+        @Override
+        public void faults( long faults )
+        {
+            this.faults.add( faults );
+        }
+
+        @Override
+        public void evictions( long evictions )
+        {
+            this.evictions.add( evictions );
+        }
+
+        @Override
+        public void bytesRead( long bytesRead )
+        {
+            this.bytesRead.add( bytesRead );
+        }
+
+        @Override
+        public void flushes( long flushes )
+        {
+            this.flushes.add( flushes );
+        }
+
+        @Override
+        public void bytesWritten( long bytesWritten )
+        {
+            this.bytesWritten.add( bytesWritten );
+        }
+    }
+
+    /**
+     * The counters of all the files of a given name, both those that are mapped, and those that have been unmapped.
+     */
+    private final class FileNameCounters implements PagedFileCounters
+    {
+        // Guarded by this, so a file is never counted twice, or not at all, while it is being unmapped.
+        private final List<FileTracer> mappedFiles = new ArrayList<>();
+        private final FileTracer unmappedFiles = new FileTracer( null );
+        private volatile File file;
+
+        synchronized void mapped( FileTracer fileTracer )
+        {
+            mappedFiles.add( fileTracer );
+            file = fileTracer.file;
+        }
+
+        synchronized void unmapped( FileTracer fileTracer )
+        {
+            if ( mappedFiles.remove( fileTracer ) )
+            {
+                unmappedFiles.pins( fileTracer.pins() );
+                unmappedFiles.hits( fileTracer.hits() );
+                unmappedFiles.faults( fileTracer.faults() );
+                unmappedFiles.evictions( fileTracer.evictions() );
+                unmappedFiles.bytesRead( fileTracer.bytesRead() );
+                unmappedFiles.flushes( fileTracer.flushes() );
+                unmappedFiles.bytesWritten( fileTracer.bytesWritten() );
+            }
+        }
+
+        private synchronized long sum( ToLongFunction<FileTracer> counter )
+        {
+            long sum = counter.applyAsLong( unmappedFiles );
+            for ( FileTracer fileTracer : mappedFiles )
+            {
+                sum += counter.applyAsLong( fileTracer );
+            }
+            return sum;
+        }
+
+        @Override
+        public File file()
+        {
+            return file;
+        }
+
+        @Override
+        public long pins()
+        {
+            return sum( FileTracer::pins );
+        }
+
+        @Override
+        public long hits()
+        {
+            return sum( FileTracer::hits );
+        }
+
+        @Override
+        public long faults()
+        {
+            return sum( FileTracer::faults );
+        }
+
+        @Override
+        public long evictions()
+        {
+            return sum( FileTracer::evictions );
+        }
+
+        @Override
+        public long bytesRead()
+        {
+            return sum( FileTracer::bytesRead );
+        }
+
+        @Override
+        public long flushes()
+        {
+            return sum( FileTracer::flushes );
+        }
+
+        @Override
+        public long bytesWritten()
+        {
+            return sum( FileTracer::bytesWritten );
+        }
+    }
+
+    private FileTracer fileTracerOf( PageSwapper swapper )
+    {
+        File file = swapper == null ? null : swapper.file();
+        return file == null ? null : fileTracers.get( file );
+    }
+
+    private FlushEvent flushEventFor( PageSwapper swapper )
+    {
+        FileTracer fileTracer = fileTracerOf( swapper );
+        return fileTracer == null ? flushEvent : fileTracer.flushEvent;
+    }
+
     @Override
     public void mappedFile( File file )
     {
         filesMapped.increment();
+        FileTracer fileTracer = new FileTracer( file );
+        if ( fileTracers.putIfAbsent( file, fileTracer ) == null )
+        {
+            FileNameCounters counters = fileNameCounters.get( file.getName() );
+            boolean newName = false;
+            if ( counters == null )
+            {
+                FileNameCounters newCounters = new FileNameCounters();
+                counters = fileNameCounters.putIfAbsent( file.getName(), newCounters );
+                newName = counters == null;
+                counters = newName ? newCounters : counters;
+            }
+            counters.mapped( fileTracer );
+            if ( newName )
+            {
+                FileNameCounters mappedCounters = counters;
+                fileListeners.forEach( listener -> listener.accept( mappedCounters ) );
+            }
+        }
     }
 
     @Override
     public void unmappedFile( File file )
     {
         filesUnmapped.increment();
+        FileTracer fileTracer = fileTracers.remove( file );
+        if ( fileTracer != null )
+        {
+            fileNameCounters.get( file.getName() ).unmapped( fileTracer );
+        }
+    }
+
+    @Override
+    public PagedFileTracer pagedFileTracer( File file )
+    {
+        FileTracer fileTracer = file == null ? null : fileTracers.get( file );
+        return fileTracer == null ? PagedFileTracer.NULL : fileTracer;
+    }
+
+    @Override
+    public List<PagedFileCounters> pagedFileCounters()
+    {
+        return new ArrayList<>( fileNameCounters.values() );
+    }
+
+    @Override
+    public void addPagedFileCountersListener( Consumer<PagedFileCounters> listener )
+    {
+        fileListeners.add( listener );
+        fileNameCounters.values().forEach( listener );
+    }
+
+    @Override
+    public void removePagedFileCountersListener( Consumer<PagedFileCounters> listener )
+    {
+        fileListeners.remove( listener );
     }
 
     @Override
@@ -155,7 +487,8 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     @Override
     public MajorFlushEvent beginFileFlush( PageSwapper swapper )
     {
-        return majorFlushEvent;
+        FileTracer fileTracer = fileTracerOf( swapper );
+        return fileTracer == null ? majorFlushEvent : fileTracer.majorFlushEvent;
     }
 
     @Override
@@ -176,6 +509,12 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         return evictions.sum();
     }
 
+    @Override
+    public long hotEvictions()
+    {
+        return hotEvictions.sum();
+    }
+
     @Override
     public long pins()
     {
@@ -266,6 +605,12 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         this.evictions.add( evictions );
     }
 
+    @Override
+    public void hotEvictions( long hotEvictions )
+    {
+        this.hotEvictions.add( hotEvictions );
+    }
+
     @Override
     public void evictionExceptions( long evictionExceptions )
     {
@@ -59,6 +59,11 @@ public interface EvictionEvent extends AutoCloseablePageCacheTracerEvent
         {
         }
 
+        @Override
+        public void setHot( boolean hot )
+        {
+        }
+
         @Override
         public void close()
         {
@@ -90,4 +95,10 @@ public interface EvictionEvent extends AutoCloseablePageCacheTracerEvent
      * The cache page id of the evicted page.
      */
     void setCachePageId( int cachePageId );
+
+    /**
+     * Whether the evicted page was hot, that is, had been accessed again after it was faulted in.
+     * Pages that are only accessed once, as is typical for sequential scans, are not hot.
+     */
+    void setHot( boolean hot );
 }
@@ -20,9 +20,13 @@
 package org.neo4j.io.pagecache.tracing;
 
 import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
 
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
+import org.neo4j.io.pagecache.monitoring.PagedFileCounters;
 
 /**
  * A PageCacheTracer receives a steady stream of events and data about what
@@ -76,6 +80,12 @@ public interface PageCacheTracer extends PageCacheCounters
             return 0;
         }
 
+        @Override
+        public long hotEvictions()
+        {
+            return 0;
+        }
+
         @Override
         public long pins()
         {
@@ -130,6 +140,28 @@ public interface PageCacheTracer extends PageCacheCounters
             return 0;
         }
 
+        @Override
+        public List<PagedFileCounters> pagedFileCounters()
+        {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void addPagedFileCountersListener( Consumer<PagedFileCounters> listener )
+        {
+        }
+
+        @Override
+        public void removePagedFileCountersListener( Consumer<PagedFileCounters> listener )
+        {
+        }
+
+        @Override
+        public PagedFileTracer pagedFileTracer( File file )
+        {
+            return PagedFileTracer.NULL;
+        }
+
         @Override
         public void pins( long pins )
         {
@@ -160,6 +192,11 @@ public interface PageCacheTracer extends PageCacheCounters
         {
         }
 
+        @Override
+        public void hotEvictions( long hotEvictions )
+        {
+        }
+
         @Override
         public void evictionExceptions( long evictionExceptions )
         {
@@ -211,6 +248,15 @@ public interface PageCacheTracer extends PageCacheCounters
      */
     MajorFlushEvent beginCacheFlush();
 
+    /**
+     * Get the tracer that receives the events that can be attributed to the given mapped file.
+     *
+     * @param file the file, as given to {@link #mappedFile(File)}.
+     * @return the tracer for the given file, or {@link PagedFileTracer#NULL} if the file has never been mapped, or
+     * if this tracer does not keep track of individual files.
+     */
+    PagedFileTracer pagedFileTracer( File file );
+
     /**
      * Report number of observed pins
      * @param pins number of pins
@@ -247,6 +293,12 @@ public interface PageCacheTracer extends PageCacheCounters
      */
     void evictions( long evictions );
 
+    /**
+     * Report number of observed evictions of hot pages
+     * @param hotEvictions number of evictions of hot pages
+     */
+    void hotEvictions( long hotEvictions );
+
     /**
      * Report number of eviction exceptions
      * @param evictionExceptions number of eviction exceptions
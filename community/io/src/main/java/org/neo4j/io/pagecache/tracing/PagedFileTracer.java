@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.tracing;
+
+import java.io.File;
+
+import org.neo4j.io.pagecache.monitoring.PagedFileCounters;
+
+/**
+ * A PagedFileTracer receives the events of a {@link PageCacheTracer} that can be attributed to one particular mapped
+ * file. Like the page cache wide counters, most of these events are batched up by the thread local page cursor
+ * tracers before they are reported here.
+ */
+public interface PagedFileTracer extends PagedFileCounters
+{
+    /**
+     * A PagedFileTracer that ignores all events, and has no file. This is what {@link PageCacheTracer} implementations
+     * return for files they do not keep track of.
+     */
+    PagedFileTracer NULL = new PagedFileTracer()
+    {
+        @Override
+        public File file()
+        {
+            return null;
+        }
+
+        @Override
+        public long pins()
+        {
+            return 0;
+        }
+
+        @Override
+        public long hits()
+        {
+            return 0;
+        }
+
+        @Override
+        public long faults()
+        {
+            return 0;
+        }
+
+        @Override
+        public long evictions()
+        {
+            return 0;
+        }
+
+        @Override
+        public long bytesRead()
+        {
+            return 0;
+        }
+
+        @Override
+        public long flushes()
+        {
+            return 0;
+        }
+
+        @Override
+        public long bytesWritten()
+        {
+            return 0;
+        }
+
+        @Override
+        public void pins( long pins )
+        {
+        }
+
+        @Override
+        public void hits( long hits )
+        {
+        }
+
+        @Override
+        public void faults( long faults )
+        {
+        }
+
+        @Override
+        public void evictions( long evictions )
+        {
+        }
+
+        @Override
+        public void bytesRead( long bytesRead )
+        {
+        }
+
+        @Override
+        public void flushes( long flushes )
+        {
+        }
+
+        @Override
+        public void bytesWritten( long bytesWritten )
+        {
+        }
+
+        @Override
+        public String toString()
+        {
+            return PagedFileTracer.class.getName() + ".NULL";
+        }
+    };
+
+    /**
+     * Report number of observed pins on this file
+     * @param pins number of pins
+     */
+    void pins( long pins );
+
+    /**
+     * Report number of observed hits on this file
+     * @param hits number of hits
+     */
+    void hits( long hits );
+
+    /**
+     * Report number of observed faults on this file
+     * @param faults number of faults
+     */
+    void faults( long faults );
+
+    /**
+     * Report number of pages evicted from this file
+     * @param evictions number of evictions
+     */
+    void evictions( long evictions );
+
+    /**
+     * Report number of bytes read from this file
+     * @param bytesRead number of read bytes
+     */
+    void bytesRead( long bytesRead );
+
+    /**
+     * Report number of flushes to this file
+     * @param flushes number of flushes
+     */
+    void flushes( long flushes );
+
+    /**
+     * Report number of bytes written to this file
+     * @param bytesWritten number of written bytes
+     */
+    void bytesWritten( long bytesWritten );
+}
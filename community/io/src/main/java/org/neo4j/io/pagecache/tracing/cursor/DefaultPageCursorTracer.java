@@ -27,6 +27,7 @@ import org.neo4j.io.pagecache.tracing.FlushEvent;
 import org.neo4j.io.pagecache.tracing.FlushEventOpportunity;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
+import org.neo4j.io.pagecache.tracing.PagedFileTracer;
 import org.neo4j.io.pagecache.tracing.PinEvent;
 
 public class DefaultPageCursorTracer implements PageCursorTracer
@@ -38,20 +39,38 @@ public class DefaultPageCursorTracer implements PageCursorTracer
     private long bytesRead;
     private long bytesWritten;
     private long evictions;
+    private long hotEvictions;
     private long evictionExceptions;
     private long flushes;
 
+    // Only ever written by the thread that owns this tracer, but read by other threads when they snapshot the query
+    // that runs on that thread, which is why these are volatile.
+    private volatile long accumulatedHits;
+    private volatile long accumulatedFaults;
+
+    // Pins, hits, faults and bytes read are batched up per file, and reported to the file tracer when either the
+    // cursor tracer starts seeing pins for another file, or when the events are reported.
+    private PageSwapper currentSwapper;
+    private PagedFileTracer currentFileTracer = PagedFileTracer.NULL;
+    private long filePins;
+    private long fileHits;
+    private long fileFaults;
+    private long fileBytesRead;
+    private PagedFileTracer flushFileTracer = PagedFileTracer.NULL;
+
     private PageCacheTracer pageCacheTracer = PageCacheTracer.NULL;
     private DefaultPinEvent pinTracingEvent = new DefaultPinEvent();
 
     @Override
     public void init( PageCacheTracer pageCacheTracer )
     {
+        reportFileEvents();
         this.pageCacheTracer = pageCacheTracer;
     }
 
     public void reportEvents()
     {
+        reportFileEvents();
         if (pins > 0)
         {
             pageCacheTracer.pins( pins );
@@ -76,6 +95,10 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         {
             pageCacheTracer.evictions( evictions );
         }
+        if ( hotEvictions > 0 )
+        {
+            pageCacheTracer.hotEvictions( hotEvictions );
+        }
         if ( evictionExceptions > 0 )
         {
             pageCacheTracer.evictionExceptions( evictionExceptions );
@@ -91,6 +114,42 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         reset();
     }
 
+    private void reportFileEvents()
+    {
+        if ( filePins > 0 )
+        {
+            currentFileTracer.pins( filePins );
+        }
+        if ( fileHits > 0 )
+        {
+            currentFileTracer.hits( fileHits );
+        }
+        if ( fileFaults > 0 )
+        {
+            currentFileTracer.faults( fileFaults );
+        }
+        if ( fileBytesRead > 0 )
+        {
+            currentFileTracer.bytesRead( fileBytesRead );
+        }
+        filePins = 0;
+        fileHits = 0;
+        fileFaults = 0;
+        fileBytesRead = 0;
+        // Forget the file, so that we look up its tracer anew, in case it has been unmapped in the mean time.
+        currentSwapper = null;
+        currentFileTracer = PagedFileTracer.NULL;
+    }
+
+    private PagedFileTracer fileTracerOf( PageSwapper swapper )
+    {
+        if ( swapper == currentSwapper )
+        {
+            return currentFileTracer;
+        }
+        return swapper == null ? PagedFileTracer.NULL : pageCacheTracer.pagedFileTracer( swapper.file() );
+    }
+
     private void reset()
     {
         pins = 0;
@@ -100,6 +159,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         bytesRead = 0;
         bytesWritten = 0;
         evictions = 0;
+        hotEvictions = 0;
         evictionExceptions = 0;
         flushes = 0;
     }
@@ -158,10 +218,30 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         return flushes;
     }
 
+    @Override
+    public long accumulatedHits()
+    {
+        return accumulatedHits;
+    }
+
+    @Override
+    public long accumulatedFaults()
+    {
+        return accumulatedFaults;
+    }
+
     @Override
     public PinEvent beginPin( boolean writeLock, long filePageId, PageSwapper swapper )
     {
+        if ( swapper != currentSwapper )
+        {
+            PagedFileTracer fileTracer = fileTracerOf( swapper );
+            reportFileEvents();
+            currentSwapper = swapper;
+            currentFileTracer = fileTracer;
+        }
         pins++;
+        filePins++;
         pinTracingEvent.eventHits = 1;
         return pinTracingEvent;
     }
@@ -176,6 +256,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         @Override
         public void setSwapper( PageSwapper swapper )
         {
+            fileTracerOf( swapper ).evictions( 1 );
         }
 
         @Override
@@ -195,6 +276,15 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         {
         }
 
+        @Override
+        public void setHot( boolean hot )
+        {
+            if ( hot )
+            {
+                hotEvictions++;
+            }
+        }
+
         @Override
         public void close()
         {
@@ -208,12 +298,15 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         public void addBytesRead( long bytes )
         {
             bytesRead += bytes;
+            fileBytesRead += bytes;
         }
 
         @Override
         public void done()
         {
             faults++;
+            fileFaults++;
+            accumulatedFaults++;
         }
 
         @Override
@@ -239,6 +332,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         @Override
         public FlushEvent beginFlush( long filePageId, int cachePageId, PageSwapper swapper )
         {
+            flushFileTracer = fileTracerOf( swapper );
             return flushEvent;
         }
     };
@@ -249,12 +343,14 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         public void addBytesWritten( long bytes )
         {
             bytesWritten += bytes;
+            flushFileTracer.bytesWritten( bytes );
         }
 
         @Override
         public void done()
         {
             flushes++;
+            flushFileTracer.flushes( 1 );
         }
 
         @Override
@@ -289,6 +385,8 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         public void hit()
         {
             hits += eventHits;
+            fileHits += eventHits;
+            accumulatedHits += eventHits;
         }
 
         @Override
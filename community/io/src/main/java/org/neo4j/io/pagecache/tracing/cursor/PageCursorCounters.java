@@ -74,4 +74,16 @@ public interface PageCursorCounters
      */
     long flushes();
 
+    /**
+     * @return The number of page hits observed since this tracer was created. Unlike {@link #hits()}, this counter is
+     * not reset when the events are reported to the page cache tracer, which makes it suitable for measuring the hits
+     * of units of work, like queries, that span several reporting intervals.
+     */
+    long accumulatedHits();
+
+    /**
+     * @return The number of page faults observed since this tracer was created. Unlike {@link #faults()}, this
+     * counter is not reset when the events are reported to the page cache tracer.
+     */
+    long accumulatedFaults();
 }
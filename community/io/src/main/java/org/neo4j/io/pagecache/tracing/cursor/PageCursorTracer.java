@@ -91,6 +91,18 @@ public interface PageCursorTracer extends PageCursorCounters
             return 0;
         }
 
+        @Override
+        public long accumulatedHits()
+        {
+            return 0;
+        }
+
+        @Override
+        public long accumulatedFaults()
+        {
+            return 0;
+        }
+
         @Override
         public PinEvent beginPin( boolean writeLock, long filePageId, PageSwapper swapper )
         {
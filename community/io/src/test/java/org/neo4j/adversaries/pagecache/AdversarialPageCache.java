@@ -27,6 +27,8 @@ import java.io.IOException;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.OpenOption;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -36,6 +38,7 @@ import org.neo4j.io.pagecache.FileHandle;
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.WriteAheadBarrier;
 
 /**
  * A {@linkplain PageCache page cache} that wraps another page cache and an {@linkplain Adversary adversary} to provide
@@ -71,6 +74,18 @@ public class AdversarialPageCache implements PageCache
         return new AdversarialPagedFile( pagedFile, adversary );
     }
 
+    @Override
+    public List<PagedFile> listExistingMappings() throws IOException
+    {
+        adversary.injectFailure( IOException.class, SecurityException.class );
+        List<PagedFile> list = new ArrayList<>();
+        for ( PagedFile pagedFile : delegate.listExistingMappings() )
+        {
+            list.add( new AdversarialPagedFile( pagedFile, adversary ) );
+        }
+        return list;
+    }
+
     @Override
     public Optional<PagedFile> getExistingMapping( File file ) throws IOException
     {
@@ -97,6 +112,25 @@ public class AdversarialPageCache implements PageCache
         delegate.flushAndForce( limiter );
     }
 
+    @Override
+    public int flushDirtyPages( int maxPagesToFlush ) throws IOException
+    {
+        adversary.injectFailure( FileNotFoundException.class, IOException.class, SecurityException.class );
+        return delegate.flushDirtyPages( maxPagesToFlush );
+    }
+
+    @Override
+    public int dirtyPageCount()
+    {
+        return delegate.dirtyPageCount();
+    }
+
+    @Override
+    public void setWriteAheadBarrier( WriteAheadBarrier barrier )
+    {
+        delegate.setWriteAheadBarrier( barrier );
+    }
+
     @Override
     public void close()
     {
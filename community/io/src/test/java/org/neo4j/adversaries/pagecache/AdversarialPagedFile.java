@@ -19,6 +19,7 @@
  */
 package org.neo4j.adversaries.pagecache;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.channels.ReadableByteChannel;
@@ -69,6 +70,12 @@ public class AdversarialPagedFile implements PagedFile
         return delegate.pageSize();
     }
 
+    @Override
+    public File file()
+    {
+        return delegate.file();
+    }
+
     @Override
     public long fileSize() throws IOException
     {
@@ -22,6 +22,7 @@ package org.neo4j.io.pagecache;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.OpenOption;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -39,6 +40,12 @@ public class DelegatingPageCache implements PageCache
         return delegate.map( file, pageSize, openOptions );
     }
 
+    @Override
+    public List<PagedFile> listExistingMappings() throws IOException
+    {
+        return delegate.listExistingMappings();
+    }
+
     @Override
     public Optional<PagedFile> getExistingMapping( File file ) throws IOException
     {
@@ -71,6 +78,24 @@ public class DelegatingPageCache implements PageCache
         delegate.flushAndForce( limiter );
     }
 
+    @Override
+    public int flushDirtyPages( int maxPagesToFlush ) throws IOException
+    {
+        return delegate.flushDirtyPages( maxPagesToFlush );
+    }
+
+    @Override
+    public int dirtyPageCount()
+    {
+        return delegate.dirtyPageCount();
+    }
+
+    @Override
+    public void setWriteAheadBarrier( WriteAheadBarrier barrier )
+    {
+        delegate.setWriteAheadBarrier( barrier );
+    }
+
     public void flushAndForce() throws IOException
     {
         delegate.flushAndForce();
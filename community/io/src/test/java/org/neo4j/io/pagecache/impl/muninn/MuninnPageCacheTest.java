@@ -24,8 +24,13 @@ import org.junit.Test;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.graphdb.mockfs.DelegatingFileSystemAbstraction;
 import org.neo4j.graphdb.mockfs.DelegatingStoreChannel;
@@ -34,7 +39,10 @@ import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.io.pagecache.PageCacheTest;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.WriteAheadBarrier;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
 import org.neo4j.io.pagecache.tracing.ConfigurablePageCursorTracerSupplier;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.DelegatingPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
@@ -44,6 +52,8 @@ import org.neo4j.io.pagecache.tracing.recording.RecordingPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer.Fault;
 
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -51,9 +61,12 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_GROW;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
 import static org.neo4j.io.pagecache.tracing.recording.RecordingPageCacheTracer.Evict;
 
 public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
@@ -108,7 +121,7 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         assertEquals( 1, cursorTracer.faults() );
         assertEquals( 1, tracer.faults() );
 
-        int clockArm = pageCache.evictPages( 1, 0, tracer.beginPageEvictions( 1 ) );
+        int clockArm = pageCache.evictPages( pageCache.partitionOf( 0 ), 1, 0, tracer.beginPageEvictions( 1 ) );
         assertThat( clockArm, is( 1 ) );
         assertNotNull( tracer.observe( Evict.class ) );
     }
@@ -146,7 +159,7 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         assertEquals( 1, cursorTracer.faults() );
         assertEquals( 1, tracer.faults() );
 
-        int clockArm = pageCache.evictPages( 1, 0, tracer.beginPageEvictions( 1 ) );
+        int clockArm = pageCache.evictPages( pageCache.partitionOf( 0 ), 1, 0, tracer.beginPageEvictions( 1 ) );
         assertThat( clockArm, is( 1 ) );
         assertNotNull( tracer.observe( Evict.class ) );
 
@@ -180,7 +193,7 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         assertEquals( 1, cursorTracer.faults() );
         assertEquals( 1, tracer.faults() );
 
-        int clockArm = pageCache.evictPages( 1, 0, tracer.beginPageEvictions( 1 ) );
+        int clockArm = pageCache.evictPages( pageCache.partitionOf( 0 ), 1, 0, tracer.beginPageEvictions( 1 ) );
         assertThat( clockArm, is( 1 ) );
         assertNotNull( tracer.observe( Evict.class ) );
 
@@ -218,7 +231,7 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         assertEquals( 2, cursorTracer.faults() );
         assertEquals( 2, tracer.faults() );
 
-        int clockArm = pageCache.evictPages( 2, 0, tracer.beginPageEvictions( 2 ) );
+        int clockArm = pageCache.evictPages( pageCache.partitionOf( 0 ), 2, 0, tracer.beginPageEvictions( 2 ) );
         assertThat( clockArm, is( 2 ) );
         assertNotNull( tracer.observe( Evict.class ) );
         assertNotNull( tracer.observe( Evict.class ) );
@@ -261,7 +274,7 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
             cursor.putLong( value + 1 );
         }
 
-        int clockArm = pageCache.evictPages( 1, 0, EvictionRunEvent.NULL );
+        int clockArm = pageCache.evictPages( pageCache.partitionOf( 0 ), 1, 0, EvictionRunEvent.NULL );
         assertThat( clockArm, is( 1 ) );
 
         ByteBuffer buf = ByteBuffer.allocate( 16 );
@@ -314,6 +327,439 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         }
     }
 
+    @Test
+    public void clockEvictionPolicyMustEvictHotPagesDuringSequentialScan() throws Exception
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        scanPastHotPage( EvictionPolicy.CLOCK, tracer );
+
+        assertThat( tracer.evictions(), is( 18L ) );
+        assertThat( tracer.hotEvictions(), is( 1L ) );
+    }
+
+    @Test
+    public void scanResistantEvictionPolicyMustKeepHotPagesDuringSequentialScan() throws Exception
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        scanPastHotPage( EvictionPolicy.SCAN_RESISTANT, tracer );
+
+        assertThat( tracer.evictions(), is( 18L ) );
+        assertThat( tracer.hotEvictions(), is( 0L ) );
+    }
+
+    private void scanPastHotPage( EvictionPolicy evictionPolicy, PageCacheTracer tracer ) throws IOException
+    {
+        // A cache of 20 pages keeps 10 of them free, so the background eviction thread will leave us alone as long
+        // as we only ever have 10 pages loaded.
+        int filePageSize = 8;
+        File file = file( "a" );
+        try ( StoreChannel channel = fs.create( file ) )
+        {
+            channel.writeAll( ByteBuffer.allocate( filePageSize * 19 ) );
+        }
+        SingleFilePageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.setFileSystemAbstraction( fs );
+        pageCache = new MuninnPageCache( swapperFactory, 20, filePageSize, tracer,
+                DefaultPageCursorTracerSupplier.INSTANCE, evictionPolicy );
+
+        try ( PagedFile pagedFile = pageCache.map( file, filePageSize ) )
+        {
+            // Page 0 is accessed twice, and is therefore hot.
+            touchPages( pagedFile, 0, 1 );
+            touchPages( pagedFile, 0, 1 );
+
+            // Then we scan through the rest of the file, evicting as we go.
+            touchPages( pagedFile, 1, 9 );
+            int clockArm = pageCache.evictPages( pageCache.partitionOf( 0 ), 9, 0, tracer.beginPageEvictions( 9 ) );
+            assertThat( clockArm, is( 10 ) );
+            touchPages( pagedFile, 10, 9 );
+            pageCache.evictPages( pageCache.partitionOf( 0 ), 9, 0, tracer.beginPageEvictions( 9 ) );
+        }
+    }
+
+    private void touchPages( PagedFile pagedFile, long startPageId, int pageCount ) throws IOException
+    {
+        try ( PageCursor cursor = pagedFile.io( startPageId, PF_SHARED_READ_LOCK ) )
+        {
+            for ( int i = 0; i < pageCount; i++ )
+            {
+                assertTrue( cursor.next() );
+            }
+        }
+    }
+
+    @Test
+    public void readAheadMustFaultInPagesThatAreNotAlreadyInMemory() throws Exception
+    {
+        int filePageSize = 8;
+        File file = file( "a" );
+        writePageIdsTo( file, filePageSize, 20 );
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        SingleFilePageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.setFileSystemAbstraction( fs );
+        pageCache = new MuninnPageCache( swapperFactory, 40, filePageSize, tracer,
+                DefaultPageCursorTracerSupplier.INSTANCE );
+
+        try ( PagedFile pagedFile = pageCache.map( file, filePageSize ) )
+        {
+            touchPages( pagedFile, 2, 1 );
+            ((MuninnPagedFile) pagedFile).readAhead( 0, 10 );
+            // Read-ahead past the end of the file must be ignored.
+            ((MuninnPagedFile) pagedFile).readAhead( 18, 10 );
+            DefaultPageCursorTracerSupplier.INSTANCE.get().reportEvents();
+            assertThat( tracer.faults(), is( 12L ) );
+
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+            {
+                for ( long i = 0; i < 10; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    assertThat( cursor.getLong(), is( i ) );
+                }
+            }
+            DefaultPageCursorTracerSupplier.INSTANCE.get().reportEvents();
+            assertThat( tracer.faults(), is( 12L ) );
+        }
+    }
+
+    @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
+    public void sequentialScanWithReadAheadMustReadAllPages() throws Exception
+    {
+        int filePageSize = 8;
+        int pageCount = 1000;
+        File file = file( "a" );
+        writePageIdsTo( file, filePageSize, pageCount );
+        SingleFilePageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.setFileSystemAbstraction( fs );
+        pageCache = new MuninnPageCache( swapperFactory, 100, filePageSize, PageCacheTracer.NULL,
+                DefaultPageCursorTracerSupplier.NULL );
+
+        try ( PagedFile pagedFile = pageCache.map( file, filePageSize );
+              PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD ) )
+        {
+            for ( long i = 0; i < pageCount; i++ )
+            {
+                assertTrue( cursor.next() );
+                long pageId;
+                do
+                {
+                    pageId = cursor.getLong( 0 );
+                }
+                while ( cursor.shouldRetry() );
+                assertThat( pageId, is( i ) );
+            }
+            assertFalse( cursor.next() );
+        }
+    }
+
+    @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
+    public void noFaultCursorMustOnlyBindPagesThatAreAlreadyInMemory() throws Exception
+    {
+        int filePageSize = 8;
+        File file = file( "a" );
+        writePageIdsTo( file, filePageSize, 10 );
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        SingleFilePageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.setFileSystemAbstraction( fs );
+        pageCache = new MuninnPageCache( swapperFactory, 40, filePageSize, tracer,
+                DefaultPageCursorTracerSupplier.INSTANCE );
+
+        try ( PagedFile pagedFile = pageCache.map( file, filePageSize ) )
+        {
+            touchPages( pagedFile, 2, 2 );
+            DefaultPageCursorTracerSupplier.INSTANCE.get().reportEvents();
+            assertThat( tracer.faults(), is( 2L ) );
+
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT | PF_TRANSIENT ) )
+            {
+                for ( long i = 0; i < 10; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    boolean inMemory = i == 2 || i == 3;
+                    assertThat( cursor.getCurrentPageId(), is( inMemory ? i : PageCursor.UNBOUND_PAGE_ID ) );
+                    if ( inMemory )
+                    {
+                        long pageId;
+                        do
+                        {
+                            pageId = cursor.getLong( 0 );
+                        }
+                        while ( cursor.shouldRetry() );
+                        assertThat( pageId, is( i ) );
+                    }
+                }
+                assertFalse( cursor.next() );
+            }
+            DefaultPageCursorTracerSupplier.INSTANCE.get().reportEvents();
+            assertThat( tracer.faults(), is( 2L ) );
+        }
+    }
+
+    @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
+    public void partitionedPageCacheMustReadBackEverythingWrittenThroughEviction() throws Exception
+    {
+        int filePageSize = 8;
+        int pageCount = 500;
+        File file = file( "a" );
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        SingleFilePageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.setFileSystemAbstraction( fs );
+        pageCache = new MuninnPageCache( swapperFactory, 40, filePageSize, tracer,
+                DefaultPageCursorTracerSupplier.NULL, EvictionPolicy.CLOCK, 4 );
+
+        try ( PagedFile pagedFile = pageCache.map( file, filePageSize, StandardOpenOption.CREATE ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                for ( long i = 0; i < pageCount; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putLong( i );
+                }
+            }
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+            {
+                for ( long i = 0; i < pageCount; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    long pageId;
+                    do
+                    {
+                        pageId = cursor.getLong( 0 );
+                    }
+                    while ( cursor.shouldRetry() );
+                    assertThat( pageId, is( i ) );
+                }
+            }
+        }
+        assertThat( tracer.evictions(), greaterThanOrEqualTo( (long) pageCount - 40 ) );
+    }
+
+    @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
+    public void partitionCountMustBeCappedSoEveryPartitionHasPages() throws Exception
+    {
+        SingleFilePageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.setFileSystemAbstraction( fs );
+        pageCache = new MuninnPageCache( swapperFactory, 4, pageCachePageSize, PageCacheTracer.NULL,
+                DefaultPageCursorTracerSupplier.NULL, EvictionPolicy.CLOCK, 16 );
+
+        try ( PagedFile pagedFile = pageCache.map( file( "a" ), filePageSize, StandardOpenOption.CREATE );
+              PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+        {
+            for ( int i = 0; i < 20; i++ )
+            {
+                assertTrue( cursor.next() );
+            }
+        }
+        assertThat( pageCache.maxCachedPages(), is( 4 ) );
+    }
+
+    @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
+    public void pageFaultsMustTakePagesFromOtherPartitionsWhenAllPagesOfTheirOwnPartitionAreLocked() throws Exception
+    {
+        // Four partitions of two pages each. With five pages write locked, some partitions have all of their pages
+        // locked, and faults that hash into those partitions must find their pages elsewhere.
+        int filePageSize = 8;
+        SingleFilePageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.setFileSystemAbstraction( fs );
+        pageCache = new MuninnPageCache( swapperFactory, 8, filePageSize, PageCacheTracer.NULL,
+                DefaultPageCursorTracerSupplier.NULL, EvictionPolicy.CLOCK, 4 );
+
+        try ( PagedFile pagedFile = pageCache.map( file( "a" ), filePageSize, StandardOpenOption.CREATE ) )
+        {
+            PageCursor[] lockedCursors = new PageCursor[5];
+            try
+            {
+                for ( int i = 0; i < lockedCursors.length; i++ )
+                {
+                    lockedCursors[i] = pagedFile.io( i, PF_SHARED_WRITE_LOCK );
+                    assertTrue( lockedCursors[i].next() );
+                }
+                try ( PageCursor cursor = pagedFile.io( 100, PF_SHARED_WRITE_LOCK ) )
+                {
+                    for ( long i = 0; i < 200; i++ )
+                    {
+                        assertTrue( cursor.next() );
+                        cursor.putLong( i );
+                    }
+                }
+            }
+            finally
+            {
+                for ( PageCursor cursor : lockedCursors )
+                {
+                    if ( cursor != null )
+                    {
+                        cursor.close();
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void mustThrowOnPartitionCountLessThanOne() throws Exception
+    {
+        SingleFilePageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.setFileSystemAbstraction( fs );
+        expectedException.expect( IllegalArgumentException.class );
+        new MuninnPageCache( swapperFactory, 100, pageCachePageSize, PageCacheTracer.NULL,
+                DefaultPageCursorTracerSupplier.NULL, EvictionPolicy.CLOCK, 0 );
+    }
+
+    @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
+    public void flushDirtyPagesMustWriteOutAtMostTheGivenNumberOfPagesAndContinueWhereItLeftOff() throws Exception
+    {
+        int filePageSize = 8;
+        int pageCount = 40;
+        File file = file( "a" );
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        SingleFilePageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.setFileSystemAbstraction( fs );
+        pageCache = new MuninnPageCache( swapperFactory, 100, filePageSize, tracer,
+                DefaultPageCursorTracerSupplier.NULL );
+
+        try ( PagedFile pagedFile = pageCache.map( file, filePageSize, StandardOpenOption.CREATE ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                for ( long i = 0; i < pageCount; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putLong( i );
+                }
+            }
+
+            assertThat( pageCache.flushDirtyPages( 15 ), is( 15 ) );
+            assertThat( tracer.bytesWritten(), is( 15L * filePageSize ) );
+            assertThat( pageCache.dirtyPageCount(), is( 25 ) );
+            assertThat( pageCache.flushDirtyPages( 15 ), is( 15 ) );
+            assertThat( pageCache.flushDirtyPages( 15 ), is( 10 ) );
+            assertThat( pageCache.flushDirtyPages( 15 ), is( 0 ) );
+            assertThat( tracer.bytesWritten(), is( (long) pageCount * filePageSize ) );
+            assertThat( pageCache.dirtyPageCount(), is( 0 ) );
+
+            ByteBuffer buf = ByteBuffer.allocate( filePageSize * pageCount );
+            try ( StoreChannel channel = fs.open( file, "r" ) )
+            {
+                assertThat( channel.read( buf ), is( filePageSize * pageCount ) );
+            }
+            for ( int i = 0; i < pageCount; i++ )
+            {
+                assertThat( buf.getLong( i * filePageSize ), is( (long) i ) );
+            }
+        }
+    }
+
+    @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
+    public void flushDirtyPagesMustMoveOnToOtherFilesAndNotKeepThemFromBeingUnmapped() throws Exception
+    {
+        int filePageSize = 8;
+        SingleFilePageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.setFileSystemAbstraction( fs );
+        pageCache = new MuninnPageCache( swapperFactory, 100, filePageSize, PageCacheTracer.NULL,
+                DefaultPageCursorTracerSupplier.NULL );
+
+        try ( PagedFile a = pageCache.map( file( "a" ), filePageSize, StandardOpenOption.CREATE ) )
+        {
+            PagedFile b = pageCache.map( file( "b" ), filePageSize, StandardOpenOption.CREATE );
+            for ( PagedFile pagedFile : new PagedFile[]{a, b} )
+            {
+                try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+                {
+                    for ( long i = 0; i < 10; i++ )
+                    {
+                        assertTrue( cursor.next() );
+                        cursor.putLong( i );
+                    }
+                }
+            }
+
+            // One file runs out of dirty pages, so the rest are taken from the other file.
+            assertThat( pageCache.flushDirtyPages( 15 ), is( 15 ) );
+            assertThat( pageCache.dirtyPageCount(), is( 5 ) );
+            b.close();
+            pageCache.flushDirtyPages( 15 );
+            assertThat( pageCache.dirtyPageCount(), is( 0 ) );
+        }
+    }
+
+    @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
+    public void pagesMustPassTheWriteAheadBarrierOfTheirLastChangeBeforeTheyAreWrittenOut() throws Exception
+    {
+        int filePageSize = 8;
+        AtomicLong currentGeneration = new AtomicLong();
+        List<Long> awaited = new CopyOnWriteArrayList<>();
+        AtomicBoolean failBarrier = new AtomicBoolean();
+        SingleFilePageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.setFileSystemAbstraction( fs );
+        pageCache = new MuninnPageCache( swapperFactory, 100, filePageSize, PageCacheTracer.NULL,
+                DefaultPageCursorTracerSupplier.NULL );
+        pageCache.setWriteAheadBarrier( new WriteAheadBarrier()
+        {
+            @Override
+            public long currentGeneration()
+            {
+                return currentGeneration.get();
+            }
+
+            @Override
+            public void awaitDurable( long generation ) throws IOException
+            {
+                if ( failBarrier.get() )
+                {
+                    throw new IOException( "Log could not be forced" );
+                }
+                awaited.add( generation );
+            }
+        } );
+
+        try ( PagedFile pagedFile = pageCache.map( file( "a" ), filePageSize, StandardOpenOption.CREATE ) )
+        {
+            for ( long i = 0; i < 2; i++ )
+            {
+                currentGeneration.set( 3 + i );
+                try ( PageCursor cursor = pagedFile.io( i, PF_SHARED_WRITE_LOCK ) )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putLong( i );
+                }
+            }
+            currentGeneration.set( 10 );
+
+            failBarrier.set( true );
+            try
+            {
+                pageCache.flushDirtyPages( 1 );
+                fail( "Should not write out pages which didn't pass the barrier" );
+            }
+            catch ( IOException e )
+            {
+                assertThat( pageCache.dirtyPageCount(), is( 2 ) );
+            }
+
+            failBarrier.set( false );
+            assertThat( pageCache.flushDirtyPages( 1 ), is( 1 ) );
+            assertThat( awaited, contains( 3L ) );
+            pagedFile.flushAndForce();
+            assertThat( awaited, contains( 3L, 4L ) );
+            assertThat( pageCache.dirtyPageCount(), is( 0 ) );
+        }
+    }
+
+    private void writePageIdsTo( File file, int filePageSize, int pageCount ) throws IOException
+    {
+        ByteBuffer buf = ByteBuffer.allocate( filePageSize * pageCount );
+        for ( long i = 0; i < pageCount; i++ )
+        {
+            buf.putLong( (int) i * filePageSize, i );
+        }
+        try ( StoreChannel channel = fs.create( file ) )
+        {
+            channel.writeAll( buf );
+        }
+    }
+
     @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
     public void mustThrowIfMappingFileWouldOverflowReferenceCount() throws Exception
     {
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.tracing.PageFaultEvent;
+import org.neo4j.unsafe.impl.internal.dragons.MemoryManager;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class MuninnPageTest
+{
+    private final MemoryManager memoryManager = new MemoryManager( 8192, 8 );
+    private final PageSwapper swapper = mock( PageSwapper.class );
+    private final LongAdder dirtyPages = new LongAdder();
+
+    @Test
+    public void faultedPageMustLeaveProbationOnSecondAccessAfterItsUsageDecayed() throws Exception
+    {
+        MuninnPage page = new MuninnPage( 8, memoryManager, dirtyPages );
+        page.fault( swapper, 0, PageFaultEvent.NULL );
+        assertTrue( page.isInProbation() );
+
+        page.decrementUsage();
+        page.incrementUsage();
+
+        assertFalse( page.isInProbation() );
+    }
+
+    @Test
+    public void prefetchedPageMustStayInProbationOnFirstAccess() throws Exception
+    {
+        MuninnPage page = new MuninnPage( 8, memoryManager, dirtyPages );
+        MuninnPage.faultReadAhead( swapper, 8, 0, new MuninnPage[]{page},
+                new PageFaultEvent[]{PageFaultEvent.NULL}, 1 );
+        assertTrue( page.isInProbation() );
+
+        page.decrementUsage();
+        page.incrementUsage();
+        assertTrue( page.isInProbation() );
+
+        page.incrementUsage();
+        assertFalse( page.isInProbation() );
+    }
+
+    @Test
+    public void mustCountEveryPageOnlyOnceAsItGoesDirtyAndClean() throws Exception
+    {
+        MuninnPage a = new MuninnPage( 8, memoryManager, dirtyPages );
+        MuninnPage b = new MuninnPage( 8, memoryManager, dirtyPages );
+
+        a.markAsDirty();
+        a.markAsDirty();
+        b.markAsDirty();
+        assertThat( dirtyPages.sum(), is( 2L ) );
+
+        a.markAsClean();
+        a.markAsClean();
+        assertFalse( a.isDirty() );
+        assertTrue( b.isDirty() );
+        assertThat( dirtyPages.sum(), is( 1L ) );
+    }
+}
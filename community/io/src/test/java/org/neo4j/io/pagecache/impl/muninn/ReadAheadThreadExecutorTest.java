@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class ReadAheadThreadExecutorTest
+{
+    private final ReadAheadThreadExecutor executor = new ReadAheadThreadExecutor( 1, 1 );
+
+    @After
+    public void shutDownExecutor()
+    {
+        executor.shutdown();
+    }
+
+    @Test( timeout = 10_000 )
+    public void mustDropTasksWhenAllThreadsAreBusyAndTheQueueIsFull() throws Exception
+    {
+        CountDownLatch started = new CountDownLatch( 1 );
+        CountDownLatch release = new CountDownLatch( 1 );
+        CountDownLatch finished = new CountDownLatch( 2 );
+        AtomicInteger runs = new AtomicInteger();
+        Runnable task = () ->
+        {
+            runs.incrementAndGet();
+            started.countDown();
+            try
+            {
+                release.await();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+            finished.countDown();
+        };
+
+        executor.execute( task );
+        started.await();
+        executor.execute( task ); // Queued
+        executor.execute( task ); // Dropped
+        release.countDown();
+
+        assertTrue( finished.await( 5, TimeUnit.SECONDS ) );
+        // The single thread runs tasks in order, so once this one has run, every task that was kept has run
+        CountDownLatch drained = new CountDownLatch( 1 );
+        executor.execute( drained::countDown );
+        assertTrue( drained.await( 5, TimeUnit.SECONDS ) );
+        assertThat( runs.get(), is( 2 ) );
+    }
+}
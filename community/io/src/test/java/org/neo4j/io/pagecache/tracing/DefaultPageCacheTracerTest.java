@@ -24,10 +24,15 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.monitoring.PagedFileCounters;
 
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 public class DefaultPageCacheTracerTest
@@ -110,6 +115,114 @@ public class DefaultPageCacheTracerTest
         assertCounts( 0, 0, 0, 0, 0, 0, 6, 0, 0, 0, 0 );
     }
 
+    @Test
+    public void mustKeepCountersOfEachMappedFile()
+    {
+        File file = swapper.file();
+        PageSwapper otherSwapper = new DummyPageSwapper( "otherfile" );
+        tracer.mappedFile( file );
+        tracer.mappedFile( otherSwapper.file() );
+
+        PagedFileTracer fileTracer = tracer.pagedFileTracer( file );
+        fileTracer.pins( 3 );
+        fileTracer.hits( 2 );
+        fileTracer.faults( 1 );
+        fileTracer.bytesRead( 42 );
+        try ( EvictionRunEvent evictionRunEvent = tracer.beginPageEvictions( 2 ) )
+        {
+            try ( EvictionEvent evictionEvent = evictionRunEvent.beginEviction() )
+            {
+                evictionEvent.setSwapper( swapper );
+            }
+            try ( EvictionEvent evictionEvent = evictionRunEvent.beginEviction() )
+            {
+                evictionEvent.setSwapper( otherSwapper );
+            }
+        }
+        try ( MajorFlushEvent fileFlush = tracer.beginFileFlush( swapper ) )
+        {
+            FlushEvent flushEvent = fileFlush.flushEventOpportunity().beginFlush( 0, 0, swapper );
+            flushEvent.addBytesWritten( 12 );
+            flushEvent.done();
+        }
+
+        assertFileCounts( tracer.pagedFileTracer( file ), 3, 2, 1, 1, 42, 1, 12 );
+        assertFileCounts( tracer.pagedFileTracer( otherSwapper.file() ), 0, 0, 0, 1, 0, 0, 0 );
+        assertCounts( 0, 0, 0, 0, 2, 0, 1, 0, 12, 2, 0 );
+        assertThat( tracer.pagedFileCounters().size(), is( 2 ) );
+    }
+
+    @Test
+    public void mustFoldCountersOfUnmappedFilesIntoTheCountersOfTheirName()
+    {
+        File file = swapper.file();
+        tracer.mappedFile( file );
+        PagedFileTracer fileTracer = tracer.pagedFileTracer( file );
+        fileTracer.pins( 1 );
+        tracer.unmappedFile( file );
+
+        assertThat( tracer.pagedFileTracer( file ), sameInstance( PagedFileTracer.NULL ) );
+        assertThat( tracer.pagedFileCounters().size(), is( 1 ) );
+        assertFileCounts( tracer.pagedFileCounters().get( 0 ), 1, 0, 0, 0, 0, 0, 0 );
+
+        tracer.mappedFile( file );
+        tracer.pagedFileTracer( file ).pins( 1 );
+        List<PagedFileCounters> counters = tracer.pagedFileCounters();
+        assertThat( counters.size(), is( 1 ) );
+        assertFileCounts( counters.get( 0 ), 2, 0, 0, 0, 0, 0, 0 );
+    }
+
+    @Test
+    public void mustCountFilesOfTheSameNameTogether()
+    {
+        File file = new File( new File( "a" ), "neostore" );
+        File otherFile = new File( new File( "b" ), "neostore" );
+        tracer.mappedFile( file );
+        tracer.mappedFile( otherFile );
+        tracer.pagedFileTracer( file ).faults( 1 );
+        tracer.pagedFileTracer( otherFile ).faults( 2 );
+        tracer.unmappedFile( otherFile );
+
+        List<PagedFileCounters> counters = tracer.pagedFileCounters();
+        assertThat( counters.size(), is( 1 ) );
+        assertFileCounts( counters.get( 0 ), 0, 0, 3, 0, 0, 0, 0 );
+        assertThat( counters.get( 0 ).file(), is( otherFile ) );
+    }
+
+    @Test
+    public void mustTellListenersAboutMappedFileNames()
+    {
+        File file = swapper.file();
+        File otherFile = new File( "other" );
+        tracer.mappedFile( file );
+        List<PagedFileCounters> seen = new ArrayList<>();
+        Consumer<PagedFileCounters> listener = seen::add;
+
+        tracer.addPagedFileCountersListener( listener );
+        tracer.mappedFile( otherFile );
+        tracer.unmappedFile( otherFile );
+        tracer.mappedFile( otherFile );
+        tracer.mappedFile( new File( new File( "dir" ), "other" ) );
+        tracer.removePagedFileCountersListener( listener );
+        tracer.mappedFile( new File( "third" ) );
+
+        assertThat( seen.size(), is( 2 ) );
+        assertThat( seen.get( 0 ).file(), is( file ) );
+        assertThat( seen.get( 1 ).file().getName(), is( otherFile.getName() ) );
+    }
+
+    private void assertFileCounts( PagedFileCounters counters, long pins, long hits, long faults, long evictions,
+            long bytesRead, long flushes, long bytesWritten )
+    {
+        assertThat( "pins", counters.pins(), is( pins ) );
+        assertThat( "hits", counters.hits(), is( hits ) );
+        assertThat( "faults", counters.faults(), is( faults ) );
+        assertThat( "evictions", counters.evictions(), is( evictions ) );
+        assertThat( "bytesRead", counters.bytesRead(), is( bytesRead ) );
+        assertThat( "flushes", counters.flushes(), is( flushes ) );
+        assertThat( "bytesWritten", counters.bytesWritten(), is( bytesWritten ) );
+    }
+
     private void assertCounts( long pins, long unpins, long hits, long faults, long evictions, long evictionExceptions,
             long flushes, long bytesRead, long bytesWritten, long filesMapped, long filesUnmapped )
     {
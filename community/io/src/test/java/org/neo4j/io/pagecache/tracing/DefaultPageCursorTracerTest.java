@@ -199,6 +199,49 @@ public class DefaultPageCursorTracerTest
         assertEquals( 450, cacheTracer.bytesRead() );
     }
 
+    @Test
+    public void reportCountersOfEachFileToPagedFileTracers()
+    {
+        PageSwapper otherSwapper = new DummyPageSwapper( "otherfile" );
+        cacheTracer.mappedFile( swapper.file() );
+        cacheTracer.mappedFile( otherSwapper.file() );
+
+        pinAndHit();
+        generateEventSet();
+        PinEvent pinEvent = pageCursorTracer.beginPin( false, 0, otherSwapper );
+        pinEvent.hit();
+        pinEvent.done();
+        pinAndHit();
+        pageCursorTracer.reportEvents();
+
+        PagedFileTracer fileTracer = cacheTracer.pagedFileTracer( swapper.file() );
+        assertEquals( 3, fileTracer.pins() );
+        assertEquals( 2, fileTracer.hits() );
+        assertEquals( 1, fileTracer.faults() );
+        assertEquals( 150, fileTracer.bytesRead() );
+        assertEquals( 1, fileTracer.evictions() );
+        assertEquals( 1, fileTracer.flushes() );
+        assertEquals( 10, fileTracer.bytesWritten() );
+        PagedFileTracer otherFileTracer = cacheTracer.pagedFileTracer( otherSwapper.file() );
+        assertEquals( 1, otherFileTracer.pins() );
+        assertEquals( 1, otherFileTracer.hits() );
+        assertEquals( 0, otherFileTracer.faults() );
+    }
+
+    @Test
+    public void accumulatedHitsAndFaultsMustNotBeResetByReportingEvents()
+    {
+        pinAndHit();
+        pinFaultAndHit();
+        pageCursorTracer.reportEvents();
+        pinAndHit();
+
+        assertEquals( 1, pageCursorTracer.hits() );
+        assertEquals( 0, pageCursorTracer.faults() );
+        assertEquals( 2, pageCursorTracer.accumulatedHits() );
+        assertEquals( 1, pageCursorTracer.accumulatedFaults() );
+    }
+
     private void generateEventSet()
     {
         PinEvent pinEvent = pageCursorTracer.beginPin( false, 0, swapper );
@@ -207,6 +250,7 @@ public class DefaultPageCursorTracerTest
             pageFaultEvent.addBytesRead( 150 );
             {
                 EvictionEvent evictionEvent = pageFaultEvent.beginEviction();
+                evictionEvent.setSwapper( swapper );
                 {
                     FlushEventOpportunity flushEventOpportunity = evictionEvent.flushEventOpportunity();
                     FlushEvent flushEvent = flushEventOpportunity.beginFlush( 0, 0, swapper );
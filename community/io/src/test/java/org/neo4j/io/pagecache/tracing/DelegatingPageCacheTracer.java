@@ -20,8 +20,11 @@
 package org.neo4j.io.pagecache.tracing;
 
 import java.io.File;
+import java.util.List;
+import java.util.function.Consumer;
 
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.monitoring.PagedFileCounters;
 
 /**
  * A PageCacheTracer that delegates all calls to a wrapped instance.
@@ -98,6 +101,30 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         return delegate.evictionExceptions();
     }
 
+    @Override
+    public List<PagedFileCounters> pagedFileCounters()
+    {
+        return delegate.pagedFileCounters();
+    }
+
+    @Override
+    public void addPagedFileCountersListener( Consumer<PagedFileCounters> listener )
+    {
+        delegate.addPagedFileCountersListener( listener );
+    }
+
+    @Override
+    public void removePagedFileCountersListener( Consumer<PagedFileCounters> listener )
+    {
+        delegate.removePagedFileCountersListener( listener );
+    }
+
+    @Override
+    public PagedFileTracer pagedFileTracer( File file )
+    {
+        return delegate.pagedFileTracer( file );
+    }
+
     @Override
     public void pins( long pins )
     {
@@ -134,6 +161,12 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         delegate.evictions( evictions );
     }
 
+    @Override
+    public void hotEvictions( long hotEvictions )
+    {
+        delegate.hotEvictions( hotEvictions );
+    }
+
     @Override
     public void evictionExceptions( long evictionExceptions )
     {
@@ -171,4 +204,10 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
     {
         return delegate.evictions();
     }
+
+    @Override
+    public long hotEvictions()
+    {
+        return delegate.hotEvictions();
+    }
 }
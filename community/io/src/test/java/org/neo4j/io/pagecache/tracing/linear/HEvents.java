@@ -343,6 +343,7 @@ class HEvents
         private File file;
         private IOException exception;
         private int cachePageId;
+        private boolean hot;
 
         EvictionHEvent( LinearHistoryTracer linearHistoryTracer )
         {
@@ -379,6 +380,12 @@ class HEvents
             this.cachePageId = cachePageId;
         }
 
+        @Override
+        public void setHot( boolean hot )
+        {
+            this.hot = hot;
+        }
+
         @Override
         public FlushEvent beginFlush( long filePageId, int cachePageId, PageSwapper swapper )
         {
@@ -392,6 +399,8 @@ class HEvents
             out.print( filePageId );
             out.print( ", cachePageId:" );
             out.print( cachePageId );
+            out.print( ", hot:" );
+            out.print( hot );
             print( out, file );
             print( out, exception, exceptionLinePrefix );
         }
@@ -20,11 +20,16 @@
 package org.neo4j.io.pagecache.tracing.linear;
 
 import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
 
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.monitoring.PagedFileCounters;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PagedFileTracer;
 
 import static org.neo4j.io.pagecache.tracing.linear.HEvents.EvictionRunHEvent;
 import static org.neo4j.io.pagecache.tracing.linear.HEvents.MajorFlushHEvent;
@@ -90,6 +95,12 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
         return 0;
     }
 
+    @Override
+    public long hotEvictions()
+    {
+        return 0;
+    }
+
     @Override
     public long pins()
     {
@@ -144,6 +155,28 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
         return 0;
     }
 
+    @Override
+    public List<PagedFileCounters> pagedFileCounters()
+    {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void addPagedFileCountersListener( Consumer<PagedFileCounters> listener )
+    {
+    }
+
+    @Override
+    public void removePagedFileCountersListener( Consumer<PagedFileCounters> listener )
+    {
+    }
+
+    @Override
+    public PagedFileTracer pagedFileTracer( File file )
+    {
+        return PagedFileTracer.NULL;
+    }
+
     @Override
     public void pins( long pins )
     {
@@ -174,6 +207,11 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
     {
     }
 
+    @Override
+    public void hotEvictions( long hotEvictions )
+    {
+    }
+
     @Override
     public void evictionExceptions( long evictionExceptions )
     {
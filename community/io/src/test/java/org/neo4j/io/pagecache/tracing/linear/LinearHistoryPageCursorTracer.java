@@ -95,6 +95,18 @@ public class LinearHistoryPageCursorTracer implements PageCursorTracer
         return 0;
     }
 
+    @Override
+    public long accumulatedHits()
+    {
+        return 0;
+    }
+
+    @Override
+    public long accumulatedFaults()
+    {
+        return 0;
+    }
+
     @Override
     public PinEvent beginPin( boolean writeLock, long filePageId, PageSwapper swapper )
     {
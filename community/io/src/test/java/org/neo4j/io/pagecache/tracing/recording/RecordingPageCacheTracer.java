@@ -21,14 +21,19 @@ package org.neo4j.io.pagecache.tracing.recording;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.monitoring.PagedFileCounters;
 import org.neo4j.io.pagecache.tracing.EvictionEvent;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.FlushEventOpportunity;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PagedFileTracer;
 
 public class RecordingPageCacheTracer extends RecordingTracer implements PageCacheTracer
 {
@@ -101,6 +106,12 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         return 0;
     }
 
+    @Override
+    public long hotEvictions()
+    {
+        return 0;
+    }
+
     @Override
     public long unpins()
     {
@@ -149,6 +160,28 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         return 0;
     }
 
+    @Override
+    public List<PagedFileCounters> pagedFileCounters()
+    {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void addPagedFileCountersListener( Consumer<PagedFileCounters> listener )
+    {
+    }
+
+    @Override
+    public void removePagedFileCountersListener( Consumer<PagedFileCounters> listener )
+    {
+    }
+
+    @Override
+    public PagedFileTracer pagedFileTracer( File file )
+    {
+        return PagedFileTracer.NULL;
+    }
+
     @Override
     public void pins( long pins )
     {
@@ -182,6 +215,11 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         this.evictions.getAndAdd( evictions );
     }
 
+    @Override
+    public void hotEvictions( long hotEvictions )
+    {
+    }
+
     @Override
     public void evictionExceptions( long evictionExceptions )
     {
@@ -244,6 +282,11 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         {
         }
 
+        @Override
+        public void setHot( boolean hot )
+        {
+        }
+
         @Override
         public void close()
         {
@@ -105,6 +105,18 @@ public class RecordingPageCursorTracer extends RecordingTracer implements PageCu
         return 0;
     }
 
+    @Override
+    public long accumulatedHits()
+    {
+        return 0;
+    }
+
+    @Override
+    public long accumulatedFaults()
+    {
+        return faults;
+    }
+
     @Override
     public PinEvent beginPin( boolean writeLock, final long filePageId, final PageSwapper swapper )
     {
@@ -31,6 +31,7 @@ import org.neo4j.graphdb.config.Setting;
 import org.neo4j.helpers.AdvertisedSocketAddress;
 import org.neo4j.helpers.ListenSocketAddress;
 import org.neo4j.io.ByteUnit;
+import org.neo4j.io.pagecache.impl.muninn.EvictionPolicy;
 import org.neo4j.kernel.configuration.BoltConnectorValidator;
 import org.neo4j.kernel.configuration.ConfigurationMigrator;
 import org.neo4j.kernel.configuration.GraphDatabaseConfigurationMigrator;
@@ -177,7 +178,7 @@ public class GraphDatabaseSettings implements LoadableConfig
     @Internal
     public static final Setting<String> cypher_runtime = setting(
             "unsupported.cypher.runtime",
-            options( "INTERPRETED", "COMPILED", DEFAULT ), DEFAULT );
+            options( "INTERPRETED", "COMPILED", "SLOTTED", "PARALLEL", DEFAULT ), DEFAULT );
 
     @Description( "Enable tracing of compilation in cypher." )
     @Internal
@@ -319,6 +320,14 @@ public class GraphDatabaseSettings implements LoadableConfig
                   "Set this to -1 to disable the IOPS limit.")
     public static final Setting<Integer> check_point_iops_limit = setting( "dbms.checkpoint.iops.limit", INTEGER, "300" );
 
+    @Description( "Write out up to this many dirty pages per second in the background, in between check-points. " +
+                  "This spreads the work of flushing the store files over time, so each check-point has less to " +
+                  "write, and check-points can happen more often without bursts of I/O, which keeps the time it " +
+                  "takes to recover from a crash down. The default is '0', which turns incremental flushing off, " +
+                  "leaving all of the flushing to the check-points." )
+    public static final Setting<Integer> check_point_incremental_pages_per_second =
+            setting( "dbms.checkpoint.incremental.pages_per_second", INTEGER, "0", min( 0 ) );
+
     // Auto Indexing
     @Description("Controls the auto indexing feature for nodes. Setting it to `false` shuts it down, " +
             "while `true` enables it by default for properties listed in the dbms.auto_index.nodes.keys setting.")
@@ -389,6 +398,53 @@ public class GraphDatabaseSettings implements LoadableConfig
                   "`0` means that no rotation will automatically occur based on file size. " )
     public static final Setting<Long> logical_log_rotation_threshold = setting( "dbms.tx_log.rotation.size", BYTES, "250M", min( 1024*1024L /*1Mb*/ ) );
 
+    @Description( "Compress newly created transaction log files, one block per flush. Reduces the amount of data " +
+            "written and forced to disk at the cost of some CPU. Existing log files keep the format they were " +
+            "created with." )
+    @Internal
+    public static final Setting<Boolean> logical_log_compression =
+            setting( "unsupported.dbms.tx_log.compression", BOOLEAN, FALSE );
+
+    @Description( "Prepare the next transaction log file in the background, by filling it with zeros up to the " +
+            "rotation size, so that rotation doesn't have to create a new file and forcing the log doesn't have to " +
+            "update file metadata. Pruned log files are reused for this instead of being deleted, which means that " +
+            "a reader which still has a pruned log file open sees it end early. Doesn't apply to compressed logs." )
+    @Internal
+    public static final Setting<Boolean> logical_log_preallocation =
+            setting( "unsupported.dbms.tx_log.preallocate", BOOLEAN, FALSE );
+
+    @Description( "Let committing transactions return once appended to the transaction log, instead of waiting " +
+            "for it to be forced to disk, and force the log in the background at this interval instead. " +
+            "Commits made within the last interval can be lost on an operating system crash or power failure. " +
+            "Store changes of such commits are kept from reaching disk until the log has been forced, which may " +
+            "then happen as part of writing out pages. `0` forces the log as part of every commit." )
+    @Internal
+    public static final Setting<Long> logical_log_async_force_interval =
+            setting( "unsupported.dbms.tx_log.async_force.interval", DURATION, "0ms" );
+
+    @Description( "When forcing the transaction log in the background, the max number of bytes which may be " +
+            "appended to it without being forced. Committing transactions wait for the log to be forced when " +
+            "exceeded." )
+    @Internal
+    public static final Setting<Long> logical_log_async_force_max_bytes =
+            setting( "unsupported.dbms.tx_log.async_force.max_bytes", BYTES, "1M", min( 1L ) );
+
+    @Description( "Max number of microseconds to hold back a force of the transaction log, so that transactions " +
+            "committed concurrently can be made durable by the same force. The actual wait adapts to how often " +
+            "transactions are committed and how long a force takes, and is zero unless another commit is " +
+            "expected within it. `0` disables waiting." )
+    @Internal
+    public static final Setting<Long> logical_log_group_commit_max_window =
+            setting( "unsupported.dbms.tx_log.group_commit.max_window_micros", LONG, "0", min( 0L ) );
+
+    @Description( "Index every transaction with an id that is a multiple of this, in an index file next to each " +
+            "transaction log file. Finding a transaction which is no longer cached then means reading at most " +
+            "this many transactions from the log, instead of reading the log file from its start. `0` disables " +
+            "the index." )
+    @Internal
+    public static final Setting<Integer> logical_log_index_interval =
+            setting( "unsupported.dbms.tx_log.index.interval", INTEGER, "1000", min( 0 ) );
+
     @Description("Use a quick approach for rebuilding the ID generators. This give quicker recovery time, " +
             "but will limit the ability to reuse the space of deleted entities.")
     @Internal
@@ -411,11 +467,50 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<Long> pagecache_memory =
             setting( "dbms.memory.pagecache.size", BYTES, null, min( 8192 * 30L ) );
 
-    @Description( "Specify which page swapper to use for doing paged IO. " +
-                  "This is only used when integrating with proprietary storage technology." )
+    @Description( "Specify which page swapper to use for doing paged IO. The built in swappers are `single`, which " +
+                  "is the default and does positioned reads and writes on the store files, and `mmap`, which reads " +
+                  "the store files through memory mapped views of them, and is meant for read-mostly workloads. " +
+                  "Other swappers are only used when integrating with proprietary storage technology." )
     public static final Setting<String> pagecache_swapper =
             setting( "dbms.memory.pagecache.swapper", STRING, (String) null );
 
+    @Description( "Specify which policy the page cache uses for choosing pages to evict. `CLOCK` ages all pages " +
+                  "equally, which means that large sequential scans, such as consistency checks or backups, can " +
+                  "push the working set out of the page cache. `SCAN_RESISTANT` prefers to evict pages that have " +
+                  "not been accessed since they were faulted in, and keeps pages that are accessed repeatedly in " +
+                  "memory for as long as such pages are available for eviction." )
+    public static final Setting<String> pagecache_eviction_policy =
+            setting( "dbms.memory.pagecache.eviction_policy", options( enumNames( EvictionPolicy.class ), true ),
+                    EvictionPolicy.CLOCK.name() );
+
+    @Description( "The ratio of dirty pages in the page cache, above which dirty pages are written out in the " +
+                  "background, in between check-points. Writing out dirty pages ahead of time spreads the IO over " +
+                  "time, and makes check-points shorter and more predictable. The transaction log is forced before " +
+                  "any pages are written. The background flushing keeps going until half of the watermark is " +
+                  "reached. The default watermark of 1.0 turns off this kind of background flushing." )
+    public static final Setting<Double> pagecache_flush_dirty_watermark =
+            setting( "dbms.memory.pagecache.flush.dirty_watermark", DOUBLE, "1.0", min( 0.0 ), max( 1.0 ) );
+
+    @Description( "The number of partitions to split the page cache into. Every partition has its own pool of " +
+                  "free pages and its own eviction thread, and pages are spread over the partitions by hashing their " +
+                  "file page ids. Using more than one partition reduces contention in the page cache on machines " +
+                  "with many cores, that do a lot of concurrent page faulting. The number of partitions is capped " +
+                  "so that every partition gets at least two pages." )
+    public static final Setting<Integer> pagecache_partitions =
+            setting( "dbms.memory.pagecache.partitions", INTEGER, "1", min( 1 ) );
+
+    @Description( "Page cache can be configured to periodically record which pages of the store files are in memory, " +
+                  "and to use that profile to warm up the page cache in the background when the database starts " +
+                  "again. This way, queries do not have to pay for a cold page cache after a restart. The profiles " +
+                  "are written to .cacheprof files next to the store files, in the store directory." )
+    public static final Setting<Boolean> pagecache_warmup_enabled =
+            setting( "dbms.memory.pagecache.warmup.enable", BOOLEAN, FALSE );
+
+    @Description( "The interval at which the profile of which pages are in memory is taken, for use when warming up " +
+                  "the page cache after a restart." )
+    public static final Setting<Long> pagecache_warmup_profiling_interval =
+            setting( "dbms.memory.pagecache.warmup.profile.interval", DURATION, "1m" );
+
     /**
      * Block size properties values depends from selected record format.
      * We can't figured out record format until it will be selected by corresponding edition.
@@ -517,6 +612,28 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<String> label_index = setting( "dbms.label_index",
             options( enumNames( LabelIndex.class ), true ), LabelIndex.NATIVE.name() );
 
+    @Description( "Use native, GBPTree backed, indexes for numbers and strings in schema indexes, combined with " +
+            "lucene for all other types of values and for very long strings. Only applies to databases without " +
+            "existing schema indexes." )
+    @Internal
+    public static final Setting<Boolean> enable_native_schema_index =
+            setting( "unsupported.dbms.enable_native_schema_index", BOOLEAN, FALSE );
+
+    @Description( "Number of threads to apply batches of transactions with, e.g. batches pulled from another " +
+            "instance in a cluster. Transactions in a batch touching different records are then applied " +
+            "concurrently, whereas transactions touching the same records are applied in order. A value of 1 " +
+            "applies all transactions of a batch serially." )
+    @Internal
+    public static final Setting<Integer> transaction_apply_parallelism =
+            setting( "unsupported.dbms.tx_apply.parallelism", INTEGER, "1", min( 1 ) );
+
+    @Description( "Number of threads to recover transactions with after an unclean shutdown. With more than one " +
+            "thread, transactions are read from the log ahead of being applied, and transactions touching " +
+            "different records are applied concurrently. A value of 1 recovers transactions one at a time." )
+    @Internal
+    public static final Setting<Integer> recovery_parallelism =
+            setting( "unsupported.dbms.recovery.parallelism", INTEGER, "1", min( 1 ) );
+
     // Security settings
 
     @Description("Enable auth requirement to access Neo4j.")
@@ -67,7 +67,7 @@ public enum NotificationCode
     RUNTIME_UNSUPPORTED(
         SeverityLevel.WARNING,
         Status.Statement.RuntimeUnsupportedWarning,
-        "Using COMPILED runtime is unsupported for this query, please use interpreted runtime instead"
+        "Using the selected runtime is unsupported for this query, please use interpreted runtime instead"
     ),
     INDEX_HINT_UNFULFILLABLE(
         SeverityLevel.WARNING,
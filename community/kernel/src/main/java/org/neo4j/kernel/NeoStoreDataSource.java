@@ -36,6 +36,7 @@ import org.neo4j.helpers.Exceptions;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.WriteAheadBarrier;
 import org.neo4j.kernel.api.KernelAPI;
 import org.neo4j.kernel.api.TokenNameLookup;
 import org.neo4j.kernel.api.exceptions.KernelException;
@@ -82,6 +83,7 @@ import org.neo4j.kernel.impl.index.LegacyIndexStore;
 import org.neo4j.kernel.impl.locking.LockService;
 import org.neo4j.kernel.impl.locking.ReentrantLockService;
 import org.neo4j.kernel.impl.locking.StatementLocksFactory;
+import org.neo4j.kernel.impl.pagecache.PageCacheWarmer;
 import org.neo4j.kernel.impl.logging.LogService;
 import org.neo4j.kernel.impl.proc.Procedures;
 import org.neo4j.kernel.impl.storageengine.impl.recordstorage.RecordStorageEngine;
@@ -99,7 +101,10 @@ import org.neo4j.kernel.impl.storemigration.participant.StoreMigrator;
 import org.neo4j.kernel.impl.transaction.TransactionHeaderInformationFactory;
 import org.neo4j.kernel.impl.transaction.TransactionMonitor;
 import org.neo4j.kernel.impl.transaction.log.BatchingTransactionAppender;
+import org.neo4j.kernel.impl.transaction.log.GroupCommitWindow;
 import org.neo4j.kernel.impl.transaction.log.LogFileInformation;
+import org.neo4j.kernel.impl.transaction.log.LogFilePreallocator;
+import org.neo4j.kernel.impl.transaction.log.LogForceScheduler;
 import org.neo4j.kernel.impl.transaction.log.LogHeaderCache;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.LogVersionRepository;
@@ -107,17 +112,21 @@ import org.neo4j.kernel.impl.transaction.log.LoggingLogFileMonitor;
 import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogFile;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogFileInformation;
+import org.neo4j.kernel.impl.transaction.log.PhysicalLogFilePreallocator;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogFiles;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogicalTransactionStore;
+import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionLogIndex;
 import org.neo4j.kernel.impl.transaction.log.ReadableClosablePositionAwareChannel;
 import org.neo4j.kernel.impl.transaction.log.ReadableLogChannel;
 import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
 import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
+import org.neo4j.kernel.impl.transaction.log.TransactionLogIndex;
 import org.neo4j.kernel.impl.transaction.log.TransactionMetadataCache;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointScheduler;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointThreshold;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointThresholds;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointerImpl;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.IncrementalPageFlusher;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CountCommittedTransactionThreshold;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.SimpleTriggerInfo;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.StoreCopyCheckPointMutex;
@@ -500,6 +509,14 @@ public class NeoStoreDataSource implements Lifecycle, IndexProviders
             throw Exceptions.launderedException( e );
         }
 
+        if ( config.get( GraphDatabaseSettings.pagecache_warmup_enabled ) &&
+             !config.get( GraphDatabaseSettings.read_only ) )
+        {
+            life.add( new PageCacheWarmer( fs, pageCache, scheduler, storeDir,
+                    config.get( GraphDatabaseSettings.pagecache_warmup_profiling_interval ),
+                    logService.getInternalLog( PageCacheWarmer.class ) ) );
+        }
+
         // NOTE: please make sure this is performed after having added everything to the life, in fact we would like
         // to perform the checkpointing as first step when the life is shutdown.
         life.add( lifecycleToTriggerCheckPointOnShutdown() );
@@ -600,10 +617,21 @@ public class NeoStoreDataSource implements Lifecycle, IndexProviders
         final PhysicalLogFiles logFiles = new PhysicalLogFiles( storeDir, PhysicalLogFile.DEFAULT_NAME,
                 fileSystemAbstraction );
 
+        long rotationThreshold = config.get( GraphDatabaseSettings.logical_log_rotation_threshold );
+        LogFilePreallocator logFilePreallocator = config.get( GraphDatabaseSettings.logical_log_preallocation )
+                ? life.add( new PhysicalLogFilePreallocator( fileSystemAbstraction, logFiles, rotationThreshold,
+                        scheduler, logProvider ) )
+                : LogFilePreallocator.NO_PREALLOCATION;
         final PhysicalLogFile logFile = life.add( new PhysicalLogFile( fileSystemAbstraction, logFiles,
-                config.get( GraphDatabaseSettings.logical_log_rotation_threshold ),
-                transactionIdStore::getLastCommittedTransactionId, logVersionRepository, physicalLogMonitor,
-                logHeaderCache ) );
+                rotationThreshold, transactionIdStore::getLastCommittedTransactionId, logVersionRepository,
+                physicalLogMonitor, logHeaderCache, config.get( GraphDatabaseSettings.logical_log_compression ),
+                logFilePreallocator ) );
+
+        int logIndexInterval = config.get( GraphDatabaseSettings.logical_log_index_interval );
+        TransactionLogIndex transactionLogIndex = logIndexInterval > 0
+                ? life.add( new PhysicalTransactionLogIndex( fileSystemAbstraction, logFiles, logFile,
+                        transactionIdStore, logEntryReader, logIndexInterval ) )
+                : TransactionLogIndex.NO_INDEX;
 
         final PhysicalLogFileInformation.LogVersionToTimestamp logInformation = version ->
         {
@@ -632,18 +660,46 @@ public class NeoStoreDataSource implements Lifecycle, IndexProviders
         }
         String pruningConf = config.get( GraphDatabaseSettings.keep_logical_logs );
 
-        LogPruneStrategy logPruneStrategy = fromConfigValue( fs, logFileInformation, logFiles, pruningConf );
+        LogPruneStrategy logPruneStrategy =
+                fromConfigValue( fs, logFileInformation, logFiles, pruningConf, logFilePreallocator );
 
         final LogPruning logPruning = new LogPruningImpl( logPruneStrategy, logProvider );
 
         final LogRotation logRotation =
                 new LogRotationImpl( monitors.newMonitor( LogRotation.Monitor.class ), logFile, databaseHealth );
 
-        final TransactionAppender appender = life.add( new BatchingTransactionAppender(
-                logFile, logRotation, transactionMetadataCache, transactionIdStore, legacyIndexTransactionOrdering,
-                databaseHealth ) );
+        long asyncForceIntervalMillis = config.get( GraphDatabaseSettings.logical_log_async_force_interval );
+        long asyncForceMaxBytes = asyncForceIntervalMillis > 0
+                                  ? config.get( GraphDatabaseSettings.logical_log_async_force_max_bytes )
+                                  : BatchingTransactionAppender.FORCE_AFTER_EVERY_APPEND;
+        GroupCommitWindow groupCommitWindow = new GroupCommitWindow( TimeUnit.MICROSECONDS.toNanos(
+                config.get( GraphDatabaseSettings.logical_log_group_commit_max_window ) ) );
+        final BatchingTransactionAppender appender = life.add( new BatchingTransactionAppender(
+                logFile, logRotation, transactionMetadataCache, transactionLogIndex, transactionIdStore,
+                legacyIndexTransactionOrdering, databaseHealth, asyncForceMaxBytes, groupCommitWindow, clock ) );
+        if ( asyncForceIntervalMillis > 0 )
+        {
+            life.add( new LogForceScheduler( appender, scheduler, asyncForceIntervalMillis, databaseHealth ) );
+            // Transactions are applied before they are forced, so the page cache must force the log before writing
+            // out their changes
+            life.add( new LifecycleAdapter()
+            {
+                @Override
+                public void start() throws Throwable
+                {
+                    pageCache.setWriteAheadBarrier( appender );
+                }
+
+                @Override
+                public void shutdown() throws Throwable
+                {
+                    pageCache.setWriteAheadBarrier( WriteAheadBarrier.NONE );
+                }
+            } );
+        }
         final LogicalTransactionStore logicalTransactionStore =
-                new PhysicalLogicalTransactionStore( logFile, transactionMetadataCache, logEntryReader );
+                new PhysicalLogicalTransactionStore( logFile, transactionMetadataCache, logEntryReader,
+                        transactionLogIndex );
 
         int txThreshold = config.get( GraphDatabaseSettings.check_point_interval_tx );
         final CountCommittedTransactionThreshold countCommittedTransactionThreshold =
@@ -666,6 +722,14 @@ public class NeoStoreDataSource implements Lifecycle, IndexProviders
         life.add( checkPointer );
         life.add( checkPointScheduler );
 
+        int pagesPerSecond = config.get( GraphDatabaseSettings.check_point_incremental_pages_per_second );
+        double dirtyPageWatermark = config.get( GraphDatabaseSettings.pagecache_flush_dirty_watermark );
+        if ( pagesPerSecond > 0 || dirtyPageWatermark < 1.0 )
+        {
+            life.add( new IncrementalPageFlusher( pageCache, appender, scheduler, databaseHealth, pagesPerSecond,
+                    dirtyPageWatermark, logProvider ) );
+        }
+
         return new NeoStoreTransactionLogModule( logicalTransactionStore, logFileInformation, logFiles, logFile,
                 logRotation, checkPointer, appender, legacyIndexTransactionOrdering );
     }
@@ -686,7 +750,8 @@ public class NeoStoreDataSource implements Lifecycle, IndexProviders
                 new LatestCheckPointFinder( logFiles, fileSystemAbstraction, logEntryReader );
         Recovery.SPI spi = new DefaultRecoverySPI(
                 storageEngine, logFiles, fileSystemAbstraction, logVersionRepository,
-                checkPointFinder, transactionIdStore, logicalTransactionStore, positionMonitor );
+                checkPointFinder, transactionIdStore, logicalTransactionStore, positionMonitor,
+                config.get( GraphDatabaseSettings.recovery_parallelism ) > 1 );
         Recovery recovery = new Recovery( spi, recoveryMonitor );
         monitors.addMonitorListener( new Recovery.Monitor()
         {
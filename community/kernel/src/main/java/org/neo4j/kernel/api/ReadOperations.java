@@ -209,6 +209,12 @@ public interface ReadOperations
 
     long nodesGetCount();
 
+    /**
+     * @return the highest node id that may be in use, including nodes created in this transaction. Together with
+     * {@link #nodeExists(long)} this allows a scan over all nodes to be split into id ranges.
+     */
+    long nodesGetHighestPossibleIdInUse();
+
     long relationshipsGetCount();
 
     //===========================================
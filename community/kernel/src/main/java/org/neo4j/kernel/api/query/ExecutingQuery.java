@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.function.LongSupplier;
 
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorCounters;
 import org.neo4j.kernel.impl.locking.ActiveLock;
 import org.neo4j.kernel.impl.locking.LockTracer;
 import org.neo4j.kernel.impl.locking.LockWaitEvent;
@@ -54,6 +55,9 @@ public class ExecutingQuery
     private long planningDoneNanos;
     private final Thread threadExecutingTheQuery;
     private final LongSupplier activeLockCount;
+    private final PageCursorCounters pageCursorCounters;
+    private final long pageHitsWhenQueryStarted;
+    private final long pageFaultsWhenQueryStarted;
     private final SystemNanoClock clock;
     private final CpuClock cpuClock;
     private final long cpuTimeNanosWhenQueryStarted;
@@ -73,6 +77,7 @@ public class ExecutingQuery
             Map<String,Object> queryParameters,
             Map<String,Object> transactionAnnotationData,
             LongSupplier activeLockCount,
+            PageCursorCounters pageCursorCounters,
             Thread threadExecutingTheQuery,
             SystemNanoClock clock,
             CpuClock cpuClock )
@@ -81,6 +86,8 @@ public class ExecutingQuery
         this.cpuTimeNanosWhenQueryStarted = cpuClock.cpuTimeNanos( threadExecutingTheQuery );
         this.startTimeNanos = clock.nanos();
         this.startTimestampMillis = clock.millis();
+        this.pageHitsWhenQueryStarted = pageCursorCounters.accumulatedHits();
+        this.pageFaultsWhenQueryStarted = pageCursorCounters.accumulatedFaults();
         // then continue with assigning fields
         this.queryId = queryId;
         this.clientConnection = clientConnection;
@@ -89,6 +96,7 @@ public class ExecutingQuery
         this.queryParameters = queryParameters;
         this.transactionAnnotationData = transactionAnnotationData;
         this.activeLockCount = activeLockCount;
+        this.pageCursorCounters = pageCursorCounters;
         this.threadExecutingTheQuery = threadExecutingTheQuery;
         this.cpuClock = cpuClock;
         this.clock = clock;
@@ -142,6 +150,10 @@ public class ExecutingQuery
         PlannerInfo planner = status.isPlanning() ? null : this.plannerInfo;
         // just needs to be captured at some point...
         long activeLockCount = this.activeLockCount.getAsLong();
+        // the page cursor counters belong to the thread executing the query, so these are only approximate when
+        // observed from other threads, but they never go backwards
+        long pageHits = pageCursorCounters.accumulatedHits() - pageHitsWhenQueryStarted;
+        long pageFaults = pageCursorCounters.accumulatedFaults() - pageFaultsWhenQueryStarted;
 
         // - at this point we are done capturing the "live" state, and can start computing the snapshot -
         long planningTimeNanos = (status.isPlanning() ? currentTimeNanos : planningDoneNanos) - startTimeNanos;
@@ -158,7 +170,9 @@ public class ExecutingQuery
                 NANOSECONDS.toMillis( waitTimeNanos ),
                 status.name(),
                 status.toMap( currentTimeNanos ),
-                activeLockCount
+                activeLockCount,
+                pageHits,
+                pageFaults
         );
     }
 
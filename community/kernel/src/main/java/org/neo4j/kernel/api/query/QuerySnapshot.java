@@ -37,6 +37,8 @@ public class QuerySnapshot
     private final String status;
     private final Map<String,Object> resourceInfo;
     private final long activeLockCount;
+    private final long pageHits;
+    private final long pageFaults;
 
     QuerySnapshot(
             ExecutingQuery query,
@@ -47,7 +49,9 @@ public class QuerySnapshot
             long waitTimeMillis,
             String status,
             Map<String,Object> resourceInfo,
-            long activeLockCount )
+            long activeLockCount,
+            long pageHits,
+            long pageFaults )
     {
         this.query = query;
         this.plannerInfo = plannerInfo;
@@ -58,6 +62,8 @@ public class QuerySnapshot
         this.status = status;
         this.resourceInfo = resourceInfo;
         this.activeLockCount = activeLockCount;
+        this.pageHits = pageHits;
+        this.pageFaults = pageFaults;
     }
 
     public long internalQueryId()
@@ -95,6 +101,28 @@ public class QuerySnapshot
         return activeLockCount;
     }
 
+    /**
+     * The number of page cache hits, that is page pins that did not need to read the page from storage, performed
+     * on behalf of this query.
+     *
+     * @return the number of page cache hits since this query started.
+     */
+    public long pageHits()
+    {
+        return pageHits;
+    }
+
+    /**
+     * The number of page faults, that is page pins that had to read the page from storage, performed on behalf of
+     * this query.
+     *
+     * @return the number of page faults since this query started.
+     */
+    public long pageFaults()
+    {
+        return pageFaults;
+    }
+
     public String planner()
     {
         return plannerInfo == null ? null : plannerInfo.planner();
@@ -91,4 +91,12 @@ public interface TransactionState extends ReadableTransactionState
     boolean constraintDoUnRemove( ConstraintDescriptor constraint );
 
     void indexDoUpdateProperty( LabelSchemaDescriptor descriptor, long nodeId, DefinedProperty before, DefinedProperty after );
+
+    /**
+     * Moves a node from one combination of values to another in a composite index. The properties are given in
+     * the order of the properties of the index, and {@code null} means that the node isn't, or is no longer,
+     * in the index.
+     */
+    void indexDoUpdateProperties( LabelSchemaDescriptor descriptor, long nodeId, DefinedProperty[] before,
+            DefinedProperty[] after );
 }
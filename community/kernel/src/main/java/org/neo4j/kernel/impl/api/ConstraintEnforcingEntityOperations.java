@@ -532,6 +532,12 @@ public class ConstraintEnforcingEntityOperations implements EntityOperations, Sc
         return entityReadOperations.nodesGetCount( statement );
     }
 
+    @Override
+    public long nodesGetHighestPossibleIdInUse( KernelStatement statement )
+    {
+        return entityReadOperations.nodesGetHighestPossibleIdInUse( statement );
+    }
+
     @Override
     public long relationshipsGetCount( KernelStatement statement )
     {
@@ -346,6 +346,13 @@ public class GuardingStatementOperations implements
         return entityReadDelegate.nodesGetCount( statement );
     }
 
+    @Override
+    public long nodesGetHighestPossibleIdInUse( KernelStatement statement )
+    {
+        guard.check( statement );
+        return entityReadDelegate.nodesGetHighestPossibleIdInUse( statement );
+    }
+
     @Override
     public long relationshipsGetCount( KernelStatement statement )
     {
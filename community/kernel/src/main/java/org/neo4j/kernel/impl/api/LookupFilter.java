@@ -70,6 +70,20 @@ public class LookupFilter
         return indexedNodeIds;
     }
 
+    /**
+     * used in "normal" operation, for composite indexes
+     */
+    public static PrimitiveLongIterator exactIndexMatches( EntityOperations operations, KernelStatement state,
+            PrimitiveLongIterator indexedNodeIds, int[] propertyKeyIds, Object[] values )
+    {
+        PrimitiveLongIterator exactMatches = indexedNodeIds;
+        for ( int i = 0; i < propertyKeyIds.length; i++ )
+        {
+            exactMatches = exactIndexMatches( operations, state, exactMatches, propertyKeyIds[i], values[i] );
+        }
+        return exactMatches;
+    }
+
     public static PrimitiveLongIterator exactRangeMatches( EntityOperations operations, KernelStatement state,
             PrimitiveLongIterator indexedNodeIds, int propertyKeyId,
             Number lower, boolean includeLower, Number upper, boolean includeUpper )
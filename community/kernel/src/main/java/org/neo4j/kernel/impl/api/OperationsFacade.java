@@ -488,6 +488,13 @@ public class OperationsFacade
         return dataRead().nodesGetCount( statement );
     }
 
+    @Override
+    public long nodesGetHighestPossibleIdInUse()
+    {
+        statement.assertOpen();
+        return dataRead().nodesGetHighestPossibleIdInUse( statement );
+    }
+
     @Override
     public long relationshipsGetCount()
     {
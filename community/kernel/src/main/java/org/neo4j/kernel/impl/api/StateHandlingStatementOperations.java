@@ -24,6 +24,8 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.function.IntPredicate;
 
+import org.apache.commons.lang3.ArrayUtils;
+
 import org.neo4j.collection.primitive.Primitive;
 import org.neo4j.collection.primitive.PrimitiveIntCollection;
 import org.neo4j.collection.primitive.PrimitiveIntIterator;
@@ -34,6 +36,7 @@ import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.collection.primitive.PrimitiveLongResourceIterator;
 import org.neo4j.cursor.Cursor;
 import org.neo4j.graphdb.NotFoundException;
+import org.neo4j.helpers.collection.Iterators;
 import org.neo4j.kernel.api.DataWriteOperations;
 import org.neo4j.kernel.api.LegacyIndex;
 import org.neo4j.kernel.api.LegacyIndexHits;
@@ -116,6 +119,7 @@ import static org.neo4j.helpers.collection.Iterators.filter;
 import static org.neo4j.helpers.collection.Iterators.iterator;
 import static org.neo4j.helpers.collection.Iterators.singleOrNull;
 import static org.neo4j.kernel.api.StatementConstants.NO_SUCH_NODE;
+import static org.neo4j.kernel.api.StatementConstants.NO_SUCH_PROPERTY_KEY;
 import static org.neo4j.kernel.api.schema_new.index.NewIndexDescriptor.Filter.GENERAL;
 import static org.neo4j.kernel.api.schema_new.index.NewIndexDescriptor.Filter.UNIQUE;
 import static org.neo4j.kernel.impl.util.Cursors.count;
@@ -526,9 +530,10 @@ public class StateHandlingStatementOperations implements
                         state.txState().indexDoUpdateProperty( SchemaBoundary.map( nodePropDescriptor ), node.id(), null, after );
                     }
                 }
-
-                return true;
             }
+
+            compositeIndexesUpdateLabel( state, node, labelId, true );
+            return true;
         }
     }
 
@@ -557,6 +562,7 @@ public class StateHandlingStatementOperations implements
                 }
             }
 
+            compositeIndexesUpdateLabel( state, node, labelId, false );
             return true;
         }
     }
@@ -582,6 +588,13 @@ public class StateHandlingStatementOperations implements
         return state.hasTxStateWithChanges() ? base + state.txState().addedAndRemovedNodes().delta() : base;
     }
 
+    @Override
+    public long nodesGetHighestPossibleIdInUse( KernelStatement state )
+    {
+        // ids of nodes created in this transaction are allocated from the store, so they are covered as well
+        return storeLayer.nodesGetHighestPossibleIdInUse();
+    }
+
     @Override
     public long relationshipsGetCount( KernelStatement state )
     {
@@ -873,7 +886,10 @@ public class StateHandlingStatementOperations implements
         IndexReader reader = storeStatement.getIndexReader( index );
         PrimitiveLongIterator committed = reader.query( predicates );
 
-        assert predicates.length == 1: "composite indexes not yet supported";
+        if ( predicates.length > 1 )
+        {
+            return compositeIndexQuery( state, index, predicates, committed );
+        }
         IndexQuery predicate = predicates[0];
         Object filterValue = null;
         switch ( predicate.type() )
@@ -921,6 +937,36 @@ public class StateHandlingStatementOperations implements
         return reader.countIndexedNodes( nodeId, value );
     }
 
+    /**
+     * Composite indexes can only be queried with exact predicates, one per indexed property.
+     */
+    private PrimitiveLongIterator compositeIndexQuery( KernelStatement state, NewIndexDescriptor index,
+            IndexQuery[] predicates, PrimitiveLongIterator committed ) throws IndexNotApplicableKernelException
+    {
+        int[] propertyKeyIds = new int[predicates.length];
+        Object[] values = new Object[predicates.length];
+        for ( int i = 0; i < predicates.length; i++ )
+        {
+            if ( predicates[i].type() != IndexQuery.IndexQueryType.exact )
+            {
+                throw new IndexNotApplicableKernelException(
+                        "Only exact predicates are supported in composite index queries: " +
+                        Arrays.toString( predicates ) );
+            }
+            propertyKeyIds[i] = predicates[i].propertyKeyId();
+            values[i] = ((IndexQuery.ExactPredicate) predicates[i]).value();
+        }
+
+        PrimitiveLongIterator exactMatches =
+                LookupFilter.exactIndexMatches( this, state, committed, propertyKeyIds, values );
+        if ( state.hasTxStateWithChanges() )
+        {
+            ReadableDiffSets<Long> updates = state.txState().indexUpdatesForCompositeSeek( index, values );
+            return state.txState().addedAndRemovedNodes().augmentWithRemovals( updates.augment( exactMatches ) );
+        }
+        return exactMatches;
+    }
+
     private PrimitiveLongIterator filterExactIndexMatches( final KernelStatement state, NewIndexDescriptor index,
             Object value, PrimitiveLongIterator committed )
     {
@@ -1177,10 +1223,83 @@ public class StateHandlingStatementOperations implements
         node.labels().visitKeys( labelId ->
         {
             indexUpdateProperty( state, node.id(), SchemaDescriptorFactory.forLabel( labelId, propertyKey ), before, after );
+            Iterator<NewIndexDescriptor> indexes = compositeIndexesGetForLabel( state, labelId );
+            while ( indexes.hasNext() )
+            {
+                LabelSchemaDescriptor descriptor = indexes.next().schema();
+                if ( ArrayUtils.contains( descriptor.getPropertyIds(), propertyKey ) )
+                {
+                    DefinedProperty[] propertiesBefore = indexProperties( state, node, descriptor, propertyKey, before );
+                    DefinedProperty[] propertiesAfter = indexProperties( state, node, descriptor, propertyKey, after );
+                    compositeIndexUpdateProperties( state, node.id(), descriptor, propertiesBefore, propertiesAfter );
+                }
+            }
             return false;
         } );
     }
 
+    private void compositeIndexesUpdateLabel( KernelStatement state, NodeItem node, int labelId, boolean added )
+    {
+        Iterator<NewIndexDescriptor> indexes = compositeIndexesGetForLabel( state, labelId );
+        while ( indexes.hasNext() )
+        {
+            LabelSchemaDescriptor descriptor = indexes.next().schema();
+            DefinedProperty[] properties = indexProperties( state, node, descriptor, NO_SUCH_PROPERTY_KEY, null );
+            if ( properties != null )
+            {
+                compositeIndexUpdateProperties( state, node.id(), descriptor,
+                        added ? null : properties, added ? properties : null );
+            }
+        }
+    }
+
+    private Iterator<NewIndexDescriptor> compositeIndexesGetForLabel( KernelStatement state, int labelId )
+    {
+        return filter( index -> index.schema().getPropertyIds().length > 1,
+                Iterators.concat( indexesGetForLabel( state, labelId ), uniqueIndexesGetForLabel( state, labelId ) ) );
+    }
+
+    /**
+     * Values of the properties of the given composite index on the node, in the order of the index, with
+     * {@code changed} as the value of {@code changedKey}, or {@code null} if any of them is missing.
+     */
+    private DefinedProperty[] indexProperties( KernelStatement state, NodeItem node,
+            LabelSchemaDescriptor descriptor, int changedKey, DefinedProperty changed )
+    {
+        int[] propertyKeyIds = descriptor.getPropertyIds();
+        DefinedProperty[] properties = new DefinedProperty[propertyKeyIds.length];
+        for ( int i = 0; i < propertyKeyIds.length; i++ )
+        {
+            if ( propertyKeyIds[i] == changedKey )
+            {
+                properties[i] = changed;
+            }
+            else
+            {
+                Object value = nodeGetProperty( state, node, propertyKeyIds[i] );
+                properties[i] = value == null ? null : Property.property( propertyKeyIds[i], value );
+            }
+            if ( properties[i] == null )
+            {
+                return null;
+            }
+        }
+        return properties;
+    }
+
+    private void compositeIndexUpdateProperties( KernelStatement state, long nodeId, LabelSchemaDescriptor descriptor,
+            DefinedProperty[] before, DefinedProperty[] after )
+    {
+        if ( after != null )
+        {
+            for ( DefinedProperty property : after )
+            {
+                Validators.INDEX_VALUE_VALIDATOR.validate( property.value() );
+            }
+        }
+        state.txState().indexDoUpdateProperties( descriptor, nodeId, before, after );
+    }
+
     private void indexUpdateProperty( KernelStatement state, long nodeId, LabelSchemaDescriptor descriptor,
             DefinedProperty before, DefinedProperty after )
     {
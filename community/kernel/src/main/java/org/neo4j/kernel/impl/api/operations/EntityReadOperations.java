@@ -115,6 +115,8 @@ public interface EntityReadOperations
 
     long nodesGetCount( KernelStatement statement );
 
+    long nodesGetHighestPossibleIdInUse( KernelStatement statement );
+
     long relationshipsGetCount( KernelStatement statement );
 
     boolean nodeExists( KernelStatement statement, long id );
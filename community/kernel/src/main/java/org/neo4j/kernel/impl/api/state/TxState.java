@@ -19,8 +19,10 @@
  */
 package org.neo4j.kernel.impl.api.state;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
@@ -162,6 +164,11 @@ public final class TxState implements TransactionState, RelationshipVisitor.Home
 
     private PrimitiveIntObjectMap<Map<DefinedProperty, DiffSets<Long>>> indexUpdates;
 
+    /**
+     * Updates of composite indexes, per index and combination of values in the order of the properties of the index.
+     */
+    private Map<LabelSchemaDescriptor, Map<List<DefinedProperty>, DiffSets<Long>>> compositeIndexUpdates;
+
     private InstanceCache<TxSingleNodeCursor> singleNodeCursor;
     private InstanceCache<TxIteratorRelationshipCursor> iteratorRelationshipCursor;
     private InstanceCache<TxSingleRelationshipCursor> singleRelationshipCursor;
@@ -1164,6 +1171,19 @@ public final class TxState implements TransactionState, RelationshipVisitor.Home
         return diffs;
     }
 
+    @Override
+    public ReadableDiffSets<Long> indexUpdatesForCompositeSeek( NewIndexDescriptor descriptor, Object[] values )
+    {
+        int[] propertyIds = descriptor.schema().getPropertyIds();
+        DefinedProperty[] properties = new DefinedProperty[propertyIds.length];
+        for ( int i = 0; i < propertyIds.length; i++ )
+        {
+            properties[i] = Property.property( propertyIds[i], values[i] );
+        }
+        return ReadableDiffSets.Empty.ifNull(
+                getCompositeIndexUpdates( descriptor.schema(), /*create=*/false, properties ) );
+    }
+
     // Ensure sorted index updates for a given index. This is needed for range query support and
     // may involve converting the existing hash map first
     //
@@ -1196,7 +1216,22 @@ public final class TxState implements TransactionState, RelationshipVisitor.Home
     public void indexDoUpdateProperty( LabelSchemaDescriptor descriptor, long nodeId,
             DefinedProperty propertyBefore, DefinedProperty propertyAfter )
     {
-        DiffSets<Long> before = getIndexUpdatesForScanOrSeek( descriptor.getLabelId(), true, propertyBefore );
+        indexDoUpdate( nodeId,
+                getIndexUpdatesForScanOrSeek( descriptor.getLabelId(), true, propertyBefore ),
+                getIndexUpdatesForScanOrSeek( descriptor.getLabelId(), true, propertyAfter ) );
+    }
+
+    @Override
+    public void indexDoUpdateProperties( LabelSchemaDescriptor descriptor, long nodeId,
+            DefinedProperty[] propertiesBefore, DefinedProperty[] propertiesAfter )
+    {
+        indexDoUpdate( nodeId,
+                getCompositeIndexUpdates( descriptor, true, propertiesBefore ),
+                getCompositeIndexUpdates( descriptor, true, propertiesAfter ) );
+    }
+
+    private void indexDoUpdate( long nodeId, DiffSets<Long> before, DiffSets<Long> after )
+    {
         if ( before != null )
         {
             before.remove( nodeId );
@@ -1210,7 +1245,6 @@ public final class TxState implements TransactionState, RelationshipVisitor.Home
             }
         }
 
-        DiffSets<Long> after = getIndexUpdatesForScanOrSeek( descriptor.getLabelId(), true, propertyAfter );
         if ( after != null )
         {
             after.add( nodeId );
@@ -1256,6 +1290,39 @@ public final class TxState implements TransactionState, RelationshipVisitor.Home
         return diffs;
     }
 
+    private DiffSets<Long> getCompositeIndexUpdates( LabelSchemaDescriptor descriptor, boolean create,
+            DefinedProperty[] properties )
+    {
+        if ( properties == null )
+        {
+            return null;
+        }
+        if ( compositeIndexUpdates == null )
+        {
+            if ( !create )
+            {
+                return null;
+            }
+            compositeIndexUpdates = new HashMap<>();
+        }
+        Map<List<DefinedProperty>, DiffSets<Long>> updates = compositeIndexUpdates.get( descriptor );
+        if ( updates == null )
+        {
+            if ( !create )
+            {
+                return null;
+            }
+            compositeIndexUpdates.put( descriptor, updates = new HashMap<>() );
+        }
+        List<DefinedProperty> key = Arrays.asList( properties );
+        DiffSets<Long> diffs = updates.get( key );
+        if ( diffs == null && create )
+        {
+            updates.put( key, diffs = new DiffSets<>() );
+        }
+        return diffs;
+    }
+
     private DiffSets<Long> getIndexUpdatesForScanOrSeek( int label, int propertyId )
     {
         if ( indexUpdates == null )
@@ -409,6 +409,12 @@ public class StorageLayer implements StoreReadLayer
         return new AllNodeIterator( nodeStore );
     }
 
+    @Override
+    public long nodesGetHighestPossibleIdInUse()
+    {
+        return nodeStore.getHighestPossibleIdInUse();
+    }
+
     @Override
     public RelationshipIterator relationshipsGetAll()
     {
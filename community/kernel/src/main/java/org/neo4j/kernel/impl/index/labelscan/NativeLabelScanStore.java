@@ -32,6 +32,7 @@ import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Hit;
 import org.neo4j.index.internal.gbptree.Layout;
 import org.neo4j.index.internal.gbptree.MetadataMismatchException;
+import org.neo4j.index.internal.gbptree.SortingBulkLoader;
 import org.neo4j.io.pagecache.FileHandle;
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
@@ -77,6 +78,21 @@ public class NativeLabelScanStore implements LabelScanStore
      */
     public static final String FILE_NAME = DEFAULT_NAME + ".labelscanstore.db";
 
+    /**
+     * Batch size of the {@link NativeLabelScanWriter} used when rebuilding from {@link FullStoreChangeStream}.
+     */
+    private static final int REBUILD_BATCH_SIZE = 100_000;
+
+    /**
+     * Number of entries the {@link SortingBulkLoader} used when rebuilding sorts in memory at a time.
+     */
+    private static final int REBUILD_SORT_BUFFER_SIZE = 1_000_000;
+
+    /**
+     * Name of the temporary file the entries are sorted in when rebuilding, next to the store file.
+     */
+    private static final String REBUILD_FILE_NAME = FILE_NAME + ".rebuild";
+
     /**
      * Whether or not this label scan store is read-only.
      */
@@ -342,7 +358,12 @@ public class NativeLabelScanStore implements LabelScanStore
             long numberOfNodes;
 
             // Intentionally ignore read-only flag here when rebuilding.
-            try ( LabelScanWriter writer = writer() )
+            // The whole stream is sorted by key and bulk loaded into the empty tree, when the writer is closed.
+            SortingBulkLoader<LabelScanKey,LabelScanValue> bulkLoader = new SortingBulkLoader<>( index,
+                    new LabelScanLayout(), LabelScanValue::add, pageCache,
+                    new File( storeFile.getParentFile(), REBUILD_FILE_NAME ), REBUILD_SORT_BUFFER_SIZE );
+            NativeLabelScanWriter rebuildWriter = new NativeLabelScanWriter( REBUILD_BATCH_SIZE );
+            try ( LabelScanWriter writer = rebuildWriter.initializeForRebuild( bulkLoader ) )
             {
                 numberOfNodes = fullStoreChangeStream.applyTo( writer );
             }
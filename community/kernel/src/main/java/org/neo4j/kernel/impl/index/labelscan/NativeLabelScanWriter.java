@@ -23,7 +23,9 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Comparator;
 
+import org.neo4j.index.internal.gbptree.BulkLoader;
 import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.SortingBulkLoader;
 import org.neo4j.index.internal.gbptree.ValueMerger;
 import org.neo4j.index.internal.gbptree.Writer;
 import org.neo4j.kernel.api.labelscan.LabelScanWriter;
@@ -49,6 +51,9 @@ import static org.neo4j.kernel.impl.index.labelscan.LabelScanValue.RANGE_SIZE;
  * {@link NodeLabelUpdate#getLabelsAfter()} and {@link NodeLabelUpdate#getLabelsBefore()} arrays,
  * relying on the fact that those arrays are returned in its essential form, instead of copies.
  * This conversion is done like so mostly to reduce garbage.
+ * <p>
+ * When {@link #initializeForRebuild(BulkLoader) rebuilding} an empty tree, the batches are given to a
+ * {@link BulkLoader}, typically a {@link SortingBulkLoader}, instead of being merged into the tree.
  *
  * @see PhysicalToLogicalLabelChanges
  */
@@ -76,6 +81,12 @@ class NativeLabelScanWriter implements LabelScanWriter
      */
     private Writer<LabelScanKey,LabelScanValue> writer;
 
+    /**
+     * {@link BulkLoader} used instead of {@link #writer} when {@link #initializeForRebuild(BulkLoader) rebuilding},
+     * otherwise {@code null}.
+     */
+    private BulkLoader<LabelScanKey,LabelScanValue> bulkLoader;
+
     /**
      * Instance of {@link LabelScanKey} acting as place to read keys into and also to set for each applied update.
      */
@@ -125,12 +136,26 @@ class NativeLabelScanWriter implements LabelScanWriter
     NativeLabelScanWriter initialize( Writer<LabelScanKey,LabelScanValue> writer )
     {
         this.writer = writer;
+        this.bulkLoader = null;
         this.pendingUpdatesCursor = 0;
         this.addition = false;
         this.lowestLabelId = Long.MAX_VALUE;
         return this;
     }
 
+    /**
+     * Initializes this writer for rebuilding an empty tree from a stream of label additions. Every batch is added
+     * to the given {@link BulkLoader}, which is closed when this writer is closed. Keys of later batches may go in
+     * between keys of earlier batches, so the bulk loader must accept keys in any order, and merge values of equal
+     * keys, as a {@link SortingBulkLoader} does.
+     */
+    NativeLabelScanWriter initializeForRebuild( BulkLoader<LabelScanKey,LabelScanValue> bulkLoader )
+    {
+        initialize( null );
+        this.bulkLoader = bulkLoader;
+        return this;
+    }
+
     /**
      * Queues a {@link NodeLabelUpdate} to this writer for applying when batch gets full,
      * or when {@link #close() closing}.
@@ -245,7 +270,18 @@ class NativeLabelScanWriter implements LabelScanWriter
         if ( value.bits != 0 )
         {
             // There are changes in the current range, flush them
-            writer.merge( key, value, addition ? ADD_MERGER : REMOVE_MERGER );
+            if ( bulkLoader != null )
+            {
+                // Removals are no-ops when loading into an empty tree
+                if ( addition )
+                {
+                    bulkLoader.add( key, value );
+                }
+            }
+            else
+            {
+                writer.merge( key, value, addition ? ADD_MERGER : REMOVE_MERGER );
+            }
             // TODO: after a remove we could check if the tree value is empty and if so remove it from the index
             // hmm, or perhaps that could be a feature of ValueAmender?
             value.clear();
@@ -270,7 +306,15 @@ class NativeLabelScanWriter implements LabelScanWriter
         }
         finally
         {
-            writer.close();
+            if ( bulkLoader != null )
+            {
+                bulkLoader.close();
+                bulkLoader = null;
+            }
+            else
+            {
+                writer.close();
+            }
         }
     }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.storageengine.api.schema.IndexSample;
+import org.neo4j.storageengine.api.schema.IndexSampler;
+
+/**
+ * {@link IndexSampler} which scans all entries of a native schema index. Entries are ordered by value so
+ * number of unique values is simply the number of times the value changes during the scan.
+ *
+ * @param <KEY> type of {@link NativeSchemaKey}.
+ */
+class FullScanNonUniqueIndexSampler<KEY extends NativeSchemaKey> implements IndexSampler
+{
+    private final GBPTree<KEY,NativeSchemaValue> tree;
+    private final NativeSchemaIndexLayout<KEY> layout;
+
+    FullScanNonUniqueIndexSampler( GBPTree<KEY,NativeSchemaValue> tree, NativeSchemaIndexLayout<KEY> layout )
+    {
+        this.tree = tree;
+        this.layout = layout;
+    }
+
+    @Override
+    public IndexSample sampleIndex()
+    {
+        KEY lowest = layout.newKey();
+        lowest.initAsLowest();
+        KEY highest = layout.newKey();
+        highest.initAsHighest();
+        KEY prev = layout.newKey();
+        try ( RawCursor<Hit<KEY,NativeSchemaValue>,IOException> seek = tree.seek( lowest, highest ) )
+        {
+            long sampledValues = 0;
+            long uniqueValues = 0;
+
+            // Get the first one so that prev gets initialized
+            if ( seek.next() )
+            {
+                prev = layout.copyKey( seek.get().key(), prev );
+                sampledValues++;
+                uniqueValues++;
+
+                // Then do the rest
+                while ( seek.next() )
+                {
+                    Hit<KEY,NativeSchemaValue> hit = seek.get();
+                    if ( layout.compareValue( prev, hit.key() ) != 0 )
+                    {
+                        uniqueValues++;
+                        layout.copyKey( hit.key(), prev );
+                    }
+                    // else this is a duplicate of the previous one
+                    sampledValues++;
+                }
+            }
+            return new IndexSample( sampledValues, uniqueValues, sampledValues );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+}
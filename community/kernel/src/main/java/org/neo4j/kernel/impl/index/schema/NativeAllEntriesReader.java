@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.helpers.collection.BoundedIterable;
+import org.neo4j.helpers.collection.PrefetchingIterator;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Hit;
+
+/**
+ * {@link BoundedIterable} over entity ids of all entries in a native schema index, in value order.
+ *
+ * @param <KEY> type of {@link NativeSchemaKey}.
+ */
+class NativeAllEntriesReader<KEY extends NativeSchemaKey> implements BoundedIterable<Long>
+{
+    private final GBPTree<KEY,NativeSchemaValue> tree;
+    private final NativeSchemaIndexLayout<KEY> layout;
+    private final List<RawCursor<Hit<KEY,NativeSchemaValue>,IOException>> seekers = new ArrayList<>();
+
+    NativeAllEntriesReader( GBPTree<KEY,NativeSchemaValue> tree, NativeSchemaIndexLayout<KEY> layout )
+    {
+        this.tree = tree;
+        this.layout = layout;
+    }
+
+    @Override
+    public Iterator<Long> iterator()
+    {
+        KEY from = layout.newKey();
+        from.initAsLowest();
+        KEY to = layout.newKey();
+        to.initAsHighest();
+        RawCursor<Hit<KEY,NativeSchemaValue>,IOException> seeker;
+        try
+        {
+            seeker = tree.seek( from, to );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+        seekers.add( seeker );
+        return new PrefetchingIterator<Long>()
+        {
+            @Override
+            protected Long fetchNextOrNull()
+            {
+                try
+                {
+                    return seeker.next() ? seeker.get().key().getEntityId() : null;
+                }
+                catch ( IOException e )
+                {
+                    throw new UncheckedIOException( e );
+                }
+            }
+        };
+    }
+
+    @Override
+    public void close() throws Exception
+    {
+        for ( RawCursor<Hit<KEY,NativeSchemaValue>,IOException> seeker : seekers )
+        {
+            seeker.close();
+        }
+        seekers.clear();
+    }
+
+    @Override
+    public long maxCount()
+    {
+        return -1;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.function.Predicate;
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.index.internal.gbptree.BatchedSeekCursor;
+
+/**
+ * Wraps key/value results in a {@link PrimitiveLongIterator}. Hits are read in batches, one leaf
+ * at a time, using {@link BatchedSeekCursor#nextBatch(Object[], Object[])}. Keys can optionally be filtered,
+ * for queries which can't be fully expressed as a range of keys.
+ *
+ * @param <KEY> type of {@link NativeSchemaKey}.
+ */
+class NativeHitIterator<KEY extends NativeSchemaKey> extends PrimitiveLongCollections.PrimitiveLongBaseIterator
+{
+    static final int BATCH_SIZE = 256;
+
+    private final BatchedSeekCursor<KEY,NativeSchemaValue> seeker;
+    private final Collection<BatchedSeekCursor<KEY,NativeSchemaValue>> toRemoveFromOnClose;
+    private final Predicate<KEY> filter;
+    private final KEY[] keys;
+    private final NativeSchemaValue[] values;
+    private int batchSize;
+    private int batchPos;
+    private boolean closed;
+
+    @SuppressWarnings( "unchecked" )
+    NativeHitIterator( BatchedSeekCursor<KEY,NativeSchemaValue> seeker, NativeSchemaIndexLayout<KEY> layout,
+            Collection<BatchedSeekCursor<KEY,NativeSchemaValue>> toRemoveFromOnClose, Predicate<KEY> filter )
+    {
+        this.seeker = seeker;
+        this.toRemoveFromOnClose = toRemoveFromOnClose;
+        this.filter = filter;
+        this.keys = (KEY[]) new NativeSchemaKey[BATCH_SIZE];
+        this.values = new NativeSchemaValue[BATCH_SIZE];
+        for ( int i = 0; i < BATCH_SIZE; i++ )
+        {
+            keys[i] = layout.newKey();
+            values[i] = layout.newValue();
+        }
+    }
+
+    @Override
+    protected boolean fetchNext()
+    {
+        try
+        {
+            while ( true )
+            {
+                if ( batchPos == batchSize )
+                {
+                    batchPos = 0;
+                    batchSize = closed ? 0 : seeker.nextBatch( keys, values );
+                    if ( batchSize == 0 )
+                    {
+                        ensureCursorClosed();
+                        return false;
+                    }
+                }
+                KEY key = keys[batchPos++];
+                if ( filter == null || filter.test( key ) )
+                {
+                    return next( key.getEntityId() );
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    private void ensureCursorClosed() throws IOException
+    {
+        if ( !closed )
+        {
+            seeker.close();
+            toRemoveFromOnClose.remove( seeker );
+            closed = true;
+        }
+    }
+}
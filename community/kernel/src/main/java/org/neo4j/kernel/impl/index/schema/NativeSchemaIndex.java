@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Header;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
+import org.neo4j.kernel.api.exceptions.PropertyNotFoundException;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.PropertyAccessor;
+import org.neo4j.kernel.api.properties.Property;
+
+/**
+ * Common state and operations of the populator and accessor of a native schema index, i.e. the {@link GBPTree}
+ * holding the entries and the file it lives in.
+ *
+ * @param <KEY> type of {@link NativeSchemaKey}.
+ */
+class NativeSchemaIndex<KEY extends NativeSchemaKey>
+{
+    final PageCache pageCache;
+    final FileSystemAbstraction fileSystem;
+    final File storeFile;
+    final NativeSchemaIndexLayout<KEY> layout;
+
+    GBPTree<KEY,NativeSchemaValue> tree;
+
+    NativeSchemaIndex( PageCache pageCache, FileSystemAbstraction fileSystem, File storeFile,
+            NativeSchemaIndexLayout<KEY> layout )
+    {
+        this.pageCache = pageCache;
+        this.fileSystem = fileSystem;
+        this.storeFile = storeFile;
+        this.layout = layout;
+    }
+
+    void instantiateTree( Header.Reader headerReader ) throws IOException
+    {
+        fileSystem.mkdirs( storeFile.getParentFile() );
+        tree = new GBPTree<>( pageCache, storeFile, layout, 0, GBPTree.NO_MONITOR, headerReader );
+    }
+
+    void closeTree() throws IOException
+    {
+        if ( tree != null )
+        {
+            tree.close();
+            tree = null;
+        }
+    }
+
+    void deleteStoreFile() throws IOException
+    {
+        if ( fileSystem.fileExists( storeFile ) )
+        {
+            fileSystem.deleteFileOrThrow( storeFile );
+        }
+    }
+
+    /**
+     * Verifies that no two entities in this index have the same property value. Values which compare equal
+     * in the tree are verified against the actual property values using {@code propertyAccessor},
+     * since distinct values may be indexed the same, e.g. longs too large to be represented exactly as doubles.
+     *
+     * @param propertyAccessor {@link PropertyAccessor} for looking up actual property values.
+     * @param propertyKeyId id of the indexed property.
+     * @throws IndexEntryConflictException if two entities have the same property value.
+     * @throws IOException on error reading the tree.
+     */
+    void verifyUniqueness( PropertyAccessor propertyAccessor, int propertyKeyId )
+            throws IndexEntryConflictException, IOException
+    {
+        KEY lowest = layout.newKey();
+        lowest.initAsLowest();
+        KEY highest = layout.newKey();
+        highest.initAsHighest();
+        KEY previous = layout.newKey();
+        boolean first = true;
+        List<Long> sameValueEntityIds = new ArrayList<>();
+        try ( RawCursor<Hit<KEY,NativeSchemaValue>,IOException> seek = tree.seek( lowest, highest ) )
+        {
+            while ( seek.next() )
+            {
+                KEY key = seek.get().key();
+                if ( first || layout.compareValue( previous, key ) != 0 )
+                {
+                    sameValueEntityIds.clear();
+                }
+                else
+                {
+                    verifyNoneEqual( propertyAccessor, propertyKeyId, sameValueEntityIds, key.getEntityId() );
+                }
+                sameValueEntityIds.add( key.getEntityId() );
+                layout.copyKey( key, previous );
+                first = false;
+            }
+        }
+    }
+
+    private static void verifyNoneEqual( PropertyAccessor propertyAccessor, int propertyKeyId,
+            List<Long> existingEntityIds, long addedEntityId ) throws IndexEntryConflictException
+    {
+        try
+        {
+            Property added = propertyAccessor.getProperty( addedEntityId, propertyKeyId );
+            for ( long existingEntityId : existingEntityIds )
+            {
+                Object existingValue = propertyAccessor.getProperty( existingEntityId, propertyKeyId ).value();
+                if ( added.valueEquals( existingValue ) )
+                {
+                    throw new IndexEntryConflictException( existingEntityId, addedEntityId, existingValue );
+                }
+            }
+        }
+        catch ( EntityNotFoundException | PropertyNotFoundException e )
+        {
+            throw new IllegalStateException( "Indexed node should exist and have the indexed property.", e );
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.helpers.collection.BoundedIterable;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexAccessor;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.index.PropertyAccessor;
+import org.neo4j.kernel.api.schema_new.index.NewIndexDescriptor;
+import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
+import org.neo4j.storageengine.api.schema.IndexReader;
+
+import static org.neo4j.helpers.collection.Iterators.asResourceIterator;
+import static org.neo4j.helpers.collection.Iterators.iterator;
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER;
+
+/**
+ * {@link IndexAccessor} for an online native schema index.
+ *
+ * @param <KEY> type of {@link NativeSchemaKey}.
+ */
+abstract class NativeSchemaIndexAccessor<KEY extends NativeSchemaKey> extends NativeSchemaIndex<KEY>
+        implements IndexAccessor
+{
+    final NewIndexDescriptor descriptor;
+
+    NativeSchemaIndexAccessor( PageCache pageCache, FileSystemAbstraction fileSystem, File storeFile,
+            NativeSchemaIndexLayout<KEY> layout, NewIndexDescriptor descriptor ) throws IOException
+    {
+        super( pageCache, fileSystem, storeFile, layout );
+        this.descriptor = descriptor;
+        instantiateTree( NO_HEADER );
+        // There's no way of knowing whether or not recovery is about to take place, since recovered updates
+        // are applied in the same way as forced online updates. Preparing for recovery after a clean shutdown
+        // is harmless though, so do it unconditionally before any updates are made.
+        tree.prepareForRecovery();
+    }
+
+    @Override
+    public void drop() throws IOException
+    {
+        closeTree();
+        deleteStoreFile();
+    }
+
+    @Override
+    public IndexUpdater newUpdater( IndexUpdateMode mode )
+    {
+        return new NativeSchemaIndexUpdater<>( tree, layout );
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        // Nothing to flush, changes are made directly in the page cache
+    }
+
+    @Override
+    public void force() throws IOException
+    {
+        tree.checkpoint( IOLimiter.unlimited() );
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        closeTree();
+    }
+
+    @Override
+    public abstract IndexReader newReader();
+
+    @Override
+    public BoundedIterable<Long> newAllEntriesReader()
+    {
+        return new NativeAllEntriesReader<>( tree, layout );
+    }
+
+    @Override
+    public ResourceIterator<File> snapshotFiles() throws IOException
+    {
+        return asResourceIterator( iterator( storeFile ) );
+    }
+
+    @Override
+    public void verifyDeferredConstraints( PropertyAccessor propertyAccessor )
+            throws IndexEntryConflictException, IOException
+    {
+        if ( descriptor.type() == NewIndexDescriptor.Type.UNIQUE )
+        {
+            verifyUniqueness( propertyAccessor, descriptor.schema().getPropertyId() );
+        }
+    }
+}
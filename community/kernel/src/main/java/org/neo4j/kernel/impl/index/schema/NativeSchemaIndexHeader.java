@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Header;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.api.index.InternalIndexState;
+
+/**
+ * Reads and writes the {@link GBPTree} header of a native schema index. The header contains the state of the
+ * index, i.e. populating, online or failed, and in the failed case also the failure message.
+ * An empty header means that the index hasn't been marked as online or failed yet, i.e. it's still populating.
+ */
+class NativeSchemaIndexHeader implements Header.Reader
+{
+    static final byte BYTE_FAILED = 0;
+    static final byte BYTE_ONLINE = 1;
+    static final byte BYTE_POPULATING = 2;
+
+    /**
+     * Failure messages are typically stack traces, which can be longer than what fits in a state page.
+     * Longer messages are truncated.
+     */
+    private static final int MAX_FAILURE_MESSAGE_BYTES = 2048;
+
+    static final Consumer<PageCursor> POPULATING = cursor -> cursor.putByte( BYTE_POPULATING );
+    static final Consumer<PageCursor> ONLINE = cursor -> cursor.putByte( BYTE_ONLINE );
+
+    private byte state;
+    private String failureMessage;
+
+    static Consumer<PageCursor> failed( String failureMessage )
+    {
+        byte[] messageBytes = failureMessage.getBytes( StandardCharsets.UTF_8 );
+        byte[] bytes = messageBytes.length > MAX_FAILURE_MESSAGE_BYTES
+                       ? Arrays.copyOf( messageBytes, MAX_FAILURE_MESSAGE_BYTES ) : messageBytes;
+        return cursor ->
+        {
+            cursor.putByte( BYTE_FAILED );
+            cursor.putShort( (short) bytes.length );
+            cursor.putBytes( bytes );
+        };
+    }
+
+    @Override
+    public void read( PageCursor from, int length )
+    {
+        failureMessage = null;
+        if ( length == 0 )
+        {
+            state = BYTE_POPULATING;
+            return;
+        }
+
+        state = from.getByte();
+        if ( state == BYTE_FAILED )
+        {
+            short messageLength = from.getShort();
+            if ( messageLength < 0 || messageLength > length )
+            {
+                // Inconsistent read, the page cursor will ask for a retry
+                return;
+            }
+            byte[] bytes = new byte[messageLength];
+            from.getBytes( bytes );
+            failureMessage = new String( bytes, StandardCharsets.UTF_8 );
+        }
+    }
+
+    InternalIndexState state()
+    {
+        switch ( state )
+        {
+        case BYTE_FAILED:
+            return InternalIndexState.FAILED;
+        case BYTE_ONLINE:
+            return InternalIndexState.ONLINE;
+        case BYTE_POPULATING:
+            return InternalIndexState.POPULATING;
+        default:
+            throw new IllegalStateException( "Unexpected initial state byte value " + state );
+        }
+    }
+
+    String failureMessage()
+    {
+        return failureMessage;
+    }
+}
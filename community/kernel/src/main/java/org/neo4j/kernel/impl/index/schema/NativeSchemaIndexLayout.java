@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * {@link Layout} for native schema indexes, i.e. {@link NativeSchemaKey keys} ordered by value first and
+ * entity id second, with {@link NativeSchemaValue empty values}.
+ *
+ * @param <KEY> type of {@link NativeSchemaKey}.
+ */
+abstract class NativeSchemaIndexLayout<KEY extends NativeSchemaKey> extends Layout.Adapter<KEY,NativeSchemaValue>
+{
+    @Override
+    public NativeSchemaValue newValue()
+    {
+        return NativeSchemaValue.INSTANCE;
+    }
+
+    @Override
+    public int valueSize()
+    {
+        return NativeSchemaValue.SIZE;
+    }
+
+    @Override
+    public void writeValue( PageCursor cursor, NativeSchemaValue value )
+    {
+    }
+
+    @Override
+    public void readValue( PageCursor cursor, NativeSchemaValue into )
+    {
+    }
+
+    @Override
+    public int compare( KEY o1, KEY o2 )
+    {
+        int valueComparison = compareValue( o1, o2 );
+        return valueComparison != 0 ? valueComparison : Long.compare( o1.getEntityId(), o2.getEntityId() );
+    }
+
+    /**
+     * Compares only the value part of two keys, ignoring entity id.
+     *
+     * @return negative, zero or positive value, like {@link java.util.Comparator#compare(Object, Object)}.
+     */
+    abstract int compareValue( KEY o1, KEY o2 );
+}
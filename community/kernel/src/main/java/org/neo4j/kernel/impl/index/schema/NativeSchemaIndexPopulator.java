@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.SortingBulkLoader;
+import org.neo4j.index.internal.gbptree.ValueMergers;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.index.IndexPopulator;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.index.PropertyAccessor;
+import org.neo4j.kernel.impl.api.index.UpdateMode;
+import org.neo4j.storageengine.api.schema.IndexSample;
+
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER;
+
+/**
+ * {@link IndexPopulator} backed by a {@link GBPTree}. State of the index, i.e. populating, online or failed,
+ * is kept in the header of the tree, see {@link NativeSchemaIndexHeader}.
+ * <p>
+ * Batches of updates may be {@link #add(Collection) added} concurrently with each other and with
+ * {@link #newPopulatingUpdater(PropertyAccessor) populating updates}, but the tree only has a single writer,
+ * so all writes are serialized on this populator.
+ * <p>
+ * Entries added by the scan are given to a {@link SortingBulkLoader}, which builds the tree bottom-up in one go
+ * when population is done. Any other updates, i.e. populating updates and scanned changes or removals, are kept
+ * until then and applied to the loaded tree, in the order they came.
+ * <p>
+ * Sampling is done by scanning the whole tree after population, rather than sampling updates as they come.
+ * The scan is cheap since entries are ordered by value and the result is accurate, also with respect to
+ * populating updates.
+ *
+ * @param <KEY> type of {@link NativeSchemaKey}.
+ */
+abstract class NativeSchemaIndexPopulator<KEY extends NativeSchemaKey> extends NativeSchemaIndex<KEY>
+        implements IndexPopulator
+{
+    /**
+     * Number of entries the {@link SortingBulkLoader} sorts in memory at a time.
+     */
+    private static final int SORT_BUFFER_SIZE = 100_000;
+
+    private final KEY treeKey;
+    private SortingBulkLoader<KEY,NativeSchemaValue> bulkLoader;
+    private final List<IndexEntryUpdate> deferredUpdates = new ArrayList<>();
+    private String failureMessage;
+    private boolean dropped;
+
+    NativeSchemaIndexPopulator( PageCache pageCache, FileSystemAbstraction fileSystem, File storeFile,
+            NativeSchemaIndexLayout<KEY> layout )
+    {
+        super( pageCache, fileSystem, storeFile, layout );
+        this.treeKey = layout.newKey();
+    }
+
+    @Override
+    public synchronized void create() throws IOException
+    {
+        deleteStoreFile();
+        instantiateTree( NO_HEADER );
+        tree.checkpoint( IOLimiter.unlimited(), NativeSchemaIndexHeader.POPULATING );
+        bulkLoader = new SortingBulkLoader<>( tree, layout, ValueMergers.overwrite(), pageCache,
+                new File( storeFile.getParentFile(), storeFile.getName() + ".sort" ), SORT_BUFFER_SIZE );
+    }
+
+    @Override
+    public synchronized void drop() throws IOException
+    {
+        try
+        {
+            discardBulkLoad();
+            closeTree();
+            deleteStoreFile();
+        }
+        finally
+        {
+            dropped = true;
+        }
+    }
+
+    @Override
+    public synchronized void add( Collection<IndexEntryUpdate> updates ) throws IndexEntryConflictException, IOException
+    {
+        if ( bulkLoader == null )
+        {
+            applyUpdates( updates );
+            return;
+        }
+
+        for ( IndexEntryUpdate update : updates )
+        {
+            if ( update.updateMode() == UpdateMode.ADDED )
+            {
+                treeKey.from( update.getEntityId(), update.values() );
+                bulkLoader.add( treeKey, NativeSchemaValue.INSTANCE );
+            }
+            else
+            {
+                deferredUpdates.add( update );
+            }
+        }
+    }
+
+    @Override
+    public IndexUpdater newPopulatingUpdater( PropertyAccessor accessor ) throws IOException
+    {
+        return new IndexUpdater()
+        {
+            private final List<IndexEntryUpdate> updates = new ArrayList<>();
+
+            @Override
+            public void process( IndexEntryUpdate update ) throws IOException, IndexEntryConflictException
+            {
+                updates.add( update );
+            }
+
+            @Override
+            public void close() throws IOException, IndexEntryConflictException
+            {
+                applyOrDeferUpdates( updates );
+            }
+
+            @Override
+            public void remove( PrimitiveLongSet nodeIds ) throws IOException
+            {
+                throw new UnsupportedOperationException( "Should not remove() from populating index." );
+            }
+        };
+    }
+
+    private synchronized void applyOrDeferUpdates( Collection<IndexEntryUpdate> updates ) throws IOException
+    {
+        if ( bulkLoader != null )
+        {
+            deferredUpdates.addAll( updates );
+        }
+        else
+        {
+            applyUpdates( updates );
+        }
+    }
+
+    /**
+     * Loads the entries added so far into the tree and then applies the deferred updates, so that the tree
+     * reflects everything added to this populator. Later updates are applied directly to the tree.
+     */
+    synchronized void finishBulkLoad() throws IOException
+    {
+        if ( bulkLoader != null )
+        {
+            try
+            {
+                bulkLoader.close();
+            }
+            finally
+            {
+                bulkLoader = null;
+            }
+            applyUpdates( deferredUpdates );
+            deferredUpdates.clear();
+        }
+    }
+
+    private void discardBulkLoad()
+    {
+        if ( bulkLoader != null )
+        {
+            bulkLoader.discard();
+            bulkLoader = null;
+            deferredUpdates.clear();
+        }
+    }
+
+    private synchronized void applyUpdates( Collection<IndexEntryUpdate> updates ) throws IOException
+    {
+        try ( Writer<KEY,NativeSchemaValue> writer = tree.writer() )
+        {
+            for ( IndexEntryUpdate update : updates )
+            {
+                NativeSchemaIndexUpdater.processUpdate( treeKey, update, writer );
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close( boolean populationCompletedSuccessfully ) throws IOException
+    {
+        if ( dropped )
+        {
+            return;
+        }
+
+        if ( populationCompletedSuccessfully && failureMessage != null )
+        {
+            throw new IllegalStateException( "Population cannot complete successfully after being marked as " +
+                    "failed: " + failureMessage );
+        }
+
+        if ( populationCompletedSuccessfully )
+        {
+            finishBulkLoad();
+            tree.close( NativeSchemaIndexHeader.ONLINE );
+        }
+        else if ( failureMessage != null )
+        {
+            discardBulkLoad();
+            if ( tree == null )
+            {
+                // Failed already before or during creation, make sure there's a tree to keep the failure in
+                instantiateTree( NO_HEADER );
+            }
+            tree.close( NativeSchemaIndexHeader.failed( failureMessage ) );
+        }
+        else if ( tree != null )
+        {
+            discardBulkLoad();
+            tree.close();
+        }
+        tree = null;
+    }
+
+    @Override
+    public void includeSample( IndexEntryUpdate update )
+    {
+        // Sampled by scanning the tree in sampleResult()
+    }
+
+    @Override
+    public void configureSampling( boolean onlineSampling )
+    {
+        // Sampled by scanning the tree in sampleResult()
+    }
+
+    @Override
+    public synchronized IndexSample sampleResult()
+    {
+        try
+        {
+            finishBulkLoad();
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+        return new FullScanNonUniqueIndexSampler<>( tree, layout ).sampleIndex();
+    }
+
+    @Override
+    public synchronized void markAsFailed( String failure ) throws IOException
+    {
+        failureMessage = failure;
+    }
+}
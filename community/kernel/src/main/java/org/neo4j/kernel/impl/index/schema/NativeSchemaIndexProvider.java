@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.index.IndexAccessor;
+import org.neo4j.kernel.api.index.IndexPopulator;
+import org.neo4j.kernel.api.index.InternalIndexState;
+import org.neo4j.kernel.api.index.SchemaIndexProvider;
+import org.neo4j.kernel.api.schema_new.index.NewIndexDescriptor;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.kernel.impl.api.scan.LabelScanStoreProvider;
+import org.neo4j.kernel.impl.storemigration.StoreMigrationParticipant;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.LogProvider;
+
+/**
+ * Base class for schema index providers for native indexes backed by e.g. {@link GBPTree}, each able to index
+ * one type of values, decided by its {@link NativeSchemaIndexLayout layout}.
+ * Every index lives in its own file, {@code <schema index directory>/<index id>/index-<index id>},
+ * and its state, i.e. populating, online or failed, is kept in the header of the tree.
+ *
+ * @param <KEY> type of {@link NativeSchemaKey}.
+ * @param <LAYOUT> type of {@link NativeSchemaIndexLayout} used for the indexes of this provider.
+ */
+abstract class NativeSchemaIndexProvider<KEY extends NativeSchemaKey,LAYOUT extends NativeSchemaIndexLayout<KEY>>
+        extends SchemaIndexProvider
+{
+    final PageCache pageCache;
+    final FileSystemAbstraction fileSystem;
+    private final File nativeSchemaIndexBaseDir;
+    private final Log log;
+
+    NativeSchemaIndexProvider( Descriptor descriptor, int priority, PageCache pageCache,
+            FileSystemAbstraction fileSystem, File storeDir, LogProvider logging )
+    {
+        super( descriptor, priority );
+        this.pageCache = pageCache;
+        this.fileSystem = fileSystem;
+        this.nativeSchemaIndexBaseDir = getSchemaIndexStoreDirectory( storeDir );
+        this.log = logging.getLog( getClass() );
+    }
+
+    @Override
+    public IndexPopulator getPopulator( long indexId, NewIndexDescriptor descriptor,
+            IndexSamplingConfig samplingConfig )
+    {
+        File storeFile = nativeIndexFileFromIndexId( indexId );
+        switch ( descriptor.type() )
+        {
+        case GENERAL:
+            return new NativeNonUniqueSchemaIndexPopulator<>( pageCache, fileSystem, storeFile,
+                    layout( descriptor ) );
+        case UNIQUE:
+            return new NativeUniqueSchemaIndexPopulator<>( pageCache, fileSystem, storeFile,
+                    layout( descriptor ), descriptor.schema().getPropertyId() );
+        default:
+            throw new UnsupportedOperationException( "Can not create index populator of type " +
+                    descriptor.type() );
+        }
+    }
+
+    @Override
+    public IndexAccessor getOnlineAccessor( long indexId, NewIndexDescriptor descriptor,
+            IndexSamplingConfig samplingConfig ) throws IOException
+    {
+        File storeFile = nativeIndexFileFromIndexId( indexId );
+        return newIndexAccessor( storeFile, layout( descriptor ), descriptor );
+    }
+
+    /**
+     * @return layout for the index described by {@code descriptor}.
+     */
+    abstract LAYOUT layout( NewIndexDescriptor descriptor );
+
+    /**
+     * @return accessor for an online index living in {@code storeFile}.
+     */
+    abstract IndexAccessor newIndexAccessor( File storeFile, LAYOUT layout, NewIndexDescriptor descriptor )
+            throws IOException;
+
+    @Override
+    public String getPopulationFailure( long indexId ) throws IllegalStateException
+    {
+        try
+        {
+            String failure = readHeader( indexId ).failureMessage();
+            if ( failure == null )
+            {
+                throw new IllegalStateException( "Index " + indexId + " isn't failed" );
+            }
+            return failure;
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    @Override
+    public InternalIndexState getInitialState( long indexId )
+    {
+        try
+        {
+            return readHeader( indexId ).state();
+        }
+        catch ( NoSuchFileException e )
+        {
+            // Index was created, but population never got as far as to create the file
+            return InternalIndexState.POPULATING;
+        }
+        catch ( IOException e )
+        {
+            log.error( "Failed to open index:" + indexId + ", requesting re-population.", e );
+            return InternalIndexState.POPULATING;
+        }
+    }
+
+    @Override
+    public StoreMigrationParticipant storeMigrationParticipant( FileSystemAbstraction fs, PageCache pageCache,
+            LabelScanStoreProvider labelScanStoreProvider )
+    {
+        // Since this native provider is a new one, there's no need for migration on this level.
+        // Migration should happen in the combined layer for the time being.
+        return StoreMigrationParticipant.NOT_PARTICIPATING;
+    }
+
+    private NativeSchemaIndexHeader readHeader( long indexId ) throws IOException
+    {
+        NativeSchemaIndexHeader header = new NativeSchemaIndexHeader();
+        GBPTree.readHeader( pageCache, nativeIndexFileFromIndexId( indexId ), header );
+        return header;
+    }
+
+    private File nativeIndexFileFromIndexId( long indexId )
+    {
+        return new File( new File( nativeSchemaIndexBaseDir, String.valueOf( indexId ) ), indexFileName( indexId ) );
+    }
+
+    private static String indexFileName( long indexId )
+    {
+        return "index-" + indexId;
+    }
+}
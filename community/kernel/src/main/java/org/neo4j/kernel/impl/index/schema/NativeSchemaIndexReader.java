@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.BatchedSeekCursor;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.kernel.api.exceptions.index.IndexNotApplicableKernelException;
+import org.neo4j.kernel.api.schema_new.IndexQuery;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.storageengine.api.schema.IndexSampler;
+
+/**
+ * {@link IndexReader} for native schema indexes. Each {@link PrimitiveLongIterator} returned from
+ * {@link #query(IndexQuery...)} is backed by a seek cursor directly from the tree, which is closed when
+ * the iterator is exhausted or when this reader is {@link #close() closed}.
+ *
+ * @param <KEY> type of {@link NativeSchemaKey}.
+ */
+abstract class NativeSchemaIndexReader<KEY extends NativeSchemaKey> implements IndexReader
+{
+    final GBPTree<KEY,NativeSchemaValue> tree;
+    final NativeSchemaIndexLayout<KEY> layout;
+    private final Set<BatchedSeekCursor<KEY,NativeSchemaValue>> openSeekers;
+
+    NativeSchemaIndexReader( GBPTree<KEY,NativeSchemaValue> tree, NativeSchemaIndexLayout<KEY> layout )
+    {
+        this.tree = tree;
+        this.layout = layout;
+        this.openSeekers = new HashSet<>();
+    }
+
+    @Override
+    public void close()
+    {
+        ensureOpenSeekersClosed();
+    }
+
+    @Override
+    public IndexSampler createSampler()
+    {
+        return new FullScanNonUniqueIndexSampler<>( tree, layout );
+    }
+
+    @Override
+    public long countIndexedNodes( long nodeId, Object... propertyValues )
+    {
+        KEY treeKeyFrom = layout.newKey();
+        KEY treeKeyTo = layout.newKey();
+        if ( !initializeRangeForEntity( treeKeyFrom, treeKeyTo, nodeId, propertyValues ) )
+        {
+            return 0;
+        }
+        try ( RawCursor<Hit<KEY,NativeSchemaValue>,IOException> seeker = tree.seek( treeKeyFrom, treeKeyTo ) )
+        {
+            long count = 0;
+            while ( seeker.next() )
+            {
+                if ( seeker.get().key().getEntityId() == nodeId )
+                {
+                    count++;
+                }
+            }
+            return count;
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    @Override
+    public PrimitiveLongIterator query( IndexQuery... predicates ) throws IndexNotApplicableKernelException
+    {
+        validateQuery( predicates );
+
+        KEY treeKeyFrom = layout.newKey();
+        KEY treeKeyTo = layout.newKey();
+        // A range where from is greater than to would otherwise become a backwards seek
+        if ( !initializeRangeForQuery( treeKeyFrom, treeKeyTo, predicates ) ||
+             layout.compare( treeKeyFrom, treeKeyTo ) > 0 )
+        {
+            return PrimitiveLongCollections.emptyIterator();
+        }
+        return startSeekForInitializedRange( treeKeyFrom, treeKeyTo, filterForQuery( predicates ) );
+    }
+
+    /**
+     * Throws if the predicates can never be answered by this index, e.g. composite queries.
+     */
+    abstract void validateQuery( IndexQuery... predicates ) throws IndexNotApplicableKernelException;
+
+    /**
+     * Initializes {@code treeKeyFrom} and {@code treeKeyTo} to the range of keys matching the predicates.
+     *
+     * @return {@code false} if no entries in this index can match the predicates, otherwise {@code true}.
+     */
+    abstract boolean initializeRangeForQuery( KEY treeKeyFrom, KEY treeKeyTo, IndexQuery[] predicates );
+
+    /**
+     * Predicates which can't be expressed as a range of keys, e.g. string suffix, are answered by seeking a wider
+     * range and filtering the keys in it.
+     *
+     * @return filter for keys in the range initialized by {@link #initializeRangeForQuery(NativeSchemaKey,
+     * NativeSchemaKey, IndexQuery[])}, or {@code null} if all keys in that range match the predicates.
+     */
+    Predicate<KEY> filterForQuery( IndexQuery[] predicates )
+    {
+        return null;
+    }
+
+    /**
+     * Initializes {@code treeKeyFrom} and {@code treeKeyTo} to the range of keys of the given entity and values.
+     *
+     * @return {@code false} if the values can't be in this index, otherwise {@code true}.
+     */
+    abstract boolean initializeRangeForEntity( KEY treeKeyFrom, KEY treeKeyTo, long entityId, Object[] values );
+
+    private PrimitiveLongIterator startSeekForInitializedRange( KEY treeKeyFrom, KEY treeKeyTo, Predicate<KEY> filter )
+    {
+        try
+        {
+            BatchedSeekCursor<KEY,NativeSchemaValue> seeker = tree.batchedSeek( treeKeyFrom, treeKeyTo );
+            openSeekers.add( seeker );
+            return new NativeHitIterator<>( seeker, layout, openSeekers, filter );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    private void ensureOpenSeekersClosed()
+    {
+        try
+        {
+            for ( BatchedSeekCursor<KEY,NativeSchemaValue> seeker : openSeekers )
+            {
+                seeker.close();
+            }
+            openSeekers.clear();
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+}
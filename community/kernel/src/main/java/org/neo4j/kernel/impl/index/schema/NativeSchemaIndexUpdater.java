@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.index.IndexUpdater;
+
+/**
+ * {@link IndexUpdater} for native schema indexes. The {@link Writer} of the tree is acquired when the first
+ * update is processed and released on {@link #close()}, since a {@link GBPTree} only allows one writer at a time.
+ *
+ * @param <KEY> type of {@link NativeSchemaKey}.
+ */
+class NativeSchemaIndexUpdater<KEY extends NativeSchemaKey> implements IndexUpdater
+{
+    private final GBPTree<KEY,NativeSchemaValue> tree;
+    private final NativeSchemaIndexLayout<KEY> layout;
+    private final KEY treeKey;
+    private Writer<KEY,NativeSchemaValue> writer;
+    private boolean closed;
+
+    NativeSchemaIndexUpdater( GBPTree<KEY,NativeSchemaValue> tree, NativeSchemaIndexLayout<KEY> layout )
+    {
+        this.tree = tree;
+        this.layout = layout;
+        this.treeKey = layout.newKey();
+    }
+
+    @Override
+    public void process( IndexEntryUpdate update ) throws IOException
+    {
+        assertOpen();
+        if ( writer == null )
+        {
+            writer = tree.writer();
+        }
+        processUpdate( treeKey, update, writer );
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        closed = true;
+        if ( writer != null )
+        {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    /**
+     * Removes all entries of the given entities, regardless of value. Since entries are ordered by value
+     * this requires a scan of the whole tree, which is fine since this is only used during recovery.
+     */
+    @Override
+    public void remove( PrimitiveLongSet nodeIds ) throws IOException
+    {
+        assertOpen();
+        List<KEY> toRemove = new ArrayList<>();
+        KEY lowest = layout.newKey();
+        lowest.initAsLowest();
+        KEY highest = layout.newKey();
+        highest.initAsHighest();
+        try ( RawCursor<Hit<KEY,NativeSchemaValue>,IOException> seek = tree.seek( lowest, highest ) )
+        {
+            while ( seek.next() )
+            {
+                KEY key = seek.get().key();
+                if ( nodeIds.contains( key.getEntityId() ) )
+                {
+                    toRemove.add( layout.copyKey( key, layout.newKey() ) );
+                }
+            }
+        }
+
+        if ( !toRemove.isEmpty() )
+        {
+            boolean ownWriter = writer == null;
+            Writer<KEY,NativeSchemaValue> removeWriter = ownWriter ? tree.writer() : writer;
+            try
+            {
+                for ( KEY key : toRemove )
+                {
+                    removeWriter.remove( key );
+                }
+            }
+            finally
+            {
+                if ( ownWriter )
+                {
+                    removeWriter.close();
+                }
+            }
+        }
+    }
+
+    private void assertOpen()
+    {
+        if ( closed )
+        {
+            throw new IllegalStateException( "Updater has been closed" );
+        }
+    }
+
+    static <KEY extends NativeSchemaKey> void processUpdate( KEY treeKey, IndexEntryUpdate update,
+            Writer<KEY,NativeSchemaValue> writer ) throws IOException
+    {
+        switch ( update.updateMode() )
+        {
+        case ADDED:
+            processAdd( treeKey, update, writer );
+            break;
+        case CHANGED:
+            // Remove old entry
+            treeKey.from( update.getEntityId(), update.beforeValues() );
+            writer.remove( treeKey );
+            // Insert new entry
+            processAdd( treeKey, update, writer );
+            break;
+        case REMOVED:
+            treeKey.from( update.getEntityId(), update.values() );
+            writer.remove( treeKey );
+            break;
+        default:
+            throw new IllegalArgumentException( "Unknown update mode " + update.updateMode() );
+        }
+    }
+
+    static <KEY extends NativeSchemaKey> void processAdd( KEY treeKey, IndexEntryUpdate update,
+            Writer<KEY,NativeSchemaValue> writer ) throws IOException
+    {
+        treeKey.from( update.getEntityId(), update.values() );
+        writer.put( treeKey, NativeSchemaValue.INSTANCE );
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+/**
+ * Key in a native schema index, i.e. a {@link org.neo4j.index.internal.gbptree.GBPTree} backed schema index.
+ * A key is a combination of indexed property value(s) and entity id, such that entries are ordered by
+ * value first and entity id second, allowing the same value to be indexed for many entities.
+ */
+interface NativeSchemaKey
+{
+    /**
+     * @return entity id of this key.
+     */
+    long getEntityId();
+
+    /**
+     * Sets this key to contain {@code entityId} and {@code values}.
+     *
+     * @param entityId entity id.
+     * @param values property values, one per indexed property.
+     * @throws IllegalArgumentException if the values aren't supported by this key type.
+     */
+    void from( long entityId, Object[] values );
+
+    /**
+     * Initializes this key to be the lowest possible key, sorting before all other keys.
+     */
+    void initAsLowest();
+
+    /**
+     * Initializes this key to be the highest possible key, sorting after all other keys.
+     */
+    void initAsHighest();
+
+    /**
+     * @return the property value(s) of this key, as a human readable string.
+     */
+    String propertiesAsString();
+}
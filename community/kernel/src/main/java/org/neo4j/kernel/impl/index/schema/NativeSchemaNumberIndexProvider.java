@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.index.IndexAccessor;
+import org.neo4j.kernel.api.schema_new.index.NewIndexDescriptor;
+import org.neo4j.logging.LogProvider;
+
+/**
+ * Schema index provider for native indexes backed by e.g. {@link GBPTree}, able to index numbers.
+ * <p>
+ * Values other than numbers are not accepted, which is why this provider is typically used in combination
+ * with other providers, see {@link org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider}.
+ */
+public class NativeSchemaNumberIndexProvider extends NativeSchemaIndexProvider<SchemaNumberKey,NumberLayout>
+{
+    public static final String KEY = "native";
+    public static final Descriptor NATIVE_PROVIDER_DESCRIPTOR = new Descriptor( KEY, "1.0" );
+
+    public NativeSchemaNumberIndexProvider( PageCache pageCache, FileSystemAbstraction fileSystem, File storeDir,
+            LogProvider logging )
+    {
+        super( NATIVE_PROVIDER_DESCRIPTOR, 0, pageCache, fileSystem, storeDir, logging );
+    }
+
+    @Override
+    NumberLayout layout( NewIndexDescriptor descriptor )
+    {
+        return new NumberLayout( descriptor.type() == NewIndexDescriptor.Type.UNIQUE );
+    }
+
+    @Override
+    IndexAccessor newIndexAccessor( File storeFile, NumberLayout layout, NewIndexDescriptor descriptor )
+            throws IOException
+    {
+        return new NumberSchemaIndexAccessor( pageCache, fileSystem, storeFile, layout, descriptor );
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.PropertyAccessor;
+
+/**
+ * {@link NativeSchemaIndexPopulator} which verifies that no two entities have the same value,
+ * once population has completed, in {@link #verifyDeferredConstraints(PropertyAccessor)}.
+ */
+class NativeUniqueSchemaIndexPopulator<KEY extends NativeSchemaKey> extends NativeSchemaIndexPopulator<KEY>
+{
+    private final int propertyKeyId;
+
+    NativeUniqueSchemaIndexPopulator( PageCache pageCache, FileSystemAbstraction fileSystem, File storeFile,
+            NativeSchemaIndexLayout<KEY> layout, int propertyKeyId )
+    {
+        super( pageCache, fileSystem, storeFile, layout );
+        this.propertyKeyId = propertyKeyId;
+    }
+
+    @Override
+    public synchronized void verifyDeferredConstraints( PropertyAccessor propertyAccessor )
+            throws IndexEntryConflictException, IOException
+    {
+        finishBulkLoad();
+        verifyUniqueness( propertyAccessor, propertyKeyId );
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * {@link Layout} for numbers, used by both unique and non-unique number indexes.
+ */
+class NumberLayout extends NativeSchemaIndexLayout<SchemaNumberKey>
+{
+    private static final String IDENTIFIER_NAME = "NUM";
+
+    private final boolean unique;
+
+    NumberLayout( boolean unique )
+    {
+        this.unique = unique;
+    }
+
+    @Override
+    public SchemaNumberKey newKey()
+    {
+        return new SchemaNumberKey();
+    }
+
+    @Override
+    public SchemaNumberKey copyKey( SchemaNumberKey key, SchemaNumberKey into )
+    {
+        into.value = key.value;
+        into.entityId = key.entityId;
+        return into;
+    }
+
+    @Override
+    public int keySize()
+    {
+        return SchemaNumberKey.SIZE;
+    }
+
+    @Override
+    public void writeKey( PageCursor cursor, SchemaNumberKey key )
+    {
+        cursor.putLong( Double.doubleToRawLongBits( key.value ) );
+        cursor.putLong( key.entityId );
+    }
+
+    @Override
+    public void readKey( PageCursor cursor, SchemaNumberKey into )
+    {
+        into.value = Double.longBitsToDouble( cursor.getLong() );
+        into.entityId = cursor.getLong();
+    }
+
+    @Override
+    int compareValue( SchemaNumberKey o1, SchemaNumberKey o2 )
+    {
+        return Double.compare( o1.value, o2.value );
+    }
+
+    @Override
+    public long identifier()
+    {
+        // Unique and non-unique indexes are stored the same way, but shouldn't be opened as one another
+        return Layout.namedIdentifier( IDENTIFIER_NAME, unique ? 1 : 0 );
+    }
+
+    @Override
+    public int majorVersion()
+    {
+        return 0;
+    }
+
+    @Override
+    public int minorVersion()
+    {
+        return 1;
+    }
+}
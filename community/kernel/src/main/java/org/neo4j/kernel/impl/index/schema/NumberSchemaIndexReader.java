@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.util.Arrays;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.kernel.api.exceptions.index.IndexNotApplicableKernelException;
+import org.neo4j.kernel.api.schema_new.IndexQuery;
+import org.neo4j.kernel.api.schema_new.IndexQuery.ExactPredicate;
+import org.neo4j.kernel.api.schema_new.IndexQuery.NumberRangePredicate;
+
+/**
+ * {@link NativeSchemaIndexReader} for number indexes. Only number values are indexed, so queries for
+ * any other type of value, e.g. string predicates, doesn't match anything in this index.
+ */
+class NumberSchemaIndexReader extends NativeSchemaIndexReader<SchemaNumberKey>
+{
+    NumberSchemaIndexReader( GBPTree<SchemaNumberKey,NativeSchemaValue> tree, NumberLayout layout )
+    {
+        super( tree, layout );
+    }
+
+    @Override
+    void validateQuery( IndexQuery... predicates ) throws IndexNotApplicableKernelException
+    {
+        if ( predicates.length != 1 )
+        {
+            throw new IndexNotApplicableKernelException( "Composite queries are not supported by this index: " +
+                    Arrays.toString( predicates ) );
+        }
+    }
+
+    @Override
+    boolean initializeRangeForQuery( SchemaNumberKey treeKeyFrom, SchemaNumberKey treeKeyTo,
+            IndexQuery[] predicates )
+    {
+        IndexQuery predicate = predicates[0];
+        switch ( predicate.type() )
+        {
+        case exists:
+            treeKeyFrom.initAsLowest();
+            treeKeyTo.initAsHighest();
+            return true;
+        case exact:
+            Object value = ((ExactPredicate) predicate).value();
+            if ( !(value instanceof Number) )
+            {
+                return false;
+            }
+            treeKeyFrom.from( Long.MIN_VALUE, new Object[]{value} );
+            treeKeyTo.from( Long.MAX_VALUE, new Object[]{value} );
+            return true;
+        case rangeNumeric:
+            NumberRangePredicate rangePredicate = (NumberRangePredicate) predicate;
+            initFromForRange( rangePredicate, treeKeyFrom );
+            initToForRange( rangePredicate, treeKeyTo );
+            return true;
+        default:
+            // String predicates, and any other type of predicates, never match numbers
+            return false;
+        }
+    }
+
+    @Override
+    boolean initializeRangeForEntity( SchemaNumberKey treeKeyFrom, SchemaNumberKey treeKeyTo, long entityId,
+            Object[] values )
+    {
+        if ( values.length != 1 || !(values[0] instanceof Number) )
+        {
+            return false;
+        }
+        treeKeyFrom.from( entityId, values );
+        treeKeyTo.from( entityId + 1, values );
+        return true;
+    }
+
+    private static void initFromForRange( NumberRangePredicate rangePredicate, SchemaNumberKey treeKeyFrom )
+    {
+        Number from = rangePredicate.from();
+        if ( from == null )
+        {
+            treeKeyFrom.initAsLowest();
+        }
+        else
+        {
+            treeKeyFrom.from( rangePredicate.fromInclusive() ? Long.MIN_VALUE : Long.MAX_VALUE,
+                    new Object[]{from} );
+        }
+    }
+
+    private static void initToForRange( NumberRangePredicate rangePredicate, SchemaNumberKey treeKeyTo )
+    {
+        Number to = rangePredicate.to();
+        if ( to == null )
+        {
+            treeKeyTo.initAsHighest();
+        }
+        else
+        {
+            treeKeyTo.from( rangePredicate.toInclusive() ? Long.MAX_VALUE : Long.MIN_VALUE, new Object[]{to} );
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import static java.lang.String.format;
+
+/**
+ * Includes value and entity id (to be able to handle non-unique values).
+ * Numbers are stored as doubles, the same way the Lucene schema index stores them, which means that
+ * very large longs may collide. Exact matches are filtered on the real property value by the kernel.
+ */
+class SchemaNumberKey implements NativeSchemaKey
+{
+    static final int SIZE = Double.BYTES /*value*/ + Long.BYTES /*entityId*/;
+
+    double value;
+    long entityId;
+
+    @Override
+    public long getEntityId()
+    {
+        return entityId;
+    }
+
+    @Override
+    public void from( long entityId, Object[] values )
+    {
+        this.value = extractValue( values );
+        this.entityId = entityId;
+    }
+
+    @Override
+    public void initAsLowest()
+    {
+        value = Double.NEGATIVE_INFINITY;
+        entityId = Long.MIN_VALUE;
+    }
+
+    @Override
+    public void initAsHighest()
+    {
+        // NaN sorts after positive infinity, see Double#compare
+        value = Double.NaN;
+        entityId = Long.MAX_VALUE;
+    }
+
+    @Override
+    public String propertiesAsString()
+    {
+        return String.valueOf( value );
+    }
+
+    static double extractValue( Object[] values )
+    {
+        if ( values.length != 1 )
+        {
+            throw new IllegalArgumentException( "Composite keys not supported, got " + values.length + " values" );
+        }
+        Object value = values[0];
+        if ( !(value instanceof Number) )
+        {
+            throw new IllegalArgumentException( "Key only supports numbers, got " + value );
+        }
+        double number = ((Number) value).doubleValue();
+        // -0.0 and 0.0 are equal property values, but not equal according to Double#compare
+        return number == 0d ? 0d : number;
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "value=%s,entityId=%d", value, entityId );
+    }
+}
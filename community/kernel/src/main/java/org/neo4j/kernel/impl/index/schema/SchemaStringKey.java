@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.util.Arrays;
+
+import org.neo4j.string.UTF8;
+
+import static java.lang.String.format;
+
+/**
+ * Includes value and entity id (to be able to handle non-unique values).
+ * Strings are stored as UTF-8 bytes in a fixed size key, which means that only strings of up to
+ * {@link #MAX_STRING_BYTES} bytes, when encoded, can be stored. Keys are ordered by comparing the bytes
+ * as unsigned values, i.e. in code point order, which is the same order as the Lucene schema index uses.
+ * <p>
+ * Since no UTF-8 encoded string ever contains the byte {@code 0xFF}, a key made up of only such bytes sorts after
+ * all real strings, which is used for {@link #initAsHighest()} and for upper bounds of prefix seeks.
+ */
+class SchemaStringKey implements NativeSchemaKey
+{
+    static final int MAX_STRING_BYTES = 118;
+    static final int SIZE = Short.BYTES /*length*/ + MAX_STRING_BYTES /*bytes*/ + Long.BYTES /*entityId*/;
+
+    private static final byte NON_UTF8_BYTE = (byte) 0xFF;
+
+    final byte[] bytes = new byte[MAX_STRING_BYTES];
+    int length;
+    long entityId;
+
+    @Override
+    public long getEntityId()
+    {
+        return entityId;
+    }
+
+    @Override
+    public void from( long entityId, Object[] values )
+    {
+        from( entityId, encode( extractValue( values ) ) );
+    }
+
+    void from( long entityId, byte[] encodedValue )
+    {
+        if ( encodedValue.length > MAX_STRING_BYTES )
+        {
+            throw new IllegalArgumentException( "String of " + encodedValue.length + " bytes exceeds max key size " +
+                    MAX_STRING_BYTES );
+        }
+        System.arraycopy( encodedValue, 0, bytes, 0, encodedValue.length );
+        this.length = encodedValue.length;
+        this.entityId = entityId;
+    }
+
+    /**
+     * Initializes this key to sort after all keys with values starting with {@code encodedPrefix},
+     * but before all other keys with values greater than {@code encodedPrefix}.
+     *
+     * @param encodedPrefix UTF-8 bytes of the prefix, must be shorter than {@link #MAX_STRING_BYTES}.
+     */
+    void initAsPrefixUpperBound( byte[] encodedPrefix )
+    {
+        System.arraycopy( encodedPrefix, 0, bytes, 0, encodedPrefix.length );
+        bytes[encodedPrefix.length] = NON_UTF8_BYTE;
+        this.length = encodedPrefix.length + 1;
+        this.entityId = Long.MIN_VALUE;
+    }
+
+    @Override
+    public void initAsLowest()
+    {
+        length = 0;
+        entityId = Long.MIN_VALUE;
+    }
+
+    @Override
+    public void initAsHighest()
+    {
+        Arrays.fill( bytes, NON_UTF8_BYTE );
+        length = MAX_STRING_BYTES;
+        entityId = Long.MAX_VALUE;
+    }
+
+    @Override
+    public String propertiesAsString()
+    {
+        return UTF8.decode( bytes, 0, length );
+    }
+
+    /**
+     * Compares the string values of two keys, byte by byte as unsigned values, ignoring entity id.
+     */
+    static int compareValue( SchemaStringKey o1, SchemaStringKey o2 )
+    {
+        int commonLength = Math.min( o1.length, o2.length );
+        for ( int i = 0; i < commonLength; i++ )
+        {
+            int comparison = Integer.compare( o1.bytes[i] & 0xFF, o2.bytes[i] & 0xFF );
+            if ( comparison != 0 )
+            {
+                return comparison;
+            }
+        }
+        return Integer.compare( o1.length, o2.length );
+    }
+
+    static Object extractValue( Object[] values )
+    {
+        if ( values.length != 1 )
+        {
+            throw new IllegalArgumentException( "Composite keys not supported, got " + values.length + " values" );
+        }
+        Object value = values[0];
+        if ( !isString( value ) )
+        {
+            throw new IllegalArgumentException( "Key only supports strings, got " + value );
+        }
+        return value;
+    }
+
+    static boolean isString( Object value )
+    {
+        // Characters are indexed as strings, just like in the Lucene schema index
+        return value instanceof String || value instanceof Character;
+    }
+
+    static byte[] encode( Object value )
+    {
+        return UTF8.encode( value.toString() );
+    }
+
+    /**
+     * @return whether or not {@code value} is a string which fits in a key, without encoding it.
+     */
+    static boolean canStore( Object value )
+    {
+        return isString( value ) && encodedLength( value.toString() ) <= MAX_STRING_BYTES;
+    }
+
+    private static int encodedLength( String string )
+    {
+        if ( string.length() > MAX_STRING_BYTES )
+        {
+            // Every char is at least one byte
+            return string.length();
+        }
+        int encodedLength = 0;
+        for ( int i = 0; i < string.length(); i++ )
+        {
+            char c = string.charAt( i );
+            if ( c < 0x80 )
+            {
+                encodedLength += 1;
+            }
+            else if ( c < 0x800 )
+            {
+                encodedLength += 2;
+            }
+            else if ( Character.isHighSurrogate( c ) && i + 1 < string.length() &&
+                      Character.isLowSurrogate( string.charAt( i + 1 ) ) )
+            {
+                // A surrogate pair is a supplementary code point, which is four bytes
+                encodedLength += 4;
+                i++;
+            }
+            else
+            {
+                encodedLength += 3;
+            }
+        }
+        return encodedLength;
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "value=%s,entityId=%d", propertiesAsString(), entityId );
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * {@link Layout} for strings, used by both unique and non-unique string indexes.
+ */
+class StringLayout extends NativeSchemaIndexLayout<SchemaStringKey>
+{
+    private static final String IDENTIFIER_NAME = "STR";
+
+    private final boolean unique;
+
+    StringLayout( boolean unique )
+    {
+        this.unique = unique;
+    }
+
+    @Override
+    public SchemaStringKey newKey()
+    {
+        return new SchemaStringKey();
+    }
+
+    @Override
+    public SchemaStringKey copyKey( SchemaStringKey key, SchemaStringKey into )
+    {
+        System.arraycopy( key.bytes, 0, into.bytes, 0, key.length );
+        into.length = key.length;
+        into.entityId = key.entityId;
+        return into;
+    }
+
+    @Override
+    public int keySize()
+    {
+        return SchemaStringKey.SIZE;
+    }
+
+    @Override
+    public void writeKey( PageCursor cursor, SchemaStringKey key )
+    {
+        cursor.putShort( (short) key.length );
+        // Keys are of fixed size, so the unused part of the byte array is written too
+        cursor.putBytes( key.bytes );
+        cursor.putLong( key.entityId );
+    }
+
+    @Override
+    public void readKey( PageCursor cursor, SchemaStringKey into )
+    {
+        into.length = cursor.getShort();
+        cursor.getBytes( into.bytes );
+        into.entityId = cursor.getLong();
+    }
+
+    @Override
+    int compareValue( SchemaStringKey o1, SchemaStringKey o2 )
+    {
+        return SchemaStringKey.compareValue( o1, o2 );
+    }
+
+    @Override
+    public long identifier()
+    {
+        // Unique and non-unique indexes are stored the same way, but shouldn't be opened as one another
+        return Layout.namedIdentifier( IDENTIFIER_NAME, unique ? 1 : 0 );
+    }
+
+    @Override
+    public int majorVersion()
+    {
+        return 0;
+    }
+
+    @Override
+    public int minorVersion()
+    {
+        return 1;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.schema_new.index.NewIndexDescriptor;
+import org.neo4j.storageengine.api.schema.IndexReader;
+
+/**
+ * {@link NativeSchemaIndexAccessor} for string indexes.
+ */
+class StringSchemaIndexAccessor extends NativeSchemaIndexAccessor<SchemaStringKey>
+{
+    StringSchemaIndexAccessor( PageCache pageCache, FileSystemAbstraction fileSystem, File storeFile,
+            StringLayout layout, NewIndexDescriptor descriptor ) throws IOException
+    {
+        super( pageCache, fileSystem, storeFile, layout, descriptor );
+    }
+
+    @Override
+    public IndexReader newReader()
+    {
+        return new StringSchemaIndexReader( tree, (StringLayout) layout );
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.kernel.api.exceptions.index.IndexNotApplicableKernelException;
+import org.neo4j.kernel.api.schema_new.IndexQuery;
+import org.neo4j.kernel.api.schema_new.IndexQuery.ExactPredicate;
+import org.neo4j.kernel.api.schema_new.IndexQuery.StringContainsPredicate;
+import org.neo4j.kernel.api.schema_new.IndexQuery.StringPrefixPredicate;
+import org.neo4j.kernel.api.schema_new.IndexQuery.StringRangePredicate;
+import org.neo4j.kernel.api.schema_new.IndexQuery.StringSuffixPredicate;
+
+import static org.neo4j.kernel.impl.index.schema.SchemaStringKey.MAX_STRING_BYTES;
+
+/**
+ * {@link NativeSchemaIndexReader} for string indexes. Exact, prefix and range predicates are answered by seeking
+ * the matching range of keys. Contains and suffix predicates can't be expressed as a range and are answered
+ * by scanning all keys, comparing their UTF-8 bytes. Since UTF-8 is self-synchronizing, a byte sequence
+ * is contained in, or ends, another if and only if the same holds for the strings they encode.
+ * <p>
+ * Only strings are indexed, so queries for any other type of value doesn't match anything in this index.
+ */
+class StringSchemaIndexReader extends NativeSchemaIndexReader<SchemaStringKey>
+{
+    StringSchemaIndexReader( GBPTree<SchemaStringKey,NativeSchemaValue> tree, StringLayout layout )
+    {
+        super( tree, layout );
+    }
+
+    @Override
+    void validateQuery( IndexQuery... predicates ) throws IndexNotApplicableKernelException
+    {
+        if ( predicates.length != 1 )
+        {
+            throw new IndexNotApplicableKernelException( "Composite queries are not supported by this index: " +
+                    Arrays.toString( predicates ) );
+        }
+    }
+
+    @Override
+    boolean initializeRangeForQuery( SchemaStringKey treeKeyFrom, SchemaStringKey treeKeyTo,
+            IndexQuery[] predicates )
+    {
+        IndexQuery predicate = predicates[0];
+        switch ( predicate.type() )
+        {
+        case exists:
+        case stringContains:
+        case stringSuffix:
+            treeKeyFrom.initAsLowest();
+            treeKeyTo.initAsHighest();
+            return true;
+        case exact:
+            Object value = ((ExactPredicate) predicate).value();
+            if ( !SchemaStringKey.isString( value ) )
+            {
+                return false;
+            }
+            byte[] encodedValue = SchemaStringKey.encode( value );
+            if ( encodedValue.length > MAX_STRING_BYTES )
+            {
+                return false;
+            }
+            treeKeyFrom.from( Long.MIN_VALUE, encodedValue );
+            treeKeyTo.from( Long.MAX_VALUE, encodedValue );
+            return true;
+        case stringPrefix:
+            return initializeRangeForPrefix( treeKeyFrom, treeKeyTo, (StringPrefixPredicate) predicate );
+        case rangeString:
+            StringRangePredicate rangePredicate = (StringRangePredicate) predicate;
+            initFromForRange( rangePredicate, treeKeyFrom );
+            initToForRange( rangePredicate, treeKeyTo );
+            return true;
+        default:
+            // Number predicates, and any other type of predicates, never match strings
+            return false;
+        }
+    }
+
+    @Override
+    Predicate<SchemaStringKey> filterForQuery( IndexQuery[] predicates )
+    {
+        IndexQuery predicate = predicates[0];
+        switch ( predicate.type() )
+        {
+        case stringContains:
+            byte[] contains = SchemaStringKey.encode( ((StringContainsPredicate) predicate).contains() );
+            return key -> indexOf( key, contains ) != -1;
+        case stringSuffix:
+            byte[] suffix = SchemaStringKey.encode( ((StringSuffixPredicate) predicate).suffix() );
+            return key -> endsWith( key, suffix );
+        default:
+            return null;
+        }
+    }
+
+    @Override
+    boolean initializeRangeForEntity( SchemaStringKey treeKeyFrom, SchemaStringKey treeKeyTo, long entityId,
+            Object[] values )
+    {
+        if ( values.length != 1 || !SchemaStringKey.canStore( values[0] ) )
+        {
+            return false;
+        }
+        treeKeyFrom.from( entityId, values );
+        treeKeyTo.from( entityId + 1, values );
+        return true;
+    }
+
+    private static boolean initializeRangeForPrefix( SchemaStringKey treeKeyFrom, SchemaStringKey treeKeyTo,
+            StringPrefixPredicate prefixPredicate )
+    {
+        byte[] prefix = SchemaStringKey.encode( prefixPredicate.prefix() );
+        if ( prefix.length > MAX_STRING_BYTES )
+        {
+            // No string in this index can be long enough to start with this prefix
+            return false;
+        }
+        treeKeyFrom.from( Long.MIN_VALUE, prefix );
+        if ( prefix.length == MAX_STRING_BYTES )
+        {
+            // Only the prefix itself fits
+            treeKeyTo.from( Long.MAX_VALUE, prefix );
+        }
+        else
+        {
+            treeKeyTo.initAsPrefixUpperBound( prefix );
+        }
+        return true;
+    }
+
+    private static void initFromForRange( StringRangePredicate rangePredicate, SchemaStringKey treeKeyFrom )
+    {
+        String from = rangePredicate.from();
+        if ( from == null )
+        {
+            treeKeyFrom.initAsLowest();
+            return;
+        }
+        byte[] encodedFrom = SchemaStringKey.encode( from );
+        if ( encodedFrom.length > MAX_STRING_BYTES )
+        {
+            // All strings in this index which are greater than the truncated bound are also greater than the
+            // real bound, and the truncated bound itself is less than the real bound
+            treeKeyFrom.from( Long.MAX_VALUE, Arrays.copyOf( encodedFrom, MAX_STRING_BYTES ) );
+        }
+        else
+        {
+            treeKeyFrom.from( rangePredicate.fromInclusive() ? Long.MIN_VALUE : Long.MAX_VALUE, encodedFrom );
+        }
+    }
+
+    private static void initToForRange( StringRangePredicate rangePredicate, SchemaStringKey treeKeyTo )
+    {
+        String to = rangePredicate.to();
+        if ( to == null )
+        {
+            treeKeyTo.initAsHighest();
+            return;
+        }
+        byte[] encodedTo = SchemaStringKey.encode( to );
+        if ( encodedTo.length > MAX_STRING_BYTES )
+        {
+            // All strings in this index which are less than or equal to the truncated bound are also
+            // less than the real bound
+            treeKeyTo.from( Long.MAX_VALUE, Arrays.copyOf( encodedTo, MAX_STRING_BYTES ) );
+        }
+        else
+        {
+            treeKeyTo.from( rangePredicate.toInclusive() ? Long.MAX_VALUE : Long.MIN_VALUE, encodedTo );
+        }
+    }
+
+    private static int indexOf( SchemaStringKey key, byte[] part )
+    {
+        for ( int start = 0; start <= key.length - part.length; start++ )
+        {
+            if ( regionMatches( key, start, part ) )
+            {
+                return start;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean endsWith( SchemaStringKey key, byte[] suffix )
+    {
+        return key.length >= suffix.length && regionMatches( key, key.length - suffix.length, suffix );
+    }
+
+    private static boolean regionMatches( SchemaStringKey key, int start, byte[] part )
+    {
+        for ( int i = 0; i < part.length; i++ )
+        {
+            if ( key.bytes[start + i] != part[i] )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
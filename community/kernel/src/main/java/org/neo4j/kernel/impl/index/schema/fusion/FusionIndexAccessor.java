@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema.fusion;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.helpers.collection.BoundedIterable;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexAccessor;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.index.PropertyAccessor;
+import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
+import org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selector;
+import org.neo4j.storageengine.api.schema.IndexReader;
+
+import static org.neo4j.helpers.collection.Iterators.concat;
+import static org.neo4j.helpers.collection.Iterators.concatResourceIterators;
+import static org.neo4j.helpers.collection.Iterators.iterator;
+
+/**
+ * {@link IndexAccessor} over the number, string and lucene index of a fused index.
+ */
+class FusionIndexAccessor implements IndexAccessor
+{
+    private final IndexAccessor numberAccessor;
+    private final IndexAccessor stringAccessor;
+    private final IndexAccessor luceneAccessor;
+    private final Selector selector;
+
+    FusionIndexAccessor( IndexAccessor numberAccessor, IndexAccessor stringAccessor, IndexAccessor luceneAccessor,
+            Selector selector )
+    {
+        this.numberAccessor = numberAccessor;
+        this.stringAccessor = stringAccessor;
+        this.luceneAccessor = luceneAccessor;
+        this.selector = selector;
+    }
+
+    @Override
+    public void drop() throws IOException
+    {
+        try
+        {
+            numberAccessor.drop();
+        }
+        finally
+        {
+            try
+            {
+                stringAccessor.drop();
+            }
+            finally
+            {
+                luceneAccessor.drop();
+            }
+        }
+    }
+
+    @Override
+    public IndexUpdater newUpdater( IndexUpdateMode mode )
+    {
+        return new FusionIndexUpdater( numberAccessor.newUpdater( mode ), stringAccessor.newUpdater( mode ),
+                luceneAccessor.newUpdater( mode ), selector );
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        numberAccessor.flush();
+        stringAccessor.flush();
+        luceneAccessor.flush();
+    }
+
+    @Override
+    public void force() throws IOException
+    {
+        numberAccessor.force();
+        stringAccessor.force();
+        luceneAccessor.force();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            numberAccessor.close();
+        }
+        finally
+        {
+            try
+            {
+                stringAccessor.close();
+            }
+            finally
+            {
+                luceneAccessor.close();
+            }
+        }
+    }
+
+    @Override
+    public IndexReader newReader()
+    {
+        return new FusionIndexReader( numberAccessor.newReader(), stringAccessor.newReader(),
+                luceneAccessor.newReader(), selector );
+    }
+
+    @Override
+    public BoundedIterable<Long> newAllEntriesReader()
+    {
+        BoundedIterable<Long> numberAllEntries = numberAccessor.newAllEntriesReader();
+        BoundedIterable<Long> stringAllEntries = stringAccessor.newAllEntriesReader();
+        BoundedIterable<Long> luceneAllEntries = luceneAccessor.newAllEntriesReader();
+        return new BoundedIterable<Long>()
+        {
+            @Override
+            public long maxCount()
+            {
+                long numberMaxCount = numberAllEntries.maxCount();
+                long stringMaxCount = stringAllEntries.maxCount();
+                long luceneMaxCount = luceneAllEntries.maxCount();
+                return numberMaxCount == -1 || stringMaxCount == -1 || luceneMaxCount == -1 ? -1
+                       : numberMaxCount + stringMaxCount + luceneMaxCount;
+            }
+
+            @Override
+            public void close() throws Exception
+            {
+                try
+                {
+                    numberAllEntries.close();
+                }
+                finally
+                {
+                    try
+                    {
+                        stringAllEntries.close();
+                    }
+                    finally
+                    {
+                        luceneAllEntries.close();
+                    }
+                }
+            }
+
+            @SuppressWarnings( "unchecked" )
+            @Override
+            public Iterator<Long> iterator()
+            {
+                return concat( numberAllEntries.iterator(), stringAllEntries.iterator(),
+                        luceneAllEntries.iterator() );
+            }
+        };
+    }
+
+    @Override
+    public ResourceIterator<File> snapshotFiles() throws IOException
+    {
+        return concatResourceIterators( iterator( numberAccessor.snapshotFiles(), stringAccessor.snapshotFiles(),
+                luceneAccessor.snapshotFiles() ) );
+    }
+
+    @Override
+    public void verifyDeferredConstraints( PropertyAccessor propertyAccessor )
+            throws IndexEntryConflictException, IOException
+    {
+        numberAccessor.verifyDeferredConstraints( propertyAccessor );
+        stringAccessor.verifyDeferredConstraints( propertyAccessor );
+        luceneAccessor.verifyDeferredConstraints( propertyAccessor );
+    }
+}
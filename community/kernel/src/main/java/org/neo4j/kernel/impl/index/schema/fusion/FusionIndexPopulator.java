@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema.fusion;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.index.IndexPopulator;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.index.PropertyAccessor;
+import org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selector;
+import org.neo4j.storageengine.api.schema.IndexSample;
+
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexSampler.combineSamples;
+
+/**
+ * {@link IndexPopulator} populating the number, string and lucene index at the same time, routing each
+ * update to one of them using a {@link Selector}.
+ */
+class FusionIndexPopulator implements IndexPopulator
+{
+    private final IndexPopulator numberPopulator;
+    private final IndexPopulator stringPopulator;
+    private final IndexPopulator lucenePopulator;
+    private final Selector selector;
+
+    FusionIndexPopulator( IndexPopulator numberPopulator, IndexPopulator stringPopulator,
+            IndexPopulator lucenePopulator, Selector selector )
+    {
+        this.numberPopulator = numberPopulator;
+        this.stringPopulator = stringPopulator;
+        this.lucenePopulator = lucenePopulator;
+        this.selector = selector;
+    }
+
+    @Override
+    public void create() throws IOException
+    {
+        numberPopulator.create();
+        stringPopulator.create();
+        lucenePopulator.create();
+    }
+
+    @Override
+    public void drop() throws IOException
+    {
+        try
+        {
+            numberPopulator.drop();
+        }
+        finally
+        {
+            try
+            {
+                stringPopulator.drop();
+            }
+            finally
+            {
+                lucenePopulator.drop();
+            }
+        }
+    }
+
+    @Override
+    public void add( Collection<IndexEntryUpdate> updates ) throws IndexEntryConflictException, IOException
+    {
+        Collection<IndexEntryUpdate> numberBatch = new ArrayList<>();
+        Collection<IndexEntryUpdate> stringBatch = new ArrayList<>();
+        Collection<IndexEntryUpdate> luceneBatch = new ArrayList<>();
+        for ( IndexEntryUpdate update : updates )
+        {
+            selector.select( numberBatch, stringBatch, luceneBatch, update.values() ).add( update );
+        }
+        if ( !numberBatch.isEmpty() )
+        {
+            numberPopulator.add( numberBatch );
+        }
+        if ( !stringBatch.isEmpty() )
+        {
+            stringPopulator.add( stringBatch );
+        }
+        if ( !luceneBatch.isEmpty() )
+        {
+            lucenePopulator.add( luceneBatch );
+        }
+    }
+
+    @Override
+    public void verifyDeferredConstraints( PropertyAccessor propertyAccessor )
+            throws IndexEntryConflictException, IOException
+    {
+        numberPopulator.verifyDeferredConstraints( propertyAccessor );
+        stringPopulator.verifyDeferredConstraints( propertyAccessor );
+        lucenePopulator.verifyDeferredConstraints( propertyAccessor );
+    }
+
+    @Override
+    public IndexUpdater newPopulatingUpdater( PropertyAccessor accessor ) throws IOException
+    {
+        return new FusionIndexUpdater(
+                numberPopulator.newPopulatingUpdater( accessor ),
+                stringPopulator.newPopulatingUpdater( accessor ),
+                lucenePopulator.newPopulatingUpdater( accessor ), selector );
+    }
+
+    @Override
+    public void close( boolean populationCompletedSuccessfully ) throws IOException
+    {
+        try
+        {
+            numberPopulator.close( populationCompletedSuccessfully );
+        }
+        finally
+        {
+            try
+            {
+                stringPopulator.close( populationCompletedSuccessfully );
+            }
+            finally
+            {
+                lucenePopulator.close( populationCompletedSuccessfully );
+            }
+        }
+    }
+
+    @Override
+    public void markAsFailed( String failure ) throws IOException
+    {
+        try
+        {
+            numberPopulator.markAsFailed( failure );
+        }
+        finally
+        {
+            try
+            {
+                stringPopulator.markAsFailed( failure );
+            }
+            finally
+            {
+                lucenePopulator.markAsFailed( failure );
+            }
+        }
+    }
+
+    @Override
+    public void includeSample( IndexEntryUpdate update )
+    {
+        selector.select( numberPopulator, stringPopulator, lucenePopulator, update.values() )
+                .includeSample( update );
+    }
+
+    @Override
+    public void configureSampling( boolean onlineSampling )
+    {
+        numberPopulator.configureSampling( onlineSampling );
+        stringPopulator.configureSampling( onlineSampling );
+        lucenePopulator.configureSampling( onlineSampling );
+    }
+
+    @Override
+    public IndexSample sampleResult()
+    {
+        return combineSamples( numberPopulator.sampleResult(), stringPopulator.sampleResult(),
+                lucenePopulator.sampleResult() );
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema.fusion;
+
+import java.util.Arrays;
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.kernel.api.exceptions.index.IndexNotApplicableKernelException;
+import org.neo4j.kernel.api.schema_new.IndexQuery;
+import org.neo4j.kernel.api.schema_new.IndexQuery.ExactPredicate;
+import org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selector;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.storageengine.api.schema.IndexSampler;
+
+/**
+ * {@link IndexReader} answering each query using the number, string or lucene index, or several of them,
+ * depending on which of them can hold values matching the predicate. Strings too long for the string index
+ * live in the lucene index, which is why string predicates other than exact matches query both.
+ */
+class FusionIndexReader implements IndexReader
+{
+    private final IndexReader numberReader;
+    private final IndexReader stringReader;
+    private final IndexReader luceneReader;
+    private final Selector selector;
+
+    FusionIndexReader( IndexReader numberReader, IndexReader stringReader, IndexReader luceneReader,
+            Selector selector )
+    {
+        this.numberReader = numberReader;
+        this.stringReader = stringReader;
+        this.luceneReader = luceneReader;
+        this.selector = selector;
+    }
+
+    @Override
+    public void close()
+    {
+        try
+        {
+            numberReader.close();
+        }
+        finally
+        {
+            try
+            {
+                stringReader.close();
+            }
+            finally
+            {
+                luceneReader.close();
+            }
+        }
+    }
+
+    @Override
+    public long countIndexedNodes( long nodeId, Object... propertyValues )
+    {
+        return selector.select( numberReader, stringReader, luceneReader, propertyValues )
+                .countIndexedNodes( nodeId, propertyValues );
+    }
+
+    @Override
+    public IndexSampler createSampler()
+    {
+        return new FusionIndexSampler( numberReader.createSampler(), stringReader.createSampler(),
+                luceneReader.createSampler() );
+    }
+
+    @Override
+    public PrimitiveLongIterator query( IndexQuery... predicates ) throws IndexNotApplicableKernelException
+    {
+        if ( predicates.length > 1 )
+        {
+            // Composite values are all kept in lucene
+            return luceneReader.query( predicates );
+        }
+
+        IndexQuery predicate = predicates[0];
+        switch ( predicate.type() )
+        {
+        case exact:
+            return selector.select( numberReader, stringReader, luceneReader, ((ExactPredicate) predicate).value() )
+                    .query( predicates );
+        case rangeNumeric:
+            return numberReader.query( predicates );
+        case rangeString:
+        case stringPrefix:
+        case stringContains:
+        case stringSuffix:
+            return PrimitiveLongCollections.concat( Arrays.asList(
+                    stringReader.query( predicates ), luceneReader.query( predicates ) ) );
+        case exists:
+            return PrimitiveLongCollections.concat( Arrays.asList( numberReader.query( predicates ),
+                    stringReader.query( predicates ), luceneReader.query( predicates ) ) );
+        default:
+            throw new IllegalArgumentException( "Unknown predicate type " + predicate.type() );
+        }
+    }
+}
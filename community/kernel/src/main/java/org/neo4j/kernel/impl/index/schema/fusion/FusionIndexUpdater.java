@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema.fusion;
+
+import java.io.IOException;
+
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selector;
+
+/**
+ * {@link IndexUpdater} routing each update to the number, string or lucene updater. A change from a value of one
+ * index to a value of another index becomes a removal in one and an addition in the other.
+ */
+class FusionIndexUpdater implements IndexUpdater
+{
+    private final IndexUpdater numberUpdater;
+    private final IndexUpdater stringUpdater;
+    private final IndexUpdater luceneUpdater;
+    private final Selector selector;
+
+    FusionIndexUpdater( IndexUpdater numberUpdater, IndexUpdater stringUpdater, IndexUpdater luceneUpdater,
+            Selector selector )
+    {
+        this.numberUpdater = numberUpdater;
+        this.stringUpdater = stringUpdater;
+        this.luceneUpdater = luceneUpdater;
+        this.selector = selector;
+    }
+
+    @Override
+    public void process( IndexEntryUpdate update ) throws IOException, IndexEntryConflictException
+    {
+        switch ( update.updateMode() )
+        {
+        case ADDED:
+        case REMOVED:
+            select( update.values() ).process( update );
+            break;
+        case CHANGED:
+            // The old and the new value may belong to different indexes
+            IndexUpdater from = select( update.beforeValues() );
+            IndexUpdater to = select( update.values() );
+
+            if ( from == to )
+            {
+                // This is the easy one, the same updater handles both the old and the new value
+                from.process( update );
+            }
+            else
+            {
+                // The value moves from one index to the other
+                from.process( IndexEntryUpdate.remove(
+                        update.getEntityId(), update.descriptor(), update.beforeValues() ) );
+                to.process( IndexEntryUpdate.add( update.getEntityId(), update.descriptor(), update.values() ) );
+            }
+            break;
+        default:
+            throw new IllegalArgumentException( "Unknown update mode " + update.updateMode() );
+        }
+    }
+
+    private IndexUpdater select( Object[] values )
+    {
+        return selector.select( numberUpdater, stringUpdater, luceneUpdater, values );
+    }
+
+    @Override
+    public void close() throws IOException, IndexEntryConflictException
+    {
+        try
+        {
+            numberUpdater.close();
+        }
+        finally
+        {
+            try
+            {
+                stringUpdater.close();
+            }
+            finally
+            {
+                luceneUpdater.close();
+            }
+        }
+    }
+
+    @Override
+    public void remove( PrimitiveLongSet nodeIds ) throws IOException
+    {
+        try
+        {
+            numberUpdater.remove( nodeIds );
+        }
+        finally
+        {
+            try
+            {
+                stringUpdater.remove( nodeIds );
+            }
+            finally
+            {
+                luceneUpdater.remove( nodeIds );
+            }
+        }
+    }
+}
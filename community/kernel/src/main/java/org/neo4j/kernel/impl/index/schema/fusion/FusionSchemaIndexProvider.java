@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema.fusion;
+
+import java.io.IOException;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.index.IndexAccessor;
+import org.neo4j.kernel.api.index.IndexPopulator;
+import org.neo4j.kernel.api.index.InternalIndexState;
+import org.neo4j.kernel.api.index.SchemaIndexProvider;
+import org.neo4j.kernel.api.schema_new.index.NewIndexDescriptor;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.kernel.impl.api.scan.LabelScanStoreProvider;
+import org.neo4j.kernel.impl.storemigration.StoreMigrationParticipant;
+
+/**
+ * {@link SchemaIndexProvider} which fuses three other providers, a native number one, a native string one and
+ * a lucene one, into one. Every index from this provider is backed by one index of each of the three providers,
+ * where each value is routed to one of them by a {@link Selector}, typically numbers to the number index,
+ * strings to the string index and everything else to the lucene index. Queries are answered by one or more
+ * of the indexes, depending on the predicate.
+ */
+public class FusionSchemaIndexProvider extends SchemaIndexProvider
+{
+    /**
+     * Selects which of the three instances to route values to.
+     */
+    public interface Selector
+    {
+        <T> T select( T numberInstance, T stringInstance, T luceneInstance, Object... values );
+    }
+
+    private final SchemaIndexProvider numberProvider;
+    private final SchemaIndexProvider stringProvider;
+    private final SchemaIndexProvider luceneProvider;
+    private final Selector selector;
+
+    public FusionSchemaIndexProvider( SchemaIndexProvider numberProvider, SchemaIndexProvider stringProvider,
+            SchemaIndexProvider luceneProvider, Selector selector, SchemaIndexProvider.Descriptor descriptor,
+            int priority )
+    {
+        super( descriptor, priority );
+        this.numberProvider = numberProvider;
+        this.stringProvider = stringProvider;
+        this.luceneProvider = luceneProvider;
+        this.selector = selector;
+    }
+
+    @Override
+    public IndexPopulator getPopulator( long indexId, NewIndexDescriptor descriptor,
+            IndexSamplingConfig samplingConfig )
+    {
+        return new FusionIndexPopulator(
+                numberProvider.getPopulator( indexId, descriptor, samplingConfig ),
+                stringProvider.getPopulator( indexId, descriptor, samplingConfig ),
+                luceneProvider.getPopulator( indexId, descriptor, samplingConfig ), selector );
+    }
+
+    @Override
+    public IndexAccessor getOnlineAccessor( long indexId, NewIndexDescriptor descriptor,
+            IndexSamplingConfig samplingConfig ) throws IOException
+    {
+        return new FusionIndexAccessor(
+                numberProvider.getOnlineAccessor( indexId, descriptor, samplingConfig ),
+                stringProvider.getOnlineAccessor( indexId, descriptor, samplingConfig ),
+                luceneProvider.getOnlineAccessor( indexId, descriptor, samplingConfig ), selector );
+    }
+
+    @Override
+    public String getPopulationFailure( long indexId ) throws IllegalStateException
+    {
+        StringBuilder builder = new StringBuilder();
+        writeFailure( "number", builder, numberProvider, indexId );
+        writeFailure( "string", builder, stringProvider, indexId );
+        writeFailure( "lucene", builder, luceneProvider, indexId );
+        String failure = builder.toString();
+        if ( !failure.isEmpty() )
+        {
+            return failure;
+        }
+        throw new IllegalStateException( "None of the indexes were in a failed state" );
+    }
+
+    private static void writeFailure( String indexName, StringBuilder builder, SchemaIndexProvider provider,
+            long indexId )
+    {
+        try
+        {
+            String failure = provider.getPopulationFailure( indexId );
+            builder.append( indexName ).append( ": " ).append( failure ).append( ' ' );
+        }
+        catch ( IllegalStateException e )
+        {
+            // Just catch
+        }
+    }
+
+    @Override
+    public InternalIndexState getInitialState( long indexId )
+    {
+        InternalIndexState[] states = {
+                numberProvider.getInitialState( indexId ),
+                stringProvider.getInitialState( indexId ),
+                luceneProvider.getInitialState( indexId )};
+        if ( anyStateIs( InternalIndexState.FAILED, states ) )
+        {
+            // One of the state is FAILED, the whole state must be considered FAILED
+            return InternalIndexState.FAILED;
+        }
+        if ( anyStateIs( InternalIndexState.POPULATING, states ) )
+        {
+            // No state is FAILED and one of the state is POPULATING, the whole state must be considered POPULATING
+            return InternalIndexState.POPULATING;
+        }
+        // This means that all states are ONLINE
+        return InternalIndexState.ONLINE;
+    }
+
+    private static boolean anyStateIs( InternalIndexState state, InternalIndexState[] states )
+    {
+        for ( InternalIndexState candidate : states )
+        {
+            if ( candidate == state )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public StoreMigrationParticipant storeMigrationParticipant( FileSystemAbstraction fs, PageCache pageCache,
+            LabelScanStoreProvider labelScanStoreProvider )
+    {
+        // Existing indexes only ever lived in lucene
+        return luceneProvider.storeMigrationParticipant( fs, pageCache, labelScanStoreProvider );
+    }
+}
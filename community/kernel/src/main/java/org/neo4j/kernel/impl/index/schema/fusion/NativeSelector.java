@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema.fusion;
+
+import org.neo4j.kernel.impl.index.schema.NativeSchemaStringIndexProvider;
+import org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.Selector;
+
+/**
+ * {@link Selector} routing single number values to the native number index, single strings small enough to fit
+ * in a key to the native string index and everything else, i.e. all other types of values, long strings
+ * and composite values, to the lucene index.
+ */
+public class NativeSelector implements Selector
+{
+    @Override
+    public <T> T select( T numberInstance, T stringInstance, T luceneInstance, Object... values )
+    {
+        if ( values.length > 1 )
+        {
+            // Multiple values must be handled by lucene
+            return luceneInstance;
+        }
+
+        Object singleValue = values[0];
+        if ( singleValue instanceof Number )
+        {
+            return numberInstance;
+        }
+        if ( NativeSchemaStringIndexProvider.canIndex( singleValue ) )
+        {
+            return stringInstance;
+        }
+        return luceneInstance;
+    }
+}
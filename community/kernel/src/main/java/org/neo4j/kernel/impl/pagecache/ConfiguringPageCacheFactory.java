@@ -25,6 +25,7 @@ import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.EvictionPolicy;
 import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
@@ -33,7 +34,9 @@ import org.neo4j.kernel.impl.util.OsBeanUtil;
 import org.neo4j.logging.Log;
 
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.mapped_memory_page_size;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_eviction_policy;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_memory;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_partitions;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_swapper;
 import static org.neo4j.kernel.configuration.Settings.BYTES;
 import static org.neo4j.unsafe.impl.internal.dragons.FeatureToggles.getInteger;
@@ -99,12 +102,15 @@ public class ConfiguringPageCacheFactory
     {
         int cachePageSize = calculatePageSize( config, swapperFactory );
         int maxPages = calculateMaxPages( config, cachePageSize );
+        EvictionPolicy evictionPolicy = EvictionPolicy.valueOf( config.get( pagecache_eviction_policy ) );
         return new MuninnPageCache(
                 swapperFactory,
                 maxPages,
                 cachePageSize,
                 tracer,
-                cursorTracerSupplier );
+                cursorTracerSupplier,
+                evictionPolicy,
+                config.get( pagecache_partitions ) );
     }
 
     public int calculateMaxPages( Config config, int cachePageSize )
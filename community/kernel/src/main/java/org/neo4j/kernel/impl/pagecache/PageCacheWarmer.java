@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.kernel.impl.util.JobScheduler;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
+
+/**
+ * The page cache warmer periodically records which pages of the mapped store files are in memory, and uses that
+ * profile to fault the same pages back in when the database is started again. This way, queries do not have to pay
+ * for a cold page cache after a restart or a fail-over.
+ * <p>
+ * The profile of a store file is kept next to it, in a file with the {@link #SUFFIX_CACHEPROF} suffix. The profile is
+ * a gzipped bitmap with one bit per file page, which is set if the page was in memory when the profile was taken.
+ * <p>
+ * The warm up runs in the background, one job per store file, while the database is already serving requests. The
+ * pages are touched in file order with {@link PagedFile#PF_READ_AHEAD} cursors, so runs of profiled pages are read in
+ * with large vectored reads.
+ */
+public class PageCacheWarmer extends LifecycleAdapter
+{
+    public static final String SUFFIX_CACHEPROF = ".cacheprof";
+    private static final String SUFFIX_CACHEPROF_TMP = ".cacheprof.tmp";
+
+    private final FileSystemAbstraction fs;
+    private final PageCache pageCache;
+    private final JobScheduler scheduler;
+    private final File storeDir;
+    private final long profileIntervalMillis;
+    private final Log log;
+    private final AtomicInteger runningWarmups = new AtomicInteger();
+    private final List<JobScheduler.JobHandle> warmupJobs = new ArrayList<>();
+    private File canonicalStoreDir;
+    private JobScheduler.JobHandle profileJob;
+    private volatile boolean stopped;
+
+    public PageCacheWarmer( FileSystemAbstraction fs, PageCache pageCache, JobScheduler scheduler, File storeDir,
+            long profileIntervalMillis, Log log )
+    {
+        this.fs = fs;
+        this.pageCache = pageCache;
+        this.scheduler = scheduler;
+        this.storeDir = storeDir;
+        this.profileIntervalMillis = profileIntervalMillis;
+        this.log = log;
+    }
+
+    @Override
+    public synchronized void start() throws Throwable
+    {
+        stopped = false;
+        canonicalStoreDir = storeDir.getCanonicalFile();
+        for ( PagedFile pagedFile : pageCache.listExistingMappings() )
+        {
+            File profile = profileOf( pagedFile );
+            if ( profile != null && fs.fileExists( profile ) )
+            {
+                runningWarmups.incrementAndGet();
+                warmupJobs.add( scheduler.schedule( JobScheduler.Groups.pageCacheIOHelper,
+                        () -> warmUpInBackground( pagedFile, profile ) ) );
+            }
+            else
+            {
+                pagedFile.close();
+            }
+        }
+        profileJob = scheduler.scheduleRecurring( JobScheduler.Groups.pageCacheIOHelper, this::profileInBackground,
+                profileIntervalMillis, profileIntervalMillis, TimeUnit.MILLISECONDS );
+    }
+
+    @Override
+    public synchronized void stop() throws Throwable
+    {
+        stopped = true;
+        if ( profileJob != null )
+        {
+            profileJob.cancel( false );
+            profileJob = null;
+        }
+        boolean warmupsInterrupted = runningWarmups.get() > 0;
+        // The warm up jobs hold on to their paged files, so we must wait for them to notice that we have stopped,
+        // before the store files can be unmapped.
+        for ( JobScheduler.JobHandle warmupJob : warmupJobs )
+        {
+            try
+            {
+                warmupJob.waitTermination();
+            }
+            catch ( ExecutionException e )
+            {
+                log.warn( "Page cache warm up failed", e.getCause() );
+            }
+        }
+        warmupJobs.clear();
+        if ( !warmupsInterrupted )
+        {
+            // Take a final profile, so the next start will warm up to what we have in memory right now.
+            profile();
+        }
+    }
+
+    private void warmUpInBackground( PagedFile pagedFile, File profile )
+    {
+        try
+        {
+            long pagesLoaded = warmUp( pagedFile, profile );
+            if ( !stopped )
+            {
+                log.info( "Page cache warm up loaded " + pagesLoaded + " pages of " + pagedFile.file() );
+            }
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Page cache warm up of " + pagedFile.file() + " failed", e );
+        }
+        finally
+        {
+            runningWarmups.decrementAndGet();
+            closeQuietly( pagedFile );
+        }
+    }
+
+    private synchronized void profileInBackground()
+    {
+        // Don't let a half-finished warm up overwrite the profiles that it is warming up from.
+        if ( !stopped && runningWarmups.get() == 0 )
+        {
+            profile();
+        }
+    }
+
+    /**
+     * Fault in all the pages of the given file, that are marked as in memory in the given profile.
+     *
+     * @return the number of pages touched.
+     */
+    long warmUp( PagedFile pagedFile, File profile ) throws IOException
+    {
+        long pagesLoaded = 0;
+        try ( InputStream input = new GZIPInputStream( fs.openAsInputStream( profile ) );
+              PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD ) )
+        {
+            long pageId = 0;
+            int bits;
+            while ( (bits = input.read()) != -1 )
+            {
+                for ( int i = 0; i < Byte.SIZE; i++, pageId++ )
+                {
+                    if ( (bits & (1 << i)) != 0 )
+                    {
+                        if ( stopped || !cursor.next( pageId ) )
+                        {
+                            // Either we are shutting down, or the file has shrunk since the profile was taken.
+                            return pagesLoaded;
+                        }
+                        pagesLoaded++;
+                    }
+                }
+            }
+        }
+        return pagesLoaded;
+    }
+
+    /**
+     * Write a profile for every mapped store file.
+     */
+    synchronized void profile()
+    {
+        List<PagedFile> pagedFiles;
+        try
+        {
+            pagedFiles = pageCache.listExistingMappings();
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Could not list the mapped files for page cache profiling", e );
+            return;
+        }
+        for ( PagedFile pagedFile : pagedFiles )
+        {
+            try
+            {
+                File profile = profileOf( pagedFile );
+                if ( profile != null )
+                {
+                    profile( pagedFile, profile );
+                }
+            }
+            catch ( IOException e )
+            {
+                log.warn( "Could not write page cache profile of " + pagedFile.file(), e );
+            }
+            finally
+            {
+                closeQuietly( pagedFile );
+            }
+        }
+    }
+
+    private void profile( PagedFile pagedFile, File profile ) throws IOException
+    {
+        File tmpProfile = new File( profile.getParentFile(), pagedFile.file().getName() + SUFFIX_CACHEPROF_TMP );
+        // PF_NO_FAULT leaves the cursor unbound on pages that are not in memory, and PF_TRANSIENT keeps the
+        // profiling from making the pages that are in memory look hot to the eviction policy.
+        try ( OutputStream output = new GZIPOutputStream( fs.openAsOutputStream( tmpProfile, false ) );
+              PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT | PF_TRANSIENT ) )
+        {
+            int bits = 0;
+            int bitIndex = 0;
+            while ( cursor.next() )
+            {
+                if ( cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID )
+                {
+                    bits |= 1 << bitIndex;
+                }
+                if ( ++bitIndex == Byte.SIZE )
+                {
+                    output.write( bits );
+                    bits = 0;
+                    bitIndex = 0;
+                }
+            }
+            if ( bitIndex > 0 )
+            {
+                output.write( bits );
+            }
+        }
+        fs.renameFile( tmpProfile, profile, StandardCopyOption.REPLACE_EXISTING );
+    }
+
+    /**
+     * @return the profile file of the given paged file, or {@code null} if the paged file is not a store file.
+     */
+    private File profileOf( PagedFile pagedFile )
+    {
+        File file = pagedFile.file();
+        File directory = file.getParentFile();
+        if ( directory == null || !directory.equals( canonicalStoreDir ) )
+        {
+            return null;
+        }
+        return new File( directory, file.getName() + SUFFIX_CACHEPROF );
+    }
+
+    private void closeQuietly( PagedFile pagedFile )
+    {
+        try
+        {
+            pagedFile.close();
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Could not unmap " + pagedFile.file(), e );
+        }
+    }
+}
@@ -19,14 +19,18 @@
  */
 package org.neo4j.kernel.impl.query;
 
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import org.neo4j.graphdb.Lock;
 import org.neo4j.graphdb.NotInTransactionException;
 import org.neo4j.graphdb.PropertyContainer;
+import org.neo4j.graphdb.TransactionTerminatedException;
 import org.neo4j.kernel.GraphDatabaseQueryService;
 import org.neo4j.kernel.api.*;
 import org.neo4j.kernel.api.dbms.DbmsOperations;
+import org.neo4j.kernel.api.exceptions.Status;
 import org.neo4j.kernel.api.query.ExecutingQuery;
 import org.neo4j.kernel.api.security.SecurityContext;
 import org.neo4j.kernel.api.txstate.TxStateHolder;
@@ -47,6 +51,8 @@ public class Neo4jTransactionalContext implements TransactionalContext
     private final KernelTransaction.Type transactionType;
     private final SecurityContext securityContext;
     private final ExecutingQuery executingQuery;
+    // Transaction of the query this context reads for on another thread, or null
+    private final KernelTransaction parentTransaction;
 
     private InternalTransaction transaction;
     private Statement statement;
@@ -61,6 +67,21 @@ public class Neo4jTransactionalContext implements TransactionalContext
         InternalTransaction initialTransaction,
         Statement initialStatement,
         ExecutingQuery executingQuery
+    ) {
+        this( graph, statementSupplier, guard, txBridge, locker, initialTransaction, initialStatement, executingQuery,
+                null );
+    }
+
+    private Neo4jTransactionalContext(
+        GraphDatabaseQueryService graph,
+        Supplier<Statement> statementSupplier,
+        Guard guard,
+        ThreadToStatementContextBridge txBridge,
+        PropertyContainerLocker locker,
+        InternalTransaction initialTransaction,
+        Statement initialStatement,
+        ExecutingQuery executingQuery,
+        KernelTransaction parentTransaction
     ) {
         this.graph = graph;
         this.statementSupplier = statementSupplier;
@@ -70,6 +91,7 @@ public class Neo4jTransactionalContext implements TransactionalContext
         this.transactionType = initialTransaction.transactionType();
         this.securityContext = initialTransaction.securityContext();
         this.executingQuery = executingQuery;
+        this.parentTransaction = parentTransaction;
 
         this.transaction = initialTransaction;
         this.statement = initialStatement;
@@ -241,9 +263,34 @@ public class Neo4jTransactionalContext implements TransactionalContext
     @Override
     public void check()
     {
+        if ( parentTransaction != null )
+        {
+            Optional<Status> reason = parentTransaction.getReasonIfTerminated();
+            if ( reason.isPresent() )
+            {
+                ((KernelStatement) statement).getTransaction().markForTermination( reason.get() );
+                throw new TransactionTerminatedException( reason.get() );
+            }
+        }
         guard.check( (KernelStatement) statement );
     }
 
+    @Override
+    public TransactionalContext beginWorkerContext()
+    {
+        KernelTransaction queryTransaction = ((KernelStatement) statement).getTransaction();
+        long timeout = queryTransaction.timeout();
+        if ( timeout > 0 )
+        {
+            // Time out along with the transaction of the query, rather than some time after it
+            timeout = Math.max( 1, queryTransaction.startTime() + timeout - System.currentTimeMillis() );
+        }
+        InternalTransaction workerTransaction =
+                graph.beginTransaction( KernelTransaction.Type.implicit, securityContext, timeout, TimeUnit.MILLISECONDS );
+        return new Neo4jTransactionalContext( graph, statementSupplier, guard, txBridge, locker, workerTransaction,
+                statementSupplier.get(), executingQuery, queryTransaction );
+    }
+
     @Override
     public TxStateHolder stateView()
     {
@@ -71,6 +71,15 @@ public interface TransactionalContext
      */
     void check();
 
+    /**
+     * Begins a new transaction, bound to the calling thread, for reading on behalf of the query of this context from
+     * another thread. The returned context belongs to the same {@link #executingQuery() query}, rather than being
+     * listed as a query of its own, and its transaction times out along with the transaction of this context.
+     * Once the transaction of this context has been terminated, {@link #check()} of the returned context terminates
+     * its transaction for the same reason.
+     */
+    TransactionalContext beginWorkerContext();
+
     TxStateHolder stateView();
 
     Lock acquireWriteLock( PropertyContainer p );
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.storageengine.impl.recordstorage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.neo4j.helpers.Exceptions;
+import org.neo4j.helpers.collection.Visitor;
+import org.neo4j.storageengine.api.CommandsToApply;
+import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
+
+/**
+ * Applies a batch of transactions using multiple threads. The batch is cut into consecutive segments where
+ * the transactions of a segment have disjoint {@link RecordFootprint footprints}. The transactions of a segment
+ * are spread out over a number of lanes, each lane applied as a batch of its own and concurrently with the other
+ * lanes. A segment is fully applied before the next one is started, which means that transactions touching the
+ * same records are still applied in transaction id order. Exclusive transactions are applied on their own.
+ * <p>
+ * Committed transactions are still published as closed in order by the commit process, after the whole batch
+ * has been applied.
+ */
+class ParallelBatchApplication
+{
+    interface Applier
+    {
+        void apply( CommandsToApply batch, TransactionApplicationMode mode ) throws Exception;
+    }
+
+    static final int MAX_SEGMENT_SIZE = 1_000;
+
+    private final Applier applier;
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final RecordFootprint segmentFootprint = new RecordFootprint();
+    private final RecordFootprint footprint = new RecordFootprint();
+    private final List<CommandsToApply> segment = new ArrayList<>();
+
+    ParallelBatchApplication( Applier applier, ExecutorService executor, int parallelism )
+    {
+        this.applier = applier;
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    void apply( CommandsToApply batch, TransactionApplicationMode mode ) throws Exception
+    {
+        for ( CommandsToApply transaction = batch; transaction != null; transaction = transaction.next() )
+        {
+            footprint.clear();
+            footprint.collect( transaction );
+            if ( segment.size() == MAX_SEGMENT_SIZE || segmentFootprint.overlaps( footprint ) )
+            {
+                applySegment( mode );
+            }
+            segment.add( transaction );
+            segmentFootprint.addAll( footprint );
+        }
+        applySegment( mode );
+    }
+
+    private void applySegment( TransactionApplicationMode mode ) throws Exception
+    {
+        if ( segment.isEmpty() )
+        {
+            return;
+        }
+
+        int laneCount = Math.min( parallelism, segment.size() );
+        Lane[] lanes = new Lane[laneCount];
+        Lane[] tails = new Lane[laneCount];
+        for ( int i = 0; i < segment.size(); i++ )
+        {
+            int laneIndex = i % laneCount;
+            Lane lane = new Lane( segment.get( i ) );
+            if ( lanes[laneIndex] == null )
+            {
+                lanes[laneIndex] = lane;
+            }
+            else
+            {
+                tails[laneIndex].next = lane;
+            }
+            tails[laneIndex] = lane;
+        }
+        segment.clear();
+        segmentFootprint.clear();
+
+        List<Future<Object>> futures = new ArrayList<>( laneCount - 1 );
+        for ( int i = 1; i < laneCount; i++ )
+        {
+            Lane lane = lanes[i];
+            futures.add( executor.submit( () ->
+            {
+                applier.apply( lane, mode );
+                return null;
+            } ) );
+        }
+
+        // Apply the first lane in this thread, it would otherwise just be waiting for the others anyway
+        Throwable failure = null;
+        try
+        {
+            applier.apply( lanes[0], mode );
+        }
+        catch ( Throwable t )
+        {
+            failure = t;
+        }
+        for ( Future<Object> future : futures )
+        {
+            try
+            {
+                future.get();
+            }
+            catch ( ExecutionException e )
+            {
+                failure = Exceptions.chain( failure, e.getCause() );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                failure = Exceptions.chain( failure, e );
+            }
+        }
+
+        if ( failure != null )
+        {
+            if ( failure instanceof Error )
+            {
+                throw (Error) failure;
+            }
+            throw (Exception) failure;
+        }
+    }
+
+    /**
+     * A transaction from the original batch, linked to the other transactions of the same lane rather than
+     * to the next transaction in the original batch.
+     */
+    private static class Lane implements CommandsToApply
+    {
+        private final CommandsToApply transaction;
+        private Lane next;
+
+        Lane( CommandsToApply transaction )
+        {
+            this.transaction = transaction;
+        }
+
+        @Override
+        public long transactionId()
+        {
+            return transaction.transactionId();
+        }
+
+        @Override
+        public CommandsToApply next()
+        {
+            return next;
+        }
+
+        @Override
+        public boolean requiresApplicationOrdering()
+        {
+            return transaction.requiresApplicationOrdering();
+        }
+
+        @Override
+        public boolean accept( Visitor<StorageCommand,IOException> visitor ) throws IOException
+        {
+            return transaction.accept( visitor );
+        }
+    }
+}
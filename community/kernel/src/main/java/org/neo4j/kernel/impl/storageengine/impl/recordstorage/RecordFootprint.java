@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.storageengine.impl.recordstorage;
+
+import java.io.IOException;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.kernel.impl.api.CommandVisitor;
+import org.neo4j.kernel.impl.index.IndexCommand.AddNodeCommand;
+import org.neo4j.kernel.impl.index.IndexCommand.AddRelationshipCommand;
+import org.neo4j.kernel.impl.index.IndexCommand.CreateCommand;
+import org.neo4j.kernel.impl.index.IndexCommand.DeleteCommand;
+import org.neo4j.kernel.impl.index.IndexCommand.RemoveCommand;
+import org.neo4j.kernel.impl.index.IndexDefineCommand;
+import org.neo4j.kernel.impl.store.record.DynamicRecord;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.kernel.impl.transaction.command.Command.LabelTokenCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.NeoStoreCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.NodeCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.PropertyCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.PropertyKeyTokenCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.RelationshipCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.RelationshipGroupCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.RelationshipTypeTokenCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.SchemaRuleCommand;
+import org.neo4j.storageengine.api.CommandsToApply;
+
+/**
+ * The set of records touched by one or more transactions, used to decide whether or not transactions can be
+ * applied concurrently. Owning nodes and relationships of changed properties and relationship groups are included
+ * as well, since index and label scan store updates are derived per entity.
+ * <p>
+ * Transactions changing tokens, schema, neo store meta data or legacy indexes are marked as {@link #isExclusive()
+ * exclusive}, i.e. they must not be applied concurrently with any other transaction. Counts commands are ignored
+ * since counts deltas can be applied in any order.
+ */
+class RecordFootprint extends CommandVisitor.Adapter
+{
+    private static final int DYNAMIC_STORE_SHIFT = 58;
+    private static final long STRING_RECORD = 1L << DYNAMIC_STORE_SHIFT;
+    private static final long ARRAY_RECORD = 2L << DYNAMIC_STORE_SHIFT;
+    private static final long LABEL_RECORD = 3L << DYNAMIC_STORE_SHIFT;
+
+    private final PrimitiveLongSet nodes = Primitive.longSet();
+    private final PrimitiveLongSet relationships = Primitive.longSet();
+    private final PrimitiveLongSet relationshipGroups = Primitive.longSet();
+    private final PrimitiveLongSet properties = Primitive.longSet();
+    private final PrimitiveLongSet dynamicRecords = Primitive.longSet();
+    private boolean exclusive;
+
+    /**
+     * Adds all records touched by the given transaction, not the ones chained after it, to this footprint.
+     */
+    void collect( CommandsToApply transaction ) throws IOException
+    {
+        transaction.accept( command ->
+        {
+            if ( command instanceof Command )
+            {
+                return ((Command) command).handle( this );
+            }
+            exclusive = true;
+            return false;
+        } );
+        if ( transaction.requiresApplicationOrdering() )
+        {
+            exclusive = true;
+        }
+    }
+
+    boolean isExclusive()
+    {
+        return exclusive;
+    }
+
+    boolean overlaps( RecordFootprint other )
+    {
+        return exclusive || other.exclusive ||
+               overlaps( nodes, other.nodes ) ||
+               overlaps( relationships, other.relationships ) ||
+               overlaps( relationshipGroups, other.relationshipGroups ) ||
+               overlaps( properties, other.properties ) ||
+               overlaps( dynamicRecords, other.dynamicRecords );
+    }
+
+    void addAll( RecordFootprint other )
+    {
+        exclusive |= other.exclusive;
+        nodes.addAll( other.nodes.iterator() );
+        relationships.addAll( other.relationships.iterator() );
+        relationshipGroups.addAll( other.relationshipGroups.iterator() );
+        properties.addAll( other.properties.iterator() );
+        dynamicRecords.addAll( other.dynamicRecords.iterator() );
+    }
+
+    void clear()
+    {
+        exclusive = false;
+        nodes.clear();
+        relationships.clear();
+        relationshipGroups.clear();
+        properties.clear();
+        dynamicRecords.clear();
+    }
+
+    @Override
+    public boolean visitNodeCommand( NodeCommand command ) throws IOException
+    {
+        nodes.add( command.getKey() );
+        addLabelRecords( command.getBefore() );
+        addLabelRecords( command.getAfter() );
+        return false;
+    }
+
+    @Override
+    public boolean visitRelationshipCommand( RelationshipCommand command ) throws IOException
+    {
+        relationships.add( command.getKey() );
+        return false;
+    }
+
+    @Override
+    public boolean visitPropertyCommand( PropertyCommand command ) throws IOException
+    {
+        properties.add( command.getKey() );
+        addOwner( command.getBefore() );
+        addOwner( command.getAfter() );
+        addValueRecords( command.getBefore() );
+        addValueRecords( command.getAfter() );
+        return false;
+    }
+
+    @Override
+    public boolean visitRelationshipGroupCommand( RelationshipGroupCommand command ) throws IOException
+    {
+        relationshipGroups.add( command.getKey() );
+        nodes.add( command.getAfter().getOwningNode() );
+        return false;
+    }
+
+    @Override
+    public boolean visitRelationshipTypeTokenCommand( RelationshipTypeTokenCommand command ) throws IOException
+    {
+        return markExclusive();
+    }
+
+    @Override
+    public boolean visitLabelTokenCommand( LabelTokenCommand command ) throws IOException
+    {
+        return markExclusive();
+    }
+
+    @Override
+    public boolean visitPropertyKeyTokenCommand( PropertyKeyTokenCommand command ) throws IOException
+    {
+        return markExclusive();
+    }
+
+    @Override
+    public boolean visitSchemaRuleCommand( SchemaRuleCommand command ) throws IOException
+    {
+        return markExclusive();
+    }
+
+    @Override
+    public boolean visitNeoStoreCommand( NeoStoreCommand command ) throws IOException
+    {
+        return markExclusive();
+    }
+
+    @Override
+    public boolean visitIndexAddNodeCommand( AddNodeCommand command ) throws IOException
+    {
+        return markExclusive();
+    }
+
+    @Override
+    public boolean visitIndexAddRelationshipCommand( AddRelationshipCommand command ) throws IOException
+    {
+        return markExclusive();
+    }
+
+    @Override
+    public boolean visitIndexRemoveCommand( RemoveCommand command ) throws IOException
+    {
+        return markExclusive();
+    }
+
+    @Override
+    public boolean visitIndexDeleteCommand( DeleteCommand command ) throws IOException
+    {
+        return markExclusive();
+    }
+
+    @Override
+    public boolean visitIndexCreateCommand( CreateCommand command ) throws IOException
+    {
+        return markExclusive();
+    }
+
+    @Override
+    public boolean visitIndexDefineCommand( IndexDefineCommand command ) throws IOException
+    {
+        return markExclusive();
+    }
+
+    private boolean markExclusive()
+    {
+        exclusive = true;
+        return false;
+    }
+
+    private void addLabelRecords( NodeRecord node )
+    {
+        if ( node != null )
+        {
+            for ( DynamicRecord record : node.getDynamicLabelRecords() )
+            {
+                dynamicRecords.add( LABEL_RECORD | record.getId() );
+            }
+        }
+    }
+
+    private void addOwner( PropertyRecord property )
+    {
+        if ( property == null )
+        {
+            return;
+        }
+        if ( property.isNodeSet() )
+        {
+            nodes.add( property.getNodeId() );
+        }
+        else if ( property.isRelSet() )
+        {
+            relationships.add( property.getRelId() );
+        }
+    }
+
+    private void addValueRecords( PropertyRecord property )
+    {
+        if ( property == null )
+        {
+            return;
+        }
+        for ( PropertyBlock block : property )
+        {
+            switch ( block.getType() )
+            {
+            case STRING:
+                addDynamicRecords( STRING_RECORD, block.getValueRecords() );
+                break;
+            case ARRAY:
+                addDynamicRecords( ARRAY_RECORD, block.getValueRecords() );
+                break;
+            default:
+                // No dynamic records for this type
+                break;
+            }
+        }
+        for ( DynamicRecord record : property.getDeletedRecords() )
+        {
+            // Deleted records don't say which store they belong to, so be conservative and claim both
+            dynamicRecords.add( STRING_RECORD | record.getId() );
+            dynamicRecords.add( ARRAY_RECORD | record.getId() );
+        }
+    }
+
+    private void addDynamicRecords( long store, Iterable<DynamicRecord> records )
+    {
+        for ( DynamicRecord record : records )
+        {
+            dynamicRecords.add( store | record.getId() );
+        }
+    }
+
+    private static boolean overlaps( PrimitiveLongSet smaller, PrimitiveLongSet larger )
+    {
+        if ( smaller.size() > larger.size() )
+        {
+            return overlaps( larger, smaller );
+        }
+        PrimitiveLongIterator iterator = smaller.iterator();
+        while ( iterator.hasNext() )
+        {
+            if ( larger.contains( iterator.next() ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -25,6 +25,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Supplier;
 
 import org.neo4j.concurrent.WorkSync;
@@ -124,6 +126,7 @@ import org.neo4j.storageengine.api.txstate.ReadableTransactionState;
 import org.neo4j.storageengine.api.txstate.TxStateVisitor;
 import org.neo4j.unsafe.impl.internal.dragons.FeatureToggles;
 
+import static org.neo4j.helpers.NamedThreadFactory.daemon;
 import static org.neo4j.kernel.impl.locking.LockService.NO_LOCK_SERVICE;
 
 public class RecordStorageEngine implements StorageEngine, Lifecycle
@@ -161,6 +164,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     private final PropertyPhysicalToLogicalConverter indexUpdatesConverter;
     private final Supplier<StorageStatement> storeStatementSupplier;
     private final IdController idController;
+    private final int applyParallelism;
+    private ExecutorService applyExecutor;
+    private final int recoveryParallelism;
+    private ExecutorService recoveryExecutor;
 
     // Immutable state for creating/applying commands
     private final Loaders loaders;
@@ -254,6 +261,8 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             propertyDeleter = new PropertyDeleter( propertyTraverser );
             relationshipDeleter = new RelationshipDeleter( relationshipGroupGetter, propertyDeleter );
             propertyCreator = new PropertyCreator( neoStores.getPropertyStore(), propertyTraverser );
+            applyParallelism = config.get( GraphDatabaseSettings.transaction_apply_parallelism );
+            recoveryParallelism = config.get( GraphDatabaseSettings.recovery_parallelism );
         }
         catch ( Throwable failure )
         {
@@ -333,6 +342,22 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
 
     @Override
     public void apply( CommandsToApply batch, TransactionApplicationMode mode ) throws Exception
+    {
+        boolean recovery = mode == TransactionApplicationMode.RECOVERY;
+        ExecutorService executor = recovery ? recoveryExecutor : applyExecutor;
+        if ( executor != null && batch.next() != null )
+        {
+            // Each lane is applied as a batch of its own, the same way concurrently committing transactions are
+            new ParallelBatchApplication( this::applySerially, executor,
+                    recovery ? recoveryParallelism : applyParallelism ).apply( batch, mode );
+        }
+        else
+        {
+            applySerially( batch, mode );
+        }
+    }
+
+    private void applySerially( CommandsToApply batch, TransactionApplicationMode mode ) throws Exception
     {
         // Have these command appliers as separate try-with-resource to have better control over
         // point between closing this and the locks above
@@ -420,6 +445,8 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     @Override
     public void start() throws Throwable
     {
+        // Recovery, if any, has completed by now
+        shutdownRecoveryExecutor();
         neoStores.makeStoreOk();
 
         propertyKeyTokenHolder.setInitialTokens(
@@ -434,6 +461,11 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         indexingService.start();
         labelScanStore.start();
         idController.start();
+        if ( applyParallelism > 1 )
+        {
+            // The thread applying a batch takes on one of the lanes itself
+            applyExecutor = Executors.newFixedThreadPool( applyParallelism - 1, daemon( "TransactionApplier" ) );
+        }
     }
 
     @Override
@@ -452,6 +484,11 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     @Override
     public void stop() throws Throwable
     {
+        if ( applyExecutor != null )
+        {
+            applyExecutor.shutdown();
+            applyExecutor = null;
+        }
         labelScanStore.stop();
         indexingService.stop();
         idController.stop();
@@ -460,6 +497,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     @Override
     public void shutdown() throws Throwable
     {
+        shutdownRecoveryExecutor();
         labelScanStore.shutdown();
         indexingService.shutdown();
         neoStores.close();
@@ -500,6 +538,20 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     public void prepareForRecoveryRequired()
     {
         neoStores.deleteIdGenerators();
+        if ( recoveryParallelism > 1 )
+        {
+            // The recovering thread takes on one of the lanes itself
+            recoveryExecutor = Executors.newFixedThreadPool( recoveryParallelism - 1, daemon( "RecoveryApplier" ) );
+        }
+    }
+
+    private void shutdownRecoveryExecutor()
+    {
+        if ( recoveryExecutor != null )
+        {
+            recoveryExecutor.shutdown();
+            recoveryExecutor = null;
+        }
     }
 
     @Override
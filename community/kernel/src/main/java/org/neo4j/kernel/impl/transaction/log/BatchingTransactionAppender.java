@@ -22,12 +22,15 @@ package org.neo4j.kernel.impl.transaction.log;
 import java.io.Flushable;
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
+import java.time.Clock;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 
+import org.neo4j.io.pagecache.WriteAheadBarrier;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
@@ -41,16 +44,29 @@ import org.neo4j.kernel.impl.transaction.tracing.SerializeTransactionEvent;
 import org.neo4j.kernel.impl.util.IdOrderingQueue;
 import org.neo4j.kernel.internal.DatabaseHealth;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.time.Clocks;
 
+import static java.lang.Math.max;
 import static org.neo4j.kernel.impl.api.TransactionToApply.TRANSACTION_ID_NOT_SPECIFIED;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart.checksum;
 
 /**
  * Concurrently appends transactions to the transaction log, while coordinating with the log rotation and forcing the
  * log file in batches for higher throughput in a concurrent scenario.
+ * <p>
+ * Optionally appends return without waiting for the log to be forced, until a certain number of bytes have been
+ * appended since the last force. The log is then forced by someone periodically calling {@link #force(LogForceEvents)},
+ * see {@link LogForceScheduler}. Such transactions are applied to the store before they are durable, so the page cache
+ * then has to pass this appender, as its {@link WriteAheadBarrier}, before writing any page they may have changed.
  */
-public class BatchingTransactionAppender extends LifecycleAdapter implements TransactionAppender
+public class BatchingTransactionAppender extends LifecycleAdapter
+        implements TransactionAppender, DurabilityLag, WriteAheadBarrier
 {
+    /**
+     * Max number of unforced bytes, for appends to always wait for the log to be forced.
+     */
+    public static final long FORCE_AFTER_EVERY_APPEND = 0;
+
     // For the graph store and schema indexes order-of-updates are managed by the high level entity locks
     // such that changes are applied to the affected records in the same order that they are written to the
     // log. For the legacy indexes there are no such locks, and hence no such ordering. This queue below
@@ -59,12 +75,32 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
 
     private final AtomicReference<ThreadLink> threadLinkHead = new AtomicReference<>( ThreadLink.END );
     private final TransactionMetadataCache transactionMetadataCache;
+    private final TransactionLogIndex transactionLogIndex;
+    private final GroupCommitWindow groupCommitWindow;
     private final LogFile logFile;
     private final LogRotation logRotation;
     private final TransactionIdStore transactionIdStore;
     private final LogPositionMarker positionMarker = new LogPositionMarker();
     private final DatabaseHealth databaseHealth;
     private final Lock forceLock = new ReentrantLock();
+    private final long asyncForceMaxBytes;
+    private final Clock clock;
+
+    // Guarded by the logFile monitor
+    private long unforcedBytes;
+    // Written under the logFile monitor, read by anyone
+    private volatile long lastAppendedTransactionId;
+    private volatile long unforcedSinceMillis;
+    // Written under the logFile monitor whenever appended transactions are emptied into the log channel, read by
+    // anyone. The channel is published before the transaction id, so that whoever reads the id first and the channel
+    // second, gets the channel which the transaction was emptied into, or a later one, in which case a rotation has
+    // forced the earlier one.
+    private volatile long emptiedTransactionId;
+    private volatile Flushable emptiedChannel;
+    // Raised by the thread holding the forceLock, and by the page cache passing the write ahead barrier
+    private final AtomicLong lastForcedTransactionId = new AtomicLong();
+    // Written by the thread holding the forceLock, read by anyone
+    private volatile long forcingSinceMillis;
 
     private FlushablePositionAwareChannel writer;
     private TransactionLogWriter transactionLogWriter;
@@ -73,6 +109,38 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     public BatchingTransactionAppender( LogFile logFile, LogRotation logRotation,
             TransactionMetadataCache transactionMetadataCache, TransactionIdStore transactionIdStore,
             IdOrderingQueue legacyIndexTransactionOrdering, DatabaseHealth databaseHealth )
+    {
+        this( logFile, logRotation, transactionMetadataCache, transactionIdStore, legacyIndexTransactionOrdering,
+                databaseHealth, FORCE_AFTER_EVERY_APPEND, Clocks.systemClock() );
+    }
+
+    /**
+     * @param asyncForceMaxBytes max number of bytes appended without waiting for the log to be forced, or
+     * {@link #FORCE_AFTER_EVERY_APPEND} for every append to wait for it.
+     * @param clock used for measuring {@link #durabilityLagMillis()}.
+     */
+    public BatchingTransactionAppender( LogFile logFile, LogRotation logRotation,
+            TransactionMetadataCache transactionMetadataCache, TransactionIdStore transactionIdStore,
+            IdOrderingQueue legacyIndexTransactionOrdering, DatabaseHealth databaseHealth, long asyncForceMaxBytes,
+            Clock clock )
+    {
+        this( logFile, logRotation, transactionMetadataCache, TransactionLogIndex.NO_INDEX, transactionIdStore,
+                legacyIndexTransactionOrdering, databaseHealth, asyncForceMaxBytes, new GroupCommitWindow( 0 ),
+                clock );
+    }
+
+    /**
+     * @param transactionLogIndex index to tell about every appended transaction.
+     * @param asyncForceMaxBytes max number of bytes appended without waiting for the log to be forced, or
+     * {@link #FORCE_AFTER_EVERY_APPEND} for every append to wait for it.
+     * @param groupCommitWindow decides how long to wait for more transactions before forcing the log.
+     * @param clock used for measuring {@link #durabilityLagMillis()}.
+     */
+    public BatchingTransactionAppender( LogFile logFile, LogRotation logRotation,
+            TransactionMetadataCache transactionMetadataCache, TransactionLogIndex transactionLogIndex,
+            TransactionIdStore transactionIdStore, IdOrderingQueue legacyIndexTransactionOrdering,
+            DatabaseHealth databaseHealth, long asyncForceMaxBytes, GroupCommitWindow groupCommitWindow,
+            Clock clock )
     {
         this.logFile = logFile;
         this.logRotation = logRotation;
@@ -80,6 +148,10 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         this.legacyIndexTransactionOrdering = legacyIndexTransactionOrdering;
         this.databaseHealth = databaseHealth;
         this.transactionMetadataCache = transactionMetadataCache;
+        this.transactionLogIndex = transactionLogIndex;
+        this.asyncForceMaxBytes = asyncForceMaxBytes;
+        this.groupCommitWindow = groupCommitWindow;
+        this.clock = clock;
     }
 
     @Override
@@ -88,6 +160,10 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         this.writer = logFile.getWriter();
         this.indexCommandDetector = new IndexCommandDetector();
         this.transactionLogWriter = new TransactionLogWriter( new LogEntryWriter( writer ) );
+        long lastCommittedTransactionId = transactionIdStore.getLastCommittedTransactionId();
+        this.lastAppendedTransactionId = lastCommittedTransactionId;
+        this.emptiedTransactionId = lastCommittedTransactionId;
+        this.lastForcedTransactionId.set( lastCommittedTransactionId );
     }
 
     @Override
@@ -100,6 +176,7 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
 
         // Assigned base tx id just to make compiler happy
         long lastTransactionId = TransactionIdStore.BASE_TX_ID;
+        boolean awaitForce = true;
         // Synchronized with logFile to get absolute control over concurrent rotations happening
         synchronized ( logFile )
         {
@@ -124,14 +201,35 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
                     tx = tx.next();
                     lastTransactionId = transactionId;
                 }
+
+                if ( asyncForceMaxBytes != FORCE_AFTER_EVERY_APPEND && unforcedBytes < asyncForceMaxBytes )
+                {
+                    // Empty the buffer into the log file so that these transactions can be read from it like any
+                    // committed transaction, but leave forcing it to someone else
+                    try
+                    {
+                        emptied( writer.prepareForFlush(), lastTransactionId );
+                    }
+                    catch ( Throwable panic )
+                    {
+                        databaseHealth.panic( panic );
+                        throw panic;
+                    }
+                    awaitForce = false;
+                }
             }
         }
 
         // At this point we've appended all transactions in this batch, but we can't mark any of them
         // as committed since they haven't been forced to disk yet. So here we force, or potentially
         // piggy-back on another force, but anyway after this call below we can be sure that all our transactions
-        // in this batch exist durably on disk.
-        forceAfterAppend( logAppendEvent );
+        // in this batch exist durably on disk. Unless forcing is done asynchronously, in which case it will
+        // eventually happen.
+        if ( awaitForce )
+        {
+            groupCommitWindow.commitArrived( System.nanoTime() );
+            forceAfterAppend( logAppendEvent );
+        }
 
         // Mark all transactions as committed
         publishAsCommitted( batch );
@@ -185,6 +283,73 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         forceAfterAppend( logCheckPointEvent );
     }
 
+    @Override
+    public void force( LogForceEvents logForceEvents ) throws IOException
+    {
+        if ( lastForcedTransactionId.get() < lastAppendedTransactionId )
+        {
+            forceAfterAppend( logForceEvents );
+        }
+    }
+
+    @Override
+    public long unforcedTransactions()
+    {
+        return max( 0, lastAppendedTransactionId - lastForcedTransactionId.get() );
+    }
+
+    @Override
+    public long durabilityLagMillis()
+    {
+        if ( unforcedTransactions() == 0 )
+        {
+            // Possibly forced by the page cache passing the write ahead barrier, which leaves the times be
+            return 0;
+        }
+        long forcingSince = forcingSinceMillis;
+        long since = forcingSince != 0 ? forcingSince : unforcedSinceMillis;
+        return since == 0 ? 0 : max( 0, clock.millis() - since );
+    }
+
+    @Override
+    public long currentGeneration()
+    {
+        return emptiedTransactionId;
+    }
+
+    /**
+     * Force the log channel which transactions were last emptied into, if there may be transactions up to the given
+     * one which haven't been forced. Every transaction is either forced before it is applied to the store, or emptied
+     * into the log channel, so this makes all transactions that changed a page durable.
+     * <p>
+     * The page cache calls this with pages locked, so it must not wait for the logFile monitor or the forceLock.
+     * Their holders may be waiting for those pages, like when a log rotation writes the new log version to the store.
+     */
+    @Override
+    public void awaitDurable( long transactionId ) throws IOException
+    {
+        if ( transactionId <= lastForcedTransactionId.get() )
+        {
+            return;
+        }
+        long forcingUpTo = emptiedTransactionId;
+        Flushable channel = emptiedChannel;
+        try
+        {
+            channel.flush();
+        }
+        catch ( ClosedChannelException ignored )
+        {
+            // Some other thread is rotating the log, and has forced this channel before closing it
+        }
+        catch ( Throwable panic )
+        {
+            databaseHealth.panic( panic );
+            throw panic;
+        }
+        lastForcedTransactionId.accumulateAndGet( forcingUpTo, Math::max );
+    }
+
     /**
      * @return A TransactionCommitment instance with metadata about the committed transaction, such as whether or not
      * this transaction contains any legacy index changes.
@@ -207,12 +372,14 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
             LogPosition logPositionBeforeCommit = writer.getCurrentPosition( positionMarker ).newPosition();
             transactionLogWriter.append( transaction, transactionId );
             LogPosition logPositionAfterCommit = writer.getCurrentPosition( positionMarker ).newPosition();
+            appended( transactionId, logPositionBeforeCommit, logPositionAfterCommit );
 
             long transactionChecksum =
                     checksum( transaction.additionalHeader(), transaction.getMasterId(), transaction.getAuthorId() );
             transactionMetadataCache
                     .cacheTransactionMetadata( transactionId, logPositionBeforeCommit, transaction.getMasterId(),
                             transaction.getAuthorId(), transactionChecksum, transaction.getTimeCommitted() );
+            transactionLogIndex.transactionAppended( transactionId, logPositionBeforeCommit );
 
             transaction.accept( indexCommandDetector );
             boolean hasLegacyIndexChanges = indexCommandDetector.hasWrittenAnyLegacyIndexCommand();
@@ -231,6 +398,25 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         }
     }
 
+    private void emptied( Flushable channel, long transactionId )
+    {
+        emptiedChannel = channel;
+        emptiedTransactionId = transactionId;
+    }
+
+    private void appended( long transactionId, LogPosition before, LogPosition after )
+    {
+        // A transaction is appended within one log version. For compressed logs the difference is exact as long
+        // as the transaction fits in the block it was started in, otherwise it overestimates, which only means
+        // an earlier force.
+        unforcedBytes += after.getByteOffset() - before.getByteOffset();
+        lastAppendedTransactionId = transactionId;
+        if ( unforcedSinceMillis == 0 )
+        {
+            unforcedSinceMillis = clock.millis();
+        }
+    }
+
     /**
      * Called by the appender that just appended a transaction to the log.
      *
@@ -253,6 +439,8 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
                     attemptedForce = true;
                     try
                     {
+                        // Give transactions which are being appended right now a chance to make it into this force
+                        groupCommitWindow.await();
                         forceLog( logForceEvents );
                         // In the event of any failure a database panic will be raised and thrown here
                     }
@@ -290,7 +478,9 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         ThreadLink links = threadLinkHead.getAndSet( ThreadLink.END );
         try ( LogForceEvent logForceEvent = logForceEvents.beginLogForce() )
         {
-            force();
+            long startNanos = System.nanoTime();
+            logForceEvent.setBatchSize( force() );
+            groupCommitWindow.forced( System.nanoTime() - startNanos );
         }
         catch ( final Throwable panic )
         {
@@ -327,16 +517,25 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         LockSupport.parkNanos( this, parkTime );
     }
 
-    private void force() throws IOException
+    /**
+     * @return the number of transactions which were made durable by this force.
+     */
+    private long force() throws IOException
     {
         // Empty buffer into writer. We want to synchronize with appenders somehow so that they
         // don't append while we're doing that. The way rotation is coordinated we can't synchronize
         // on logFile because it would cause deadlocks. Synchronizing on writer assumes that appenders
         // also synchronize on writer.
         Flushable flushable;
+        long forcingUpTo;
         synchronized ( logFile )
         {
             flushable = writer.prepareForFlush();
+            forcingUpTo = lastAppendedTransactionId;
+            emptied( flushable, forcingUpTo );
+            forcingSinceMillis = unforcedSinceMillis;
+            unforcedSinceMillis = 0;
+            unforcedBytes = 0;
         }
         // Force the writer outside of the lock.
         // This allows other threads access to the buffer while the writer is being forced.
@@ -351,5 +550,9 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
             // successful in emptying the buffer *UNDER THE LOCK* we know that the rotating thread included the changes
             // we emptied into the channel, and thus it is already flushed by that thread.
         }
+        long previouslyForcedUpTo = lastForcedTransactionId.getAndAccumulate( forcingUpTo, Math::max );
+        long forcedTransactions = max( 0, forcingUpTo - previouslyForcedUpTo );
+        forcingSinceMillis = 0;
+        return forcedTransactions;
     }
 }
@@ -0,0 +1,449 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
+import org.neo4j.kernel.impl.transaction.log.entry.LogVersions;
+
+import static java.lang.Math.min;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.COMPRESSED_LOG_VERSION;
+
+/**
+ * {@link PhysicalLogVersionedStoreChannel} for log files of format {@link LogVersions#COMPRESSED_LOG_VERSION}.
+ * Everything after the log header is a sequence of blocks, one per {@link #writeAll(ByteBuffer)}, i.e. one per
+ * flush of the log writer:
+ * <pre>
+ * [int rawLength][int storedLength][storedLength bytes]
+ * </pre>
+ * The stored bytes are deflated, unless deflating didn't make them smaller, in which case they are stored as is
+ * and {@code storedLength == rawLength}.
+ * <p>
+ * Positions of this channel aren't file offsets, but {@code blockOffset << 20 | offsetInBlock}, i.e. the file
+ * offset of a block combined with an offset into its uncompressed content. This keeps positions ordered and
+ * makes seeking to a position a matter of reading a single block. Any position up to and including
+ * {@link LogHeader#LOG_HEADER_SIZE} means the start of the first block, so that {@link LogPosition#start(long)}
+ * points to the first entry of the log, as it does for uncompressed logs.
+ * <p>
+ * A block which cannot be read in full marks the end of the log. This is how a block torn by a crash is seen
+ * by recovery, which then {@link #truncate(long) truncates} the log at the position after the last
+ * recovered transaction.
+ */
+public class CompressedLogVersionedStoreChannel extends PhysicalLogVersionedStoreChannel
+{
+    static final int OFFSET_BITS = 20;
+    static final int MAX_BLOCK_SIZE = (1 << OFFSET_BITS) - 1;
+    private static final int BLOCK_HEADER_SIZE = 8;
+    private static final long NO_BLOCK = -1;
+
+    private final Deflater deflater = new Deflater( Deflater.BEST_SPEED );
+    private final Inflater inflater = new Inflater();
+    private final ByteBuffer blockHeader = ByteBuffer.allocate( BLOCK_HEADER_SIZE );
+    // header and stored bytes of a block being written or read
+    private ByteBuffer stored = ByteBuffer.allocate( 0 );
+    // uncompressed content of the block being read, where position is what has been read of it
+    private ByteBuffer block = ByteBuffer.allocate( 0 );
+    private long blockStart = NO_BLOCK;
+    // {blockStart,rawLength} of blocks read before the current one, for positionBehind(int)
+    private final ArrayDeque<long[]> previousBlocks = new ArrayDeque<>();
+    private long previousBlocksSize;
+    private int lookBehind = ReadAheadChannel.DEFAULT_READ_AHEAD_SIZE;
+
+    public CompressedLogVersionedStoreChannel( StoreChannel delegateChannel, long version ) throws IOException
+    {
+        super( delegateChannel, version, COMPRESSED_LOG_VERSION );
+    }
+
+    static long position( long blockOffset, int offsetInBlock )
+    {
+        return (blockOffset << OFFSET_BITS) | offsetInBlock;
+    }
+
+    static long blockOffset( long position )
+    {
+        return position <= LOG_HEADER_SIZE ? LOG_HEADER_SIZE : position >>> OFFSET_BITS;
+    }
+
+    static int offsetInBlock( long position )
+    {
+        return position <= LOG_HEADER_SIZE ? 0 : (int) (position & MAX_BLOCK_SIZE);
+    }
+
+    @Override
+    public void writeAll( ByteBuffer src ) throws IOException
+    {
+        int rawLength = src.remaining();
+        if ( rawLength == 0 )
+        {
+            // Flushing an empty buffer, an empty block would only be mistaken for the end of the log
+            return;
+        }
+        if ( rawLength > MAX_BLOCK_SIZE )
+        {
+            throw new IllegalArgumentException( "Block of " + rawLength + " bytes exceeds max block size " +
+                    MAX_BLOCK_SIZE );
+        }
+        if ( block.hasRemaining() )
+        {
+            throw new IllegalStateException( "Can only append blocks at the end of the log, not inside block at " +
+                    blockStart );
+        }
+        resetBlocks();
+
+        byte[] raw;
+        int rawOffset;
+        if ( src.hasArray() )
+        {
+            raw = src.array();
+            rawOffset = src.arrayOffset() + src.position();
+        }
+        else
+        {
+            raw = new byte[rawLength];
+            src.duplicate().get( raw );
+            rawOffset = 0;
+        }
+        src.position( src.limit() );
+
+        stored = ensureCapacity( stored, BLOCK_HEADER_SIZE + rawLength );
+        deflater.reset();
+        deflater.setInput( raw, rawOffset, rawLength );
+        deflater.finish();
+        int storedLength = 0;
+        while ( !deflater.finished() && storedLength < rawLength )
+        {
+            storedLength += deflater.deflate( stored.array(), BLOCK_HEADER_SIZE + storedLength,
+                    rawLength - storedLength );
+        }
+        if ( !deflater.finished() || storedLength >= rawLength )
+        {
+            // Not worth it, store as is
+            System.arraycopy( raw, rawOffset, stored.array(), BLOCK_HEADER_SIZE, rawLength );
+            storedLength = rawLength;
+        }
+        stored.clear();
+        stored.putInt( rawLength ).putInt( storedLength );
+        stored.limit( BLOCK_HEADER_SIZE + storedLength ).position( 0 );
+        super.writeAll( stored );
+    }
+
+    @Override
+    public int write( ByteBuffer src ) throws IOException
+    {
+        int bytes = src.remaining();
+        writeAll( src );
+        return bytes;
+    }
+
+    /**
+     * Writes each of the buffers as a block of its own, see {@link #writeAll(ByteBuffer)}.
+     */
+    @Override
+    public long write( ByteBuffer[] srcs, int offset, int length ) throws IOException
+    {
+        long bytes = 0;
+        for ( int i = offset; i < offset + length; i++ )
+        {
+            bytes += write( srcs[i] );
+        }
+        return bytes;
+    }
+
+    @Override
+    public long write( ByteBuffer[] srcs ) throws IOException
+    {
+        return write( srcs, 0, srcs.length );
+    }
+
+    @Override
+    public long read( ByteBuffer[] dsts, int offset, int length ) throws IOException
+    {
+        long bytes = 0;
+        for ( int i = offset; i < offset + length; i++ )
+        {
+            ByteBuffer dst = dsts[i];
+            while ( dst.hasRemaining() )
+            {
+                int read = read( dst );
+                if ( read == -1 )
+                {
+                    return bytes == 0 ? -1 : bytes;
+                }
+                bytes += read;
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public long read( ByteBuffer[] dsts ) throws IOException
+    {
+        return read( dsts, 0, dsts.length );
+    }
+
+    @Override
+    public int read( ByteBuffer dst ) throws IOException
+    {
+        if ( !block.hasRemaining() && !readBlock() )
+        {
+            return -1;
+        }
+        int count = min( dst.remaining(), block.remaining() );
+        int limit = block.limit();
+        block.limit( block.position() + count );
+        dst.put( block );
+        block.limit( limit );
+        return count;
+    }
+
+    /**
+     * Reads the block at the current file offset, making it the current block.
+     *
+     * @return whether or not there was a complete block to read.
+     */
+    private boolean readBlock() throws IOException
+    {
+        long start = super.position();
+        blockHeader.clear();
+        if ( !readFully( blockHeader ) )
+        {
+            return endOfLog( start );
+        }
+        blockHeader.flip();
+        int rawLength = blockHeader.getInt();
+        int storedLength = blockHeader.getInt();
+        if ( rawLength <= 0 || rawLength > MAX_BLOCK_SIZE || storedLength <= 0 || storedLength > rawLength )
+        {
+            return endOfLog( start );
+        }
+
+        stored = ensureCapacity( stored, storedLength );
+        stored.clear().limit( storedLength );
+        if ( !readFully( stored ) )
+        {
+            return endOfLog( start );
+        }
+        ByteBuffer content = ensureCapacity( block, rawLength );
+        if ( storedLength == rawLength )
+        {
+            System.arraycopy( stored.array(), 0, content.array(), 0, rawLength );
+        }
+        else
+        {
+            inflater.reset();
+            inflater.setInput( stored.array(), 0, storedLength );
+            try
+            {
+                if ( inflater.inflate( content.array(), 0, rawLength ) != rawLength || !inflater.finished() )
+                {
+                    return endOfLog( start );
+                }
+            }
+            catch ( DataFormatException e )
+            {
+                return endOfLog( start );
+            }
+        }
+
+        if ( blockStart != NO_BLOCK )
+        {
+            rememberPreviousBlock( blockStart, block.limit() );
+        }
+        block = content;
+        block.clear().limit( rawLength );
+        blockStart = start;
+        return true;
+    }
+
+    private boolean endOfLog( long start ) throws IOException
+    {
+        // Leave the file offset at the start of the incomplete block, it may be complete when read later
+        super.position( start );
+        return false;
+    }
+
+    private boolean readFully( ByteBuffer buffer ) throws IOException
+    {
+        while ( buffer.hasRemaining() )
+        {
+            if ( super.read( buffer ) == -1 )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rememberPreviousBlock( long start, int rawLength )
+    {
+        previousBlocks.addLast( new long[]{start, rawLength} );
+        previousBlocksSize += rawLength;
+        while ( previousBlocksSize - previousBlocks.peekFirst()[1] >= lookBehind )
+        {
+            previousBlocksSize -= previousBlocks.removeFirst()[1];
+        }
+    }
+
+    /**
+     * Sets how many bytes before the current position {@link #positionBehind(int)} must be able to go back.
+     * A reader buffering content read from this channel sets this to the size of its buffer.
+     */
+    void lookBehind( int bytes )
+    {
+        this.lookBehind = bytes;
+    }
+
+    /**
+     * Position of the byte which is {@code bytes} before the current position. Since positions aren't file offsets
+     * this can't be calculated by subtraction, as {@link ReadAheadChannel} does for uncompressed logs.
+     *
+     * @param bytes number of bytes read from this channel, but not yet consumed by the reader.
+     * @return position of the first of the {@code bytes} not yet consumed.
+     */
+    public long positionBehind( int bytes ) throws IOException
+    {
+        if ( blockStart == NO_BLOCK )
+        {
+            assert bytes == 0;
+            return position();
+        }
+        int readInBlock = block.position();
+        if ( bytes <= readInBlock )
+        {
+            return position( blockStart, readInBlock - bytes );
+        }
+        long remaining = bytes - readInBlock;
+        for ( Iterator<long[]> blocks = previousBlocks.descendingIterator(); blocks.hasNext(); )
+        {
+            long[] previous = blocks.next();
+            if ( remaining <= previous[1] )
+            {
+                return position( previous[0], (int) (previous[1] - remaining) );
+            }
+            remaining -= previous[1];
+        }
+        throw new IllegalStateException( "Position " + bytes + " bytes behind current position " + position() +
+                " is further back than the " + lookBehind + " bytes remembered" );
+    }
+
+    @Override
+    public long position() throws IOException
+    {
+        return blockStart == NO_BLOCK ? position( super.position(), 0 ) : position( blockStart, block.position() );
+    }
+
+    @Override
+    public StoreChannel position( long newPosition ) throws IOException
+    {
+        int offset = offsetInBlock( newPosition );
+        super.position( blockOffset( newPosition ) );
+        resetBlocks();
+        if ( offset > 0 )
+        {
+            if ( !readBlock() || offset > block.limit() )
+            {
+                throw new IOException( "Unable to position log version " + getVersion() + " at " + newPosition +
+                        ", there's no block with " + offset + " bytes at file offset " + blockOffset( newPosition ) );
+            }
+            block.position( offset );
+        }
+        return this;
+    }
+
+    @Override
+    public long physicalPosition() throws IOException
+    {
+        return super.position();
+    }
+
+    @Override
+    public long size() throws IOException
+    {
+        return position( super.size(), 0 );
+    }
+
+    /**
+     * Truncates the log at a position of this channel. A position inside a block means that the block
+     * is rewritten with only the content before that position.
+     *
+     * @param position position of this channel to truncate at, not a file offset.
+     */
+    @Override
+    public StoreChannel truncate( long position ) throws IOException
+    {
+        long start = blockOffset( position );
+        int offset = offsetInBlock( position );
+        long end = start;
+        super.position( start );
+        resetBlocks();
+        if ( offset > 0 && readBlock() )
+        {
+            if ( offset < block.limit() )
+            {
+                ByteBuffer kept = ByteBuffer.wrap( block.array(), 0, offset );
+                block = ByteBuffer.allocate( 0 );
+                resetBlocks();
+                super.position( start );
+                writeAll( kept );
+            }
+            end = super.position();
+        }
+        super.truncate( end );
+        super.position( end );
+        resetBlocks();
+        return this;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            super.close();
+        }
+        finally
+        {
+            deflater.end();
+            inflater.end();
+        }
+    }
+
+    private void resetBlocks()
+    {
+        blockStart = NO_BLOCK;
+        block.position( block.limit() );
+        previousBlocks.clear();
+        previousBlocksSize = 0;
+    }
+
+    private static ByteBuffer ensureCapacity( ByteBuffer buffer, int capacity )
+    {
+        return buffer.capacity() >= capacity ? buffer : ByteBuffer.allocate( capacity );
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+/**
+ * How far the durable part of the transaction log, i.e. what has been forced to disk, is behind what has been
+ * appended to it. Only ever more than a single force behind when transactions are committed without waiting for
+ * the log to be forced.
+ */
+public interface DurabilityLag
+{
+    /**
+     * @return number of appended transactions not yet forced to disk.
+     */
+    long unforcedTransactions();
+
+    /**
+     * @return milliseconds since the oldest transaction not yet forced to disk was appended, or {@code 0} if
+     * all appended transactions have been forced.
+     */
+    long durabilityLagMillis();
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decides how long the thread about to force the transaction log should wait for more transactions to be appended
+ * first, so that they are made durable by the same force instead of having to wait for the next one.
+ * <p>
+ * The window is sized from moving averages of the time between commits and of the time a force takes. Waiting only
+ * pays off if another commit is expected to arrive within the window, so with few concurrent committers there is no
+ * wait at all. Otherwise the wait is half the average force time, but never more than the configured max window.
+ * <p>
+ * The averages are updated without synchronization. Concurrent updates may lose a sample now and then, which is
+ * fine for this purpose.
+ */
+public class GroupCommitWindow
+{
+    /**
+     * Weight of a new sample in the moving averages, as a power of two: each sample counts for 1/8.
+     */
+    private static final int SAMPLE_WEIGHT_SHIFT = 3;
+    private static final long NO_SAMPLES = -1;
+
+    private final long maxWindowNanos;
+    private final AtomicLong lastCommitNanos = new AtomicLong();
+    private volatile long averageCommitIntervalNanos = NO_SAMPLES;
+    private volatile long averageForceNanos = NO_SAMPLES;
+
+    /**
+     * @param maxWindowNanos max time to wait before forcing, or {@code 0} to never wait.
+     */
+    public GroupCommitWindow( long maxWindowNanos )
+    {
+        this.maxWindowNanos = maxWindowNanos;
+    }
+
+    /**
+     * Called for every commit that is about to wait for the log to be forced.
+     */
+    public void commitArrived( long nowNanos )
+    {
+        if ( maxWindowNanos == 0 )
+        {
+            return;
+        }
+        long previousCommitNanos = lastCommitNanos.getAndSet( nowNanos );
+        if ( previousCommitNanos != 0 )
+        {
+            averageCommitIntervalNanos = average( averageCommitIntervalNanos, nowNanos - previousCommitNanos );
+        }
+    }
+
+    /**
+     * Called after each force of the log, with the time it took.
+     */
+    public void forced( long forceNanos )
+    {
+        averageForceNanos = average( averageForceNanos, forceNanos );
+    }
+
+    /**
+     * @return how long to wait before forcing the log, {@code 0} if it should be forced right away.
+     */
+    public long windowNanos()
+    {
+        long commitIntervalNanos = averageCommitIntervalNanos;
+        long forceNanos = averageForceNanos;
+        if ( commitIntervalNanos == NO_SAMPLES || forceNanos == NO_SAMPLES )
+        {
+            return 0;
+        }
+        long windowNanos = Math.min( maxWindowNanos, forceNanos / 2 );
+        return commitIntervalNanos < windowNanos ? windowNanos : 0;
+    }
+
+    /**
+     * Waits for the current {@link #windowNanos() window}, if any.
+     */
+    public void await()
+    {
+        long windowNanos = windowNanos();
+        if ( windowNanos > 0 )
+        {
+            LockSupport.parkNanos( this, windowNanos );
+        }
+    }
+
+    private static long average( long average, long sample )
+    {
+        if ( average == NO_SAMPLES )
+        {
+            return sample;
+        }
+        return average + ((sample - average) >> SAMPLE_WEIGHT_SHIFT);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Keeps a file ready to become the next log file on rotation, so that rotating doesn't have to create and grow
+ * a new file. Log files which are pruned can be handed back, to be reused instead of deleted.
+ */
+public interface LogFilePreallocator
+{
+    LogFilePreallocator NO_PREALLOCATION = new LogFilePreallocator()
+    {
+        @Override
+        public boolean claim( File logFile, ByteBuffer header ) throws IOException
+        {
+            return false;
+        }
+
+        @Override
+        public boolean recycle( File prunedLogFile )
+        {
+            return false;
+        }
+    };
+
+    /**
+     * Moves a preallocated file, if one is ready, to {@code logFile}. The content of a preallocated file
+     * is all zeros, which readers treat as the end of the log, apart from the {@code header} written to it
+     * before it's moved.
+     *
+     * @param logFile the log file to create.
+     * @param header log header to write at the start of the file.
+     * @return {@code true} if {@code logFile} was created from a preallocated file, otherwise {@code false}
+     * and the caller has to create it.
+     * @throws IOException on I/O error writing the header or moving the file.
+     */
+    boolean claim( File logFile, ByteBuffer header ) throws IOException;
+
+    /**
+     * Takes over a log file which is no longer needed, to be preallocated for future use, unless it's still
+     * being read.
+     *
+     * @param prunedLogFile log file which would otherwise be deleted.
+     * @return {@code true} if the file was taken over, otherwise {@code false} and the caller has to delete it.
+     */
+    boolean recycle( File prunedLogFile );
+}
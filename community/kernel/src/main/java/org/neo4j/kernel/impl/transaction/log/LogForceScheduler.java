@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.IOException;
+
+import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
+import org.neo4j.kernel.impl.util.JobScheduler;
+import org.neo4j.kernel.internal.DatabaseHealth;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.neo4j.kernel.impl.util.JobScheduler.Groups.logForce;
+
+/**
+ * Periodically forces transactions which have been appended without waiting for the log to be forced,
+ * bounding the window of commits which can be lost on an operating system crash or power failure.
+ */
+public class LogForceScheduler extends LifecycleAdapter
+{
+    private final TransactionAppender appender;
+    private final JobScheduler scheduler;
+    private final long intervalMillis;
+    private final DatabaseHealth databaseHealth;
+    private volatile JobScheduler.JobHandle handle;
+
+    public LogForceScheduler( TransactionAppender appender, JobScheduler scheduler, long intervalMillis,
+            DatabaseHealth databaseHealth )
+    {
+        this.appender = appender;
+        this.scheduler = scheduler;
+        this.intervalMillis = intervalMillis;
+        this.databaseHealth = databaseHealth;
+    }
+
+    @Override
+    public void start() throws Throwable
+    {
+        handle = scheduler.scheduleRecurring( logForce, this::forceLog, intervalMillis, MILLISECONDS );
+    }
+
+    @Override
+    public void stop() throws Throwable
+    {
+        if ( handle != null )
+        {
+            handle.cancel( false );
+            handle = null;
+        }
+        forceLog();
+    }
+
+    void forceLog()
+    {
+        if ( !databaseHealth.isHealthy() )
+        {
+            // A failed force has already panicked the database, which is how committing transactions find out
+            return;
+        }
+        try
+        {
+            appender.force( LogAppendEvent.NULL );
+        }
+        catch ( IOException e )
+        {
+            // Same as above, the appender panics the database on failure to force
+        }
+    }
+}
@@ -28,12 +28,15 @@ import java.util.function.Supplier;
 import org.neo4j.helpers.Exceptions;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
+import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
 import org.neo4j.kernel.lifecycle.Lifecycle;
 
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderWriter.writeLogHeader;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.COMPRESSED_LOG_VERSION;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.CURRENT_LOG_VERSION;
 
 /**
@@ -70,6 +73,10 @@ public class PhysicalLogFile implements LogFile, Lifecycle
     private PositionAwarePhysicalFlushableChannel writer;
     private final LogVersionRepository logVersionRepository;
     private final LogVersionBridge readerLogVersionBridge;
+    private final byte newLogFormatVersion;
+    private final LogFilePreallocator preallocator;
+    private final LogEntryReader<ReadableClosablePositionAwareChannel> logEntryReader =
+            new VersionAwareLogEntryReader<>();
 
     private volatile PhysicalLogVersionedStoreChannel channel;
 
@@ -77,6 +84,32 @@ public class PhysicalLogFile implements LogFile, Lifecycle
                             Supplier<Long> lastCommittedId, LogVersionRepository logVersionRepository,
                             Monitor monitor, LogHeaderCache logHeaderCache
     )
+    {
+        this( fileSystem, logFiles, rotateAtSize, lastCommittedId, logVersionRepository, monitor, logHeaderCache,
+                false );
+    }
+
+    /**
+     * @param compressNewLogs whether or not log files created by this instance should be
+     * {@link CompressedLogVersionedStoreChannel compressed}. Existing log files are read and appended to
+     * in the format they were created with.
+     */
+    public PhysicalLogFile( FileSystemAbstraction fileSystem, PhysicalLogFiles logFiles, long rotateAtSize,
+                            Supplier<Long> lastCommittedId, LogVersionRepository logVersionRepository,
+                            Monitor monitor, LogHeaderCache logHeaderCache, boolean compressNewLogs )
+    {
+        this( fileSystem, logFiles, rotateAtSize, lastCommittedId, logVersionRepository, monitor, logHeaderCache,
+                compressNewLogs, LogFilePreallocator.NO_PREALLOCATION );
+    }
+
+    /**
+     * @param preallocator where to get preallocated files from when creating log files. Only used for log files
+     * which aren't compressed.
+     */
+    public PhysicalLogFile( FileSystemAbstraction fileSystem, PhysicalLogFiles logFiles, long rotateAtSize,
+                            Supplier<Long> lastCommittedId, LogVersionRepository logVersionRepository,
+                            Monitor monitor, LogHeaderCache logHeaderCache, boolean compressNewLogs,
+                            LogFilePreallocator preallocator )
     {
         this.fileSystem = fileSystem;
         this.rotateAtSize = rotateAtSize;
@@ -86,6 +119,8 @@ public class PhysicalLogFile implements LogFile, Lifecycle
         this.logHeaderCache = logHeaderCache;
         this.logFiles = logFiles;
         this.readerLogVersionBridge = new ReaderLogVersionBridge( fileSystem, logFiles );
+        this.newLogFormatVersion = compressNewLogs ? COMPRESSED_LOG_VERSION : CURRENT_LOG_VERSION;
+        this.preallocator = preallocator;
     }
 
     @Override
@@ -106,7 +141,7 @@ public class PhysicalLogFile implements LogFile, Lifecycle
         long lastLogVersionUsed = logVersionRepository.getCurrentLogVersion();
         channel = createLogChannelForVersion( lastLogVersionUsed );
         // Move to the end
-        channel.position( channel.size() );
+        channel.position( endOfLog( channel ) );
 
         writer = new PositionAwarePhysicalFlushableChannel( channel );
     }
@@ -125,6 +160,8 @@ public class PhysicalLogFile implements LogFile, Lifecycle
     {
         if ( writer != null )
         {
+            writer.prepareForFlush();
+            truncatePreallocatedSpace( channel );
             writer.close();
         }
         if ( channel != null )
@@ -140,7 +177,7 @@ public class PhysicalLogFile implements LogFile, Lifecycle
          * Whereas channel.size() should be fine, we're safer calling position() due to possibility
          * of this file being memory mapped or whatever.
          */
-        return channel.position() >= rotateAtSize;
+        return channel.physicalPosition() >= rotateAtSize;
     }
 
     @Override
@@ -194,7 +231,7 @@ public class PhysicalLogFile implements LogFile, Lifecycle
      * @return the channel of the newly opened/created log file.
      * @throws IOException if an error regarding closing or opening log files occur.
      */
-    private PhysicalLogVersionedStoreChannel rotate( LogVersionedStoreChannel currentLog ) throws IOException
+    private PhysicalLogVersionedStoreChannel rotate( PhysicalLogVersionedStoreChannel currentLog ) throws IOException
     {
         /*
          * The store is now flushed. If we fail now the recovery code will open the
@@ -208,6 +245,11 @@ public class PhysicalLogFile implements LogFile, Lifecycle
          * transaction complete in the log we're rotating away. Awesome.
          */
         writer.prepareForFlush().flush();
+        /*
+         * A forced rotation may leave preallocated space behind in the log we're rotating away, which
+         * would otherwise count as log data to everyone looking at file sizes, like pruning.
+         */
+        truncatePreallocatedSpace( currentLog );
         /*
          * The log version is now in the store, flushed and persistent. If we crash
          * now, on recovery we'll attempt to open the version we're about to create
@@ -234,19 +276,70 @@ public class PhysicalLogFile implements LogFile, Lifecycle
     private PhysicalLogVersionedStoreChannel createLogChannelForVersion( long forVersion ) throws IOException
     {
         File toOpen = logFiles.getLogFileForVersion( forVersion );
+        if ( newLogFormatVersion == CURRENT_LOG_VERSION && !fileSystem.fileExists( toOpen ) )
+        {
+            long lastTxId = lastCommittedId.get();
+            if ( preallocator.claim( toOpen, writeLogHeader( headerBuffer, forVersion, lastTxId ) ) )
+            {
+                logHeaderCache.putHeader( forVersion, lastTxId );
+                monitor.opened( toOpen, forVersion, lastTxId, true );
+                StoreChannel storeChannel = fileSystem.open( toOpen, "rw" );
+                storeChannel.position( LOG_HEADER_SIZE );
+                return logChannel( storeChannel, forVersion, CURRENT_LOG_VERSION );
+            }
+        }
         StoreChannel storeChannel = fileSystem.open( toOpen, "rw" );
         LogHeader header = readLogHeader( headerBuffer, storeChannel, false, toOpen );
         if ( header == null )
         {
             // Either the header is not there in full or the file was new. Don't care
             long lastTxId = lastCommittedId.get();
-            writeLogHeader( headerBuffer, forVersion, lastTxId );
+            writeLogHeader( headerBuffer, newLogFormatVersion, forVersion, lastTxId );
             logHeaderCache.putHeader( forVersion, lastTxId );
             storeChannel.writeAll( headerBuffer );
             monitor.opened( toOpen, forVersion, lastTxId, true );
         }
-        byte formatVersion = header == null ? CURRENT_LOG_VERSION : header.logFormatVersion;
-        return new PhysicalLogVersionedStoreChannel( storeChannel, forVersion, formatVersion );
+        byte formatVersion = header == null ? newLogFormatVersion : header.logFormatVersion;
+        return logChannel( storeChannel, forVersion, formatVersion );
+    }
+
+    /**
+     * A log file created from a preallocated file ends with zeros, which are truncated away on shutdown
+     * and rotation. After a crash, unless recovery truncated the log, the end of the log has to be found
+     * by reading it, since there may have been zeros at the end of its last entry. The zeros read as an empty
+     * entry, which ends the log, so anything else which can't be read means the log is corrupt.
+     */
+    private long endOfLog( PhysicalLogVersionedStoreChannel channel ) throws IOException
+    {
+        long size = channel.size();
+        if ( channel.getLogFormatVersion() == COMPRESSED_LOG_VERSION || size <= LOG_HEADER_SIZE )
+        {
+            return size;
+        }
+        ByteBuffer lastByte = ByteBuffer.allocate( 1 );
+        channel.position( size - 1 );
+        if ( channel.read( lastByte ) != 1 || lastByte.get( 0 ) != 0 )
+        {
+            return size;
+        }
+
+        channel.position( LOG_HEADER_SIZE );
+        ReadAheadLogChannel reader = new ReadAheadLogChannel( channel, LogVersionBridge.NO_MORE_CHANNELS );
+        LogPositionMarker marker = new LogPositionMarker();
+        long end = LOG_HEADER_SIZE;
+        while ( logEntryReader.readLogEntry( reader ) != null )
+        {
+            end = reader.getCurrentPosition( marker ).getByteOffset();
+        }
+        return end;
+    }
+
+    private void truncatePreallocatedSpace( PhysicalLogVersionedStoreChannel channel ) throws IOException
+    {
+        if ( channel.getLogFormatVersion() != COMPRESSED_LOG_VERSION && channel.position() < channel.size() )
+        {
+            channel.truncate( channel.position() );
+        }
     }
 
     @Override
@@ -279,14 +372,12 @@ public class PhysicalLogFile implements LogFile, Lifecycle
         StoreChannel rawChannel = null;
         try
         {
-            rawChannel = fileSystem.open( fileToOpen, write ? "rw" : "r" );
+            rawChannel = write ? fileSystem.open( fileToOpen, "rw" ) : logFiles.openForReading( fileSystem, version );
 
             ByteBuffer buffer = ByteBuffer.allocate( LOG_HEADER_SIZE );
             LogHeader header = readLogHeader( buffer, rawChannel, true, fileToOpen );
             assert header != null && header.logVersion == version;
-            PhysicalLogVersionedStoreChannel result =
-                    new PhysicalLogVersionedStoreChannel( rawChannel, version, header.logFormatVersion );
-            return result;
+            return logChannel( rawChannel, version, header.logFormatVersion );
         }
         catch ( FileNotFoundException cause )
         {
@@ -311,6 +402,14 @@ public class PhysicalLogFile implements LogFile, Lifecycle
         }
     }
 
+    private static PhysicalLogVersionedStoreChannel logChannel( StoreChannel channel, long version,
+            byte formatVersion ) throws IOException
+    {
+        return formatVersion == COMPRESSED_LOG_VERSION
+               ? new CompressedLogVersionedStoreChannel( channel, version )
+               : new PhysicalLogVersionedStoreChannel( channel, version, formatVersion );
+    }
+
     public static PhysicalLogVersionedStoreChannel tryOpenForVersion( PhysicalLogFiles logFiles,
             FileSystemAbstraction fileSystem, long version, boolean write )
     {
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.kernel.impl.util.JobScheduler;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.LogProvider;
+
+import static org.neo4j.kernel.impl.util.JobScheduler.Groups.logPreallocation;
+
+/**
+ * {@link LogFilePreallocator} which prepares {@link PhysicalLogFiles#getPreallocatedLogFile() a file} in the
+ * background, by filling it with zeros up to the rotation size. Zeros are written even when a pruned log file is
+ * recycled, partly to get rid of the old entries, but then the file system doesn't need to allocate any blocks.
+ * Either way, forcing a log file created from a preallocated file won't have to update file metadata until
+ * its preallocated size has been exceeded.
+ * <p>
+ * Only one file is kept ready at any given time. If it isn't ready when rotating, the next log file is created
+ * the normal way. Once log files are being pruned, a new file isn't prepared right after one has been claimed,
+ * since the next pruning is expected to hand one back. A pruned log file which is still
+ * {@link PhysicalLogFiles#openForReading(FileSystemAbstraction, long) being read} isn't recycled.
+ */
+public class PhysicalLogFilePreallocator extends LifecycleAdapter implements LogFilePreallocator
+{
+    private static final int ZEROS_SIZE = 1024 * 1024;
+
+    private final FileSystemAbstraction fileSystem;
+    private final PhysicalLogFiles logFiles;
+    private final File preallocatedFile;
+    private final long size;
+    private final JobScheduler scheduler;
+    private final Log log;
+
+    // Guarded by this
+    private boolean ready;
+    private boolean preparing;
+    private boolean pruning;
+    private JobScheduler.JobHandle handle;
+    private volatile boolean stopped = true;
+
+    /**
+     * @param size number of bytes to preallocate, typically the log rotation threshold.
+     */
+    public PhysicalLogFilePreallocator( FileSystemAbstraction fileSystem, PhysicalLogFiles logFiles, long size,
+            JobScheduler scheduler, LogProvider logProvider )
+    {
+        this.fileSystem = fileSystem;
+        this.logFiles = logFiles;
+        this.preallocatedFile = logFiles.getPreallocatedLogFile();
+        this.size = size;
+        this.scheduler = scheduler;
+        this.log = logProvider.getLog( getClass() );
+    }
+
+    @Override
+    public synchronized void start() throws Throwable
+    {
+        stopped = false;
+        // A file left since before may not have been completely filled with zeros
+        ready = false;
+        schedulePreparation();
+    }
+
+    @Override
+    public void stop() throws Throwable
+    {
+        JobScheduler.JobHandle handle;
+        synchronized ( this )
+        {
+            stopped = true;
+            handle = this.handle;
+        }
+        if ( handle != null )
+        {
+            handle.waitTermination();
+        }
+    }
+
+    @Override
+    public boolean claim( File logFile, ByteBuffer header ) throws IOException
+    {
+        synchronized ( this )
+        {
+            if ( !ready )
+            {
+                schedulePreparation();
+                return false;
+            }
+            ready = false;
+        }
+
+        try ( StoreChannel channel = fileSystem.open( preallocatedFile, "rw" ) )
+        {
+            channel.writeAll( header, 0 );
+            channel.force( false );
+        }
+        fileSystem.renameFile( preallocatedFile, logFile );
+
+        synchronized ( this )
+        {
+            if ( !pruning )
+            {
+                schedulePreparation();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean recycle( File prunedLogFile )
+    {
+        synchronized ( this )
+        {
+            pruning = true;
+            if ( stopped || ready || preparing || fileSystem.fileExists( preallocatedFile ) )
+            {
+                return false;
+            }
+            try
+            {
+                // A log file still being read can't be zeroed, so it's left to be deleted
+                long version = PhysicalLogFiles.getLogVersion( prunedLogFile );
+                if ( !logFiles.renameIfNotRead( fileSystem, version, preallocatedFile ) )
+                {
+                    return false;
+                }
+            }
+            catch ( IOException e )
+            {
+                log.warn( "Unable to recycle " + prunedLogFile + ", it will be deleted instead", e );
+                return false;
+            }
+            schedulePreparation();
+            return true;
+        }
+    }
+
+    // Called while synchronized on this
+    private void schedulePreparation()
+    {
+        if ( !preparing && !stopped )
+        {
+            preparing = true;
+            handle = scheduler.schedule( logPreallocation, this::prepare );
+        }
+    }
+
+    private void prepare()
+    {
+        boolean prepared = false;
+        try
+        {
+            prepared = fillWithZeros();
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Unable to preallocate " + preallocatedFile + ", the next log file will be created instead", e );
+        }
+        finally
+        {
+            synchronized ( this )
+            {
+                ready = prepared;
+                preparing = false;
+            }
+        }
+    }
+
+    private boolean fillWithZeros() throws IOException
+    {
+        ByteBuffer zeros = ByteBuffer.allocate( ZEROS_SIZE );
+        try ( StoreChannel channel = fileSystem.open( preallocatedFile, "rw" ) )
+        {
+            if ( channel.size() > size )
+            {
+                channel.truncate( size );
+            }
+            for ( long position = 0; position < size; position += ZEROS_SIZE )
+            {
+                if ( stopped )
+                {
+                    return false;
+                }
+                zeros.clear();
+                zeros.limit( (int) Math.min( ZEROS_SIZE, size - position ) );
+                channel.writeAll( zeros, position );
+            }
+            channel.force( true );
+        }
+        return true;
+    }
+}
@@ -21,9 +21,14 @@ package org.neo4j.kernel.impl.transaction.log;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileLock;
 import java.util.regex.Pattern;
 
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongIntMap;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
 
 import static java.lang.Math.max;
@@ -57,9 +62,14 @@ public class PhysicalLogFiles
         }
     }
 
+    private static final String PREALLOCATED_SUFFIX = ".preallocated";
+    private static final String INDEX_SUFFIX = ".index";
+
     private final File logBaseName;
     private final Pattern logFilePattern;
     private final FileSystemAbstraction fileSystem;
+    // Number of channels open for reading, per log version. Guarded by itself
+    private final PrimitiveLongIntMap readers = Primitive.longIntMap();
 
     public PhysicalLogFiles( File directory, String name, FileSystemAbstraction fileSystem )
     {
@@ -78,6 +88,76 @@ public class PhysicalLogFiles
         return new File( logBaseName.getPath() + DEFAULT_VERSION_SUFFIX + version );
     }
 
+    /**
+     * @return the file which a {@link PhysicalLogFilePreallocator} keeps ready to become the next log file.
+     * Not matched as a log file of any version.
+     */
+    public File getPreallocatedLogFile()
+    {
+        return new File( logBaseName.getPath() + PREALLOCATED_SUFFIX );
+    }
+
+    /**
+     * @return the file where a {@link PhysicalTransactionLogIndex} keeps the index of the log file of the given
+     * version. Not matched as a log file of any version.
+     */
+    public File getTransactionLogIndexFileForVersion( long version )
+    {
+        return new File( logBaseName.getPath() + INDEX_SUFFIX + DEFAULT_VERSION_SUFFIX + version );
+    }
+
+    /**
+     * Opens the log file of the given version for reading. The file is considered being read until the returned
+     * channel is closed, and meanwhile {@link #renameIfNotRead(FileSystemAbstraction, long, File)} leaves it alone.
+     */
+    public StoreChannel openForReading( FileSystemAbstraction fileSystem, long version ) throws IOException
+    {
+        File file = getLogFileForVersion( version );
+        synchronized ( readers )
+        {
+            StoreChannel channel = fileSystem.open( file, "r" );
+            int count = readers.get( version );
+            readers.put( version, count == -1 ? 1 : count + 1 );
+            return new ReaderChannel( channel, version );
+        }
+    }
+
+    /**
+     * Renames the log file of the given version, unless it's open by a channel from
+     * {@link #openForReading(FileSystemAbstraction, long)}. A reader opening the file after it's been renamed
+     * won't find it, the same as if it had been deleted.
+     *
+     * @return {@code true} if the file was renamed, or {@code false} if it's being read.
+     */
+    public boolean renameIfNotRead( FileSystemAbstraction fileSystem, long version, File to ) throws IOException
+    {
+        synchronized ( readers )
+        {
+            if ( readers.containsKey( version ) )
+            {
+                return false;
+            }
+            fileSystem.renameFile( getLogFileForVersion( version ), to );
+            return true;
+        }
+    }
+
+    private void closed( long version )
+    {
+        synchronized ( readers )
+        {
+            int count = readers.get( version );
+            if ( count <= 1 )
+            {
+                readers.remove( version );
+            }
+            else
+            {
+                readers.put( version, count - 1 );
+            }
+        }
+    }
+
     public boolean versionExists( long version )
     {
         return fileSystem.fileExists( getLogFileForVersion( version ) );
@@ -133,4 +213,147 @@ public class PhysicalLogFiles
         }
         return Long.parseLong( historyLogFilename.substring( index + DEFAULT_VERSION_SUFFIX.length() ) );
     }
+
+    private class ReaderChannel implements StoreChannel
+    {
+        private final StoreChannel delegate;
+        private final long version;
+        private boolean closed;
+
+        ReaderChannel( StoreChannel delegate, long version )
+        {
+            this.delegate = delegate;
+            this.version = version;
+        }
+
+        @Override
+        public FileLock tryLock() throws IOException
+        {
+            return delegate.tryLock();
+        }
+
+        @Override
+        public int write( ByteBuffer src, long position ) throws IOException
+        {
+            return delegate.write( src, position );
+        }
+
+        @Override
+        public void writeAll( ByteBuffer src, long position ) throws IOException
+        {
+            delegate.writeAll( src, position );
+        }
+
+        @Override
+        public void writeAll( ByteBuffer src ) throws IOException
+        {
+            delegate.writeAll( src );
+        }
+
+        @Override
+        public int read( ByteBuffer dst, long position ) throws IOException
+        {
+            return delegate.read( dst, position );
+        }
+
+        @Override
+        public void force( boolean metaData ) throws IOException
+        {
+            delegate.force( metaData );
+        }
+
+        @Override
+        public int read( ByteBuffer dst ) throws IOException
+        {
+            return delegate.read( dst );
+        }
+
+        @Override
+        public int write( ByteBuffer src ) throws IOException
+        {
+            return delegate.write( src );
+        }
+
+        @Override
+        public long position() throws IOException
+        {
+            return delegate.position();
+        }
+
+        @Override
+        public StoreChannel position( long newPosition ) throws IOException
+        {
+            delegate.position( newPosition );
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException
+        {
+            return delegate.size();
+        }
+
+        @Override
+        public StoreChannel truncate( long size ) throws IOException
+        {
+            delegate.truncate( size );
+            return this;
+        }
+
+        @Override
+        public long write( ByteBuffer[] srcs, int offset, int length ) throws IOException
+        {
+            return delegate.write( srcs, offset, length );
+        }
+
+        @Override
+        public long write( ByteBuffer[] srcs ) throws IOException
+        {
+            return delegate.write( srcs );
+        }
+
+        @Override
+        public long read( ByteBuffer[] dsts, int offset, int length ) throws IOException
+        {
+            return delegate.read( dsts, offset, length );
+        }
+
+        @Override
+        public long read( ByteBuffer[] dsts ) throws IOException
+        {
+            return delegate.read( dsts );
+        }
+
+        @Override
+        public void flush() throws IOException
+        {
+            delegate.flush();
+        }
+
+        @Override
+        public boolean isOpen()
+        {
+            return delegate.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            try
+            {
+                delegate.close();
+            }
+            finally
+            {
+                synchronized ( this )
+                {
+                    if ( !closed )
+                    {
+                        closed = true;
+                        closed( version );
+                    }
+                }
+            }
+        }
+    }
 }
@@ -118,6 +118,15 @@ public class PhysicalLogVersionedStoreChannel implements LogVersionedStoreChanne
         return position;
     }
 
+    /**
+     * @return offset in the underlying file, which for most log formats is the same as {@link #position()}.
+     * @throws IOException on I/O error.
+     */
+    public long physicalPosition() throws IOException
+    {
+        return position;
+    }
+
     @Override
     public long size() throws IOException
     {
@@ -42,13 +42,22 @@ public class PhysicalLogicalTransactionStore implements LogicalTransactionStore
     private final LogFile logFile;
     private final TransactionMetadataCache transactionMetadataCache;
     private final LogEntryReader<ReadableClosablePositionAwareChannel> logEntryReader;
+    private final TransactionLogIndex transactionLogIndex;
 
     public PhysicalLogicalTransactionStore( LogFile logFile, TransactionMetadataCache transactionMetadataCache,
             LogEntryReader<ReadableClosablePositionAwareChannel> logEntryReader )
+    {
+        this( logFile, transactionMetadataCache, logEntryReader, TransactionLogIndex.NO_INDEX );
+    }
+
+    public PhysicalLogicalTransactionStore( LogFile logFile, TransactionMetadataCache transactionMetadataCache,
+            LogEntryReader<ReadableClosablePositionAwareChannel> logEntryReader,
+            TransactionLogIndex transactionLogIndex )
     {
         this.logFile = logFile;
         this.transactionMetadataCache = transactionMetadataCache;
         this.logEntryReader = logEntryReader;
+        this.transactionLogIndex = transactionLogIndex;
     }
 
     @Override
@@ -77,11 +86,19 @@ public class PhysicalLogicalTransactionStore implements LogicalTransactionStore
             LogVersionLocator headerVisitor = new LogVersionLocator( transactionIdToStartFrom );
             logFile.accept( headerVisitor );
 
-            // ask LogFile
-            TransactionPositionLocator transactionPositionLocator =
-                    new TransactionPositionLocator( transactionIdToStartFrom, logEntryReader );
-            logFile.accept( transactionPositionLocator, headerVisitor.getLogPosition() );
-            LogPosition position = transactionPositionLocator.getAndCacheFoundLogPosition( transactionMetadataCache );
+            // ask the index where to start looking in that version, falling back to its start
+            LogPosition versionPosition = headerVisitor.getLogPosition();
+            LogPosition indexedPosition =
+                    transactionLogIndex.lookup( transactionIdToStartFrom, versionPosition.getLogVersion() );
+            LogPosition position = null;
+            if ( !LogPosition.UNSPECIFIED.equals( indexedPosition ) )
+            {
+                position = locateTransaction( transactionIdToStartFrom, indexedPosition, false );
+            }
+            if ( position == null )
+            {
+                position = locateTransaction( transactionIdToStartFrom, versionPosition, true );
+            }
             return new PhysicalTransactionCursor<>( logFile.getReader( position ), logEntryReader );
         }
         catch ( FileNotFoundException e )
@@ -91,6 +108,23 @@ public class PhysicalLogicalTransactionStore implements LogicalTransactionStore
         }
     }
 
+    /**
+     * @param mustFind whether to throw {@link NoSuchTransactionException} or return {@code null} if the
+     * transaction is not found.
+     */
+    private LogPosition locateTransaction( long transactionId, LogPosition startingFromPosition, boolean mustFind )
+            throws IOException
+    {
+        TransactionPositionLocator transactionPositionLocator =
+                new TransactionPositionLocator( transactionId, logEntryReader );
+        logFile.accept( transactionPositionLocator, startingFromPosition );
+        if ( !mustFind && !transactionPositionLocator.hasFoundTransaction() )
+        {
+            return null;
+        }
+        return transactionPositionLocator.getAndCacheFoundLogPosition( transactionMetadataCache );
+    }
+
     private static final TransactionMetadataCache.TransactionMetadata METADATA_FOR_EMPTY_STORE =
             new TransactionMetadataCache.TransactionMetadata( -1, -1, LogPosition.start( 0 ), BASE_TX_CHECKSUM,
                     BASE_TX_COMMIT_TIMESTAMP );
@@ -175,6 +209,11 @@ public class PhysicalLogicalTransactionStore implements LogicalTransactionStore
             return true;
         }
 
+        public boolean hasFoundTransaction()
+        {
+            return startEntryForFoundTransaction != null;
+        }
+
         public LogPosition getAndCacheFoundLogPosition( TransactionMetadataCache transactionMetadataCache )
                 throws NoSuchTransactionException
         {
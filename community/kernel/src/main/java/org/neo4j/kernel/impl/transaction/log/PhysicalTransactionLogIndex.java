@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+
+/**
+ * {@link TransactionLogIndex} which keeps an index file next to each log file, see
+ * {@link PhysicalLogFiles#getTransactionLogIndexFileForVersion(long)}. Every transaction with an id that is a
+ * multiple of the index interval gets an entry, so finding a transaction means reading at most that many
+ * transactions from the log.
+ * <p>
+ * An index file starts with the version and the previous last committed transaction id from the header of its
+ * log file, and is ignored unless those match. After that follow the entries, each one a transaction id and the
+ * byte offset where that transaction starts. Index files aren't forced. Instead, the index of the current log
+ * file is brought in line with the log on {@link #start() start}, after recovery, which drops entries for
+ * transactions that didn't make it and adds entries that are missing.
+ */
+public class PhysicalTransactionLogIndex extends LifecycleAdapter implements TransactionLogIndex
+{
+    private static final int HEADER_SIZE = 2 * Long.BYTES;
+    private static final int ENTRY_SIZE = 2 * Long.BYTES;
+
+    private final FileSystemAbstraction fileSystem;
+    private final PhysicalLogFiles logFiles;
+    private final LogFile logFile;
+    private final TransactionIdStore transactionIdStore;
+    private final LogEntryReader<ReadableClosablePositionAwareChannel> logEntryReader;
+    private final int interval;
+    private final ByteBuffer entryBuffer = ByteBuffer.allocate( ENTRY_SIZE );
+
+    // Guarded by the monitor of the log file, like appending to it
+    private StoreChannel channel;
+    private long channelLogVersion = -1;
+    private long lastIndexedTransactionId;
+
+    /**
+     * @param interval index every transaction with an id that is a multiple of this.
+     */
+    public PhysicalTransactionLogIndex( FileSystemAbstraction fileSystem, PhysicalLogFiles logFiles, LogFile logFile,
+            TransactionIdStore transactionIdStore,
+            LogEntryReader<ReadableClosablePositionAwareChannel> logEntryReader, int interval )
+    {
+        if ( interval < 1 )
+        {
+            throw new IllegalArgumentException( "Index interval must be positive, was " + interval );
+        }
+        this.fileSystem = fileSystem;
+        this.logFiles = logFiles;
+        this.logFile = logFile;
+        this.transactionIdStore = transactionIdStore;
+        this.logEntryReader = logEntryReader;
+        this.interval = interval;
+    }
+
+    @Override
+    public void start() throws IOException
+    {
+        long logVersion = logFiles.getHighestLogVersion();
+        if ( logVersion < 0 )
+        {
+            return;
+        }
+
+        long lastCommittedTransactionId = transactionIdStore.getLastCommittedTransactionId();
+        LogPosition lastIndexedPosition = openForAppending( logVersion, lastCommittedTransactionId );
+
+        // Index the transactions that were appended after the last entry which made it to the index file
+        try ( TransactionCursor transactions = new PhysicalTransactionCursor<>(
+                logFile.getReader( lastIndexedPosition ), logEntryReader ) )
+        {
+            while ( transactions.next() )
+            {
+                CommittedTransactionRepresentation transaction = transactions.get();
+                long transactionId = transaction.getCommitEntry().getTxId();
+                LogPosition startPosition = transaction.getStartEntry().getStartPosition();
+                if ( transactionId > lastCommittedTransactionId || startPosition.getLogVersion() != logVersion )
+                {
+                    break;
+                }
+                transactionAppended( transactionId, startPosition );
+            }
+        }
+    }
+
+    @Override
+    public void stop() throws IOException
+    {
+        closeChannel();
+    }
+
+    @Override
+    public void transactionAppended( long transactionId, LogPosition startPosition ) throws IOException
+    {
+        if ( transactionId % interval != 0 || transactionId <= lastIndexedTransactionId )
+        {
+            return;
+        }
+
+        if ( startPosition.getLogVersion() != channelLogVersion )
+        {
+            // The log has been rotated, so whatever is in the index file of the new version is stale
+            createForAppending( startPosition.getLogVersion() );
+        }
+        entryBuffer.clear();
+        entryBuffer.putLong( transactionId ).putLong( startPosition.getByteOffset() );
+        entryBuffer.flip();
+        channel.writeAll( entryBuffer );
+        lastIndexedTransactionId = transactionId;
+    }
+
+    @Override
+    public LogPosition lookup( long transactionId, long logVersion ) throws IOException
+    {
+        LongBuffer entries = readEntries( logVersion );
+        if ( entries == null )
+        {
+            return LogPosition.UNSPECIFIED;
+        }
+
+        // Entries are in transaction id order, find the last one that isn't after the given transaction
+        int low = 0;
+        int high = entries.limit() / 2 - 1;
+        int found = -1;
+        while ( low <= high )
+        {
+            int middle = (low + high) >>> 1;
+            if ( entries.get( middle * 2 ) <= transactionId )
+            {
+                found = middle;
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle - 1;
+            }
+        }
+        return found == -1 ? LogPosition.UNSPECIFIED : new LogPosition( logVersion, entries.get( found * 2 + 1 ) );
+    }
+
+    /**
+     * Opens the index file of the given log version, keeping the entries of transactions up to and including
+     * the given one.
+     *
+     * @return start position of the last kept entry, or of the log file if no entries were kept.
+     */
+    private LogPosition openForAppending( long logVersion, long lastCommittedTransactionId ) throws IOException
+    {
+        LongBuffer entries = readEntries( logVersion );
+        if ( entries == null )
+        {
+            createForAppending( logVersion );
+            return LogPosition.start( logVersion );
+        }
+
+        int kept = 0;
+        LogPosition lastIndexedPosition = LogPosition.start( logVersion );
+        while ( kept * 2 < entries.limit() )
+        {
+            long transactionId = entries.get( kept * 2 );
+            if ( transactionId > lastCommittedTransactionId || transactionId <= lastIndexedTransactionId )
+            {
+                break;
+            }
+            lastIndexedTransactionId = transactionId;
+            lastIndexedPosition = new LogPosition( logVersion, entries.get( kept * 2 + 1 ) );
+            kept++;
+        }
+
+        closeChannel();
+        channel = fileSystem.open( logFiles.getTransactionLogIndexFileForVersion( logVersion ), "rw" );
+        channelLogVersion = logVersion;
+        long size = HEADER_SIZE + (long) kept * ENTRY_SIZE;
+        channel.truncate( size );
+        channel.position( size );
+        return lastIndexedPosition;
+    }
+
+    private void createForAppending( long logVersion ) throws IOException
+    {
+        closeChannel();
+        File file = logFiles.getTransactionLogIndexFileForVersion( logVersion );
+        channel = fileSystem.open( file, "rw" );
+        channelLogVersion = logVersion;
+        channel.truncate( 0 );
+        ByteBuffer header = ByteBuffer.allocate( HEADER_SIZE );
+        header.putLong( logVersion ).putLong( logFiles.extractHeader( logVersion ).lastCommittedTxId );
+        header.flip();
+        channel.writeAll( header );
+    }
+
+    /**
+     * @return transaction id and byte offset pairs from the index file of the given log version, or {@code null}
+     * if there is no index file matching the log file.
+     */
+    private LongBuffer readEntries( long logVersion ) throws IOException
+    {
+        File file = logFiles.getTransactionLogIndexFileForVersion( logVersion );
+        if ( !fileSystem.fileExists( file ) )
+        {
+            return null;
+        }
+
+        ByteBuffer buffer;
+        try ( StoreChannel indexChannel = fileSystem.open( file, "r" ) )
+        {
+            long entryCount = Math.max( 0, indexChannel.size() - HEADER_SIZE ) / ENTRY_SIZE;
+            buffer = ByteBuffer.allocate( Math.toIntExact( HEADER_SIZE + entryCount * ENTRY_SIZE ) );
+            while ( buffer.hasRemaining() && indexChannel.read( buffer ) != -1 )
+            {
+                // Keep reading until the buffer is full or the end of the file is reached
+            }
+        }
+        buffer.flip();
+        if ( buffer.limit() < HEADER_SIZE ||
+             buffer.getLong() != logVersion ||
+             buffer.getLong() != logFiles.extractHeader( logVersion ).lastCommittedTxId )
+        {
+            return null;
+        }
+        // Ignore the partial entry the file ends with, if any
+        buffer.limit( HEADER_SIZE + (buffer.limit() - HEADER_SIZE) / ENTRY_SIZE * ENTRY_SIZE );
+        return buffer.slice().asLongBuffer();
+    }
+
+    private void closeChannel() throws IOException
+    {
+        if ( channel != null )
+        {
+            channel.close();
+            channel = null;
+            channelLogVersion = -1;
+        }
+    }
+}
@@ -63,7 +63,20 @@ public class ReadAheadChannel<T extends StoreChannel> implements ReadableClosabl
      */
     public long position() throws IOException
     {
-        return channel.position() - aheadBuffer.remaining();
+        return position( channel, aheadBuffer.remaining() );
+    }
+
+    /**
+     * Hook for channels where positions aren't plain byte offsets, see {@link #position()}.
+     *
+     * @param channel the channel currently read from.
+     * @param unconsumedBytes bytes read from {@code channel} into the read-ahead buffer, but not yet consumed.
+     * @return the position within the buffered stream.
+     * @throws IOException
+     */
+    protected long position( T channel, int unconsumedBytes ) throws IOException
+    {
+        return channel.position() - unconsumedBytes;
     }
 
     @Override
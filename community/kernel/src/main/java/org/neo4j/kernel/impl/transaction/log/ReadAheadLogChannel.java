@@ -29,6 +29,7 @@ import org.neo4j.io.fs.StoreChannel;
 public class ReadAheadLogChannel extends ReadAheadChannel<LogVersionedStoreChannel> implements ReadableLogChannel
 {
     private final LogVersionBridge bridge;
+    private final int readAheadSize;
 
     public ReadAheadLogChannel( LogVersionedStoreChannel startingChannel, LogVersionBridge bridge )
     {
@@ -39,6 +40,8 @@ public class ReadAheadLogChannel extends ReadAheadChannel<LogVersionedStoreChann
     {
         super(startingChannel, readAheadSize);
         this.bridge = bridge;
+        this.readAheadSize = readAheadSize;
+        lookBehind( startingChannel );
     }
 
     @Override
@@ -60,9 +63,29 @@ public class ReadAheadLogChannel extends ReadAheadChannel<LogVersionedStoreChann
         return positionMarker;
     }
 
+    @Override
+    protected long position( LogVersionedStoreChannel channel, int unconsumedBytes ) throws IOException
+    {
+        if ( channel instanceof CompressedLogVersionedStoreChannel )
+        {
+            return ((CompressedLogVersionedStoreChannel) channel).positionBehind( unconsumedBytes );
+        }
+        return super.position( channel, unconsumedBytes );
+    }
+
     @Override
     protected LogVersionedStoreChannel next( LogVersionedStoreChannel channel ) throws IOException
     {
-        return bridge.next( channel );
+        LogVersionedStoreChannel next = bridge.next( channel );
+        lookBehind( next );
+        return next;
+    }
+
+    private void lookBehind( LogVersionedStoreChannel channel )
+    {
+        if ( channel instanceof CompressedLogVersionedStoreChannel )
+        {
+            ((CompressedLogVersionedStoreChannel) channel).lookBehind( readAheadSize );
+        }
     }
 }
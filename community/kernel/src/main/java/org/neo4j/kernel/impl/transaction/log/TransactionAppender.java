@@ -24,6 +24,7 @@ import java.io.IOException;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.kernel.impl.transaction.tracing.LogCheckPointEvent;
+import org.neo4j.kernel.impl.transaction.tracing.LogForceEvents;
 import org.neo4j.kernel.internal.DatabaseHealth;
 
 /**
@@ -65,4 +66,14 @@ public interface TransactionAppender
      * how to handle exceptions in general thrown from this method.
      */
     void checkPoint( LogPosition logPosition, LogCheckPointEvent logCheckPointEvent ) throws IOException;
+
+    /**
+     * Forces all transactions appended so far to disk. There's nothing to do for appenders which force as part of
+     * every {@link #append(TransactionToApply, LogAppendEvent) append}, but others must be forced before
+     * changes of appended transactions are allowed to be flushed to the store.
+     *
+     * @param logForceEvents a trace event for the force.
+     * @throws IOException if there was a problem forcing the log.
+     */
+    void force( LogForceEvents logForceEvents ) throws IOException;
 }
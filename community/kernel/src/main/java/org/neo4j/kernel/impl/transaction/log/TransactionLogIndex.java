@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.IOException;
+
+/**
+ * Sparse index from transaction id to the position in the log where the transaction starts, which lets
+ * transactions be looked up without scanning a log file from its start.
+ */
+public interface TransactionLogIndex
+{
+    TransactionLogIndex NO_INDEX = new TransactionLogIndex()
+    {
+        @Override
+        public void transactionAppended( long transactionId, LogPosition startPosition )
+        {
+        }
+
+        @Override
+        public LogPosition lookup( long transactionId, long logVersion )
+        {
+            return LogPosition.UNSPECIFIED;
+        }
+    };
+
+    /**
+     * Called for every transaction appended to the log, in transaction id order and under the same monitor as
+     * the appending itself.
+     *
+     * @param transactionId id of the appended transaction.
+     * @param startPosition position of the start entry of the transaction.
+     * @throws IOException on I/O error updating the index.
+     */
+    void transactionAppended( long transactionId, LogPosition startPosition ) throws IOException;
+
+    /**
+     * Finds the start of the closest indexed transaction at or before the given one, in the given log version.
+     *
+     * @param transactionId id of the transaction to look up.
+     * @param logVersion version of the log file which contains the transaction.
+     * @return start position of a transaction in {@code logVersion} which has an id no higher than
+     * {@code transactionId}, or {@link LogPosition#UNSPECIFIED} if there is no such transaction in the index.
+     * @throws IOException on I/O error reading the index.
+     */
+    LogPosition lookup( long transactionId, long logVersion ) throws IOException;
+}
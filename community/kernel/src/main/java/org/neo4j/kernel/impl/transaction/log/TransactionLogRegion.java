@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.File;
+import java.util.Objects;
+
+/**
+ * The range of bytes in a transaction log file that holds a single committed transaction, as written by the
+ * {@link TransactionLogWriter}. The range can end with check point entries that were written after the transaction.
+ */
+public class TransactionLogRegion
+{
+    private final long transactionId;
+    private final File file;
+    private final long position;
+    private final long length;
+
+    public TransactionLogRegion( long transactionId, File file, long position, long length )
+    {
+        this.transactionId = transactionId;
+        this.file = file;
+        this.position = position;
+        this.length = length;
+    }
+
+    public long transactionId()
+    {
+        return transactionId;
+    }
+
+    public File file()
+    {
+        return file;
+    }
+
+    public long position()
+    {
+        return position;
+    }
+
+    public long length()
+    {
+        return length;
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        TransactionLogRegion that = (TransactionLogRegion) o;
+        return transactionId == that.transactionId && position == that.position && length == that.length &&
+               file.equals( that.file );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash( transactionId, file, position, length );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TransactionLogRegion{" + "transactionId=" + transactionId + ", file=" + file + ", position=" +
+               position + ", length=" + length + '}';
+    }
+}
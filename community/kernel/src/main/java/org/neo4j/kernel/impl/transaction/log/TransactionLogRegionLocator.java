@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntry;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
+import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
+
+import static org.neo4j.kernel.impl.transaction.log.LogVersionBridge.NO_MORE_CHANNELS;
+import static org.neo4j.kernel.impl.transaction.log.PhysicalLogFile.tryOpenForVersion;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryByteCodes.TX_1P_COMMIT;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryByteCodes.TX_START;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.COMPRESSED_LOG_VERSION;
+
+/**
+ * Locates committed transactions as {@link TransactionLogRegion regions} of the transaction log files, such that
+ * they can be shipped to other instances straight from the files, without being materialized first.
+ * <p>
+ * Only the start position of the first transaction is looked up in the {@link LogicalTransactionStore}. The rest
+ * of the regions are found in a single forward scan of the log file from there, each region spanning the entries
+ * of one transaction, from its start entry to the end of its commit entry. A transaction can only be located like
+ * this if it is in an uncompressed log file, and in the same log file as the first transaction.
+ */
+public class TransactionLogRegionLocator
+{
+    private final PhysicalLogFiles logFiles;
+    private final FileSystemAbstraction fs;
+    private final LogicalTransactionStore logicalTransactionStore;
+    private final TransactionIdStore transactionIdStore;
+    private final LogEntryReader<ReadableClosablePositionAwareChannel> logEntryReader =
+            new VersionAwareLogEntryReader<>();
+
+    public TransactionLogRegionLocator( PhysicalLogFiles logFiles, FileSystemAbstraction fs,
+            LogicalTransactionStore logicalTransactionStore, TransactionIdStore transactionIdStore )
+    {
+        this.logFiles = logFiles;
+        this.fs = fs;
+        this.logicalTransactionStore = logicalTransactionStore;
+        this.transactionIdStore = transactionIdStore;
+    }
+
+    /**
+     * Locate the regions of the given transaction, and of the transactions that follow it.
+     *
+     * @param firstTransactionId id of the first transaction to locate.
+     * @param maxTransactions the max number of transactions to locate.
+     * @return the regions of consecutive transactions, starting with the given one. There can be fewer regions than
+     * asked for, or none at all, if the rest of the transactions cannot be located. Those have to be read from the
+     * {@link LogicalTransactionStore} instead.
+     * @throws NoSuchTransactionException if the first transaction is not in the logs anymore.
+     * @throws IOException if there was an I/O related error looking for the transactions.
+     */
+    public List<TransactionLogRegion> locate( long firstTransactionId, int maxTransactions ) throws IOException
+    {
+        List<TransactionLogRegion> regions = new ArrayList<>();
+        long lastTransactionId = Math.min( firstTransactionId + maxTransactions - 1,
+                transactionIdStore.getLastClosedTransactionId() );
+        if ( firstTransactionId > lastTransactionId )
+        {
+            return regions;
+        }
+
+        LogPosition start = logicalTransactionStore.getMetadataFor( firstTransactionId ).getStartPosition();
+        PhysicalLogVersionedStoreChannel channel = tryOpenForVersion( logFiles, fs, start.getLogVersion(), false );
+        if ( channel == null )
+        {
+            return regions;
+        }
+        try ( ReadAheadLogChannel reader = new ReadAheadLogChannel( channel, NO_MORE_CHANNELS ) )
+        {
+            if ( channel.getLogFormatVersion() == COMPRESSED_LOG_VERSION )
+            {
+                return regions;
+            }
+            channel.position( start.getByteOffset() );
+
+            File file = logFiles.getLogFileForVersion( start.getLogVersion() );
+            LogPositionMarker end = new LogPositionMarker();
+            LogEntryStart startEntry = null;
+            long transactionId = firstTransactionId;
+            LogEntry logEntry;
+            while ( transactionId <= lastTransactionId && (logEntry = logEntryReader.readLogEntry( reader )) != null )
+            {
+                switch ( logEntry.getType() )
+                {
+                case TX_START:
+                    startEntry = logEntry.as();
+                    break;
+                case TX_1P_COMMIT:
+                    LogEntryCommit commit = logEntry.as();
+                    if ( startEntry == null || commit.getTxId() != transactionId )
+                    {
+                        return regions;
+                    }
+                    long startOffset = startEntry.getStartPosition().getByteOffset();
+                    reader.getCurrentPosition( end );
+                    regions.add( new TransactionLogRegion( transactionId, file, startOffset,
+                            end.getByteOffset() - startOffset ) );
+                    startEntry = null;
+                    transactionId++;
+                    break;
+                default: // just skip commands and check points
+                    break;
+                }
+            }
+        }
+        return regions;
+    }
+}
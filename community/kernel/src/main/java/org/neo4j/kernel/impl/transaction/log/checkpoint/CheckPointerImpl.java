@@ -152,6 +152,11 @@ public class CheckPointerImpl extends LifecycleAdapter implements CheckPointer
              * happen.
              */
             databaseHealth.assertHealthy( IOException.class );
+            /*
+             * Closed transactions may not have been forced to the log yet, if commits don't wait for that.
+             * Force them before any of their changes can make it to the store.
+             */
+            appender.force( logCheckPointEvent );
             /*
              * First we flush the store. If we fail now or during the flush, on recovery we'll find the
              * earlier check point and replay from there all the log entries. Everything will be ok.
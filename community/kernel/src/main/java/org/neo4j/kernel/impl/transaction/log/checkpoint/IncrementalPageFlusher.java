@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import java.io.IOException;
+
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
+import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
+import org.neo4j.kernel.impl.util.JobScheduler;
+import org.neo4j.kernel.internal.DatabaseHealth;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.LogProvider;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.neo4j.kernel.impl.util.JobScheduler.Groups.checkPoint;
+
+/**
+ * Continuously writes out a bounded slice of the dirty pages in the page cache, in between check-points. The
+ * check-points still flush and force the whole store, but since most of the pages have already been written by
+ * then, they do so without a large burst of I/O, and can therefore happen often enough to keep recovery short.
+ * <p>
+ * Besides the steady rate of pages per second, the flusher also drains the cache whenever the ratio of dirty pages
+ * goes above the dirty page watermark, and keeps going until it is back at half of the watermark.
+ * <p>
+ * This is the only background writer of dirty pages. The transaction log is forced before every slice, so that no
+ * page reaches the store files ahead of the transactions that changed it.
+ */
+public class IncrementalPageFlusher extends LifecycleAdapter
+{
+    static final long SLICE_INTERVAL_MILLIS = 100;
+
+    private final PageCache pageCache;
+    private final TransactionAppender appender;
+    private final JobScheduler scheduler;
+    private final DatabaseHealth databaseHealth;
+    private final int pagesPerSlice;
+    private final long dirtyPagesHighWatermark;
+    private final long dirtyPagesLowWatermark;
+    private final Log log;
+    private volatile JobScheduler.JobHandle handle;
+    private boolean draining;
+    private boolean failureLogged;
+
+    public IncrementalPageFlusher( PageCache pageCache, TransactionAppender appender, JobScheduler scheduler,
+            DatabaseHealth databaseHealth, int pagesPerSecond, double dirtyPageWatermark, LogProvider logProvider )
+    {
+        if ( dirtyPageWatermark < 0.0 || dirtyPageWatermark > 1.0 )
+        {
+            throw new IllegalArgumentException(
+                    "The dirty page watermark must be between 0.0 and 1.0, but was " + dirtyPageWatermark );
+        }
+        this.pageCache = pageCache;
+        this.appender = appender;
+        this.scheduler = scheduler;
+        this.databaseHealth = databaseHealth;
+        this.pagesPerSlice = pagesPerSecond <= 0 ? 0
+                                                 : (int) Math.max( 1, pagesPerSecond * SLICE_INTERVAL_MILLIS / 1000 );
+        this.dirtyPagesHighWatermark = dirtyPageWatermark >= 1.0 ? Long.MAX_VALUE
+                                                                 : (long) (pageCache.maxCachedPages() * dirtyPageWatermark);
+        this.dirtyPagesLowWatermark = dirtyPagesHighWatermark / 2;
+        this.log = logProvider.getLog( getClass() );
+    }
+
+    @Override
+    public void start() throws Throwable
+    {
+        handle = scheduler.scheduleRecurring( checkPoint, this::flushSlice, SLICE_INTERVAL_MILLIS, MILLISECONDS );
+    }
+
+    @Override
+    public void stop() throws Throwable
+    {
+        if ( handle != null )
+        {
+            handle.cancel( false );
+            handle = null;
+        }
+    }
+
+    void flushSlice()
+    {
+        if ( !databaseHealth.isHealthy() )
+        {
+            return;
+        }
+        try
+        {
+            int pagesToFlush = Math.max( pagesPerSlice, pagesToDrain() );
+            if ( pagesToFlush > 0 )
+            {
+                appender.force( LogAppendEvent.NULL );
+                pageCache.flushDirtyPages( pagesToFlush );
+            }
+            failureLogged = false;
+        }
+        catch ( IOException e )
+        {
+            // The pages we failed to write are still dirty, so the next check-point will write them, and fail
+            // properly if the problem persists. Only log the first of a run of failures, to not flood the log.
+            if ( !failureLogged )
+            {
+                log.warn( "Failed to write out dirty pages in between check-points", e );
+                failureLogged = true;
+            }
+        }
+    }
+
+    private int pagesToDrain()
+    {
+        if ( dirtyPagesHighWatermark == Long.MAX_VALUE )
+        {
+            return 0;
+        }
+        int dirtyPages = pageCache.dirtyPageCount();
+        if ( dirtyPages > dirtyPagesHighWatermark )
+        {
+            draining = true;
+        }
+        else if ( dirtyPages <= dirtyPagesLowWatermark )
+        {
+            draining = false;
+        }
+        return draining ? (int) (dirtyPages - dirtyPagesLowWatermark) : 0;
+    }
+}
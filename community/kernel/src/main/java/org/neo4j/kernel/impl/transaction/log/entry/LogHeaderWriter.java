@@ -29,6 +29,7 @@ import org.neo4j.kernel.impl.transaction.log.FlushableChannel;
 
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.CURRENT_FORMAT_VERSION;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.CURRENT_LOG_VERSION;
 
 public class LogHeaderWriter
 {
@@ -40,9 +41,15 @@ public class LogHeaderWriter
     }
 
     public static ByteBuffer writeLogHeader( ByteBuffer buffer, long logVersion, long previousCommittedTxId )
+    {
+        return writeLogHeader( buffer, CURRENT_LOG_VERSION, logVersion, previousCommittedTxId );
+    }
+
+    public static ByteBuffer writeLogHeader( ByteBuffer buffer, byte logFormatVersion, long logVersion,
+            long previousCommittedTxId )
     {
         buffer.clear();
-        buffer.putLong( encodeLogVersion( logVersion ) );
+        buffer.putLong( encodeLogVersion( logVersion, logFormatVersion ) );
         buffer.putLong( previousCommittedTxId );
         buffer.flip();
         return buffer;
@@ -69,4 +76,9 @@ public class LogHeaderWriter
     {
         return logVersion | (((long) CURRENT_FORMAT_VERSION) << 56);
     }
+
+    public static long encodeLogVersion( long logVersion, byte logFormatVersion )
+    {
+        return logVersion | (((long) (logFormatVersion & 0xFF)) << 56);
+    }
 }
@@ -39,6 +39,10 @@ public class LogVersions
     // Please don't add more since they aren't really used anyway.
     public static final byte CURRENT_LOG_VERSION = 6;
 
+    // Same log entries as the current version, but the content after the header is a sequence of compressed
+    // blocks, see CompressedLogVersionedStoreChannel. Opt-in, which is why it isn't the current version.
+    public static final byte COMPRESSED_LOG_VERSION = 7;
+
     // on disk current format version
     static final short CURRENT_FORMAT_VERSION = CURRENT_LOG_VERSION & 0xFF;
 }
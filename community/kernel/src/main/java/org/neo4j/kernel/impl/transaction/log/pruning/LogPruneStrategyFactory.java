@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.transaction.log.pruning;
 
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.impl.transaction.log.LogFileInformation;
+import org.neo4j.kernel.impl.transaction.log.LogFilePreallocator;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogFiles;
 import org.neo4j.kernel.impl.transaction.log.pruning.ThresholdConfigParser.ThresholdConfigValue;
 import org.neo4j.time.Clocks;
@@ -64,6 +65,20 @@ public class LogPruneStrategyFactory
                                                     LogFileInformation logFileInformation,
                                                     PhysicalLogFiles files,
                                                     String configValue )
+    {
+        return fromConfigValue( fileSystem, logFileInformation, files, configValue,
+                LogFilePreallocator.NO_PREALLOCATION );
+    }
+
+    /**
+     * Like {@link #fromConfigValue(FileSystemAbstraction, LogFileInformation, PhysicalLogFiles, String)},
+     * but letting {@code preallocator} recycle pruned log files.
+     */
+    public static LogPruneStrategy fromConfigValue( FileSystemAbstraction fileSystem,
+                                                    LogFileInformation logFileInformation,
+                                                    PhysicalLogFiles files,
+                                                    String configValue,
+                                                    LogFilePreallocator preallocator )
     {
         ThresholdConfigValue value = parse( configValue );
 
@@ -73,7 +88,8 @@ public class LogPruneStrategyFactory
         }
 
         Threshold thresholdToUse = getThresholdByType( fileSystem, value, configValue );
-        return new ThresholdBasedPruneStrategy( fileSystem, logFileInformation, files, thresholdToUse );
+        return new ThresholdBasedPruneStrategy( fileSystem, logFileInformation, files, thresholdToUse,
+                preallocator );
     }
 
     // visible for testing
@@ -23,6 +23,7 @@ import java.io.File;
 
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.impl.transaction.log.LogFileInformation;
+import org.neo4j.kernel.impl.transaction.log.LogFilePreallocator;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogFiles;
 
 import static org.neo4j.kernel.impl.transaction.log.LogVersionRepository.INITIAL_LOG_VERSION;
@@ -34,14 +35,25 @@ public class ThresholdBasedPruneStrategy implements LogPruneStrategy
     private final LogFileInformation logFileInformation;
     private final PhysicalLogFiles files;
     private final Threshold threshold;
+    private final LogFilePreallocator preallocator;
 
     public ThresholdBasedPruneStrategy( FileSystemAbstraction fileSystem, LogFileInformation logFileInformation,
                                         PhysicalLogFiles files, Threshold threshold )
+    {
+        this( fileSystem, logFileInformation, files, threshold, LogFilePreallocator.NO_PREALLOCATION );
+    }
+
+    /**
+     * @param preallocator gets the chance to recycle pruned log files before they are deleted.
+     */
+    public ThresholdBasedPruneStrategy( FileSystemAbstraction fileSystem, LogFileInformation logFileInformation,
+                                        PhysicalLogFiles files, Threshold threshold, LogFilePreallocator preallocator )
     {
         this.fileSystem = fileSystem;
         this.logFileInformation = logFileInformation;
         this.files = files;
         this.threshold = threshold;
+        this.preallocator = preallocator;
     }
 
     @Override
@@ -106,7 +118,12 @@ public class ThresholdBasedPruneStrategy implements LogPruneStrategy
         // we can be sure that no holes are created
         for ( long version = lower; version <= upper; version++ )
         {
-            fileSystem.deleteFile( files.getLogFileForVersion( version ) );
+            File file = files.getLogFileForVersion( version );
+            if ( !preallocator.recycle( file ) )
+            {
+                fileSystem.deleteFile( file );
+            }
+            fileSystem.deleteFile( files.getTransactionLogIndexFileForVersion( version ) );
         }
     }
 }
@@ -28,12 +28,23 @@ public interface LogForceEvent extends AutoCloseable
 {
     LogForceEvent NULL = new LogForceEvent()
     {
+        @Override
+        public void setBatchSize( long transactions )
+        {
+        }
+
         @Override
         public void close()
         {
         }
     };
 
+    /**
+     * Reports the number of transactions made durable by this force, which is larger than one when commits
+     * were grouped.
+     */
+    void setBatchSize( long transactions );
+
     /**
      * Marks the end of the force call on the transaction log file.
      */
@@ -20,6 +20,8 @@
 package org.neo4j.kernel.impl.util;
 
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.io.pagecache.impl.MemoryMappedPageSwapperFactory;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
 import org.neo4j.kernel.configuration.Config;
 
 public class CustomIOConfigValidator
@@ -34,7 +36,11 @@ public class CustomIOConfigValidator
 
     private static boolean customIOConfigUsed( Config config )
     {
-        return config.get( GraphDatabaseSettings.pagecache_swapper ) != null;
+        String swapper = config.get( GraphDatabaseSettings.pagecache_swapper );
+        // The built in swappers work on plain store files, so they do not count as custom IO.
+        return swapper != null &&
+               !swapper.equals( new SingleFilePageSwapperFactory().implementationName() ) &&
+               !swapper.equals( new MemoryMappedPageSwapperFactory().implementationName() );
     }
 
     private static class CustomIOConfigNotSupportedException extends RuntimeException
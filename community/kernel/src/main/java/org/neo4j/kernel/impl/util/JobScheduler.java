@@ -142,6 +142,26 @@ public interface JobScheduler extends Lifecycle
          */
         public static final Group checkPoint = new Group( "CheckPoint", POOLED );
 
+        /**
+         * Background forcing of the transaction log, when commits don't wait for it.
+         */
+        public static final Group logForce = new Group( "LogForce", POOLED );
+
+        /**
+         * Preparing files to become the next transaction log file.
+         */
+        public static final Group logPreallocation = new Group( "LogPreallocation", POOLED );
+
+        /**
+         * Worker threads of queries which run in parallel.
+         */
+        public static final Group cypherWorker = new Group( "CypherWorker", POOLED );
+
+        /**
+         * Page cache profiling and warm up
+         */
+        public static final Group pageCacheIOHelper = new Group( "PageCacheIOHelper", POOLED );
+
         /**
          * Raft Log pruning
          */
@@ -20,6 +20,10 @@
 package org.neo4j.kernel.recovery;
 
 import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.neo4j.helpers.collection.Visitor;
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -31,13 +35,17 @@ import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.LogVersionRepository;
 import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
+import org.neo4j.kernel.impl.transaction.log.PhysicalLogVersionedStoreChannel;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogFiles;
 import org.neo4j.kernel.impl.transaction.log.TransactionCursor;
 import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
 import org.neo4j.storageengine.api.StorageEngine;
 
+import static org.neo4j.helpers.NamedThreadFactory.daemon;
 import static org.neo4j.kernel.impl.transaction.log.Commitment.NO_COMMITMENT;
+import static org.neo4j.kernel.impl.transaction.log.PhysicalLogFile.tryOpenForVersion;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.COMPRESSED_LOG_VERSION;
 import static org.neo4j.storageengine.api.TransactionApplicationMode.RECOVERY;
 
 public class DefaultRecoverySPI implements Recovery.SPI
@@ -49,8 +57,11 @@ public class DefaultRecoverySPI implements Recovery.SPI
     private final StorageEngine storageEngine;
     private final TransactionIdStore transactionIdStore;
     private final LogicalTransactionStore logicalTransactionStore;
+    private final boolean readAhead;
     private Visitor<CommittedTransactionRepresentation,Exception> recoveryVisitor;
     private TransactionQueue transactionsToApply;
+    private ExecutorService batchApplier;
+    private Future<Object> applyingBatch;
 
     public DefaultRecoverySPI(
             StorageEngine storageEngine,
@@ -59,6 +70,22 @@ public class DefaultRecoverySPI implements Recovery.SPI
             TransactionIdStore transactionIdStore, LogicalTransactionStore logicalTransactionStore,
             PositionToRecoverFrom.Monitor monitor )
     {
+        this( storageEngine, logFiles, fs, logVersionRepository, checkPointFinder, transactionIdStore,
+                logicalTransactionStore, monitor, false );
+    }
+
+    /**
+     * @param readAhead whether or not to read the next batch of transactions from the log while the previous
+     * batch is being applied by another thread.
+     */
+    public DefaultRecoverySPI(
+            StorageEngine storageEngine,
+            PhysicalLogFiles logFiles, FileSystemAbstraction fs,
+            LogVersionRepository logVersionRepository, LatestCheckPointFinder checkPointFinder,
+            TransactionIdStore transactionIdStore, LogicalTransactionStore logicalTransactionStore,
+            PositionToRecoverFrom.Monitor monitor, boolean readAhead )
+    {
+        this.readAhead = readAhead;
         this.storageEngine = storageEngine;
         this.logFiles = logFiles;
         this.fs = fs;
@@ -91,12 +118,57 @@ public class DefaultRecoverySPI implements Recovery.SPI
         // Go and read more at {@link CommonAbstractStore#deleteIdGenerator()}
         storageEngine.prepareForRecoveryRequired();
 
-        transactionsToApply = new TransactionQueue( 10_000, (first,last) -> storageEngine.apply( first, RECOVERY ) );
+        if ( readAhead )
+        {
+            batchApplier = Executors.newSingleThreadExecutor( daemon( "RecoveryBatchApplier" ) );
+            transactionsToApply = new TransactionQueue( 10_000, ( first, last ) -> applyInBackground( first ) );
+        }
+        else
+        {
+            transactionsToApply =
+                    new TransactionQueue( 10_000, ( first, last ) -> storageEngine.apply( first, RECOVERY ) );
+        }
         recoveryVisitor = new RecoveryVisitor( transactionsToApply );
 
         return recoveryVisitor;
     }
 
+    private void applyInBackground( TransactionToApply batch ) throws Exception
+    {
+        // Only one batch is applied at any given time, while the next one is read from the log
+        awaitAppliedBatch();
+        applyingBatch = batchApplier.submit( () ->
+        {
+            storageEngine.apply( batch, RECOVERY );
+            return null;
+        } );
+    }
+
+    private void awaitAppliedBatch() throws Exception
+    {
+        if ( applyingBatch == null )
+        {
+            return;
+        }
+        try
+        {
+            applyingBatch.get();
+        }
+        catch ( ExecutionException e )
+        {
+            Throwable cause = e.getCause();
+            if ( cause instanceof Error )
+            {
+                throw (Error) cause;
+            }
+            throw (Exception) cause;
+        }
+        finally
+        {
+            applyingBatch = null;
+        }
+    }
+
     @Override
     public TransactionCursor getTransactions( LogPosition position ) throws IOException
     {
@@ -107,9 +179,25 @@ public class DefaultRecoverySPI implements Recovery.SPI
     public void allTransactionsRecovered( CommittedTransactionRepresentation lastRecoveredTransaction,
             LogPosition positionAfterLastRecoveredTransaction ) throws Exception
     {
+        try
+        {
+            if ( lastRecoveredTransaction != null )
+            {
+                transactionsToApply.empty();
+                awaitAppliedBatch();
+            }
+        }
+        finally
+        {
+            if ( batchApplier != null )
+            {
+                batchApplier.shutdown();
+                batchApplier = null;
+            }
+        }
+
         if ( lastRecoveredTransaction != null )
         {
-            transactionsToApply.empty();
             transactionIdStore.setLastCommittedAndClosedTransactionId(
                     lastRecoveredTransaction.getCommitEntry().getTxId(),
                     LogEntryStart.checksum( lastRecoveredTransaction.getStartEntry() ),
@@ -118,7 +206,17 @@ public class DefaultRecoverySPI implements Recovery.SPI
                     positionAfterLastRecoveredTransaction.getLogVersion() );
         }
 
-        fs.truncate( logFiles.getLogFileForVersion( positionAfterLastRecoveredTransaction.getLogVersion() ),
+        long logVersion = positionAfterLastRecoveredTransaction.getLogVersion();
+        try ( PhysicalLogVersionedStoreChannel channel = tryOpenForVersion( logFiles, fs, logVersion, true ) )
+        {
+            if ( channel != null && channel.getLogFormatVersion() == COMPRESSED_LOG_VERSION )
+            {
+                // Positions in compressed logs aren't file offsets, so let the channel do the truncation
+                channel.truncate( positionAfterLastRecoveredTransaction.getByteOffset() );
+                return;
+            }
+        }
+        fs.truncate( logFiles.getLogFileForVersion( logVersion ),
                 positionAfterLastRecoveredTransaction.getByteOffset() );
     }
 
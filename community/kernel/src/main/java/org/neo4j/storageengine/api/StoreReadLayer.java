@@ -268,6 +268,13 @@ public interface StoreReadLayer
      */
     PrimitiveLongIterator nodesGetAll();
 
+    /**
+     * @return the highest node id that may be in use, or {@code -1} if no node has ever been created.
+     * Ids up to and including this one can be visited using {@link #nodeExists(long)}, which allows
+     * callers to split a scan over all nodes into id ranges.
+     */
+    long nodesGetHighestPossibleIdInUse();
+
     /**
      * @return ids of all stored relationships. The returned iterator can optionally visit data about
      * each relationship returned.
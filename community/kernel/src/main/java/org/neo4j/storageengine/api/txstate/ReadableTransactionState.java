@@ -135,6 +135,13 @@ public interface ReadableTransactionState
 
     ReadableDiffSets<Long> indexUpdatesForRangeSeekByPrefix( NewIndexDescriptor index, String prefix );
 
+    /**
+     * @param index composite index to seek.
+     * @param values one value per property of the index, in the order of the properties of the index.
+     * @return nodes added to and removed from the given composite index under the given combination of values.
+     */
+    ReadableDiffSets<Long> indexUpdatesForCompositeSeek( NewIndexDescriptor index, Object[] values );
+
     NodeState getNodeState( long id );
 
     RelationshipState getRelationshipState( long id );
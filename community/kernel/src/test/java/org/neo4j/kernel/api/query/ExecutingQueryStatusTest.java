@@ -26,6 +26,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.locking.ActiveLock;
 import org.neo4j.storageengine.api.lock.ResourceType;
 import org.neo4j.storageengine.api.lock.WaitStrategy;
@@ -99,6 +100,7 @@ public class ExecutingQueryStatusTest
                                 null,
                                 null,
                                 null,
+                                PageCursorTracer.NULL,
                                 Thread.currentThread(),
                                 clock,
                                 FakeCpuClock.CPU_CLOCK ), clock.nanos() );
@@ -31,6 +31,8 @@ import org.hamcrest.Matcher;
 import org.hamcrest.TypeSafeMatcher;
 import org.junit.Test;
 
+import org.neo4j.io.pagecache.tracing.PinEvent;
+import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracer;
 import org.neo4j.kernel.impl.locking.LockWaitEvent;
 import org.neo4j.kernel.impl.query.clientconnection.ClientConnectionInfo;
 import org.neo4j.storageengine.api.lock.ResourceType;
@@ -50,6 +52,7 @@ public class ExecutingQueryTest
 {
     private final FakeClock clock = Clocks.fakeClock( ZonedDateTime.parse( "2016-12-03T15:10:00+01:00" ) );
     private final FakeCpuClock cpuClock = new FakeCpuClock();
+    private final DefaultPageCursorTracer pageCursorCounters = new DefaultPageCursorTracer();
     private long lockCount;
     private ExecutingQuery query = new ExecutingQuery(
             1,
@@ -58,7 +61,7 @@ public class ExecutingQueryTest
             "hello world",
             Collections.emptyMap(),
             Collections.emptyMap(),
-            () -> lockCount, Thread.currentThread(),
+            () -> lockCount, pageCursorCounters, Thread.currentThread(),
             clock,
             cpuClock );
     private ExecutingQuery subQuery = new ExecutingQuery(
@@ -68,7 +71,7 @@ public class ExecutingQueryTest
             "goodbye world",
             Collections.emptyMap(),
             Collections.emptyMap(),
-            () -> lockCount, Thread.currentThread(),
+            () -> lockCount, pageCursorCounters, Thread.currentThread(),
             clock,
             cpuClock );
 
@@ -232,6 +235,47 @@ public class ExecutingQueryTest
         assertEquals( 60, cpuTime );
     }
 
+    @Test
+    public void shouldReportPageHitsAndFaults() throws Exception
+    {
+        // given
+        pageHitsAndFaults( 3, 1 );
+
+        // when
+        pageCursorCounters.reportEvents();
+        pageHitsAndFaults( 4, 2 );
+
+        // then
+        QuerySnapshot snapshot = query.snapshot();
+        assertEquals( 7, snapshot.pageHits() );
+        assertEquals( 3, snapshot.pageFaults() );
+    }
+
+    @Test
+    public void shouldNotReportPageHitsAndFaultsFromBeforeTheQueryStarted() throws Exception
+    {
+        // given
+        pageHitsAndFaults( 5, 5 );
+        ExecutingQuery laterQuery = new ExecutingQuery(
+                3,
+                ClientConnectionInfo.EMBEDDED_CONNECTION,
+                "neo4j",
+                "hello again world",
+                Collections.emptyMap(),
+                Collections.emptyMap(),
+                () -> lockCount, pageCursorCounters, Thread.currentThread(),
+                clock,
+                cpuClock );
+
+        // when
+        pageHitsAndFaults( 2, 1 );
+
+        // then
+        QuerySnapshot snapshot = laterQuery.snapshot();
+        assertEquals( 2, snapshot.pageHits() );
+        assertEquals( 1, snapshot.pageFaults() );
+    }
+
     @Test
     public void shouldReportLockCount() throws Exception
     {
@@ -248,6 +292,23 @@ public class ExecutingQueryTest
         assertEquals( 2, query.snapshot().activeLockCount() );
     }
 
+    private void pageHitsAndFaults( int hits, int faults )
+    {
+        for ( int i = 0; i < hits; i++ )
+        {
+            PinEvent pinEvent = pageCursorCounters.beginPin( false, i, null );
+            pinEvent.hit();
+            pinEvent.done();
+        }
+        for ( int i = 0; i < faults; i++ )
+        {
+            PinEvent pinEvent = pageCursorCounters.beginPin( false, i, null );
+            pinEvent.beginPageFault().done();
+            pinEvent.hit();
+            pinEvent.done();
+        }
+    }
+
     private LockWaitEvent lock( String resourceType, long resourceId )
     {
         return query.lockTracer().waitForLock( false, resourceType( resourceType ), resourceId );
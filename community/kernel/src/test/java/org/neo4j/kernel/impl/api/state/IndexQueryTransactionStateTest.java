@@ -37,6 +37,7 @@ import org.neo4j.kernel.api.schema_new.IndexQuery;
 import org.neo4j.kernel.api.schema_new.SchemaBoundary;
 import org.neo4j.kernel.api.schema_new.index.IndexBoundary;
 import org.neo4j.kernel.api.schema_new.index.NewIndexDescriptor;
+import org.neo4j.kernel.api.schema_new.index.NewIndexDescriptorFactory;
 import org.neo4j.kernel.api.txstate.TransactionState;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.api.ConstraintEnforcingEntityOperations;
@@ -363,6 +364,114 @@ public class IndexQueryTransactionStateTest
         assertNoSuchNode( result );
     }
 
+    @Test
+    public void shouldMergeChangedNodesIntoCompositeIndexQuery() throws Exception
+    {
+        // Given
+        int otherPropertyKeyId = 4;
+        String otherValue = "My Other Value";
+        NewIndexDescriptor compositeIndex =
+                NewIndexDescriptorFactory.forLabel( labelId, propertyKeyId, otherPropertyKeyId );
+        IndexQuery otherExactQuery = IndexQuery.exact( otherPropertyKeyId, otherValue );
+        when( statement.getIndexReader( compositeIndex ) ).thenReturn( indexReader );
+        when( indexReader.query( exactQuery, otherExactQuery ) )
+                .then( answerAsPrimitiveLongIteratorFrom( asList( 2L, 3L, 4L ) ) );
+        when( store.indexesGetForLabel( labelId ) ).then( answerAsIteratorFrom( asList( compositeIndex ) ) );
+        when( store.uniquenessIndexesGetForLabel( labelId ) ).then( answerAsIteratorFrom( Collections.emptyList() ) );
+        when( store.constraintsGetForSchema( any() ) ).then( answerAsIteratorFrom( Collections.emptyList() ) );
+        when( store.nodeGetProperties( eq( statement ), any( NodeItem.class ) ) )
+                .then( invocation -> asPropertyCursor( stringProperty( propertyKeyId, value ) ) );
+        when( store.nodeGetProperty( eq( statement ), any( NodeItem.class ), eq( propertyKeyId ) ) )
+                .then( invocation -> asPropertyCursor( stringProperty( propertyKeyId, value ) ) );
+        when( store.nodeGetProperty( eq( statement ), any( NodeItem.class ), eq( otherPropertyKeyId ) ) )
+                .then( invocation -> asPropertyCursor( stringProperty( otherPropertyKeyId, otherValue ) ) );
+
+        // Node 1 gets the label, and with it both values, in this transaction
+        long addedNode = 1L;
+        when( statement.acquireSingleNodeCursor( addedNode ) ).then( invocation -> asNodeCursor( addedNode ) );
+        txContext.nodeAddLabel( state, addedNode, labelId );
+
+        // Node 2 is in the committed index, but has one of its values changed in this transaction
+        long changedNode = 2L;
+        when( statement.acquireSingleNodeCursor( changedNode ) )
+                .then( invocation -> asNodeCursor( changedNode, labels( labelId ) ) );
+        txContext.nodeSetProperty( state, changedNode, stringProperty( otherPropertyKeyId, "Changed" ) );
+
+        // Node 3 is in the committed index, but loses the label in this transaction
+        long unlabelledNode = 3L;
+        when( statement.acquireSingleNodeCursor( unlabelledNode ) )
+                .then( invocation -> asNodeCursor( unlabelledNode, labels( labelId ) ) );
+        txContext.nodeRemoveLabel( state, unlabelledNode, labelId );
+
+        // When
+        PrimitiveLongIterator result = txContext.indexQuery( state, compositeIndex, exactQuery, otherExactQuery );
+
+        // Then
+        assertThat( PrimitiveLongCollections.toSet( result ), equalTo( asSet( addedNode, 4L ) ) );
+    }
+
+    @Test
+    public void shouldIncludeNodeInCompositeIndexQueryOnlyForItsChangedValues() throws Exception
+    {
+        // Given
+        int otherPropertyKeyId = 4;
+        String otherValue = "My Other Value";
+        NewIndexDescriptor compositeIndex =
+                NewIndexDescriptorFactory.forLabel( labelId, propertyKeyId, otherPropertyKeyId );
+        IndexQuery otherExactQuery = IndexQuery.exact( otherPropertyKeyId, otherValue );
+        IndexQuery changedExactQuery = IndexQuery.exact( otherPropertyKeyId, "Changed" );
+        when( statement.getIndexReader( compositeIndex ) ).thenReturn( indexReader );
+        when( indexReader.query( exactQuery, otherExactQuery ) )
+                .then( answerAsPrimitiveLongIteratorFrom( Collections.emptyList() ) );
+        when( indexReader.query( exactQuery, changedExactQuery ) )
+                .then( answerAsPrimitiveLongIteratorFrom( Collections.emptyList() ) );
+        when( store.indexesGetForLabel( labelId ) ).then( answerAsIteratorFrom( asList( compositeIndex ) ) );
+        when( store.uniquenessIndexesGetForLabel( labelId ) ).then( answerAsIteratorFrom( Collections.emptyList() ) );
+        when( store.constraintsGetForSchema( any() ) ).then( answerAsIteratorFrom( Collections.emptyList() ) );
+        when( store.nodeGetProperty( eq( statement ), any( NodeItem.class ), eq( propertyKeyId ) ) )
+                .then( invocation -> asPropertyCursor( stringProperty( propertyKeyId, value ) ) );
+        when( store.nodeGetProperty( eq( statement ), any( NodeItem.class ), eq( otherPropertyKeyId ) ) )
+                .then( invocation -> asPropertyCursor() );
+
+        long nodeId = 1L;
+        when( statement.acquireSingleNodeCursor( nodeId ) )
+                .then( invocation -> asNodeCursor( nodeId, labels( labelId ) ) );
+        txContext.nodeSetProperty( state, nodeId, stringProperty( otherPropertyKeyId, otherValue ) );
+        txContext.nodeSetProperty( state, nodeId, stringProperty( otherPropertyKeyId, "Changed" ) );
+
+        // When
+        PrimitiveLongIterator previous = txContext.indexQuery( state, compositeIndex, exactQuery, otherExactQuery );
+        PrimitiveLongIterator current = txContext.indexQuery( state, compositeIndex, exactQuery, changedExactQuery );
+
+        // Then
+        assertThat( PrimitiveLongCollections.toSet( previous ), equalTo( Collections.<Long>emptySet() ) );
+        assertThat( PrimitiveLongCollections.toSet( current ), equalTo( asSet( nodeId ) ) );
+    }
+
+    @Test
+    public void shouldExcludeRemovedNodesFromCompositeIndexQuery() throws Exception
+    {
+        // Given
+        int otherPropertyKeyId = 4;
+        String otherValue = "My Other Value";
+        NewIndexDescriptor compositeIndex = NewIndexDescriptorFactory.forLabel( labelId, propertyKeyId, otherPropertyKeyId );
+        IndexQuery otherExactQuery = IndexQuery.exact( otherPropertyKeyId, otherValue );
+        when( statement.getIndexReader( compositeIndex ) ).thenReturn( indexReader );
+        long nodeId = 2L;
+        when( indexReader.query( exactQuery, otherExactQuery ) )
+                .then( answerAsPrimitiveLongIteratorFrom( asList( 1L, nodeId, 3L ) ) );
+
+        when( statement.acquireSingleNodeCursor( nodeId ) ).thenReturn( asNodeCursor( nodeId ) );
+
+        txContext.nodeDelete( state, nodeId );
+
+        // When
+        PrimitiveLongIterator result = txContext.indexQuery( state, compositeIndex, exactQuery, otherExactQuery );
+
+        // Then
+        assertThat( PrimitiveLongCollections.toSet( result ), equalTo( asSet( 1L, 3L ) ) );
+    }
+
     private void assertNoSuchNode( long node )
     {
         assertThat( node, equalTo( NO_SUCH_NODE ) );
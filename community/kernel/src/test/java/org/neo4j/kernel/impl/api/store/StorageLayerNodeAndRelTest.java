@@ -29,6 +29,7 @@ import org.neo4j.storageengine.api.StorageStatement;
 
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertEquals;
 import static org.neo4j.graphdb.RelationshipType.withName;
 import static org.neo4j.helpers.collection.MapUtil.map;
 
@@ -57,6 +58,23 @@ public class StorageLayerNodeAndRelTest extends StorageLayerTest
         assertFalse( nodeExists( neverExisted ) );
     }
 
+    @Test
+    public void shouldKnowHighestPossibleNodeIdInUse() throws Exception
+    {
+        // Given
+        createLabeledNode( db, map() );
+        long highest = createLabeledNode( db, map() ).getId();
+
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.getNodeById( highest ).delete();
+            tx.success();
+        }
+
+        // When & then
+        assertEquals( highest, disk.nodesGetHighestPossibleIdInUse() );
+    }
+
     @Test
     public void shouldTellIfRelExists() throws Exception
     {
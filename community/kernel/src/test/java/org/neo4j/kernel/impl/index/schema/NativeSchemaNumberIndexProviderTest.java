@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexAccessor;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.index.IndexPopulator;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.index.InternalIndexState;
+import org.neo4j.kernel.api.index.PropertyAccessor;
+import org.neo4j.kernel.api.properties.Property;
+import org.neo4j.kernel.api.schema_new.IndexQuery;
+import org.neo4j.kernel.api.schema_new.index.NewIndexDescriptor;
+import org.neo4j.kernel.api.schema_new.index.NewIndexDescriptorFactory;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.storageengine.api.schema.IndexSample;
+import org.neo4j.test.rule.PageCacheRule;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.test.rule.fs.DefaultFileSystemRule;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.junit.rules.RuleChain.outerRule;
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.asArray;
+import static org.neo4j.kernel.api.index.IndexEntryUpdate.add;
+import static org.neo4j.kernel.api.index.IndexEntryUpdate.change;
+import static org.neo4j.kernel.api.index.IndexEntryUpdate.remove;
+
+public class NativeSchemaNumberIndexProviderTest
+{
+    private static final long INDEX_ID = 1;
+    private static final int PROPERTY_KEY_ID = 2;
+
+    private final DefaultFileSystemRule fs = new DefaultFileSystemRule();
+    private final TestDirectory directory = TestDirectory.testDirectory( getClass(), fs.get() );
+    private final PageCacheRule pageCacheRule = new PageCacheRule();
+
+    @Rule
+    public final RuleChain rules = outerRule( fs ).around( directory ).around( pageCacheRule );
+
+    private final NewIndexDescriptor descriptor = NewIndexDescriptorFactory.forLabel( 1, PROPERTY_KEY_ID );
+    private final NewIndexDescriptor uniqueDescriptor = NewIndexDescriptorFactory.uniqueForLabel( 1, PROPERTY_KEY_ID );
+    private final IndexSamplingConfig samplingConfig = new IndexSamplingConfig( Config.empty() );
+    private NativeSchemaNumberIndexProvider provider;
+
+    @Before
+    public void setUpProvider()
+    {
+        PageCache pageCache = pageCacheRule.getPageCache( fs.get() );
+        provider = new NativeSchemaNumberIndexProvider( pageCache, fs.get(), directory.graphDbDir(),
+                NullLogProvider.getInstance() );
+    }
+
+    @Test
+    public void shouldReportPopulatingForNonExistentIndex() throws Exception
+    {
+        // WHEN
+        InternalIndexState state = provider.getInitialState( INDEX_ID );
+
+        // THEN
+        assertEquals( InternalIndexState.POPULATING, state );
+    }
+
+    @Test
+    public void shouldReportPopulatingUntilPopulationCompleted() throws Exception
+    {
+        // GIVEN
+        IndexPopulator populator = provider.getPopulator( INDEX_ID, descriptor, samplingConfig );
+        populator.create();
+        populator.add( Arrays.asList( add( 1, descriptor, 1 ), add( 2, descriptor, 2.5 ) ) );
+        assertEquals( InternalIndexState.POPULATING, provider.getInitialState( INDEX_ID ) );
+
+        // WHEN
+        populator.close( true );
+
+        // THEN
+        assertEquals( InternalIndexState.ONLINE, provider.getInitialState( INDEX_ID ) );
+    }
+
+    @Test
+    public void shouldStayOnlineAfterUpdatesAndRestart() throws Exception
+    {
+        // GIVEN
+        populate( descriptor, add( 1, descriptor, 1 ) );
+        try ( IndexAccessor accessor = provider.getOnlineAccessor( INDEX_ID, descriptor, samplingConfig ) )
+        {
+            try ( IndexUpdater updater = accessor.newUpdater( IndexUpdateMode.ONLINE ) )
+            {
+                updater.process( add( 2, descriptor, 2 ) );
+            }
+
+            // WHEN
+            accessor.force();
+        }
+
+        // THEN
+        assertEquals( InternalIndexState.ONLINE, provider.getInitialState( INDEX_ID ) );
+        try ( IndexAccessor accessor = provider.getOnlineAccessor( INDEX_ID, descriptor, samplingConfig );
+              IndexReader reader = accessor.newReader() )
+        {
+            assertArrayEquals( new long[]{1, 2}, asArray( reader.query( IndexQuery.exists( PROPERTY_KEY_ID ) ) ) );
+        }
+    }
+
+    @Test
+    public void shouldReportFailureMarkedDuringPopulation() throws Exception
+    {
+        // GIVEN
+        IndexPopulator populator = provider.getPopulator( INDEX_ID, descriptor, samplingConfig );
+        populator.create();
+
+        // WHEN
+        populator.markAsFailed( "Oh no" );
+        populator.close( false );
+
+        // THEN
+        assertEquals( InternalIndexState.FAILED, provider.getInitialState( INDEX_ID ) );
+        assertEquals( "Oh no", provider.getPopulationFailure( INDEX_ID ) );
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void shouldThrowOnPopulationFailureOfNonFailedIndex() throws Exception
+    {
+        // GIVEN
+        populate( descriptor, add( 1, descriptor, 1 ) );
+
+        // WHEN
+        provider.getPopulationFailure( INDEX_ID );
+    }
+
+    @Test
+    public void shouldQueryPopulatedAndUpdatedValues() throws Exception
+    {
+        // GIVEN
+        populate( descriptor,
+                add( 1, descriptor, 1 ),
+                add( 2, descriptor, 2L ),
+                add( 3, descriptor, 2.0d ),
+                add( 4, descriptor, 3.5f ),
+                add( 5, descriptor, -10 ) );
+
+        try ( IndexAccessor accessor = provider.getOnlineAccessor( INDEX_ID, descriptor, samplingConfig ) )
+        {
+            // WHEN
+            try ( IndexUpdater updater = accessor.newUpdater( IndexUpdateMode.ONLINE ) )
+            {
+                updater.process( change( 1, descriptor, 1, 4 ) );
+                updater.process( remove( 5, descriptor, -10 ) );
+                updater.process( add( 6, descriptor, (byte) 3 ) );
+            }
+
+            // THEN
+            try ( IndexReader reader = accessor.newReader() )
+            {
+                assertArrayEquals( new long[]{2, 3}, query( reader, IndexQuery.exact( PROPERTY_KEY_ID, 2 ) ) );
+                assertArrayEquals( new long[0], query( reader, IndexQuery.exact( PROPERTY_KEY_ID, 1 ) ) );
+                assertArrayEquals( new long[0], query( reader, IndexQuery.exact( PROPERTY_KEY_ID, "2" ) ) );
+                assertArrayEquals( new long[]{6, 4, 1},
+                        query( reader, IndexQuery.range( PROPERTY_KEY_ID, 3, true, 4, true ) ) );
+                assertArrayEquals( new long[]{4},
+                        query( reader, IndexQuery.range( PROPERTY_KEY_ID, 3, false, 4, false ) ) );
+                assertArrayEquals( new long[]{2, 3, 6},
+                        query( reader, IndexQuery.range( PROPERTY_KEY_ID, null, true, 3, true ) ) );
+                assertArrayEquals( new long[0],
+                        query( reader, IndexQuery.range( PROPERTY_KEY_ID, 4, true, 3, true ) ) );
+                assertArrayEquals( new long[0], query( reader, IndexQuery.stringPrefix( PROPERTY_KEY_ID, "a" ) ) );
+                assertEquals( 1, reader.countIndexedNodes( 1, 4 ) );
+                assertEquals( 0, reader.countIndexedNodes( 1, 1 ) );
+            }
+        }
+    }
+
+    @Test
+    public void shouldApplyPopulatingUpdatesOnTopOfScannedEntries() throws Exception
+    {
+        // GIVEN
+        IndexPopulator populator = provider.getPopulator( INDEX_ID, descriptor, samplingConfig );
+        populator.create();
+        populator.add( Arrays.asList( add( 3, descriptor, 3 ), add( 1, descriptor, 1 ), add( 2, descriptor, 2 ) ) );
+
+        // WHEN
+        try ( IndexUpdater updater = populator.newPopulatingUpdater( ( nodeId, propertyKeyId ) -> null ) )
+        {
+            updater.process( change( 1, descriptor, 1, 4 ) );
+            updater.process( remove( 2, descriptor, 2 ) );
+        }
+        populator.add( Arrays.asList( add( 5, descriptor, 0 ) ) );
+        populator.close( true );
+
+        // THEN
+        try ( IndexAccessor accessor = provider.getOnlineAccessor( INDEX_ID, descriptor, samplingConfig );
+              IndexReader reader = accessor.newReader() )
+        {
+            assertArrayEquals( new long[]{5, 3, 1}, query( reader, IndexQuery.exists( PROPERTY_KEY_ID ) ) );
+        }
+    }
+
+    @Test
+    public void shouldRemoveAllEntriesOfRecoveredEntities() throws Exception
+    {
+        // GIVEN
+        populate( descriptor, add( 1, descriptor, 1 ), add( 2, descriptor, 2 ), add( 3, descriptor, 3 ) );
+        try ( IndexAccessor accessor = provider.getOnlineAccessor( INDEX_ID, descriptor, samplingConfig ) )
+        {
+            // WHEN
+            PrimitiveLongSet nodeIds = Primitive.longSet();
+            nodeIds.add( 1 );
+            nodeIds.add( 3 );
+            try ( IndexUpdater updater = accessor.newUpdater( IndexUpdateMode.RECOVERY ) )
+            {
+                updater.remove( nodeIds );
+            }
+
+            // THEN
+            try ( IndexReader reader = accessor.newReader() )
+            {
+                assertArrayEquals( new long[]{2}, query( reader, IndexQuery.exists( PROPERTY_KEY_ID ) ) );
+            }
+        }
+    }
+
+    @Test
+    public void shouldSampleNumberOfUniqueValues() throws Exception
+    {
+        // GIVEN
+        IndexPopulator populator = provider.getPopulator( INDEX_ID, descriptor, samplingConfig );
+        populator.create();
+        populator.configureSampling( true );
+        populator.add( Arrays.asList(
+                add( 1, descriptor, 1 ), add( 2, descriptor, 1 ), add( 3, descriptor, 2 ), add( 4, descriptor, 3 ) ) );
+
+        // WHEN
+        IndexSample sample = populator.sampleResult();
+        populator.close( true );
+
+        // THEN
+        assertEquals( 4, sample.indexSize() );
+        assertEquals( 3, sample.uniqueValues() );
+        assertEquals( 4, sample.sampleSize() );
+    }
+
+    @Test
+    public void shouldDetectDuplicateValuesInUniqueIndex() throws Exception
+    {
+        // GIVEN
+        Map<Long,Object> values = new HashMap<>();
+        values.put( 1L, 1 );
+        values.put( 2L, 2 );
+        values.put( 3L, 1.0d );
+        PropertyAccessor propertyAccessor = ( nodeId, propertyKeyId ) ->
+                Property.property( propertyKeyId, values.get( nodeId ) );
+        IndexPopulator populator = provider.getPopulator( INDEX_ID, uniqueDescriptor, samplingConfig );
+        populator.create();
+        List<IndexEntryUpdate> updates = new ArrayList<>();
+        values.forEach( ( nodeId, value ) -> updates.add( add( nodeId, uniqueDescriptor, value ) ) );
+        populator.add( updates );
+
+        // WHEN
+        try
+        {
+            populator.verifyDeferredConstraints( propertyAccessor );
+            fail( "Should have detected duplicate values" );
+        }
+        catch ( IndexEntryConflictException e )
+        {
+            // THEN good
+            assertEquals( 1, e.getExistingNodeId() );
+            assertEquals( 3, e.getAddedNodeId() );
+        }
+        finally
+        {
+            populator.close( false );
+        }
+    }
+
+    @Test
+    public void shouldNotReportDistinctValuesIndexedAsSameNumberAsDuplicates() throws Exception
+    {
+        // GIVEN values which are different, but are the same when represented as doubles
+        Map<Long,Object> values = new HashMap<>();
+        values.put( 1L, (1L << 60) + 1 );
+        values.put( 2L, (1L << 60) + 2 );
+        PropertyAccessor propertyAccessor = ( nodeId, propertyKeyId ) ->
+                Property.property( propertyKeyId, values.get( nodeId ) );
+        IndexPopulator populator = provider.getPopulator( INDEX_ID, uniqueDescriptor, samplingConfig );
+        populator.create();
+        populator.add( Arrays.asList(
+                add( 1, uniqueDescriptor, values.get( 1L ) ), add( 2, uniqueDescriptor, values.get( 2L ) ) ) );
+
+        // WHEN
+        populator.verifyDeferredConstraints( propertyAccessor );
+        populator.close( true );
+
+        // THEN no conflict was reported
+        assertEquals( InternalIndexState.ONLINE, provider.getInitialState( INDEX_ID ) );
+    }
+
+    private void populate( NewIndexDescriptor descriptor, IndexEntryUpdate... updates )
+            throws IOException, IndexEntryConflictException
+    {
+        IndexPopulator populator = provider.getPopulator( INDEX_ID, descriptor, samplingConfig );
+        populator.create();
+        populator.add( Arrays.asList( updates ) );
+        populator.close( true );
+    }
+
+    private static long[] query( IndexReader reader, IndexQuery query ) throws Exception
+    {
+        return asArray( reader.query( query ) );
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import java.util.Arrays;
+
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.index.IndexAccessor;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.index.IndexPopulator;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.index.InternalIndexState;
+import org.neo4j.kernel.api.schema_new.IndexQuery;
+import org.neo4j.kernel.api.schema_new.index.NewIndexDescriptor;
+import org.neo4j.kernel.api.schema_new.index.NewIndexDescriptorFactory;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.test.rule.PageCacheRule;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.test.rule.fs.DefaultFileSystemRule;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.rules.RuleChain.outerRule;
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.asArray;
+import static org.neo4j.kernel.api.index.IndexEntryUpdate.add;
+import static org.neo4j.kernel.api.index.IndexEntryUpdate.change;
+import static org.neo4j.kernel.api.index.IndexEntryUpdate.remove;
+
+public class NativeSchemaStringIndexProviderTest
+{
+    private static final long INDEX_ID = 1;
+    private static final int PROPERTY_KEY_ID = 2;
+
+    private final DefaultFileSystemRule fs = new DefaultFileSystemRule();
+    private final TestDirectory directory = TestDirectory.testDirectory( getClass(), fs.get() );
+    private final PageCacheRule pageCacheRule = new PageCacheRule();
+
+    @Rule
+    public final RuleChain rules = outerRule( fs ).around( directory ).around( pageCacheRule );
+
+    private final NewIndexDescriptor descriptor = NewIndexDescriptorFactory.forLabel( 1, PROPERTY_KEY_ID );
+    private final IndexSamplingConfig samplingConfig = new IndexSamplingConfig( Config.empty() );
+    private NativeSchemaStringIndexProvider provider;
+
+    @Before
+    public void setUpProvider()
+    {
+        PageCache pageCache = pageCacheRule.getPageCache( fs.get() );
+        provider = new NativeSchemaStringIndexProvider( pageCache, fs.get(), directory.graphDbDir(),
+                NullLogProvider.getInstance() );
+    }
+
+    @Test
+    public void shouldOnlyAcceptStringsSmallEnoughForKey() throws Exception
+    {
+        assertTrue( NativeSchemaStringIndexProvider.canIndex( "string" ) );
+        assertTrue( NativeSchemaStringIndexProvider.canIndex( 'c' ) );
+        assertTrue( NativeSchemaStringIndexProvider.canIndex( repeat( 'a', SchemaStringKey.MAX_STRING_BYTES ) ) );
+        assertFalse( NativeSchemaStringIndexProvider.canIndex( repeat( 'a', SchemaStringKey.MAX_STRING_BYTES + 1 ) ) );
+        // Three bytes per char when encoded
+        assertFalse( NativeSchemaStringIndexProvider.canIndex(
+                repeat( '中', SchemaStringKey.MAX_STRING_BYTES / 3 + 1 ) ) );
+        assertFalse( NativeSchemaStringIndexProvider.canIndex( 1 ) );
+        assertFalse( NativeSchemaStringIndexProvider.canIndex( true ) );
+    }
+
+    @Test
+    public void shouldBeOnlineAfterPopulation() throws Exception
+    {
+        // WHEN
+        populate( add( 1, descriptor, "a" ) );
+
+        // THEN
+        assertEquals( InternalIndexState.ONLINE, provider.getInitialState( INDEX_ID ) );
+    }
+
+    @Test
+    public void shouldSeekExactPrefixAndRange() throws Exception
+    {
+        // GIVEN
+        populate(
+                add( 1, descriptor, "a" ),
+                add( 2, descriptor, "ab" ),
+                add( 3, descriptor, "abc" ),
+                add( 4, descriptor, "b" ),
+                add( 5, descriptor, "ä" ),
+                add( 6, descriptor, 'a' ) );
+
+        try ( IndexAccessor accessor = provider.getOnlineAccessor( INDEX_ID, descriptor, samplingConfig );
+              IndexReader reader = accessor.newReader() )
+        {
+            // THEN
+            assertArrayEquals( new long[]{1, 6}, query( reader, IndexQuery.exact( PROPERTY_KEY_ID, "a" ) ) );
+            assertArrayEquals( new long[]{1, 6}, query( reader, IndexQuery.exact( PROPERTY_KEY_ID, 'a' ) ) );
+            assertArrayEquals( new long[0], query( reader, IndexQuery.exact( PROPERTY_KEY_ID, "c" ) ) );
+            assertArrayEquals( new long[0], query( reader, IndexQuery.exact( PROPERTY_KEY_ID, 1 ) ) );
+            assertArrayEquals( new long[]{2, 3}, query( reader, IndexQuery.stringPrefix( PROPERTY_KEY_ID, "ab" ) ) );
+            assertArrayEquals( new long[]{1, 6, 2, 3},
+                    query( reader, IndexQuery.stringPrefix( PROPERTY_KEY_ID, "a" ) ) );
+            assertArrayEquals( new long[]{1, 6, 2, 3, 4, 5},
+                    query( reader, IndexQuery.stringPrefix( PROPERTY_KEY_ID, "" ) ) );
+            assertArrayEquals( new long[]{2, 3, 4},
+                    query( reader, IndexQuery.range( PROPERTY_KEY_ID, "a", false, "b", true ) ) );
+            assertArrayEquals( new long[]{1, 6, 2, 3},
+                    query( reader, IndexQuery.range( PROPERTY_KEY_ID, null, true, "b", false ) ) );
+            // Code point order, same as the lucene index
+            assertArrayEquals( new long[]{5},
+                    query( reader, IndexQuery.range( PROPERTY_KEY_ID, "b", false, null, true ) ) );
+            assertArrayEquals( new long[0],
+                    query( reader, IndexQuery.range( PROPERTY_KEY_ID, "b", true, "a", true ) ) );
+            assertArrayEquals( new long[]{3}, query( reader, IndexQuery.stringSuffix( PROPERTY_KEY_ID, "bc" ) ) );
+            assertArrayEquals( new long[]{2, 3, 4},
+                    query( reader, IndexQuery.stringContains( PROPERTY_KEY_ID, "b" ) ) );
+            assertArrayEquals( new long[0], query( reader, IndexQuery.range( PROPERTY_KEY_ID, 1, true, 2, true ) ) );
+        }
+    }
+
+    @Test
+    public void shouldSeeUpdatesImmediately() throws Exception
+    {
+        // GIVEN
+        populate( add( 1, descriptor, "a" ), add( 2, descriptor, "b" ) );
+
+        try ( IndexAccessor accessor = provider.getOnlineAccessor( INDEX_ID, descriptor, samplingConfig ) )
+        {
+            // WHEN
+            try ( IndexUpdater updater = accessor.newUpdater( IndexUpdateMode.ONLINE ) )
+            {
+                updater.process( change( 1, descriptor, "a", "ba" ) );
+                updater.process( remove( 2, descriptor, "b" ) );
+                updater.process( add( 3, descriptor, "bb" ) );
+            }
+
+            // THEN
+            try ( IndexReader reader = accessor.newReader() )
+            {
+                assertArrayEquals( new long[]{1, 3},
+                        query( reader, IndexQuery.stringPrefix( PROPERTY_KEY_ID, "b" ) ) );
+                assertArrayEquals( new long[0], query( reader, IndexQuery.exact( PROPERTY_KEY_ID, "a" ) ) );
+                assertEquals( 1, reader.countIndexedNodes( 3, "bb" ) );
+            }
+        }
+    }
+
+    @Test
+    public void shouldHandleBoundsLongerThanKey() throws Exception
+    {
+        // GIVEN
+        String longBound = "a" + repeat( 'b', SchemaStringKey.MAX_STRING_BYTES );
+        populate( add( 1, descriptor, "a" ), add( 2, descriptor, "ab" ), add( 3, descriptor, "ac" ) );
+
+        try ( IndexAccessor accessor = provider.getOnlineAccessor( INDEX_ID, descriptor, samplingConfig );
+              IndexReader reader = accessor.newReader() )
+        {
+            // THEN
+            assertArrayEquals( new long[]{3},
+                    query( reader, IndexQuery.range( PROPERTY_KEY_ID, longBound, true, null, true ) ) );
+            assertArrayEquals( new long[]{1, 2},
+                    query( reader, IndexQuery.range( PROPERTY_KEY_ID, null, true, longBound, true ) ) );
+            assertArrayEquals( new long[0], query( reader, IndexQuery.stringPrefix( PROPERTY_KEY_ID, longBound ) ) );
+            assertArrayEquals( new long[0], query( reader, IndexQuery.exact( PROPERTY_KEY_ID, longBound ) ) );
+        }
+    }
+
+    private void populate( IndexEntryUpdate... updates ) throws Exception
+    {
+        IndexPopulator populator = provider.getPopulator( INDEX_ID, descriptor, samplingConfig );
+        populator.create();
+        populator.add( Arrays.asList( updates ) );
+        populator.close( true );
+    }
+
+    private static long[] query( IndexReader reader, IndexQuery query ) throws Exception
+    {
+        return asArray( reader.query( query ) );
+    }
+
+    private static String repeat( char c, int count )
+    {
+        char[] chars = new char[count];
+        Arrays.fill( chars, c );
+        return new String( chars );
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema.fusion;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.schema_new.index.NewIndexDescriptor;
+import org.neo4j.kernel.api.schema_new.index.NewIndexDescriptorFactory;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.neo4j.kernel.api.index.IndexEntryUpdate.add;
+import static org.neo4j.kernel.api.index.IndexEntryUpdate.change;
+import static org.neo4j.kernel.api.index.IndexEntryUpdate.remove;
+
+public class FusionIndexUpdaterTest
+{
+    private final NewIndexDescriptor descriptor = NewIndexDescriptorFactory.forLabel( 1, 2 );
+    private IndexUpdater numberUpdater;
+    private IndexUpdater stringUpdater;
+    private IndexUpdater luceneUpdater;
+    private FusionIndexUpdater fusionIndexUpdater;
+
+    @Before
+    public void setup()
+    {
+        numberUpdater = mock( IndexUpdater.class );
+        stringUpdater = mock( IndexUpdater.class );
+        luceneUpdater = mock( IndexUpdater.class );
+        fusionIndexUpdater =
+                new FusionIndexUpdater( numberUpdater, stringUpdater, luceneUpdater, new NativeSelector() );
+    }
+
+    @Test
+    public void processMustRouteNumbersToNumber() throws Exception
+    {
+        // WHEN
+        IndexEntryUpdate update = add( 1, descriptor, 10 );
+        fusionIndexUpdater.process( update );
+
+        // THEN
+        verify( numberUpdater ).process( update );
+        verifyZeroInteractions( stringUpdater, luceneUpdater );
+    }
+
+    @Test
+    public void processMustRouteStringsToString() throws Exception
+    {
+        // WHEN
+        IndexEntryUpdate stringUpdate = add( 1, descriptor, "string" );
+        IndexEntryUpdate charUpdate = remove( 2, descriptor, 'c' );
+        fusionIndexUpdater.process( stringUpdate );
+        fusionIndexUpdater.process( charUpdate );
+
+        // THEN
+        verify( stringUpdater ).process( stringUpdate );
+        verify( stringUpdater ).process( charUpdate );
+        verifyZeroInteractions( numberUpdater, luceneUpdater );
+    }
+
+    @Test
+    public void processMustRouteOtherValuesToLucene() throws Exception
+    {
+        // WHEN
+        IndexEntryUpdate longStringUpdate = add( 1, descriptor, longString() );
+        IndexEntryUpdate booleanUpdate = remove( 2, descriptor, true );
+        IndexEntryUpdate arrayUpdate = add( 3, descriptor, new int[]{1, 2} );
+        fusionIndexUpdater.process( longStringUpdate );
+        fusionIndexUpdater.process( booleanUpdate );
+        fusionIndexUpdater.process( arrayUpdate );
+
+        // THEN
+        verify( luceneUpdater ).process( longStringUpdate );
+        verify( luceneUpdater ).process( booleanUpdate );
+        verify( luceneUpdater ).process( arrayUpdate );
+        verifyZeroInteractions( numberUpdater, stringUpdater );
+    }
+
+    @Test
+    public void processMustRouteCompositeValuesToLucene() throws Exception
+    {
+        // WHEN
+        NewIndexDescriptor compositeDescriptor = NewIndexDescriptorFactory.forLabel( 1, 2, 3 );
+        IndexEntryUpdate update = add( 1, compositeDescriptor, 1, 2 );
+        fusionIndexUpdater.process( update );
+
+        // THEN
+        verify( luceneUpdater ).process( update );
+        verifyZeroInteractions( numberUpdater, stringUpdater );
+    }
+
+    @Test
+    public void processMustKeepChangeWithinSameIndex() throws Exception
+    {
+        // WHEN
+        IndexEntryUpdate numberChange = change( 1, descriptor, 1, 2 );
+        IndexEntryUpdate stringChange = change( 2, descriptor, "a", "b" );
+        fusionIndexUpdater.process( numberChange );
+        fusionIndexUpdater.process( stringChange );
+
+        // THEN
+        verify( numberUpdater ).process( numberChange );
+        verify( stringUpdater ).process( stringChange );
+        verifyNoMoreInteractions( numberUpdater, stringUpdater, luceneUpdater );
+    }
+
+    @Test
+    public void processMustSplitChangeBetweenIndexes() throws Exception
+    {
+        // WHEN
+        fusionIndexUpdater.process( change( 1, descriptor, 1, "a" ) );
+        fusionIndexUpdater.process( change( 2, descriptor, "b", true ) );
+        fusionIndexUpdater.process( change( 3, descriptor, false, 2 ) );
+
+        // THEN
+        verify( numberUpdater ).process( remove( 1, descriptor, 1 ) );
+        verify( stringUpdater ).process( add( 1, descriptor, "a" ) );
+        verify( stringUpdater ).process( remove( 2, descriptor, "b" ) );
+        verify( luceneUpdater ).process( add( 2, descriptor, true ) );
+        verify( luceneUpdater ).process( remove( 3, descriptor, false ) );
+        verify( numberUpdater ).process( add( 3, descriptor, 2 ) );
+        verifyNoMoreInteractions( numberUpdater, stringUpdater, luceneUpdater );
+    }
+
+    @Test
+    public void removeMustRemoveFromAll() throws Exception
+    {
+        // WHEN
+        PrimitiveLongSet nodeIds = Primitive.longSet();
+        nodeIds.add( 1 );
+        fusionIndexUpdater.remove( nodeIds );
+
+        // THEN
+        verify( numberUpdater ).remove( nodeIds );
+        verify( stringUpdater ).remove( nodeIds );
+        verify( luceneUpdater ).remove( nodeIds );
+    }
+
+    @Test
+    public void closeMustCloseAll() throws Exception
+    {
+        // WHEN
+        fusionIndexUpdater.close();
+
+        // THEN
+        verify( numberUpdater ).close();
+        verify( stringUpdater ).close();
+        verify( luceneUpdater ).close();
+    }
+
+    private static String longString()
+    {
+        char[] chars = new char[1_000];
+        Arrays.fill( chars, 'a' );
+        return new String( chars );
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.kernel.impl.util.Neo4jJobScheduler;
+import org.neo4j.kernel.lifecycle.LifeSupport;
+import org.neo4j.logging.NullLog;
+import org.neo4j.test.rule.PageCacheRule;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.test.rule.fs.DefaultFileSystemRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
+
+public class PageCacheWarmerTest
+{
+    private static final int PAGE_COUNT = 10;
+
+    private final DefaultFileSystemRule fileSystemRule = new DefaultFileSystemRule();
+    private final TestDirectory directory = TestDirectory.testDirectory( getClass() );
+    private final PageCacheRule pageCacheRule = new PageCacheRule( PageCacheRule.config().withInconsistentReads( false ) );
+
+    @Rule
+    public final RuleChain ruleChain = RuleChain.outerRule( directory ).around( fileSystemRule ).around( pageCacheRule );
+
+    private final LifeSupport life = new LifeSupport();
+    private final Neo4jJobScheduler scheduler = life.add( new Neo4jJobScheduler() );
+    private FileSystemAbstraction fs;
+    private File storeDir;
+    private File storeFile;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        life.start();
+        fs = fileSystemRule.get();
+        storeDir = directory.graphDbDir();
+        storeFile = new File( storeDir, "neostore.nodestore.db" );
+        PageCache pageCache = pageCacheRule.getPageCache( fs );
+        try ( PagedFile pagedFile = pageCache.map( storeFile, pageCache.pageSize(), StandardOpenOption.CREATE );
+              PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+        {
+            for ( long pageId = 0; pageId < PAGE_COUNT; pageId++ )
+            {
+                assertTrue( cursor.next() );
+                cursor.putLong( pageId );
+            }
+        }
+    }
+
+    @After
+    public void tearDown() throws Throwable
+    {
+        life.shutdown();
+    }
+
+    @Test
+    public void mustWarmUpPagesThatWereInMemoryWhenProfiled() throws Throwable
+    {
+        // given
+        PageCache pageCache = pageCacheRule.getPageCache( fs );
+        try ( PagedFile pagedFile = pageCache.map( storeFile, pageCache.pageSize() ) )
+        {
+            touchPages( pagedFile, 1, 5, 9 );
+            PageCacheWarmer warmer = createWarmer( pageCache );
+            warmer.start();
+            warmer.profile();
+            warmer.stop();
+        }
+        File profile = new File( storeDir, storeFile.getName() + PageCacheWarmer.SUFFIX_CACHEPROF );
+        assertTrue( fs.fileExists( profile ) );
+
+        // when
+        pageCache = pageCacheRule.getPageCache( fs );
+        try ( PagedFile pagedFile = pageCache.map( storeFile, pageCache.pageSize() ) )
+        {
+            long pagesLoaded = createWarmer( pageCache ).warmUp( pagedFile, profile );
+
+            // then
+            assertEquals( 3, pagesLoaded );
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT | PF_TRANSIENT ) )
+            {
+                for ( long pageId = 0; pageId < PAGE_COUNT; pageId++ )
+                {
+                    assertTrue( cursor.next() );
+                    boolean inMemory = cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID;
+                    assertEquals( "page " + pageId, pageId == 1 || pageId == 5 || pageId == 9, inMemory );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void mustOnlyProfileFilesInTheStoreDirectory() throws Throwable
+    {
+        // given
+        File otherFile = new File( new File( storeDir, "other" ), "other.db" );
+        fs.mkdirs( otherFile.getParentFile() );
+        PageCache pageCache = pageCacheRule.getPageCache( fs );
+
+        // when
+        try ( PagedFile storePagedFile = pageCache.map( storeFile, pageCache.pageSize() );
+              PagedFile otherPagedFile = pageCache.map( otherFile, pageCache.pageSize(), StandardOpenOption.CREATE ) )
+        {
+            PageCacheWarmer warmer = createWarmer( pageCache );
+            warmer.start();
+            warmer.stop();
+        }
+
+        // then
+        assertTrue( fs.fileExists( new File( storeDir, storeFile.getName() + PageCacheWarmer.SUFFIX_CACHEPROF ) ) );
+        assertFalse( fs.fileExists(
+                new File( otherFile.getParentFile(), otherFile.getName() + PageCacheWarmer.SUFFIX_CACHEPROF ) ) );
+    }
+
+    private PageCacheWarmer createWarmer( PageCache pageCache )
+    {
+        return new PageCacheWarmer( fs, pageCache, scheduler, storeDir, TimeUnit.HOURS.toMillis( 1 ),
+                NullLog.getInstance() );
+    }
+
+    private void touchPages( PagedFile pagedFile, long... pageIds ) throws IOException
+    {
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+        {
+            for ( long pageId : pageIds )
+            {
+                assertTrue( cursor.next( pageId ) );
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.storageengine.impl.recordstorage;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.neo4j.kernel.impl.api.TransactionToApply;
+import org.neo4j.kernel.impl.store.record.LabelTokenRecord;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.kernel.impl.transaction.log.FakeCommitment;
+import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
+import org.neo4j.storageengine.api.CommandsToApply;
+import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.EXTERNAL;
+
+public class ParallelBatchApplicationTest
+{
+    private final ExecutorService executor = Executors.newFixedThreadPool( 3 );
+    private final List<List<Long>> appliedBatches = Collections.synchronizedList( new ArrayList<>() );
+    private final ParallelBatchApplication application =
+            new ParallelBatchApplication( this::record, executor, 4 );
+
+    @After
+    public void shutdownExecutor()
+    {
+        executor.shutdown();
+    }
+
+    @Test
+    public void shouldApplyNonConflictingTransactionsInSeparateLanes() throws Exception
+    {
+        // given
+        TransactionToApply batch = batch(
+                transaction( 1, nodeCommand( 10 ) ),
+                transaction( 2, nodeCommand( 11 ) ),
+                transaction( 3, nodeCommand( 12 ) ),
+                transaction( 4, nodeCommand( 13 ) ) );
+
+        // when
+        application.apply( batch, EXTERNAL );
+
+        // then
+        assertEquals( 4, appliedBatches.size() );
+        assertEquals( asList( 1L, 2L, 3L, 4L ), appliedTransactions( appliedBatches ) );
+    }
+
+    @Test
+    public void shouldApplyConflictingTransactionsInOrder() throws Exception
+    {
+        // given
+        TransactionToApply batch = batch(
+                transaction( 1, nodeCommand( 10 ) ),
+                transaction( 2, nodeCommand( 11 ) ),
+                transaction( 3, nodeCommand( 10 ) ) );
+
+        // when
+        application.apply( batch, EXTERNAL );
+
+        // then
+        assertEquals( 3, appliedBatches.size() );
+        assertEquals( asList( 1L, 2L ), appliedTransactions( appliedBatches.subList( 0, 2 ) ) );
+        assertEquals( asList( 3L ), appliedBatches.get( 2 ) );
+    }
+
+    @Test
+    public void shouldApplyExclusiveTransactionOnItsOwn() throws Exception
+    {
+        // given
+        TransactionToApply batch = batch(
+                transaction( 1, nodeCommand( 10 ) ),
+                transaction( 2, new Command.LabelTokenCommand( new LabelTokenRecord( 1 ), new LabelTokenRecord( 1 ) ) ),
+                transaction( 3, nodeCommand( 11 ) ) );
+
+        // when
+        application.apply( batch, EXTERNAL );
+
+        // then
+        assertEquals( asList( asList( 1L ), asList( 2L ), asList( 3L ) ), appliedBatches );
+    }
+
+    private void record( CommandsToApply batch, TransactionApplicationMode mode )
+    {
+        List<Long> transactionIds = new ArrayList<>();
+        for ( CommandsToApply transaction = batch; transaction != null; transaction = transaction.next() )
+        {
+            transactionIds.add( transaction.transactionId() );
+        }
+        appliedBatches.add( transactionIds );
+    }
+
+    private static List<Long> appliedTransactions( List<List<Long>> batches )
+    {
+        List<Long> all = new ArrayList<>();
+        batches.forEach( all::addAll );
+        Collections.sort( all );
+        return all;
+    }
+
+    private static TransactionToApply batch( TransactionToApply... transactions )
+    {
+        for ( int i = 0; i < transactions.length - 1; i++ )
+        {
+            transactions[i].next( transactions[i + 1] );
+        }
+        return transactions[0];
+    }
+
+    private static TransactionToApply transaction( long txId, StorageCommand... commands )
+    {
+        TransactionToApply transaction =
+                new TransactionToApply( new PhysicalTransactionRepresentation( asList( commands ) ) );
+        transaction.commitment( new FakeCommitment( txId, null ), txId );
+        return transaction;
+    }
+
+    private static Command.NodeCommand nodeCommand( long nodeId )
+    {
+        return new Command.NodeCommand( new NodeRecord( nodeId ), new NodeRecord( nodeId ) );
+    }
+}
@@ -30,6 +30,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import org.neo4j.io.ByteUnit;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
@@ -42,11 +43,17 @@ import org.neo4j.kernel.impl.transaction.log.entry.OnePhaseCommit;
 import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.kernel.impl.transaction.tracing.LogCheckPointEvent;
+import org.neo4j.kernel.impl.transaction.tracing.LogForceEvent;
+import org.neo4j.kernel.impl.transaction.tracing.LogForceWaitEvent;
 import org.neo4j.kernel.internal.DatabaseHealth;
 import org.neo4j.kernel.lifecycle.LifeRule;
 import org.neo4j.storageengine.api.StorageCommand;
 import org.neo4j.test.rule.CleanupRule;
+import org.neo4j.time.Clocks;
+import org.neo4j.time.FakeClock;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
@@ -62,6 +69,7 @@ import static org.mockito.Mockito.RETURNS_MOCKS;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -303,6 +311,138 @@ public class BatchingTransactionAppenderTest
         }
     }
 
+    @Test
+    public void shouldNotWaitForForceWhenForcingAsynchronously() throws Exception
+    {
+        // GIVEN
+        FlushablePositionAwareChannel channel = spy( new InMemoryClosableChannel() );
+        Flushable flushable = mock( Flushable.class );
+        doAnswer( invocation ->
+        {
+            invocation.callRealMethod();
+            return flushable;
+        } ).when( channel ).prepareForFlush();
+        when( logFile.getWriter() ).thenReturn( channel );
+        when( transactionIdStore.getLastCommittedTransactionId() ).thenReturn( 6L );
+        when( transactionIdStore.nextCommittingTransactionId() ).thenReturn( 7L );
+        FakeClock clock = new FakeClock( 1, SECONDS );
+        BatchingTransactionAppender appender = life.add( new BatchingTransactionAppender( logFile, NO_ROTATION,
+                positionCache, transactionIdStore, BYPASS, databaseHealth, ByteUnit.mebiBytes( 1 ), clock ) );
+
+        // WHEN
+        appender.append( new TransactionToApply( transaction( singleCreateNodeCommand( 0 ),
+                new byte[0], 0, 0, 0, 1, 0 ) ), logAppendEvent );
+        clock.forward( 5, MILLISECONDS );
+
+        // THEN
+        verify( channel, times( 1 ) ).prepareForFlush();
+        verify( flushable, never() ).flush();
+        assertEquals( 1, appender.unforcedTransactions() );
+        assertEquals( 5, appender.durabilityLagMillis() );
+
+        // and WHEN
+        appender.force( logAppendEvent );
+
+        // THEN
+        verify( flushable, times( 1 ) ).flush();
+        assertEquals( 0, appender.unforcedTransactions() );
+        assertEquals( 0, appender.durabilityLagMillis() );
+    }
+
+    @Test
+    public void shouldWaitForForceWhenTooManyBytesAreUnforced() throws Exception
+    {
+        // GIVEN
+        FlushablePositionAwareChannel channel = spy( new InMemoryClosableChannel() );
+        Flushable flushable = mock( Flushable.class );
+        doAnswer( invocation ->
+        {
+            invocation.callRealMethod();
+            return flushable;
+        } ).when( channel ).prepareForFlush();
+        when( logFile.getWriter() ).thenReturn( channel );
+        when( transactionIdStore.getLastCommittedTransactionId() ).thenReturn( 6L );
+        when( transactionIdStore.nextCommittingTransactionId() ).thenReturn( 7L );
+        BatchingTransactionAppender appender = life.add( new BatchingTransactionAppender( logFile, NO_ROTATION,
+                positionCache, transactionIdStore, BYPASS, databaseHealth, 1, Clocks.fakeClock() ) );
+
+        // WHEN
+        appender.append( new TransactionToApply( transaction( singleCreateNodeCommand( 0 ),
+                new byte[0], 0, 0, 0, 1, 0 ) ), logAppendEvent );
+
+        // THEN
+        verify( flushable, times( 1 ) ).flush();
+        assertEquals( 0, appender.unforcedTransactions() );
+    }
+
+    @Test
+    public void shouldForceTheLogWhenPagesChangedByUnforcedTransactionsAreWrittenOut() throws Exception
+    {
+        // GIVEN
+        FlushablePositionAwareChannel channel = spy( new InMemoryClosableChannel() );
+        Flushable flushable = mock( Flushable.class );
+        doAnswer( invocation ->
+        {
+            invocation.callRealMethod();
+            return flushable;
+        } ).when( channel ).prepareForFlush();
+        when( logFile.getWriter() ).thenReturn( channel );
+        when( transactionIdStore.getLastCommittedTransactionId() ).thenReturn( 6L );
+        when( transactionIdStore.nextCommittingTransactionId() ).thenReturn( 7L );
+        BatchingTransactionAppender appender = life.add( new BatchingTransactionAppender( logFile, NO_ROTATION,
+                positionCache, transactionIdStore, BYPASS, databaseHealth, ByteUnit.mebiBytes( 1 ),
+                Clocks.fakeClock() ) );
+        long generationBeforeAppend = appender.currentGeneration();
+        appender.append( new TransactionToApply( transaction( singleCreateNodeCommand( 0 ),
+                new byte[0], 0, 0, 0, 1, 0 ) ), logAppendEvent );
+        long generationAfterAppend = appender.currentGeneration();
+
+        // WHEN a page changed before the append is written out
+        appender.awaitDurable( generationBeforeAppend );
+
+        // THEN
+        verify( flushable, never() ).flush();
+
+        // and WHEN a page changed after the append is written out
+        appender.awaitDurable( generationAfterAppend );
+
+        // THEN
+        verify( flushable, times( 1 ) ).flush();
+        assertEquals( 0, appender.unforcedTransactions() );
+
+        // and WHEN it is written out again
+        appender.awaitDurable( generationAfterAppend );
+
+        // THEN the log is not forced again
+        verify( flushable, times( 1 ) ).flush();
+    }
+
+    @Test
+    public void shouldReportNumberOfForcedTransactionsAsBatchSize() throws Exception
+    {
+        // GIVEN
+        when( logFile.getWriter() ).thenReturn( new InMemoryClosableChannel() );
+        when( transactionIdStore.getLastCommittedTransactionId() ).thenReturn( 6L );
+        when( transactionIdStore.nextCommittingTransactionId() ).thenReturn( 7L, 8L );
+        BatchingTransactionAppender appender = life.add( new BatchingTransactionAppender( logFile, NO_ROTATION,
+                positionCache, transactionIdStore, BYPASS, databaseHealth, ByteUnit.mebiBytes( 1 ),
+                Clocks.fakeClock() ) );
+        appender.append( batchOf(
+                transaction( singleCreateNodeCommand( 0 ), new byte[0], 0, 0, 0, 1, 0 ),
+                transaction( singleCreateNodeCommand( 1 ), new byte[0], 0, 0, 0, 1, 0 ) ), logAppendEvent );
+        LogForceEvent logForceEvent = mock( LogForceEvent.class );
+        LogAppendEvent logForceEvents = mock( LogAppendEvent.class );
+        when( logForceEvents.beginLogForceWait() ).thenReturn( LogForceWaitEvent.NULL );
+        when( logForceEvents.beginLogForce() ).thenReturn( logForceEvent );
+
+        // WHEN
+        appender.force( logForceEvents );
+
+        // THEN
+        verify( logForceEvent ).setBatchSize( 2 );
+        verify( logForceEvent ).close();
+    }
+
     @Test
     public void shouldBeAbleToWriteACheckPoint() throws Throwable
     {
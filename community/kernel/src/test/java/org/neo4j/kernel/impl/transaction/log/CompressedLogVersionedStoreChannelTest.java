@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.storageengine.api.ReadPastEndException;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.test.rule.fs.DefaultFileSystemRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.neo4j.kernel.impl.transaction.log.LogVersionBridge.NO_MORE_CHANNELS;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderWriter.writeLogHeader;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.COMPRESSED_LOG_VERSION;
+
+public class CompressedLogVersionedStoreChannelTest
+{
+    private static final int VALUES = 10_000;
+
+    @Rule
+    public final DefaultFileSystemRule fileSystemRule = new DefaultFileSystemRule();
+    @Rule
+    public final TestDirectory directory = TestDirectory.testDirectory();
+
+    @Test
+    public void shouldReadBackWhatWasWrittenAcrossBlocks() throws Exception
+    {
+        // GIVEN
+        File file = new File( directory.directory(), "log" );
+        writeValues( file, VALUES );
+
+        // WHEN
+        try ( ReadAheadLogChannel reader = reader( file, LogPosition.start( 0 ) ) )
+        {
+            // THEN
+            for ( int i = 0; i < VALUES; i++ )
+            {
+                assertEquals( i, reader.getLong() );
+            }
+            assertEndOfLog( reader );
+        }
+        assertTrue( fileSystemRule.get().getFileSize( file ) < LOG_HEADER_SIZE + VALUES * Long.BYTES / 2 );
+    }
+
+    @Test
+    public void shouldHandOutSamePositionsWhenReadingAsWhenWriting() throws Exception
+    {
+        // GIVEN
+        File file = new File( directory.directory(), "log" );
+        LogPosition[] positions = writeValues( file, VALUES );
+
+        // WHEN
+        LogPositionMarker marker = new LogPositionMarker();
+        try ( ReadAheadLogChannel reader = reader( file, LogPosition.start( 0 ) ) )
+        {
+            for ( int i = 0; i < VALUES; i++ )
+            {
+                // THEN
+                assertEquals( positions[i], reader.getCurrentPosition( marker ).newPosition() );
+                reader.getLong();
+            }
+        }
+    }
+
+    @Test
+    public void shouldReadFromPositionsHandedOutByWriter() throws Exception
+    {
+        // GIVEN
+        File file = new File( directory.directory(), "log" );
+        LogPosition[] positions = writeValues( file, VALUES );
+
+        for ( int i = 0; i < VALUES; i += 997 )
+        {
+            // WHEN
+            try ( ReadAheadLogChannel reader = reader( file, positions[i] ) )
+            {
+                // THEN
+                assertEquals( i, reader.getLong() );
+                assertEquals( i + 1, reader.getLong() );
+            }
+        }
+    }
+
+    @Test
+    public void shouldTruncateInsideBlockAndContinueAppending() throws Exception
+    {
+        // GIVEN
+        File file = new File( directory.directory(), "log" );
+        LogPosition[] positions = writeValues( file, VALUES );
+        int keep = VALUES / 3 + 5;
+
+        // WHEN
+        try ( CompressedLogVersionedStoreChannel channel = openChannel( file ) )
+        {
+            channel.truncate( positions[keep].getByteOffset() );
+        }
+        try ( CompressedLogVersionedStoreChannel channel = openChannel( file ) )
+        {
+            channel.position( channel.size() );
+            PositionAwarePhysicalFlushableChannel writer = new PositionAwarePhysicalFlushableChannel( channel, 128 );
+            writer.putLong( -1 );
+            writer.prepareForFlush().flush();
+        }
+
+        // THEN
+        try ( ReadAheadLogChannel reader = reader( file, LogPosition.start( 0 ) ) )
+        {
+            for ( int i = 0; i < keep; i++ )
+            {
+                assertEquals( i, reader.getLong() );
+            }
+            assertEquals( -1, reader.getLong() );
+            assertEndOfLog( reader );
+        }
+    }
+
+    @Test
+    public void shouldSeeIncompleteBlockAsEndOfLog() throws Exception
+    {
+        // GIVEN
+        File file = new File( directory.directory(), "log" );
+        writeValues( file, VALUES );
+        long size = fileSystemRule.get().getFileSize( file );
+        fileSystemRule.get().truncate( file, size - 3 );
+
+        // WHEN
+        int read = 0;
+        try ( ReadAheadLogChannel reader = reader( file, LogPosition.start( 0 ) ) )
+        {
+            while ( true )
+            {
+                assertEquals( read, reader.getLong() );
+                read++;
+            }
+        }
+        catch ( ReadPastEndException e )
+        {
+            // THEN
+            assertTrue( read > 0 && read < VALUES );
+        }
+    }
+
+    @Test
+    public void shouldReadAndWriteScatteredBuffers() throws Exception
+    {
+        // GIVEN
+        File file = new File( directory.directory(), "log" );
+        writeValues( file, 0 );
+        try ( CompressedLogVersionedStoreChannel channel = openChannel( file ) )
+        {
+            ByteBuffer[] srcs = {ByteBuffer.allocate( 8 ).putLong( 0, 1 ), ByteBuffer.allocate( 0 ),
+                    ByteBuffer.allocate( 16 ).putLong( 0, 2 ).putLong( 8, 3 )};
+
+            // WHEN
+            assertEquals( 24, channel.write( srcs ) );
+        }
+
+        // THEN
+        try ( CompressedLogVersionedStoreChannel channel = openChannel( file ) )
+        {
+            ByteBuffer[] dsts = {ByteBuffer.allocate( 4 ), ByteBuffer.allocate( 12 ), ByteBuffer.allocate( 16 )};
+            assertEquals( 24, channel.read( dsts ) );
+            assertEquals( 0, dsts[0].getInt( 0 ) );
+            assertEquals( 1, dsts[1].getInt( 0 ) );
+            assertEquals( 2, dsts[1].getLong( 4 ) );
+            assertEquals( 3, dsts[2].getLong( 0 ) );
+            assertEquals( 8, dsts[2].position() );
+            assertEquals( -1, channel.read( dsts, 2, 1 ) );
+        }
+    }
+
+    private LogPosition[] writeValues( File file, int count ) throws IOException
+    {
+        LogPosition[] positions = new LogPosition[count];
+        LogPositionMarker marker = new LogPositionMarker();
+        try ( StoreChannel storeChannel = fileSystemRule.get().open( file, "rw" ) )
+        {
+            storeChannel.writeAll( writeLogHeader( ByteBuffer.allocate( LOG_HEADER_SIZE ), COMPRESSED_LOG_VERSION,
+                    0, 1 ) );
+        }
+        try ( PositionAwarePhysicalFlushableChannel writer =
+                      new PositionAwarePhysicalFlushableChannel( openChannel( file ), 1024 ) )
+        {
+            for ( int i = 0; i < count; i++ )
+            {
+                positions[i] = writer.getCurrentPosition( marker ).newPosition();
+                writer.putLong( i );
+                if ( i % 50 == 0 )
+                {
+                    writer.prepareForFlush().flush();
+                }
+            }
+        }
+        return positions;
+    }
+
+    private CompressedLogVersionedStoreChannel openChannel( File file ) throws IOException
+    {
+        StoreChannel storeChannel = fileSystemRule.get().open( file, "rw" );
+        storeChannel.position( LOG_HEADER_SIZE );
+        return new CompressedLogVersionedStoreChannel( storeChannel, 0 );
+    }
+
+    private ReadAheadLogChannel reader( File file, LogPosition position ) throws IOException
+    {
+        CompressedLogVersionedStoreChannel channel = openChannel( file );
+        channel.position( position.getByteOffset() );
+        return new ReadAheadLogChannel( channel, NO_MORE_CHANNELS, 256 );
+    }
+
+    private static void assertEndOfLog( ReadAheadLogChannel reader ) throws IOException
+    {
+        try
+        {
+            reader.get();
+            fail( "Should have reached end of log" );
+        }
+        catch ( ReadPastEndException e )
+        {
+            // good
+        }
+    }
+}
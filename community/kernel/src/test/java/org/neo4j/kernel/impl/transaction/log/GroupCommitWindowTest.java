@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class GroupCommitWindowTest
+{
+    @Test
+    public void shouldWaitHalfTheForceTimeWhenCommitsArriveWithinIt() throws Exception
+    {
+        // GIVEN
+        GroupCommitWindow window = new GroupCommitWindow( 1_000_000 );
+
+        // WHEN
+        commitsEvery( window, 10_000 );
+        window.forced( 400_000 );
+
+        // THEN
+        assertEquals( 200_000, window.windowNanos() );
+    }
+
+    @Test
+    public void shouldNotWaitWhenCommitsArriveLessOftenThanTheWindow() throws Exception
+    {
+        // GIVEN
+        GroupCommitWindow window = new GroupCommitWindow( 1_000_000 );
+
+        // WHEN
+        commitsEvery( window, 300_000 );
+        window.forced( 400_000 );
+
+        // THEN
+        assertEquals( 0, window.windowNanos() );
+    }
+
+    @Test
+    public void shouldNotWaitLongerThanTheMaxWindow() throws Exception
+    {
+        // GIVEN
+        GroupCommitWindow window = new GroupCommitWindow( 50_000 );
+
+        // WHEN
+        commitsEvery( window, 10_000 );
+        window.forced( 400_000 );
+
+        // THEN
+        assertEquals( 50_000, window.windowNanos() );
+    }
+
+    @Test
+    public void shouldNeverWaitWhenDisabled() throws Exception
+    {
+        // GIVEN
+        GroupCommitWindow window = new GroupCommitWindow( 0 );
+
+        // WHEN
+        commitsEvery( window, 10_000 );
+        window.forced( 400_000 );
+
+        // THEN
+        assertEquals( 0, window.windowNanos() );
+    }
+
+    @Test
+    public void shouldAdaptToChangingForceTimes() throws Exception
+    {
+        // GIVEN
+        GroupCommitWindow window = new GroupCommitWindow( 1_000_000 );
+        commitsEvery( window, 10_000 );
+        window.forced( 400_000 );
+
+        // WHEN forcing becomes much faster
+        for ( int i = 0; i < 100; i++ )
+        {
+            window.forced( 10_000 );
+        }
+
+        // THEN there is no point in waiting for the next commit anymore
+        assertEquals( 0, window.windowNanos() );
+    }
+
+    private static void commitsEvery( GroupCommitWindow window, long intervalNanos )
+    {
+        long nowNanos = 1;
+        for ( int i = 0; i < 10; i++ )
+        {
+            window.commitArrived( nowNanos );
+            nowNanos += intervalNanos;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.test.OnDemandJobScheduler;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.test.rule.fs.DefaultFileSystemRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderWriter.writeLogHeader;
+
+public class PhysicalLogFilePreallocatorTest
+{
+    private static final int SIZE = 10_000;
+
+    @Rule
+    public final TestDirectory directory = TestDirectory.testDirectory();
+    @Rule
+    public final DefaultFileSystemRule fileSystemRule = new DefaultFileSystemRule();
+
+    private final OnDemandJobScheduler scheduler = new OnDemandJobScheduler();
+    private FileSystemAbstraction fs;
+    private PhysicalLogFiles logFiles;
+    private PhysicalLogFilePreallocator preallocator;
+
+    @Before
+    public void setUp()
+    {
+        fs = fileSystemRule.get();
+        logFiles = new PhysicalLogFiles( directory.directory(), "log", fs );
+        preallocator = new PhysicalLogFilePreallocator( fs, logFiles, SIZE, scheduler, NullLogProvider.getInstance() );
+    }
+
+    @Test
+    public void shouldPreallocateFileFilledWithZeros() throws Throwable
+    {
+        // WHEN
+        preallocator.start();
+        scheduler.runJob();
+
+        // THEN
+        assertZeros( logFiles.getPreallocatedLogFile(), 0, SIZE );
+    }
+
+    @Test
+    public void shouldCreateLogFileFromPreallocatedFile() throws Throwable
+    {
+        // GIVEN
+        preallocator.start();
+        scheduler.runJob();
+        File logFile = logFiles.getLogFileForVersion( 3 );
+
+        // WHEN
+        boolean claimed = preallocator.claim( logFile, header( 3, 42 ) );
+
+        // THEN
+        assertTrue( claimed );
+        assertFalse( fs.fileExists( logFiles.getPreallocatedLogFile() ) );
+        LogHeader header = readLogHeader( fs, logFile );
+        assertEquals( 3, header.logVersion );
+        assertEquals( 42, header.lastCommittedTxId );
+        assertZeros( logFile, LOG_HEADER_SIZE, SIZE );
+    }
+
+    @Test
+    public void shouldNotCreateLogFileBeforeFileHasBeenPreallocated() throws Throwable
+    {
+        // GIVEN
+        preallocator.start();
+        File logFile = logFiles.getLogFileForVersion( 3 );
+
+        // WHEN
+        boolean claimed = preallocator.claim( logFile, header( 3, 42 ) );
+
+        // THEN
+        assertFalse( claimed );
+        assertFalse( fs.fileExists( logFile ) );
+    }
+
+    @Test
+    public void shouldRecyclePrunedLogFileInsteadOfPreallocatingNewFileOnceLogsArePruned() throws Throwable
+    {
+        // GIVEN
+        preallocator.start();
+        scheduler.runJob();
+        File firstPrunedLogFile = logFiles.getLogFileForVersion( 0 );
+        fs.create( firstPrunedLogFile ).close();
+        assertFalse( preallocator.recycle( firstPrunedLogFile ) );
+        preallocator.claim( logFiles.getLogFileForVersion( 3 ), header( 3, 42 ) );
+        File prunedLogFile = logFiles.getLogFileForVersion( 1 );
+        try ( StoreChannel channel = fs.create( prunedLogFile ) )
+        {
+            ByteBuffer data = ByteBuffer.allocate( SIZE * 2 );
+            while ( data.hasRemaining() )
+            {
+                data.put( (byte) 7 );
+            }
+            data.flip();
+            channel.writeAll( data );
+        }
+
+        // WHEN
+        boolean recycled = preallocator.recycle( prunedLogFile );
+        scheduler.runJob();
+
+        // THEN
+        assertTrue( recycled );
+        assertFalse( fs.fileExists( prunedLogFile ) );
+        assertZeros( logFiles.getPreallocatedLogFile(), 0, SIZE );
+    }
+
+    @Test
+    public void shouldNotRecycleWhenAlreadyHavingPreallocatedFile() throws Throwable
+    {
+        // GIVEN
+        preallocator.start();
+        scheduler.runJob();
+        File prunedLogFile = logFiles.getLogFileForVersion( 1 );
+        fs.create( prunedLogFile ).close();
+
+        // WHEN
+        boolean recycled = preallocator.recycle( prunedLogFile );
+
+        // THEN
+        assertFalse( recycled );
+        assertTrue( fs.fileExists( prunedLogFile ) );
+    }
+
+    @Test
+    public void shouldNotRecyclePrunedLogFileWhichIsStillBeingRead() throws Throwable
+    {
+        // GIVEN
+        preallocator.start();
+        scheduler.runJob();
+        File firstPrunedLogFile = logFiles.getLogFileForVersion( 0 );
+        fs.create( firstPrunedLogFile ).close();
+        assertFalse( preallocator.recycle( firstPrunedLogFile ) );
+        preallocator.claim( logFiles.getLogFileForVersion( 3 ), header( 3, 42 ) );
+        File prunedLogFile = logFiles.getLogFileForVersion( 1 );
+        fs.create( prunedLogFile ).close();
+
+        try ( StoreChannel reader = logFiles.openForReading( fs, 1 ) )
+        {
+            // WHEN
+            boolean recycled = preallocator.recycle( prunedLogFile );
+
+            // THEN
+            assertFalse( recycled );
+            assertTrue( fs.fileExists( prunedLogFile ) );
+        }
+
+        // and WHEN no longer being read
+        boolean recycled = preallocator.recycle( prunedLogFile );
+
+        // THEN
+        assertTrue( recycled );
+        assertFalse( fs.fileExists( prunedLogFile ) );
+    }
+
+    private static ByteBuffer header( long logVersion, long lastCommittedTxId )
+    {
+        return writeLogHeader( ByteBuffer.allocate( LOG_HEADER_SIZE ), logVersion, lastCommittedTxId );
+    }
+
+    private void assertZeros( File file, int from, int size ) throws IOException
+    {
+        assertEquals( size, fs.getFileSize( file ) );
+        try ( StoreChannel channel = fs.open( file, "r" ) )
+        {
+            ByteBuffer buffer = ByteBuffer.allocate( size - from );
+            channel.read( buffer, from );
+            buffer.flip();
+            while ( buffer.hasRemaining() )
+            {
+                assertEquals( 0, buffer.get() );
+            }
+        }
+    }
+}
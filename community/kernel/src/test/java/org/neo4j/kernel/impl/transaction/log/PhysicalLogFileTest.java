@@ -33,8 +33,12 @@ import org.neo4j.kernel.impl.transaction.DeadSimpleLogVersionRepository;
 import org.neo4j.kernel.impl.transaction.DeadSimpleTransactionIdStore;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogFile.Monitor;
 import org.neo4j.kernel.impl.transaction.log.entry.IncompleteLogHeaderException;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
 import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
 import org.neo4j.kernel.lifecycle.LifeSupport;
+import org.neo4j.kernel.lifecycle.LifecycleException;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.test.OnDemandJobScheduler;
 import org.neo4j.test.rule.TestDirectory;
 import org.neo4j.test.rule.fs.DefaultFileSystemRule;
 
@@ -49,7 +53,9 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.neo4j.kernel.impl.transaction.log.PhysicalLogFile.NO_MONITOR;
 import static org.neo4j.kernel.impl.transaction.log.TransactionIdStore.BASE_TX_COMMIT_TIMESTAMP;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
 
 public class PhysicalLogFileTest
@@ -296,6 +302,86 @@ public class PhysicalLogFileTest
         }
     }
 
+    @Test
+    public void shouldContinueAfterLastEntryInLogFileCreatedFromPreallocatedFile() throws Throwable
+    {
+        // GIVEN
+        FileSystemAbstraction fs = fileSystemRule.get();
+        PhysicalLogFiles logFiles = new PhysicalLogFiles( directory.directory(), "log", fs );
+        OnDemandJobScheduler scheduler = new OnDemandJobScheduler();
+        PhysicalLogFilePreallocator preallocator = new PhysicalLogFilePreallocator( fs, logFiles, 10_000,
+                scheduler, NullLogProvider.getInstance() );
+        preallocator.start();
+        scheduler.runJob();
+        LifeSupport life = new LifeSupport();
+        LogFile logFile = life.add( new PhysicalLogFile( fs, logFiles, 1000,
+                transactionIdStore::getLastCommittedTransactionId, logVersionRepository, NO_MONITOR,
+                new LogHeaderCache( 10 ), false, preallocator ) );
+        life.start();
+        FlushablePositionAwareChannel writer = logFile.getWriter();
+        new LogEntryWriter( writer ).writeCheckPointEntry( new LogPosition( 1, LOG_HEADER_SIZE ) );
+        writer.prepareForFlush().flush();
+        LogPosition endOfLog = writer.getCurrentPosition( new LogPositionMarker() ).newPosition();
+        File file = logFiles.getLogFileForVersion( 1 );
+        // and then crash, leaving the preallocated space in the log file
+        assertEquals( 10_000, fs.getFileSize( file ) );
+
+        // WHEN
+        LifeSupport restartedLife = new LifeSupport();
+        LogFile restartedLogFile = restartedLife.add( new PhysicalLogFile( fs, logFiles, 1000,
+                transactionIdStore::getLastCommittedTransactionId, logVersionRepository, NO_MONITOR,
+                new LogHeaderCache( 10 ) ) );
+        restartedLife.start();
+
+        // THEN
+        assertEquals( endOfLog, restartedLogFile.getWriter().getCurrentPosition( new LogPositionMarker() )
+                .newPosition() );
+        restartedLife.shutdown();
+        assertEquals( endOfLog.getByteOffset(), fs.getFileSize( file ) );
+    }
+
+    @Test
+    public void shouldFailToStartOnCorruptEntryInLogFileCreatedFromPreallocatedFile() throws Throwable
+    {
+        // GIVEN
+        FileSystemAbstraction fs = fileSystemRule.get();
+        PhysicalLogFiles logFiles = new PhysicalLogFiles( directory.directory(), "log", fs );
+        OnDemandJobScheduler scheduler = new OnDemandJobScheduler();
+        PhysicalLogFilePreallocator preallocator = new PhysicalLogFilePreallocator( fs, logFiles, 10_000,
+                scheduler, NullLogProvider.getInstance() );
+        preallocator.start();
+        scheduler.runJob();
+        LifeSupport life = new LifeSupport();
+        LogFile logFile = life.add( new PhysicalLogFile( fs, logFiles, 1000,
+                transactionIdStore::getLastCommittedTransactionId, logVersionRepository, NO_MONITOR,
+                new LogHeaderCache( 10 ), false, preallocator ) );
+        life.start();
+        FlushablePositionAwareChannel writer = logFile.getWriter();
+        new LogEntryWriter( writer ).writeCheckPointEntry( new LogPosition( 1, LOG_HEADER_SIZE ) );
+        writer.prepareForFlush().flush();
+        long endOfLog = writer.getCurrentPosition( new LogPositionMarker() ).newPosition().getByteOffset();
+        // and then crash, with garbage after the last entry and the preallocated space after that
+        try ( StoreChannel channel = fs.open( logFiles.getLogFileForVersion( 1 ), "rw" ) )
+        {
+            channel.writeAll( ByteBuffer.wrap( new byte[]{-1, 99} ), endOfLog );
+        }
+
+        // WHEN
+        LifeSupport restartedLife = new LifeSupport();
+        restartedLife.add( new PhysicalLogFile( fs, logFiles, 1000,
+                transactionIdStore::getLastCommittedTransactionId, logVersionRepository, NO_MONITOR,
+                new LogHeaderCache( 10 ) ) );
+        try
+        {
+            restartedLife.start();
+            fail( "Should have failed to find the end of a corrupt log" );
+        }
+        catch ( LifecycleException e )
+        {
+            // THEN good
+        }
+    }
+
     private byte[] readBytes( ReadableClosableChannel reader, int length ) throws IOException
     {
         byte[] result = new byte[length];
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Clock;
+import java.util.Collections;
+
+import org.neo4j.cursor.IOCursor;
+import org.neo4j.kernel.impl.api.TransactionToApply;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.DeadSimpleLogVersionRepository;
+import org.neo4j.kernel.impl.transaction.DeadSimpleTransactionIdStore;
+import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
+import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
+import org.neo4j.kernel.internal.DatabaseHealth;
+import org.neo4j.kernel.lifecycle.LifeSupport;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.test.rule.fs.DefaultFileSystemRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.neo4j.kernel.impl.transaction.log.PhysicalLogFile.DEFAULT_NAME;
+import static org.neo4j.kernel.impl.transaction.log.rotation.LogRotation.NO_ROTATION;
+import static org.neo4j.kernel.impl.util.IdOrderingQueue.BYPASS;
+
+public class PhysicalTransactionLogIndexTest
+{
+    @Rule
+    public final DefaultFileSystemRule fileSystemRule = new DefaultFileSystemRule();
+    @Rule
+    public final TestDirectory directory = TestDirectory.testDirectory();
+
+    private final TransactionMetadataCache metadataCache = new TransactionMetadataCache( 100 );
+
+    @Test
+    public void shouldFindClosestIndexedTransactionAtOrBeforeTheGivenOne() throws Exception
+    {
+        // GIVEN transactions 2 to 11, indexing every third
+        LifeSupport life = new LifeSupport();
+        PhysicalTransactionLogIndex index = startWithTransactions( life, new DeadSimpleTransactionIdStore(), 10 );
+
+        try
+        {
+            // THEN
+            assertEquals( LogPosition.UNSPECIFIED, index.lookup( 2, 0 ) );
+            assertEquals( startOf( 3 ), index.lookup( 3, 0 ) );
+            assertEquals( startOf( 6 ), index.lookup( 8, 0 ) );
+            assertEquals( startOf( 9 ), index.lookup( 11, 0 ) );
+            assertEquals( LogPosition.UNSPECIFIED, index.lookup( 11, 1 ) );
+        }
+        finally
+        {
+            life.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldDropEntriesOfTransactionsWhichDidNotMakeItOnStart() throws Exception
+    {
+        // GIVEN
+        LifeSupport life = new LifeSupport();
+        startWithTransactions( life, new DeadSimpleTransactionIdStore(), 10 );
+        life.shutdown();
+
+        // WHEN transactions after 7 are gone after recovery
+        life = new LifeSupport();
+        PhysicalTransactionLogIndex index =
+                startWithTransactions( life, new DeadSimpleTransactionIdStore( 7, 0, 0, 0, 0 ), 0 );
+
+        try
+        {
+            // THEN
+            assertEquals( startOf( 6 ), index.lookup( 11, 0 ) );
+        }
+        finally
+        {
+            life.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldIndexTransactionsMissingFromTheIndexOnStart() throws Exception
+    {
+        // GIVEN
+        LifeSupport life = new LifeSupport();
+        startWithTransactions( life, new DeadSimpleTransactionIdStore(), 10 );
+        life.shutdown();
+        File indexFile = logFiles().getTransactionLogIndexFileForVersion( 0 );
+        assertTrue( fileSystemRule.get().deleteFile( indexFile ) );
+
+        // WHEN
+        life = new LifeSupport();
+        PhysicalTransactionLogIndex index =
+                startWithTransactions( life, new DeadSimpleTransactionIdStore( 11, 0, 0, 0, 0 ), 0 );
+
+        try
+        {
+            // THEN
+            assertTrue( fileSystemRule.get().fileExists( indexFile ) );
+            assertEquals( startOf( 9 ), index.lookup( 11, 0 ) );
+            assertEquals( startOf( 3 ), index.lookup( 5, 0 ) );
+        }
+        finally
+        {
+            life.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldGetTransactionsNoLongerCachedThroughTheIndex() throws Exception
+    {
+        // GIVEN
+        LifeSupport life = new LifeSupport();
+        TransactionIdStore transactionIdStore = new DeadSimpleTransactionIdStore();
+        PhysicalLogFile logFile = newLogFile( life, transactionIdStore );
+        PhysicalTransactionLogIndex index = startWithTransactions( life, logFile, transactionIdStore, 10 );
+        LogicalTransactionStore store = new PhysicalLogicalTransactionStore( logFile,
+                new TransactionMetadataCache( 100 ), new VersionAwareLogEntryReader<>(), index );
+
+        try
+        {
+            // WHEN
+            try ( IOCursor<CommittedTransactionRepresentation> transactions = store.getTransactions( 8 ) )
+            {
+                // THEN
+                for ( long expectedTransactionId = 8; expectedTransactionId <= 11; expectedTransactionId++ )
+                {
+                    assertTrue( transactions.next() );
+                    assertEquals( expectedTransactionId, transactions.get().getCommitEntry().getTxId() );
+                }
+            }
+        }
+        finally
+        {
+            life.shutdown();
+        }
+    }
+
+    private PhysicalTransactionLogIndex startWithTransactions( LifeSupport life,
+            TransactionIdStore transactionIdStore, int transactions ) throws IOException
+    {
+        return startWithTransactions( life, newLogFile( life, transactionIdStore ), transactionIdStore, transactions );
+    }
+
+    private PhysicalTransactionLogIndex startWithTransactions( LifeSupport life, PhysicalLogFile logFile,
+            TransactionIdStore transactionIdStore, int transactions ) throws IOException
+    {
+        PhysicalTransactionLogIndex index = life.add( new PhysicalTransactionLogIndex( fileSystemRule.get(),
+                logFiles(), logFile, transactionIdStore, new VersionAwareLogEntryReader<>(), 3 ) );
+        TransactionAppender appender = life.add( new BatchingTransactionAppender( logFile, NO_ROTATION,
+                metadataCache, index, transactionIdStore, BYPASS, mock( DatabaseHealth.class ),
+                BatchingTransactionAppender.FORCE_AFTER_EVERY_APPEND, new GroupCommitWindow( 0 ), Clock.systemUTC() ) );
+        life.start();
+        for ( int i = 0; i < transactions; i++ )
+        {
+            appender.append( new TransactionToApply( createNodeTransaction( i ) ), LogAppendEvent.NULL );
+        }
+        return index;
+    }
+
+    private PhysicalLogFile newLogFile( LifeSupport life, TransactionIdStore transactionIdStore )
+    {
+        return life.add( new PhysicalLogFile( fileSystemRule.get(), logFiles(), Long.MAX_VALUE,
+                transactionIdStore::getLastCommittedTransactionId, new DeadSimpleLogVersionRepository( 0 ),
+                new Monitors().newMonitor( PhysicalLogFile.Monitor.class ), new LogHeaderCache( 10 ) ) );
+    }
+
+    private PhysicalLogFiles logFiles()
+    {
+        return new PhysicalLogFiles( directory.graphDbDir(), DEFAULT_NAME, fileSystemRule.get() );
+    }
+
+    private LogPosition startOf( long transactionId )
+    {
+        return metadataCache.getTransactionMetadata( transactionId ).getStartPosition();
+    }
+
+    private static PhysicalTransactionRepresentation createNodeTransaction( long nodeId )
+    {
+        NodeRecord before = new NodeRecord( nodeId );
+        NodeRecord after = new NodeRecord( nodeId );
+        after.setInUse( true );
+        PhysicalTransactionRepresentation transaction = new PhysicalTransactionRepresentation(
+                Collections.singletonList( new Command.NodeCommand( before, after ) ) );
+        transaction.setHeader( new byte[0], 0, 0, 0, 0, 0, -1 );
+        return transaction;
+    }
+}
@@ -25,6 +25,7 @@ import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.DeadSimpleTransactionIdStore;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.kernel.impl.transaction.tracing.LogCheckPointEvent;
+import org.neo4j.kernel.impl.transaction.tracing.LogForceEvents;
 
 public class TestableTransactionAppender implements TransactionAppender
 {
@@ -58,4 +59,9 @@ public class TestableTransactionAppender implements TransactionAppender
     public void checkPoint( LogPosition logPosition, LogCheckPointEvent logCheckPointEvent ) throws IOException
     {
     }
+
+    @Override
+    public void force( LogForceEvents logForceEvents ) throws IOException
+    {
+    }
 }
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.kernel.impl.api.TransactionToApply;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.transaction.DeadSimpleLogVersionRepository;
+import org.neo4j.kernel.impl.transaction.DeadSimpleTransactionIdStore;
+import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.kernel.impl.transaction.log.TransactionMetadataCache.TransactionMetadata;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntry;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
+import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
+import org.neo4j.kernel.impl.transaction.log.rotation.LogRotation;
+import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
+import org.neo4j.kernel.impl.util.IdOrderingQueue;
+import org.neo4j.kernel.internal.DatabaseHealth;
+import org.neo4j.kernel.lifecycle.LifeSupport;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.test.rule.fs.DefaultFileSystemRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.kernel.impl.transaction.log.LogVersionBridge.NO_MORE_CHANNELS;
+import static org.neo4j.kernel.impl.transaction.log.PhysicalLogFile.DEFAULT_NAME;
+import static org.neo4j.kernel.impl.transaction.log.PhysicalLogFile.openForVersion;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryByteCodes.TX_1P_COMMIT;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryByteCodes.TX_START;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderWriter.writeLogHeader;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.COMPRESSED_LOG_VERSION;
+
+public class TransactionLogRegionLocatorTest
+{
+    @Rule
+    public final TestDirectory directory = TestDirectory.testDirectory();
+    @Rule
+    public final DefaultFileSystemRule fileSystemRule = new DefaultFileSystemRule();
+
+    private final LifeSupport life = new LifeSupport();
+    private final LogEntryReader<ReadableClosablePositionAwareChannel> logEntryReader =
+            new VersionAwareLogEntryReader<>();
+    private final TransactionIdStore transactionIdStore = new DeadSimpleTransactionIdStore();
+    // smaller than the batches located below, so the metadata of most transactions is evicted
+    private final TransactionMetadataCache metadataCache = new TransactionMetadataCache( 2 );
+    private FileSystemAbstraction fs;
+    private PhysicalLogFiles logFiles;
+    private LogFile logFile;
+    private TransactionAppender appender;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        fs = fileSystemRule.get();
+        logFiles = new PhysicalLogFiles( directory.directory(), DEFAULT_NAME, fs );
+        logFile = life.add( new PhysicalLogFile( fs, logFiles, Long.MAX_VALUE,
+                transactionIdStore::getLastCommittedTransactionId, new DeadSimpleLogVersionRepository( 0 ),
+                PhysicalLogFile.NO_MONITOR, new LogHeaderCache( 10 ) ) );
+        appender = life.add( new BatchingTransactionAppender( logFile, LogRotation.NO_ROTATION, metadataCache,
+                transactionIdStore, IdOrderingQueue.BYPASS, mock( DatabaseHealth.class ) ) );
+        life.start();
+    }
+
+    @After
+    public void tearDown()
+    {
+        life.shutdown();
+    }
+
+    @Test
+    public void shouldLocateTransactionsWithAMetadataCacheSmallerThanTheBatch() throws Exception
+    {
+        // given transactions 2 to 11
+        appendTransactions( 10 );
+        LogicalTransactionStore store =
+                spy( new PhysicalLogicalTransactionStore( logFile, metadataCache, logEntryReader ) );
+
+        // when
+        List<TransactionLogRegion> regions = locator( store, 11 ).locate( 2, 10 );
+
+        // then the first transaction is looked up, and the rest are found scanning the log file from there
+        verify( store, times( 1 ) ).getMetadataFor( anyLong() );
+        assertRegions( regions, 2, 11, 0 );
+    }
+
+    @Test
+    public void shouldLocateNoMoreThanTheGivenNumberOfTransactions() throws Exception
+    {
+        // given transactions 2 to 6
+        appendTransactions( 5 );
+
+        // when
+        List<TransactionLogRegion> regions = locator( store(), 6 ).locate( 3, 2 );
+
+        // then
+        assertRegions( regions, 3, 4, 0 );
+    }
+
+    @Test
+    public void shouldNotLocateTransactionsAfterTheLastClosedTransaction() throws Exception
+    {
+        // given transactions 2 to 6, of which 2 to 4 are closed
+        appendTransactions( 5 );
+
+        // when
+        List<TransactionLogRegion> regions = locator( store(), 4 ).locate( 3, 10 );
+        List<TransactionLogRegion> noRegions = locator( store(), 4 ).locate( 5, 10 );
+
+        // then
+        assertRegions( regions, 3, 4, 0 );
+        assertTrue( noRegions.isEmpty() );
+    }
+
+    @Test
+    public void shouldLocateTransactionsUpToTheEndOfTheLogFile() throws Exception
+    {
+        // given transactions 2 to 4 in the first log file, and 5 to 6 in the second one
+        appendTransactions( 3 );
+        logFile.rotate();
+        appendTransactions( 2 );
+
+        // when
+        List<TransactionLogRegion> regionsInFirstFile = locator( store(), 6 ).locate( 3, 10 );
+        List<TransactionLogRegion> regionsInSecondFile = locator( store(), 6 ).locate( 5, 10 );
+
+        // then
+        assertRegions( regionsInFirstFile, 3, 4, 0 );
+        assertRegions( regionsInSecondFile, 5, 6, 1 );
+    }
+
+    @Test
+    public void shouldNotLocateTransactionsInCompressedLogFiles() throws Exception
+    {
+        // given
+        long logVersion = 5;
+        try ( StoreChannel channel = fs.create( logFiles.getLogFileForVersion( logVersion ) ) )
+        {
+            channel.writeAll( writeLogHeader( ByteBuffer.allocate( LOG_HEADER_SIZE ), COMPRESSED_LOG_VERSION,
+                    logVersion, 0 ) );
+        }
+        LogicalTransactionStore store = mock( LogicalTransactionStore.class );
+        when( store.getMetadataFor( 2 ) ).thenReturn(
+                new TransactionMetadata( -1, -1, new LogPosition( logVersion, LOG_HEADER_SIZE ), 0, 0 ) );
+
+        // when
+        List<TransactionLogRegion> regions = locator( store, 2 ).locate( 2, 10 );
+
+        // then
+        assertTrue( regions.isEmpty() );
+    }
+
+    private void appendTransactions( int count ) throws IOException
+    {
+        for ( int i = 0; i < count; i++ )
+        {
+            NodeRecord before = new NodeRecord( i );
+            NodeRecord after = new NodeRecord( i );
+            after.setInUse( true );
+            PhysicalTransactionRepresentation transaction = new PhysicalTransactionRepresentation(
+                    Collections.singletonList( new Command.NodeCommand( before, after ) ) );
+            transaction.setHeader( new byte[0], 0, 0, 0, 0, 0, -1 );
+            appender.append( new TransactionToApply( transaction ), LogAppendEvent.NULL );
+        }
+    }
+
+    private LogicalTransactionStore store()
+    {
+        return new PhysicalLogicalTransactionStore( logFile, metadataCache, logEntryReader );
+    }
+
+    private TransactionLogRegionLocator locator( LogicalTransactionStore store, long lastClosedTransactionId )
+    {
+        return new TransactionLogRegionLocator( logFiles, fs, store,
+                new DeadSimpleTransactionIdStore( lastClosedTransactionId, 0, 0, 0, 0 ) );
+    }
+
+    /**
+     * Asserts that the regions are those of the given consecutive transactions, each one spanning exactly the
+     * entries of its transaction in the given log file.
+     */
+    private void assertRegions( List<TransactionLogRegion> regions, long firstTransactionId, long lastTransactionId,
+            long logVersion ) throws IOException
+    {
+        assertEquals( lastTransactionId - firstTransactionId + 1, regions.size() );
+        for ( int i = 0; i < regions.size(); i++ )
+        {
+            TransactionLogRegion region = regions.get( i );
+            assertEquals( firstTransactionId + i, region.transactionId() );
+            assertEquals( logFiles.getLogFileForVersion( logVersion ), region.file() );
+            if ( i > 0 )
+            {
+                TransactionLogRegion previous = regions.get( i - 1 );
+                assertEquals( previous.position() + previous.length(), region.position() );
+            }
+
+            PhysicalLogVersionedStoreChannel channel = openForVersion( logFiles, fs, logVersion, false );
+            channel.position( region.position() );
+            try ( ReadAheadLogChannel reader = new ReadAheadLogChannel( channel, NO_MORE_CHANNELS ) )
+            {
+                LogEntry entry = logEntryReader.readLogEntry( reader );
+                assertEquals( TX_START, entry.getType() );
+                assertEquals( region.position(), ((LogEntryStart) entry).getStartPosition().getByteOffset() );
+                while ( (entry = logEntryReader.readLogEntry( reader )).getType() != TX_1P_COMMIT )
+                {
+                    // skip the commands
+                }
+                assertEquals( region.transactionId(), ((LogEntryCommit) entry).getTxId() );
+                assertEquals( region.position() + region.length(),
+                        reader.getCurrentPosition( new LogPositionMarker() ).getByteOffset() );
+            }
+        }
+    }
+}
@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.transaction.log.checkpoint;
 
 import org.junit.Test;
+import org.mockito.InOrder;
 
 import java.io.Flushable;
 import java.io.IOException;
@@ -40,6 +41,7 @@ import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
 import org.neo4j.kernel.impl.transaction.log.pruning.LogPruning;
 import org.neo4j.kernel.impl.transaction.tracing.CheckPointTracer;
 import org.neo4j.kernel.impl.transaction.tracing.LogCheckPointEvent;
+import org.neo4j.kernel.impl.transaction.tracing.LogForceEvents;
 import org.neo4j.kernel.internal.DatabaseHealth;
 import org.neo4j.logging.NullLogProvider;
 import org.neo4j.storageengine.api.StorageEngine;
@@ -53,6 +55,7 @@ import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.RETURNS_MOCKS;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
@@ -117,6 +120,7 @@ public class CheckPointerImplTest
         assertEquals( transactionId, txId );
         verify( storageEngine, times( 1 ) ).flushAndForce( limiter );
         verify( health, times( 2 ) ).assertHealthy( IOException.class );
+        verify( appender, times( 1 ) ).force( any( LogForceEvents.class ) );
         verify( appender, times( 1 ) ).checkPoint( eq( logPosition ), any( LogCheckPointEvent.class ) );
         verify( threshold, times( 1 ) ).initialize( initialTransactionId );
         verify( threshold, times( 1 ) ).checkPointHappened( transactionId );
@@ -143,6 +147,7 @@ public class CheckPointerImplTest
         assertEquals( transactionId, txId );
         verify( storageEngine, times( 1 ) ).flushAndForce( limiter );
         verify( health, times( 2 ) ).assertHealthy( IOException.class );
+        verify( appender, times( 1 ) ).force( any( LogForceEvents.class ) );
         verify( appender, times( 1 ) ).checkPoint( eq( logPosition ), any( LogCheckPointEvent.class ) );
         verify( threshold, times( 1 ) ).initialize( initialTransactionId );
         verify( threshold, times( 1 ) ).checkPointHappened( transactionId );
@@ -169,6 +174,7 @@ public class CheckPointerImplTest
         assertEquals( transactionId, txId );
         verify( storageEngine, times( 1 ) ).flushAndForce( limiter );
         verify( health, times( 2 ) ).assertHealthy( IOException.class );
+        verify( appender, times( 1 ) ).force( any( LogForceEvents.class ) );
         verify( appender, times( 1 ) ).checkPoint( eq( logPosition ), any( LogCheckPointEvent.class ) );
         verify( threshold, times( 1 ) ).initialize( initialTransactionId );
         verify( threshold, times( 1 ) ).checkPointHappened( transactionId );
@@ -178,6 +184,24 @@ public class CheckPointerImplTest
         verifyNoMoreInteractions( storageEngine, health, appender, threshold, tracer );
     }
 
+    @Test
+    public void shouldForceLogBeforeFlushingStore() throws Throwable
+    {
+        // Given
+        CheckPointerImpl checkPointing = checkPointer();
+        mockTxIdStore();
+        checkPointing.start();
+
+        // When
+        checkPointing.forceCheckPoint( INFO );
+
+        // Then
+        InOrder order = inOrder( appender, storageEngine );
+        order.verify( appender ).force( any( LogForceEvents.class ) );
+        order.verify( storageEngine ).flushAndForce( limiter );
+        order.verify( appender ).checkPoint( eq( logPosition ), any( LogCheckPointEvent.class ) );
+    }
+
     @Test
     public void forceCheckPointShouldWaitTheCurrentCheckPointingToCompleteBeforeRunning() throws Throwable
     {
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.InOrder;
+
+import java.io.IOException;
+
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
+import org.neo4j.kernel.impl.transaction.tracing.LogForceEvents;
+import org.neo4j.kernel.internal.DatabaseHealth;
+import org.neo4j.logging.AssertableLogProvider;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.test.OnDemandJobScheduler;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+import static org.neo4j.logging.AssertableLogProvider.inLog;
+
+public class IncrementalPageFlusherTest
+{
+    private final PageCache pageCache = mock( PageCache.class );
+    private final TransactionAppender appender = mock( TransactionAppender.class );
+    private final OnDemandJobScheduler jobScheduler = new OnDemandJobScheduler();
+    private final DatabaseHealth health = mock( DatabaseHealth.class );
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void shouldForceLogBeforeWritingOutASliceOfDirtyPages() throws Throwable
+    {
+        // given
+        when( health.isHealthy() ).thenReturn( true );
+        IncrementalPageFlusher flusher = new IncrementalPageFlusher( pageCache, appender, jobScheduler, health,
+                1000, 1.0, NullLogProvider.getInstance() );
+        flusher.start();
+        assertNotNull( jobScheduler.getJob() );
+
+        // when
+        jobScheduler.runJob();
+
+        // then
+        InOrder inOrder = inOrder( appender, pageCache );
+        inOrder.verify( appender ).force( any( LogForceEvents.class ) );
+        inOrder.verify( pageCache ).flushDirtyPages( 100 );
+    }
+
+    @Test
+    public void shouldWriteOutAtLeastOnePagePerSlice() throws Throwable
+    {
+        // given
+        when( health.isHealthy() ).thenReturn( true );
+        IncrementalPageFlusher flusher = new IncrementalPageFlusher( pageCache, appender, jobScheduler, health,
+                1, 1.0, NullLogProvider.getInstance() );
+        flusher.start();
+
+        // when
+        jobScheduler.runJob();
+
+        // then
+        verify( pageCache ).flushDirtyPages( 1 );
+    }
+
+    @Test
+    public void shouldNotWriteOutPagesWhenDatabaseIsUnhealthy() throws Throwable
+    {
+        // given
+        when( health.isHealthy() ).thenReturn( false );
+        IncrementalPageFlusher flusher = new IncrementalPageFlusher( pageCache, appender, jobScheduler, health,
+                1000, 1.0, NullLogProvider.getInstance() );
+        flusher.start();
+
+        // when
+        jobScheduler.runJob();
+
+        // then
+        verifyZeroInteractions( appender, pageCache );
+    }
+
+    @Test
+    public void shouldLogFailureToWriteOutPagesOnlyOnceInARow() throws Throwable
+    {
+        // given
+        when( health.isHealthy() ).thenReturn( true );
+        IOException failure = new IOException( "Failed to write" );
+        when( pageCache.flushDirtyPages( anyInt() ) ).thenThrow( failure ).thenThrow( failure );
+        AssertableLogProvider logProvider = new AssertableLogProvider();
+        IncrementalPageFlusher flusher = new IncrementalPageFlusher( pageCache, appender, jobScheduler, health,
+                1000, 1.0, logProvider );
+        flusher.start();
+
+        // when
+        jobScheduler.runJob();
+        jobScheduler.runJob();
+
+        // then
+        logProvider.assertExactly( inLog( IncrementalPageFlusher.class ).warn(
+                equalTo( "Failed to write out dirty pages in between check-points" ), sameInstance( failure ) ) );
+    }
+
+    @Test
+    public void shouldDrainDirtyPagesDownToHalfOfTheWatermarkOnceAboveIt() throws Throwable
+    {
+        // given
+        when( health.isHealthy() ).thenReturn( true );
+        when( pageCache.maxCachedPages() ).thenReturn( 1000 );
+        when( pageCache.dirtyPageCount() ).thenReturn( 200, 300, 200, 100, 200 );
+        IncrementalPageFlusher flusher = new IncrementalPageFlusher( pageCache, appender, jobScheduler, health,
+                0, 0.25, NullLogProvider.getInstance() );
+        flusher.start();
+
+        // when
+        for ( int i = 0; i < 5; i++ )
+        {
+            jobScheduler.runJob();
+        }
+
+        // then
+        InOrder inOrder = inOrder( appender, pageCache );
+        inOrder.verify( appender ).force( any( LogForceEvents.class ) );
+        inOrder.verify( pageCache ).flushDirtyPages( 175 );
+        inOrder.verify( appender ).force( any( LogForceEvents.class ) );
+        inOrder.verify( pageCache ).flushDirtyPages( 75 );
+        verify( appender, times( 2 ) ).force( any( LogForceEvents.class ) );
+        verify( pageCache, times( 2 ) ).flushDirtyPages( anyInt() );
+    }
+
+    @Test
+    public void shouldThrowOnDirtyPageWatermarkOutsideOfZeroToOne() throws Throwable
+    {
+        expectedException.expect( IllegalArgumentException.class );
+        new IncrementalPageFlusher( pageCache, appender, jobScheduler, health, 0, 1.5,
+                NullLogProvider.getInstance() );
+    }
+
+    @Test
+    public void shouldStopWritingOutPagesWhenStopped() throws Throwable
+    {
+        // given
+        IncrementalPageFlusher flusher = new IncrementalPageFlusher( pageCache, appender, jobScheduler, health,
+                1000, 1.0, NullLogProvider.getInstance() );
+        flusher.start();
+
+        // when
+        flusher.stop();
+
+        // then
+        assertNull( jobScheduler.getJob() );
+    }
+}
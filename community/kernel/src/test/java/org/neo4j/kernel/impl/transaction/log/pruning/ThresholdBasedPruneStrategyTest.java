@@ -26,10 +26,12 @@ import java.io.File;
 
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.impl.transaction.log.LogFileInformation;
+import org.neo4j.kernel.impl.transaction.log.LogFilePreallocator;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogFiles;
 
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -130,4 +132,49 @@ public class ThresholdBasedPruneStrategyTest
         verify( fileSystem, times( 1 ) ).deleteFile( fileName2 );
         verify( fileSystem, times( 1 ) ).deleteFile( fileName3 );
     }
+
+    @Test
+    public void shouldDeleteOnlyWhatIsNotRecycled() throws Exception
+    {
+        // Given
+        when( threshold.reached( Matchers.<File>any(), Matchers.eq( 4L ), Matchers.<LogFileInformation>any() ) )
+                .thenReturn( false );
+        when( threshold.reached( Matchers.<File>any(), Matchers.eq( 3L ), Matchers.<LogFileInformation>any() ) )
+                .thenReturn( true );
+
+        File fileName1 = new File( "logical.log.v1" );
+        File fileName2 = new File( "logical.log.v2" );
+        File fileName3 = new File( "logical.log.v3" );
+        File fileName4 = new File( "logical.log.v4" );
+
+        when( files.getLogFileForVersion( 4 ) ).thenReturn( fileName4 );
+        when( files.getLogFileForVersion( 3 ) ).thenReturn( fileName3 );
+        when( files.getLogFileForVersion( 2 ) ).thenReturn( fileName2 );
+        when( files.getLogFileForVersion( 1 ) ).thenReturn( fileName1 );
+
+        when( fileSystem.fileExists( fileName4 ) ).thenReturn( true );
+        when( fileSystem.fileExists( fileName3 ) ).thenReturn( true );
+        when( fileSystem.fileExists( fileName2 ) ).thenReturn( true );
+        when( fileSystem.fileExists( fileName1 ) ).thenReturn( true );
+
+        when( fileSystem.getFileSize( Matchers.<File>any() ) ).thenReturn( LOG_HEADER_SIZE + 1L );
+
+        LogFilePreallocator preallocator = mock( LogFilePreallocator.class );
+        when( preallocator.recycle( fileName1 ) ).thenReturn( true );
+
+        final ThresholdBasedPruneStrategy strategy = new ThresholdBasedPruneStrategy(
+                fileSystem, logFileInfo, files, threshold, preallocator
+        );
+
+        // When
+        strategy.prune( 5L );
+
+        // Then
+        verify( preallocator, times( 1 ) ).recycle( fileName1 );
+        verify( preallocator, times( 1 ) ).recycle( fileName2 );
+        verify( preallocator, times( 1 ) ).recycle( fileName3 );
+        verify( fileSystem, never() ).deleteFile( fileName1 );
+        verify( fileSystem, times( 1 ) ).deleteFile( fileName2 );
+        verify( fileSystem, times( 1 ) ).deleteFile( fileName3 );
+    }
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.recovery;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.neo4j.helpers.collection.Visitor;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.LogVersionRepository;
+import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
+import org.neo4j.kernel.impl.transaction.log.PhysicalLogFiles;
+import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
+import org.neo4j.kernel.impl.transaction.log.entry.OnePhaseCommit;
+import org.neo4j.storageengine.api.CommandsToApply;
+import org.neo4j.storageengine.api.StorageEngine;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.RECOVERY;
+
+public class DefaultRecoverySPITest
+{
+    private final StorageEngine storageEngine = mock( StorageEngine.class );
+    private final PhysicalLogFiles logFiles = mock( PhysicalLogFiles.class );
+    private final FileSystemAbstraction fs = mock( FileSystemAbstraction.class );
+    private final TransactionIdStore transactionIdStore = mock( TransactionIdStore.class );
+
+    @Test
+    public void shouldApplyBatchesInOrderInBackgroundWhenReadingAhead() throws Exception
+    {
+        // given
+        List<Long> firstTransactionIdsOfBatches = Collections.synchronizedList( new ArrayList<>() );
+        List<Thread> applyingThreads = Collections.synchronizedList( new ArrayList<>() );
+        doAnswer( invocation ->
+        {
+            firstTransactionIdsOfBatches.add( ((CommandsToApply) invocation.getArguments()[0]).transactionId() );
+            applyingThreads.add( Thread.currentThread() );
+            return null;
+        } ).when( storageEngine ).apply( any( CommandsToApply.class ), any() );
+        DefaultRecoverySPI spi = recoverySpi( true );
+
+        // when
+        Visitor<CommittedTransactionRepresentation,Exception> visitor = spi.startRecovery();
+        CommittedTransactionRepresentation last = null;
+        for ( long txId = 1; txId <= 20_001; txId++ )
+        {
+            last = transaction( txId );
+            visitor.visit( last );
+        }
+        spi.allTransactionsRecovered( last, new LogPosition( 0, 100 ) );
+
+        // then
+        assertEquals( asList( 1L, 10_001L, 20_001L ), firstTransactionIdsOfBatches );
+        for ( Thread thread : applyingThreads )
+        {
+            assertNotEquals( Thread.currentThread(), thread );
+        }
+        verify( transactionIdStore ).setLastCommittedAndClosedTransactionId(
+                anyLong(), anyLong(), anyLong(), anyLong(), anyLong() );
+    }
+
+    @Test
+    public void shouldPropagateFailureToApplyBatchInBackground() throws Exception
+    {
+        // given
+        Exception failure = new Exception( "Failed to apply" );
+        doThrow( failure ).when( storageEngine ).apply( any( CommandsToApply.class ), any() );
+        DefaultRecoverySPI spi = recoverySpi( true );
+
+        // when
+        Visitor<CommittedTransactionRepresentation,Exception> visitor = spi.startRecovery();
+        CommittedTransactionRepresentation transaction = transaction( 1 );
+        visitor.visit( transaction );
+        try
+        {
+            spi.allTransactionsRecovered( transaction, new LogPosition( 0, 100 ) );
+            fail( "Should have failed" );
+        }
+        catch ( Exception e )
+        {
+            // then
+            assertSame( failure, e );
+        }
+    }
+
+    @Test
+    public void shouldApplyBatchesOnRecoveringThreadWhenNotReadingAhead() throws Exception
+    {
+        // given
+        List<Thread> applyingThreads = Collections.synchronizedList( new ArrayList<>() );
+        doAnswer( invocation ->
+        {
+            applyingThreads.add( Thread.currentThread() );
+            return null;
+        } ).when( storageEngine ).apply( any( CommandsToApply.class ), any() );
+        DefaultRecoverySPI spi = recoverySpi( false );
+
+        // when
+        Visitor<CommittedTransactionRepresentation,Exception> visitor = spi.startRecovery();
+        CommittedTransactionRepresentation transaction = transaction( 1 );
+        visitor.visit( transaction );
+        spi.allTransactionsRecovered( transaction, new LogPosition( 0, 100 ) );
+
+        // then
+        verify( storageEngine ).apply( any( CommandsToApply.class ), any() );
+        assertEquals( asList( Thread.currentThread() ), applyingThreads );
+    }
+
+    private DefaultRecoverySPI recoverySpi( boolean readAhead )
+    {
+        when( logFiles.getLogFileForVersion( anyLong() ) ).thenReturn( new File( "log" ) );
+        return new DefaultRecoverySPI( storageEngine, logFiles, fs, mock( LogVersionRepository.class ),
+                mock( LatestCheckPointFinder.class ), transactionIdStore, mock( LogicalTransactionStore.class ),
+                mock( PositionToRecoverFrom.Monitor.class ), readAhead );
+    }
+
+    private static CommittedTransactionRepresentation transaction( long txId )
+    {
+        PhysicalTransactionRepresentation transaction = new PhysicalTransactionRepresentation( Collections.emptyList() );
+        transaction.setHeader( new byte[0], 0, 0, 0, txId - 1, 0, 0 );
+        return new CommittedTransactionRepresentation(
+                new LogEntryStart( 0, 0, 0, txId - 1, new byte[0], LogPosition.UNSPECIFIED ),
+                transaction, new OnePhaseCommit( txId, 0 ) );
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.impl.schema;
+
+import java.io.File;
+
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.helpers.Service;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.impl.index.storage.DirectoryFactory;
+import org.neo4j.kernel.api.index.SchemaIndexProvider;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.extension.KernelExtensionFactory;
+import org.neo4j.kernel.impl.factory.GraphDatabaseFacadeFactory;
+import org.neo4j.kernel.impl.index.schema.NativeSchemaNumberIndexProvider;
+import org.neo4j.kernel.impl.index.schema.NativeSchemaStringIndexProvider;
+import org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider;
+import org.neo4j.kernel.impl.index.schema.fusion.NativeSelector;
+import org.neo4j.kernel.impl.logging.LogService;
+import org.neo4j.kernel.impl.spi.KernelContext;
+import org.neo4j.logging.LogProvider;
+
+import static org.neo4j.kernel.api.impl.index.LuceneKernelExtensions.directoryFactory;
+
+/**
+ * Creates a {@link FusionSchemaIndexProvider} keeping numbers in {@link NativeSchemaNumberIndexProvider native
+ * number} indexes, strings in {@link NativeSchemaStringIndexProvider native string} indexes and all other values,
+ * as well as strings too long for the native string index, in {@link LuceneSchemaIndexProvider lucene} indexes. This provider is only
+ * selected if {@link GraphDatabaseSettings#enable_native_schema_index} is enabled, since it then gets a higher
+ * priority than the plain lucene provider.
+ */
+@Service.Implementation( KernelExtensionFactory.class )
+public class NativeLuceneFusionSchemaIndexProviderFactory
+        extends KernelExtensionFactory<NativeLuceneFusionSchemaIndexProviderFactory.Dependencies>
+{
+    public static final String KEY = LuceneSchemaIndexProviderFactory.KEY + "+" + NativeSchemaNumberIndexProvider.KEY;
+
+    public static final SchemaIndexProvider.Descriptor DESCRIPTOR = new SchemaIndexProvider.Descriptor( KEY, "1.0" );
+
+    public interface Dependencies
+    {
+        PageCache pageCache();
+
+        FileSystemAbstraction fileSystem();
+
+        LogService getLogging();
+
+        Config getConfig();
+    }
+
+    public NativeLuceneFusionSchemaIndexProviderFactory()
+    {
+        super( KEY );
+    }
+
+    @Override
+    public FusionSchemaIndexProvider newInstance( KernelContext context, Dependencies dependencies ) throws Throwable
+    {
+        PageCache pageCache = dependencies.pageCache();
+        File storeDir = context.storeDir();
+        FileSystemAbstraction fs = dependencies.fileSystem();
+        LogProvider logProvider = dependencies.getLogging().getInternalLogProvider();
+        Config config = dependencies.getConfig();
+        boolean ephemeral = config.get( GraphDatabaseFacadeFactory.Configuration.ephemeral );
+
+        NativeSchemaNumberIndexProvider numberProvider =
+                new NativeSchemaNumberIndexProvider( pageCache, fs, storeDir, logProvider );
+        NativeSchemaStringIndexProvider stringProvider =
+                new NativeSchemaStringIndexProvider( pageCache, fs, storeDir, logProvider );
+
+        DirectoryFactory directoryFactory = directoryFactory( ephemeral, fs );
+        LuceneSchemaIndexProvider luceneProvider = new LuceneSchemaIndexProvider( fs, directoryFactory, storeDir,
+                logProvider, config, context.databaseInfo().operationalMode );
+
+        boolean enabled = config.get( GraphDatabaseSettings.enable_native_schema_index );
+        int priority = enabled ? 2 : 0;
+        return new FusionSchemaIndexProvider( numberProvider, stringProvider, luceneProvider, new NativeSelector(),
+                DESCRIPTOR, priority );
+    }
+}
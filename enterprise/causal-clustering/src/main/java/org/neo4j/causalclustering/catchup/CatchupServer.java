@@ -48,6 +48,7 @@ import org.neo4j.causalclustering.catchup.storecopy.GetStoreIdResponseEncoder;
 import org.neo4j.causalclustering.catchup.storecopy.GetStoreRequestDecoder;
 import org.neo4j.causalclustering.catchup.storecopy.GetStoreRequestHandler;
 import org.neo4j.causalclustering.catchup.storecopy.StoreCopyFinishedResponseEncoder;
+import org.neo4j.causalclustering.catchup.tx.RawTxPullResponseEncoder;
 import org.neo4j.causalclustering.catchup.tx.TxPullRequestDecoder;
 import org.neo4j.causalclustering.catchup.tx.TxPullRequestHandler;
 import org.neo4j.causalclustering.catchup.tx.TxPullResponseEncoder;
@@ -68,7 +69,9 @@ import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.NeoStoreDataSource;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
+import org.neo4j.kernel.impl.transaction.log.PhysicalLogFiles;
 import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
+import org.neo4j.kernel.impl.transaction.log.TransactionLogRegionLocator;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointer;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.StoreCopyCheckPointMutex;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
@@ -100,6 +103,7 @@ public class CatchupServer extends LifecycleAdapter
     private Channel channel;
     private final Supplier<CheckPointer> checkPointerSupplier;
     private final int txPullBatchSize;
+    private final boolean txPullZeroCopy;
 
     public CatchupServer( LogProvider logProvider, LogProvider userLogProvider, Supplier<StoreId> storeIdSupplier,
             Supplier<TransactionIdStore> transactionIdStoreSupplier,
@@ -113,6 +117,7 @@ public class CatchupServer extends LifecycleAdapter
         this.storeCopyCheckPointMutex = storeCopyCheckPointMutex;
         this.listenAddress = config.get( CausalClusteringSettings.transaction_listen_address );
         this.txPullBatchSize = config.get( CausalClusteringSettings.tx_pull_batch_size );
+        this.txPullZeroCopy = config.get( CausalClusteringSettings.tx_pull_zero_copy );
         this.transactionIdStoreSupplier = transactionIdStoreSupplier;
         this.storeIdSupplier = storeIdSupplier;
         this.dataSourceAvailabilitySupplier = dataSourceAvailabilitySupplier;
@@ -147,6 +152,8 @@ public class CatchupServer extends LifecycleAdapter
 
                         ChannelPipeline pipeline = ch.pipeline();
                         pipeline.addLast( new LengthFieldBasedFrameDecoder( Integer.MAX_VALUE, 0, 4, 0, 4 ) );
+                        // Writes whole frames, so must come before the prependers of the length field and version
+                        pipeline.addLast( new RawTxPullResponseEncoder() );
                         pipeline.addLast( new LengthFieldPrepender( 4 ) );
 
                         pipeline.addLast( new VersionDecoder( logProvider ) );
@@ -169,8 +176,9 @@ public class CatchupServer extends LifecycleAdapter
 
                         pipeline.addLast(
                                 new TxPullRequestHandler( protocol, storeIdSupplier, dataSourceAvailabilitySupplier,
-                                        transactionIdStoreSupplier, logicalTransactionStoreSupplier, txPullBatchSize,
-                                        monitors, logProvider ) );
+                                        transactionIdStoreSupplier, logicalTransactionStoreSupplier,
+                                        txPullZeroCopy ? CatchupServer.this::transactionLogRegionLocator : null,
+                                        txPullBatchSize, monitors, logProvider ) );
                         pipeline.addLast( new ChunkedWriteHandler() );
 
                         pipeline.addLast( new GetStoreRequestHandler( protocol, dataSourceSupplier,
@@ -223,6 +231,14 @@ public class CatchupServer extends LifecycleAdapter
         return decoderDispatcher;
     }
 
+    private TransactionLogRegionLocator transactionLogRegionLocator()
+    {
+        PhysicalLogFiles logFiles =
+                dataSourceSupplier.get().getDependencyResolver().resolveDependency( PhysicalLogFiles.class );
+        return new TransactionLogRegionLocator( logFiles, fs, logicalTransactionStoreSupplier.get(),
+                transactionIdStoreSupplier.get() );
+    }
+
     @Override
     public synchronized void stop() throws Throwable
     {
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.causalclustering.catchup.tx;
+
+import java.util.Objects;
+
+import org.neo4j.causalclustering.identity.StoreId;
+import org.neo4j.kernel.impl.transaction.log.TransactionLogRegion;
+
+/**
+ * A {@link TxPullResponse} whose transaction is sent straight from the region of the transaction log file it is
+ * stored in. It is received, and decoded, as an ordinary {@link TxPullResponse}.
+ */
+public class RawTxPullResponse
+{
+    private final StoreId storeId;
+    private final TransactionLogRegion region;
+
+    public RawTxPullResponse( StoreId storeId, TransactionLogRegion region )
+    {
+        this.storeId = storeId;
+        this.region = region;
+    }
+
+    public StoreId storeId()
+    {
+        return storeId;
+    }
+
+    public TransactionLogRegion region()
+    {
+        return region;
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        RawTxPullResponse that = (RawTxPullResponse) o;
+        return Objects.equals( storeId, that.storeId ) && Objects.equals( region, that.region );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash( storeId, region );
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format( "RawTxPullResponse{storeId=%s, region=%s}", storeId, region );
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.causalclustering.catchup.tx;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.handler.codec.MessageToMessageEncoder;
+
+import java.util.List;
+
+import org.neo4j.causalclustering.messaging.Message;
+import org.neo4j.causalclustering.messaging.NetworkFlushableByteBuf;
+import org.neo4j.causalclustering.messaging.marshalling.storeid.StoreIdMarshal;
+import org.neo4j.kernel.impl.transaction.log.TransactionLogRegion;
+
+/**
+ * Encodes a {@link RawTxPullResponse} as a complete frame, made up of a header and a {@link DefaultFileRegion} of the
+ * transaction log file, which the transport can send without copying the transaction through user space.
+ * <p>
+ * Since a file region cannot be prepended to, this encoder writes the frame length and version itself, and must
+ * therefore be placed in front of the length field and version prependers in the pipeline.
+ */
+public class RawTxPullResponseEncoder extends MessageToMessageEncoder<RawTxPullResponse>
+{
+    @Override
+    protected void encode( ChannelHandlerContext ctx, RawTxPullResponse response, List<Object> out ) throws Exception
+    {
+        TransactionLogRegion region = response.region();
+        ByteBuf header = ctx.alloc().buffer();
+        header.writeInt( 0 ); // frame length, set below once the header is written
+        header.writeByte( Message.CURRENT_VERSION );
+        StoreIdMarshal.INSTANCE.marshal( response.storeId(), new NetworkFlushableByteBuf( header ) );
+        header.setInt( 0, Math.toIntExact( header.readableBytes() - Integer.BYTES + region.length() ) );
+
+        out.add( header );
+        out.add( new DefaultFileRegion( region.file(), region.position(), region.length() ) );
+    }
+}
@@ -22,6 +22,7 @@ package org.neo4j.causalclustering.catchup.tx;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 
+import java.io.IOException;
 import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 
@@ -35,6 +36,8 @@ import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
 import org.neo4j.kernel.impl.transaction.log.NoSuchTransactionException;
 import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
+import org.neo4j.kernel.impl.transaction.log.TransactionLogRegion;
+import org.neo4j.kernel.impl.transaction.log.TransactionLogRegionLocator;
 import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
@@ -54,6 +57,7 @@ public class TxPullRequestHandler extends SimpleChannelInboundHandler<TxPullRequ
     private final int batchSize;
     private final TransactionIdStore transactionIdStore;
     private final LogicalTransactionStore logicalTransactionStore;
+    private final TransactionLogRegionLocator regionLocator;
     private final TxPullRequestsMonitor monitor;
     private final Log log;
 
@@ -61,6 +65,20 @@ public class TxPullRequestHandler extends SimpleChannelInboundHandler<TxPullRequ
                                  BooleanSupplier databaseAvailable, Supplier<TransactionIdStore> transactionIdStoreSupplier,
 
                                  Supplier<LogicalTransactionStore> logicalTransactionStoreSupplier, int batchSize, Monitors monitors, LogProvider logProvider )
+    {
+        this( protocol, storeIdSupplier, databaseAvailable, transactionIdStoreSupplier,
+                logicalTransactionStoreSupplier, null, batchSize, monitors, logProvider );
+    }
+
+    /**
+     * @param regionLocatorSupplier supplies the locator of transactions to send straight from the transaction log
+     * files, or {@code null} to read and re-serialize all transactions.
+     */
+    public TxPullRequestHandler( CatchupServerProtocol protocol, Supplier<StoreId> storeIdSupplier,
+            BooleanSupplier databaseAvailable, Supplier<TransactionIdStore> transactionIdStoreSupplier,
+            Supplier<LogicalTransactionStore> logicalTransactionStoreSupplier,
+            Supplier<TransactionLogRegionLocator> regionLocatorSupplier, int batchSize, Monitors monitors,
+            LogProvider logProvider )
     {
         this.protocol = protocol;
         this.storeIdSupplier = storeIdSupplier;
@@ -68,6 +86,7 @@ public class TxPullRequestHandler extends SimpleChannelInboundHandler<TxPullRequ
         this.batchSize = batchSize;
         this.transactionIdStore = transactionIdStoreSupplier.get();
         this.logicalTransactionStore = logicalTransactionStoreSupplier.get();
+        this.regionLocator = regionLocatorSupplier != null ? regionLocatorSupplier.get() : null;
         this.monitor = monitors.newMonitor( TxPullRequestsMonitor.class );
         this.log = logProvider.getLog( getClass() );
     }
@@ -95,25 +114,21 @@ public class TxPullRequestHandler extends SimpleChannelInboundHandler<TxPullRequ
         }
         else if ( transactionIdStore.getLastCommittedTransactionId() >= firstTxId )
         {
-            try ( IOCursor<CommittedTransactionRepresentation> cursor =
-                          logicalTransactionStore.getTransactions( firstTxId ) )
+            int sent = 0;
+            try
             {
-                status = SUCCESS_END_OF_BATCH;
-                for ( int i = 0; i < batchSize; i++ )
+                if ( regionLocator != null )
                 {
-                    if ( cursor.next() )
+                    for ( TransactionLogRegion region : regionLocator.locate( firstTxId, batchSize ) )
                     {
                         ctx.write( ResponseMessageType.TX );
-                        CommittedTransactionRepresentation tx = cursor.get();
-                        lastTxId = tx.getCommitEntry().getTxId();
-                        ctx.write( new TxPullResponse( localStoreId, tx ) );
-                    }
-                    else
-                    {
-                        status = SUCCESS_END_OF_STREAM;
-                        break;
+                        lastTxId = region.transactionId();
+                        ctx.write( new RawTxPullResponse( localStoreId, region ) );
+                        sent++;
                     }
                 }
+                status = sent < batchSize ? pullTransactions( ctx, localStoreId, firstTxId + sent, batchSize - sent )
+                                          : SUCCESS_END_OF_BATCH;
                 ctx.flush();
             }
             catch ( NoSuchTransactionException e )
@@ -131,4 +146,26 @@ public class TxPullRequestHandler extends SimpleChannelInboundHandler<TxPullRequ
         monitor.increment();
         protocol.expect( State.MESSAGE_TYPE );
     }
+
+    private CatchupResult pullTransactions( ChannelHandlerContext ctx, StoreId localStoreId, long firstTxId,
+            int batchSize ) throws IOException
+    {
+        try ( IOCursor<CommittedTransactionRepresentation> cursor =
+                      logicalTransactionStore.getTransactions( firstTxId ) )
+        {
+            for ( int i = 0; i < batchSize; i++ )
+            {
+                if ( cursor.next() )
+                {
+                    ctx.write( ResponseMessageType.TX );
+                    ctx.write( new TxPullResponse( localStoreId, cursor.get() ) );
+                }
+                else
+                {
+                    return SUCCESS_END_OF_STREAM;
+                }
+            }
+        }
+        return SUCCESS_END_OF_BATCH;
+    }
 }
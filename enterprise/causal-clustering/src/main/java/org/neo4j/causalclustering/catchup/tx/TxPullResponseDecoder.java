@@ -48,6 +48,9 @@ public class TxPullResponseDecoder extends ByteToMessageDecoder
 
         transactionCursor.next();
         CommittedTransactionRepresentation tx = transactionCursor.get();
+        // A transaction sent straight from the log file can be followed by check point entries, which are of no use
+        // here. The frame holds exactly one transaction, so skip whatever is left of it.
+        msg.skipBytes( msg.readableBytes() );
 
         if ( tx != null )
         {
@@ -198,6 +198,13 @@ public class CausalClusteringSettings implements LoadableConfig
     public static final Setting<Integer> tx_pull_batch_size =
             setting( "causal_clustering.tx_pull_batch_size", INTEGER, "64" );
 
+    @Description( "Send pulled transactions straight from the transaction log files, without reading and " +
+            "re-serializing them first, where possible. Transactions in compressed log files are always " +
+            "re-serialized." )
+    @Internal
+    public static final Setting<Boolean> tx_pull_zero_copy =
+            setting( "causal_clustering.tx_pull_zero_copy", BOOLEAN, FALSE );
+
     @Description( "Maximum transaction batch size for read replicas when applying transactions pulled from core " +
             "servers." )
     @Internal
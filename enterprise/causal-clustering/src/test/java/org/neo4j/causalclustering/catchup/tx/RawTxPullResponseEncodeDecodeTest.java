@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.causalclustering.catchup.tx;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.FileRegion;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.channels.Channels;
+
+import org.neo4j.causalclustering.identity.StoreId;
+import org.neo4j.causalclustering.messaging.Message;
+import org.neo4j.causalclustering.messaging.NetworkFlushableByteBuf;
+import org.neo4j.com.CommittedTransactionSerializer;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.TransactionLogRegion;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommand;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
+import org.neo4j.kernel.impl.transaction.log.entry.OnePhaseCommit;
+import org.neo4j.test.rule.TestDirectory;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class RawTxPullResponseEncodeDecodeTest
+{
+    private static final int LOG_HEADER_SIZE = 16;
+
+    @Rule
+    public final TestDirectory testDirectory = TestDirectory.testDirectory();
+
+    @Test
+    public void shouldDecodeTransactionSentFromLogFileAsPullResponse() throws Exception
+    {
+        // given a log file with a transaction, which is followed by a check point
+        StoreId storeId = new StoreId( 1, 2, 3, 4 );
+        CommittedTransactionRepresentation tx = newCommittedTransactionRepresentation();
+        File logFile = testDirectory.file( "log" );
+        ByteBuf logBytes = Unpooled.buffer();
+        logBytes.writeZero( LOG_HEADER_SIZE );
+        NetworkFlushableByteBuf logChannel = new NetworkFlushableByteBuf( logBytes );
+        new CommittedTransactionSerializer( logChannel ).visit( tx );
+        new LogEntryWriter( logChannel ).writeCheckPointEntry( new LogPosition( 0, LOG_HEADER_SIZE ) );
+        try ( FileOutputStream out = new FileOutputStream( logFile ) )
+        {
+            logBytes.readBytes( out, logBytes.readableBytes() );
+        }
+        TransactionLogRegion region =
+                new TransactionLogRegion( 42, logFile, LOG_HEADER_SIZE, logFile.length() - LOG_HEADER_SIZE );
+
+        // when
+        EmbeddedChannel encoder = new EmbeddedChannel( new RawTxPullResponseEncoder() );
+        encoder.writeOutbound( new RawTxPullResponse( storeId, region ) );
+        ByteBuf frame = Unpooled.buffer();
+        ByteBuf header = encoder.readOutbound();
+        frame.writeBytes( header );
+        header.release();
+        FileRegion fileRegion = encoder.readOutbound();
+        fileRegion.transferTo( Channels.newChannel( new ByteBufOutputStream( frame ) ), 0 );
+        fileRegion.release();
+
+        // then the frame is complete, with the length and version that the prependers would have written
+        assertEquals( frame.readableBytes() - Integer.BYTES, frame.readInt() );
+        assertEquals( Message.CURRENT_VERSION, frame.readByte() );
+
+        // and the rest decodes as an ordinary pull response
+        EmbeddedChannel decoder = new EmbeddedChannel( new TxPullResponseDecoder() );
+        decoder.writeInbound( frame );
+        assertEquals( new TxPullResponse( storeId, tx ), decoder.readInbound() );
+        assertNull( decoder.readInbound() );
+    }
+
+    private CommittedTransactionRepresentation newCommittedTransactionRepresentation()
+    {
+        final long arbitraryRecordId = 27L;
+        Command.NodeCommand command =
+                new Command.NodeCommand( new NodeRecord( arbitraryRecordId ), new NodeRecord( arbitraryRecordId ) );
+
+        PhysicalTransactionRepresentation physicalTransactionRepresentation =
+                new PhysicalTransactionRepresentation( asList( new LogEntryCommand( command ).getXaCommand() ) );
+        physicalTransactionRepresentation.setHeader( new byte[]{}, 0, 0, 0, 0, 0, 0 );
+
+        LogEntryStart startEntry = new LogEntryStart( 0, 0, 0L, 0L, new byte[]{}, LogPosition.UNSPECIFIED );
+        OnePhaseCommit commitEntry = new OnePhaseCommit( 42, 0 );
+
+        return new CommittedTransactionRepresentation( startEntry, physicalTransactionRepresentation, commitEntry );
+    }
+}
@@ -22,6 +22,7 @@ package org.neo4j.causalclustering.catchup.tx;
 import io.netty.channel.ChannelHandlerContext;
 import org.junit.Test;
 
+import java.io.File;
 import java.io.IOException;
 
 import org.neo4j.causalclustering.catchup.CatchupServerProtocol;
@@ -35,16 +36,22 @@ import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
 import org.neo4j.kernel.impl.transaction.log.NoSuchTransactionException;
 import org.neo4j.kernel.impl.transaction.log.TransactionCursor;
 import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
+import org.neo4j.kernel.impl.transaction.log.TransactionLogRegion;
+import org.neo4j.kernel.impl.transaction.log.TransactionLogRegionLocator;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
 import org.neo4j.kernel.impl.transaction.log.entry.OnePhaseCommit;
 import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.logging.AssertableLogProvider;
 import org.neo4j.logging.NullLogProvider;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.mockito.Matchers.isA;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 import static org.neo4j.causalclustering.catchup.CatchupResult.E_STORE_ID_MISMATCH;
 import static org.neo4j.causalclustering.catchup.CatchupResult.E_STORE_UNAVAILABLE;
@@ -121,6 +128,75 @@ public class TxPullRequestHandlerTest
         verify( context ).write( new TxStreamFinishedResponse( SUCCESS_END_OF_BATCH ) );
     }
 
+    @Test
+    public void shouldSendLocatedTransactionsFromTheLogFilesAndReadTheRest() throws Exception
+    {
+        // given
+        StoreId storeId = new StoreId( 1, 2, 3, 4 );
+
+        TransactionIdStore transactionIdStore = mock( TransactionIdStore.class );
+        when( transactionIdStore.getLastCommittedTransactionId() ).thenReturn( 15L );
+
+        File logFile = new File( "neostore.transaction.db.0" );
+        TransactionLogRegion region = new TransactionLogRegion( 14, logFile, 16, 100 );
+        TransactionLogRegionLocator regionLocator = mock( TransactionLogRegionLocator.class );
+        when( regionLocator.locate( 14L, BATCH_SIZE ) ).thenReturn( singletonList( region ) );
+
+        LogicalTransactionStore logicalTransactionStore = mock( LogicalTransactionStore.class );
+        when( logicalTransactionStore.getTransactions( 15L ) ).thenReturn( txCursor( cursor( tx( 15 ) ) ) );
+
+        TxPullRequestHandler txPullRequestHandler =
+                new TxPullRequestHandler( new CatchupServerProtocol(), () -> storeId, () -> true,
+                        () -> transactionIdStore, () -> logicalTransactionStore, () -> regionLocator, BATCH_SIZE,
+                        new Monitors(), NullLogProvider.getInstance() );
+
+        // when
+        txPullRequestHandler.channelRead0( context, new TxPullRequest( 13, storeId ) );
+
+        // then
+        verify( context, times( 2 ) ).write( ResponseMessageType.TX );
+        verify( context ).write( new RawTxPullResponse( storeId, region ) );
+        verify( context ).write( new TxPullResponse( storeId, tx( 15 ) ) );
+
+        verify( context ).write( ResponseMessageType.TX_STREAM_FINISHED );
+        verify( context ).write( new TxStreamFinishedResponse( SUCCESS_END_OF_STREAM ) );
+    }
+
+    @Test
+    public void shouldNotReadTransactionsWhenAllOfTheBatchWasLocatedInTheLogFiles() throws Exception
+    {
+        // given
+        StoreId storeId = new StoreId( 1, 2, 3, 4 );
+
+        TransactionIdStore transactionIdStore = mock( TransactionIdStore.class );
+        when( transactionIdStore.getLastCommittedTransactionId() ).thenReturn( 20L );
+
+        File logFile = new File( "neostore.transaction.db.0" );
+        TransactionLogRegionLocator regionLocator = mock( TransactionLogRegionLocator.class );
+        when( regionLocator.locate( 14L, BATCH_SIZE ) ).thenReturn( asList(
+                new TransactionLogRegion( 14, logFile, 16, 100 ),
+                new TransactionLogRegion( 15, logFile, 116, 100 ),
+                new TransactionLogRegion( 16, logFile, 216, 100 ) ) );
+
+        LogicalTransactionStore logicalTransactionStore = mock( LogicalTransactionStore.class );
+
+        TxPullRequestHandler txPullRequestHandler =
+                new TxPullRequestHandler( new CatchupServerProtocol(), () -> storeId, () -> true,
+                        () -> transactionIdStore, () -> logicalTransactionStore, () -> regionLocator, BATCH_SIZE,
+                        new Monitors(), NullLogProvider.getInstance() );
+
+        // when
+        txPullRequestHandler.channelRead0( context, new TxPullRequest( 13, storeId ) );
+
+        // then
+        verify( context, times( 3 ) ).write( ResponseMessageType.TX );
+        verify( context, times( 3 ) ).write( isA( RawTxPullResponse.class ) );
+        verifyZeroInteractions( logicalTransactionStore );
+
+        verify( context ).write( ResponseMessageType.TX_STREAM_FINISHED );
+        verify( context ).write( new TxStreamFinishedResponse( SUCCESS_END_OF_BATCH ) );
+    }
+
     @Test
     public void shouldRespondWithEndOfStreamIfThereAreNoTransactions() throws Exception
     {
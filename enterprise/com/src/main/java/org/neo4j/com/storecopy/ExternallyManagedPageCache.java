@@ -22,6 +22,7 @@ package org.neo4j.com.storecopy;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.OpenOption;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -33,6 +34,7 @@ import org.neo4j.io.pagecache.FileHandle;
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.WriteAheadBarrier;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.extension.KernelExtensionFactory;
 import org.neo4j.kernel.impl.enterprise.EnterpriseEditionModule;
@@ -71,6 +73,12 @@ public class ExternallyManagedPageCache implements PageCache
         return delegate.map( file, pageSize, openOptions );
     }
 
+    @Override
+    public List<PagedFile> listExistingMappings() throws IOException
+    {
+        return delegate.listExistingMappings();
+    }
+
     @Override
     public Optional<PagedFile> getExistingMapping( File file ) throws IOException
     {
@@ -89,6 +97,24 @@ public class ExternallyManagedPageCache implements PageCache
         delegate.flushAndForce( limiter );
     }
 
+    @Override
+    public int flushDirtyPages( int maxPagesToFlush ) throws IOException
+    {
+        return delegate.flushDirtyPages( maxPagesToFlush );
+    }
+
+    @Override
+    public int dirtyPageCount()
+    {
+        return delegate.dirtyPageCount();
+    }
+
+    @Override
+    public void setWriteAheadBarrier( WriteAheadBarrier barrier )
+    {
+        delegate.setWriteAheadBarrier( barrier );
+    }
+
     @Override
     public int pageSize()
     {
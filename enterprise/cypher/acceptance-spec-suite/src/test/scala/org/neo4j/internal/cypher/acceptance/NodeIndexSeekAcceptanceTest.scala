@@ -19,6 +19,8 @@
  */
 package org.neo4j.internal.cypher.acceptance
 
+import java.util.concurrent.TimeUnit
+
 import org.neo4j.cypher.{ExecutionEngineFunSuite, NewPlannerTestSupport}
 
 /**
@@ -154,6 +156,25 @@ class NodeIndexSeekAcceptanceTest extends ExecutionEngineFunSuite with NewPlanne
     result.executionPlanDescription().toString shouldNot include("Index")
   }
 
+  test("should seek composite index in all runtimes") {
+    // Given
+    execute("CREATE INDEX ON :User(firstname, lastname)")
+    graph.inTx(graph.schema().awaitIndexesOnline(10, TimeUnit.SECONDS))
+    val n1 = createLabeledNode(Map("firstname" -> "Joe", "lastname" -> "Soap"), "User")
+    val n2 = createLabeledNode(Map("firstname" -> "Joe", "lastname" -> "Smoke"), "User")
+    createLabeledNode(Map("firstname" -> "Jake", "lastname" -> "Soap"), "User")
+    createLabeledNode(Map("firstname" -> "Joe"), "User")
+    for (i <- 1 to 30) createLabeledNode(Map("firstname" -> ("Joe" + i), "lastname" -> "Soap"), "User")
+
+    // When
+    val result = executeWithAllPlannersAndRuntimesAndCompatibilityMode(
+      "MATCH (n:User) WHERE n.firstname = 'Joe' AND n.lastname IN ['Soap', 'Smoke'] RETURN n")
+
+    // Then
+    result should use("NodeIndexSeek")
+    result.toList.map(_("n")).toSet should equal(Set(n1, n2))
+  }
+
   private def setUpDatabaseForTests() {
     updateWithBothPlannersAndCompatibilityMode(
       """CREATE (architect:Matrix { name:'The Architect' }),
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.cypher.acceptance
+
+import org.neo4j.cypher.internal.compiler.v3_2.executionplan.InternalExecutionResult
+import org.neo4j.cypher.internal.compiler.v3_2.planDescription.InternalPlanDescription.Arguments.Runtime
+import org.neo4j.cypher.internal.frontend.v3_2.notification.RuntimeUnsupportedNotification
+import org.neo4j.cypher.{ExecutionEngineFunSuite, NewPlannerTestSupport}
+
+class SlottedRuntimeAcceptanceTest extends ExecutionEngineFunSuite with NewPlannerTestSupport {
+
+  override protected def initTest(): Unit = {
+    super.initTest()
+    val a1 = createLabeledNode(Map("name" -> "a1", "age" -> 10), "A")
+    val a2 = createLabeledNode(Map("name" -> "a2", "age" -> 20), "A")
+    val b1 = createLabeledNode(Map("name" -> "b1", "age" -> 30), "B")
+    val b2 = createLabeledNode(Map("name" -> "b2"), "B")
+    createNode("name" -> "c")
+    relate(a1, b1, "KNOWS", Map("since" -> 2001))
+    relate(a1, b2, "KNOWS", Map("since" -> 2002))
+    relate(a2, b1, "LIKES", Map("since" -> 2003))
+    relate(b1, a1, "LIKES")
+    relate(b2, b2, "KNOWS")
+  }
+
+  test("all nodes scan") {
+    val result = executeWithSlottedAndInterpretedRuntimes("MATCH (n) RETURN n.name")
+
+    result.columnAs[String]("n.name").toSet should equal(Set("a1", "a2", "b1", "b2", "c"))
+  }
+
+  test("label scan with filter and projection") {
+    val result = executeWithSlottedAndInterpretedRuntimes(
+      "MATCH (n:A) WHERE n.age > 15 RETURN n.name AS name, n.age * 2 AS double")
+
+    result.toList should equal(List(Map("name" -> "a2", "double" -> 40)))
+  }
+
+  test("expand with relationship type and relationship property") {
+    val result = executeWithSlottedAndInterpretedRuntimes(
+      "MATCH (a:A)-[r:KNOWS]->(b) RETURN a.name, r.since, b.name")
+
+    result.toSet should equal(Set(
+      Map("a.name" -> "a1", "r.since" -> 2001, "b.name" -> "b1"),
+      Map("a.name" -> "a1", "r.since" -> 2002, "b.name" -> "b2")))
+  }
+
+  test("expand in both directions") {
+    val result = executeWithSlottedAndInterpretedRuntimes("MATCH (a:A)--(b:B) RETURN a.name, b.name")
+
+    result.toList should have size 4
+  }
+
+  test("expand into a bound node") {
+    val result = executeWithSlottedAndInterpretedRuntimes(
+      "MATCH (a:A)-[:KNOWS]->(b:B)-[:LIKES]->(a) RETURN a.name, b.name")
+
+    result.toList should equal(List(Map("a.name" -> "a1", "b.name" -> "b1")))
+  }
+
+  test("self loops") {
+    val result = executeWithSlottedAndInterpretedRuntimes("MATCH (n)-[r]->(n) RETURN n.name")
+
+    result.toList should equal(List(Map("n.name" -> "b2")))
+  }
+
+  test("missing properties are null") {
+    val result = executeWithSlottedAndInterpretedRuntimes("MATCH (n:B) RETURN n.name, n.age")
+
+    result.toSet should equal(Set(Map("n.name" -> "b1", "n.age" -> 30), Map("n.name" -> "b2", "n.age" -> null)))
+  }
+
+  test("skip and limit") {
+    val result = executeWithSlottedAndInterpretedRuntimes("MATCH (n) WITH n SKIP 1 LIMIT 3 RETURN count(*)")
+
+    result.toList should equal(List(Map("count(*)" -> 3)))
+  }
+
+  test("aggregation grouped by node") {
+    val result = executeWithSlottedAndInterpretedRuntimes(
+      "MATCH (a:A)-->(b) RETURN a.name, count(b) AS c, sum(b.age) AS ages")
+
+    result.toSet should equal(Set(
+      Map("a.name" -> "a1", "c" -> 2, "ages" -> 30),
+      Map("a.name" -> "a2", "c" -> 1, "ages" -> 30)))
+  }
+
+  test("unsupported query falls back to the interpreted runtime with a warning") {
+    val query = "MATCH (n:A) RETURN n.name ORDER BY n.name"
+    val interpretedResult = innerExecute(s"CYPHER runtime=interpreted $query")
+    val slottedResult = innerExecute(s"CYPHER runtime=slotted $query")
+
+    slottedResult.notifications should contain(RuntimeUnsupportedNotification)
+    slottedResult.executionPlanDescription().arguments should contain(Runtime("INTERPRETED"))
+    slottedResult.toComparableResult should contain theSameElementsInOrderAs interpretedResult.toComparableResult
+    slottedResult.toList should equal(List(Map("n.name" -> "a1"), Map("n.name" -> "a2")))
+  }
+
+  /**
+    * Runs the query with the slotted runtime, asserting that it didn't fall back to the interpreted runtime, and with
+    * the interpreted runtime, asserting that both return the same rows.
+    */
+  private def executeWithSlottedAndInterpretedRuntimes(query: String): InternalExecutionResult = {
+    val interpretedResult = innerExecute(s"CYPHER runtime=interpreted $query")
+    val slottedResult = innerExecute(s"CYPHER runtime=slotted $query")
+
+    slottedResult.notifications should not contain RuntimeUnsupportedNotification
+    slottedResult.executionPlanDescription().arguments should contain(Runtime("SLOTTED"))
+    withClue("Diverging results between interpreted and slotted runtime") {
+      slottedResult.toComparableResult should contain theSameElementsAs interpretedResult.toComparableResult
+    }
+    interpretedResult.close()
+    slottedResult
+  }
+}
@@ -25,7 +25,7 @@ import org.neo4j.cypher.internal.compiled_runtime.v3_2.codegen.ir.aggregation.Di
 import org.neo4j.cypher.internal.compiled_runtime.v3_2.codegen.ir.expressions.ExpressionConverter._
 import org.neo4j.cypher.internal.compiled_runtime.v3_2.codegen.ir.expressions._
 import org.neo4j.cypher.internal.compiled_runtime.v3_2.codegen.spi.SortItem
-import org.neo4j.cypher.internal.compiler.v3_2.commands.{ManyQueryExpression, QueryExpression, RangeQueryExpression, SingleQueryExpression}
+import org.neo4j.cypher.internal.compiler.v3_2.commands.{CompositeQueryExpression, ManyQueryExpression, QueryExpression, RangeQueryExpression, SingleQueryExpression}
 import org.neo4j.cypher.internal.compiler.v3_2.helpers.{One, ZeroOneOrMany}
 import org.neo4j.cypher.internal.compiler.v3_2.planner.logical.plans._
 import org.neo4j.cypher.internal.compiler.v3_2.planner.logical.{SortDescription, plans}
@@ -44,6 +44,7 @@ object LogicalPlanConverter {
     case p: NodeIndexSeek => nodeIndexSeekAsCodeGenPlan(p)
     case p: NodeByIdSeek => nodeByIdSeekAsCodeGenPlan(p)
     case p: NodeUniqueIndexSeek => nodeUniqueIndexSeekAsCodeGen(p)
+    case p: NodeCompositeIndexSeek => nodeCompositeIndexSeekAsCodeGenPlan(p)
     case p: Expand => expandAsCodeGenPlan(p)
     case p: OptionalExpand => optionalExpandAsCodeGenPlan(p)
     case p: NodeHashJoin => nodeHashJoinAsCodeGenPlan(p)
@@ -253,6 +254,49 @@ object LogicalPlanConverter {
     sharedIndexSeekAsCodeGenPlan(indexSeekFun)(indexSeek.idName.name, indexSeek.valueExpr, indexSeek)
   }
 
+  private def nodeCompositeIndexSeekAsCodeGenPlan(indexSeek: NodeCompositeIndexSeek) = new CodeGenPlan with LeafCodeGenPlan {
+    override val logicalPlan: LogicalPlan = indexSeek
+
+    override def produce(context: CodeGenContext): (Option[JoinTableMethod], List[Instruction]) = {
+      val nodeVar = Variable(context.namer.newVarName(), CodeGenType.primitiveNode)
+      context.addVariable(indexSeek.idName.name, nodeVar)
+
+      val (methodHandle, actions :: tl) = context.popParent().consume(context, this)
+      val opName = context.registerOperator(logicalPlan)
+      val valueExprs = indexSeek.valueExpr match {
+        case CompositeQueryExpression(inner) => inner
+        case e => throw new InternalException(s"$e is not a valid QueryExpression for a composite index seek")
+      }
+      // a single expression is looked up as is, a collection is looped over, looking up each element of its set
+      val valuesAndLoops = valueExprs.map {
+        case SingleQueryExpression(e) =>
+          (createExpression(e)(context), None)
+        case ManyQueryExpression(e) =>
+          val expression = e match {
+            case _: ast.ListLiteral => ToSet(createExpression(e)(context))
+            case _ => ToSet(CastToCollection(createExpression(e)(context)))
+          }
+          val expressionVar = Variable(context.namer.newVarName(), CodeGenType(symbols.CTAny, ReferenceType),
+                                       nullable = false)
+          (LoadVariable(expressionVar), Some(expressionVar -> expression))
+        case e: RangeQueryExpression[_] =>
+          throw new CantCompileQueryException(s"To be done")
+        case e => throw new InternalException(s"$e is not a valid QueryExpression")
+      }
+
+      val propKeyVars = indexSeek.propertyKeys.map(_ => context.namer.newVarName())
+      val seek: Instruction =
+        WhileLoop(nodeVar, CompositeIndexSeek(opName, indexSeek.label.name, indexSeek.propertyKeys.map(_.name),
+                                              propKeyVars, context.namer.newVarName(), valuesAndLoops.map(_._1)),
+                  actions)
+      val indexSeekInstruction = valuesAndLoops.flatMap(_._2).foldRight(seek) {
+        case ((expressionVar, expression), inner) => ForEachExpression(expressionVar, expression, inner)
+      }
+
+      (methodHandle, indexSeekInstruction :: tl)
+    }
+  }
+
   private def nodeHashJoinAsCodeGenPlan(nodeHashJoin: NodeHashJoin) = new CodeGenPlan {
 
     override val logicalPlan: LogicalPlan = nodeHashJoin
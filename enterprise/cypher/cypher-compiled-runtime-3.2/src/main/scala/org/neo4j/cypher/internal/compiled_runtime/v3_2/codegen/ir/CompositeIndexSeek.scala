@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiled_runtime.v3_2.codegen.ir
+
+import org.neo4j.cypher.internal.compiled_runtime.v3_2.codegen.ir.expressions.CodeGenExpression
+import org.neo4j.cypher.internal.compiled_runtime.v3_2.codegen.spi.MethodStructure
+import org.neo4j.cypher.internal.compiled_runtime.v3_2.codegen.{CodeGenContext, Variable}
+
+/*
+ * Seeks a composite index with one exact value per indexed property, the property keys and expressions
+ * being in the order of the properties of the index.
+ */
+case class CompositeIndexSeek(opName: String, labelName: String, propNames: Seq[String], propKeyVars: Seq[String],
+                              descriptorVar: String, expressions: Seq[CodeGenExpression]) extends LoopDataGenerator {
+
+  override def init[E](generator: MethodStructure[E])(implicit context: CodeGenContext) = {
+    expressions.foreach(_.init(generator))
+    val labelVar = context.namer.newVarName()
+    generator.lookupLabelId(labelVar, labelName)
+    propNames.zip(propKeyVars).foreach {
+      case (propName, propKeyVar) => generator.lookupPropertyKey(propName, propKeyVar)
+    }
+    generator.newCompositeIndexDescriptor(descriptorVar, labelVar, propKeyVars)
+  }
+
+  override def produceIterator[E](iterVar: String, generator: MethodStructure[E])(implicit context: CodeGenContext) = {
+    generator.compositeIndexSeek(iterVar, descriptorVar, propKeyVars, expressions.map(_.generateExpression(generator)),
+                                 expressions.map(_.codeGenType))
+    generator.incrementDbHits()
+  }
+
+  override def produceNext[E](nextVar: Variable, iterVar: String, generator: MethodStructure[E])
+                             (implicit context: CodeGenContext) = {
+    generator.incrementDbHits()
+    generator.nextNode(nextVar.name, iterVar)
+  }
+
+  override def hasNext[E](generator: MethodStructure[E], iterVar: String): E = generator.hasNextNode(iterVar)
+}
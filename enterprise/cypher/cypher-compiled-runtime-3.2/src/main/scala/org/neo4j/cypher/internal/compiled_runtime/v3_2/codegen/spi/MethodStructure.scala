@@ -157,8 +157,11 @@ trait MethodStructure[E] {
   def lookupPropertyKey(propName: String, propVar: String)
   def indexSeek(iterVar: String, descriptorVar: String, value: E, codeGenType: CodeGenType): Unit
   def indexUniqueSeek(name: String, descriptorVar: String, value: E, codeGenType: CodeGenType): Unit
+  def compositeIndexSeek(iterVar: String, descriptorVar: String, propKeyVars: Seq[String], values: Seq[E],
+                         codeGenTypes: Seq[CodeGenType]): Unit
   def relType(relIdVar: String, typeVar: String): Unit
   def newIndexDescriptor(descriptorVar: String, labelVar: String, propKeyVar: String): Unit
+  def newCompositeIndexDescriptor(descriptorVar: String, labelVar: String, propKeyVars: Seq[String]): Unit
   def createRelExtractor(extractorName: String): Unit
   def nodeCountFromCountStore(expression: E): E
   def relCountFromCountStore(start: E, end: E, types: E*): E
@@ -1337,6 +1337,13 @@ class GeneratedMethodStructure(val fields: Fields, val generator: CodeBlock, aux
                       invoke(getIndexDescriptor, generator.load(labelVar), propertyIdsExpr ))
   }
 
+  override def newCompositeIndexDescriptor(descriptorVar: String, labelVar: String, propKeyVars: Seq[String]) = {
+    val getIndexDescriptor = method[NewIndexDescriptorFactory, NewIndexDescriptor]("forLabel", typeRef[Int], typeRef[Array[Int]])
+    val propertyIdsExpr = Expression.newArray(typeRef[Int], propKeyVars.map(propKeyVar => generator.load(propKeyVar)): _*)
+    generator.assign(typeRef[NewIndexDescriptor], descriptorVar,
+                      invoke(getIndexDescriptor, generator.load(labelVar), propertyIdsExpr ))
+  }
+
   override def indexSeek(iterVar: String, descriptorVar: String, value: Expression, codeGenType: CodeGenType) = {
     val predicate = generator.declare(typeRef[IndexQuery], s"${iterVar}Query")
     val local = generator.declare(typeRef[PrimitiveLongIterator], iterVar)
@@ -1351,6 +1358,21 @@ class GeneratedMethodStructure(val fields: Fields, val generator: CodeBlock, aux
     }
   }
 
+  override def compositeIndexSeek(iterVar: String, descriptorVar: String, propKeyVars: Seq[String],
+                                  values: Seq[Expression], codeGenTypes: Seq[CodeGenType]) = {
+    val local = generator.declare(typeRef[PrimitiveLongIterator], iterVar)
+    val boxedValues = values.zip(codeGenTypes).map {
+      case (value, codeGenType) => if (codeGenType.isPrimitive) Expression.box(value) else value
+    }
+    handleKernelExceptions(generator, fields.ro, _finalizers) { body =>
+      val predicates = propKeyVars.zip(boxedValues).map {
+        case (propKeyVar, boxedValue) => invoke(indexQueryExact, body.load(propKeyVar), boxedValue)
+      }
+      body.assign(local, invoke(readOperations, indexQuery, body.load(descriptorVar),
+        newArray(typeRef[IndexQuery], predicates: _*)))
+    }
+  }
+
   override def indexUniqueSeek(nodeVar: String, descriptorVar: String, value: Expression, codeGenType: CodeGenType) = {
     val local = generator.declare(typeRef[Long], nodeVar)
     val boxedValue = if (codeGenType.isPrimitive) Expression.box(value) else value
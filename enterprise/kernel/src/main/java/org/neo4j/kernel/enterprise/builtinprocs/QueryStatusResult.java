@@ -75,6 +75,10 @@ public class QueryStatusResult
     public final long waitTimeMillis; // TODO: we want this field to be of a Duration type (when Cypher supports that)
     /** @since Neo4j 3.2 */
     public final long idleTimeMillis; // TODO: we want this field to be of a Duration type (when Cypher supports that)
+    /** @since Neo4j 3.2 */
+    public final long pageHits;
+    /** @since Neo4j 3.2 */
+    public final long pageFaults;
 
     QueryStatusResult( ExecutingQuery query ) throws InvalidArgumentsException
     {
@@ -102,6 +106,8 @@ public class QueryStatusResult
         this.activeLockCount = query.activeLockCount();
         this.waitTimeMillis = query.waitTimeMillis();
         this.idleTimeMillis = query.idleTimeMillis();
+        this.pageHits = query.pageHits();
+        this.pageFaults = query.pageFaults();
         this.planner = query.planner();
         this.runtime = query.runtime();
         this.indexes = query.indexes();
@@ -57,4 +57,9 @@ public interface PageCache
                   "This number should be zero, or at least not growing, in a healthy database. " +
                   "Otherwise it could indicate drive failure, storage space, or permission problems." )
     public long getEvictionExceptions();
+
+    @Description( "Page cache statistics of each of the store files that have been mapped into the page cache: " +
+                  "the number of pins, hits, faults, evictions and flushes, and the bytes read and written, " +
+                  "since a file of that name was first mapped. Files of the same name are counted together." )
+    PagedFileInfo[] getMappedFiles();
 }
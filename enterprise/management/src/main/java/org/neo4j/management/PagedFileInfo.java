@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.management;
+
+import java.beans.ConstructorProperties;
+import java.io.Serializable;
+
+public final class PagedFileInfo implements Serializable
+{
+    private static final long serialVersionUID = 3915226931870427329L;
+
+    private String file;
+
+    private long pins;
+    private long hits;
+    private long faults;
+    private long evictions;
+    private long bytesRead;
+    private long flushes;
+    private long bytesWritten;
+
+    @ConstructorProperties( { "file", "pins", "hits", "faults", "evictions", "bytesRead", "flushes",
+            "bytesWritten" } )
+    public PagedFileInfo( String file, long pins, long hits, long faults, long evictions, long bytesRead,
+            long flushes, long bytesWritten )
+    {
+        this.file = file;
+        this.pins = pins;
+        this.hits = hits;
+        this.faults = faults;
+        this.evictions = evictions;
+        this.bytesRead = bytesRead;
+        this.flushes = flushes;
+        this.bytesWritten = bytesWritten;
+    }
+
+    public String getFile()
+    {
+        return file;
+    }
+
+    public long getPins()
+    {
+        return pins;
+    }
+
+    public long getHits()
+    {
+        return hits;
+    }
+
+    public long getFaults()
+    {
+        return faults;
+    }
+
+    public long getEvictions()
+    {
+        return evictions;
+    }
+
+    public long getBytesRead()
+    {
+        return bytesRead;
+    }
+
+    public long getFlushes()
+    {
+        return flushes;
+    }
+
+    public long getBytesWritten()
+    {
+        return bytesWritten;
+    }
+}
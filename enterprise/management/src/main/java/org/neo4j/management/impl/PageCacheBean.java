@@ -19,14 +19,19 @@
  */
 package org.neo4j.management.impl;
 
+import java.util.ArrayList;
+import java.util.List;
 import javax.management.NotCompliantMBeanException;
 
 import org.neo4j.helpers.Service;
 import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
+import org.neo4j.io.pagecache.monitoring.PagedFileCounters;
 import org.neo4j.jmx.impl.ManagementBeanProvider;
 import org.neo4j.jmx.impl.ManagementData;
 import org.neo4j.jmx.impl.Neo4jMBean;
+import org.neo4j.kernel.impl.store.StoreType;
 import org.neo4j.management.PageCache;
+import org.neo4j.management.PagedFileInfo;
 
 @Service.Implementation(ManagementBeanProvider.class)
 public final class PageCacheBean extends ManagementBeanProvider
@@ -105,5 +110,20 @@ public final class PageCacheBean extends ManagementBeanProvider
         {
             return pageCacheCounters.evictionExceptions();
         }
+
+        @Override
+        public PagedFileInfo[] getMappedFiles()
+        {
+            List<PagedFileInfo> infos = new ArrayList<>();
+            for ( PagedFileCounters file : pageCacheCounters.pagedFileCounters() )
+            {
+                if ( StoreType.shouldBeManagedByPageCache( file.file().getName() ) )
+                {
+                    infos.add( new PagedFileInfo( file.file().getAbsolutePath(), file.pins(), file.hits(),
+                            file.faults(), file.evictions(), file.bytesRead(), file.flushes(), file.bytesWritten() ) );
+                }
+            }
+            return infos.toArray( new PagedFileInfo[infos.size()] );
+        }
     }
 }
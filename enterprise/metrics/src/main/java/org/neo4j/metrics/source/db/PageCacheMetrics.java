@@ -22,8 +22,17 @@ package org.neo4j.metrics.source.db;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
 import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
+import org.neo4j.io.pagecache.monitoring.PagedFileCounters;
 import org.neo4j.kernel.impl.annotations.Documented;
+import org.neo4j.kernel.impl.store.StoreType;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 
 import static com.codahale.metrics.MetricRegistry.name;
@@ -43,11 +52,21 @@ public class PageCacheMetrics extends LifecycleAdapter
     public static final String PC_PINS = name( PAGE_CACHE_PREFIX, "pins" );
     @Documented( "The total number of page evictions executed by the page cache" )
     public static final String PC_EVICTIONS = name( PAGE_CACHE_PREFIX, "evictions" );
+    @Documented( "The total number of evictions of pages that had been accessed again after they were faulted in" )
+    public static final String PC_HOT_EVICTIONS = name( PAGE_CACHE_PREFIX, "hot_evictions" );
     @Documented( "The total number of page faults happened in the page cache" )
     public static final String PC_PAGE_FAULTS = name( PAGE_CACHE_PREFIX, "page_faults" );
+    @Documented( "The prefix of the page cache metrics of the individual store files. For every store file that " +
+                 "has been mapped there is a <prefix>.<file name>.hits, .faults, .evictions and .bytes_read " +
+                 "metric, where any character of the file name that is not a letter, digit, dash or underscore is " +
+                 "replaced by an underscore. Files of the same name are counted together" )
+    public static final String PC_FILE_PREFIX = name( PAGE_CACHE_PREFIX, "file" );
 
     private final MetricRegistry registry;
     private final PageCacheCounters pageCacheCounters;
+    private final ConcurrentMap<String,CopyOnWriteArrayList<PagedFileCounters>> filesByMetricName =
+            new ConcurrentHashMap<>();
+    private final Consumer<PagedFileCounters> fileListener = this::fileMapped;
 
     public PageCacheMetrics( MetricRegistry registry, PageCacheCounters pageCacheCounters )
     {
@@ -60,20 +79,61 @@ public class PageCacheMetrics extends LifecycleAdapter
     {
         registry.register( PC_PAGE_FAULTS, (Gauge<Long>) pageCacheCounters::faults );
         registry.register( PC_EVICTIONS, (Gauge<Long>) pageCacheCounters::evictions );
+        registry.register( PC_HOT_EVICTIONS, (Gauge<Long>) pageCacheCounters::hotEvictions );
         registry.register( PC_PINS, (Gauge<Long>) pageCacheCounters::pins );
         registry.register( PC_UNPINS, (Gauge<Long>) pageCacheCounters::unpins );
         registry.register( PC_FLUSHES, (Gauge<Long>) pageCacheCounters::flushes );
         registry.register( PC_EVICTION_EXCEPTIONS, (Gauge<Long>) pageCacheCounters::evictionExceptions );
+
+        // Most files are mapped after the metrics have started, so the file metrics are registered as they show up.
+        pageCacheCounters.addPagedFileCountersListener( fileListener );
+    }
+
+    private void fileMapped( PagedFileCounters counters )
+    {
+        // Only the store files have metrics of their own, so temporary files don't add metrics that never go away
+        if ( !StoreType.shouldBeManagedByPageCache( counters.file().getName() ) )
+        {
+            return;
+        }
+        String fileName = sanitize( counters.file().getName() );
+        filesByMetricName.computeIfAbsent( fileName, this::registerFileMetrics ).addIfAbsent( counters );
+    }
+
+    private CopyOnWriteArrayList<PagedFileCounters> registerFileMetrics( String fileName )
+    {
+        CopyOnWriteArrayList<PagedFileCounters> files = new CopyOnWriteArrayList<>();
+        registerFileMetric( fileName, "hits", files, PagedFileCounters::hits );
+        registerFileMetric( fileName, "faults", files, PagedFileCounters::faults );
+        registerFileMetric( fileName, "evictions", files, PagedFileCounters::evictions );
+        registerFileMetric( fileName, "bytes_read", files, PagedFileCounters::bytesRead );
+        return files;
+    }
+
+    private void registerFileMetric( String fileName, String counterName, List<PagedFileCounters> files,
+            ToLongFunction<PagedFileCounters> counter )
+    {
+        registry.register( name( PC_FILE_PREFIX, fileName, counterName ),
+                (Gauge<Long>) () -> files.stream().mapToLong( counter ).sum() );
+    }
+
+    private static String sanitize( String fileName )
+    {
+        return fileName.replaceAll( "[^A-Za-z0-9_-]", "_" );
     }
 
     @Override
     public void stop()
     {
+        pageCacheCounters.removePagedFileCountersListener( fileListener );
         registry.remove( PC_PAGE_FAULTS );
         registry.remove( PC_EVICTIONS );
+        registry.remove( PC_HOT_EVICTIONS );
         registry.remove( PC_PINS );
         registry.remove( PC_UNPINS );
         registry.remove( PC_FLUSHES );
         registry.remove( PC_EVICTION_EXCEPTIONS );
+        registry.removeMatching( ( name, metric ) -> name.startsWith( PC_FILE_PREFIX + "." ) );
+        filesByMetricName.clear();
     }
 }
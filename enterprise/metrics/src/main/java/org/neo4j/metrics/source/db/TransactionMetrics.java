@@ -26,6 +26,7 @@ import java.util.function.Supplier;
 
 import org.neo4j.kernel.impl.annotations.Documented;
 import org.neo4j.kernel.impl.transaction.TransactionCounters;
+import org.neo4j.kernel.impl.transaction.log.DurabilityLag;
 import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 
@@ -74,16 +75,25 @@ public class TransactionMetrics extends LifecycleAdapter
     @Documented( "The ID of the last closed transaction" )
     public static final String LAST_CLOSED_TX_ID = name( TRANSACTION_PREFIX, "last_closed_tx_id" );
 
+    @Documented( "The number of committed transactions not yet forced to disk" )
+    public static final String UNFORCED_TX = name( TRANSACTION_PREFIX, "unforced" );
+    @Documented( "The time in milliseconds since the oldest committed transaction not yet forced to disk was " +
+                 "committed" )
+    public static final String DURABILITY_LAG = name( TRANSACTION_PREFIX, "durability_lag" );
+
     private final MetricRegistry registry;
     private final TransactionCounters transactionCounters;
     private final Supplier<TransactionIdStore> transactionIdStore;
+    private final Supplier<DurabilityLag> durabilityLag;
 
     public TransactionMetrics( MetricRegistry registry,
-            Supplier<TransactionIdStore> transactionIdStore, TransactionCounters transactionCounters )
+            Supplier<TransactionIdStore> transactionIdStore, TransactionCounters transactionCounters,
+            Supplier<DurabilityLag> durabilityLag )
     {
         this.registry = registry;
         this.transactionIdStore = transactionIdStore;
         this.transactionCounters = transactionCounters;
+        this.durabilityLag = durabilityLag;
     }
 
     @Override
@@ -118,6 +128,9 @@ public class TransactionMetrics extends LifecycleAdapter
                 transactionIdStore.get().getLastCommittedTransactionId() );
         registry.register( LAST_CLOSED_TX_ID, (Gauge<Long>) () ->
                 transactionIdStore.get().getLastClosedTransactionId() );
+
+        registry.register( UNFORCED_TX, (Gauge<Long>) () -> durabilityLag.get().unforcedTransactions() );
+        registry.register( DURABILITY_LAG, (Gauge<Long>) () -> durabilityLag.get().durabilityLagMillis() );
     }
 
     @Override
@@ -144,5 +157,8 @@ public class TransactionMetrics extends LifecycleAdapter
 
         registry.remove( LAST_COMMITTED_TX_ID );
         registry.remove( LAST_CLOSED_TX_ID );
+
+        registry.remove( UNFORCED_TX );
+        registry.remove( DURABILITY_LAG );
     }
 }
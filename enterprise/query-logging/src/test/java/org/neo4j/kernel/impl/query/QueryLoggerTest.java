@@ -27,6 +27,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.query.ExecutingQuery;
 import org.neo4j.kernel.impl.query.QueryLoggerKernelExtension.QueryLogger;
 import org.neo4j.kernel.impl.query.clientconnection.ClientConnectionInfo;
@@ -310,6 +311,7 @@ public class QueryLoggerTest
                 params,
                 metaData,
                 () -> 0,
+                PageCursorTracer.NULL,
                 Thread.currentThread(),
                 clock,
                 CpuClock.CPU_CLOCK );
@@ -42,25 +42,38 @@ public class TimerTransactionTracer implements TransactionTracer, CheckPointTrac
     private static volatile long logCheckPointBegin;
     private static volatile long logRotateBegin;
     private static final Histogram logForceTimes = new Histogram( 1000, TimeUnit.MINUTES.toNanos( 45 ), 0 );
+    private static final Histogram logForceBatchSizes = new Histogram( 0 );
     private static final Histogram logRotateTimes = new Histogram( 1000, TimeUnit.MINUTES.toNanos( 45 ), 0 );
     private static final Histogram logCheckPointTimes = new Histogram( 1000, TimeUnit.MINUTES.toNanos( 45 ), 0 );
 
     public static void printStats( PrintStream out )
     {
         printStat( out, "Log force millisecond percentiles:", logForceTimes );
+        printStat( out, "Log force batch size percentiles:", logForceBatchSizes, 1.0 );
         printStat( out, "Log rotate millisecond percentiles:", logRotateTimes );
         printStat( out, "Log check point millisecond percentiles:", logCheckPointTimes );
     }
 
     private static void printStat( PrintStream out, String message, Histogram histogram )
+    {
+        printStat( out, message, histogram, 1000000.0 );
+    }
+
+    private static void printStat( PrintStream out, String message, Histogram histogram, double unitScale )
     {
         out.println( message );
-        histogram.outputPercentileDistribution( out, 1000000.0 );
+        histogram.outputPercentileDistribution( out, unitScale );
         out.println();
     }
 
     private static final LogForceEvent LOG_FORCE_EVENT = new LogForceEvent()
     {
+        @Override
+        public void setBatchSize( long transactions )
+        {
+            logForceBatchSizes.recordValue( transactions );
+        }
+
         @Override
         public void close()
         {
@@ -23,7 +23,6 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintStream;
-import java.nio.ByteBuffer;
 import java.util.TimeZone;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -35,7 +34,6 @@ import org.neo4j.cursor.IOCursor;
 import org.neo4j.helpers.Args;
 import org.neo4j.io.fs.DefaultFileSystemAbstraction;
 import org.neo4j.io.fs.FileSystemAbstraction;
-import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.kernel.impl.transaction.command.Command.NodeCommand;
 import org.neo4j.kernel.impl.transaction.command.Command.PropertyCommand;
 import org.neo4j.kernel.impl.transaction.command.Command.RelationshipCommand;
@@ -61,8 +59,8 @@ import org.neo4j.tools.dump.InconsistencyReportReader.Inconsistencies;
 import static java.util.TimeZone.getTimeZone;
 import static org.neo4j.helpers.Format.DEFAULT_TIME_ZONE;
 import static org.neo4j.kernel.impl.transaction.log.LogVersionBridge.NO_MORE_CHANNELS;
+import static org.neo4j.kernel.impl.transaction.log.PhysicalLogFile.openForVersion;
 import static org.neo4j.kernel.impl.transaction.log.ReadAheadChannel.DEFAULT_READ_AHEAD_SIZE;
-import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
 
 /**
@@ -87,11 +85,12 @@ public class DumpLogicalLog
         File file = new File( filenameOrDirectory );
         printFile( file, out );
         File firstFile;
+        PhysicalLogFiles logFiles;
         LogVersionBridge bridge;
         if ( file.isDirectory() )
         {
             // Use natural log version bridging if a directory is supplied
-            final PhysicalLogFiles logFiles = new PhysicalLogFiles( file, fileSystem );
+            logFiles = new PhysicalLogFiles( file, fileSystem );
             bridge = new ReaderLogVersionBridge( fileSystem, logFiles )
             {
                 @Override
@@ -109,31 +108,36 @@ public class DumpLogicalLog
         }
         else
         {
-            // Use no bridging, simple reading this single log file if a file is supplied
+            // Use no bridging, simple reading this single log file if a file is supplied,
+            // whatever its name and the version in its header
             firstFile = file;
+            logFiles = new PhysicalLogFiles( file.getParentFile(), fileSystem )
+            {
+                @Override
+                public File getLogFileForVersion( long version )
+                {
+                    return file;
+                }
+            };
             bridge = NO_MORE_CHANNELS;
         }
 
-        StoreChannel fileChannel = fileSystem.open( firstFile, "r" );
-        ByteBuffer buffer = ByteBuffer.allocateDirect( LOG_HEADER_SIZE );
-
         LogHeader logHeader;
         try
         {
-            logHeader = readLogHeader( buffer, fileChannel, false, firstFile );
+            logHeader = readLogHeader( fileSystem, firstFile );
         }
         catch ( IOException ex )
         {
             out.println( "Unable to read timestamp information, no records in logical log." );
             out.println( ex.getMessage() );
-            fileChannel.close();
             throw ex;
         }
         out.println( "Logical log format: " + logHeader.logFormatVersion + " version: " + logHeader.logVersion +
                 " with prev committed tx[" + logHeader.lastCommittedTxId + "]" );
 
-        PhysicalLogVersionedStoreChannel channel = new PhysicalLogVersionedStoreChannel(
-                fileChannel, logHeader.logVersion, logHeader.logFormatVersion );
+        // Opened like the database opens it, so that compressed logs are read as such
+        PhysicalLogVersionedStoreChannel channel = openForVersion( logFiles, fileSystem, logHeader.logVersion, false );
         ReadableClosablePositionAwareChannel logChannel = new ReadAheadLogChannel( channel, bridge, DEFAULT_READ_AHEAD_SIZE );
         LogEntryReader<ReadableClosablePositionAwareChannel> entryReader = new VersionAwareLogEntryReader<>();
 
@@ -239,7 +239,7 @@ class RebuildFromLogs
         long applyTransactionsFrom( File sourceDir, long upToTxId ) throws Exception
         {
             PhysicalLogFiles logFiles = new PhysicalLogFiles( sourceDir, fs );
-            int startVersion = 0;
+            long startVersion = logFiles.getLowestLogVersion();
             ReaderLogVersionBridge versionBridge = new ReaderLogVersionBridge( fs, logFiles );
             PhysicalLogVersionedStoreChannel startingChannel = openForVersion( logFiles, fs, startVersion, false );
             ReadableLogChannel channel = new ReadAheadLogChannel( startingChannel, versionBridge );